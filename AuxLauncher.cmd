@@ -1,8 +1,8 @@
 @echo off
 if "%1" == "" goto error_msg
-java -cp target;target\aux_classes %1
+java -cp target;target\aux_classes %*
 goto end
 :error_msg
 echo ERROR: Main class to execute needed as argument.
-echo Valid classes: Z80TestZex
+echo Valid classes: Z80TestZex, Z80FlagsBench, Z80CpuBench, Z80RomTranslator, Z80FusionProfiler, Z80DiffTester, Z80Fuzzer, Z80SingleStepTests, Z80FuseTests, Z80CpmRun
 :end
\ No newline at end of file
@@ -0,0 +1,193 @@
+/***********************************************************************************************
+* Ejecución de programas CP/M 2.2 (.COM) por lotes sobre Z80CpmMachine
+*
+* Copyright (c) 2025 Jose Andres Calvo Conde
+*
+* Un programa: se ejecuta con la consola del sistema (entrada y salida estándar) y la unidad A:
+* en el directorio actual, salvo que se indiquen otras con -drive. Con -jobs se lee un fichero
+* con una orden por línea ("programa.com args...", las líneas vacías y las que empiezan por # se
+* ignoran) y cada orden se ejecuta en su propia máquina en un grupo de hilos; la salida de cada
+* trabajo se guarda aparte y se muestra en el orden del fichero.
+*
+* La CPU va a velocidad ilimitada salvo con -slow (4 MHz). -stats muestra los tStates, el tiempo
+* de carga y el de ejecución de cada programa.
+*
+* Uso: AuxLauncher.cmd Z80CpmRun [-engine nombre] [-lazyflags] [-drive X=directorio ...] [-slow]
+*      [-stats] programa.com [args...]
+*      AuxLauncher.cmd Z80CpmRun [-engine nombre] [-lazyflags] [-drive X=directorio ...]
+*      [-threads n] [-stats] -jobs fichero
+************************************************************************************************/
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class Z80CpmRun {
+
+    private static String engine = System.getProperty(Z80Engines.PROPERTY, Z80Engines.INTERPRETER);
+    private static boolean lazyFlags;
+    private static boolean slow;
+    private static boolean stats;
+    private static final Path[] drives = new Path[Z80CpmBdos.DRIVES];
+
+    // Resultado de un trabajo
+    private static final class Job {
+        String output;
+        long tStates;
+        double loadMillis;
+        double runMillis;
+        String error;
+    }
+
+    // Ejecuta "programa args..." en una máquina nueva con la consola indicada
+    private static Job run(List<String> command, InputStream input, PrintStream console) {
+        Job job = new Job();
+        long start = System.nanoTime();
+        try (Z80CpmMachine machine = new Z80CpmMachine(engine, input, console)) {
+            machine.getCpu().setLazyFlags(lazyFlags);
+            machine.setClockSpeed(slow ? Constants.CLOCK_SPEED_NORMAL : Constants.CLOCK_SPEED_UNLIMITED);
+            for (int i = 0; i < drives.length; i++) {
+                machine.setDrive(i, drives[i]);
+            }
+            machine.load(program(command.get(0)), command.subList(1, command.size()).toArray(new String[0]));
+            long loaded = System.nanoTime();
+            job.loadMillis = (loaded - start) / 1e6;
+            job.tStates = machine.run();
+            job.runMillis = (System.nanoTime() - loaded) / 1e6;
+        } catch (IOException | RuntimeException e) {
+            job.error = e.toString();
+        }
+        console.flush();
+        return job;
+    }
+
+    // Programa: ruta del anfitrión o nombre en la unidad A: (con o sin .COM)
+    private static Path program(String name) throws IOException {
+        List<Path> candidates = new ArrayList<>(Arrays.asList(Paths.get(name), Paths.get(name + ".com")));
+        if (drives[0] != null) {
+            candidates.add(drives[0].resolve(name.toLowerCase()));
+            candidates.add(drives[0].resolve(name.toLowerCase() + ".com"));
+        }
+        for (Path path : candidates) {
+            if (Files.isRegularFile(path)) {
+                return path;
+            }
+        }
+        throw new IOException("can't open program '" + name + "'");
+    }
+
+    private static void printStats(Job job) {
+        if (stats) {
+            System.out.printf("*** %d T-states, load %.1f ms, run %.1f ms (%.1f MHz)%n", job.tStates, job.loadMillis,
+                    job.runMillis, job.runMillis > 0 ? job.tStates / job.runMillis / 1e3 : 0.0);
+        }
+    }
+
+    private static int runJobs(String filename, int threads) throws IOException, InterruptedException, ExecutionException {
+        List<List<String>> commands = new ArrayList<>();
+        for (String line : Files.readAllLines(Paths.get(filename))) {
+            line = line.trim();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                commands.add(Arrays.asList(line.split("\\s+")));
+            }
+        }
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<Job>> futures = new ArrayList<>();
+        for (List<String> command : commands) {
+            futures.add(pool.submit(() -> {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                Job job = run(command, null, new PrintStream(buffer, false, "ISO-8859-1"));
+                job.output = new String(buffer.toByteArray(), StandardCharsets.ISO_8859_1);
+                return job;
+            }));
+        }
+        pool.shutdown();
+        int errors = 0;
+        long tStatesTotal = 0;
+        for (int i = 0; i < commands.size(); i++) {
+            Job job = futures.get(i).get();
+            System.out.println("*** JOB " + (i + 1) + ": " + String.join(" ", commands.get(i)));
+            System.out.print(job.output);
+            if (!job.output.isEmpty() && !job.output.endsWith("\n")) {
+                System.out.println();
+            }
+            if (job.error != null) {
+                System.out.println("*** error: " + job.error);
+                errors++;
+            }
+            printStats(job);
+            tStatesTotal += job.tStates;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("*** %d jobs on %d threads, %d T-states in %.2f s, %d with errors%n", commands.size(),
+                threads, tStatesTotal, seconds, errors);
+        return errors != 0 ? 1 : 0;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        String jobs = null;
+        int i = 0;
+        for (; i < args.length && args[i].startsWith("-"); i++) {
+            if (args[i].equals("-engine") && i + 1 < args.length) {
+                engine = args[++i];
+            } else if (args[i].equals("-lazyflags")) {
+                lazyFlags = true;
+            } else if (args[i].equals("-slow")) {
+                slow = true;
+            } else if (args[i].equals("-stats")) {
+                stats = true;
+            } else if (args[i].equals("-threads") && i + 1 < args.length) {
+                threads = Math.max(1, Integer.parseInt(args[++i]));
+            } else if (args[i].equals("-jobs") && i + 1 < args.length) {
+                jobs = args[++i];
+            } else if (args[i].equals("-drive") && i + 1 < args.length) {
+                String drive = args[++i].toUpperCase();
+                int index = drive.charAt(0) - 'A';
+                if (drive.length() < 3 || drive.charAt(1) != '=' || index < 0 || index >= drives.length) {
+                    System.err.println("error: bad drive '" + args[i] + "', expected X=directory");
+                    System.exit(2);
+                }
+                drives[index] = Paths.get(args[i].substring(2));
+            } else {
+                System.err.println("error: unknown option '" + args[i] + "'");
+                System.exit(2);
+            }
+        }
+        if (!Z80Engines.names().contains(engine)) {
+            System.err.println("error: unknown engine '" + engine + "', expected one of " + Z80Engines.names());
+            System.exit(2);
+        }
+        if (drives[0] == null) {
+            drives[0] = Paths.get(".");
+        }
+
+        if (jobs != null) {
+            System.exit(runJobs(jobs, threads));
+        }
+        if (i >= args.length) {
+            System.err.println("usage: Z80CpmRun [options] program.com [args...] | [options] -jobs file");
+            System.exit(2);
+        }
+        Job job = run(Arrays.asList(args).subList(i, args.length), System.in, System.out);
+        System.out.println();
+        if (job.error != null) {
+            System.err.println("error: " + job.error);
+        }
+        printStats(job);
+        System.exit(job.error != null ? 1 : 0);
+    }
+}
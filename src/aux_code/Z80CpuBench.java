@@ -0,0 +1,241 @@
+/***********************************************************************************************
+* Benchmark de velocidad de la CPU sobre pequeños programas Z80
+*
+* Copyright (c) 2025 Jose Andres Calvo Conde
+*
+* Cada carga de trabajo es un bucle Z80 sin fin que se ejecuta con Z80.run por cuadros de
+* 69888 tStates. Se sigue el mismo esquema que JMH a mano (ver Z80FlagsBench): rondas de
+* calentamiento y rondas medidas, informando de los MHz emulados y de los MIPS (millones de
+* instrucciones Z80 por segundo). Las instrucciones por tState de cada carga se cuentan antes
+* con el intérprete de referencia, así que los MIPS de los distintos motores son comparables.
+*
+* Cargas de trabajo:
+* - basic: bucle con instrucciones sin prefijo (cargas, aritmética, saltos)
+* - index: rutina de sprites basada en IX/IY (instrucciones DD/FD)
+* - copy: copia con contador y pila (pares del perfil de superinstrucciones)
+* - paging: cambia el banco de C000h de un 128K (Z80MemoryMapper) en cada vuelta y llama a una
+*   rutina del banco recién mapeado; al final informa del coste de cada cambio de banco
+*
+* Opciones:
+* - -microops: motor de micro-operaciones (Z80MicroOpEngine) en lugar del intérprete de referencia
+* - -blockcache: ejecución con la caché de bloques predecodificados (Z80.setBlockCache)
+* - -fusion: caché de bloques con superinstrucciones (Z80.setFusion)
+* - -recompiler: ejecución con el recompilador dinámico (Z80.setRecompiler, necesita un JDK)
+*
+* Uso: AuxLauncher.cmd Z80CpuBench [-microops] [-blockcache] [-fusion] [-recompiler] [carga ...]
+************************************************************************************************/
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class Z80CpuBench {
+    private static final int FRAMES = 500; // Cuadros por ronda
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+    private static final int CODE = 0x8000; // Dirección de carga de los programas
+
+    private static final int BANK_SWITCHES = 10000000; // Cambios de banco para medir su coste
+
+    private static final String[] WORKLOADS = { "basic", "index", "copy", "paging" };
+
+    // Rutina que la carga paging copia en los bancos 0, 1, 4 y 5 en C000h
+    private static final int[] BANK_ROUTINE = {
+            0x7E, //                   ld a,(hl)
+            0x23, //                   inc hl
+            0x82, //                   add a,d
+            0x57, //                   ld d,a
+            0xC9 //                    ret
+    };
+
+    private static boolean microOps;
+    private static boolean blockCache;
+    private static boolean fusion;
+    private static boolean recompiler;
+
+    // Programa de cada carga de trabajo
+    private static int[] program(String name) {
+        switch (name) {
+            case "basic":
+                return new int[] {
+                        0x21, 0x00, 0x90, //       ld hl,9000h
+                        0x06, 0x00, //             ld b,0
+                        0x7E, //           loop:   ld a,(hl)
+                        0x23, //                   inc hl
+                        0x86, //                   add a,(hl)
+                        0x77, //                   ld (hl),a
+                        0x4F, //                   ld c,a
+                        0x0D, //                   dec c
+                        0x10, 0xF8, //             djnz loop
+                        0x18, 0xF1 //              jr 8000h
+                };
+            case "index":
+                return new int[] {
+                        0xFD, 0x21, 0x00, 0xA0, // ld iy,0A000h
+                        0xDD, 0x21, 0x00, 0x90, // start: ld ix,9000h
+                        0x06, 0x40, //             ld b,64
+                        0xDD, 0x7E, 0x00, //       loop: ld a,(ix+0)
+                        0xDD, 0x86, 0x01, //       add a,(ix+1)
+                        0xDD, 0x77, 0x02, //       ld (ix+2),a
+                        0xDD, 0x34, 0x03, //       inc (ix+3)
+                        0xDD, 0x6E, 0x04, //       ld l,(ix+4)
+                        0xDD, 0x66, 0x05, //       ld h,(ix+5)
+                        0xFD, 0x75, 0x00, //       ld (iy+0),l
+                        0x11, 0x08, 0x00, //       ld de,8
+                        0xDD, 0x19, //             add ix,de
+                        0x10, 0xE4, //             djnz loop
+                        0x18, 0xDC //              jr start
+                };
+            case "copy":
+                return new int[] {
+                        0x21, 0x00, 0x90, //       start: ld hl,9000h
+                        0x11, 0x00, 0xA0, //       ld de,0A000h
+                        0x0E, 0x40, //             ld c,64
+                        0x7E, //           loop:   ld a,(hl)
+                        0x12, //                   ld (de),a
+                        0x13, //                   inc de
+                        0x23, //                   inc hl
+                        0xC5, //                   push bc
+                        0xE5, //                   push hl
+                        0xE1, //                   pop hl
+                        0xC1, //                   pop bc
+                        0x0D, //                   dec c
+                        0xC2, 0x08, 0x80, //       jp nz,loop
+                        0x18, 0xEB //              jr start
+                };
+            case "paging":
+                return new int[] {
+                        0x01, 0xFD, 0x7F, //       ld bc,7FFDh
+                        0x1E, 0x00, //             ld e,0
+                        0x7B, //           loop:   ld a,e
+                        0xE6, 0x05, //             and 5
+                        0xED, 0x79, //             out (c),a
+                        0xCD, 0x00, 0xC0, //       call 0C000h
+                        0x1C, //                   inc e
+                        0x18, 0xF5 //              jr loop
+                };
+            default:
+                return null;
+        }
+    }
+
+    private static Z80 createCpu(String name, int[] code) {
+        Z80 cpu = loadCpu(microOps ? new Z80MicroOpEngine() : new Z80(), name, code);
+        cpu.setBlockCache(blockCache);
+        cpu.setFusion(fusion);
+        cpu.setRecompiler(recompiler);
+        return cpu;
+    }
+
+    // Conecta la memoria a la CPU y carga el programa. La carga paging usa páginas de 16 KB y la
+    // memoria por bancos de un 128K (el programa queda en el banco 2, fijo en 8000h)
+    private static Z80 loadCpu(Z80 cpu, String name, int[] code) {
+        Z80Bus dataBus;
+        if (name.equals("paging")) {
+            dataBus = new Z80Bus(Z80Bus.MAX_PAGE_SIZE);
+            Z80MemoryMapper mapper = new Z80MemoryMapper(dataBus, Z80MemoryMapper.MODEL_128K);
+            dataBus.addBusComponent(mapper);
+            for (int bank : new int[] { 0, 1, 4, 5 }) {
+                for (int i = 0; i < BANK_ROUTINE.length; i++) {
+                    mapper.getRam(bank).getMemData()[i] = (byte) BANK_ROUTINE[i];
+                }
+            }
+        } else {
+            dataBus = new Z80Bus();
+            dataBus.addBusComponent(new Z80BusComponent(Constants.MEM_COMPONENT, 0, 1024 * 64));
+        }
+        cpu.setDataBus(dataBus);
+        for (int i = 0; i < code.length; i++) {
+            dataBus.memWrite(CODE + i, (byte) code[i]);
+        }
+        cpu.getRegisters().setPC((short) CODE);
+        cpu.getRegisters().setSP((short) 0xFF00);
+        return cpu;
+    }
+
+    // Ejecuta una ronda y devuelve los MHz emulados
+    private static double round(Z80 cpu) {
+        long start = System.nanoTime();
+        long tStates = 0;
+        for (int i = 0; i < FRAMES; i++) {
+            tStates += cpu.run(Constants.TSTATES_FRAME_48K);
+        }
+        return tStates / ((System.nanoTime() - start) / 1e3);
+    }
+
+    // Instrucciones por tState de la carga, contadas con el intérprete de referencia
+    private static double instructionsPerTState(String name, int[] code) {
+        Z80 cpu = loadCpu(new Z80(), name, code);
+        long end = 10L * Constants.TSTATES_FRAME_48K;
+        long[] instructions = { 0 };
+        cpu.runUntil(() -> {
+            instructions[0]++;
+            return cpu.getTStates() >= end;
+        });
+        return (double) instructions[0] / cpu.getTStates();
+    }
+
+    private static void measure(String name) {
+        int[] code = program(name);
+        if (code == null) {
+            System.err.println("error: unknown workload '" + name + "'");
+            return;
+        }
+        double ratio = instructionsPerTState(name, code);
+        Z80 cpu = createCpu(name, code);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            round(cpu);
+        }
+        double best = 0;
+        double total = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            double mhz = round(cpu);
+            best = Math.max(best, mhz);
+            total += mhz;
+        }
+        System.out.printf("%-10s best %8.1f MHz %7.1f MIPS   mean %8.1f MHz %7.1f MIPS%n", name, best, best * ratio,
+                total / ROUNDS, total / ROUNDS * ratio);
+        if (cpu.isBlockCache()) {
+            System.out.println("           " + cpu.getBlockCache());
+        }
+        if (cpu.isRecompiler()) {
+            System.out.println("           " + cpu.getRecompiler());
+        }
+        if (name.equals("paging")) {
+            System.out.printf("           bank switch %.1f ns%n", bankSwitchNanos(cpu.getDataBus()));
+        }
+    }
+
+    // Coste de un cambio de banco en C000h (escritura en 7FFDh), con la caché de la CPU conectada
+    private static double bankSwitchNanos(Z80Bus dataBus) {
+        for (int i = 0; i < BANK_SWITCHES / 10; i++) {
+            dataBus.ioWrite(0x7FFD, (byte) (i & 1));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < BANK_SWITCHES; i++) {
+            dataBus.ioWrite(0x7FFD, (byte) (i & 1));
+        }
+        return (double) (System.nanoTime() - start) / BANK_SWITCHES;
+    }
+
+    public static void main(String[] args) {
+        List<String> names = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.equals("-microops")) {
+                microOps = true;
+            } else if (arg.equals("-blockcache")) {
+                blockCache = true;
+            } else if (arg.equals("-fusion")) {
+                fusion = true;
+            } else if (arg.equals("-recompiler")) {
+                recompiler = true;
+            } else {
+                names.add(arg);
+            }
+        }
+        System.out.println("Z80CpuBench - emulated CPU speed" + (microOps ? " (micro-ops)" : "") + (recompiler ? " (recompiler)" : fusion ? " (superinstructions)" : blockCache ? " (block cache)" : ""));
+        for (String name : names.isEmpty() ? Arrays.asList(WORKLOADS) : names) {
+            measure(name);
+        }
+    }
+}
@@ -0,0 +1,521 @@
+/***********************************************************************************************
+* Pruebas diferenciales en paralelo entre dos motores de CPU
+*
+* Copyright (c) 2025 Jose Andres Calvo Conde
+*
+* Ejecuta dos motores (ver Z80Engines) sobre copias idénticas de un programa aleatorio generado a
+* partir de una semilla, paso a paso, y después de cada paso compara el fichero de registros
+* completo (incluidos los flags, WZ, R, los IFF, IM, HALT y Q), los tStates, el motivo de parada y
+* las escrituras en memoria del paso. En la primera divergencia muestra los campos distintos, las
+* escrituras de cada motor y una ventana de la memoria desensamblada alrededor del PC.
+*
+* Toda la memoria es plana (Z80BusComponent sin subclase), así que los motores con caché
+* predecodifican y ejecutan bloques sobre ella; las escrituras las registra el bus (RecordingBus),
+* tanto las de memWrite como las copias en bloque que se avisan con memWritten.
+*
+* Pasos:
+* - instrucción a instrucción (por defecto): runUntil con una condición que para tras cada
+*   instrucción; los motores con caché ejecutan una sola instrucción de cada bloque
+* - -block: run con presupuestos aleatorios de tStates, que ejecuta bloques completos en los
+*   motores con caché (blockcache, fusion, recompiler), con sus superinstrucciones y las
+*   instrucciones de bloque en bulk
+*
+* Memoria:
+* - por defecto 64 KB de RAM en un bus con páginas de 1 KB
+* - -pagesize n: bus con páginas de n bytes (de 256 a 16384)
+* - -rom: ROM en 0000h-3FFFh con sus escrituras desviadas a una RAM aparte (Z80Bus.mapWrite) y
+*   RAM encima
+* - -paging modelo: memoria por bancos de 16 KB (Z80MemoryMapper) de 128k, plus3, pentagon128 o
+*   pentagon512, con cada banco y cada ROM rellenos de código aleatorio. El programa cambia de banco
+*   con sus propias salidas a los puertos de paginación; como además acaba bloqueando la paginación,
+*   hay eventos que la reinician y escriben valores aleatorios en 7FFDh (y 1FFDh). Se comparan
+*   también los puertos de paginación en cada paso y todos los bancos al terminar
+*
+* Antes de cada paso se aplican a los dos motores los mismos eventos aleatorios: línea INT, NMI y
+* escrituras externas en memoria (código automodificado). Con -threads las semillas se reparten
+* entre varios hilos; cada semilla es independiente y se informa de la divergencia de la semilla
+* más baja.
+*
+* Uso: AuxLauncher.cmd Z80DiffTester motorA motorB [-seeds n] [-first n] [-steps n] [-block]
+*                                    [-threads n] [-lazyflags] [-pagesize n] [-rom] [-paging modelo]
+************************************************************************************************/
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class Z80DiffTester {
+    private static final int HISTORY = 8; // Instrucciones anteriores en la ventana de desensamblado
+    private static final int LOOKAHEAD = 4; // Instrucciones siguientes en la ventana
+    private static final int MAX_BLOCK_TSTATES = 20000; // Presupuesto máximo de un paso en modo -block
+
+    static final String[] FIELDS = { "AF", "BC", "DE", "HL", "IX", "IY", "SP", "PC", "WZ", "I", "R",
+            "AF'", "BC'", "DE'", "HL'", "IM", "IFF1", "IFF2", "HALT", "Q", "tStates", "stop" };
+
+    private static String engineA;
+    private static String engineB;
+    private static int steps = 10000;
+    private static boolean blockMode;
+    private static boolean lazyFlags;
+    private static int pageSize = Z80Bus.DEFAULT_PAGE_SIZE;
+    private static boolean rom;
+    private static int pagingModel = -1; // Modelo de Z80MemoryMapper (-1: sin bancos)
+    private static final String[] PAGING_MODELS = { "128k", "plus3", "pentagon128", "pentagon512" }; // Orden de los MODEL_*
+
+    // Bus que guarda las escrituras del paso en curso (también lo usa Z80Fuzzer). Las copias en
+    // bloque sobre memoria plana no pasan por memWrite: se registran con el valor final al avisar de
+    // ellas con memWritten, en orden ascendente, así que las escrituras se comparan por su efecto
+    // (última escritura de cada dirección) cuando el orden no coincide
+    static class RecordingBus extends Z80Bus {
+        private int[] writes = new int[64]; // (dirección << 8) | valor
+        private int count;
+
+        RecordingBus(int pageSize) {
+            super(pageSize);
+        }
+
+        @Override
+        public void memWrite(int address, byte value) {
+            super.memWrite(address, value);
+            record(address, value);
+        }
+
+        @Override
+        public void memWritten(int first, int last) {
+            super.memWritten(first, last);
+            for (int address = first; address <= last; address++) {
+                byte[] data = plainData(address, address, true);
+                if (data != null) {
+                    record(address, data[plainIndex(address, true)]);
+                }
+            }
+        }
+
+        private void record(int address, byte value) {
+            if (count == writes.length) {
+                writes = Arrays.copyOf(writes, count * 2);
+            }
+            writes[count++] = ((address & 0xFFFF) << 8) | (value & 0xFF);
+        }
+
+        void clearWrites() {
+            count = 0;
+        }
+
+        int writeCount() {
+            return count;
+        }
+
+        int writeAddress(int index) {
+            return writes[index] >>> 8;
+        }
+
+        boolean sameWrites(RecordingBus other) {
+            if (count == other.count) {
+                int i = 0;
+                while (i < count && writes[i] == other.writes[i]) {
+                    i++;
+                }
+                if (i == count) {
+                    return true;
+                }
+            }
+            return Arrays.equals(effect(), other.effect());
+        }
+
+        // Escrituras ordenadas por dirección, solo la última de cada una
+        private int[] effect() {
+            long[] keys = new long[count];
+            for (int i = 0; i < count; i++) {
+                keys[i] = (long) (writes[i] >>> 8) << 32 | i;
+            }
+            Arrays.sort(keys);
+            int[] result = new int[count];
+            int n = 0;
+            for (int i = 0; i < count; i++) {
+                if (i + 1 == count || keys[i + 1] >>> 32 != keys[i] >>> 32) {
+                    result[n++] = writes[(int) keys[i]];
+                }
+            }
+            return Arrays.copyOf(result, n);
+        }
+
+        String describeWrites() {
+            if (count == 0) {
+                return "none";
+            }
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < count; i++) {
+                if (i == 16) {
+                    text.append(String.format("... (%d writes)", count));
+                    break;
+                }
+                text.append(String.format("%04X=%02X ", writes[i] >>> 8, writes[i] & 0xFF));
+            }
+            return text.toString().trim();
+        }
+    }
+
+    // Un motor con su bus y su memoria
+    private static class Side {
+        final String name;
+        final Z80Engine cpu;
+        final RecordingBus dataBus;
+        final Z80BusComponent[] memories; // Memorias que se pueden escribir, en orden de dirección
+        final Z80MemoryMapper mapper; // null si no hay bancos
+
+        Side(String name, byte[] program, long seed) {
+            this.name = name;
+            dataBus = new RecordingBus(pageSize);
+            int first = 0;
+            if (pagingModel >= 0) {
+                mapper = new Z80MemoryMapper(dataBus, pagingModel);
+                dataBus.addBusComponent(mapper);
+                memories = new Z80BusComponent[0]; // Se comparan los bancos
+                for (int bank = 0; bank < mapper.getRomBanks() + mapper.getRamBanks(); bank++) {
+                    byte[] image = bank < 4 ? program : program(seed * 64 + bank / 4);
+                    Z80BusComponent component = bank < mapper.getRomBanks() ? mapper.getRom(bank)
+                            : mapper.getRam(bank - mapper.getRomBanks());
+                    System.arraycopy(image, (bank % 4) * Z80MemoryMapper.BANK_SIZE, component.getMemData(), 0,
+                            Z80MemoryMapper.BANK_SIZE);
+                }
+                first = program.length; // Ya cargado en los bancos
+            } else if (rom) {
+                Z80BusComponent romComponent = new Z80BusComponent(Constants.ROM_COMPONENT, 0, 0x4000);
+                System.arraycopy(program, 0, romComponent.getMemData(), 0, 0x4000);
+                Z80BusComponent shadow = new Z80BusComponent(Constants.MEM_COMPONENT, 0, 0x4000); // Escrituras bajo la ROM
+                memories = new Z80BusComponent[] { shadow, new Z80BusComponent(Constants.MEM_COMPONENT, 0x4000, 0xC000) };
+                mapper = null;
+                dataBus.addBusComponent(romComponent);
+                dataBus.addBusComponent(memories[1]);
+                dataBus.mapWrite(0, 0x4000, shadow);
+                first = 0x4000;
+            } else {
+                memories = new Z80BusComponent[] { new Z80BusComponent(Constants.MEM_COMPONENT, 0, 0x10000) };
+                mapper = null;
+                dataBus.addBusComponent(memories[0]);
+            }
+            for (int i = first; i < program.length; i++) {
+                dataBus.memWrite(i, program[i]);
+            }
+            dataBus.clearWrites();
+            cpu = Z80Engines.create(name, dataBus);
+            cpu.setLazyFlags(lazyFlags);
+            // Mismo estado inicial aleatorio en los dos motores
+            Random rnd = new Random(seed);
+            Z80Registers regs = cpu.getRegisters();
+            regs.setAF((short) rnd.nextInt());
+            regs.setBC((short) rnd.nextInt());
+            regs.setDE((short) rnd.nextInt());
+            regs.setHL((short) rnd.nextInt());
+            regs.setIX((short) rnd.nextInt());
+            regs.setIY((short) rnd.nextInt());
+            regs.setAltAF((short) rnd.nextInt());
+            regs.setAltBC((short) rnd.nextInt());
+            regs.setAltDE((short) rnd.nextInt());
+            regs.setAltHL((short) rnd.nextInt());
+            regs.setIR((short) rnd.nextInt());
+            regs.setWZ((short) rnd.nextInt());
+            regs.setPC((short) rnd.nextInt());
+            regs.setSP((short) rnd.nextInt());
+            regs.setIM((byte) rnd.nextInt(3));
+            boolean iff = rnd.nextBoolean();
+            regs.setiff1A(iff);
+            regs.setiff1B(iff);
+        }
+
+        long[] state() {
+            return Z80DiffTester.state(cpu);
+        }
+
+        // Estado de los puertos de paginación (0 sin bancos)
+        int paging() {
+            return mapper == null ? 0
+                    : mapper.getPort7FFD() | mapper.getPort1FFD() << 8 | (mapper.isLocked() ? 1 << 16 : 0);
+        }
+
+        // Evento de paginación: reinicio del mapeador y valores aleatorios en sus puertos
+        void page(int value, int plus3Value) {
+            mapper.reset();
+            cpu.getDataBus().ioWrite(0x7FFD, (byte) (value & ~0x20));
+            if (mapper.getModel() == Z80MemoryMapper.MODEL_PLUS3) {
+                cpu.getDataBus().ioWrite(0x1FFD, (byte) (plus3Value & 0x07));
+            }
+        }
+
+        // Primer banco de RAM que difiere del de 'other' (-1 si no difiere ninguno)
+        int firstBankDifference(Side other) {
+            for (int bank = 0; mapper != null && bank < mapper.getRamBanks(); bank++) {
+                if (!Arrays.equals(mapper.getRam(bank).getMemData(), other.mapper.getRam(bank).getMemData())) {
+                    return bank;
+                }
+            }
+            return -1;
+        }
+
+        // Primera dirección en la que la memoria difiere de la de 'other' (-1 si no difiere)
+        int firstDifference(Side other) {
+            for (int m = 0; m < memories.length; m++) {
+                Z80BusComponent memory = memories[m];
+                for (int i = memory.getMemStartAddress(); i < memory.getMemStartAddress() + memory.getMemRegionSize(); i++) {
+                    if (memory.memRead(i) != other.memories[m].memRead(i)) {
+                        return m << 16 | i;
+                    }
+                }
+            }
+            return -1;
+        }
+    }
+
+    // Estado comparable de un motor, en el orden de FIELDS
+    static long[] state(Z80Engine cpu) {
+        Z80Registers regs = cpu.getRegisters();
+        return new long[] { regs.getAF() & 0xFFFF, regs.getBC() & 0xFFFF, regs.getDE() & 0xFFFF,
+                regs.getHL() & 0xFFFF, regs.getIX() & 0xFFFF, regs.getIY() & 0xFFFF, regs.getSP() & 0xFFFF,
+                regs.getPC() & 0xFFFF, regs.getWZ() & 0xFFFF, regs.getI() & 0xFF, regs.getR() & 0xFF,
+                regs.getAltAF() & 0xFFFF, regs.getAltBC() & 0xFFFF, regs.getAltDE() & 0xFFFF,
+                regs.getAltHL() & 0xFFFF, regs.getIM(), regs.getiff1A() ? 1 : 0, regs.getiff1B() ? 1 : 0,
+                regs.isHalted() ? 1 : 0, regs.getLastQF() ? 1 : 0, cpu.getTStates(), cpu.getStopReason() };
+    }
+
+    // Programa aleatorio de 64 KB: pocos HALT, bastantes instrucciones de bloque con BC pequeño y
+    // pares de superinstrucción del perfil, la mitad tras un EI (interrupción entre las dos)
+    private static byte[] program(long seed) {
+        Random rnd = new Random(seed * 7919L);
+        byte[] memory = new byte[0x10000];
+        rnd.nextBytes(memory);
+        for (int i = 0; i < memory.length; i++) {
+            if ((memory[i] & 0xFF) == 0x76 && rnd.nextInt(4) != 0) {
+                memory[i] = 0;
+            }
+        }
+        int[] blockOps = { 0xA0, 0xA1, 0xA8, 0xA9, 0xB0, 0xB1, 0xB8, 0xB9 };
+        for (int k = 0; k < 400; k++) {
+            int p = rnd.nextInt(0x10000 - 12);
+            int bc = rnd.nextInt(600);
+            int hl = rnd.nextInt(0x10000);
+            int de = rnd.nextInt(4) == 0 ? hl + rnd.nextInt(5) - 2 : rnd.nextInt(0x10000); // Solapadas a veces
+            memory[p] = 0x01; // ld bc,nn
+            memory[p + 1] = (byte) bc;
+            memory[p + 2] = (byte) (bc >> 8);
+            memory[p + 3] = 0x21; // ld hl,nn
+            memory[p + 4] = (byte) hl;
+            memory[p + 5] = (byte) (hl >> 8);
+            memory[p + 6] = 0x11; // ld de,nn
+            memory[p + 7] = (byte) de;
+            memory[p + 8] = (byte) (de >> 8);
+            memory[p + 9] = (byte) 0xED;
+            memory[p + 10] = (byte) blockOps[rnd.nextInt(blockOps.length)];
+        }
+        for (int k = 0; k < 400; k++) {
+            int p = rnd.nextInt(0x10000 - 3);
+            int pair = Z80FusionProfile.PAIRS[rnd.nextInt(Z80FusionProfile.PAIRS.length / 2) * 2];
+            if (rnd.nextBoolean()) {
+                memory[p++] = (byte) 0xFB; // ei
+            }
+            memory[p] = (byte) (pair >> 8);
+            memory[p + 1] = (byte) pair;
+        }
+        return memory;
+    }
+
+    // Ejecuta la semilla y devuelve el informe de la primera divergencia (null si no la hay)
+    private static String runSeed(long seed, AtomicLong executed) {
+        byte[] image = program(seed);
+        Side a = new Side(engineA, image, seed);
+        Side b = new Side(engineB, image, seed);
+        Random events = new Random(~seed);
+        int[] history = new int[HISTORY];
+        int historyCount = 0;
+        try {
+            for (int step = 0; step < steps; step++) {
+                int kind = events.nextInt(16);
+                int address = events.nextInt(0x10000);
+                byte value = (byte) events.nextInt();
+                long budget = 1 + events.nextInt(events.nextBoolean() ? 100 : MAX_BLOCK_TSTATES);
+                for (Side side : new Side[] { a, b }) {
+                    side.cpu.setINTLine(kind == 0);
+                    if (kind == 1) {
+                        side.cpu.requestNMI();
+                    }
+                    if (kind == 2) {
+                        side.cpu.getDataBus().memWrite(address, value);
+                    }
+                    if (kind == 3 && side.mapper != null) {
+                        side.page(value, address);
+                    }
+                    side.dataBus.clearWrites();
+                }
+                history[historyCount++ % HISTORY] = a.cpu.getRegisters().getPC() & 0xFFFF;
+                long[] before = a.state();
+                if (blockMode) {
+                    a.cpu.run(budget);
+                    b.cpu.run(budget);
+                } else {
+                    a.cpu.runUntil(() -> true);
+                    b.cpu.runUntil(() -> true);
+                }
+                long[] stateA = a.state();
+                long[] stateB = b.state();
+                if (!Arrays.equals(stateA, stateB) || !a.dataBus.sameWrites(b.dataBus) || a.paging() != b.paging()) {
+                    return report(seed, step, a, b, before, stateA, stateB, history, historyCount);
+                }
+            }
+            int bank = a.firstBankDifference(b);
+            if (bank >= 0) {
+                return String.format("seed %d: RAM bank %d differs after %d steps", seed, bank, steps);
+            }
+            int difference = a.firstDifference(b);
+            if (difference >= 0) {
+                Z80BusComponent memoryA = a.memories[difference >> 16];
+                Z80BusComponent memoryB = b.memories[difference >> 16];
+                int i = difference & 0xFFFF;
+                return String.format("seed %d: memory differs at %04X after %d steps (%s=%02X %s=%02X)", seed, i,
+                        steps, a.name, memoryA.memRead(i) & 0xFF, b.name, memoryB.memRead(i) & 0xFF);
+            }
+        } catch (RuntimeException e) {
+            return String.format("seed %d: exception %s", seed, e);
+        } finally {
+            executed.incrementAndGet();
+        }
+        return null;
+    }
+
+    private static String report(long seed, int step, Side a, Side b, long[] before, long[] stateA, long[] stateB,
+            int[] history, int historyCount) {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("seed %d: divergence at step %d (%s / %s, %s)%n", seed, step, a.name, b.name,
+                blockMode ? "block" : "instruction"));
+        text.append(String.format("  %-8s %8s %8s %8s%n", "field", "before", a.name, b.name));
+        for (int i = 0; i < FIELDS.length; i++) {
+            if (stateA[i] != stateB[i]) {
+                text.append(String.format("  %-8s %8X %8X %8X%n", FIELDS[i], before[i], stateA[i], stateB[i]));
+                if (i == 0) {
+                    text.append(String.format("  %-8s %8s %8s %8s%n", "flags", flags(before[0]), flags(stateA[0]),
+                            flags(stateB[0])));
+                }
+            }
+        }
+        if (a.paging() != b.paging()) {
+            text.append(String.format("  %-8s %8s %8X %8X%n", "paging", "", a.paging(), b.paging()));
+        }
+        text.append(String.format("  writes %s: %s%n", a.name, a.dataBus.describeWrites()));
+        text.append(String.format("  writes %s: %s%n", b.name, b.dataBus.describeWrites()));
+        text.append("  code:\n");
+        Z80Bus dataBus = a.cpu.getDataBus();
+        int first = Math.max(0, historyCount - HISTORY);
+        for (int i = first; i < historyCount; i++) {
+            text.append(i == historyCount - 1 ? "  >  " : "     ");
+            text.append(Z80Disassembler.line(dataBus, history[i % HISTORY])).append('\n');
+        }
+        int pc = (int) stateA[7];
+        text.append(String.format("  next (%s):%n", a.name));
+        for (int i = 0; i < LOOKAHEAD; i++) {
+            text.append("     ").append(Z80Disassembler.line(dataBus, pc)).append('\n');
+            pc = (pc + Z80Disassembler.length(dataBus, pc)) & 0xFFFF;
+        }
+        return text.toString();
+    }
+
+    static String flags(long af) {
+        String names = "SZ5H3PNC";
+        StringBuilder text = new StringBuilder();
+        for (int bit = 7; bit >= 0; bit--) {
+            text.append((af & (1 << bit)) != 0 ? names.charAt(7 - bit) : '-');
+        }
+        return text.toString();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int seeds = 100;
+        long firstSeed = 1;
+        int threads = 1;
+        List<String> engines = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-seeds") && i + 1 < args.length) {
+                seeds = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-first") && i + 1 < args.length) {
+                firstSeed = Long.parseLong(args[++i]);
+            } else if (args[i].equals("-steps") && i + 1 < args.length) {
+                steps = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-block")) {
+                blockMode = true;
+            } else if (args[i].equals("-lazyflags")) {
+                lazyFlags = true;
+            } else if (args[i].equals("-pagesize") && i + 1 < args.length) {
+                pageSize = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-rom")) {
+                rom = true;
+            } else if (args[i].equals("-paging") && i + 1 < args.length) {
+                pagingModel = Arrays.asList(PAGING_MODELS).indexOf(args[++i]);
+                if (pagingModel < 0) {
+                    System.out.println("error: unknown paging model '" + args[i] + "', expected one of "
+                            + Arrays.toString(PAGING_MODELS));
+                    System.exit(1);
+                }
+            } else {
+                engines.add(args[i]);
+            }
+        }
+        if (engines.size() != 2) {
+            System.out.println("Usage: Z80DiffTester engineA engineB [-seeds n] [-first n] [-steps n] [-block]"
+                    + " [-threads n] [-lazyflags] [-pagesize n] [-rom] [-paging model]");
+            System.out.println("Engines: " + Z80Engines.names());
+            System.exit(1);
+        }
+        engineA = engines.get(0);
+        engineB = engines.get(1);
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        try {
+            Z80Engines.create(engineA, new Z80Bus(pageSize));
+            Z80Engines.create(engineB, new Z80Bus(pageSize));
+        } catch (IllegalArgumentException | UnsupportedOperationException e) {
+            System.out.println("error: " + e.getMessage());
+            System.exit(1);
+        }
+
+        System.out.printf("Lockstep %s / %s: %d seeds from %d, %d %s steps each, %d thread(s), %d byte pages%s%s%n",
+                engineA, engineB, seeds, firstSeed, steps, blockMode ? "block" : "instruction", threads, pageSize,
+                pagingModel >= 0 ? ", " + PAGING_MODELS[pagingModel] + " paging" : rom ? ", ROM at 0000h" : "",
+                lazyFlags ? ", lazy flags" : "");
+        long start = System.nanoTime();
+        AtomicLong executed = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < seeds; i++) {
+            long seed = firstSeed + i;
+            results.add(pool.submit(() -> runSeed(seed, executed)));
+        }
+        pool.shutdown();
+        String firstFailure = null;
+        int failures = 0;
+        for (Future<String> result : results) { // En orden de semilla
+            String failure = result.get();
+            if (failure != null) {
+                failures++;
+                if (firstFailure == null) {
+                    firstFailure = failure;
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (firstFailure != null) {
+            System.out.print(firstFailure);
+            if (!firstFailure.endsWith("\n")) {
+                System.out.println();
+            }
+        }
+        System.out.printf("%d seeds, %d failed, %.1f s (%.0f steps/s)%n", executed.get(), failures, seconds,
+                executed.get() * steps / seconds);
+        System.exit(failures == 0 ? 0 : 1);
+    }
+}
@@ -0,0 +1,116 @@
+/***********************************************************************************************
+* Microbenchmark del cálculo de flags de la ALU
+*
+* Copyright (c) 2025 Jose Andres Calvo Conde
+*
+* Compara el cálculo de flags por tablas (Z80ALU.computeFlags) con el cálculo de referencia
+* rama a rama (Z80ALU.computeFlagsDirect) para las operaciones de 8 bits.
+* El proyecto no dispone de sistema de construcción con JMH, así que se sigue el mismo esquema
+* que JMH a mano: fases de calentamiento, varias rondas medidas y consumo del resultado para
+* evitar que el JIT elimine el cálculo.
+*
+* Uso: AuxLauncher.cmd Z80FlagsBench
+************************************************************************************************/
+
+import java.util.Random;
+
+public class Z80FlagsBench {
+    private static final int SAMPLES = 1 << 16; // Operaciones por pasada
+    private static final int PASSES = 200; // Pasadas por ronda
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+
+    private static final int[] OPS = { Z80ALU.FLAGS_ADD8, Z80ALU.FLAGS_ADC8, Z80ALU.FLAGS_SUB8, Z80ALU.FLAGS_SBC8,
+            Z80ALU.FLAGS_CP8, Z80ALU.FLAGS_AND8, Z80ALU.FLAGS_OR8, Z80ALU.FLAGS_SHIFT8, Z80ALU.FLAGS_INC8,
+            Z80ALU.FLAGS_DEC8 };
+
+    private static int[] op = new int[SAMPLES];
+    private static int[] op1 = new int[SAMPLES];
+    private static int[] op2 = new int[SAMPLES];
+    private static int[] res = new int[SAMPLES];
+
+    // Sumidero de resultados (evita la eliminación de código muerto)
+    private static int sink;
+
+    // Genera operaciones aleatorias con sus operandos y resultados sin recortar
+    private static void prepare() {
+        Random rnd = new Random(0x5A80);
+        for (int i = 0; i < SAMPLES; i++) {
+            int a = rnd.nextInt(256);
+            int v = rnd.nextInt(256);
+            int c = rnd.nextInt(2);
+            op[i] = OPS[rnd.nextInt(OPS.length)];
+            switch (op[i]) {
+                case Z80ALU.FLAGS_ADD8: op1[i] = a; op2[i] = v; res[i] = a + v; break;
+                case Z80ALU.FLAGS_ADC8: op1[i] = a; op2[i] = v; res[i] = a + v + c; break;
+                case Z80ALU.FLAGS_SUB8:
+                case Z80ALU.FLAGS_CP8: op1[i] = a; op2[i] = v; res[i] = a - v; break;
+                case Z80ALU.FLAGS_SBC8: op1[i] = a; op2[i] = v; res[i] = a - v - c; break;
+                case Z80ALU.FLAGS_SHIFT8: op1[i] = c; res[i] = v; break;
+                case Z80ALU.FLAGS_INC8: op1[i] = a; res[i] = (a + 1) & 0xFF; break;
+                case Z80ALU.FLAGS_DEC8: op1[i] = a; res[i] = (a - 1) & 0xFF; break;
+                default: res[i] = v; break;
+            }
+        }
+    }
+
+    private static int runTables() {
+        int acc = 0;
+        for (int p = 0; p < PASSES; p++) {
+            for (int i = 0; i < SAMPLES; i++) {
+                acc += Z80ALU.computeFlags(op[i], op1[i], op2[i], res[i], acc & 0xFF);
+            }
+        }
+        return acc;
+    }
+
+    private static int runDirect() {
+        int acc = 0;
+        for (int p = 0; p < PASSES; p++) {
+            for (int i = 0; i < SAMPLES; i++) {
+                acc += Z80ALU.computeFlagsDirect(op[i], op1[i], op2[i], res[i], acc & 0xFF);
+            }
+        }
+        return acc;
+    }
+
+    // Ejecuta una ronda y devuelve los nanosegundos por operación
+    private static double round(boolean tables) {
+        long start = System.nanoTime();
+        sink += tables ? runTables() : runDirect();
+        return (double) (System.nanoTime() - start) / ((long) SAMPLES * PASSES);
+    }
+
+    private static void measure(String name, boolean tables) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            round(tables);
+        }
+        double best = Double.MAX_VALUE;
+        double total = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            double t = round(tables);
+            best = Math.min(best, t);
+            total += t;
+        }
+        System.out.printf("%-30s best %6.3f ns/op   mean %6.3f ns/op%n", name, best, total / ROUNDS);
+    }
+
+    public static void main(String[] args) {
+        System.out.println("Z80FlagsBench - ALU flags: lookup tables vs direct computation");
+        prepare();
+
+        // Verificación previa: ambos métodos deben dar exactamente los mismos flags
+        for (int i = 0; i < SAMPLES; i++) {
+            int f = i & 0xFF;
+            if (Z80ALU.computeFlags(op[i], op1[i], op2[i], res[i], f)
+                    != Z80ALU.computeFlagsDirect(op[i], op1[i], op2[i], res[i], f)) {
+                System.err.println("error: flags mismatch for operation " + op[i]);
+                System.exit(1);
+            }
+        }
+
+        measure("computeFlagsDirect (branches)", false);
+        measure("computeFlags (tables)", true);
+        System.out.println("(sink " + sink + ")");
+    }
+}
@@ -0,0 +1,410 @@
+/***********************************************************************************************
+* Ejecución de los tests del núcleo Z80 del emulador FUSE (tests.in / tests.expected)
+*
+* Copyright (c) 2025 Jose Andres Calvo Conde
+*
+* tests.in da para cada test el estado inicial (registros, I, R, IFF, IM, HALT), los tStates que
+* hay que ejecutar y los bloques de memoria iniciales; el resto de la memoria es DE AD BE EF
+* repetido. tests.expected da los accesos al bus (MR/MW lectura/escritura de memoria, PR/PW de
+* puertos, MC/PC contención), el estado final, los tStates finales y la memoria modificada. Como
+* en FUSE, las lecturas de puerto devuelven el byte alto de la dirección.
+*
+* Un componente que ocupa toda la memoria y la E/S registra los accesos y se compara la secuencia
+* MR/MW/PR/PW (tipo, dirección y dato), los registros, los tStates y la memoria final. Esta CPU no
+* reparte los tStates entre los ciclos de máquina ni modela la contención, así que no se comparan
+* el instante de cada acceso ni los eventos MC/PC; las diferencias de tStates se resumen por
+* opcode al final. Los tests se ejecutan en paralelo, cada hilo con su propia CPU y su bus.
+*
+* La memoria con registro no es memoria plana: los motores con caché de bloques no decodifican
+* bloques sobre ella e interpretan, así que con ellos se prueban sus rutas de intérprete.
+*
+* Uso: AuxLauncher.cmd Z80FuseTests [directorio] [-engine nombre] [-threads n] [-lazyflags]
+************************************************************************************************/
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+public class Z80FuseTests {
+    private static final String DEFAULT_DIRECTORY = "roms/test/fuse";
+    private static final String[] EVENT_TYPES = { "MR", "MW", "PR", "PW" };
+    private static final int MEM_READ = 0, MEM_WRITE = 1, PORT_READ = 2, PORT_WRITE = 3;
+    private static final String[] FIELDS = { "AF", "BC", "DE", "HL", "AF'", "BC'", "DE'", "HL'", "IX", "IY", "SP",
+            "PC", "MEMPTR", "I", "R", "IFF1", "IFF2", "IM", "halted", "tstates" };
+    private static final int TSTATES = 19; // Índice de los tStates en el estado
+
+    private static String engineName = Z80Engines.INTERPRETER;
+    private static boolean lazyFlags;
+
+    // Test: estado inicial y esperado, memoria y accesos al bus
+    private static final class FuseTest {
+        final String name;
+        final int[] initial = new int[FIELDS.length];
+        final List<int[]> memory = new ArrayList<>(); // Bloques {dirección, bytes...}
+        int[] expected;
+        final List<int[]> expectedMemory = new ArrayList<>();
+        final List<Integer> expectedEvents = new ArrayList<>(); // (tipo << 24) | (dirección << 8) | dato
+
+        FuseTest(String name) {
+            this.name = name;
+        }
+
+        // Opcode del test: el nombre sin el sufijo _n
+        String opcode() {
+            int index = name.indexOf('_');
+            return index < 0 ? name : name.substring(0, index);
+        }
+    }
+
+    // Resultado de un test
+    private static final class Result {
+        final FuseTest test;
+        String failure;
+        long tStates;
+
+        Result(FuseTest test) {
+            this.test = test;
+        }
+    }
+
+    ////////////////////////////////////////////////////////////
+    // Lectura de tests.in y tests.expected
+
+    // Líneas del fichero con un cursor
+    private static final class Lines {
+        private final List<String> lines;
+        private int index;
+
+        Lines(Path file) throws IOException {
+            lines = Files.readAllLines(file, StandardCharsets.ISO_8859_1);
+        }
+
+        boolean hasNext() {
+            while (index < lines.size() && lines.get(index).trim().isEmpty()) {
+                index++;
+            }
+            return index < lines.size();
+        }
+
+        String next() {
+            return lines.get(index++);
+        }
+
+        String peek() {
+            return index < lines.size() ? lines.get(index) : "";
+        }
+
+        String[] tokens() {
+            return next().trim().split("\\s+");
+        }
+    }
+
+    // Registros (13 valores de 16 bits) y línea de I R IFF1 IFF2 IM halted tstates
+    private static int[] readState(Lines lines) {
+        int[] state = new int[FIELDS.length];
+        String[] regs = lines.tokens();
+        for (int i = 0; i < 13; i++) {
+            state[i] = Integer.parseInt(regs[i], 16);
+        }
+        String[] rest = lines.tokens();
+        state[13] = Integer.parseInt(rest[0], 16);
+        state[14] = Integer.parseInt(rest[1], 16);
+        for (int i = 2; i < 7; i++) {
+            state[13 + i] = Integer.parseInt(rest[i]);
+        }
+        return state;
+    }
+
+    // Bloque de memoria "dirección byte byte ... -1" (null con el -1 final de tests.in)
+    private static int[] readMemory(String line) {
+        String[] tokens = line.trim().split("\\s+");
+        if (tokens[0].equals("-1")) {
+            return null;
+        }
+        int[] block = new int[tokens.length - 1];
+        block[0] = Integer.parseInt(tokens[0], 16);
+        for (int i = 1; i < tokens.length - 1; i++) {
+            block[i] = Integer.parseInt(tokens[i], 16);
+        }
+        return block;
+    }
+
+    private static List<FuseTest> load(Path directory) throws IOException {
+        List<FuseTest> tests = new ArrayList<>();
+        Map<String, FuseTest> byName = new HashMap<>();
+        Lines in = new Lines(directory.resolve("tests.in"));
+        while (in.hasNext()) {
+            FuseTest test = new FuseTest(in.next().trim());
+            int[] state = readState(in);
+            System.arraycopy(state, 0, test.initial, 0, state.length);
+            for (int[] block = readMemory(in.next()); block != null; block = readMemory(in.next())) {
+                test.memory.add(block);
+            }
+            tests.add(test);
+            byName.put(test.name, test);
+        }
+        Lines expected = new Lines(directory.resolve("tests.expected"));
+        while (expected.hasNext()) {
+            String name = expected.next().trim();
+            FuseTest test = byName.get(name);
+            if (test == null) {
+                throw new IOException("Test '" + name + "' in tests.expected is not in tests.in");
+            }
+            while (expected.peek().startsWith(" ") || expected.peek().startsWith("\t")) {
+                String[] event = expected.tokens();
+                int type = Arrays.asList(EVENT_TYPES).indexOf(event[1]);
+                if (type >= 0) { // MC y PC (contención) no se comparan
+                    int data = event.length > 3 ? Integer.parseInt(event[3], 16) : 0;
+                    test.expectedEvents.add((type << 24) | (Integer.parseInt(event[2], 16) << 8) | data);
+                }
+            }
+            test.expected = readState(expected);
+            while (!expected.peek().trim().isEmpty()) {
+                test.expectedMemory.add(readMemory(expected.next()));
+            }
+        }
+        return tests;
+    }
+
+    ////////////////////////////////////////////////////////////
+    // Ejecución
+
+    // Memoria de 64 KB y los 256 puertos, con registro de los accesos
+    private static final class RecordingBus extends Z80BusComponent {
+        private final byte[] ram = new byte[0x10000];
+        private int[] events = new int[64];
+        private int count;
+
+        RecordingBus() {
+            super(0, 0x10000, 0, 256);
+        }
+
+        void reset(FuseTest test) {
+            for (int i = 0; i < ram.length; i += 4) {
+                ram[i] = (byte) 0xDE;
+                ram[i + 1] = (byte) 0xAD;
+                ram[i + 2] = (byte) 0xBE;
+                ram[i + 3] = (byte) 0xEF;
+            }
+            for (int[] block : test.memory) {
+                for (int i = 1; i < block.length; i++) {
+                    ram[(block[0] + i - 1) & 0xFFFF] = (byte) block[i];
+                }
+            }
+            count = 0;
+        }
+
+        private void record(int type, int address, int data) {
+            if (count == events.length) {
+                events = Arrays.copyOf(events, count * 2);
+            }
+            events[count++] = (type << 24) | ((address & 0xFFFF) << 8) | (data & 0xFF);
+        }
+
+        @Override
+        public byte memRead(int address) {
+            byte value = ram[address & 0xFFFF];
+            record(MEM_READ, address, value);
+            return value;
+        }
+
+        @Override
+        public byte memReadOpCode(int address) {
+            return memRead(address);
+        }
+
+        @Override
+        public void memWrite(int address, byte value) {
+            ram[address & 0xFFFF] = value;
+            record(MEM_WRITE, address, value);
+        }
+
+        @Override
+        public byte ioRead(int address) {
+            byte value = (byte) ((address >> 8) & 0xFF);
+            record(PORT_READ, address, value);
+            return value;
+        }
+
+        @Override
+        public void ioWrite(int address, byte value) {
+            record(PORT_WRITE, address, value);
+        }
+    }
+
+    // CPU y bus de un hilo
+    private static final class Context {
+        final RecordingBus recorder = new RecordingBus();
+        final Z80Engine cpu;
+
+        Context() {
+            Z80Bus dataBus = new Z80Bus();
+            dataBus.addBusComponent(recorder);
+            cpu = Z80Engines.create(engineName, dataBus);
+            cpu.setLazyFlags(lazyFlags);
+        }
+    }
+
+    private static final ConcurrentLinkedQueue<Context> contexts = new ConcurrentLinkedQueue<>();
+
+    private static Result run(FuseTest test) {
+        Result result = new Result(test);
+        Context context = contexts.poll();
+        if (context == null) {
+            context = new Context();
+        }
+        try {
+            result.failure = run(context, test, result);
+        } catch (RuntimeException e) {
+            result.failure = e.toString();
+        } finally {
+            contexts.add(context);
+        }
+        return result;
+    }
+
+    private static String run(Context context, FuseTest test, Result result) {
+        Z80Engine cpu = context.cpu;
+        RecordingBus recorder = context.recorder;
+        recorder.reset(test);
+        int[] in = test.initial;
+        cpu.RESET();
+        cpu.setTStates(0);
+        Z80Registers regs = cpu.getRegisters();
+        regs.setAF((short) in[0]);
+        regs.setBC((short) in[1]);
+        regs.setDE((short) in[2]);
+        regs.setHL((short) in[3]);
+        regs.setAltAF((short) in[4]);
+        regs.setAltBC((short) in[5]);
+        regs.setAltDE((short) in[6]);
+        regs.setAltHL((short) in[7]);
+        regs.setIX((short) in[8]);
+        regs.setIY((short) in[9]);
+        regs.setSP((short) in[10]);
+        regs.setPC((short) in[11]);
+        regs.setWZ((short) in[12]);
+        regs.setI((byte) in[13]);
+        regs.setR((byte) in[14]);
+        regs.setiff1A(in[15] != 0);
+        regs.setiff1B(in[16] != 0);
+        regs.setIM((byte) in[17]);
+        regs.setHalted(in[18] != 0);
+        // Q de la instrucción anterior: los tests de FUSE parten de Q = 0 (el contexto se reutiliza
+        // y SCF/CCF dependen de él)
+        regs.setQF(false);
+        regs.preserveQF();
+
+        // Como FUSE: instrucciones completas hasta alcanzar los tStates del test
+        cpu.run(in[TSTATES]);
+        result.tStates = cpu.getTStates();
+
+        int[] actual = { regs.getAF() & 0xFFFF, regs.getBC() & 0xFFFF, regs.getDE() & 0xFFFF, regs.getHL() & 0xFFFF,
+                regs.getAltAF() & 0xFFFF, regs.getAltBC() & 0xFFFF, regs.getAltDE() & 0xFFFF,
+                regs.getAltHL() & 0xFFFF, regs.getIX() & 0xFFFF, regs.getIY() & 0xFFFF, regs.getSP() & 0xFFFF,
+                regs.getPC() & 0xFFFF, regs.getWZ() & 0xFFFF, regs.getI() & 0xFF, regs.getR() & 0xFF,
+                regs.getiff1A() ? 1 : 0, regs.getiff1B() ? 1 : 0, regs.getIM(), regs.isHalted() ? 1 : 0,
+                (int) cpu.getTStates() };
+        StringBuilder diff = new StringBuilder();
+        for (int i = 0; i < FIELDS.length; i++) {
+            if (actual[i] != test.expected[i]) {
+                diff.append(String.format(", %s %X (expected %X)", FIELDS[i], actual[i], test.expected[i]));
+            }
+        }
+        for (int[] block : test.expectedMemory) {
+            for (int i = 1; i < block.length; i++) {
+                int address = (block[0] + i - 1) & 0xFFFF;
+                int value = recorder.ram[address] & 0xFF;
+                if (value != block[i]) {
+                    diff.append(String.format(", (%04X) %02X (expected %02X)", address, value, block[i]));
+                }
+            }
+        }
+        int events = Math.max(recorder.count, test.expectedEvents.size());
+        for (int i = 0; i < events; i++) {
+            int expected = i < test.expectedEvents.size() ? test.expectedEvents.get(i) : -1;
+            int found = i < recorder.count ? recorder.events[i] : -1;
+            if (expected != found) {
+                diff.append(String.format(", event %d %s (expected %s)", i, event(found), event(expected)));
+                break;
+            }
+        }
+        return diff.length() == 0 ? null : diff.substring(2);
+    }
+
+    private static String event(int event) {
+        if (event < 0) {
+            return "none";
+        }
+        return String.format("%s %04X %02X", EVENT_TYPES[event >>> 24], (event >> 8) & 0xFFFF, event & 0xFF);
+    }
+
+    public static void main(String[] args) throws Exception {
+        String directory = DEFAULT_DIRECTORY;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-engine") && i + 1 < args.length) {
+                engineName = args[++i];
+            } else if (args[i].equals("-threads") && i + 1 < args.length) {
+                threads = Math.max(1, Integer.parseInt(args[++i]));
+            } else if (args[i].equals("-lazyflags")) {
+                lazyFlags = true;
+            } else {
+                directory = args[i];
+            }
+        }
+        List<FuseTest> tests;
+        try {
+            tests = load(Paths.get(directory));
+            Z80Engines.create(engineName, new Z80Bus());
+        } catch (IOException | RuntimeException e) {
+            System.out.println("error: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        System.out.printf("FUSE tests: %d tests in %s, engine %s%s, %d thread(s)%n", tests.size(), directory,
+                engineName, lazyFlags ? " (lazy flags)" : "", threads);
+        long start = System.nanoTime();
+        List<Result> results;
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            results = pool.submit(() -> tests.parallelStream().map(Z80FuseTests::run).collect(Collectors.toList()))
+                    .get();
+        } finally {
+            pool.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int failures = 0;
+        TreeMap<String, String> timing = new TreeMap<>(); // Opcode -> tStates obtenidos/esperados
+        for (Result result : results) {
+            if (result.failure != null) {
+                failures++;
+                System.out.printf("%s: %s%n", result.test.name, result.failure);
+            }
+            if (result.tStates != result.test.expected[TSTATES]) {
+                timing.merge(result.test.opcode(), result.tStates + "/" + result.test.expected[TSTATES],
+                        (a, b) -> a.equals(b) ? a : a + " " + b);
+            }
+        }
+        if (!timing.isEmpty()) {
+            System.out.println("Timing mismatches by opcode (tstates/expected):");
+            timing.forEach((opcode, values) -> System.out.printf("  %-10s %s%n", opcode, values));
+        }
+        System.out.printf("%d tests, %d failed, %d opcodes with timing mismatches, %.2f s%n", tests.size(), failures,
+                timing.size(), seconds);
+        System.exit(failures == 0 ? 0 : 1);
+    }
+}
@@ -0,0 +1,165 @@
+/***********************************************************************************************
+* Perfil de frecuencias de pares de instrucciones para las superinstrucciones
+*
+* Copyright (c) 2025 Jose Andres Calvo Conde
+*
+* Ejecuta cargas de trabajo reales con el intérprete y cuenta los pares de instrucciones sin
+* prefijo consecutivos que pueden estar en un mismo bloque básico (la primera no cambia el flujo).
+* Genera el fichero fuente Z80FusionProfile.java con los pares más frecuentes; Z80Fusion fusiona
+* los que tienen manejador propio.
+*
+* Cargas de trabajo:
+* - zexdoc: roms/test/FDC_tests/zexdoc.cim como programa CP/M (BDOS reducido a un RET)
+* - -rom fichero: arranque de una ROM cargada en 0, con una INT cada 69888 tStates
+*
+* Uso: AuxLauncher.cmd Z80FusionProfiler [-tstates n] [-rom fichero ...] [-out directorio]
+************************************************************************************************/
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+public class Z80FusionProfiler {
+    private static final String ZEXDOC = "roms/test/FDC_tests/zexdoc.cim";
+    private static final long DEFAULT_TSTATES = 500_000_000L; // tStates por carga de trabajo
+    private static final int TOP_PAIRS = 48; // Pares que se guardan en el perfil
+
+    private static final long[] pairs = new long[0x10000]; // Ejecuciones por par (op1 << 8) | op2
+    private static long instructions;
+
+    // Cuenta los pares ejecutados por la CPU hasta agotar 'tStates'
+    private static void profile(Z80 cpu, long tStates, boolean interrupts) {
+        Z80Bus dataBus = cpu.getDataBus();
+        Z80Registers regs = cpu.getRegisters();
+        int[] previous = { -1, -1 }; // PC y opcode de la instrucción anterior (-1: no puede fusionarse)
+        long end = cpu.getTStates() + tStates;
+        while (cpu.getTStates() < end) {
+            if (interrupts) {
+                cpu.setINTLine(true);
+                cpu.runUntil(() -> true); // Una instrucción con la INT activa
+                cpu.setINTLine(false);
+            }
+            long frameEnd = Math.min(end, cpu.getTStates() + Constants.TSTATES_FRAME_48K);
+            cpu.runUntil(() -> {
+                int pc = regs.getPC() & 0xFFFF;
+                int op = dataBus.memRead(pc) & 0xFF;
+                if (previous[0] >= 0 && pc == ((previous[0] + Z80BlockCache.lengthMain(previous[1])) & 0xFFFF)
+                        && op != 0xCB && op != 0xDD && op != 0xED && op != 0xFD) {
+                    pairs[(previous[1] << 8) | op]++;
+                }
+                boolean fusable = op != 0xCB && op != 0xDD && op != 0xED && op != 0xFD
+                        && !Z80BlockCache.isControlMain(op);
+                previous[0] = fusable ? pc : -1;
+                previous[1] = op;
+                instructions++;
+                return cpu.getTStates() >= frameEnd;
+            });
+            if (cpu.getStopReason() == Constants.RUN_HALT && !interrupts) {
+                break;
+            }
+        }
+    }
+
+    private static Z80 createCpu(byte[] image, int address) {
+        Z80 cpu = new Z80();
+        Z80Bus dataBus = new Z80Bus();
+        dataBus.addBusComponent(new Z80BusComponent(Constants.MEM_COMPONENT, 0, 1024 * 64));
+        cpu.setDataBus(dataBus);
+        for (int i = 0; i < image.length && address + i < 0x10000; i++) {
+            dataBus.memWrite(address + i, image[i]);
+        }
+        cpu.getRegisters().setPC((short) address);
+        return cpu;
+    }
+
+    private static void write(Path file, List<String> sources) throws IOException {
+        int[] top = new int[TOP_PAIRS];
+        int count = 0;
+        boolean[] taken = new boolean[pairs.length];
+        for (; count < TOP_PAIRS; count++) {
+            int best = -1;
+            for (int pair = 0; pair < pairs.length; pair++) {
+                if (!taken[pair] && pairs[pair] > 0 && (best < 0 || pairs[pair] > pairs[best])) {
+                    best = pair;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            taken[best] = true;
+            top[count] = best;
+        }
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.println("// Perfil de frecuencias de pares de instrucciones sin prefijo (superinstrucciones)");
+            out.println("// Generado por Z80FusionProfiler: no editar. Cargas de trabajo: " + String.join(", ", sources));
+            out.printf("// %d instrucciones perfiladas%n", instructions);
+            out.println();
+            out.println("final class Z80FusionProfile {");
+            out.println();
+            out.println("    // Pares (op1 << 8) | op2, de más a menos frecuente, y tanto por mil de las instrucciones");
+            out.println("    static final int[] PAIRS = {");
+            for (int i = 0; i < count; i++) {
+                out.printf("            0x%04X, %d,%n", top[i], Math.max(1, pairs[top[i]] * 1000 / instructions));
+            }
+            out.println("    };");
+            out.println();
+            out.println("    private Z80FusionProfile() {");
+            out.println("    }");
+            out.println("}");
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        long tStates = DEFAULT_TSTATES;
+        List<String> roms = new ArrayList<>();
+        String outDir = ".";
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-tstates") && i + 1 < args.length) {
+                tStates = Long.parseLong(args[++i]);
+            } else if (args[i].equals("-rom") && i + 1 < args.length) {
+                roms.add(args[++i]);
+            } else if (args[i].equals("-out") && i + 1 < args.length) {
+                outDir = args[++i];
+            }
+        }
+
+        List<String> sources = new ArrayList<>();
+        // zexdoc como programa CP/M: BDOS (5) salta a un RET y la cima de la pila (6) queda en FF00h
+        Path zexdoc = Paths.get(ZEXDOC);
+        if (Files.exists(zexdoc)) {
+            Z80 cpu = createCpu(Files.readAllBytes(zexdoc), 0x100);
+            Z80Bus dataBus = cpu.getDataBus();
+            dataBus.memWrite(0x0000, (byte) 0x76); // halt
+            dataBus.memWrite(0x0005, (byte) 0xC3); // jp FF00h
+            dataBus.memWrite(0x0006, (byte) 0x00);
+            dataBus.memWrite(0x0007, (byte) 0xFF);
+            dataBus.memWrite(0xFF00, (byte) 0xC9); // ret
+            profile(cpu, tStates, false);
+            sources.add("zexdoc");
+        } else {
+            System.err.println("warning: can't open file '" + ZEXDOC + "'.");
+        }
+        for (String rom : roms) {
+            Path file = Paths.get(rom);
+            if (!Files.exists(file)) {
+                System.err.println("error: can't open file '" + rom + "'.");
+                System.exit(1);
+            }
+            profile(createCpu(Files.readAllBytes(file), 0), tStates, true);
+            sources.add(file.getFileName() + " (boot)");
+        }
+        if (instructions == 0) {
+            System.err.println("error: nothing to profile.");
+            System.exit(1);
+        }
+
+        Path file = Paths.get(outDir, "Z80FusionProfile.java");
+        write(file, sources);
+        System.out.printf("%d instructions profiled -> %s%n", instructions, file);
+    }
+}
@@ -0,0 +1,709 @@
+/***********************************************************************************************
+* Fuzzer de instrucciones Z80 guiado por cobertura
+*
+* Copyright (c) 2025 Jose Andres Calvo Conde
+*
+* Genera casos de prueba pequeños (estado inicial de los registros + 16 bytes de código en una
+* dirección aleatoria + hasta 8 pasos con la línea INT activa o no en cada uno), los ejecuta a la
+* vez en el intérprete de referencia y en el motor candidato y compara el estado completo y las
+* escrituras en memoria después de cada paso (ver Z80DiffTester).
+*
+* Cada paso es un run con el presupuesto de tStates del caso, en los dos motores: con presupuesto
+* 1 se ejecuta una sola instrucción y con presupuestos mayores los motores con caché ejecutan
+* bloques enteros, con sus superinstrucciones, las instrucciones de bloque en bulk y las
+* interrupciones entre instrucciones del bloque. La memoria es plana (Z80DiffTester.RecordingBus)
+* para que la caché de bloques la predecodifique.
+*
+* Cobertura: pares (opcode, F resultante) vistos en la referencia, con el opcode del principio del
+* paso identificado por grupo (sin prefijo, CB, ED, DD, FD, DDCB, FDCB). Los casos que aportan
+* pares nuevos pasan al corpus y se mutan (bytes de código, instrucciones nuevas, valores frontera
+* en los registros, flags, interrupciones, presupuesto). Las instrucciones nuevas se eligen por
+* torneo entre los opcodes con menos caminos de flags vistos, lo que empuja hacia las zonas poco
+* probadas (ED y DDCB no documentadas, casos límite de las instrucciones de bloque...).
+*
+* Los fallos se minimizan (menos pasos, código a NOP, registros a 0, presupuesto de una
+* instrucción) y se guardan como ficheros de texto reproducibles con -replay. Se guarda un fallo
+* por opcode y campo divergente.
+*
+* El resto de la memoria es siempre el mismo fondo aleatorio, así que un caso se reproduce solo con
+* su fichero. Los hilos comparten la cobertura y el corpus.
+*
+* Uso: AuxLauncher.cmd Z80Fuzzer motor [-time segundos] [-threads n] [-seed n] [-out directorio]
+*                                [-lazyflags]
+*      AuxLauncher.cmd Z80Fuzzer motor -replay fichero [fichero ...]
+************************************************************************************************/
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class Z80Fuzzer {
+    private static final int CODE_SIZE = 16; // Bytes de código de un caso
+    private static final int MAX_STEPS = 8; // Pasos de un caso
+    private static final int MAX_BUDGET = 256; // tStates máximos de un paso
+    private static final int MAX_FAILURES = 20; // Fallos distintos que se guardan antes de parar
+    private static final int RECENT = 64; // Entradas recientes del corpus que se eligen más a menudo
+    private static final long BACKGROUND_SEED = 0x5A80L; // Semilla del fondo de memoria común
+    private static final int STATUS_SECONDS = 5;
+
+    private static final String[] GROUPS = { "main", "CB", "ED", "DD", "FD", "DDCB", "FDCB" };
+    private static final int OPCODE_IDS = GROUPS.length * 256;
+    private static final String[] REGS = { "AF", "BC", "DE", "HL", "IX", "IY", "SP", "AF'", "BC'", "DE'", "HL'", "IR",
+            "WZ" };
+    private static final int[] INTERESTING = { 0x0000, 0x0001, 0x0002, 0x007F, 0x0080, 0x00FF, 0x0100, 0x7FFF, 0x8000,
+            0x8001, 0xFFFE, 0xFFFF };
+
+    private static String candidate;
+    private static boolean lazyFlags;
+    private static Path outDir = Paths.get("fuzz");
+    private static final byte[] background = new byte[0x10000];
+
+    // Cobertura compartida: un bit por par (opcode, F) y caminos de flags vistos por opcode
+    private static final AtomicLongArray coverage = new AtomicLongArray(OPCODE_IDS * 256 / 64);
+    private static final AtomicIntegerArray opcodePaths = new AtomicIntegerArray(OPCODE_IDS);
+    private static final AtomicInteger coveredPairs = new AtomicInteger();
+    private static final List<FuzzCase> corpus = new ArrayList<>();
+    private static final AtomicLong executions = new AtomicLong();
+    private static final Set<String> signatures = ConcurrentHashMap.newKeySet();
+    private static final AtomicInteger saved = new AtomicInteger();
+    private static volatile boolean stop;
+
+    // Caso de prueba: registros, código y pasos
+    static final class FuzzCase {
+        final int[] regs = new int[REGS.length];
+        final byte[] code = new byte[CODE_SIZE];
+        int pc;
+        int im;
+        int iff;
+        int q;
+        int interrupts; // Bit n: línea INT activa durante el paso n
+        int steps;
+        int budget = 1; // tStates de cada paso (1: una instrucción)
+
+        FuzzCase copy() {
+            FuzzCase copy = new FuzzCase();
+            System.arraycopy(regs, 0, copy.regs, 0, regs.length);
+            System.arraycopy(code, 0, copy.code, 0, code.length);
+            copy.pc = pc;
+            copy.im = im;
+            copy.iff = iff;
+            copy.q = q;
+            copy.interrupts = interrupts;
+            copy.steps = steps;
+            copy.budget = budget;
+            return copy;
+        }
+
+        List<String> serialize() {
+            List<String> lines = new ArrayList<>();
+            for (int i = 0; i < REGS.length; i++) {
+                lines.add(String.format("%s %04X", REGS[i], regs[i]));
+            }
+            lines.add(String.format("PC %04X", pc));
+            lines.add("IM " + im);
+            lines.add("IFF " + iff);
+            lines.add("Q " + q);
+            lines.add(String.format("INT %02X", interrupts));
+            lines.add("STEPS " + steps);
+            lines.add("BUDGET " + budget);
+            StringBuilder bytes = new StringBuilder("CODE");
+            for (byte b : code) {
+                bytes.append(String.format(" %02X", b & 0xFF));
+            }
+            lines.add(bytes.toString());
+            return lines;
+        }
+
+        static FuzzCase parse(List<String> lines) {
+            FuzzCase c = new FuzzCase();
+            for (String line : lines) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split("\\s+");
+                int reg = Arrays.asList(REGS).indexOf(parts[0]);
+                if (reg >= 0) {
+                    c.regs[reg] = Integer.parseInt(parts[1], 16);
+                    continue;
+                }
+                switch (parts[0]) {
+                    case "PC":
+                        c.pc = Integer.parseInt(parts[1], 16);
+                        break;
+                    case "IM":
+                        c.im = Integer.parseInt(parts[1]);
+                        break;
+                    case "IFF":
+                        c.iff = Integer.parseInt(parts[1]);
+                        break;
+                    case "Q":
+                        c.q = Integer.parseInt(parts[1]);
+                        break;
+                    case "INT":
+                        c.interrupts = Integer.parseInt(parts[1], 16);
+                        break;
+                    case "STEPS":
+                        c.steps = Integer.parseInt(parts[1]);
+                        break;
+                    case "BUDGET":
+                        c.budget = Integer.parseInt(parts[1]);
+                        break;
+                    case "CODE":
+                        for (int i = 1; i < parts.length && i <= CODE_SIZE; i++) {
+                            c.code[i - 1] = (byte) Integer.parseInt(parts[i], 16);
+                        }
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown field '" + parts[0] + "'");
+                }
+            }
+            return c;
+        }
+    }
+
+    // Un hilo del fuzzer: la referencia y el candidato con su memoria, y su propio generador
+    private static final class Worker implements Runnable {
+        private final Random rnd;
+        private final Z80Engine reference;
+        private final Z80Engine engine;
+        private final Z80DiffTester.RecordingBus referenceBus = new Z80DiffTester.RecordingBus(Z80Bus.DEFAULT_PAGE_SIZE);
+        private final Z80DiffTester.RecordingBus bus = new Z80DiffTester.RecordingBus(Z80Bus.DEFAULT_PAGE_SIZE);
+        private int[] dirty = new int[256]; // Direcciones que hay que devolver al fondo
+        private int dirtyCount;
+        private int newPairs; // Pares de cobertura nuevos de la última ejecución
+        private String divergence; // Descripción de la última divergencia
+        private String signature; // Opcode y primer campo distinto de la última divergencia
+
+        Worker(long seed) {
+            rnd = new Random(seed);
+            reference = createEngine(Z80Engines.INTERPRETER, referenceBus, false);
+            engine = createEngine(candidate, bus, lazyFlags);
+        }
+
+        @Override
+        public void run() {
+            while (!stop) {
+                FuzzCase c = next();
+                int failed = execute(c, true);
+                executions.incrementAndGet();
+                if (failed >= 0) {
+                    failure(c, failed);
+                } else if (newPairs > 0) {
+                    synchronized (corpus) {
+                        corpus.add(c);
+                    }
+                }
+            }
+        }
+
+        // Caso nuevo o mutación de uno del corpus
+        private FuzzCase next() {
+            FuzzCase parent = null;
+            synchronized (corpus) {
+                int size = corpus.size();
+                if (size > 0 && rnd.nextInt(8) != 0) {
+                    int index = rnd.nextBoolean() ? size - 1 - rnd.nextInt(Math.min(size, RECENT)) : rnd.nextInt(size);
+                    parent = corpus.get(index);
+                }
+            }
+            return parent == null ? random() : mutate(parent);
+        }
+
+        private FuzzCase random() {
+            FuzzCase c = new FuzzCase();
+            for (int i = 0; i < REGS.length; i++) {
+                c.regs[i] = value();
+            }
+            c.pc = rnd.nextInt(0x10000);
+            c.im = rnd.nextInt(3);
+            c.iff = rnd.nextInt(2);
+            c.q = rnd.nextInt(2);
+            c.interrupts = rnd.nextInt(8) == 0 ? rnd.nextInt(1 << MAX_STEPS) : 0;
+            c.steps = 1 + rnd.nextInt(MAX_STEPS);
+            c.budget = budget();
+            for (int pos = 0; pos < CODE_SIZE;) {
+                pos = instruction(c.code, pos);
+            }
+            return c;
+        }
+
+        private FuzzCase mutate(FuzzCase parent) {
+            FuzzCase c = parent.copy();
+            for (int n = 1 + rnd.nextInt(3); n > 0; n--) {
+                switch (rnd.nextInt(8)) {
+                    case 0:
+                        c.code[rnd.nextInt(CODE_SIZE)] = (byte) rnd.nextInt();
+                        break;
+                    case 1:
+                        instruction(c.code, rnd.nextInt(CODE_SIZE));
+                        break;
+                    case 2:
+                        c.regs[rnd.nextInt(REGS.length)] = value();
+                        break;
+                    case 3:
+                        c.regs[0] ^= 1 << rnd.nextInt(8); // Un flag
+                        break;
+                    case 4:
+                        c.steps = 1 + rnd.nextInt(MAX_STEPS);
+                        break;
+                    case 5:
+                        c.interrupts ^= 1 << rnd.nextInt(MAX_STEPS);
+                        break;
+                    case 6:
+                        c.budget = budget();
+                        break;
+                    default:
+                        c.im = rnd.nextInt(3);
+                        c.iff = rnd.nextInt(2);
+                        c.q = rnd.nextInt(2);
+                }
+            }
+            return c;
+        }
+
+        // Presupuesto de un paso: la mitad de las veces una sola instrucción
+        private int budget() {
+            return rnd.nextBoolean() ? 1 : 1 + rnd.nextInt(MAX_BUDGET);
+        }
+
+        // Valor de 16 bits, a menudo un valor frontera
+        private int value() {
+            return rnd.nextInt(3) == 0 ? INTERESTING[rnd.nextInt(INTERESTING.length)] : rnd.nextInt(0x10000);
+        }
+
+        // Escribe en 'pos' una instrucción del opcode con menos caminos de flags de entre cuatro, o
+        // a veces un par de superinstrucción del perfil (Z80FusionProfile), que puede ir tras un EI
+        // para que la interrupción llegue entre las dos instrucciones del par
+        private int instruction(byte[] code, int pos) {
+            if (rnd.nextInt(8) == 0) {
+                int pair = Z80FusionProfile.PAIRS[rnd.nextInt(Z80FusionProfile.PAIRS.length / 2) * 2];
+                int[] bytes = rnd.nextBoolean() ? new int[] { 0xFB, pair >> 8, pair & 0xFF }
+                        : new int[] { pair >> 8, pair & 0xFF };
+                return operands(code, bytes, pos);
+            }
+            int id = rnd.nextInt(OPCODE_IDS);
+            for (int i = 0; i < 3; i++) {
+                int other = rnd.nextInt(OPCODE_IDS);
+                if (opcodePaths.get(other) < opcodePaths.get(id)) {
+                    id = other;
+                }
+            }
+            int op = id & 0xFF;
+            int[] bytes;
+            switch (id >> 8) {
+                case 0:
+                    bytes = new int[] { op };
+                    break;
+                case 1:
+                    bytes = new int[] { 0xCB, op };
+                    break;
+                case 2:
+                    bytes = new int[] { 0xED, op };
+                    break;
+                case 3:
+                    bytes = new int[] { 0xDD, op };
+                    break;
+                case 4:
+                    bytes = new int[] { 0xFD, op };
+                    break;
+                case 5:
+                    bytes = new int[] { 0xDD, 0xCB, value(), op };
+                    break;
+                default:
+                    bytes = new int[] { 0xFD, 0xCB, value(), op };
+            }
+            return operands(code, bytes, pos);
+        }
+
+        // Escribe los bytes de una instrucción seguidos de dos operandos aleatorios
+        private int operands(byte[] code, int[] bytes, int pos) {
+            for (int b : bytes) {
+                if (pos < CODE_SIZE) {
+                    code[pos++] = (byte) b;
+                }
+            }
+            for (int i = 0; i < 2 && pos < CODE_SIZE; i++) {
+                code[pos++] = (byte) value(); // Operandos
+            }
+            return pos;
+        }
+
+        // Ejecuta el caso en los dos motores; devuelve el paso en el que divergen o -1
+        int execute(FuzzCase c, boolean trackCoverage) {
+            restore();
+            for (int i = 0; i < CODE_SIZE; i++) {
+                int address = (c.pc + i) & 0xFFFF;
+                referenceBus.memWrite(address, c.code[i]);
+                bus.memWrite(address, c.code[i]);
+                markDirty(address);
+            }
+            load(reference, c);
+            load(engine, c);
+            referenceBus.clearWrites();
+            bus.clearWrites();
+            newPairs = 0;
+            for (int step = 0; step < c.steps; step++) {
+                boolean irq = (c.interrupts & (1 << step)) != 0;
+                reference.setINTLine(irq);
+                engine.setINTLine(irq);
+                int id = opcodeId(referenceBus, reference.getRegisters().getPC() & 0xFFFF);
+                long[] before = Z80DiffTester.state(reference);
+                long[] expected;
+                long[] actual;
+                try {
+                    reference.run(c.budget);
+                    engine.run(c.budget);
+                    expected = Z80DiffTester.state(reference);
+                    actual = Z80DiffTester.state(engine);
+                } catch (RuntimeException e) {
+                    divergence = String.format("step %d: exception %s%n", step, e);
+                    signature = String.format("%s %02X %s", GROUPS[id >> 8], id & 0xFF, e.getClass().getSimpleName());
+                    return step;
+                }
+                for (int i = 0; i < bus.writeCount(); i++) {
+                    markDirty(bus.writeAddress(i));
+                }
+                for (int i = 0; i < referenceBus.writeCount(); i++) {
+                    markDirty(referenceBus.writeAddress(i));
+                }
+                if (!Arrays.equals(expected, actual) || !referenceBus.sameWrites(bus)) {
+                    divergence = describe(step, id, before, expected, actual);
+                    return step;
+                }
+                referenceBus.clearWrites();
+                bus.clearWrites();
+                if (trackCoverage && !irq && mark(id * 256 + (int) (expected[0] & 0xFF))) {
+                    opcodePaths.incrementAndGet(id);
+                    newPairs++;
+                }
+            }
+            return -1;
+        }
+
+        private void load(Z80Engine cpu, FuzzCase c) {
+            cpu.RESET();
+            cpu.setTStates(0);
+            Z80Registers regs = cpu.getRegisters();
+            regs.setAF((short) c.regs[0]);
+            regs.setBC((short) c.regs[1]);
+            regs.setDE((short) c.regs[2]);
+            regs.setHL((short) c.regs[3]);
+            regs.setIX((short) c.regs[4]);
+            regs.setIY((short) c.regs[5]);
+            regs.setSP((short) c.regs[6]);
+            regs.setAltAF((short) c.regs[7]);
+            regs.setAltBC((short) c.regs[8]);
+            regs.setAltDE((short) c.regs[9]);
+            regs.setAltHL((short) c.regs[10]);
+            regs.setIR((short) c.regs[11]);
+            regs.setWZ((short) c.regs[12]);
+            regs.setPC((short) c.pc);
+            regs.setIM((byte) c.im);
+            regs.setiff1A(c.iff != 0);
+            regs.setiff1B(c.iff != 0);
+            regs.setQF(c.q != 0);
+            regs.preserveQF();
+        }
+
+        // Devuelve al fondo común la memoria tocada por el caso anterior
+        private void restore() {
+            for (int i = 0; i < dirtyCount; i++) {
+                int address = dirty[i];
+                referenceBus.memWrite(address, background[address]);
+                bus.memWrite(address, background[address]);
+            }
+            dirtyCount = 0;
+        }
+
+        private void markDirty(int address) {
+            if (dirtyCount == dirty.length) {
+                dirty = Arrays.copyOf(dirty, dirtyCount * 2);
+            }
+            dirty[dirtyCount++] = address;
+        }
+
+        private String describe(int step, int id, long[] before, long[] expected, long[] actual) {
+            StringBuilder text = new StringBuilder();
+            text.append(String.format("divergence at step %d (%s %02X)%n", step, GROUPS[id >> 8], id & 0xFF));
+            signature = String.format("%s %02X writes", GROUPS[id >> 8], id & 0xFF);
+            text.append(String.format("%-8s %8s %11s %11s%n", "field", "before", "interpreter", candidate));
+            for (int i = 0; i < expected.length; i++) {
+                if (expected[i] != actual[i]) {
+                    if (signature.endsWith("writes")) {
+                        signature = String.format("%s %02X %s", GROUPS[id >> 8], id & 0xFF, Z80DiffTester.FIELDS[i]);
+                    }
+                    text.append(String.format("%-8s %8X %11X %11X%n", Z80DiffTester.FIELDS[i], before[i], expected[i],
+                            actual[i]));
+                    if (i == 0) {
+                        text.append(String.format("%-8s %8s %11s %11s%n", "flags", Z80DiffTester.flags(before[0]),
+                                Z80DiffTester.flags(expected[0]), Z80DiffTester.flags(actual[0])));
+                    }
+                }
+            }
+            text.append("writes interpreter: ").append(referenceBus.describeWrites()).append('\n');
+            text.append("writes ").append(candidate).append(": ").append(bus.describeWrites()).append('\n');
+            return text.toString();
+        }
+
+        // Minimiza el caso fallido, lo guarda si es un fallo nuevo y lo informa
+        private void failure(FuzzCase c, int failed) {
+            FuzzCase best = minimize(c, failed);
+            int step = execute(best, false);
+            String report = divergence;
+            if (!signatures.add(signature) || saved.get() >= MAX_FAILURES) {
+                return;
+            }
+            int number = saved.incrementAndGet();
+            List<String> lines = new ArrayList<>();
+            lines.add("# Z80Fuzzer: interpreter / " + candidate + (lazyFlags ? " (lazy flags)" : ""));
+            for (String line : report.split("\n")) {
+                lines.add("# " + line);
+            }
+            for (String line : listing(best)) {
+                lines.add("# " + line);
+            }
+            lines.addAll(best.serialize());
+            Path file = outDir.resolve(String.format("fail-%s-%03d.txt", candidate, number));
+            try {
+                Files.createDirectories(outDir);
+                Files.write(file, lines, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                System.out.println("error: " + e.getMessage());
+            }
+            synchronized (Z80Fuzzer.class) {
+                System.out.printf("Failure %d (%s) saved to %s, step %d:%n%s", number, signature, file, step, report);
+            }
+            if (number >= MAX_FAILURES) {
+                stop = true;
+            }
+        }
+
+        // Reducción voraz: menos pasos, bytes de código a NOP y estado a 0 mientras siga fallando
+        private FuzzCase minimize(FuzzCase c, int failed) {
+            FuzzCase best = c.copy();
+            best.steps = failed + 1;
+            boolean progress = true;
+            while (progress) {
+                progress = false;
+                List<FuzzCase> trials = new ArrayList<>();
+                for (int i = CODE_SIZE - 1; i >= 0; i--) {
+                    if (best.code[i] != 0) {
+                        FuzzCase trial = best.copy();
+                        trial.code[i] = 0;
+                        trials.add(trial);
+                    }
+                }
+                for (int i = 0; i < REGS.length; i++) {
+                    if (best.regs[i] != 0) {
+                        FuzzCase trial = best.copy();
+                        trial.regs[i] = 0;
+                        trials.add(trial);
+                    }
+                }
+                if (best.budget != 1) {
+                    FuzzCase trial = best.copy();
+                    trial.budget = 1;
+                    trials.add(trial);
+                }
+                if (best.interrupts != 0 || best.im != 0 || best.iff != 0 || best.q != 0) {
+                    FuzzCase trial = best.copy();
+                    trial.interrupts = 0;
+                    trial.im = 0;
+                    trial.iff = 0;
+                    trial.q = 0;
+                    trials.add(trial);
+                }
+                for (FuzzCase trial : trials) {
+                    int step = execute(trial, false);
+                    if (step >= 0) {
+                        trial.steps = step + 1;
+                        best = trial;
+                        progress = true;
+                    }
+                }
+            }
+            return best;
+        }
+    }
+
+    private static Z80Engine createEngine(String name, Z80DiffTester.RecordingBus dataBus, boolean lazy) {
+        dataBus.addBusComponent(new Z80BusComponent(Constants.MEM_COMPONENT, 0, 0x10000));
+        for (int i = 0; i < background.length; i++) {
+            dataBus.memWrite(i, background[i]);
+        }
+        dataBus.clearWrites();
+        Z80Engine cpu = Z80Engines.create(name, dataBus);
+        cpu.setLazyFlags(lazy);
+        return cpu;
+    }
+
+    // Grupo * 256 + opcode de la instrucción en 'pc'
+    private static int opcodeId(Z80Bus dataBus, int pc) {
+        int op = dataBus.memRead(pc) & 0xFF;
+        int next = dataBus.memRead((pc + 1) & 0xFFFF) & 0xFF;
+        switch (op) {
+            case 0xCB:
+                return 0x100 | next;
+            case 0xED:
+                return 0x200 | next;
+            case 0xDD:
+            case 0xFD:
+                if (next == 0xCB) {
+                    return (op == 0xDD ? 0x500 : 0x600) | (dataBus.memRead((pc + 3) & 0xFFFF) & 0xFF);
+                }
+                return (op == 0xDD ? 0x300 : 0x400) | next;
+            default:
+                return op;
+        }
+    }
+
+    // Marca un par de cobertura; devuelve true si es nuevo
+    private static boolean mark(int pair) {
+        int index = pair >> 6;
+        long mask = 1L << (pair & 63);
+        while (true) {
+            long bits = coverage.get(index);
+            if ((bits & mask) != 0) {
+                return false;
+            }
+            if (coverage.compareAndSet(index, bits, bits | mask)) {
+                coveredPairs.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    // Desensamblado de los pasos del caso, sobre una copia de su código
+    private static List<String> listing(FuzzCase c) {
+        Z80Bus dataBus = new Z80Bus();
+        dataBus.addBusComponent(new Z80BusComponent(Constants.MEM_COMPONENT, 0, 0x10000));
+        for (int i = 0; i < CODE_SIZE; i++) {
+            dataBus.memWrite((c.pc + i) & 0xFFFF, c.code[i]);
+        }
+        List<String> lines = new ArrayList<>();
+        int pc = c.pc;
+        for (int i = 0; i < c.steps && ((pc - c.pc) & 0xFFFF) < CODE_SIZE; i++) {
+            lines.add(Z80Disassembler.line(dataBus, pc));
+            pc = (pc + Z80Disassembler.length(dataBus, pc)) & 0xFFFF;
+        }
+        return lines;
+    }
+
+    private static String summary() {
+        StringBuilder text = new StringBuilder();
+        for (int group = 0; group < GROUPS.length; group++) {
+            int opcodes = 0;
+            long paths = 0;
+            for (int op = 0; op < 256; op++) {
+                int count = opcodePaths.get(group * 256 + op);
+                opcodes += count > 0 ? 1 : 0;
+                paths += count;
+            }
+            text.append(String.format(" %s %d/%d", GROUPS[group], opcodes, paths));
+        }
+        return text.toString();
+    }
+
+    private static int replay(List<String> files) throws IOException {
+        Worker worker = new Worker(0);
+        int failures = 0;
+        for (String name : files) {
+            FuzzCase c = FuzzCase.parse(Files.readAllLines(Paths.get(name), StandardCharsets.UTF_8));
+            int step = worker.execute(c, false);
+            if (step < 0) {
+                System.out.println(name + ": OK");
+            } else {
+                failures++;
+                System.out.print(name + ": " + worker.divergence);
+            }
+        }
+        return failures;
+    }
+
+    public static void main(String[] args) throws Exception {
+        long seconds = 60;
+        int threads = 1;
+        long seed = System.nanoTime();
+        List<String> replayFiles = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-time") && i + 1 < args.length) {
+                seconds = Long.parseLong(args[++i]);
+            } else if (args[i].equals("-threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-seed") && i + 1 < args.length) {
+                seed = Long.parseLong(args[++i]);
+            } else if (args[i].equals("-out") && i + 1 < args.length) {
+                outDir = Paths.get(args[++i]);
+            } else if (args[i].equals("-lazyflags")) {
+                lazyFlags = true;
+            } else if (args[i].equals("-replay")) {
+                replayFiles = new ArrayList<>(Arrays.asList(args).subList(i + 1, args.length));
+                break;
+            } else if (candidate == null) {
+                candidate = args[i];
+            }
+        }
+        if (candidate == null) {
+            System.out.println("Usage: Z80Fuzzer engine [-time seconds] [-threads n] [-seed n] [-out directory]"
+                    + " [-lazyflags]");
+            System.out.println("       Z80Fuzzer engine -replay file [file ...]");
+            System.out.println("Engines: " + Z80Engines.names());
+            System.exit(1);
+        }
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        new Random(BACKGROUND_SEED).nextBytes(background);
+        try {
+            Z80Engines.create(candidate, new Z80Bus());
+            if (replayFiles != null) {
+                System.exit(replay(replayFiles) == 0 ? 0 : 1);
+            }
+        } catch (IllegalArgumentException | UnsupportedOperationException e) {
+            System.out.println("error: " + e.getMessage());
+            System.exit(1);
+        }
+
+        System.out.printf("Fuzzing interpreter / %s%s: %d s, %d thread(s), seed %d%n", candidate,
+                lazyFlags ? " (lazy flags)" : "", seconds, threads, seed);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Thread thread = new Thread(new Worker(seed + i), "fuzzer-" + i);
+            thread.setDaemon(true);
+            workers.add(thread);
+            thread.start();
+        }
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+        while (!stop && System.nanoTime() < end) {
+            Thread.sleep(Math.min(STATUS_SECONDS * 1000L, Math.max(1, (end - System.nanoTime()) / 1_000_000)));
+            int size;
+            synchronized (corpus) {
+                size = corpus.size();
+            }
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%6.0f s  %d cases (%.0f/s), corpus %d, coverage %d pairs%n", elapsed, executions.get(),
+                    executions.get() / elapsed, size, coveredPairs.get());
+        }
+        stop = true;
+        for (Thread thread : workers) {
+            thread.join();
+        }
+        System.out.println("Opcodes/flag paths:" + summary());
+        System.out.printf("%d cases, %d failure(s) saved%n", executions.get(), saved.get());
+        System.exit(saved.get() == 0 ? 0 : 1);
+    }
+}
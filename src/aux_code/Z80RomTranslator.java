@@ -0,0 +1,182 @@
+/***********************************************************************************************
+* Traducción anticipada (AOT) de una imagen de ROM a clases Java
+*
+* Copyright (c) 2025 Jose Andres Calvo Conde
+*
+* Desensambla la ROM siguiendo el flujo de control desde sus puntos de entrada (por defecto la
+* dirección de carga, los vectores RST y el de NMI que caigan dentro de la ROM) y genera un fichero
+* fuente con una subclase de Z80AotCode. Cada bloque básico alcanzable se traduce con el mismo
+* traductor que el recompilador dinámico (Z80Translator), como clase anidada.
+*
+* Se siguen los saltos y llamadas con destino fijo, los retornos de las llamadas y RST y la
+* continuación de los saltos condicionales. Los saltos calculados (jp (hl), ret) no se siguen: si
+* la ejecución llega a un bloque no traducido lo ejecuta el intérprete.
+*
+* Uso: AuxLauncher.cmd Z80RomTranslator rom clase [-base dir] [-entry dir ...] [-out directorio]
+*      (direcciones en hexadecimal). Después se compila el fichero generado junto al emulador y
+*      se carga con Z80.setAotCode.
+************************************************************************************************/
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.TreeMap;
+
+public class Z80RomTranslator {
+
+    private final Z80Bus dataBus = new Z80Bus();
+    private final Z80BlockCache cache;
+    private final int base;
+    private final int end;
+
+    private Z80RomTranslator(byte[] rom, int base) {
+        this.base = base;
+        this.end = Math.min(0x10000, base + rom.length);
+        dataBus.addBusComponent(new Z80BusComponent(Constants.MEM_COMPONENT, 0, 1024 * 64));
+        for (int i = 0; base + i < end; i++) {
+            dataBus.memWrite(base + i, rom[i]);
+        }
+        cache = new Z80BlockCache(dataBus, new boolean[0x10000]);
+    }
+
+    // Recorre el flujo de control y traduce los bloques alcanzables, ordenados por dirección
+    private TreeMap<Integer, String> translate(List<Integer> entries) {
+        TreeMap<Integer, String> sources = new TreeMap<>();
+        boolean[] visited = new boolean[0x10000];
+        Deque<Integer> work = new ArrayDeque<>(entries);
+        while (!work.isEmpty()) {
+            int pc = work.pop();
+            if (pc < base || pc >= end || visited[pc]) {
+                continue;
+            }
+            visited[pc] = true;
+            Z80BlockCache.Block block = cache.lookup(pc);
+            if (block == null || block.codeEnd[block.length - 1] > end) {
+                continue;
+            }
+            String source = Z80Translator.translateNested(Z80AotCode.blockClassName(pc), block, dataBus);
+            if (source != null) {
+                sources.put(pc, source);
+            }
+            for (int target : successors(block)) {
+                work.push(target & 0xFFFF);
+            }
+        }
+        return sources;
+    }
+
+    // Direcciones a las que puede seguir la ejecución tras el bloque
+    private List<Integer> successors(Z80BlockCache.Block block) {
+        List<Integer> targets = new ArrayList<>();
+        int last = block.length - 1;
+        int address = block.codeStart[last];
+        int next = block.codeEnd[last];
+        int group = block.handler[last] >> 8;
+        int op = block.handler[last] & 0xFF;
+        int nn = (dataBus.memRead(address + 1) & 0xFF) | ((dataBus.memRead(address + 2) & 0xFF) << 8);
+        boolean fallThrough = true;
+        if (group == Z80BlockCache.GROUP_MAIN) {
+            if (op == 0xC3 || op == 0xC9 || op == 0xE9) {
+                fallThrough = false; // jp NN, ret, jp (hl)
+            }
+            if (op == 0xC3 || op == 0xCD || (op & 0xC7) == 0xC2 || (op & 0xC7) == 0xC4) {
+                targets.add(nn); // jp, call
+            } else if (op == 0x10 || op == 0x18 || (op & 0xE7) == 0x20) {
+                targets.add(next + dataBus.memRead(address + 1)); // djnz, jr
+                fallThrough = op != 0x18;
+            } else if ((op & 0xC7) == 0xC7) {
+                targets.add(op & 0x38); // rst
+            }
+        } else if (group == Z80BlockCache.GROUP_ED) {
+            fallThrough = (op & 0xC7) != 0x45; // retn, reti
+        } else if (group == Z80BlockCache.GROUP_DD || group == Z80BlockCache.GROUP_FD) {
+            fallThrough = op != 0xE9; // jp (ix), jp (iy)
+        }
+        if (fallThrough) {
+            targets.add(next);
+        }
+        return targets;
+    }
+
+    private void write(Path file, String className, TreeMap<Integer, String> sources) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.println("// Código generado por Z80RomTranslator: no editar");
+            out.println();
+            out.println("public final class " + className + " extends Z80AotCode {");
+            out.println();
+            out.println("    private static final String[] BLOCKS = {");
+            for (int pc : sources.keySet()) {
+                Z80BlockCache.Block block = cache.lookup(pc);
+                int blockEnd = block.codeEnd[block.length - 1];
+                out.printf("            \"%04X %04X %X %08X\",%n", pc, blockEnd, block.length,
+                        Z80AotCode.checksum(dataBus, pc, blockEnd));
+            }
+            out.println("    };");
+            out.println();
+            out.println("    public " + className + "() {");
+            out.println("        super(BLOCKS);");
+            out.println("    }");
+            for (String source : sources.values()) {
+                out.println();
+                for (String line : source.split("\n")) {
+                    out.println(line.isEmpty() ? "" : "    " + line);
+                }
+            }
+            out.println("}");
+        }
+    }
+
+    private static int parseAddress(String text) {
+        return Integer.parseInt(text.replaceFirst("^0[xX]", ""), 16) & 0xFFFF;
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<String> positional = new ArrayList<>();
+        List<Integer> entries = new ArrayList<>();
+        int base = 0;
+        String outDir = ".";
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-base") && i + 1 < args.length) {
+                base = parseAddress(args[++i]);
+            } else if (args[i].equals("-entry") && i + 1 < args.length) {
+                entries.add(parseAddress(args[++i]));
+            } else if (args[i].equals("-out") && i + 1 < args.length) {
+                outDir = args[++i];
+            } else {
+                positional.add(args[i]);
+            }
+        }
+        if (positional.size() != 2) {
+            System.err.println("usage: Z80RomTranslator rom class [-base addr] [-entry addr ...] [-out dir]");
+            System.exit(1);
+        }
+        Path romFile = Paths.get(positional.get(0));
+        String className = positional.get(1);
+        if (!Files.exists(romFile)) {
+            System.err.println("error: can't open file '" + romFile + "'.");
+            System.exit(1);
+        }
+        byte[] rom = Files.readAllBytes(romFile);
+
+        // Puntos de entrada por defecto: carga, RST y NMI
+        entries.add(base);
+        for (int rst = 0x00; rst <= 0x38; rst += 8) {
+            entries.add(rst);
+        }
+        entries.add(0x66);
+
+        Z80RomTranslator translator = new Z80RomTranslator(rom, base);
+        TreeMap<Integer, String> sources = translator.translate(entries);
+        Path file = Paths.get(outDir, className + ".java");
+        translator.write(file, className, sources);
+        System.out.printf("%s: %d bytes at %04X, %d blocks translated -> %s%n", romFile, rom.length, base,
+                sources.size(), file);
+    }
+}
@@ -0,0 +1,602 @@
+/***********************************************************************************************
+* Ejecución de los tests por opcode en formato JSON de SingleStepTests
+*
+* Copyright (c) 2025 Jose Andres Calvo Conde
+*
+* Cada fichero (por ejemplo "ed 4a.json" o "dd cb __ 06.json", también comprimido .json.gz) es un
+* array de tests con el estado inicial, el estado final, la lista de ciclos y los accesos a
+* puertos de una sola instrucción. Para cada test se carga el estado inicial en los registros y en
+* una RAM plana de 64 KB, se ejecuta la instrucción y se comparan los registros (incluidos WZ, R,
+* Q, los IFF, IM y el EI reciente), la RAM final, las escrituras en puertos y los tStates (uno por
+* ciclo de la lista).
+*
+* La instrucción se ejecuta con run y un presupuesto igual a los ciclos esperados: así también se
+* prueban los motores con caché de bloques, y los prefijos DD/FD repetidos o sin efecto (que esta
+* CPU ejecuta como una instrucción aparte de 4 tStates) cuentan como una sola instrucción.
+*
+* Los ficheros no se cargan en memoria como árbol: un lector en flujo recorre el JSON byte a byte
+* y rellena un único test reutilizable, sin crear objetos por valor. Los ficheros se reparten
+* entre los hilos de un ForkJoinPool, cada uno con su propia CPU y su propio bus.
+*
+* No se comprueba el campo "p" (último LD A,I/LD A,R), que solo importa al aceptar una INT.
+*
+* Uso: AuxLauncher.cmd Z80SingleStepTests [directorio] [-engine nombre] [-threads n] [-lazyflags]
+*                                         [-max n]
+************************************************************************************************/
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+public class Z80SingleStepTests {
+    private static final String DEFAULT_DIRECTORY = "roms/test/SingleStepTests";
+    private static final int MAX_REPORTED = 3; // Tests fallidos que se detallan por fichero
+
+    // Campos de un estado, en el orden de los índices de State.values
+    private static final String[] STATE_KEYS = { "pc", "sp", "a", "b", "c", "d", "e", "f", "h", "l", "i", "r", "ei",
+            "wz", "ix", "iy", "af_", "bc_", "de_", "hl_", "im", "p", "q", "iff1", "iff2", "memptr", "ram" };
+    private static final int PC = 0, SP = 1, A = 2, B = 3, C = 4, D = 5, E = 6, F = 7, H = 8, L = 9, I = 10, R = 11,
+            EI = 12, WZ = 13, IX = 14, IY = 15, AF_ = 16, BC_ = 17, DE_ = 18, HL_ = 19, IM = 20, P = 21, Q = 22,
+            IFF1 = 23, IFF2 = 24, MEMPTR = 25, RAM = 26;
+    // Campos que se comparan tras la instrucción (p no)
+    private static final int[] COMPARED = { PC, SP, A, F, B, C, D, E, H, L, I, R, EI, WZ, IX, IY, AF_, BC_, DE_, HL_,
+            IM, Q, IFF1, IFF2 };
+    private static final String[] TEST_KEYS = { "name", "initial", "final", "cycles", "ports" };
+
+    private static String engineName = Z80Engines.INTERPRETER;
+    private static boolean lazyFlags;
+    private static int maxTests = Integer.MAX_VALUE; // Tests por fichero
+
+    // Lista de enteros reutilizable
+    private static final class IntList {
+        int[] values = new int[16];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    // Estado de la CPU y de la RAM de un test
+    private static final class State {
+        final int[] values = new int[STATE_KEYS.length];
+        final IntList ram = new IntList(); // Pares dirección, valor
+    }
+
+    // Test reutilizable: se sobrescribe con cada test leído del fichero
+    private static final class TestCase {
+        final StringBuilder name = new StringBuilder();
+        final State initial = new State();
+        final State fin = new State();
+        final IntList ports = new IntList(); // Ternas dirección, valor, 'r' o 'w'
+        int cycles;
+
+        void clear() {
+            name.setLength(0);
+            initial.ram.size = 0;
+            fin.ram.size = 0;
+            Arrays.fill(initial.values, 0);
+            Arrays.fill(fin.values, 0);
+            ports.size = 0;
+            cycles = 0;
+        }
+    }
+
+    ////////////////////////////////////////////////////////////
+    // Lector JSON en flujo: solo lo necesario para este formato (objetos, arrays, enteros,
+    // cadenas sin escapes unicode, true/false/null)
+
+    private static final class JsonReader {
+        private final InputStream in;
+        private final byte[] buffer = new byte[1 << 16]; // Buffer propio: sin el read() sincronizado
+        private int position;
+        private int limit;
+        private final StringBuilder text = new StringBuilder();
+        private int next = -2; // Byte adelantado (-2: ninguno)
+
+        JsonReader(InputStream in) {
+            this.in = in;
+        }
+
+        private int nextByte() throws IOException {
+            if (position == limit) {
+                limit = in.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        // Siguiente carácter significativo, sin consumirlo (-1 al final)
+        int peek() throws IOException {
+            if (next == -2) {
+                next = nextByte();
+            }
+            while (next == ' ' || next == '\n' || next == '\r' || next == '\t') {
+                next = nextByte();
+            }
+            return next;
+        }
+
+        int read() throws IOException {
+            int c = peek();
+            next = -2;
+            return c;
+        }
+
+        void expect(char c) throws IOException {
+            int found = read();
+            if (found != c) {
+                throw new IOException("Expected '" + c + "' but found '" + (found < 0 ? "EOF" : (char) found) + "'");
+            }
+        }
+
+        // Consume la coma entre elementos; devuelve false al cerrar el objeto o array
+        boolean more(char close) throws IOException {
+            int c = peek();
+            if (c == ',') {
+                read();
+                return true;
+            }
+            if (c == close) {
+                read();
+                return false;
+            }
+            return true;
+        }
+
+        int readInt() throws IOException {
+            int c = read();
+            boolean negative = c == '-';
+            if (negative) {
+                c = nextByte();
+            }
+            int value = 0;
+            while (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                c = nextByte();
+            }
+            next = c;
+            return negative ? -value : value;
+        }
+
+        // Lee una cadena en 'text' (reutilizado)
+        StringBuilder readString() throws IOException {
+            expect('"');
+            text.setLength(0);
+            for (int c = nextByte(); c != '"'; c = nextByte()) {
+                if (c < 0) {
+                    throw new IOException("Unterminated string");
+                }
+                if (c == '\\') {
+                    c = nextByte();
+                }
+                text.append((char) c);
+            }
+            return text;
+        }
+
+        // Índice de la clave leída en 'keys' (-1 si no está) y consume los dos puntos
+        int readKey(String[] keys) throws IOException {
+            StringBuilder key = readString();
+            expect(':');
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i].contentEquals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        // Salta un valor recorriendo los bytes sin interpretarlos: solo la profundidad y las cadenas
+        void skipValue() throws IOException {
+            int c = read();
+            int depth = c == '{' || c == '[' ? 1 : 0;
+            boolean inString = c == '"';
+            if (depth == 0 && !inString) { // Número o true/false/null
+                for (c = nextByte(); c >= 0 && c != ',' && c != '}' && c != ']' && c > ' '; c = nextByte()) {
+                }
+                next = c;
+                return;
+            }
+            while (depth > 0 || inString) {
+                c = nextByte();
+                if (c < 0) {
+                    throw new IOException("Unexpected end of file");
+                }
+                if (inString) {
+                    if (c == '\\') {
+                        nextByte();
+                    } else if (c == '"') {
+                        inString = false;
+                    }
+                } else if (c == '"') {
+                    inString = true;
+                } else if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    depth--;
+                }
+            }
+        }
+    }
+
+    private static void readState(JsonReader json, State state) throws IOException {
+        json.expect('{');
+        if (json.peek() == '}') {
+            json.read();
+            return;
+        }
+        do {
+            int key = json.readKey(STATE_KEYS);
+            if (key == RAM) {
+                json.expect('[');
+                if (json.peek() != ']') {
+                    do {
+                        json.expect('[');
+                        state.ram.add(json.readInt());
+                        json.expect(',');
+                        state.ram.add(json.readInt());
+                        json.expect(']');
+                    } while (json.more(']'));
+                } else {
+                    json.read();
+                }
+            } else if (key == MEMPTR) {
+                state.values[WZ] = json.readInt(); // Nombre antiguo de WZ
+            } else if (key >= 0) {
+                state.values[key] = json.readInt();
+            } else {
+                json.skipValue();
+            }
+        } while (json.more('}'));
+    }
+
+    // Lee el siguiente test del array; devuelve false al llegar al final
+    private static boolean readTest(JsonReader json, TestCase test) throws IOException {
+        if (json.peek() == ']') {
+            json.read();
+            return false;
+        }
+        test.clear();
+        json.expect('{');
+        do {
+            switch (json.readKey(TEST_KEYS)) {
+                case 0:
+                    test.name.append(json.readString());
+                    break;
+                case 1:
+                    readState(json, test.initial);
+                    break;
+                case 2:
+                    readState(json, test.fin);
+                    break;
+                case 3: // Solo cuenta los ciclos: uno por tState
+                    json.expect('[');
+                    if (json.peek() != ']') {
+                        do {
+                            json.skipValue();
+                            test.cycles++;
+                        } while (json.more(']'));
+                    } else {
+                        json.read();
+                    }
+                    break;
+                case 4:
+                    json.expect('[');
+                    if (json.peek() != ']') {
+                        do {
+                            json.expect('[');
+                            test.ports.add(json.readInt());
+                            json.expect(',');
+                            test.ports.add(json.readInt());
+                            json.expect(',');
+                            test.ports.add(json.readString().charAt(0));
+                            json.expect(']');
+                        } while (json.more(']'));
+                    } else {
+                        json.read();
+                    }
+                    break;
+                default:
+                    json.skipValue();
+            }
+        } while (json.more('}'));
+        if (json.peek() == ',') {
+            json.read();
+        }
+        return true;
+    }
+
+    ////////////////////////////////////////////////////////////
+    // Ejecución
+
+    // Puertos de E/S: devuelve las lecturas del test en orden y guarda las escrituras
+    private static final class TestPorts extends Z80BusComponent {
+        private final IntList reads = new IntList();
+        private final IntList writes = new IntList(); // Pares dirección, valor
+        private int readIndex;
+
+        TestPorts() {
+            super(Constants.IO_COMPONENT, 0, 256);
+        }
+
+        void load(IntList ports) {
+            reads.size = 0;
+            writes.size = 0;
+            readIndex = 0;
+            for (int i = 0; i < ports.size; i += 3) {
+                if (ports.values[i + 2] == 'r') {
+                    reads.add(ports.values[i + 1]);
+                }
+            }
+        }
+
+        @Override
+        public byte ioRead(int address) {
+            return readIndex < reads.size ? (byte) reads.values[readIndex++] : (byte) 0xFF;
+        }
+
+        @Override
+        public void ioWrite(int address, byte value) {
+            writes.add(address & 0xFFFF);
+            writes.add(value & 0xFF);
+        }
+    }
+
+    // CPU, bus y RAM de un hilo
+    private static final class Context {
+        final Z80Engine cpu;
+        final Z80Bus dataBus = new Z80Bus();
+        final TestPorts ports = new TestPorts();
+        final int[] actual = new int[STATE_KEYS.length];
+
+        Context() {
+            dataBus.addBusComponent(new Z80BusComponent(Constants.MEM_COMPONENT, 0, 0x10000));
+            dataBus.addBusComponent(ports);
+            cpu = Z80Engines.create(engineName, dataBus);
+            cpu.setLazyFlags(lazyFlags);
+        }
+    }
+
+    // Resultado de un fichero
+    private static final class FileResult {
+        final String file;
+        int tests;
+        int failures;
+        final StringBuilder report = new StringBuilder();
+
+        FileResult(String file) {
+            this.file = file;
+        }
+    }
+
+    private static final ConcurrentLinkedQueue<Context> contexts = new ConcurrentLinkedQueue<>();
+
+    private static FileResult runFile(Path file) {
+        FileResult result = new FileResult(file.getFileName().toString());
+        Context context = contexts.poll();
+        if (context == null) {
+            context = new Context();
+        }
+        TestCase test = new TestCase();
+        try (InputStream raw = Files.newInputStream(file)) {
+            JsonReader json = new JsonReader(file.toString().endsWith(".gz") ? new GZIPInputStream(raw, 1 << 16) : raw);
+            json.expect('[');
+            while (result.tests < maxTests && readTest(json, test)) {
+                result.tests++;
+                String failure = runTest(context, test);
+                if (failure != null) {
+                    result.failures++;
+                    if (result.failures <= MAX_REPORTED) {
+                        result.report.append(String.format("  %s: %s%n", test.name, failure));
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            result.failures++;
+            result.report.append(String.format("  error after %d tests: %s%n", result.tests, e));
+        } finally {
+            contexts.add(context);
+        }
+        return result;
+    }
+
+    // Ejecuta un test; devuelve la descripción de las diferencias o null si pasa
+    private static String runTest(Context context, TestCase test) {
+        Z80Engine cpu = context.cpu;
+        Z80Bus dataBus = context.dataBus;
+        int[] in = test.initial.values;
+        IntList ram = test.initial.ram;
+        for (int i = 0; i < ram.size; i += 2) {
+            dataBus.memWrite(ram.values[i], (byte) ram.values[i + 1]);
+        }
+        context.ports.load(test.ports);
+        cpu.RESET();
+        Z80Registers regs = cpu.getRegisters();
+        regs.setPC((short) in[PC]);
+        regs.setSP((short) in[SP]);
+        regs.setA((byte) in[A]);
+        regs.setF((byte) in[F]);
+        regs.setB((byte) in[B]);
+        regs.setC((byte) in[C]);
+        regs.setD((byte) in[D]);
+        regs.setE((byte) in[E]);
+        regs.setH((byte) in[H]);
+        regs.setL((byte) in[L]);
+        regs.setI((byte) in[I]);
+        regs.setR((byte) in[R]);
+        regs.setWZ((short) in[WZ]);
+        regs.setIX((short) in[IX]);
+        regs.setIY((short) in[IY]);
+        regs.setAltAF((short) in[AF_]);
+        regs.setAltBC((short) in[BC_]);
+        regs.setAltDE((short) in[DE_]);
+        regs.setAltHL((short) in[HL_]);
+        regs.setIM((byte) in[IM]);
+        regs.setiff1A(in[IFF1] != 0);
+        regs.setiff1B(in[IFF2] != 0);
+        regs.setQF(in[Q] != 0);
+        regs.preserveQF();
+
+        long start = cpu.getTStates();
+        cpu.run(test.cycles);
+        long elapsed = cpu.getTStates() - start;
+
+        int[] actual = context.actual;
+        actual[PC] = regs.getPC() & 0xFFFF;
+        actual[SP] = regs.getSP() & 0xFFFF;
+        actual[A] = regs.getA() & 0xFF;
+        actual[F] = regs.getF() & 0xFF;
+        actual[B] = regs.getB() & 0xFF;
+        actual[C] = regs.getC() & 0xFF;
+        actual[D] = regs.getD() & 0xFF;
+        actual[E] = regs.getE() & 0xFF;
+        actual[H] = regs.getH() & 0xFF;
+        actual[L] = regs.getL() & 0xFF;
+        actual[I] = regs.getI() & 0xFF;
+        actual[R] = regs.getR() & 0xFF;
+        actual[EI] = cpu.isInterruptShadow() ? 1 : 0;
+        actual[WZ] = regs.getWZ() & 0xFFFF;
+        actual[IX] = regs.getIX() & 0xFFFF;
+        actual[IY] = regs.getIY() & 0xFFFF;
+        actual[AF_] = regs.getAltAF() & 0xFFFF;
+        actual[BC_] = regs.getAltBC() & 0xFFFF;
+        actual[DE_] = regs.getAltDE() & 0xFFFF;
+        actual[HL_] = regs.getAltHL() & 0xFFFF;
+        actual[IM] = regs.getIM();
+        actual[Q] = regs.getLastQF() ? 1 : 0;
+        actual[IFF1] = regs.getiff1A() ? 1 : 0;
+        actual[IFF2] = regs.getiff1B() ? 1 : 0;
+
+        StringBuilder diff = null;
+        int[] expected = test.fin.values;
+        for (int field : COMPARED) {
+            if (actual[field] != expected[field]) {
+                diff = append(diff, String.format("%s %X (expected %X)", STATE_KEYS[field], actual[field],
+                        expected[field]));
+            }
+        }
+        if (elapsed != test.cycles) {
+            diff = append(diff, String.format("tstates %d (expected %d)", elapsed, test.cycles));
+        }
+        IntList finalRam = test.fin.ram;
+        for (int i = 0; i < finalRam.size; i += 2) {
+            int value = dataBus.memRead(finalRam.values[i]) & 0xFF;
+            if (value != finalRam.values[i + 1]) {
+                diff = append(diff, String.format("(%04X) %02X (expected %02X)", finalRam.values[i], value,
+                        finalRam.values[i + 1]));
+            }
+        }
+        IntList writes = context.ports.writes;
+        int expectedWrites = 0;
+        for (int i = 0; i < test.ports.size; i += 3) {
+            if (test.ports.values[i + 2] == 'w') {
+                int index = expectedWrites++ * 2;
+                if (index + 1 >= writes.size || writes.values[index] != test.ports.values[i]
+                        || writes.values[index + 1] != test.ports.values[i + 1]) {
+                    diff = append(diff, String.format("out (%04X),%02X missing", test.ports.values[i],
+                            test.ports.values[i + 1]));
+                }
+            }
+        }
+        if (writes.size != expectedWrites * 2) {
+            diff = append(diff, String.format("%d port writes (expected %d)", writes.size / 2, expectedWrites));
+        }
+
+        // La RAM vuelve a cero para el siguiente test
+        for (int i = 0; i < ram.size; i += 2) {
+            dataBus.memWrite(ram.values[i], (byte) 0);
+        }
+        for (int i = 0; i < finalRam.size; i += 2) {
+            dataBus.memWrite(finalRam.values[i], (byte) 0);
+        }
+        return diff == null ? null : diff.toString();
+    }
+
+    private static StringBuilder append(StringBuilder diff, String text) {
+        return diff == null ? new StringBuilder(text) : diff.append(", ").append(text);
+    }
+
+    public static void main(String[] args) throws Exception {
+        String directory = DEFAULT_DIRECTORY;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-engine") && i + 1 < args.length) {
+                engineName = args[++i];
+            } else if (args[i].equals("-threads") && i + 1 < args.length) {
+                threads = Math.max(1, Integer.parseInt(args[++i]));
+            } else if (args[i].equals("-max") && i + 1 < args.length) {
+                maxTests = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-lazyflags")) {
+                lazyFlags = true;
+            } else {
+                directory = args[i];
+            }
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(Paths.get(directory), "*.{json,json.gz}")) {
+            stream.forEach(files::add);
+        } catch (IOException e) {
+            System.out.println("error: cannot read " + directory + " (" + e + ")");
+            System.exit(1);
+        }
+        if (files.isEmpty()) {
+            System.out.println("error: no .json test files in " + directory);
+            System.exit(1);
+        }
+        Collections.sort(files);
+        try {
+            Z80Engines.create(engineName, new Z80Bus());
+        } catch (IllegalArgumentException | UnsupportedOperationException e) {
+            System.out.println("error: " + e.getMessage());
+            System.exit(1);
+        }
+
+        System.out.printf("SingleStepTests: %d files in %s, engine %s%s, %d thread(s)%n", files.size(), directory,
+                engineName, lazyFlags ? " (lazy flags)" : "", threads);
+        long start = System.nanoTime();
+        List<FileResult> results;
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            results = pool.submit(() -> files.parallelStream().map(Z80SingleStepTests::runFile)
+                    .collect(Collectors.toList())).get();
+        } finally {
+            pool.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long tests = 0;
+        long failures = 0;
+        int failedFiles = 0;
+        for (FileResult result : results) {
+            tests += result.tests;
+            failures += result.failures;
+            if (result.failures > 0) {
+                failedFiles++;
+                System.out.printf("%s: %d of %d failed%n%s", result.file, result.failures, result.tests,
+                        result.report);
+            }
+        }
+        System.out.printf("%d files, %d tests, %d failed (%d files) in %.1f s (%.0f tests/s)%n", files.size(), tests,
+                failures, failedFiles, seconds, tests / seconds);
+        System.exit(failures == 0 ? 0 : 1);
+    }
+}
@@ -9,16 +9,46 @@
 * See Z80TestZex.md for additional info.
 ************************************************************************************************/
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 
 public class Z80TestZex {
     private static final int MEMORY_SIZE = 0x10000; //64 Kb RAM si no los tests fallan
     private static final int BUFFER_SIZE = 0x04000; //16 Kb para los ficheros de ROM
     private static byte[] memoryBuffer = new byte[BUFFER_SIZE]; // Buffer para leer las ROMS de fichero
-    private static boolean testFinished = false;
+    private static final long RUN_BUDGET = 1_000_000; // tStates por llamada a Z80.run
+
+    // Estructura de zexdoc/zexall en 100h usada por el modo -parallel:
+    //   0113h ld hl,(6) / ld sp,hl / ld de,msg1 / ld c,9 / call bdos (011Ch)
+    //   011Fh ld hl,tests (operando en 0120h) / bucle de tests hasta la entrada 0
+    //   012Fh ld de,msg2 / ld c,9 / call bdos (0134h) / jp 0
+    //   013Ah tests: dw grupo, grupo, ..., 0
+    private static final int TESTS_POINTER = 0x0120;
+    private static final int TEST_TABLE = 0x013A;
+    private static final int START_MESSAGE = 0x0117; // ld de,msg1
+    private static final int START_MESSAGE_CALL = 0x011C;
+    private static final int END_MESSAGE = 0x012F; // ld de,msg2
+    private static final int END_MESSAGE_CALL = 0x0134;
+
+    // Máquina de pruebas: CPU, motor con el que se alterna la ejecución (-alternate, o null) y BDOS
+    private static final class Machine {
+        Z80Engine cpu;
+        Z80Engine standby;
+        Z80CpmBdos bdos;
+    }
 
     // Cargar archivo de ROM en la memoria
     private static int loadFile(String filename, Z80Bus db, int addr) throws IOException {
@@ -48,8 +78,8 @@ public class Z80TestZex {
     }
 
     // Ejecutar el test
-    private static int runTest(Z80 z, String filename, long tStatesExpected) throws IOException {
-		
+    private static int runTest(Machine machine, String filename, long tStatesExpected) throws IOException {
+		Z80Engine z = machine.cpu;
 		//Accedemos al bus de datos para manipular la memoria
 		Z80Bus zDB = z.getDataBus();
 
@@ -59,146 +89,285 @@ public class Z80TestZex {
 
 
         System.out.println("*** TEST: " + filename);
-        //z.pc = 0x100;
-		Z80Registers zRegs = z.getRegisters();
-		zRegs.setPC((short) 0x100);
-
-		// Direccion 0x00: Salir del test
-        // Inyectamos en la dirección 0 el código para detener el test
-		// Para detener el test ponemos a 0xFF la dirección de memoria 0x16
-        // El programa verifica el dato de la dirección 0x16 cada ciclo de ejecucion
-
-//   Ensamblador
-//                          .ORG   0x0   
-//   18 0E                  JR   fin_test   
-//                          .ORG 0x10
-//   3E FF        FIN_TEST: LD   a,0xff   
-//   32 16 00               LD   (MARCA_FIN_TEST),a   
-//   76                     HALT   
-//   00           MARCA_FIN_TEST:   NOP   
-
-		zDB.memWrite(0x0000, (byte) 0x18); //JR   fin_test
-		zDB.memWrite(0x0001, (byte) 0x0E);
-		zDB.memWrite(0x0010, (byte) 0x3E); //LD   a,0xff
-		zDB.memWrite(0x0011, (byte) 0xFF);
-		zDB.memWrite(0x0012, (byte) 0x32); //LD   (marca_fin_test),a
-		zDB.memWrite(0x0013, (byte) 0x16);
-		zDB.memWrite(0x0014, (byte) 0x00);
-		zDB.memWrite(0x0015, (byte) 0x76); //Halt
-		zDB.memWrite(0x0016, (byte) 0x00); //MARCA_FIN_TEST:   NOP 
-		
-		// Direccion 0x05: Impresion de caracteres
-		// Inyectamos en la direccion 5 la impresion de caracteres
-
-//  Código en Java a codificar en ensamblador
-//		  byte operation = z.c;
-//        if (operation == 2) {
-//            System.out.print((char) z.e);
-//        } else if (operation == 9) {
-//            int addr = (z.d << 8) | (z.e & 0xFF);
-//            do {
-//                System.out.print((char) rb(addr++));
-//            } while (rb(addr) != '$');
-//        }
-//        return (byte) 0xFF;
-
-//   Ensamblador
-//                       .ORG   0x05   
-//18 49                  JR   IMPRIMIR   
-//
-//                       .ORG   0x50
-//                       ;operacion = registro_C -> valores 2 y 9
-//79           IMPRIMIR:   LD   a,c   
-//FE 02                  CP   2   
-//20 08                  JR   nz,sigue   
-//                       ;operacion == 2
-//3E 01                  LD   a,1   
-//D3 64                  OUT   (100),a   
-//7B                     LD   a,e   
-//D3 65                  OUT   (101),a   
-//C9                     RET   
-//FE 09        SIGUE:    CP   9   
-//                       ; si no es 9 nos vamos
-//C0                     RET   nz   
-//                       ;operacion == 9
-//3E 02                  LD   a,2   
-//D3 64                  OUT   (100),a   
-//1A           SIGUIENTE:   LD   a,(de)   
-//FE 24                  CP   '$'   
-//28 05                  JR   Z,sacar_texto   
-//D3 65                  OUT   (101),a   
-//13                     INC   de   
-//18 F6                  JR   siguiente   
-//3E 03        SACAR_TEXTO:   LD   a,3   
-//D3 64                  OUT   (100),a   
-//C9                     RET   
-
-        //Salto desde 0x05 a IMPRIMIR
-		zDB.memWrite(0x05, (byte)0x18);  //JR   IMPRIMIR
-		zDB.memWrite(0x06, (byte)0x49);  
-
-
-		String hexString = "79FE0220083E01D3647BD365C9FE09C03E02D3641AFE242805D3651318F63E03D364C9";
-		short ptr = (short)0x0050; //dirección de la rutina en memoria
-
-        // Recorrer la cadena de dos en dos caracteres y volcarla en memoria
-        for (int i = 0; i < hexString.length(); i += 2) {
-            // Obtener el par de caracteres
-            String hexPair = hexString.substring(i, i + 2);
-            // Convertir el par hexadecimal a un número decimal
-            int number = Integer.parseInt(hexPair, 16);
-			zDB.memWrite(ptr, (byte)number);ptr = (short)(ptr +1);  
-		}
+        long startTime = System.nanoTime();
+        long tStatesTotal = execute(machine);
 
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        System.out.println("");
+        System.out.println("*** FINISHED TEST: " + filename);
+        System.out.printf("*** %d T-states in %.1f s (%.1f MHz)%n", tStatesTotal, seconds,
+                tStatesTotal / seconds / 1e6);
+        System.out.printf("*** T-states expected=%d, diff=%d%n", tStatesExpected, tStatesExpected - tStatesTotal);
+        if (z instanceof Z80) {
+            printStats((Z80) z);
+        }
 
-        // Iniciamos el test
-        testFinished = false;
+        // Control de regresión de tiempos: el total de ciclos debe coincidir exactamente
+        return tStatesTotal != tStatesExpected ? 1 : 0;
+    }
+
+    // Ejecuta el programa cargado en 100h con el BDOS de la máquina; devuelve los tStates ejecutados
+    private static long execute(Machine machine) {
+		Z80Engine z = machine.cpu;
+		Z80Registers zRegs = z.getRegisters();
+		zRegs.setPC((short) Z80CpmBdos.TPA);
+
+        // Página cero de CP/M con traps: las llamadas al BDOS (impresión de caracteres) se atienden
+        // en Java y el salto a 0 termina el test
+        machine.bdos.install(z);
+        long tStatesStart = z.getTStates(); // El reloj de la CPU nunca se reinicia entre tests
 
-        while (!testFinished) {
-			z.execInst();
-			z.setTStates(0);
-			if ((zDB.memRead(0x0016) & 0xFF) == 0xFF) {
-				testFinished = true;
-			} 
+        // Se ejecuta por lotes; la CPU solo se detiene en los traps del BDOS.
+        // Con -alternate cada lote lo ejecuta un motor distinto, que recibe el estado del anterior
+        Z80Engine current = z;
+        Z80Engine other = machine.standby;
+        while (true) {
+            current.run(RUN_BUDGET);
+            if (current.getStopReason() == Constants.RUN_TRAP) {
+                if (!machine.bdos.service(current)) {
+                    break;
+                }
+            } else if (other != null) {
+                other.loadState(current);
+                Z80Engine previous = current;
+                current = other;
+                other = previous;
+            }
+        }
+        if (current != z) {
+            z.loadState(current);
         }
+        return z.getTStates() - tStatesStart;
+    }
 
-        System.out.println("");
-        System.out.println("*** FINISHED TEST: " + filename);
+    // Estadísticas de la caché de bloques, el código AOT y el recompilador del motor Z80
+    private static void printStats(Z80 z) {
+        if (z.isBlockCache()) {
+            System.out.println("*** " + z.getBlockCache());
+            z.getBlockCache().resetStats();
+        }
+        if (z.getAotCode() != null) {
+            System.out.println("*** " + z.getAotCode());
+            z.getAotCode().resetStats();
+        }
+        if (z.isRecompiler()) {
+            System.out.println("*** " + z.getRecompiler());
+            z.getRecompiler().resetStats();
+        }
+    }
 
-        return 0; // Sin control de ejecucion
+    // Motor Z80 para las opciones de la caché de bloques
+    private static Z80 reference(Z80Engine cpu) {
+        if (!(cpu instanceof Z80)) {
+            throw new UnsupportedOperationException("block cache options need a Z80 engine");
+        }
+        return (Z80) cpu;
     }
 
-    public static void main(String[] args) {
-        // procesador
-        Z80 cpu = new Z80();         
+    // Crea la CPU (+ 64 KB RAM + BDOS) con las opciones de la línea de comandos; el texto del
+    // BDOS sale por 'console'
+    private static Machine createMachine(String[] args, PrintStream console) {
         // 1KB * 64 de memoria RAM, si no los test fallan (no inicializan SP de acuerdo a la memoria)
         Z80BusComponent ram = new Z80BusComponent(Constants.MEM_COMPONENT,0, 1024 * 64);
         // Bus de datos
         Z80Bus dataBus = new Z80Bus();  
         // Conectar RAM al bus
         dataBus.addBusComponent(ram);
-        // Dispositivo de salida por pantalla de tipo caracter
-		CharDevice charDevice = new CharDevice(100,2); // Dirección 100 y 101
-        dataBus.addBusComponent(charDevice);
-        // Conectar bus a la CPU
-        cpu.setDataBus(dataBus);
+
+        // Motor de CPU (ver Z80Engines): -engine nombre, por defecto la propiedad z80.engine o el
+        // intérprete de referencia; -microops equivale a -engine microops.
+        // -alternate nombre: alterna la ejecución con un segundo motor en cada lote, pasándose el estado
+        String engine = System.getProperty(Z80Engines.PROPERTY, Z80Engines.INTERPRETER);
+        String alternate = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-engine") && i + 1 < args.length) {
+                engine = args[++i];
+            } else if (args[i].equals("-alternate") && i + 1 < args.length) {
+                alternate = args[++i];
+            } else if (args[i].equals("-microops")) {
+                engine = Z80Engines.MICRO_OPS;
+            }
+        }
+        Machine machine = new Machine();
+        // El motor alternativo se crea antes para que el bus quede avisando a la caché del principal
+        machine.standby = alternate != null ? Z80Engines.create(alternate, dataBus) : null;
+        Z80Engine cpu = Z80Engines.create(engine, dataBus);
+        machine.cpu = cpu;
+        machine.bdos = new Z80CpmBdos(console);
+        // Opciones -lazyflags: evaluación perezosa de flags, -blockcache: caché de bloques predecodificados,
+        // -fusion: superinstrucciones, -recompiler: recompilador dinámico de bloques calientes,
+        // -aot clase: código traducido de antemano con Z80RomTranslator (por ejemplo de zexdoc.cim en 100h).
+        // Las opciones de la caché de bloques necesitan un motor Z80 con caché (no microops)
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-engine") || args[i].equals("-alternate") || args[i].equals("-threads")) {
+                i++;
+            } else if (args[i].equals("-lazyflags")) {
+                cpu.setLazyFlags(true);
+            } else if (args[i].equals("-blockcache")) {
+                reference(cpu).setBlockCache(true);
+            } else if (args[i].equals("-fusion")) {
+                reference(cpu).setFusion(true);
+            } else if (args[i].equals("-recompiler")) {
+                reference(cpu).setRecompiler(true);
+            } else if (args[i].equals("-aot") && i + 1 < args.length) {
+                try {
+                    reference(cpu).setAotCode((Z80AotCode) Class.forName(args[++i]).getDeclaredConstructor().newInstance());
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalArgumentException("can't load AOT code '" + args[i] + "': " + e);
+                }
+            }
+        }
+        return machine;
+    }
+
+    ////////////////////////////////////////////////////////////
+    // Modo -parallel: cada grupo de la tabla de tests de zexdoc/zexall en su propia máquina
+    // Cada máquina carga el .cim y lo parchea para ejecutar un solo grupo: el puntero a la tabla
+    // apunta a su entrada, la siguiente entrada pasa a 0 y las llamadas que imprimen la cabecera y
+    // el mensaje final se cambian por NOP. La salida de cada grupo se guarda aparte y se muestra en
+    // el orden de la tabla. Los tStates totales no son comparables con la ejecución secuencial
+    // (cambian el bucle y los mensajes), así que el resultado se decide por los "ERROR" de la salida.
+
+    // Resultado de un grupo
+    private static final class Shard {
+        String output;
+        long tStates;
+        double seconds;
+    }
+
+    private static int word(byte[] image, int address) {
+        return (image[address - 0x100] & 0xFF) | ((image[address - 0x100 + 1] & 0xFF) << 8);
+    }
+
+    // Mensaje terminado en $ del .cim
+    private static String message(byte[] image, int address) {
+        StringBuilder text = new StringBuilder();
+        for (int i = address - 0x100; i < image.length && image[i] != '$'; i++) {
+            text.append((char) image[i]);
+        }
+        return text.toString();
+    }
+
+    private static Shard runShard(String[] args, byte[] image, int group) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PrintStream console = new PrintStream(buffer, true);
+        Machine machine = createMachine(args, console);
+        Z80Bus zDB = machine.cpu.getDataBus();
+        for (int i = 0; i < image.length; i++) {
+            zDB.memWrite(0x100 + i, image[i]);
+        }
+        int entry = TEST_TABLE + 2 * group;
+        zDB.memWrite(TESTS_POINTER, (byte) entry);
+        zDB.memWrite(TESTS_POINTER + 1, (byte) (entry >> 8));
+        zDB.memWrite(entry + 2, (byte) 0);
+        zDB.memWrite(entry + 3, (byte) 0);
+        for (int i = 0; i < 3; i++) {
+            zDB.memWrite(START_MESSAGE_CALL + i, (byte) 0);
+            zDB.memWrite(END_MESSAGE_CALL + i, (byte) 0);
+        }
+        Shard shard = new Shard();
+        long startTime = System.nanoTime();
+        shard.tStates = execute(machine);
+        shard.seconds = (System.nanoTime() - startTime) / 1e9;
+        shard.output = new String(buffer.toByteArray(), StandardCharsets.ISO_8859_1);
+        return shard;
+    }
+
+    private static int runParallel(String[] args, String filename, int threads)
+            throws IOException, InterruptedException, ExecutionException {
+        byte[] image = Files.readAllBytes(Paths.get(filename));
+        // Comprobación de la estructura esperada: ld hl,tests y las dos llamadas a bdos
+        if (image.length < TEST_TABLE || (image[TESTS_POINTER - 0x101] & 0xFF) != 0x21
+                || word(image, TESTS_POINTER) != TEST_TABLE || (image[START_MESSAGE_CALL - 0x100] & 0xFF) != 0xCD
+                || (image[END_MESSAGE_CALL - 0x100] & 0xFF) != 0xCD) {
+            System.err.println("error: " + filename + " does not have the zexdoc/zexall layout");
+            return 1;
+        }
+        int groups = 0;
+        while (word(image, TEST_TABLE + 2 * groups) != 0) {
+            groups++;
+        }
+
+        System.out.println("*** TEST: " + filename + " (" + groups + " groups on " + threads + " threads)");
+        System.out.print(message(image, word(image, START_MESSAGE + 1)));
+        long startTime = System.nanoTime();
+        List<Shard> results = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<Shard>> shards = new ArrayList<>();
+        for (int group = 0; group < groups; group++) {
+            int shardGroup = group;
+            shards.add(pool.submit(() -> runShard(args, image, shardGroup)));
+        }
+        pool.shutdown();
+        for (Future<Shard> shard : shards) {
+            results.add(shard.get());
+        }
+        long tStatesTotal = 0;
+        double slowest = 0;
+        int errors = 0;
+        for (Shard shard : results) {
+            System.out.print(shard.output);
+            tStatesTotal += shard.tStates;
+            slowest = Math.max(slowest, shard.seconds);
+            errors += shard.output.contains("ERROR") ? 1 : 0;
+        }
+        System.out.print(message(image, word(image, END_MESSAGE + 1)));
+
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        System.out.println("");
+        System.out.println("*** FINISHED TEST: " + filename);
+        System.out.printf("*** %d T-states in %.1f s (slowest group %.1f s), %d groups with errors%n", tStatesTotal,
+                seconds, slowest, errors);
+        return errors != 0 ? 1 : 0;
+    }
+
+    public static void main(String[] args) {
+        // -parallel: zexdoc y zexall repartidos por grupos entre -threads hilos (por defecto uno por núcleo)
+        boolean parallel = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-parallel")) {
+                parallel = true;
+            } else if (args[i].equals("-threads") && i + 1 < args.length) {
+                threads = Math.max(1, Integer.parseInt(args[++i]));
+            }
+        }
+        Machine machine;
+        try {
+            machine = createMachine(args, System.out);
+        } catch (IllegalArgumentException | UnsupportedOperationException e) {
+            System.err.println("error: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        Z80Engine cpu = machine.cpu;
 
         System.out.println("Z80TestZex - Frank Cringle's Z80 Instruction Set Exerciser");
-        System.out.println("Z80 processor + 64 KB RAM + CharDevice");
+        System.out.println("Z80 processor (" + Z80Engines.nameOf(cpu) + (machine.standby != null ? " / " + Z80Engines.nameOf(machine.standby) : "")
+                + ") + 64 KB RAM + CP/M BDOS traps" + (cpu.isLazyFlags() ? " (lazy flags)" : "")
+                + (cpu instanceof Z80 && ((Z80) cpu).getAotCode() != null ? " (AOT code)" : ""));
 
         // Verificación de componentes conectados al bus
-        dataBus.outputComponentsList();
+        cpu.getDataBus().outputComponentsList();
 
         System.out.println("*** Launching tests...");
 
         try {
             int result = 0;
-            result += runTest(cpu, "roms/test/FDC_tests/prelim.com", 10140L); // Los datos de tstatesExpected no se usan.
-            result += runTest(cpu, "roms/test/FDC_tests/zexdoc.cim", 46734978649L); 
-            result += runTest(cpu, "roms/test/FDC_tests/zexall.cim", 46734978649L);
+            // tStates esperados con el BDOS por traps: cada llamada cuesta el JP de 0005h y el RET del
+            // punto de entrada. El lanzador original en C obtiene 46734978649 para zexdoc/zexall; la
+            // diferencia se debe solo a los ciclos de su rutina de BDOS.
+            result += runTest(machine, "roms/test/FDC_tests/prelim.com", 8709L);
+            if (parallel) {
+                result += runParallel(args, "roms/test/FDC_tests/zexdoc.cim", threads);
+                result += runParallel(args, "roms/test/FDC_tests/zexall.cim", threads);
+            } else {
+                result += runTest(machine, "roms/test/FDC_tests/zexdoc.cim", 46734978502L);
+                result += runTest(machine, "roms/test/FDC_tests/zexall.cim", 46734978502L);
+            }
 
             System.exit(result != 0 ? 1 : 0);
-        } catch (IOException e) {
+        } catch (IOException | InterruptedException | ExecutionException e) {
             e.printStackTrace();
         }
     }
@@ -25,10 +25,21 @@ public class Constants {
 	public static final int MEM_COMPONENT = 1;
 	public static final int IO_COMPONENT = 2;
 	public static final int Z80_BUS = 3;
+	public static final int ROM_COMPONENT = 4;	// Memoria de solo lectura: el bus ignora sus escrituras
 
 	// Constantes para la velocidad del reloj
     public static final int CLOCK_SPEED_NORMAL = 0;
     public static final int CLOCK_SPEED_UNLIMITED = 99;
 
+	// Duración de un cuadro de pantalla en tStates (50 Hz)
+	public static final int TSTATES_FRAME_48K = 69888;
+	public static final int TSTATES_FRAME_128K = 70908;
+
+	// Motivos de parada de Z80.run/runUntil
+	public static final int RUN_BUDGET = 0;		// Presupuesto de tStates agotado
+	public static final int RUN_HALT = 1;		// HALT sin interrupción que lo despierte
+	public static final int RUN_TRAP = 2;		// PC en una dirección de trap
+	public static final int RUN_CONDITION = 3;	// Condición de runUntil cumplida
+
 	 
 }
\ No newline at end of file
@@ -1,87 +1,146 @@
+// Vista de depuración de un registro del Z80
+// El núcleo trabaja directamente con los campos primitivos de Z80Registers; esta clase
+// solo conserva la antigua API getValue/getValue16/setValue para depuradores y trazas.
 public class Register {
 
-	private boolean r8bits; //indicador de registro de 8 bits
-	private boolean r16bitsPure; //indicador de registro de 16 bits puro (no se puede acceder como un registro de 8 bits)
-	private byte value;  // Para registros de 8 bits
-	private short value16;  // Para registros de 8 bits
-	private Register highReg, lowReg; //Par de registros de 8 bits para los de 16 bits
+	// Identificadores de registro para las vistas
+	public static final int A = 0;
+	public static final int B = 1;
+	public static final int C = 2;
+	public static final int D = 3;
+	public static final int E = 4;
+	public static final int H = 5;
+	public static final int L = 6;
+	public static final int I = 7;
+	public static final int R = 8;
+	public static final int HX = 9;
+	public static final int LX = 10;
+	public static final int AF = 16;
+	public static final int BC = 17;
+	public static final int DE = 18;
+	public static final int HL = 19;
+	public static final int IX = 20;
+	public static final int IY = 21;
+	public static final int IR = 22;
+	public static final int XX = 23;
+	public static final int SP = 24;
+	public static final int PC = 25;
+	public static final int WZ = 26;
+	public static final int ALT_AF = 27;
+	public static final int ALT_BC = 28;
+	public static final int ALT_DE = 29;
+	public static final int ALT_HL = 30;
 
-	//Creamos registro de 8 bits
-    public Register(byte initialValue) {  
-        this.value = initialValue;
-		this.r8bits = true;
-		this.r16bitsPure = false;
-    }
+	private final Z80Registers regs; // Banco de registros sobre el que se construye la vista
+	private final int id; // Registro al que representa
 
-	//Creamos registro de 16 bits con las referencias a sus registros de 8 bits
-    public Register(Register high, Register low) {  
-        this.highReg = high;
-        this.lowReg = low;
-		this.r8bits = false;
-		this.r16bitsPure = false;
-    }
-
-	//Creamos registro de 16 bits puro
-    public Register(short initialValue) {  
-        this.value16 = initialValue;
-		this.r8bits = false;
-		this.r16bitsPure = true;
-    }
+	public Register(Z80Registers regs, int id) {
+		this.regs = regs;
+		this.id = id;
+	}
 
+	// Indicador de registro de 8 bits
+	public boolean is8bits() {
+		return id < AF;
+	}
 
 	// Accesos al valor
-    public byte getValue() {
-		if (r8bits) {
-			return value;
-		}
-		else 
-		{
-			System.out.printf( "AVISO getValue 16 bits en 8 bits\n"); 
-			return value;
+	public byte getValue() {
+		switch (id) {
+			case A: return regs.getA();
+			case B: return regs.getB();
+			case C: return regs.getC();
+			case D: return regs.getD();
+			case E: return regs.getE();
+			case H: return regs.getH();
+			case L: return regs.getL();
+			case I: return regs.getI();
+			case R: return regs.getR();
+			case HX: return regs.getHX();
+			case LX: return regs.getLX();
+			default:
+				System.out.printf( "AVISO getValue 16 bits en 8 bits\n");
+				return lowByte(getValue16());
 		}
+	}
 
-    }
-
-    public short getValue16() {
-		if (r8bits) {
-			System.out.printf( "AVISO getValue 8 bits en 16 bits\n"); 
-			return value;
-		}
-		else if (r16bitsPure) {
-			return value16;
+	public short getValue16() {
+		switch (id) {
+			case AF: return regs.getAF();
+			case BC: return regs.getBC();
+			case DE: return regs.getDE();
+			case HL: return regs.getHL();
+			case IX: return regs.getIX();
+			case IY: return regs.getIY();
+			case IR: return regs.getIR();
+			case XX: return regs.getXX();
+			case SP: return regs.getSP();
+			case PC: return regs.getPC();
+			case WZ: return regs.getWZ();
+			case ALT_AF: return regs.getAltAF();
+			case ALT_BC: return regs.getAltBC();
+			case ALT_DE: return regs.getAltDE();
+			case ALT_HL: return regs.getAltHL();
+			default:
+				System.out.printf( "AVISO getValue 8 bits en 16 bits\n");
+				return getValue();
 		}
-		else{
-			return (this.combineBytes((byte)this.highReg.getValue(), (byte)this.lowReg.getValue()));
-		}
-    }
-
+	}
 
 	// Asignacion de valor
-    public void setValue(byte value) {  //actualizar 8 bits
-        this.value = value;
-    } 
- 
-    public void setValue(short value) {  //actualiza los de 8 bits pero si es puro 16 bits no tiene registros de 8 bits
-		if (r16bitsPure) {
-			this.value16 = value;
+	public void setValue(byte value) {  //actualizar 8 bits
+		switch (id) {
+			case A: regs.setA(value); break;
+			case B: regs.setB(value); break;
+			case C: regs.setC(value); break;
+			case D: regs.setD(value); break;
+			case E: regs.setE(value); break;
+			case H: regs.setH(value); break;
+			case L: regs.setL(value); break;
+			case I: regs.setI(value); break;
+			case R: regs.setR(value); break;
+			case HX: regs.setHX(value); break;
+			case LX: regs.setLX(value); break;
+			default:
+				System.out.printf( "AVISO setValue 8 bits en 16 bits\n");
+				setValue((short) (value & 0xFF));
 		}
-		else{
-			this.highReg.setValue( highByte(value));
-			this.lowReg.setValue( lowByte(value));
+	}
+
+	public void setValue(short value) {  //actualizar 16 bits
+		switch (id) {
+			case AF: regs.setAF(value); break;
+			case BC: regs.setBC(value); break;
+			case DE: regs.setDE(value); break;
+			case HL: regs.setHL(value); break;
+			case IX: regs.setIX(value); break;
+			case IY: regs.setIY(value); break;
+			case IR: regs.setIR(value); break;
+			case XX: regs.setXX(value); break;
+			case SP: regs.setSP(value); break;
+			case PC: regs.setPC(value); break;
+			case WZ: regs.setWZ(value); break;
+			case ALT_AF: regs.setAltAF(value); break;
+			case ALT_BC: regs.setAltBC(value); break;
+			case ALT_DE: regs.setAltDE(value); break;
+			case ALT_HL: regs.setAltHL(value); break;
+			default:
+				System.out.printf( "AVISO setValue 16 bits en 8 bits\n");
+				setValue(lowByte(value));
 		}
-    }
+	}
 
 
-    // Para registros de 16 bits, usaremos un método especial
-    public static short combineBytes(byte high, byte low) {
-        return (short) ((high << 8) | (low & 0xFF));
-    }
+	// Utilidades para combinar y separar valores de 16 bits
+	public static short combineBytes(byte high, byte low) {
+		return (short) ((high << 8) | (low & 0xFF));
+	}
 
-    public static byte highByte(short value) {
-        return (byte) (value >> 8);
-    }
+	public static byte highByte(short value) {
+		return (byte) (value >> 8);
+	}
 
-    public static byte lowByte(short value) {
-        return (byte) (value & 0xFF);
-    }
+	public static byte lowByte(short value) {
+		return (byte) (value & 0xFF);
+	}
 }
@@ -8,13 +8,30 @@
 // - Z80 Undocumented Features: http://www.z80.info/z80undoc3.txt
 // - (continuara)
 
-public class Z80 {
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+public class Z80 implements Z80Engine {
 
     // Componentes de la clase
     private Z80Registers regs;
     private Z80ALU alu;
     private Z80Bus dataBus;
-    private int tStates;
+    private long tStates; // Reloj monotónico de la CPU: nunca se reinicia
+    private int frameLength = Constants.TSTATES_FRAME_48K; // Duración del cuadro para las vistas relativas
+    private long frameStart; // tStates en el que empezó el cuadro actual
+
+    // Estado para la ejecución por lotes (run/runUntil)
+    private boolean eiExecuted; // La última instrucción ejecutada fue un EI
+    private boolean intLine; // Línea INT (activa por nivel)
+    private boolean nmiPending; // Flanco NMI pendiente de atender
+    private boolean[] traps = new boolean[0x10000]; // Direcciones de parada
+    private long runLimit; // tStates en los que termina el run() en curso (0 fuera de run)
+    private int stopReason = Constants.RUN_BUDGET;
+    private Z80BlockCache blockCache; // Caché de bloques predecodificados (null: intérprete de referencia)
+    private Z80Recompiler recompiler; // Recompilador dinámico sobre la caché de bloques (null si no está activo)
+    private Z80JitContext jitContext; // Contexto de ejecución de los bloques compilados
+    private Z80AotCode aotCode; // Código traducido de antemano para una ROM (null si no hay)
 
     /////////////////////////////////////////////////////////////////////////
     // Parity precomputed table
@@ -43,7 +60,7 @@ public class Z80 {
     public Z80() {
         regs = new Z80Registers();
         regs.reset();
-        alu = new Z80ALU(regs, parityTable);
+        alu = new Z80ALU(regs);
         // Inicializar el contador de tStates
         tStates = 0;
     }
@@ -60,1905 +77,2140 @@ public class Z80 {
         REFRESH_CYCLE();
         regs.setQF(false);
         // Decodificar y ejecutar la instrucción
-        switch (op & 0xFF) {
+        execOpcode(op & 0xFF);
 
-            // NOP
-            case 0x00:
-                tStates += 4;
-                break;
+        // Salvamos QF
+        regs.preserveQF();
 
-            // LD BC,NN
-            case 0x01:
-                tStates += 10;
-                regs.C.setValue(dataBus.memRead(regs.getPC() & 0xFFFF));
-                regs.setPC((short) (regs.getPC() + 1));
-                regs.B.setValue(dataBus.memRead(regs.getPC() & 0xFFFF));
-                regs.setPC((short) (regs.getPC() + 1));
-                break;
+    }
 
-            // LD (BC),A
-            case 0x02:
-                tStates += 7;
-                dataBus.memWrite((regs.BC.getValue16() & 0xFFFF), (byte) regs.A.getValue());
-                regs.setZ((byte) ((regs.C.getValue() + 1) & 0xFF));
-                regs.setW(regs.A.getValue());
+    // Decodificación y ejecución de un opcode sin prefijo
+    // Cada opcode se ejecuta en su propio método: los switch con todo el código en línea
+    // superaban el límite de 8000 bytecodes (HugeMethodLimit) y el JIT nunca los compilaba.
+    // Los execOpcode* son visibles en el paquete: Z80MicroOpEngine los usa para las instrucciones
+    // que no descompone en micro-operaciones
+    void execOpcode(int op) {
+        switch (op) {
+            case 0x00: op_00(); break; // NOP
+            case 0x01: op_01(); break; // LD BC,NN
+            case 0x02: op_02(); break; // LD (BC),A
+            case 0x03: op_03(); break; // INC BC
+            case 0x04: op_04(); break; // inc b
+            case 0x05: op_05(); break; // dec b
+            case 0x06: op_06(); break; // ld b,N
+            case 0x07: op_07(); break; // rlca
+            case 0x08: op_08(); break; // ex af,af'
+            case 0x09: op_09(); break; // add hl,bc
+            case 0x0A: op_0A(); break; // ld a,(bc)
+            case 0x0B: op_0B(); break; // dec bc
+            case 0x0C: op_0C(); break; // inc c
+            case 0x0D: op_0D(); break; // dec c
+            case 0x0E: op_0E(); break; // ld c,N
+            case 0x0F: op_0F(); break; // rrca
+            case 0x10: op_10(); break; // DJNZ
+            case 0x11: op_11(); break; // LD DE,NN
+            case 0x12: op_12(); break; // LD (DE),A
+            case 0x13: op_13(); break; // INC DE
+            case 0x14: op_14(); break; // INC D
+            case 0x15: op_15(); break; // DEC D
+            case 0x16: op_16(); break; // LD D,N
+            case 0x17: op_17(); break; // RLA
+            case 0x18: op_18(); break; // JR D
+            case 0x19: op_19(); break; // ADD HL,DE
+            case 0x1A: op_1A(); break; // LD A,(DE)
+            case 0x1B: op_1B(); break; // DEC DE
+            case 0x1C: op_1C(); break; // INC E
+            case 0x1D: op_1D(); break; // DEC E
+            case 0x1E: op_1E(); break; // LD E,N
+            case 0x1F: op_1F(); break; // RRA
+            case 0x20: op_20(); break; // JR NZ, D
+            case 0x21: op_21(); break; // LD HL, NN
+            case 0x22: op_22(); break; // LD (NN), HL
+            case 0x23: op_23(); break; // INC HL
+            case 0x24: op_24(); break; // INC H
+            case 0x25: op_25(); break; // DEC H
+            case 0x26: op_26(); break; // LD H, N
+            case 0x27: op_27(); break; // DAA
+            case 0x28: op_28(); break; // JR Z, D
+            case 0x29: op_29(); break; // ADD HL, HL
+            case 0x2A: op_2A(); break; // LD HL, (NN)
+            case 0x2B: op_2B(); break; // DEC HL
+            case 0x2C: op_2C(); break; // INC L
+            case 0x2D: op_2D(); break; // DEC L
+            case 0x2E: op_2E(); break; // LD L, N
+            case 0x2F: op_2F(); break; // CPL
+            case 0x30: op_30(); break; // jr nc,D
+            case 0x31: op_31(); break; // ld sp,NN
+            case 0x32: op_32(); break; // ld (NN),a
+            case 0x33: op_33(); break; // inc sp
+            case 0x34: op_34(); break; // inc (hl)
+            case 0x35: op_35(); break; // dec (hl)
+            case 0x36: op_36(); break; // ld (hl),N
+            case 0x37: op_37(); break; // scf
+            case 0x38: op_38(); break; // jr c,D
+            case 0x39: op_39(); break; // add hl,sp
+            case 0x3A: op_3A(); break; // ld a,(NN)
+            case 0x3B: op_3B(); break; // dec sp
+            case 0x3C: op_3C(); break; // inc a
+            case 0x3D: op_3D(); break; // dec a
+            case 0x3E: op_3E(); break; // ld a,N
+            case 0x3F: op_3F(); break; // ccf
+            case 0x40: op_40(); break; // ld b,b
+            case 0x41: op_41(); break; // ld b,c
+            case 0x42: op_42(); break; // ld b,d
+            case 0x43: op_43(); break; // ld b,e
+            case 0x44: op_44(); break; // ld b,h
+            case 0x45: op_45(); break; // ld b,l
+            case 0x46: op_46(); break; // ld b,(hl)
+            case 0x47: op_47(); break; // ld b,a
+            case 0x48: op_48(); break; // ld c,b
+            case 0x49: op_49(); break; // ld c,c
+            case 0x4A: op_4A(); break; // ld c,d
+            case 0x4B: op_4B(); break; // ld c,e
+            case 0x4C: op_4C(); break; // ld c,h
+            case 0x4D: op_4D(); break; // ld c,l
+            case 0x4E: op_4E(); break; // ld c,(hl)
+            case 0x4F: op_4F(); break; // ld c,a
+            case 0x50: op_50(); break; // ld d,b
+            case 0x51: op_51(); break; // ld d,c
+            case 0x52: op_52(); break; // ld d,d
+            case 0x53: op_53(); break; // ld d,e
+            case 0x54: op_54(); break; // ld d,h
+            case 0x55: op_55(); break; // ld d,l
+            case 0x56: op_56(); break; // ld d,(hl)
+            case 0x57: op_57(); break; // ld d,a
+            case 0x58: op_58(); break; // ld e,b
+            case 0x59: op_59(); break; // ld e,c
+            case 0x5A: op_5A(); break; // ld e,d
+            case 0x5B: op_5B(); break; // ld e,e
+            case 0x5C: op_5C(); break; // ld e,h
+            case 0x5D: op_5D(); break; // ld e,l
+            case 0x5E: op_5E(); break; // ld e,(hl)
+            case 0x5F: op_5F(); break; // ld e,a
+            case 0x60: op_60(); break; // ld h,b
+            case 0x61: op_61(); break; // ld h,c
+            case 0x62: op_62(); break; // ld h,d
+            case 0x63: op_63(); break; // ld h,e
+            case 0x64: op_64(); break; // ld h,h
+            case 0x65: op_65(); break; // ld h,l
+            case 0x66: op_66(); break; // ld h,(hl)
+            case 0x67: op_67(); break; // ld h,a
+            case 0x68: op_68(); break; // ld l,b
+            case 0x69: op_69(); break; // ld l,c
+            case 0x6A: op_6A(); break; // ld l,d
+            case 0x6B: op_6B(); break; // ld l,e
+            case 0x6C: op_6C(); break; // ld l,h
+            case 0x6D: op_6D(); break; // ld l,l
+            case 0x6E: op_6E(); break; // ld l,(hl)
+            case 0x6F: op_6F(); break; // ld l,a
+            case 0x70: op_70(); break; // ld (hl),b
+            case 0x71: op_71(); break; // ld (hl),c
+            case 0x72: op_72(); break; // ld (hl),d
+            case 0x73: op_73(); break; // ld (hl),e
+            case 0x74: op_74(); break; // ld (hl),h
+            case 0x75: op_75(); break; // ld (hl),l
+            case 0x76: op_76(); break; // halt
+            case 0x77: op_77(); break; // ld (hl),a
+            case 0x78: op_78(); break; // ld a,b
+            case 0x79: op_79(); break; // ld a,c
+            case 0x7A: op_7A(); break; // ld a,d
+            case 0x7B: op_7B(); break; // ld a,e
+            case 0x7C: op_7C(); break; // ld a,h
+            case 0x7D: op_7D(); break; // ld a,l
+            case 0x7E: op_7E(); break; // ld a,(hl)
+            case 0x7F: op_7F(); break; // ld a,a
+            case 0x80: op_80(); break; // add a,b
+            case 0x81: op_81(); break; // add a,c
+            case 0x82: op_82(); break; // add a,d
+            case 0x83: op_83(); break; // add a,e
+            case 0x84: op_84(); break; // add a,h
+            case 0x85: op_85(); break; // add a,l
+            case 0x86: op_86(); break; // add a,(hl)
+            case 0x87: op_87(); break; // add a,a
+            case 0x88: op_88(); break; // adc a,b
+            case 0x89: op_89(); break; // adc a,c
+            case 0x8A: op_8A(); break; // adc a,d
+            case 0x8B: op_8B(); break; // adc a,e
+            case 0x8C: op_8C(); break; // adc a,h
+            case 0x8D: op_8D(); break; // adc a,l
+            case 0x8E: op_8E(); break; // adc a,(hl)
+            case 0x8F: op_8F(); break; // adc a,a
+            case 0x90: op_90(); break; // sub b
+            case 0x91: op_91(); break; // sub c
+            case 0x92: op_92(); break; // sub d
+            case 0x93: op_93(); break; // sub e
+            case 0x94: op_94(); break; // sub h
+            case 0x95: op_95(); break; // sub l
+            case 0x96: op_96(); break; // sub (hl)
+            case 0x97: op_97(); break; // sub a
+            case 0x98: op_98(); break; // sbc a,b
+            case 0x99: op_99(); break; // sbc a,c
+            case 0x9A: op_9A(); break; // sbc a,d
+            case 0x9B: op_9B(); break; // sbc a,e
+            case 0x9C: op_9C(); break; // sbc a,h
+            case 0x9D: op_9D(); break; // sbc a,l
+            case 0x9E: op_9E(); break; // sbc a,(hl)
+            case 0x9F: op_9F(); break; // sbc a,a
+            case 0xA0: op_A0(); break; // and b
+            case 0xA1: op_A1(); break; // and c
+            case 0xA2: op_A2(); break; // and d
+            case 0xA3: op_A3(); break; // and e
+            case 0xA4: op_A4(); break; // and h
+            case 0xA5: op_A5(); break; // and l
+            case 0xA6: op_A6(); break; // and (hl)
+            case 0xA7: op_A7(); break; // and a
+            case 0xA8: op_A8(); break; // xor b
+            case 0xA9: op_A9(); break; // xor c
+            case 0xAA: op_AA(); break; // xor d
+            case 0xAB: op_AB(); break; // xor e
+            case 0xAC: op_AC(); break; // xor h
+            case 0xAD: op_AD(); break; // xor l
+            case 0xAE: op_AE(); break; // xor (hl)
+            case 0xAF: op_AF(); break; // xor a
+            case 0xB0: op_B0(); break; // or b
+            case 0xB1: op_B1(); break; // or c
+            case 0xB2: op_B2(); break; // or d
+            case 0xB3: op_B3(); break; // or e
+            case 0xB4: op_B4(); break; // or h
+            case 0xB5: op_B5(); break; // or l
+            case 0xB6: op_B6(); break; // or (hl)
+            case 0xB7: op_B7(); break; // or a
+            case 0xB8: op_B8(); break; // cp b
+            case 0xB9: op_B9(); break; // cp c
+            case 0xBA: op_BA(); break; // cp d
+            case 0xBB: op_BB(); break; // cp e
+            case 0xBC: op_BC(); break; // cp h
+            case 0xBD: op_BD(); break; // cp l
+            case 0xBE: op_BE(); break; // cp (hl)
+            case 0xBF: op_BF(); break; // cp a
+            case 0xC0: op_C0(); break; // ret nz
+            case 0xC1: op_C1(); break; // pop bc
+            case 0xC2: op_C2(); break; // jp nz,NN
+            case 0xC3: op_C3(); break; // jp NN
+            case 0xC4: op_C4(); break; // call nz,NN
+            case 0xC5: op_C5(); break; // push bc
+            case 0xC6: op_C6(); break; // add a,N
+            case 0xC7: op_C7(); break; // rst 0x00
+            case 0xC8: op_C8(); break; // ret z
+            case 0xC9: op_C9(); break; // ret
+            case 0xCA: op_CA(); break; // jp z,NN
+            case 0xCB: op_CB(); break; // 0xCB instructions prefix
+            case 0xCC: op_CC(); break; // call z,NN
+            case 0xCD: op_CD(); break; // call NN
+            case 0xCE: op_CE(); break; // adc a,N
+            case 0xCF: op_CF(); break; // rst 0x08
+            case 0xD0: op_D0(); break; // ret nc
+            case 0xD1: op_D1(); break; // pop de
+            case 0xD2: op_D2(); break; // jp nc,NN
+            case 0xD3: op_D3(); break; // out (N),a
+            case 0xD4: op_D4(); break; // call nc,NN
+            case 0xD5: op_D5(); break; // push de
+            case 0xD6: op_D6(); break; // sub N
+            case 0xD7: op_D7(); break; // rst 0x10
+            case 0xD8: op_D8(); break; // ret c
+            case 0xD9: op_D9(); break; // exx
+            case 0xDA: op_DA(); break; // jp c,NN
+            case 0xDB: op_DB(); break; // in a,(N)
+            case 0xDC: op_DC(); break; // call c,NN
+            case 0xDD: op_DD(); break; // IX register operations
+            case 0xDE: op_DE(); break; // sbc a,N
+            case 0xDF: op_DF(); break; // rst 0x18
+            case 0xE0: op_E0(); break; // ret po
+            case 0xE1: op_E1(); break; // pop hl
+            case 0xE2: op_E2(); break; // jp po,NN
+            case 0xE3: op_E3(); break; // ex (sp),hl
+            case 0xE4: op_E4(); break; // call po,NN
+            case 0xE5: op_E5(); break; // push hl
+            case 0xE6: op_E6(); break; // and N
+            case 0xE7: op_E7(); break; // rst 0x20
+            case 0xE8: op_E8(); break; // ret pe
+            case 0xE9: op_E9(); break; // jp (hl)
+            case 0xEA: op_EA(); break; // jp pe,NN
+            case 0xEB: op_EB(); break; // ex de,hl
+            case 0xEC: op_EC(); break; // call pe,NN
+            case 0xED: op_ED(); break; // 0xED instructions prefix
+            case 0xEE: op_EE(); break; // xor N
+            case 0xEF: op_EF(); break; // rst 0x28
+            case 0xF0: op_F0(); break; // ret p
+            case 0xF1: op_F1(); break; // pop af
+            case 0xF2: op_F2(); break; // jp p,NN
+            case 0xF3: op_F3(); break; // di
+            case 0xF4: op_F4(); break; // call p,NN
+            case 0xF5: op_F5(); break; // push af
+            case 0xF6: op_F6(); break; // or N
+            case 0xF7: op_F7(); break; // rst 0x30
+            case 0xF8: op_F8(); break; // ret m
+            case 0xF9: op_F9(); break; // ld sp,hl
+            case 0xFA: op_FA(); break; // jp m,NN
+            case 0xFB: op_FB(); break; // ei
+            case 0xFC: op_FC(); break; // call m,NN
+            case 0xFD: op_FD(); break; // IY register operation prefix
+            case 0xFE: op_FE(); break; // cp N
+            case 0xFF: op_FF(); break; // rst 0x38
 
-                break;
+        }
+    }
 
-            // INC BC
-            case 0x03:
-                tStates += 6;
-                regs.BC.setValue((short) (regs.BC.getValue16() + 1));
-                break;
+    /////////////////////////////////////////////////////////////////////////
+    // Instrucciones sin prefijo
 
-            // inc b
-            case 0x04:
-                tStates += 4;
-                alu.INC_R8(regs.B);
-                break;
+    // NOP
+    private void op_00() {
+        tStates += 4;
+    }
 
-            // dec b
-            case 0x05:
-                tStates += 4;
-                alu.DEC_R8(regs.B);
-                break;
+    // LD BC,NN
+    private void op_01() {
+        tStates += 10;
+        regs.setC(dataBus.memRead(regs.getPC() & 0xFFFF));
+        regs.setPC((short) (regs.getPC() + 1));
+        regs.setB(dataBus.memRead(regs.getPC() & 0xFFFF));
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // ld b,N
-            case 0x06:
-                tStates += 7;
-                regs.B.setValue(dataBus.memRead(regs.getPC() & 0xFFFF));
-                regs.setPC((short) (regs.getPC() + 1));
-                break;
+    // LD (BC),A
+    private void op_02() {
+        tStates += 7;
+        dataBus.memWrite((regs.getBC() & 0xFFFF), (byte) regs.getA());
+        regs.setZ((byte) ((regs.getC() + 1) & 0xFF));
+        regs.setW(regs.getA());
+    }
 
-            // rlca
-            case 0x07:
-                tStates += 4; {
-                byte aux = (byte) regs.A.getValue();
-                regs.A.setValue((byte) (((aux << 1) & 0xfe) | ((aux >> 7) & 0x01)));
-                regs.setHF(false);
-                regs.setNF(false);
-                regs.setCF((aux & 0x80) != 0);
-                regs.setF3((regs.A.getValue() & 0x08) != 0);
-                regs.setF5((regs.A.getValue() & 0x20) != 0);
+    // INC BC
+    private void op_03() {
+        tStates += 6;
+        regs.setBC((short) (regs.getBC() + 1));
+    }
 
-            }
-                break;
+    // inc b
+    private void op_04() {
+        tStates += 4;
+        regs.setB(alu.INC_R8(regs.getB()));
+    }
 
-            // ex af,af'
-            case 0x08:
-                tStates += 4; {
-                short af = regs.getAF();
-                regs.setAF(regs.altAF.getValue16());
-                regs.altAF.setValue(af);
-            }
-                break;
+    // dec b
+    private void op_05() {
+        tStates += 4;
+        regs.setB(alu.DEC_R8(regs.getB()));
+    }
 
-            // add hl,bc
-            case 0x09:
-                tStates += 11;
-                alu.ADD_R16(regs.HL, regs.BC.getValue16());
-                break;
+    // ld b,N
+    private void op_06() {
+        tStates += 7;
+        regs.setB(dataBus.memRead(regs.getPC() & 0xFFFF));
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // ld a,(bc)
-            case 0x0A:
-                tStates += 7;
-                regs.A.setValue((byte) dataBus.memRead((regs.BC.getValue16() & 0xFFFF)));
-                regs.setWZ((short) (regs.BC.getValue16() + 1));
-                break;
+    // rlca
+    private void op_07() {
+        tStates += 4;
+        byte aux = (byte) regs.getA();
+        regs.setA((byte) (((aux << 1) & 0xfe) | ((aux >> 7) & 0x01)));
+        regs.setHF(false);
+        regs.setNF(false);
+        regs.setCF((aux & 0x80) != 0);
+        regs.setF3((regs.getA() & 0x08) != 0);
+        regs.setF5((regs.getA() & 0x20) != 0);
+    }
 
-            // dec bc
-            case 0x0B:
-                tStates += 6;
-                regs.BC.setValue((short) (regs.BC.getValue16() - 1));
-                break;
+    // ex af,af'
+    private void op_08() {
+        tStates += 4;
+        short af = regs.getAF();
+        regs.setAF(regs.getAltAF());
+        regs.setAltAF(af);
+    }
 
-            // inc c
-            case 0x0C:
-                tStates += 4;
-                alu.INC_R8(regs.C);
-                break;
+    // add hl,bc
+    private void op_09() {
+        tStates += 11;
+        regs.setHL(alu.ADD_R16(regs.getHL(), regs.getBC()));
+    }
 
-            // dec c
-            case 0x0D:
-                tStates += 4;
-                alu.DEC_R8(regs.C);
-                break;
+    // ld a,(bc)
+    private void op_0A() {
+        tStates += 7;
+        regs.setA((byte) dataBus.memRead((regs.getBC() & 0xFFFF)));
+        regs.setWZ((short) (regs.getBC() + 1));
+    }
 
-            // ld c,N
-            case 0x0E:
-                tStates += 7;
-                regs.C.setValue(dataBus.memRead(regs.getPC() & 0xFFFF));
-                regs.setPC((short) (regs.getPC() + 1));
-                break;
+    // dec bc
+    private void op_0B() {
+        tStates += 6;
+        regs.setBC((short) (regs.getBC() - 1));
+    }
 
-            // rrca
-            case 0x0F:
-                tStates += 4; {
-                byte aux = (byte) regs.A.getValue();
-                regs.setCF((aux & 0x01) != 0);
-                regs.A.setValue((byte) (((aux >> 1) & 0x7F) | (((aux & 0x01) << 7) & 0x80)));
-                regs.setHF(false);
-                regs.setNF(false);
-                regs.setF3((regs.A.getValue() & 0x08) != 0);
-                regs.setF5((regs.A.getValue() & 0x20) != 0);
-            }
-                break;
+    // inc c
+    private void op_0C() {
+        tStates += 4;
+        regs.setC(alu.INC_R8(regs.getC()));
+    }
 
-            // DJNZ
-            case 0x10:
-                regs.B.setValue((byte) (regs.B.getValue() - 1));
-                tStates += 8;
-                if (regs.B.getValue() != 0) {
-                    tStates += 5;
-                    regs.setPC((short) (regs.getPC() + (byte) dataBus.memRead(regs.getPC() & 0xFFFF) + 1));
-                    regs.setWZ(regs.getPC());
-                } else {
-                    regs.setPC((short) (regs.getPC() + 1));
-                }
-                break;
+    // dec c
+    private void op_0D() {
+        tStates += 4;
+        regs.setC(alu.DEC_R8(regs.getC()));
+    }
 
-            // LD DE,NN
-            case 0x11:
-                tStates += 10;
-                regs.E.setValue(dataBus.memRead(regs.getPC() & 0xFFFF));
-                regs.setPC((short) (regs.getPC() + 1));
-                regs.D.setValue(dataBus.memRead(regs.getPC() & 0xFFFF));
-                regs.setPC((short) (regs.getPC() + 1));
-                break;
+    // ld c,N
+    private void op_0E() {
+        tStates += 7;
+        regs.setC(dataBus.memRead(regs.getPC() & 0xFFFF));
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // LD (DE),A
-            case 0x12:
-                tStates += 7;
-                dataBus.memWrite((regs.DE.getValue16() & 0xFFFF), (byte) regs.A.getValue());
-                regs.setZ((byte) ((regs.E.getValue() + 1) & 0xFF));
-                regs.setW(regs.A.getValue());
-                break;
+    // rrca
+    private void op_0F() {
+        tStates += 4;
+        byte aux = (byte) regs.getA();
+        regs.setCF((aux & 0x01) != 0);
+        regs.setA((byte) (((aux >> 1) & 0x7F) | (((aux & 0x01) << 7) & 0x80)));
+        regs.setHF(false);
+        regs.setNF(false);
+        regs.setF3((regs.getA() & 0x08) != 0);
+        regs.setF5((regs.getA() & 0x20) != 0);
+    }
 
-            // INC DE
-            case 0x13:
-                tStates += 6;
-                regs.DE.setValue((short) (regs.DE.getValue16() + 1));
-                break;
+    // DJNZ
+    private void op_10() {
+        regs.setB((byte) (regs.getB() - 1));
+        tStates += 8;
+        if (regs.getB() != 0) {
+            tStates += 5;
+            regs.setPC((short) (regs.getPC() + (byte) dataBus.memRead(regs.getPC() & 0xFFFF) + 1));
+            regs.setWZ(regs.getPC());
+        } else {
+            regs.setPC((short) (regs.getPC() + 1));
+        }
+    }
 
-            // INC D
-            case 0x14:
-                tStates += 4;
-                alu.INC_R8(regs.D);
-                break;
+    // LD DE,NN
+    private void op_11() {
+        tStates += 10;
+        regs.setE(dataBus.memRead(regs.getPC() & 0xFFFF));
+        regs.setPC((short) (regs.getPC() + 1));
+        regs.setD(dataBus.memRead(regs.getPC() & 0xFFFF));
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // DEC D
-            case 0x15:
-                tStates += 4;
-                alu.DEC_R8(regs.D);
-                break;
+    // LD (DE),A
+    private void op_12() {
+        tStates += 7;
+        dataBus.memWrite((regs.getDE() & 0xFFFF), (byte) regs.getA());
+        regs.setZ((byte) ((regs.getE() + 1) & 0xFF));
+        regs.setW(regs.getA());
+    }
 
-            // LD D,N
-            case 0x16:
-                tStates += 7;
-                regs.D.setValue(dataBus.memRead(regs.getPC() & 0xFFFF));
-                regs.setPC((short) (regs.getPC() + 1));
-                break;
+    // INC DE
+    private void op_13() {
+        tStates += 6;
+        regs.setDE((short) (regs.getDE() + 1));
+    }
 
-            // RLA
-            case 0x17:
-                tStates += 4; {
-                byte aux = (byte) regs.A.getValue();
-                regs.A.setValue((byte) (((regs.A.getValue() << 1) & 0xfe) | (regs.getCF() ? 0x01 : 0x00)));
-                regs.setCF((aux & 0x80) != 0);
-                regs.setNF(false);
-                regs.setHF(false);
-                regs.setF3((regs.A.getValue() & 0x008) != 0);
-                regs.setF5((regs.A.getValue() & 0x020) != 0);
-            }
-                break;
+    // INC D
+    private void op_14() {
+        tStates += 4;
+        regs.setD(alu.INC_R8(regs.getD()));
+    }
 
-            // JR D
-            case 0x18:
-                tStates += 12;
-                regs.setPC((short) (regs.getPC() + 1 + (byte) dataBus.memRead(regs.getPC() & 0xFFFF)));
-                regs.setWZ(regs.getPC());
-                break;
+    // DEC D
+    private void op_15() {
+        tStates += 4;
+        regs.setD(alu.DEC_R8(regs.getD()));
+    }
 
-            // ADD HL,DE
-            case 0x19:
-                tStates += 11;
-                alu.ADD_R16(regs.HL, regs.DE.getValue16());
-                break;
+    // LD D,N
+    private void op_16() {
+        tStates += 7;
+        regs.setD(dataBus.memRead(regs.getPC() & 0xFFFF));
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // LD A,(DE)
-            case 0x1A:
-                tStates += 7;
-                regs.A.setValue(dataBus.memRead(regs.DE.getValue16()));
-                regs.setWZ((short) (regs.DE.getValue16() + 1));
-                break;
+    // RLA
+    private void op_17() {
+        tStates += 4;
+        byte aux = (byte) regs.getA();
+        regs.setA((byte) (((regs.getA() << 1) & 0xfe) | (regs.getCF() ? 0x01 : 0x00)));
+        regs.setCF((aux & 0x80) != 0);
+        regs.setNF(false);
+        regs.setHF(false);
+        regs.setF3((regs.getA() & 0x008) != 0);
+        regs.setF5((regs.getA() & 0x020) != 0);
+    }
 
-            // DEC DE
-            case 0x1B:
-                tStates += 6;
-                regs.DE.setValue((short) (regs.DE.getValue16() - 1));
-                break;
+    // JR D
+    private void op_18() {
+        tStates += 12;
+        regs.setPC((short) (regs.getPC() + 1 + (byte) dataBus.memRead(regs.getPC() & 0xFFFF)));
+        regs.setWZ(regs.getPC());
+    }
 
-            // INC E
-            case 0x1C:
-                tStates += 4;
-                alu.INC_R8(regs.E);
-                break;
+    // ADD HL,DE
+    private void op_19() {
+        tStates += 11;
+        regs.setHL(alu.ADD_R16(regs.getHL(), regs.getDE()));
+    }
 
-            // DEC E
-            case 0x1D:
-                tStates += 4;
-                alu.DEC_R8(regs.E);
-                break;
+    // LD A,(DE)
+    private void op_1A() {
+        tStates += 7;
+        regs.setA(dataBus.memRead(regs.getDE()));
+        regs.setWZ((short) (regs.getDE() + 1));
+    }
 
-            // LD E,N
-            case 0x1E:
-                tStates += 7;
-                regs.E.setValue(dataBus.memRead(regs.getPC() & 0xFFFF));
-                regs.setPC((short) (regs.getPC() + 1));
-                break;
+    // DEC DE
+    private void op_1B() {
+        tStates += 6;
+        regs.setDE((short) (regs.getDE() - 1));
+    }
 
-            // RRA
-            case 0x1F:
-                tStates += 4; {
-                byte aux = (byte) regs.A.getValue();
-                regs.A.setValue((byte) (((regs.A.getValue() >> 1) & 0x7f) | (regs.getCF() ? 0x80 : 0x00)));
-                regs.setCF((aux & 0x01) != 0);
-                regs.setNF(false);
-                regs.setHF(false);
-                regs.setF3((regs.A.getValue() & 0x008) != 0);
-                regs.setF5((regs.A.getValue() & 0x020) != 0);
-            }
-                break;
+    // INC E
+    private void op_1C() {
+        tStates += 4;
+        regs.setE(alu.INC_R8(regs.getE()));
+    }
 
-            // JR NZ, D
-            case 0x20:
-                tStates += 7;
-                if (!regs.getZF()) {
-                    tStates += 5;
-                    regs.setPC((short) (regs.getPC() + (byte) dataBus.memRead(regs.getPC() & 0xFFFF)));
-                    regs.setWZ((short) ((regs.getPC() + 1) & 0xFFFF));
-                }
-                regs.setPC((short) (regs.getPC() + 1));
-                break;
+    // DEC E
+    private void op_1D() {
+        tStates += 4;
+        regs.setE(alu.DEC_R8(regs.getE()));
+    }
 
-            // LD HL, NN
-            case 0x21:
-                tStates += 10;
-                regs.L.setValue(dataBus.memRead(regs.getPC() & 0xFFFF));
-                regs.setPC((short) (regs.getPC() + 1));
-                regs.H.setValue(dataBus.memRead(regs.getPC() & 0xFFFF));
-                regs.setPC((short) (regs.getPC() + 1));
-                break;
+    // LD E,N
+    private void op_1E() {
+        tStates += 7;
+        regs.setE(dataBus.memRead(regs.getPC() & 0xFFFF));
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // LD (NN), HL
-            case 0x22:
-                tStates += 16;
-                write16(read16(regs.getPC()), regs.HL.getValue16());
-                regs.setWZ((short) (read16(regs.getPC()) + 1));
-                regs.setPC((short) (regs.getPC() + 2));
-                break;
+    // RRA
+    private void op_1F() {
+        tStates += 4;
+        byte aux = (byte) regs.getA();
+        regs.setA((byte) (((regs.getA() >> 1) & 0x7f) | (regs.getCF() ? 0x80 : 0x00)));
+        regs.setCF((aux & 0x01) != 0);
+        regs.setNF(false);
+        regs.setHF(false);
+        regs.setF3((regs.getA() & 0x008) != 0);
+        regs.setF5((regs.getA() & 0x020) != 0);
+    }
 
-            // INC HL
-            case 0x23:
-                tStates += 6;
-                regs.HL.setValue((short) (regs.HL.getValue16() + 1));
-                break;
+    // JR NZ, D
+    private void op_20() {
+        tStates += 7;
+        if (!regs.getZF()) {
+            tStates += 5;
+            regs.setPC((short) (regs.getPC() + (byte) dataBus.memRead(regs.getPC() & 0xFFFF)));
+            regs.setWZ((short) ((regs.getPC() + 1) & 0xFFFF));
+        }
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // INC H
-            case 0x24:
-                tStates += 4;
-                alu.INC_R8(regs.H);
-                break;
+    // LD HL, NN
+    private void op_21() {
+        tStates += 10;
+        regs.setL(dataBus.memRead(regs.getPC() & 0xFFFF));
+        regs.setPC((short) (regs.getPC() + 1));
+        regs.setH(dataBus.memRead(regs.getPC() & 0xFFFF));
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // DEC H
-            case 0x25:
-                tStates += 4;
-                alu.DEC_R8(regs.H);
-                break;
+    // LD (NN), HL
+    private void op_22() {
+        tStates += 16;
+        regs.setWZ(read16(regs.getPC()));
+        write16(regs.getWZ(), regs.getHL());
+        regs.setWZ((short) (regs.getWZ() + 1));
+        regs.setPC((short) (regs.getPC() + 2));
+    }
 
-            // LD H, N
-            case 0x26:
-                tStates += 7;
-                regs.H.setValue(dataBus.memRead(regs.getPC() & 0xFFFF));
-                regs.setPC((short) (regs.getPC() + 1));
-                break;
+    // INC HL
+    private void op_23() {
+        tStates += 6;
+        regs.setHL((short) (regs.getHL() + 1));
+    }
 
-            // DAA
-            case 0x27:
-                tStates += 4; {
-                byte add = 0;
-                boolean carry = regs.getCF();
-                if (regs.getHF() || ((regs.A.getValue() & 0x0F) > 9)) {
-                    add = 6;
-                }
-                if (carry || ((regs.A.getValue() & 0xFF) > 0x99)) {
-                    add |= 0x60;
-                }
-                if ((regs.A.getValue() & 0xFF) > 0x99) {
-                    carry = true;
-                }
-                if (regs.getNF()) {
-                    alu.SUB_R8(add);
-                } else {
-                    alu.ADD_R8(add);
-                }
+    // INC H
+    private void op_24() {
+        tStates += 4;
+        regs.setH(alu.INC_R8(regs.getH()));
+    }
 
-                regs.setCF(carry);
-                regs.setPF(parityTable[regs.A.getValue() & 0xFF]);
-                regs.setF3((regs.A.getValue() & 0x08) != 0);
-                regs.setF5((regs.A.getValue() & 0x20) != 0);
+    // DEC H
+    private void op_25() {
+        tStates += 4;
+        regs.setH(alu.DEC_R8(regs.getH()));
+    }
 
-            }
-                break;
+    // LD H, N
+    private void op_26() {
+        tStates += 7;
+        regs.setH(dataBus.memRead(regs.getPC() & 0xFFFF));
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // JR Z, D
-            case 0x28:
-                tStates += 7;
-                if (regs.getZF()) {
-                    tStates += 5;
-                    regs.setPC((short) (regs.getPC() + (byte) dataBus.memRead(regs.getPC() & 0xFFFF)));
-                    regs.setWZ((short) ((regs.getPC() + 1) & 0xFFFF));
-                }
-                regs.setPC((short) (regs.getPC() + 1));
-                break;
+    // DAA
+    private void op_27() {
+        tStates += 4;
+        byte add = 0;
+        boolean carry = regs.getCF();
+        if (regs.getHF() || ((regs.getA() & 0x0F) > 9)) {
+            add = 6;
+        }
+        if (carry || ((regs.getA() & 0xFF) > 0x99)) {
+            add |= 0x60;
+        }
+        if ((regs.getA() & 0xFF) > 0x99) {
+            carry = true;
+        }
+        if (regs.getNF()) {
+            alu.SUB_R8(add);
+        } else {
+            alu.ADD_R8(add);
+        }
 
-            // ADD HL, HL
-            case 0x29:
-                tStates += 11;
-                alu.ADD_R16(regs.HL, regs.HL.getValue16());
-                break;
+        regs.setCF(carry);
+        regs.setPF(parityTable[regs.getA() & 0xFF]);
+        regs.setF3((regs.getA() & 0x08) != 0);
+        regs.setF5((regs.getA() & 0x20) != 0);
+    }
 
-            // LD HL, (NN)
-            case 0x2A:
-                tStates += 16;
-                regs.HL.setValue(read16(read16(regs.getPC())));
-                regs.setWZ((short) (read16(regs.getPC()) + 1));
-                regs.setPC((short) (regs.getPC() + 2));
-                break;
+    // JR Z, D
+    private void op_28() {
+        tStates += 7;
+        if (regs.getZF()) {
+            tStates += 5;
+            regs.setPC((short) (regs.getPC() + (byte) dataBus.memRead(regs.getPC() & 0xFFFF)));
+            regs.setWZ((short) ((regs.getPC() + 1) & 0xFFFF));
+        }
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // DEC HL
-            case 0x2B:
-                tStates += 6;
-                regs.HL.setValue((short) (regs.HL.getValue16() - 1));
-                break;
+    // ADD HL, HL
+    private void op_29() {
+        tStates += 11;
+        regs.setHL(alu.ADD_R16(regs.getHL(), regs.getHL()));
+    }
 
-            // INC L
-            case 0x2C:
-                tStates += 4;
-                alu.INC_R8(regs.L);
-                break;
+    // LD HL, (NN)
+    private void op_2A() {
+        tStates += 16;
+        regs.setHL(read16(read16(regs.getPC())));
+        regs.setWZ((short) (read16(regs.getPC()) + 1));
+        regs.setPC((short) (regs.getPC() + 2));
+    }
 
-            // DEC L
-            case 0x2D:
-                tStates += 4;
-                alu.DEC_R8(regs.L);
-                break;
+    // DEC HL
+    private void op_2B() {
+        tStates += 6;
+        regs.setHL((short) (regs.getHL() - 1));
+    }
 
-            // LD L, N
-            case 0x2E:
-                tStates += 7;
-                regs.L.setValue(dataBus.memRead(regs.getPC() & 0xFFFF));
-                regs.setPC((short) (regs.getPC() + 1));
-                break;
+    // INC L
+    private void op_2C() {
+        tStates += 4;
+        regs.setL(alu.INC_R8(regs.getL()));
+    }
 
-            // CPL
-            case 0x2F:
-                tStates += 4;
-                regs.A.setValue((byte) (regs.A.getValue() ^ 0xFF));
-                regs.setHF(true);
-                regs.setNF(true);
-                regs.setF3((regs.A.getValue() & 0x08) != 0);
-                regs.setF5((regs.A.getValue() & 0x20) != 0);
+    // DEC L
+    private void op_2D() {
+        tStates += 4;
+        regs.setL(alu.DEC_R8(regs.getL()));
+    }
 
-                break;
+    // LD L, N
+    private void op_2E() {
+        tStates += 7;
+        regs.setL(dataBus.memRead(regs.getPC() & 0xFFFF));
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // jr nc,D
-            case 0x30:
-                tStates += 7;
-                if (!regs.getCF()) {
-                    tStates += 5;
-                    regs.setPC((short) (regs.getPC() + (byte) dataBus.memRead(regs.getPC())));
-                    regs.setWZ((short) ((regs.getPC() + 1) & 0xFFFF));
-                }
-                regs.setPC((short) (regs.getPC() + 1));
-                break;
+    // CPL
+    private void op_2F() {
+        tStates += 4;
+        regs.setA((byte) (regs.getA() ^ 0xFF));
+        regs.setHF(true);
+        regs.setNF(true);
+        regs.setF3((regs.getA() & 0x08) != 0);
+        regs.setF5((regs.getA() & 0x20) != 0);
+    }
 
-            // ld sp,NN
-            case 0x31:
-                tStates += 10;
-                regs.setSP(read16(regs.getPC()));
-                regs.setPC((short) (regs.getPC() + 2));
-                break;
+    // jr nc,D
+    private void op_30() {
+        tStates += 7;
+        if (!regs.getCF()) {
+            tStates += 5;
+            regs.setPC((short) (regs.getPC() + (byte) dataBus.memRead(regs.getPC())));
+            regs.setWZ((short) ((regs.getPC() + 1) & 0xFFFF));
+        }
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // ld (NN),a
-            case 0x32:
-                tStates += 13;
-                regs.setWZ(read16(regs.getPC()));
-                dataBus.memWrite(regs.getWZ(), (byte) regs.A.getValue());
-                regs.setZ((byte) ((regs.getZ() + 1) & 0xFF));
-                regs.setW(regs.A.getValue());
-                regs.setPC((short) (regs.getPC() + 2));
-                break;
+    // ld sp,NN
+    private void op_31() {
+        tStates += 10;
+        regs.setSP(read16(regs.getPC()));
+        regs.setPC((short) (regs.getPC() + 2));
+    }
 
-            // inc sp
-            case 0x33:
-                tStates += 6;
-                regs.setSP((short) (regs.getSP() + 1));
-                break;
+    // ld (NN),a
+    private void op_32() {
+        tStates += 13;
+        regs.setWZ(read16(regs.getPC()));
+        dataBus.memWrite(regs.getWZ(), (byte) regs.getA());
+        regs.setZ((byte) ((regs.getZ() + 1) & 0xFF));
+        regs.setW(regs.getA());
+        regs.setPC((short) (regs.getPC() + 2));
+    }
 
-            // inc (hl)
-            case 0x34:
-                tStates += 11; {
-                Register regval = new Register(dataBus.memRead(regs.HL.getValue16()));
-                alu.INC_R8(regval);
-                dataBus.memWrite(regs.HL.getValue16(), (byte) regval.getValue());
-            }
-                break;
+    // inc sp
+    private void op_33() {
+        tStates += 6;
+        regs.setSP((short) (regs.getSP() + 1));
+    }
 
-            // dec (hl)
-            case 0x35:
-                tStates += 11; {
-                Register regval = new Register(dataBus.memRead(regs.HL.getValue16()));
-                alu.DEC_R8(regval);
-                dataBus.memWrite(regs.HL.getValue16(), (byte) regval.getValue());
-            }
-                break;
+    // inc (hl)
+    private void op_34() {
+        tStates += 11;
+        byte regval = alu.INC_R8(dataBus.memRead(regs.getHL()));
+        dataBus.memWrite(regs.getHL(), regval);
+    }
 
-            // ld (hl),N
-            case 0x36:
-                tStates += 10;
-                dataBus.memWrite(regs.HL.getValue16(), dataBus.memRead(regs.getPC()));
-                regs.setPC((short) (regs.getPC() + 1));
-                break;
+    // dec (hl)
+    private void op_35() {
+        tStates += 11;
+        byte regval = alu.DEC_R8(dataBus.memRead(regs.getHL()));
+        dataBus.memWrite(regs.getHL(), regval);
+    }
 
-            // scf
-            case 0x37:
-                tStates += 4;
-                regs.setHF(false);
-                regs.setNF(false);
-                regs.setCF(true);
-                if (regs.getLastQF()) {
-                    regs.setF3(((regs.A.getValue() & 0x08) != 0));
-                    regs.setF5(((regs.A.getValue() & 0x20) != 0));
-                } else {
-                    regs.setF3(((regs.A.getValue() & 0x08) != 0) || regs.getF3());
-                    regs.setF5(((regs.A.getValue() & 0x20) != 0) || regs.getF5());
-                }
+    // ld (hl),N
+    private void op_36() {
+        tStates += 10;
+        dataBus.memWrite(regs.getHL(), dataBus.memRead(regs.getPC()));
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-                break;
+    // scf
+    private void op_37() {
+        tStates += 4;
+        regs.setHF(false);
+        regs.setNF(false);
+        regs.setCF(true);
+        if (regs.getLastQF()) {
+            regs.setF3(((regs.getA() & 0x08) != 0));
+            regs.setF5(((regs.getA() & 0x20) != 0));
+        } else {
+            regs.setF3(((regs.getA() & 0x08) != 0) || regs.getF3());
+            regs.setF5(((regs.getA() & 0x20) != 0) || regs.getF5());
+        }
+    }
 
-            // jr c,D
-            case 0x38:
-                tStates += 7;
-                if (regs.getCF()) {
-                    tStates += 5;
-                    regs.setPC((short) (regs.getPC() + (byte) dataBus.memRead(regs.getPC())));
-                    regs.setWZ((short) ((regs.getPC() + 1) & 0xFFFF));
-                }
-                regs.setPC((short) (regs.getPC() + 1));
-                break;
+    // jr c,D
+    private void op_38() {
+        tStates += 7;
+        if (regs.getCF()) {
+            tStates += 5;
+            regs.setPC((short) (regs.getPC() + (byte) dataBus.memRead(regs.getPC())));
+            regs.setWZ((short) ((regs.getPC() + 1) & 0xFFFF));
+        }
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // add hl,sp
-            case 0x39:
-                tStates += 11;
-                alu.ADD_R16(regs.HL, regs.getSP());
-                break;
+    // add hl,sp
+    private void op_39() {
+        tStates += 11;
+        regs.setHL(alu.ADD_R16(regs.getHL(), regs.getSP()));
+    }
 
-            // ld a,(NN)
-            case 0x3A:
-                tStates += 13;
-                regs.A.setValue(dataBus.memRead(read16(regs.getPC())));
-                regs.setWZ((short) (read16(regs.getPC()) + 1));
-                regs.setPC((short) (regs.getPC() + 2));
-                break;
+    // ld a,(NN)
+    private void op_3A() {
+        tStates += 13;
+        regs.setA(dataBus.memRead(read16(regs.getPC())));
+        regs.setWZ((short) (read16(regs.getPC()) + 1));
+        regs.setPC((short) (regs.getPC() + 2));
+    }
 
-            // dec sp
-            case 0x3B:
-                tStates += 6;
-                regs.setSP((short) (regs.getSP() - 1));
-                break;
+    // dec sp
+    private void op_3B() {
+        tStates += 6;
+        regs.setSP((short) (regs.getSP() - 1));
+    }
 
-            // inc a
-            case 0x3C:
-                tStates += 4;
-                alu.INC_R8(regs.A);
-                break;
+    // inc a
+    private void op_3C() {
+        tStates += 4;
+        regs.setA(alu.INC_R8(regs.getA()));
+    }
 
-            // dec a
-            case 0x3D:
-                tStates += 4;
-                alu.DEC_R8(regs.A);
-                break;
+    // dec a
+    private void op_3D() {
+        tStates += 4;
+        regs.setA(alu.DEC_R8(regs.getA()));
+    }
 
-            // ld a,N
-            case 0x3E:
-                tStates += 7;
-                regs.A.setValue(dataBus.memRead(regs.getPC() & 0xFFFF));
-                regs.setPC((short) (regs.getPC() + 1));
-                break;
+    // ld a,N
+    private void op_3E() {
+        tStates += 7;
+        regs.setA(dataBus.memRead(regs.getPC() & 0xFFFF));
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // ccf
-            case 0x3F:
-                tStates += 4;
-                regs.setHF(regs.getCF());
-                regs.setNF(false);
-                regs.setCF(!regs.getCF());
-                if (regs.getLastQF()) {
-                    regs.setF3(((regs.A.getValue() & 0x08) != 0));
-                    regs.setF5(((regs.A.getValue() & 0x20) != 0));
-                } else {
-                    regs.setF3(((regs.A.getValue() & 0x08) != 0) || regs.getF3());
-                    regs.setF5(((regs.A.getValue() & 0x20) != 0) || regs.getF5());
-                }
-                break;
+    // ccf
+    private void op_3F() {
+        tStates += 4;
+        regs.setHF(regs.getCF());
+        regs.setNF(false);
+        regs.setCF(!regs.getCF());
+        if (regs.getLastQF()) {
+            regs.setF3(((regs.getA() & 0x08) != 0));
+            regs.setF5(((regs.getA() & 0x20) != 0));
+        } else {
+            regs.setF3(((regs.getA() & 0x08) != 0) || regs.getF3());
+            regs.setF5(((regs.getA() & 0x20) != 0) || regs.getF5());
+        }
+    }
 
-            // ld b,b
-            case 0x40:
-                tStates += 4;
-                break;
+    // ld b,b
+    private void op_40() {
+        tStates += 4;
+    }
 
-            // ld b,c
-            case 0x41:
-                tStates += 4;
-                regs.B.setValue((byte) regs.C.getValue());
-                break;
+    // ld b,c
+    private void op_41() {
+        tStates += 4;
+        regs.setB((byte) regs.getC());
+    }
 
-            // ld b,d
-            case 0x42:
-                tStates += 4;
-                regs.B.setValue((byte) regs.D.getValue());
-                break;
+    // ld b,d
+    private void op_42() {
+        tStates += 4;
+        regs.setB((byte) regs.getD());
+    }
 
-            // ld b,e
-            case 0x43:
-                tStates += 4;
-                regs.B.setValue((byte) regs.E.getValue());
-                break;
+    // ld b,e
+    private void op_43() {
+        tStates += 4;
+        regs.setB((byte) regs.getE());
+    }
 
-            // ld b,h
-            case 0x44:
-                tStates += 4;
-                regs.B.setValue((byte) regs.H.getValue());
-                break;
+    // ld b,h
+    private void op_44() {
+        tStates += 4;
+        regs.setB((byte) regs.getH());
+    }
 
-            // ld b,l
-            case 0x45:
-                tStates += 4;
-                regs.B.setValue((byte) regs.L.getValue());
-                break;
+    // ld b,l
+    private void op_45() {
+        tStates += 4;
+        regs.setB((byte) regs.getL());
+    }
 
-            // ld b,(hl)
-            case 0x46:
-                tStates += 7;
-                regs.B.setValue(dataBus.memRead(regs.HL.getValue16() & 0xFFFF));
-                break;
+    // ld b,(hl)
+    private void op_46() {
+        tStates += 7;
+        regs.setB(dataBus.memRead(regs.getHL() & 0xFFFF));
+    }
 
-            // ld b,a
-            case 0x47:
-                tStates += 4;
-                regs.B.setValue((byte) regs.A.getValue());
-                break;
+    // ld b,a
+    private void op_47() {
+        tStates += 4;
+        regs.setB((byte) regs.getA());
+    }
 
-            // ld c,b
-            case 0x48:
-                tStates += 4;
-                regs.C.setValue((byte) regs.B.getValue());
-                break;
+    // ld c,b
+    private void op_48() {
+        tStates += 4;
+        regs.setC((byte) regs.getB());
+    }
 
-            // ld c,c
-            case 0x49:
-                tStates += 4;
-                break;
+    // ld c,c
+    private void op_49() {
+        tStates += 4;
+    }
 
-            // ld c,d
-            case 0x4A:
-                tStates += 4;
-                regs.C.setValue((byte) regs.D.getValue());
-                break;
+    // ld c,d
+    private void op_4A() {
+        tStates += 4;
+        regs.setC((byte) regs.getD());
+    }
 
-            // ld c,e
-            case 0x4B:
-                tStates += 4;
-                regs.C.setValue((byte) regs.E.getValue());
-                break;
+    // ld c,e
+    private void op_4B() {
+        tStates += 4;
+        regs.setC((byte) regs.getE());
+    }
 
-            // ld c,h
-            case 0x4C:
-                tStates += 4;
-                regs.C.setValue((byte) regs.H.getValue());
-                break;
+    // ld c,h
+    private void op_4C() {
+        tStates += 4;
+        regs.setC((byte) regs.getH());
+    }
 
-            // ld c,l
-            case 0x4D:
-                tStates += 4;
-                regs.C.setValue((byte) regs.L.getValue());
-                break;
+    // ld c,l
+    private void op_4D() {
+        tStates += 4;
+        regs.setC((byte) regs.getL());
+    }
 
-            // ld c,(hl)
-            case 0x4E:
-                tStates += 7;
-                regs.C.setValue(dataBus.memRead(regs.HL.getValue16() & 0xFFFF));
-                break;
+    // ld c,(hl)
+    private void op_4E() {
+        tStates += 7;
+        regs.setC(dataBus.memRead(regs.getHL() & 0xFFFF));
+    }
 
-            // ld c,a
-            case 0x4F:
-                tStates += 4;
-                regs.C.setValue((byte) regs.A.getValue());
-                break;
+    // ld c,a
+    private void op_4F() {
+        tStates += 4;
+        regs.setC((byte) regs.getA());
+    }
 
-            // ld d,b
-            case 0x50:
-                tStates += 4;
-                regs.D.setValue((byte) regs.B.getValue());
-                break;
+    // ld d,b
+    private void op_50() {
+        tStates += 4;
+        regs.setD((byte) regs.getB());
+    }
 
-            // ld d,c
-            case 0x51:
-                tStates += 4;
-                regs.D.setValue((byte) regs.C.getValue());
-                break;
+    // ld d,c
+    private void op_51() {
+        tStates += 4;
+        regs.setD((byte) regs.getC());
+    }
 
-            // ld d,d
-            case 0x52:
-                tStates += 4;
-                break;
+    // ld d,d
+    private void op_52() {
+        tStates += 4;
+    }
 
-            // ld d,e
-            case 0x53:
-                tStates += 4;
-                regs.D.setValue((byte) regs.E.getValue());
-                break;
+    // ld d,e
+    private void op_53() {
+        tStates += 4;
+        regs.setD((byte) regs.getE());
+    }
 
-            // ld d,h
-            case 0x54:
-                tStates += 4;
-                regs.D.setValue((byte) regs.H.getValue());
-                break;
+    // ld d,h
+    private void op_54() {
+        tStates += 4;
+        regs.setD((byte) regs.getH());
+    }
 
-            // ld d,l
-            case 0x55:
-                tStates += 4;
-                regs.D.setValue((byte) regs.L.getValue());
-                break;
+    // ld d,l
+    private void op_55() {
+        tStates += 4;
+        regs.setD((byte) regs.getL());
+    }
 
-            // ld d,(hl)
-            case 0x56:
-                tStates += 7;
-                regs.D.setValue(dataBus.memRead(regs.HL.getValue16()));
-                break;
+    // ld d,(hl)
+    private void op_56() {
+        tStates += 7;
+        regs.setD(dataBus.memRead(regs.getHL()));
+    }
 
-            // ld d,a
-            case 0x57:
-                tStates += 4;
-                regs.D.setValue((byte) regs.A.getValue());
-                break;
+    // ld d,a
+    private void op_57() {
+        tStates += 4;
+        regs.setD((byte) regs.getA());
+    }
 
-            // ld e,b
-            case 0x58:
-                tStates += 4;
-                regs.E.setValue((byte) regs.B.getValue());
-                break;
+    // ld e,b
+    private void op_58() {
+        tStates += 4;
+        regs.setE((byte) regs.getB());
+    }
 
-            // ld e,c
-            case 0x59:
-                tStates += 4;
-                regs.E.setValue((byte) regs.C.getValue());
-                break;
+    // ld e,c
+    private void op_59() {
+        tStates += 4;
+        regs.setE((byte) regs.getC());
+    }
 
-            // ld e,d
-            case 0x5A:
-                tStates += 4;
-                regs.E.setValue((byte) regs.D.getValue());
-                break;
+    // ld e,d
+    private void op_5A() {
+        tStates += 4;
+        regs.setE((byte) regs.getD());
+    }
 
-            // ld e,e
-            case 0x5B:
-                tStates += 4;
-                break;
+    // ld e,e
+    private void op_5B() {
+        tStates += 4;
+    }
 
-            // ld e,h
-            case 0x5C:
-                tStates += 4;
-                regs.E.setValue((byte) regs.H.getValue());
-                break;
+    // ld e,h
+    private void op_5C() {
+        tStates += 4;
+        regs.setE((byte) regs.getH());
+    }
 
-            // ld e,l
-            case 0x5D:
-                tStates += 4;
-                regs.E.setValue((byte) regs.L.getValue());
-                break;
+    // ld e,l
+    private void op_5D() {
+        tStates += 4;
+        regs.setE((byte) regs.getL());
+    }
 
-            // ld e,(hl)
-            case 0x5E:
-                tStates += 7;
-                regs.E.setValue(dataBus.memRead(regs.HL.getValue16()));
-                break;
+    // ld e,(hl)
+    private void op_5E() {
+        tStates += 7;
+        regs.setE(dataBus.memRead(regs.getHL()));
+    }
 
-            // ld e,a
-            case 0x5F:
-                tStates += 4;
-                regs.E.setValue((byte) regs.A.getValue());
-                break;
+    // ld e,a
+    private void op_5F() {
+        tStates += 4;
+        regs.setE((byte) regs.getA());
+    }
 
-            // ld h,b
-            case 0x60:
-                tStates += 4;
-                regs.H.setValue((byte) regs.B.getValue());
-                break;
+    // ld h,b
+    private void op_60() {
+        tStates += 4;
+        regs.setH((byte) regs.getB());
+    }
 
-            // ld h,c
-            case 0x61:
-                tStates += 4;
-                regs.H.setValue((byte) regs.C.getValue());
-                break;
+    // ld h,c
+    private void op_61() {
+        tStates += 4;
+        regs.setH((byte) regs.getC());
+    }
 
-            // ld h,d
-            case 0x62:
-                tStates += 4;
-                regs.H.setValue((byte) regs.D.getValue());
-                break;
+    // ld h,d
+    private void op_62() {
+        tStates += 4;
+        regs.setH((byte) regs.getD());
+    }
 
-            // ld h,e
-            case 0x63:
-                tStates += 4;
-                regs.H.setValue((byte) regs.E.getValue());
-                break;
+    // ld h,e
+    private void op_63() {
+        tStates += 4;
+        regs.setH((byte) regs.getE());
+    }
 
-            // ld h,h
-            case 0x64:
-                tStates += 4;
-                break;
+    // ld h,h
+    private void op_64() {
+        tStates += 4;
+    }
 
-            // ld h,l
-            case 0x65:
-                tStates += 4;
-                regs.H.setValue((byte) regs.L.getValue());
-                break;
+    // ld h,l
+    private void op_65() {
+        tStates += 4;
+        regs.setH((byte) regs.getL());
+    }
 
-            // ld h,(hl)
-            case 0x66:
-                tStates += 7;
-                regs.H.setValue(dataBus.memRead(regs.HL.getValue16()));
-                break;
+    // ld h,(hl)
+    private void op_66() {
+        tStates += 7;
+        regs.setH(dataBus.memRead(regs.getHL()));
+    }
 
-            // ld h,a
-            case 0x67:
-                tStates += 4;
-                regs.H.setValue((byte) regs.A.getValue());
-                break;
+    // ld h,a
+    private void op_67() {
+        tStates += 4;
+        regs.setH((byte) regs.getA());
+    }
 
-            // ld l,b
-            case 0x68:
-                tStates += 4;
-                regs.L.setValue((byte) regs.B.getValue());
-                break;
+    // ld l,b
+    private void op_68() {
+        tStates += 4;
+        regs.setL((byte) regs.getB());
+    }
 
-            // ld l,c
-            case 0x69:
-                tStates += 4;
-                regs.L.setValue((byte) regs.C.getValue());
-                break;
+    // ld l,c
+    private void op_69() {
+        tStates += 4;
+        regs.setL((byte) regs.getC());
+    }
 
-            // ld l,d
-            case 0x6A:
-                tStates += 4;
-                regs.L.setValue((byte) regs.D.getValue());
-                break;
+    // ld l,d
+    private void op_6A() {
+        tStates += 4;
+        regs.setL((byte) regs.getD());
+    }
 
-            // ld l,e
-            case 0x6B:
-                tStates += 4;
-                regs.L.setValue((byte) regs.E.getValue());
-                break;
+    // ld l,e
+    private void op_6B() {
+        tStates += 4;
+        regs.setL((byte) regs.getE());
+    }
 
-            // ld l,h
-            case 0x6C:
-                tStates += 4;
-                regs.L.setValue((byte) regs.H.getValue());
-                break;
+    // ld l,h
+    private void op_6C() {
+        tStates += 4;
+        regs.setL((byte) regs.getH());
+    }
 
-            // ld l,l
-            case 0x6D:
-                tStates += 4;
-                break;
+    // ld l,l
+    private void op_6D() {
+        tStates += 4;
+    }
 
-            // ld l,(hl)
-            case 0x6E:
-                tStates += 7;
-                regs.L.setValue(dataBus.memRead(regs.HL.getValue16()));
-                break;
+    // ld l,(hl)
+    private void op_6E() {
+        tStates += 7;
+        regs.setL(dataBus.memRead(regs.getHL()));
+    }
 
-            // ld l,a
-            case 0x6F:
-                tStates += 4;
-                regs.L.setValue((byte) regs.A.getValue());
-                break;
+    // ld l,a
+    private void op_6F() {
+        tStates += 4;
+        regs.setL((byte) regs.getA());
+    }
 
-            // ld (hl),b
-            case 0x70:
-                tStates += 7;
-                dataBus.memWrite(regs.HL.getValue16(), (byte) regs.B.getValue());
-                break;
+    // ld (hl),b
+    private void op_70() {
+        tStates += 7;
+        dataBus.memWrite(regs.getHL(), (byte) regs.getB());
+    }
 
-            // ld (hl),c
-            case 0x71:
-                tStates += 7;
-                dataBus.memWrite(regs.HL.getValue16(), (byte) regs.C.getValue());
-                break;
+    // ld (hl),c
+    private void op_71() {
+        tStates += 7;
+        dataBus.memWrite(regs.getHL(), (byte) regs.getC());
+    }
 
-            // ld (hl),d
-            case 0x72:
-                tStates += 7;
-                dataBus.memWrite(regs.HL.getValue16(), (byte) regs.D.getValue());
-                break;
+    // ld (hl),d
+    private void op_72() {
+        tStates += 7;
+        dataBus.memWrite(regs.getHL(), (byte) regs.getD());
+    }
 
-            // ld (hl),e
-            case 0x73:
-                tStates += 7;
-                dataBus.memWrite(regs.HL.getValue16(), (byte) regs.E.getValue());
-                break;
+    // ld (hl),e
+    private void op_73() {
+        tStates += 7;
+        dataBus.memWrite(regs.getHL(), (byte) regs.getE());
+    }
 
-            // ld (hl),h
-            case 0x74:
-                tStates += 7;
-                dataBus.memWrite(regs.HL.getValue16(), (byte) regs.H.getValue());
-                break;
+    // ld (hl),h
+    private void op_74() {
+        tStates += 7;
+        dataBus.memWrite(regs.getHL(), (byte) regs.getH());
+    }
 
-            // ld (hl),l
-            case 0x75:
-                tStates += 7;
-                dataBus.memWrite(regs.HL.getValue16(), (byte) regs.L.getValue());
-                break;
+    // ld (hl),l
+    private void op_75() {
+        tStates += 7;
+        dataBus.memWrite(regs.getHL(), (byte) regs.getL());
+    }
 
-            // halt
-            case 0x76:
-                tStates += 4;
-                regs.setPC((short) (regs.getPC() - 1)); // Keep executing the same instruction
-                break;
+    // halt
+    private void op_76() {
+        tStates += 4;
+        regs.setPC((short) (regs.getPC() - 1)); // Keep executing the same instruction
+        regs.setHalted(true);
+    }
 
-            // ld (hl),a
-            case 0x77:
-                tStates += 7;
-                dataBus.memWrite(regs.HL.getValue16(), (byte) regs.A.getValue());
-                break;
+    // ld (hl),a
+    private void op_77() {
+        tStates += 7;
+        dataBus.memWrite(regs.getHL(), (byte) regs.getA());
+    }
 
-            // ld a,b
-            case 0x78:
-                tStates += 4;
-                regs.A.setValue((byte) regs.B.getValue());
-                break;
+    // ld a,b
+    private void op_78() {
+        tStates += 4;
+        regs.setA((byte) regs.getB());
+    }
 
-            // ld a,c
-            case 0x79:
-                tStates += 4;
-                regs.A.setValue((byte) regs.C.getValue());
-                break;
+    // ld a,c
+    private void op_79() {
+        tStates += 4;
+        regs.setA((byte) regs.getC());
+    }
 
-            // ld a,d
-            case 0x7A:
-                tStates += 4;
-                regs.A.setValue((byte) regs.D.getValue());
-                break;
+    // ld a,d
+    private void op_7A() {
+        tStates += 4;
+        regs.setA((byte) regs.getD());
+    }
 
-            // ld a,e
-            case 0x7B:
-                tStates += 4;
-                regs.A.setValue((byte) regs.E.getValue());
-                break;
+    // ld a,e
+    private void op_7B() {
+        tStates += 4;
+        regs.setA((byte) regs.getE());
+    }
 
-            // ld a,h
-            case 0x7C:
-                tStates += 4;
-                regs.A.setValue((byte) regs.H.getValue());
-                break;
+    // ld a,h
+    private void op_7C() {
+        tStates += 4;
+        regs.setA((byte) regs.getH());
+    }
 
-            // ld a,l
-            case 0x7D:
-                tStates += 4;
-                regs.A.setValue((byte) regs.L.getValue());
-                break;
+    // ld a,l
+    private void op_7D() {
+        tStates += 4;
+        regs.setA((byte) regs.getL());
+    }
 
-            // ld a,(hl)
-            case 0x7E:
-                tStates += 7;
-                regs.A.setValue(dataBus.memRead(regs.HL.getValue16()));
-                break;
+    // ld a,(hl)
+    private void op_7E() {
+        tStates += 7;
+        regs.setA(dataBus.memRead(regs.getHL()));
+    }
 
-            // ld a,a
-            case 0x7F:
-                tStates += 4;
-                break;
+    // ld a,a
+    private void op_7F() {
+        tStates += 4;
+    }
 
-            // add a,b
-            case 0x80:
-                tStates += 4;
-                alu.ADD_R8((byte) regs.B.getValue());
-                break;
+    // add a,b
+    private void op_80() {
+        tStates += 4;
+        alu.ADD_R8((byte) regs.getB());
+    }
 
-            // add a,c
-            case 0x81:
-                tStates += 4;
-                alu.ADD_R8((byte) regs.C.getValue());
-                break;
+    // add a,c
+    private void op_81() {
+        tStates += 4;
+        alu.ADD_R8((byte) regs.getC());
+    }
 
-            // add a,d
-            case 0x82:
-                tStates += 4;
-                alu.ADD_R8((byte) regs.D.getValue());
-                break;
+    // add a,d
+    private void op_82() {
+        tStates += 4;
+        alu.ADD_R8((byte) regs.getD());
+    }
 
-            // add a,e
-            case 0x83:
-                tStates += 4;
-                alu.ADD_R8((byte) regs.E.getValue());
-                break;
+    // add a,e
+    private void op_83() {
+        tStates += 4;
+        alu.ADD_R8((byte) regs.getE());
+    }
 
-            // add a,h
-            case 0x84:
-                tStates += 4;
-                alu.ADD_R8((byte) regs.H.getValue());
-                break;
+    // add a,h
+    private void op_84() {
+        tStates += 4;
+        alu.ADD_R8((byte) regs.getH());
+    }
 
-            // add a,l
-            case 0x85:
-                tStates += 4;
-                alu.ADD_R8((byte) regs.L.getValue());
-                break;
+    // add a,l
+    private void op_85() {
+        tStates += 4;
+        alu.ADD_R8((byte) regs.getL());
+    }
 
-            // add a,(hl)
-            case 0x86:
-                tStates += 7; {
-                int b = dataBus.memRead(regs.HL.getValue16());
-                alu.ADD_R8((byte) b);
-            }
-                break;
+    // add a,(hl)
+    private void op_86() {
+        tStates += 7;
+        int b = dataBus.memRead(regs.getHL());
+        alu.ADD_R8((byte) b);
+    }
 
-            // add a,a
-            case 0x87:
-                tStates += 4;
-                alu.ADD_R8((byte) regs.A.getValue());
-                break;
+    // add a,a
+    private void op_87() {
+        tStates += 4;
+        alu.ADD_R8((byte) regs.getA());
+    }
 
-            // adc a,b
-            case 0x88:
-                tStates += 4;
-                alu.ADC_R8((byte) regs.B.getValue());
-                break;
+    // adc a,b
+    private void op_88() {
+        tStates += 4;
+        alu.ADC_R8((byte) regs.getB());
+    }
 
-            // adc a,c
-            case 0x89:
-                tStates += 4;
-                alu.ADC_R8((byte) regs.C.getValue());
-                break;
+    // adc a,c
+    private void op_89() {
+        tStates += 4;
+        alu.ADC_R8((byte) regs.getC());
+    }
 
-            // adc a,d
-            case 0x8A:
-                tStates += 4;
-                alu.ADC_R8((byte) regs.D.getValue());
-                break;
-
-            // adc a,e
-            case 0x8B:
-                tStates += 4;
-                alu.ADC_R8((byte) regs.E.getValue());
-                break;
+    // adc a,d
+    private void op_8A() {
+        tStates += 4;
+        alu.ADC_R8((byte) regs.getD());
+    }
 
-            // adc a,h
-            case 0x8C:
-                tStates += 4;
-                alu.ADC_R8((byte) regs.H.getValue());
-                break;
+    // adc a,e
+    private void op_8B() {
+        tStates += 4;
+        alu.ADC_R8((byte) regs.getE());
+    }
 
-            // adc a,l
-            case 0x8D:
-                tStates += 4;
-                alu.ADC_R8((byte) regs.L.getValue());
-                break;
+    // adc a,h
+    private void op_8C() {
+        tStates += 4;
+        alu.ADC_R8((byte) regs.getH());
+    }
 
-            // adc a,(hl)
-            case 0x8E:
-                tStates += 7; {
-                int val = dataBus.memRead(regs.HL.getValue16());
-                alu.ADC_R8((byte) val);
-            }
-                break;
+    // adc a,l
+    private void op_8D() {
+        tStates += 4;
+        alu.ADC_R8((byte) regs.getL());
+    }
 
-            // adc a,a
-            case 0x8F:
-                tStates += 4;
-                alu.ADC_R8((byte) regs.A.getValue());
-                break;
+    // adc a,(hl)
+    private void op_8E() {
+        tStates += 7;
+        int val = dataBus.memRead(regs.getHL());
+        alu.ADC_R8((byte) val);
+    }
 
-            // sub b
-            case 0x90:
-                tStates += 4;
-                alu.SUB_R8((byte) regs.B.getValue());
-                break;
+    // adc a,a
+    private void op_8F() {
+        tStates += 4;
+        alu.ADC_R8((byte) regs.getA());
+    }
 
-            // sub c
-            case 0x91:
-                tStates += 4;
-                alu.SUB_R8((byte) regs.C.getValue());
-                break;
+    // sub b
+    private void op_90() {
+        tStates += 4;
+        alu.SUB_R8((byte) regs.getB());
+    }
 
-            // sub d
-            case 0x92:
-                tStates += 4;
-                alu.SUB_R8((byte) regs.D.getValue());
-                break;
+    // sub c
+    private void op_91() {
+        tStates += 4;
+        alu.SUB_R8((byte) regs.getC());
+    }
 
-            // sub e
-            case 0x93:
-                tStates += 4;
-                alu.SUB_R8((byte) regs.E.getValue());
-                break;
+    // sub d
+    private void op_92() {
+        tStates += 4;
+        alu.SUB_R8((byte) regs.getD());
+    }
 
-            // sub h
-            case 0x94:
-                tStates += 4;
-                alu.SUB_R8((byte) regs.H.getValue());
-                break;
+    // sub e
+    private void op_93() {
+        tStates += 4;
+        alu.SUB_R8((byte) regs.getE());
+    }
 
-            // sub l
-            case 0x95:
-                tStates += 4;
-                alu.SUB_R8((byte) regs.L.getValue());
-                break;
+    // sub h
+    private void op_94() {
+        tStates += 4;
+        alu.SUB_R8((byte) regs.getH());
+    }
 
-            // sub (hl)
-            case 0x96:
-                tStates += 7; {
-                int val = dataBus.memRead(regs.HL.getValue16());
-                alu.SUB_R8((byte) val);
-            }
-                break;
+    // sub l
+    private void op_95() {
+        tStates += 4;
+        alu.SUB_R8((byte) regs.getL());
+    }
 
-            // sub a
-            case 0x97:
-                tStates += 4;
-                alu.SUB_R8((byte) regs.A.getValue());
-                break;
+    // sub (hl)
+    private void op_96() {
+        tStates += 7;
+        int val = dataBus.memRead(regs.getHL());
+        alu.SUB_R8((byte) val);
+    }
 
-            // sbc a,b
-            case 0x98:
-                tStates += 4;
-                alu.SBC_R8((byte) regs.B.getValue());
-                break;
+    // sub a
+    private void op_97() {
+        tStates += 4;
+        alu.SUB_R8((byte) regs.getA());
+    }
 
-            // sbc a,c
-            case 0x99:
-                tStates += 4;
-                alu.SBC_R8((byte) regs.C.getValue());
-                break;
+    // sbc a,b
+    private void op_98() {
+        tStates += 4;
+        alu.SBC_R8((byte) regs.getB());
+    }
 
-            // sbc a,d
-            case 0x9A:
-                tStates += 4;
-                alu.SBC_R8((byte) regs.D.getValue());
-                break;
+    // sbc a,c
+    private void op_99() {
+        tStates += 4;
+        alu.SBC_R8((byte) regs.getC());
+    }
 
-            // sbc a,e
-            case 0x9B:
-                tStates += 4;
-                alu.SBC_R8((byte) regs.E.getValue());
-                break;
+    // sbc a,d
+    private void op_9A() {
+        tStates += 4;
+        alu.SBC_R8((byte) regs.getD());
+    }
 
-            // sbc a,h
-            case 0x9C:
-                tStates += 4;
-                alu.SBC_R8((byte) regs.H.getValue());
-                break;
+    // sbc a,e
+    private void op_9B() {
+        tStates += 4;
+        alu.SBC_R8((byte) regs.getE());
+    }
 
-            // sbc a,l
-            case 0x9D:
-                tStates += 4;
-                alu.SBC_R8((byte) regs.L.getValue());
-                break;
+    // sbc a,h
+    private void op_9C() {
+        tStates += 4;
+        alu.SBC_R8((byte) regs.getH());
+    }
 
-            // sbc a,(hl)
-            case 0x9E:
-                tStates += 7; {
-                int val = dataBus.memRead(regs.HL.getValue16());
-                alu.SBC_R8((byte) val);
-            }
-                break;
+    // sbc a,l
+    private void op_9D() {
+        tStates += 4;
+        alu.SBC_R8((byte) regs.getL());
+    }
 
-            // sbc a,a
-            case 0x9F:
-                tStates += 4;
-                alu.SBC_R8((byte) regs.A.getValue());
-                break;
+    // sbc a,(hl)
+    private void op_9E() {
+        tStates += 7;
+        int val = dataBus.memRead(regs.getHL());
+        alu.SBC_R8((byte) val);
+    }
 
-            // and b
-            case 0xA0:
-                tStates += 4;
-                alu.AND_R8((byte) regs.B.getValue());
-                break;
+    // sbc a,a
+    private void op_9F() {
+        tStates += 4;
+        alu.SBC_R8((byte) regs.getA());
+    }
 
-            // and c
-            case 0xA1:
-                tStates += 4;
-                alu.AND_R8((byte) regs.C.getValue());
-                break;
+    // and b
+    private void op_A0() {
+        tStates += 4;
+        alu.AND_R8((byte) regs.getB());
+    }
 
-            // and d
-            case 0xA2:
-                tStates += 4;
-                alu.AND_R8((byte) regs.D.getValue());
-                break;
+    // and c
+    private void op_A1() {
+        tStates += 4;
+        alu.AND_R8((byte) regs.getC());
+    }
 
-            // and e
-            case 0xA3:
-                tStates += 4;
-                alu.AND_R8((byte) regs.E.getValue());
-                break;
+    // and d
+    private void op_A2() {
+        tStates += 4;
+        alu.AND_R8((byte) regs.getD());
+    }
 
-            // and h
-            case 0xA4:
-                tStates += 4;
-                alu.AND_R8((byte) regs.H.getValue());
-                break;
+    // and e
+    private void op_A3() {
+        tStates += 4;
+        alu.AND_R8((byte) regs.getE());
+    }
 
-            // and l
-            case 0xA5:
-                tStates += 4;
-                alu.AND_R8((byte) regs.L.getValue());
-                break;
+    // and h
+    private void op_A4() {
+        tStates += 4;
+        alu.AND_R8((byte) regs.getH());
+    }
 
-            // and (hl)
-            case 0xA6:
-                tStates += 7; {
-                int val = dataBus.memRead(regs.HL.getValue16());
-                alu.AND_R8((byte) val);
-            }
-                break;
+    // and l
+    private void op_A5() {
+        tStates += 4;
+        alu.AND_R8((byte) regs.getL());
+    }
 
-            // and a
-            case 0xA7:
-                tStates += 4;
-                alu.AND_R8((byte) regs.A.getValue());
-                break;
+    // and (hl)
+    private void op_A6() {
+        tStates += 7;
+        int val = dataBus.memRead(regs.getHL());
+        alu.AND_R8((byte) val);
+    }
 
-            // xor b
-            case 0xA8:
-                tStates += 4;
-                alu.XOR_R8((byte) regs.B.getValue());
-                break;
+    // and a
+    private void op_A7() {
+        tStates += 4;
+        alu.AND_R8((byte) regs.getA());
+    }
 
-            // xor c
-            case 0xA9:
-                tStates += 4;
-                alu.XOR_R8((byte) regs.C.getValue());
-                break;
+    // xor b
+    private void op_A8() {
+        tStates += 4;
+        alu.XOR_R8((byte) regs.getB());
+    }
 
-            // xor d
-            case 0xAA:
-                tStates += 4;
-                alu.XOR_R8((byte) regs.D.getValue());
-                break;
+    // xor c
+    private void op_A9() {
+        tStates += 4;
+        alu.XOR_R8((byte) regs.getC());
+    }
 
-            // xor e
-            case 0xAB:
-                tStates += 4;
-                alu.XOR_R8((byte) regs.E.getValue());
-                break;
+    // xor d
+    private void op_AA() {
+        tStates += 4;
+        alu.XOR_R8((byte) regs.getD());
+    }
 
-            // xor h
-            case 0xAC:
-                tStates += 4;
-                alu.XOR_R8((byte) regs.H.getValue());
-                break;
+    // xor e
+    private void op_AB() {
+        tStates += 4;
+        alu.XOR_R8((byte) regs.getE());
+    }
 
-            // xor l
-            case 0xAD:
-                tStates += 4;
-                alu.XOR_R8((byte) regs.L.getValue());
-                break;
+    // xor h
+    private void op_AC() {
+        tStates += 4;
+        alu.XOR_R8((byte) regs.getH());
+    }
 
-            // xor (hl)
-            case 0xAE:
-                tStates += 7; {
-                int val = dataBus.memRead(regs.HL.getValue16());
-                alu.XOR_R8((byte) val);
-            }
-                break;
+    // xor l
+    private void op_AD() {
+        tStates += 4;
+        alu.XOR_R8((byte) regs.getL());
+    }
 
-            // xor a
-            case 0xAF:
-                tStates += 4;
-                alu.XOR_R8((byte) regs.A.getValue());
-                break;
+    // xor (hl)
+    private void op_AE() {
+        tStates += 7;
+        int val = dataBus.memRead(regs.getHL());
+        alu.XOR_R8((byte) val);
+    }
 
-            // or b
-            case 0xB0:
-                tStates += 4;
-                alu.OR_R8((byte) regs.B.getValue());
-                break;
+    // xor a
+    private void op_AF() {
+        tStates += 4;
+        alu.XOR_R8((byte) regs.getA());
+    }
 
-            // or c
-            case 0xB1:
-                tStates += 4;
-                alu.OR_R8((byte) regs.C.getValue());
-                break;
+    // or b
+    private void op_B0() {
+        tStates += 4;
+        alu.OR_R8((byte) regs.getB());
+    }
 
-            // or d
-            case 0xB2:
-                tStates += 4;
-                alu.OR_R8((byte) regs.D.getValue());
-                break;
+    // or c
+    private void op_B1() {
+        tStates += 4;
+        alu.OR_R8((byte) regs.getC());
+    }
 
-            // or e
-            case 0xB3:
-                tStates += 4;
-                alu.OR_R8((byte) regs.E.getValue());
-                break;
+    // or d
+    private void op_B2() {
+        tStates += 4;
+        alu.OR_R8((byte) regs.getD());
+    }
 
-            // or h
-            case 0xB4:
-                tStates += 4;
-                alu.OR_R8((byte) regs.H.getValue());
-                break;
+    // or e
+    private void op_B3() {
+        tStates += 4;
+        alu.OR_R8((byte) regs.getE());
+    }
 
-            // or l
-            case 0xB5:
-                tStates += 4;
-                alu.OR_R8((byte) regs.L.getValue());
-                break;
+    // or h
+    private void op_B4() {
+        tStates += 4;
+        alu.OR_R8((byte) regs.getH());
+    }
 
-            // or (hl)
-            case 0xB6:
-                tStates += 7; {
-                int val = dataBus.memRead(regs.HL.getValue16());
-                alu.OR_R8((byte) val);
-            }
-                break;
+    // or l
+    private void op_B5() {
+        tStates += 4;
+        alu.OR_R8((byte) regs.getL());
+    }
 
-            // or a
-            case 0xB7:
-                tStates += 4;
-                alu.OR_R8((byte) regs.A.getValue());
-                break;
+    // or (hl)
+    private void op_B6() {
+        tStates += 7;
+        int val = dataBus.memRead(regs.getHL());
+        alu.OR_R8((byte) val);
+    }
 
-            // cp b
-            case 0xB8:
-                tStates += 4;
-                alu.CMP_R8((byte) regs.B.getValue());
-                break;
+    // or a
+    private void op_B7() {
+        tStates += 4;
+        alu.OR_R8((byte) regs.getA());
+    }
 
-            // cp c
-            case 0xB9:
-                tStates += 4;
-                alu.CMP_R8((byte) regs.C.getValue());
-                break;
+    // cp b
+    private void op_B8() {
+        tStates += 4;
+        alu.CMP_R8((byte) regs.getB());
+    }
 
-            // cp d
-            case 0xBA:
-                tStates += 4;
-                alu.CMP_R8((byte) regs.D.getValue());
-                break;
+    // cp c
+    private void op_B9() {
+        tStates += 4;
+        alu.CMP_R8((byte) regs.getC());
+    }
 
-            // cp e
-            case 0xBB:
-                tStates += 4;
-                alu.CMP_R8((byte) regs.E.getValue());
-                break;
+    // cp d
+    private void op_BA() {
+        tStates += 4;
+        alu.CMP_R8((byte) regs.getD());
+    }
 
-            // cp h
-            case 0xBC:
-                tStates += 4;
-                alu.CMP_R8((byte) regs.H.getValue());
-                break;
+    // cp e
+    private void op_BB() {
+        tStates += 4;
+        alu.CMP_R8((byte) regs.getE());
+    }
 
-            // cp l
-            case 0xBD:
-                tStates += 4;
-                alu.CMP_R8((byte) regs.L.getValue());
-                break;
+    // cp h
+    private void op_BC() {
+        tStates += 4;
+        alu.CMP_R8((byte) regs.getH());
+    }
 
-            // cp (hl)
-            case 0xBE:
-                tStates += 7; {
-                int val = dataBus.memRead(regs.HL.getValue16());
-                alu.CMP_R8((byte) val);
-            }
-                break;
+    // cp l
+    private void op_BD() {
+        tStates += 4;
+        alu.CMP_R8((byte) regs.getL());
+    }
 
-            // cp a
-            case 0xBF:
-                tStates += 4;
-                alu.CMP_R8((byte) regs.A.getValue());
-                break;
+    // cp (hl)
+    private void op_BE() {
+        tStates += 7;
+        int val = dataBus.memRead(regs.getHL());
+        alu.CMP_R8((byte) val);
+    }
 
-            // ret nz
-            case 0xC0:
-                tStates += 5;
-                if (!regs.getZF()) {
-                    tStates += 6;
-                    regs.setPC((short) pop16());
-                    regs.setWZ(regs.getPC());
-                }
-                break;
+    // cp a
+    private void op_BF() {
+        tStates += 4;
+        alu.CMP_R8((byte) regs.getA());
+    }
 
-            // pop bc
-            case 0xC1:
-                tStates += 10;
-                regs.BC.setValue(pop16());
-                break;
+    // ret nz
+    private void op_C0() {
+        tStates += 5;
+        if (!regs.getZF()) {
+            tStates += 6;
+            regs.setPC((short) pop16());
+            regs.setWZ(regs.getPC());
+        }
+    }
 
-            // jp nz,NN
-            case 0xC2:
-                tStates += 10;
-                regs.setWZ(read16(regs.getPC()));
-                if (!regs.getZF()) {
-                    regs.setPC((short) read16(regs.getPC()));
-                } else {
-                    regs.setPC((short) (regs.getPC() + 2));
-                }
-                break;
+    // pop bc
+    private void op_C1() {
+        tStates += 10;
+        regs.setBC(pop16());
+    }
 
-            // jp NN
-            case 0xC3:
-                tStates += 10;
-                regs.setPC((short) read16(regs.getPC()));
-                regs.setWZ(regs.getPC());
-                break;
+    // jp nz,NN
+    private void op_C2() {
+        tStates += 10;
+        regs.setWZ(read16(regs.getPC()));
+        if (!regs.getZF()) {
+            regs.setPC((short) read16(regs.getPC()));
+        } else {
+            regs.setPC((short) (regs.getPC() + 2));
+        }
+    }
 
-            // call nz,NN
-            case 0xC4:
-                regs.setWZ((short) read16(regs.getPC()));
-                if (!regs.getZF()) {
-                    tStates += 17;
-                    push16((short) (regs.getPC() + 2));
-                    regs.setPC((short) read16(regs.getPC()));
-                } else {
-                    tStates += 10;
-                    regs.setPC((short) (regs.getPC() + 2));
-                }
-                break;
+    // jp NN
+    private void op_C3() {
+        tStates += 10;
+        regs.setPC((short) read16(regs.getPC()));
+        regs.setWZ(regs.getPC());
+    }
 
-            // push bc
-            case 0xC5:
-                tStates += 11;
-                push16(regs.BC.getValue16());
-                break;
+    // call nz,NN
+    private void op_C4() {
+        regs.setWZ((short) read16(regs.getPC()));
+        if (!regs.getZF()) {
+            tStates += 17;
+            push16((short) (regs.getPC() + 2));
+            regs.setPC(regs.getWZ());
+        } else {
+            tStates += 10;
+            regs.setPC((short) (regs.getPC() + 2));
+        }
+    }
 
-            // add a,N
-            case 0xC6:
-                tStates += 7; {
-                int val = dataBus.memRead(regs.getPC());
-                regs.setPC((short) (regs.getPC() + 1));
-                alu.ADD_R8((byte) val);
-            }
-                break;
+    // push bc
+    private void op_C5() {
+        tStates += 11;
+        push16(regs.getBC());
+    }
 
-            // rst 0x00
-            case 0xC7:
-                tStates += 11;
-                push16(regs.getPC());
-                regs.setPC((short) 0x0000);
-                regs.setWZ((short) 0x0000);
-                break;
+    // add a,N
+    private void op_C6() {
+        tStates += 7;
+        int val = dataBus.memRead(regs.getPC());
+        regs.setPC((short) (regs.getPC() + 1));
+        alu.ADD_R8((byte) val);
+    }
 
-            // ret z
-            case 0xC8:
-                tStates += 5;
-                if (regs.getZF()) {
-                    tStates += 6;
-                    regs.setPC((short) pop16());
-                    regs.setWZ(regs.getPC());
-                }
-                break;
+    // rst 0x00
+    private void op_C7() {
+        tStates += 11;
+        push16(regs.getPC());
+        regs.setPC((short) 0x0000);
+        regs.setWZ((short) 0x0000);
+    }
 
-            // ret
-            case 0xC9:
-                tStates += 10;
-                regs.setPC((short) pop16());
-                regs.setWZ(regs.getPC());
-                break;
+    // ret z
+    private void op_C8() {
+        tStates += 5;
+        if (regs.getZF()) {
+            tStates += 6;
+            regs.setPC((short) pop16());
+            regs.setWZ(regs.getPC());
+        }
+    }
 
-            // jp z,NN
-            case 0xCA:
-                tStates += 10;
-                regs.setWZ(read16(regs.getPC()));
-                if (regs.getZF()) {
-                    regs.setPC(read16(regs.getPC()));
-                } else {
-                    regs.setPC((short) (regs.getPC() + 2));
-                }
-                break;
+    // ret
+    private void op_C9() {
+        tStates += 10;
+        regs.setPC((short) pop16());
+        regs.setWZ(regs.getPC());
+    }
 
-            // 0xCB instructions prefix
-            case 0xCB:
-                execInstCB();
-                break;
+    // jp z,NN
+    private void op_CA() {
+        tStates += 10;
+        regs.setWZ(read16(regs.getPC()));
+        if (regs.getZF()) {
+            regs.setPC(read16(regs.getPC()));
+        } else {
+            regs.setPC((short) (regs.getPC() + 2));
+        }
+    }
 
-            // call z,NN
-            case 0xCC:
-                regs.setWZ((short) read16(regs.getPC()));
-                if (regs.getZF()) {
-                    tStates += 17;
-                    push16((short) (regs.getPC() + 2));
-                    regs.setPC(read16(regs.getPC()));
-                } else {
-                    tStates += 10;
-                    regs.setPC((short) (regs.getPC() + 2));
-                }
-                break;
+    // 0xCB instructions prefix
+    private void op_CB() {
+        execInstCB();
+    }
 
-            // call NN
-            case 0xCD:
-                tStates += 17;
-                regs.setWZ((short) read16(regs.getPC()));
-                push16((short) (regs.getPC() + 2));
-                regs.setPC(read16(regs.getPC()));
-                break;
+    // call z,NN
+    private void op_CC() {
+        regs.setWZ((short) read16(regs.getPC()));
+        if (regs.getZF()) {
+            tStates += 17;
+            push16((short) (regs.getPC() + 2));
+            regs.setPC(regs.getWZ());
+        } else {
+            tStates += 10;
+            regs.setPC((short) (regs.getPC() + 2));
+        }
+    }
 
-            // adc a,N
-            case 0xCE:
-                tStates += 7; {
-                int val = dataBus.memRead(regs.getPC());
-                regs.setPC((short) (regs.getPC() + 1));
-                alu.ADC_R8((byte) val);
-            }
-                break;
+    // call NN
+    private void op_CD() {
+        tStates += 17;
+        regs.setWZ((short) read16(regs.getPC()));
+        push16((short) (regs.getPC() + 2));
+        regs.setPC(regs.getWZ());
+    }
 
-            // rst 0x08
-            case 0xCF:
-                tStates += 11;
-                push16(regs.getPC());
-                regs.setPC((short) 0x0008);
-                regs.setWZ((short) 0x0008);
-                break;
+    // adc a,N
+    private void op_CE() {
+        tStates += 7;
+        int val = dataBus.memRead(regs.getPC());
+        regs.setPC((short) (regs.getPC() + 1));
+        alu.ADC_R8((byte) val);
+    }
 
-            // ret nc
-            case 0xD0:
-                tStates += 5;
-                if (!regs.getCF()) {
-                    tStates += 6;
-                    regs.setPC((short) pop16());
-                    regs.setWZ(regs.getPC());
-                }
-                break;
+    // rst 0x08
+    private void op_CF() {
+        tStates += 11;
+        push16(regs.getPC());
+        regs.setPC((short) 0x0008);
+        regs.setWZ((short) 0x0008);
+    }
 
-            // pop de
-            case 0xD1:
-                tStates += 10;
-                regs.DE.setValue(pop16());
-                break;
+    // ret nc
+    private void op_D0() {
+        tStates += 5;
+        if (!regs.getCF()) {
+            tStates += 6;
+            regs.setPC((short) pop16());
+            regs.setWZ(regs.getPC());
+        }
+    }
 
-            // jp nc,NN
-            case 0xD2:
-                tStates += 10;
-                regs.setWZ(read16(regs.getPC()));
-                if (!regs.getCF()) {
-                    regs.setPC(read16(regs.getPC()));
-                } else {
-                    regs.setPC((short) (regs.getPC() + 2));
-                }
-                break;
+    // pop de
+    private void op_D1() {
+        tStates += 10;
+        regs.setDE(pop16());
+    }
 
-            // out (N),a
-            case 0xD3:
-                tStates += 11;
-                dataBus.ioWrite(dataBus.memRead(regs.getPC()) | (regs.A.getValue() << 8), (byte) regs.A.getValue());
-                regs.setZ((byte) ((dataBus.memRead(regs.getPC()) + 1) & 0xFF));
-                regs.setW(regs.A.getValue());
-                regs.setPC((short) (regs.getPC() + 1));
-                break;
+    // jp nc,NN
+    private void op_D2() {
+        tStates += 10;
+        regs.setWZ(read16(regs.getPC()));
+        if (!regs.getCF()) {
+            regs.setPC(read16(regs.getPC()));
+        } else {
+            regs.setPC((short) (regs.getPC() + 2));
+        }
+    }
 
-            // call nc,NN
-            case 0xD4:
-                regs.setWZ((short) read16(regs.getPC()));
-                if (!regs.getCF()) {
-                    tStates += 17;
-                    push16((short) (regs.getPC() + 2));
-                    regs.setPC(read16(regs.getPC()));
-                } else {
-                    tStates += 10;
-                    regs.setPC((short) (regs.getPC() + 2));
-                }
-                break;
+    // out (N),a
+    private void op_D3() {
+        tStates += 11;
+        dataBus.ioWrite(dataBus.memRead(regs.getPC()) | (regs.getA() << 8), (byte) regs.getA());
+        regs.setZ((byte) ((dataBus.memRead(regs.getPC()) + 1) & 0xFF));
+        regs.setW(regs.getA());
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // push de
-            case 0xD5:
-                tStates += 11;
-                push16(regs.DE.getValue16());
-                break;
+    // call nc,NN
+    private void op_D4() {
+        regs.setWZ((short) read16(regs.getPC()));
+        if (!regs.getCF()) {
+            tStates += 17;
+            push16((short) (regs.getPC() + 2));
+            regs.setPC(regs.getWZ());
+        } else {
+            tStates += 10;
+            regs.setPC((short) (regs.getPC() + 2));
+        }
+    }
 
-            // sub N
-            case 0xD6:
-                tStates += 7; {
-                int val = dataBus.memRead(regs.getPC());
-                regs.setPC((short) (regs.getPC() + 1));
-                alu.SUB_R8((byte) val);
-            }
-                break;
+    // push de
+    private void op_D5() {
+        tStates += 11;
+        push16(regs.getDE());
+    }
 
-            // rst 0x10
-            case 0xD7:
-                tStates += 11;
-                push16(regs.getPC());
-                regs.setPC((short) 0x0010);
-                regs.setWZ((short) 0x0010);
-                break;
-
-            // ret c
-            case 0xD8:
-                tStates += 5;
-                if (regs.getCF()) {
-                    tStates += 6;
-                    regs.setPC((short) pop16());
-                    regs.setWZ(regs.getPC());
-                }
-                break;
-
-            // exx
-            case 0xD9:
-                tStates += 4; {
-                int aux;
-                aux = regs.BC.getValue16();
-                regs.BC.setValue(regs.altBC.getValue16());
-                regs.altBC.setValue((short) aux);
-
-                aux = regs.DE.getValue16();
-                regs.DE.setValue(regs.altDE.getValue16());
-                regs.altDE.setValue((short) aux);
-
-                aux = regs.HL.getValue16();
-                regs.HL.setValue(regs.altHL.getValue16());
-                regs.altHL.setValue((short) aux);
-            }
-                break;
+    // sub N
+    private void op_D6() {
+        tStates += 7;
+        int val = dataBus.memRead(regs.getPC());
+        regs.setPC((short) (regs.getPC() + 1));
+        alu.SUB_R8((byte) val);
+    }
 
-            // jp c,NN
-            case 0xDA:
-                tStates += 10;
-                regs.setWZ(read16(regs.getPC()));
-                if (regs.getCF()) {
-                    regs.setPC(read16(regs.getPC()));
-                } else {
-                    regs.setPC((short) (regs.getPC() + 2));
-                }
-                break;
+    // rst 0x10
+    private void op_D7() {
+        tStates += 11;
+        push16(regs.getPC());
+        regs.setPC((short) 0x0010);
+        regs.setWZ((short) 0x0010);
+    }
 
-            // in a,(N)
-            case 0xDB:
-                tStates += 11;
-                regs.setW((byte) regs.A.getValue());
-                regs.setZ((byte) dataBus.memRead(regs.getPC()));
-                regs.A.setValue(dataBus.ioRead(regs.getWZ()));
-                regs.setPC((short) (regs.getPC() + 1));
-                regs.setWZ((short) (regs.getWZ() + 1));
-                break;
+    // ret c
+    private void op_D8() {
+        tStates += 5;
+        if (regs.getCF()) {
+            tStates += 6;
+            regs.setPC((short) pop16());
+            regs.setWZ(regs.getPC());
+        }
+    }
 
-            // call c,NN
-            case 0xDC:
-                regs.setWZ((short) read16(regs.getPC()));
-                if (regs.getCF()) {
-                    tStates += 17;
-                    push16((short) (regs.getPC() + 2));
-                    regs.setPC(read16(regs.getPC()));
-                } else {
-                    tStates += 10;
-                    regs.setPC((short) (regs.getPC() + 2));
-                }
-                break;
+    // exx
+    private void op_D9() {
+        tStates += 4;
+        int aux;
+        aux = regs.getBC();
+        regs.setBC(regs.getAltBC());
+        regs.setAltBC((short) aux);
+
+        aux = regs.getDE();
+        regs.setDE(regs.getAltDE());
+        regs.setAltDE((short) aux);
+
+        aux = regs.getHL();
+        regs.setHL(regs.getAltHL());
+        regs.setAltHL((short) aux);
+    }
 
-            // IX register operations
-            case 0xDD:
-                regs.XX.setValue(regs.IX.getValue16());
-                execInstXX();
-                regs.IX.setValue(regs.XX.getValue16());
-                break;
+    // jp c,NN
+    private void op_DA() {
+        tStates += 10;
+        regs.setWZ(read16(regs.getPC()));
+        if (regs.getCF()) {
+            regs.setPC(read16(regs.getPC()));
+        } else {
+            regs.setPC((short) (regs.getPC() + 2));
+        }
+    }
 
-            // sbc a,N
-            case 0xDE:
-                tStates += 7; {
-                int val = dataBus.memRead(regs.getPC());
-                regs.setPC((short) (regs.getPC() + 1));
-                alu.SBC_R8((byte) val);
-            }
-                break;
+    // in a,(N)
+    private void op_DB() {
+        tStates += 11;
+        regs.setW((byte) regs.getA());
+        regs.setZ((byte) dataBus.memRead(regs.getPC()));
+        regs.setA(dataBus.ioRead(regs.getWZ()));
+        regs.setPC((short) (regs.getPC() + 1));
+        regs.setWZ((short) (regs.getWZ() + 1));
+    }
 
-            // rst 0x18
-            case 0xDF:
-                tStates += 11;
-                push16(regs.getPC());
-                regs.setPC((short) 0x0018);
-                regs.setWZ((short) 0x0018);
-                break;
+    // call c,NN
+    private void op_DC() {
+        regs.setWZ((short) read16(regs.getPC()));
+        if (regs.getCF()) {
+            tStates += 17;
+            push16((short) (regs.getPC() + 2));
+            regs.setPC(regs.getWZ());
+        } else {
+            tStates += 10;
+            regs.setPC((short) (regs.getPC() + 2));
+        }
+    }
 
-            // ret po
-            case 0xE0:
-                tStates += 5;
-                if (!regs.getPF()) {
-                    tStates += 6;
-                    regs.setPC((short) pop16());
-                    regs.setWZ(regs.getPC());
-                }
-                break;
+    // IX register operations
+    private void op_DD() {
+        regs.selectIX();
+        execInstXX();
+    }
 
-            // pop hl
-            case 0xE1:
-                tStates += 10;
-                regs.HL.setValue(pop16());
-                break;
+    // sbc a,N
+    private void op_DE() {
+        tStates += 7;
+        int val = dataBus.memRead(regs.getPC());
+        regs.setPC((short) (regs.getPC() + 1));
+        alu.SBC_R8((byte) val);
+    }
 
-            // jp po,NN
-            case 0xE2:
-                tStates += 10;
-                regs.setWZ(read16(regs.getPC()));
-                if (!regs.getPF()) {
-                    regs.setPC(read16(regs.getPC()));
-                } else {
-                    regs.setPC((short) (regs.getPC() + 2));
-                }
-                break;
+    // rst 0x18
+    private void op_DF() {
+        tStates += 11;
+        push16(regs.getPC());
+        regs.setPC((short) 0x0018);
+        regs.setWZ((short) 0x0018);
+    }
 
-            // ex (sp),hl
-            case 0xE3:
-                tStates += 19; {
-                int val = read16(regs.getSP());
-                write16(regs.getSP(), regs.HL.getValue16());
-                regs.HL.setValue((short) val);
-                regs.setWZ((short) val);
-            }
-                break;
+    // ret po
+    private void op_E0() {
+        tStates += 5;
+        if (!regs.getPF()) {
+            tStates += 6;
+            regs.setPC((short) pop16());
+            regs.setWZ(regs.getPC());
+        }
+    }
 
-            // call po,NN
-            case 0xE4:
-                regs.setWZ((short) read16(regs.getPC()));
-                if (!regs.getPF()) {
-                    tStates += 17;
-                    push16((short) (regs.getPC() + 2));
-                    regs.setPC(read16(regs.getPC()));
-                } else {
-                    tStates += 10;
-                    regs.setPC((short) (regs.getPC() + 2));
-                }
-                break;
+    // pop hl
+    private void op_E1() {
+        tStates += 10;
+        regs.setHL(pop16());
+    }
 
-            // push hl
-            case 0xE5:
-                tStates += 11;
-                push16(regs.HL.getValue16());
-                break;
+    // jp po,NN
+    private void op_E2() {
+        tStates += 10;
+        regs.setWZ(read16(regs.getPC()));
+        if (!regs.getPF()) {
+            regs.setPC(read16(regs.getPC()));
+        } else {
+            regs.setPC((short) (regs.getPC() + 2));
+        }
+    }
 
-            // and N
-            case 0xE6:
-                tStates += 7; {
-                int val = dataBus.memRead(regs.getPC());
-                regs.setPC((short) (regs.getPC() + 1));
-                alu.AND_R8((byte) val);
-            }
-                break;
+    // ex (sp),hl
+    private void op_E3() {
+        tStates += 19;
+        int val = read16(regs.getSP());
+        write16(regs.getSP(), regs.getHL());
+        regs.setHL((short) val);
+        regs.setWZ((short) val);
+    }
 
-            // rst 0x20
-            case 0xE7:
-                tStates += 11;
-                push16(regs.getPC());
-                regs.setPC((short) 0x0020);
-                regs.setWZ((short) 0x0020);
-                break;
+    // call po,NN
+    private void op_E4() {
+        regs.setWZ((short) read16(regs.getPC()));
+        if (!regs.getPF()) {
+            tStates += 17;
+            push16((short) (regs.getPC() + 2));
+            regs.setPC(regs.getWZ());
+        } else {
+            tStates += 10;
+            regs.setPC((short) (regs.getPC() + 2));
+        }
+    }
 
-            // ret pe
-            case 0xE8:
-                tStates += 5;
-                if (regs.getPF()) {
-                    tStates += 6;
-                    regs.setPC((short) pop16());
-                    regs.setWZ(regs.getPC());
-                }
-                break;
+    // push hl
+    private void op_E5() {
+        tStates += 11;
+        push16(regs.getHL());
+    }
 
-            // jp (hl)
-            case 0xE9:
-                tStates += 4;
-                regs.setPC(regs.HL.getValue16());
-                break;
+    // and N
+    private void op_E6() {
+        tStates += 7;
+        int val = dataBus.memRead(regs.getPC());
+        regs.setPC((short) (regs.getPC() + 1));
+        alu.AND_R8((byte) val);
+    }
 
-            // jp pe,NN
-            case 0xEA:
-                tStates += 10;
-                regs.setWZ(read16(regs.getPC()));
-                if (regs.getPF()) {
-                    regs.setPC(read16(regs.getPC()));
-                } else {
-                    regs.setPC((short) (regs.getPC() + 2));
-                }
-                break;
+    // rst 0x20
+    private void op_E7() {
+        tStates += 11;
+        push16(regs.getPC());
+        regs.setPC((short) 0x0020);
+        regs.setWZ((short) 0x0020);
+    }
 
-            // ex de,hl
-            case 0xEB:
-                tStates += 4; {
-                int aux = regs.DE.getValue16();
-                regs.DE.setValue(regs.HL.getValue16());
-                regs.HL.setValue((short) aux);
-            }
-                break;
+    // ret pe
+    private void op_E8() {
+        tStates += 5;
+        if (regs.getPF()) {
+            tStates += 6;
+            regs.setPC((short) pop16());
+            regs.setWZ(regs.getPC());
+        }
+    }
 
-            // call pe,NN
-            case 0xEC:
-                regs.setWZ((short) read16(regs.getPC()));
-                if (regs.getPF()) {
-                    tStates += 17;
-                    push16((short) (regs.getPC() + 2));
-                    regs.setPC(read16(regs.getPC()));
-                } else {
-                    tStates += 10;
-                    regs.setPC((short) (regs.getPC() + 2));
-                }
-                break;
+    // jp (hl)
+    private void op_E9() {
+        tStates += 4;
+        regs.setPC(regs.getHL());
+    }
 
-            // 0xED instructions prefix
-            case 0xED:
-                execInstED();
-                break;
+    // jp pe,NN
+    private void op_EA() {
+        tStates += 10;
+        regs.setWZ(read16(regs.getPC()));
+        if (regs.getPF()) {
+            regs.setPC(read16(regs.getPC()));
+        } else {
+            regs.setPC((short) (regs.getPC() + 2));
+        }
+    }
 
-            // xor N
-            case 0xEE:
-                tStates += 7; {
-                int val = dataBus.memRead(regs.getPC());
-                regs.setPC((short) (regs.getPC() + 1));
-                alu.XOR_R8((byte) val);
-            }
-                break;
+    // ex de,hl
+    private void op_EB() {
+        tStates += 4;
+        int aux = regs.getDE();
+        regs.setDE(regs.getHL());
+        regs.setHL((short) aux);
+    }
 
-            // rst 0x28
-            case 0xEF:
-                tStates += 11;
-                push16(regs.getPC());
-                regs.setPC((short) 0x0028);
-                regs.setWZ((short) 0x0028);
-                break;
+    // call pe,NN
+    private void op_EC() {
+        regs.setWZ((short) read16(regs.getPC()));
+        if (regs.getPF()) {
+            tStates += 17;
+            push16((short) (regs.getPC() + 2));
+            regs.setPC(regs.getWZ());
+        } else {
+            tStates += 10;
+            regs.setPC((short) (regs.getPC() + 2));
+        }
+    }
 
-            // ret p
-            case 0xF0:
-                tStates += 5;
-                if (!regs.getSF()) {
-                    tStates += 6;
-                    regs.setPC((short) pop16());
-                    regs.setWZ(regs.getPC());
-                }
-                break;
+    // 0xED instructions prefix
+    private void op_ED() {
+        execInstED();
+    }
 
-            // pop af
-            case 0xF1:
-                tStates += 10;
-                regs.setAF(pop16());
-                break;
+    // xor N
+    private void op_EE() {
+        tStates += 7;
+        int val = dataBus.memRead(regs.getPC());
+        regs.setPC((short) (regs.getPC() + 1));
+        alu.XOR_R8((byte) val);
+    }
 
-            // jp p,NN
-            case 0xF2:
-                tStates += 10;
-                regs.setWZ(read16(regs.getPC()));
-                if (!regs.getSF()) {
-                    regs.setPC(read16(regs.getPC()));
-                } else {
-                    regs.setPC((short) (regs.getPC() + 2));
-                }
-                break;
+    // rst 0x28
+    private void op_EF() {
+        tStates += 11;
+        push16(regs.getPC());
+        regs.setPC((short) 0x0028);
+        regs.setWZ((short) 0x0028);
+    }
 
-            // di
-            case 0xF3:
-                tStates += 4;
-                regs.setiff1A(false);
-                regs.setiff1B(false);
-                break;
+    // ret p
+    private void op_F0() {
+        tStates += 5;
+        if (!regs.getSF()) {
+            tStates += 6;
+            regs.setPC((short) pop16());
+            regs.setWZ(regs.getPC());
+        }
+    }
 
-            // call p,NN
-            case 0xF4:
-                regs.setWZ((short) read16(regs.getPC()));
-                if (!regs.getSF()) {
-                    tStates += 17;
-                    push16((short) (regs.getPC() + 2));
-                    regs.setPC(read16(regs.getPC()));
-                } else {
-                    tStates += 10;
-                    regs.setPC((short) (regs.getPC() + 2));
-                }
-                break;
+    // pop af
+    private void op_F1() {
+        tStates += 10;
+        regs.setAF(pop16());
+    }
 
-            // push af
-            case 0xF5:
-                tStates += 11;
-                push16(regs.getAF());
-                break;
+    // jp p,NN
+    private void op_F2() {
+        tStates += 10;
+        regs.setWZ(read16(regs.getPC()));
+        if (!regs.getSF()) {
+            regs.setPC(read16(regs.getPC()));
+        } else {
+            regs.setPC((short) (regs.getPC() + 2));
+        }
+    }
 
-            // or N
-            case 0xF6:
-                tStates += 7; {
-                int val = dataBus.memRead(regs.getPC());
-                regs.setPC((short) (regs.getPC() + 1));
-                alu.OR_R8((byte) val);
-            }
-                break;
+    // di
+    private void op_F3() {
+        tStates += 4;
+        regs.setiff1A(false);
+        regs.setiff1B(false);
+    }
 
-            // rst 0x30
-            case 0xF7:
-                tStates += 11;
-                push16(regs.getPC());
-                regs.setPC((short) 0x0030);
-                regs.setWZ((short) 0x0030);
-                break;
+    // call p,NN
+    private void op_F4() {
+        regs.setWZ((short) read16(regs.getPC()));
+        if (!regs.getSF()) {
+            tStates += 17;
+            push16((short) (regs.getPC() + 2));
+            regs.setPC(regs.getWZ());
+        } else {
+            tStates += 10;
+            regs.setPC((short) (regs.getPC() + 2));
+        }
+    }
 
-            // ret m
-            case 0xF8:
-                tStates += 5;
-                if (regs.getSF()) {
-                    tStates += 6;
-                    regs.setPC((short) pop16());
-                    regs.setWZ(regs.getPC());
-                }
-                break;
+    // push af
+    private void op_F5() {
+        tStates += 11;
+        push16(regs.getAF());
+    }
 
-            // ld sp,hl
-            case 0xF9:
-                tStates += 6;
-                regs.setSP(regs.HL.getValue16());
-                break;
+    // or N
+    private void op_F6() {
+        tStates += 7;
+        int val = dataBus.memRead(regs.getPC());
+        regs.setPC((short) (regs.getPC() + 1));
+        alu.OR_R8((byte) val);
+    }
 
-            // jp m,NN
-            case 0xFA:
-                tStates += 10;
-                regs.setWZ(read16(regs.getPC()));
-                if (regs.getSF()) {
-                    regs.setPC(read16(regs.getPC()));
-                } else {
-                    regs.setPC((short) (regs.getPC() + 2));
-                }
-                break;
+    // rst 0x30
+    private void op_F7() {
+        tStates += 11;
+        push16(regs.getPC());
+        regs.setPC((short) 0x0030);
+        regs.setWZ((short) 0x0030);
+    }
 
-            // ei
-            case 0xFB:
-                tStates += 4;
-                regs.setiff1A(true);
-                regs.setiff1B(true);
-                break;
+    // ret m
+    private void op_F8() {
+        tStates += 5;
+        if (regs.getSF()) {
+            tStates += 6;
+            regs.setPC((short) pop16());
+            regs.setWZ(regs.getPC());
+        }
+    }
 
-            // call m,NN
-            case 0xFC:
-                regs.setWZ((short) read16(regs.getPC()));
-                if (regs.getSF()) {
-                    tStates += 17;
-                    push16((short) (regs.getPC() + 2));
-                    regs.setPC(read16(regs.getPC()));
-                } else {
-                    tStates += 10;
-                    regs.setPC((short) (regs.getPC() + 2));
-                }
-                break;
+    // ld sp,hl
+    private void op_F9() {
+        tStates += 6;
+        regs.setSP(regs.getHL());
+    }
 
-            // IY register operation prefix
-            case 0xFD:
-                regs.XX.setValue(regs.IY.getValue16());
-                execInstXX();
-                regs.IY.setValue(regs.XX.getValue16());
-                break;
+    // jp m,NN
+    private void op_FA() {
+        tStates += 10;
+        regs.setWZ(read16(regs.getPC()));
+        if (regs.getSF()) {
+            regs.setPC(read16(regs.getPC()));
+        } else {
+            regs.setPC((short) (regs.getPC() + 2));
+        }
+    }
 
-            // cp N
-            case 0xFE:
-                tStates += 7; {
+    // ei
+    private void op_FB() {
+        tStates += 4;
+        regs.setiff1A(true);
+        regs.setiff1B(true);
+        eiExecuted = true; // No se aceptan interrupciones hasta después de la siguiente instrucción
+    }
 
-                byte val = dataBus.memRead(regs.getPC());
-                regs.setPC((short) (regs.getPC() + 1));
-                alu.CMP_R8(val);
-            }
-                break;
+    // call m,NN
+    private void op_FC() {
+        regs.setWZ((short) read16(regs.getPC()));
+        if (regs.getSF()) {
+            tStates += 17;
+            push16((short) (regs.getPC() + 2));
+            regs.setPC(regs.getWZ());
+        } else {
+            tStates += 10;
+            regs.setPC((short) (regs.getPC() + 2));
+        }
+    }
 
-            // rst 0x38
-            case 0xFF:
-                tStates += 11;
-                push16(regs.getPC());
-                regs.setPC((short) 0x0038);
-                regs.setWZ((short) 0x0038);
-                break;
+    // IY register operation prefix
+    private void op_FD() {
+        regs.selectIY();
+        execInstXX();
+    }
 
-        }
+    // cp N
+    private void op_FE() {
+        tStates += 7;
 
-        // Salvamos QF
-        regs.preserveQF();
+        byte val = dataBus.memRead(regs.getPC());
+        regs.setPC((short) (regs.getPC() + 1));
+        alu.CMP_R8(val);
+    }
 
+    // rst 0x38
+    private void op_FF() {
+        tStates += 11;
+        push16(regs.getPC());
+        regs.setPC((short) 0x0038);
+        regs.setWZ((short) 0x0038);
     }
 
     /////////////////////////////////////////////////////////////////////////
@@ -1973,1589 +2225,1827 @@ public class Z80 {
         // Increment instruction counter register
         REFRESH_CYCLE();
 
-        switch (op & 0xFF) {
+        execOpcodeCB(op & 0xFF);
 
-            // Instrucciones CB
+    }
 
-            // rlc b
-            case 0x00:
-                tStates += 8;
-                alu.RLC8(regs.B);
-                break;
+    // Ejecución de un opcode con prefijo CB
+    void execOpcodeCB(int op) {
+        switch (op) {
+            case 0x00: opCB_00(); break; // Instrucciones CB rlc b
+            case 0x01: opCB_01(); break; // rlc c
+            case 0x02: opCB_02(); break; // rlc d
+            case 0x03: opCB_03(); break; // rlc e
+            case 0x04: opCB_04(); break; // rlc h
+            case 0x05: opCB_05(); break; // rlc l
+            case 0x06: opCB_06(); break; // rlc (hl)
+            case 0x07: opCB_07(); break; // rlc a
+            case 0x08: opCB_08(); break; // rrc b
+            case 0x09: opCB_09(); break; // rrc c
+            case 0x0A: opCB_0A(); break; // rrc d
+            case 0x0B: opCB_0B(); break; // rrc e
+            case 0x0C: opCB_0C(); break; // rrc h
+            case 0x0D: opCB_0D(); break; // rrc l
+            case 0x0E: opCB_0E(); break; // rrc (hl)
+            case 0x0F: opCB_0F(); break; // rrc a
+            case 0x10: opCB_10(); break; // rl b
+            case 0x11: opCB_11(); break; // rl c
+            case 0x12: opCB_12(); break; // rl d
+            case 0x13: opCB_13(); break; // rl e
+            case 0x14: opCB_14(); break; // rl h
+            case 0x15: opCB_15(); break; // rl l
+            case 0x16: opCB_16(); break; // rl (hl)
+            case 0x17: opCB_17(); break; // rl a
+            case 0x18: opCB_18(); break; // rr b
+            case 0x19: opCB_19(); break; // rr c
+            case 0x1A: opCB_1A(); break; // rr d
+            case 0x1B: opCB_1B(); break; // rr e
+            case 0x1C: opCB_1C(); break; // rr h
+            case 0x1D: opCB_1D(); break; // rr l
+            case 0x1E: opCB_1E(); break; // rr (hl)
+            case 0x1F: opCB_1F(); break; // rr a
+            case 0x20: opCB_20(); break; // sla b
+            case 0x21: opCB_21(); break; // sla c
+            case 0x22: opCB_22(); break; // sla d
+            case 0x23: opCB_23(); break; // sla e
+            case 0x24: opCB_24(); break; // sla h
+            case 0x25: opCB_25(); break; // sla l
+            case 0x26: opCB_26(); break; // sla (hl)
+            case 0x27: opCB_27(); break; // sla a
+            case 0x28: opCB_28(); break; // sra b
+            case 0x29: opCB_29(); break; // sra c
+            case 0x2A: opCB_2A(); break; // sra d
+            case 0x2B: opCB_2B(); break; // sra e
+            case 0x2C: opCB_2C(); break; // sra h
+            case 0x2D: opCB_2D(); break; // sra l
+            case 0x2E: opCB_2E(); break; // sra (hl)
+            case 0x2F: opCB_2F(); break; // sra a
+            case 0x30: opCB_30(); break; // sli b
+            case 0x31: opCB_31(); break; // sli c
+            case 0x32: opCB_32(); break; // sli d
+            case 0x33: opCB_33(); break; // sli e
+            case 0x34: opCB_34(); break; // sli h
+            case 0x35: opCB_35(); break; // sli l
+            case 0x36: opCB_36(); break; // sli (hl)
+            case 0x37: opCB_37(); break; // sli a
+            case 0x38: opCB_38(); break; // srl b
+            case 0x39: opCB_39(); break; // srl c
+            case 0x3A: opCB_3A(); break; // srl d
+            case 0x3B: opCB_3B(); break; // srl e
+            case 0x3C: opCB_3C(); break; // srl h
+            case 0x3D: opCB_3D(); break; // srl l
+            case 0x3E: opCB_3E(); break; // srl (hl)
+            case 0x3F: opCB_3F(); break; // srl a
+            case 0x40: opCB_40(); break; // bit 0,b
+            case 0x41: opCB_41(); break; // bit 0,c
+            case 0x42: opCB_42(); break; // bit 0,d
+            case 0x43: opCB_43(); break; // bit 0,e
+            case 0x44: opCB_44(); break; // bit 0,h
+            case 0x45: opCB_45(); break; // bit 0,l
+            case 0x46: opCB_46(); break; // bit 0,(hl)
+            case 0x47: opCB_47(); break; // bit 0,a
+            case 0x48: opCB_48(); break; // bit 1,b
+            case 0x49: opCB_49(); break; // bit 1,c
+            case 0x4A: opCB_4A(); break; // bit 1,d
+            case 0x4B: opCB_4B(); break; // bit 1,e
+            case 0x4C: opCB_4C(); break; // bit 1,h
+            case 0x4D: opCB_4D(); break; // bit 1,l
+            case 0x4E: opCB_4E(); break; // bit 1,(hl)
+            case 0x4F: opCB_4F(); break; // bit 1,a
+            case 0x50: opCB_50(); break; // bit 2,b
+            case 0x51: opCB_51(); break; // bit 2,c
+            case 0x52: opCB_52(); break; // bit 2,d
+            case 0x53: opCB_53(); break; // bit 2,e
+            case 0x54: opCB_54(); break; // bit 2,h
+            case 0x55: opCB_55(); break; // bit 2,l
+            case 0x56: opCB_56(); break; // bit 2,(hl)
+            case 0x57: opCB_57(); break; // bit 2,a
+            case 0x58: opCB_58(); break; // bit 3,b
+            case 0x59: opCB_59(); break; // bit 3,c
+            case 0x5A: opCB_5A(); break; // bit 3,d
+            case 0x5B: opCB_5B(); break; // bit 3,e
+            case 0x5C: opCB_5C(); break; // bit 3,h
+            case 0x5D: opCB_5D(); break; // bit 3,l
+            case 0x5E: opCB_5E(); break; // bit 3,(hl)
+            case 0x5F: opCB_5F(); break; // bit 3,a
+            case 0x60: opCB_60(); break; // bit 4,b
+            case 0x61: opCB_61(); break; // bit 4,c
+            case 0x62: opCB_62(); break; // bit 4,d
+            case 0x63: opCB_63(); break; // bit 4,e
+            case 0x64: opCB_64(); break; // bit 4,h
+            case 0x65: opCB_65(); break; // bit 4,l
+            case 0x66: opCB_66(); break; // bit 4,(hl)
+            case 0x67: opCB_67(); break; // bit 4,a
+            case 0x68: opCB_68(); break; // bit 5,b
+            case 0x69: opCB_69(); break; // bit 5,c
+            case 0x6A: opCB_6A(); break; // bit 5,d
+            case 0x6B: opCB_6B(); break; // bit 5,e
+            case 0x6C: opCB_6C(); break; // bit 5,h
+            case 0x6D: opCB_6D(); break; // bit 5,l
+            case 0x6E: opCB_6E(); break; // bit 5,(hl)
+            case 0x6F: opCB_6F(); break; // bit 5,a
+            case 0x70: opCB_70(); break; // bit 6,b
+            case 0x71: opCB_71(); break; // bit 6,c
+            case 0x72: opCB_72(); break; // bit 6,d
+            case 0x73: opCB_73(); break; // bit 6,e
+            case 0x74: opCB_74(); break; // bit 6,h
+            case 0x75: opCB_75(); break; // bit 6,l
+            case 0x76: opCB_76(); break; // bit 6,(hl)
+            case 0x77: opCB_77(); break; // bit 6,a
+            case 0x78: opCB_78(); break; // bit 7,b
+            case 0x79: opCB_79(); break; // bit 7,c
+            case 0x7A: opCB_7A(); break; // bit 7,d
+            case 0x7B: opCB_7B(); break; // bit 7,e
+            case 0x7C: opCB_7C(); break; // bit 7,h
+            case 0x7D: opCB_7D(); break; // bit 7,l
+            case 0x7E: opCB_7E(); break; // bit 7,(hl)
+            case 0x7F: opCB_7F(); break; // bit 7,a
+            case 0x80: opCB_80(); break; // res 0,b
+            case 0x81: opCB_81(); break; // res 0,c
+            case 0x82: opCB_82(); break; // res 0,d
+            case 0x83: opCB_83(); break; // res 0,e
+            case 0x84: opCB_84(); break; // res 0,h
+            case 0x85: opCB_85(); break; // res 0,l
+            case 0x86: opCB_86(); break; // res 0,(hl)
+            case 0x87: opCB_87(); break; // res 0,a
+            case 0x88: opCB_88(); break; // res 1,b
+            case 0x89: opCB_89(); break; // res 1,c
+            case 0x8A: opCB_8A(); break; // res 1,d
+            case 0x8B: opCB_8B(); break; // res 1,e
+            case 0x8C: opCB_8C(); break; // res 1,h
+            case 0x8D: opCB_8D(); break; // res 1,l
+            case 0x8E: opCB_8E(); break; // res 1,(hl)
+            case 0x8F: opCB_8F(); break; // res 1,a
+            case 0x90: opCB_90(); break; // res 2,b
+            case 0x91: opCB_91(); break; // res 2,c
+            case 0x92: opCB_92(); break; // res 2,d
+            case 0x93: opCB_93(); break; // res 2,e
+            case 0x94: opCB_94(); break; // res 2,h
+            case 0x95: opCB_95(); break; // res 2,l
+            case 0x96: opCB_96(); break; // res 2,(hl)
+            case 0x97: opCB_97(); break; // res 2,a
+            case 0x98: opCB_98(); break; // res 3,b
+            case 0x99: opCB_99(); break; // res 3,c
+            case 0x9A: opCB_9A(); break; // res 3,d
+            case 0x9B: opCB_9B(); break; // res 3,e
+            case 0x9C: opCB_9C(); break; // res 3,h
+            case 0x9D: opCB_9D(); break; // res 3,l
+            case 0x9E: opCB_9E(); break; // res 3,(hl)
+            case 0x9F: opCB_9F(); break; // res 3,a
+            case 0xA0: opCB_A0(); break; // res 4,b
+            case 0xA1: opCB_A1(); break; // res 4,c
+            case 0xA2: opCB_A2(); break; // res 4,d
+            case 0xA3: opCB_A3(); break; // res 4,e
+            case 0xA4: opCB_A4(); break; // res 4,h
+            case 0xA5: opCB_A5(); break; // res 4,l
+            case 0xA6: opCB_A6(); break; // res 4,(hl)
+            case 0xA7: opCB_A7(); break; // res 4,a
+            case 0xA8: opCB_A8(); break; // res 5,b
+            case 0xA9: opCB_A9(); break; // res 5,c
+            case 0xAA: opCB_AA(); break; // res 5,d
+            case 0xAB: opCB_AB(); break; // res 5,e
+            case 0xAC: opCB_AC(); break; // res 5,h
+            case 0xAD: opCB_AD(); break; // res 5,l
+            case 0xAE: opCB_AE(); break; // res 5,(hl)
+            case 0xAF: opCB_AF(); break; // res 5,a
+            case 0xB0: opCB_B0(); break; // res 6,b
+            case 0xB1: opCB_B1(); break; // res 6,c
+            case 0xB2: opCB_B2(); break; // res 6,d
+            case 0xB3: opCB_B3(); break; // res 6,e
+            case 0xB4: opCB_B4(); break; // res 6,h
+            case 0xB5: opCB_B5(); break; // res 6,l
+            case 0xB6: opCB_B6(); break; // res 6,(hl)
+            case 0xB7: opCB_B7(); break; // res 6,a
+            case 0xB8: opCB_B8(); break; // res 7,b
+            case 0xB9: opCB_B9(); break; // res 7,c
+            case 0xBA: opCB_BA(); break; // res 7,d
+            case 0xBB: opCB_BB(); break; // res 7,e
+            case 0xBC: opCB_BC(); break; // res 7,h
+            case 0xBD: opCB_BD(); break; // res 7,l
+            case 0xBE: opCB_BE(); break; // res 7,(hl)
+            case 0xBF: opCB_BF(); break; // res 7,a
+            case 0xC0: opCB_C0(); break; // set 0,b
+            case 0xC1: opCB_C1(); break; // set 0,c
+            case 0xC2: opCB_C2(); break; // set 0,d
+            case 0xC3: opCB_C3(); break; // set 0,e
+            case 0xC4: opCB_C4(); break; // set 0,h
+            case 0xC5: opCB_C5(); break; // set 0,l
+            case 0xC6: opCB_C6(); break; // set 0,(hl)
+            case 0xC7: opCB_C7(); break; // set 0,a
+            case 0xC8: opCB_C8(); break; // set 1,b
+            case 0xC9: opCB_C9(); break; // set 1,c
+            case 0xCA: opCB_CA(); break; // set 1,d
+            case 0xCB: opCB_CB(); break; // set 1,e
+            case 0xCC: opCB_CC(); break; // set 1,h
+            case 0xCD: opCB_CD(); break; // set 1,l
+            case 0xCE: opCB_CE(); break; // set 1,(hl)
+            case 0xCF: opCB_CF(); break; // set 1,a
+            case 0xD0: opCB_D0(); break; // set 2,b
+            case 0xD1: opCB_D1(); break; // set 2,c
+            case 0xD2: opCB_D2(); break; // set 2,d
+            case 0xD3: opCB_D3(); break; // set 2,e
+            case 0xD4: opCB_D4(); break; // set 2,h
+            case 0xD5: opCB_D5(); break; // set 2,l
+            case 0xD6: opCB_D6(); break; // set 2,(hl)
+            case 0xD7: opCB_D7(); break; // set 2,a
+            case 0xD8: opCB_D8(); break; // set 3,b
+            case 0xD9: opCB_D9(); break; // set 3,c
+            case 0xDA: opCB_DA(); break; // set 3,d
+            case 0xDB: opCB_DB(); break; // set 3,e
+            case 0xDC: opCB_DC(); break; // set 3,h
+            case 0xDD: opCB_DD(); break; // set 3,l
+            case 0xDE: opCB_DE(); break; // set 3,(hl)
+            case 0xDF: opCB_DF(); break; // set 3,a
+            case 0xE0: opCB_E0(); break; // set 4,b
+            case 0xE1: opCB_E1(); break; // set 4,c
+            case 0xE2: opCB_E2(); break; // set 4,d
+            case 0xE3: opCB_E3(); break; // set 4,e
+            case 0xE4: opCB_E4(); break; // set 4,h
+            case 0xE5: opCB_E5(); break; // set 4,l
+            case 0xE6: opCB_E6(); break; // set 4,(hl)
+            case 0xE7: opCB_E7(); break; // set 4,a
+            case 0xE8: opCB_E8(); break; // set 5,b
+            case 0xE9: opCB_E9(); break; // set 5,c
+            case 0xEA: opCB_EA(); break; // set 5,d
+            case 0xEB: opCB_EB(); break; // set 5,e
+            case 0xEC: opCB_EC(); break; // set 5,h
+            case 0xED: opCB_ED(); break; // set 5,l
+            case 0xEE: opCB_EE(); break; // set 5,(hl)
+            case 0xEF: opCB_EF(); break; // set 5,a
+            case 0xF0: opCB_F0(); break; // set 6,b
+            case 0xF1: opCB_F1(); break; // set 6,c
+            case 0xF2: opCB_F2(); break; // set 6,d
+            case 0xF3: opCB_F3(); break; // set 6,e
+            case 0xF4: opCB_F4(); break; // set 6,h
+            case 0xF5: opCB_F5(); break; // set 6,l
+            case 0xF6: opCB_F6(); break; // set 6,(hl)
+            case 0xF7: opCB_F7(); break; // set 6,a
+            case 0xF8: opCB_F8(); break; // set 7,b
+            case 0xF9: opCB_F9(); break; // set 7,c
+            case 0xFA: opCB_FA(); break; // set 7,d
+            case 0xFB: opCB_FB(); break; // set 7,e
+            case 0xFC: opCB_FC(); break; // set 7,h
+            case 0xFD: opCB_FD(); break; // set 7,l
+            case 0xFE: opCB_FE(); break; // set 7,(hl)
+            case 0xFF: opCB_FF(); break; // set 7,a
 
-            // rlc c
-            case 0x01:
-                tStates += 8;
-                alu.RLC8(regs.C);
-                break;
+        }
+    }
 
-            // rlc d
-            case 0x02:
-                tStates += 8;
-                alu.RLC8(regs.D);
-                break;
+    /////////////////////////////////////////////////////////////////////////
+    // Instrucciones con prefijo CB
 
-            // rlc e
-            case 0x03:
-                tStates += 8;
-                alu.RLC8(regs.E);
-                break;
+    // Instrucciones CB
+    // rlc b
+    private void opCB_00() {
+        tStates += 8;
+        regs.setB(alu.RLC8(regs.getB()));
+    }
 
-            // rlc h
-            case 0x04:
-                tStates += 8;
-                alu.RLC8(regs.H);
-                break;
+    // rlc c
+    private void opCB_01() {
+        tStates += 8;
+        regs.setC(alu.RLC8(regs.getC()));
+    }
 
-            // rlc l
-            case 0x05:
-                tStates += 8;
-                alu.RLC8(regs.L);
-                break;
+    // rlc d
+    private void opCB_02() {
+        tStates += 8;
+        regs.setD(alu.RLC8(regs.getD()));
+    }
 
-            // rlc (hl)
-            case 0x06:
-                tStates += 15; {
-                Register regval = new Register(dataBus.memRead(regs.HL.getValue16()));
-                alu.RLC8(regval);
-                dataBus.memWrite(regs.HL.getValue16(), (byte) regval.getValue());
-            }
-                break;
+    // rlc e
+    private void opCB_03() {
+        tStates += 8;
+        regs.setE(alu.RLC8(regs.getE()));
+    }
 
-            // rlc a
-            case 0x07:
-                tStates += 8;
-                alu.RLC8(regs.A);
-                break;
+    // rlc h
+    private void opCB_04() {
+        tStates += 8;
+        regs.setH(alu.RLC8(regs.getH()));
+    }
 
-            // rrc b
-            case 0x08:
-                tStates += 8;
-                alu.RRC8(regs.B);
-                break;
+    // rlc l
+    private void opCB_05() {
+        tStates += 8;
+        regs.setL(alu.RLC8(regs.getL()));
+    }
 
-            // rrc c
-            case 0x09:
-                tStates += 8;
-                alu.RRC8(regs.C);
-                break;
+    // rlc (hl)
+    private void opCB_06() {
+        tStates += 15;
+        byte regval = alu.RLC8(dataBus.memRead(regs.getHL()));
+        dataBus.memWrite(regs.getHL(), regval);
+    }
 
-            // rrc d
-            case 0x0A:
-                tStates += 8;
-                alu.RRC8(regs.D);
-                break;
+    // rlc a
+    private void opCB_07() {
+        tStates += 8;
+        regs.setA(alu.RLC8(regs.getA()));
+    }
 
-            // rrc e
-            case 0x0B:
-                tStates += 8;
-                alu.RRC8(regs.E);
-                break;
+    // rrc b
+    private void opCB_08() {
+        tStates += 8;
+        regs.setB(alu.RRC8(regs.getB()));
+    }
 
-            // rrc h
-            case 0x0C:
-                tStates += 8;
-                alu.RRC8(regs.H);
-                break;
+    // rrc c
+    private void opCB_09() {
+        tStates += 8;
+        regs.setC(alu.RRC8(regs.getC()));
+    }
 
-            // rrc l
-            case 0x0D:
-                tStates += 8;
-                alu.RRC8(regs.L);
-                break;
+    // rrc d
+    private void opCB_0A() {
+        tStates += 8;
+        regs.setD(alu.RRC8(regs.getD()));
+    }
 
-            // rrc (hl)
-            case 0x0E:
-                tStates += 15; {
-                Register regval = new Register(dataBus.memRead(regs.HL.getValue16()));
-                alu.RRC8(regval);
-                dataBus.memWrite(regs.HL.getValue16(), (byte) regval.getValue());
-            }
-                break;
+    // rrc e
+    private void opCB_0B() {
+        tStates += 8;
+        regs.setE(alu.RRC8(regs.getE()));
+    }
 
-            // rrc a
-            case 0x0F:
-                tStates += 8;
-                alu.RRC8(regs.A);
-                break;
+    // rrc h
+    private void opCB_0C() {
+        tStates += 8;
+        regs.setH(alu.RRC8(regs.getH()));
+    }
 
-            // rl b
-            case 0x10:
-                tStates += 8;
-                alu.RL8(regs.B);
-                break;
+    // rrc l
+    private void opCB_0D() {
+        tStates += 8;
+        regs.setL(alu.RRC8(regs.getL()));
+    }
 
-            // rl c
-            case 0x11:
-                tStates += 8;
-                alu.RL8(regs.C);
-                break;
+    // rrc (hl)
+    private void opCB_0E() {
+        tStates += 15;
+        byte regval = alu.RRC8(dataBus.memRead(regs.getHL()));
+        dataBus.memWrite(regs.getHL(), regval);
+    }
 
-            // rl d
-            case 0x12:
-                tStates += 8;
-                alu.RL8(regs.D);
-                break;
+    // rrc a
+    private void opCB_0F() {
+        tStates += 8;
+        regs.setA(alu.RRC8(regs.getA()));
+    }
 
-            // rl e
-            case 0x13:
-                tStates += 8;
-                alu.RL8(regs.E);
-                break;
+    // rl b
+    private void opCB_10() {
+        tStates += 8;
+        regs.setB(alu.RL8(regs.getB()));
+    }
 
-            // rl h
-            case 0x14:
-                tStates += 8;
-                alu.RL8(regs.H);
-                break;
+    // rl c
+    private void opCB_11() {
+        tStates += 8;
+        regs.setC(alu.RL8(regs.getC()));
+    }
 
-            // rl l
-            case 0x15:
-                tStates += 8;
-                alu.RL8(regs.L);
-                break;
+    // rl d
+    private void opCB_12() {
+        tStates += 8;
+        regs.setD(alu.RL8(regs.getD()));
+    }
 
-            // rl (hl)
-            case 0x16:
-                tStates += 15; {
-                Register regval = new Register(dataBus.memRead(regs.HL.getValue16()));
-                alu.RL8(regval);
-                dataBus.memWrite(regs.HL.getValue16(), (byte) regval.getValue());
-            }
-                break;
+    // rl e
+    private void opCB_13() {
+        tStates += 8;
+        regs.setE(alu.RL8(regs.getE()));
+    }
 
-            // rl a
-            case 0x17:
-                tStates += 8;
-                alu.RL8(regs.A);
-                break;
+    // rl h
+    private void opCB_14() {
+        tStates += 8;
+        regs.setH(alu.RL8(regs.getH()));
+    }
 
-            // rr b
-            case 0x18:
-                tStates += 8;
-                alu.RR8(regs.B);
-                break;
+    // rl l
+    private void opCB_15() {
+        tStates += 8;
+        regs.setL(alu.RL8(regs.getL()));
+    }
 
-            // rr c
-            case 0x19:
-                tStates += 8;
-                alu.RR8(regs.C);
-                break;
+    // rl (hl)
+    private void opCB_16() {
+        tStates += 15;
+        byte regval = alu.RL8(dataBus.memRead(regs.getHL()));
+        dataBus.memWrite(regs.getHL(), regval);
+    }
 
-            // rr d
-            case 0x1A:
-                tStates += 8;
-                alu.RR8(regs.D);
-                break;
+    // rl a
+    private void opCB_17() {
+        tStates += 8;
+        regs.setA(alu.RL8(regs.getA()));
+    }
 
-            // rr e
-            case 0x1B:
-                tStates += 8;
-                alu.RR8(regs.E);
-                break;
+    // rr b
+    private void opCB_18() {
+        tStates += 8;
+        regs.setB(alu.RR8(regs.getB()));
+    }
 
-            // rr h
-            case 0x1C:
-                tStates += 8;
-                alu.RR8(regs.H);
-                break;
+    // rr c
+    private void opCB_19() {
+        tStates += 8;
+        regs.setC(alu.RR8(regs.getC()));
+    }
 
-            // rr l
-            case 0x1D:
-                tStates += 8;
-                alu.RR8(regs.L);
-                break;
+    // rr d
+    private void opCB_1A() {
+        tStates += 8;
+        regs.setD(alu.RR8(regs.getD()));
+    }
 
-            // rr (hl)
-            case 0x1E:
-                tStates += 15; {
-                Register regval = new Register(dataBus.memRead(regs.HL.getValue16()));
-                alu.RR8(regval);
-                dataBus.memWrite(regs.HL.getValue16(), (byte) regval.getValue());
-            }
-                break;
+    // rr e
+    private void opCB_1B() {
+        tStates += 8;
+        regs.setE(alu.RR8(regs.getE()));
+    }
 
-            // rr a
-            case 0x1F:
-                tStates += 8;
-                alu.RR8(regs.A);
-                break;
+    // rr h
+    private void opCB_1C() {
+        tStates += 8;
+        regs.setH(alu.RR8(regs.getH()));
+    }
 
-            // sla b
-            case 0x20:
-                tStates += 8;
-                alu.SLA8(regs.B);
-                break;
+    // rr l
+    private void opCB_1D() {
+        tStates += 8;
+        regs.setL(alu.RR8(regs.getL()));
+    }
 
-            // sla c
-            case 0x21:
-                tStates += 8;
-                alu.SLA8(regs.C);
-                break;
+    // rr (hl)
+    private void opCB_1E() {
+        tStates += 15;
+        byte regval = alu.RR8(dataBus.memRead(regs.getHL()));
+        dataBus.memWrite(regs.getHL(), regval);
+    }
 
-            // sla d
-            case 0x22:
-                tStates += 8;
-                alu.SLA8(regs.D);
-                break;
+    // rr a
+    private void opCB_1F() {
+        tStates += 8;
+        regs.setA(alu.RR8(regs.getA()));
+    }
 
-            // sla e
-            case 0x23:
-                tStates += 8;
-                alu.SLA8(regs.E);
-                break;
+    // sla b
+    private void opCB_20() {
+        tStates += 8;
+        regs.setB(alu.SLA8(regs.getB()));
+    }
 
-            // sla h
-            case 0x24:
-                tStates += 8;
-                alu.SLA8(regs.H);
-                break;
+    // sla c
+    private void opCB_21() {
+        tStates += 8;
+        regs.setC(alu.SLA8(regs.getC()));
+    }
 
-            // sla l
-            case 0x25:
-                tStates += 8;
-                alu.SLA8(regs.L);
-                break;
+    // sla d
+    private void opCB_22() {
+        tStates += 8;
+        regs.setD(alu.SLA8(regs.getD()));
+    }
 
-            // sla (hl)
-            case 0x26:
-                tStates += 15; {
-                Register regval = new Register(dataBus.memRead(regs.HL.getValue16()));
-                alu.SLA8(regval);
-                dataBus.memWrite(regs.HL.getValue16(), (byte) regval.getValue());
-            }
-                break;
+    // sla e
+    private void opCB_23() {
+        tStates += 8;
+        regs.setE(alu.SLA8(regs.getE()));
+    }
 
-            // sla a
-            case 0x27:
-                tStates += 8;
-                alu.SLA8(regs.A);
-                break;
+    // sla h
+    private void opCB_24() {
+        tStates += 8;
+        regs.setH(alu.SLA8(regs.getH()));
+    }
 
-            // sra b
-            case 0x28:
-                tStates += 8;
-                alu.SRA8(regs.B);
-                break;
+    // sla l
+    private void opCB_25() {
+        tStates += 8;
+        regs.setL(alu.SLA8(regs.getL()));
+    }
 
-            // sra c
-            case 0x29:
-                tStates += 8;
-                alu.SRA8(regs.C);
-                break;
+    // sla (hl)
+    private void opCB_26() {
+        tStates += 15;
+        byte regval = alu.SLA8(dataBus.memRead(regs.getHL()));
+        dataBus.memWrite(regs.getHL(), regval);
+    }
 
-            // sra d
-            case 0x2A:
-                tStates += 8;
-                alu.SRA8(regs.D);
-                break;
+    // sla a
+    private void opCB_27() {
+        tStates += 8;
+        regs.setA(alu.SLA8(regs.getA()));
+    }
 
-            // sra e
-            case 0x2B:
-                tStates += 8;
-                alu.SRA8(regs.E);
-                break;
+    // sra b
+    private void opCB_28() {
+        tStates += 8;
+        regs.setB(alu.SRA8(regs.getB()));
+    }
 
-            // sra h
-            case 0x2C:
-                tStates += 8;
-                alu.SRA8(regs.H);
-                break;
+    // sra c
+    private void opCB_29() {
+        tStates += 8;
+        regs.setC(alu.SRA8(regs.getC()));
+    }
 
-            // sra l
-            case 0x2D:
-                tStates += 8;
-                alu.SRA8(regs.L);
-                break;
+    // sra d
+    private void opCB_2A() {
+        tStates += 8;
+        regs.setD(alu.SRA8(regs.getD()));
+    }
 
-            // sra (hl)
-            case 0x2E:
-                tStates += 15; {
-                Register regval = new Register(dataBus.memRead(regs.HL.getValue16()));
-                alu.SRA8(regval);
-                dataBus.memWrite(regs.HL.getValue16(), (byte) regval.getValue());
-            }
-                break;
+    // sra e
+    private void opCB_2B() {
+        tStates += 8;
+        regs.setE(alu.SRA8(regs.getE()));
+    }
 
-            // sra a
-            case 0x2F:
-                tStates += 8;
-                alu.SRA8(regs.A);
-                break;
+    // sra h
+    private void opCB_2C() {
+        tStates += 8;
+        regs.setH(alu.SRA8(regs.getH()));
+    }
 
-            // sli b
-            case 0x30:
-                tStates += 8;
-                alu.SLI8(regs.B);
-                break;
+    // sra l
+    private void opCB_2D() {
+        tStates += 8;
+        regs.setL(alu.SRA8(regs.getL()));
+    }
 
-            // sli c
-            case 0x31:
-                tStates += 8;
-                alu.SLI8(regs.C);
-                break;
+    // sra (hl)
+    private void opCB_2E() {
+        tStates += 15;
+        byte regval = alu.SRA8(dataBus.memRead(regs.getHL()));
+        dataBus.memWrite(regs.getHL(), regval);
+    }
 
-            // sli d
-            case 0x32:
-                tStates += 8;
-                alu.SLI8(regs.D);
-                break;
+    // sra a
+    private void opCB_2F() {
+        tStates += 8;
+        regs.setA(alu.SRA8(regs.getA()));
+    }
 
-            // sli e
-            case 0x33:
-                tStates += 8;
-                alu.SLI8(regs.E);
-                break;
+    // sli b
+    private void opCB_30() {
+        tStates += 8;
+        regs.setB(alu.SLI8(regs.getB()));
+    }
 
-            // sli h
-            case 0x34:
-                tStates += 8;
-                alu.SLI8(regs.H);
-                break;
+    // sli c
+    private void opCB_31() {
+        tStates += 8;
+        regs.setC(alu.SLI8(regs.getC()));
+    }
 
-            // sli l
-            case 0x35:
-                tStates += 8;
-                alu.SLI8(regs.L);
-                break;
+    // sli d
+    private void opCB_32() {
+        tStates += 8;
+        regs.setD(alu.SLI8(regs.getD()));
+    }
 
-            // sli (hl)
-            case 0x36:
-                tStates += 15; {
-                Register regval = new Register(dataBus.memRead(regs.HL.getValue16()));
-                alu.SLI8(regval);
-                dataBus.memWrite(regs.HL.getValue16(), (byte) regval.getValue());
-            }
-                break;
+    // sli e
+    private void opCB_33() {
+        tStates += 8;
+        regs.setE(alu.SLI8(regs.getE()));
+    }
 
-            // sli a
-            case 0x37:
-                tStates += 8;
-                alu.SLI8(regs.A);
-                break;
+    // sli h
+    private void opCB_34() {
+        tStates += 8;
+        regs.setH(alu.SLI8(regs.getH()));
+    }
 
-            // srl b
-            case 0x38:
-                tStates += 8;
-                alu.SRL8(regs.B);
-                break;
+    // sli l
+    private void opCB_35() {
+        tStates += 8;
+        regs.setL(alu.SLI8(regs.getL()));
+    }
 
-            // srl c
-            case 0x39:
-                tStates += 8;
-                alu.SRL8(regs.C);
-                break;
+    // sli (hl)
+    private void opCB_36() {
+        tStates += 15;
+        byte regval = alu.SLI8(dataBus.memRead(regs.getHL()));
+        dataBus.memWrite(regs.getHL(), regval);
+    }
 
-            // srl d
-            case 0x3A:
-                tStates += 8;
-                alu.SRL8(regs.D);
-                break;
+    // sli a
+    private void opCB_37() {
+        tStates += 8;
+        regs.setA(alu.SLI8(regs.getA()));
+    }
 
-            // srl e
-            case 0x3B:
-                tStates += 8;
-                alu.SRL8(regs.E);
-                break;
+    // srl b
+    private void opCB_38() {
+        tStates += 8;
+        regs.setB(alu.SRL8(regs.getB()));
+    }
 
-            // srl h
-            case 0x3C:
-                tStates += 8;
-                alu.SRL8(regs.H);
-                break;
+    // srl c
+    private void opCB_39() {
+        tStates += 8;
+        regs.setC(alu.SRL8(regs.getC()));
+    }
 
-            // srl l
-            case 0x3D:
-                tStates += 8;
-                alu.SRL8(regs.L);
-                break;
+    // srl d
+    private void opCB_3A() {
+        tStates += 8;
+        regs.setD(alu.SRL8(regs.getD()));
+    }
 
-            // srl (hl)
-            case 0x3E:
-                tStates += 15; {
-                Register regval = new Register(dataBus.memRead(regs.HL.getValue16()));
-                alu.SRL8(regval);
-                dataBus.memWrite(regs.HL.getValue16(), (byte) regval.getValue());
-            }
-                break;
+    // srl e
+    private void opCB_3B() {
+        tStates += 8;
+        regs.setE(alu.SRL8(regs.getE()));
+    }
 
-            // srl a
-            case 0x3F:
-                tStates += 8;
-                alu.SRL8(regs.A);
-                break;
+    // srl h
+    private void opCB_3C() {
+        tStates += 8;
+        regs.setH(alu.SRL8(regs.getH()));
+    }
 
-            // bit 0,b
-            case 0x40:
-                tStates += 8;
-                alu.BIT8((byte) regs.B.getValue(), 0);
-                break;
+    // srl l
+    private void opCB_3D() {
+        tStates += 8;
+        regs.setL(alu.SRL8(regs.getL()));
+    }
 
-            // bit 0,c
-            case 0x41:
-                tStates += 8;
-                alu.BIT8((byte) regs.C.getValue(), 0);
-                break;
+    // srl (hl)
+    private void opCB_3E() {
+        tStates += 15;
+        byte regval = alu.SRL8(dataBus.memRead(regs.getHL()));
+        dataBus.memWrite(regs.getHL(), regval);
+    }
 
-            // bit 0,d
-            case 0x42:
-                tStates += 8;
-                alu.BIT8((byte) regs.D.getValue(), 0);
-                break;
+    // srl a
+    private void opCB_3F() {
+        tStates += 8;
+        regs.setA(alu.SRL8(regs.getA()));
+    }
 
-            // bit 0,e
-            case 0x43:
-                tStates += 8;
-                alu.BIT8((byte) regs.E.getValue(), 0);
-                break;
+    // bit 0,b
+    private void opCB_40() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getB(), 0);
+    }
 
-            // bit 0,h
-            case 0x44:
-                tStates += 8;
-                alu.BIT8((byte) regs.H.getValue(), 0);
-                break;
+    // bit 0,c
+    private void opCB_41() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getC(), 0);
+    }
 
-            // bit 0,l
-            case 0x45:
-                tStates += 8;
-                alu.BIT8((byte) regs.L.getValue(), 0);
-                break;
+    // bit 0,d
+    private void opCB_42() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getD(), 0);
+    }
 
-            // bit 0,(hl)
-            case 0x46:
-                tStates += 12; {
-                byte val = dataBus.memRead(regs.HL.getValue16());
-                alu.BIT8_WZ_(val, 0);
-            }
-                break;
+    // bit 0,e
+    private void opCB_43() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getE(), 0);
+    }
 
-            // bit 0,a
-            case 0x47:
-                tStates += 8;
-                alu.BIT8((byte) regs.A.getValue(), 0);
-                break;
+    // bit 0,h
+    private void opCB_44() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getH(), 0);
+    }
 
-            // bit 1,b
-            case 0x48:
-                tStates += 8;
-                alu.BIT8((byte) regs.B.getValue(), 1);
-                break;
+    // bit 0,l
+    private void opCB_45() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getL(), 0);
+    }
 
-            // bit 1,c
-            case 0x49:
-                tStates += 8;
-                alu.BIT8((byte) regs.C.getValue(), 1);
-                break;
+    // bit 0,(hl)
+    private void opCB_46() {
+        tStates += 12;
+        byte val = dataBus.memRead(regs.getHL());
+        alu.BIT8_WZ_(val, 0);
+    }
 
-            // bit 1,d
-            case 0x4A:
-                tStates += 8;
-                alu.BIT8((byte) regs.D.getValue(), 1);
-                break;
+    // bit 0,a
+    private void opCB_47() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getA(), 0);
+    }
 
-            // bit 1,e
-            case 0x4B:
-                tStates += 8;
-                alu.BIT8((byte) regs.E.getValue(), 1);
-                break;
+    // bit 1,b
+    private void opCB_48() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getB(), 1);
+    }
 
-            // bit 1,h
-            case 0x4C:
-                tStates += 8;
-                alu.BIT8((byte) regs.H.getValue(), 1);
-                break;
+    // bit 1,c
+    private void opCB_49() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getC(), 1);
+    }
 
-            // bit 1,l
-            case 0x4D:
-                tStates += 8;
-                alu.BIT8((byte) regs.L.getValue(), 1);
-                break;
+    // bit 1,d
+    private void opCB_4A() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getD(), 1);
+    }
 
-            // bit 1,(hl)
-            case 0x4E:
-                tStates += 12; {
-                byte val = dataBus.memRead(regs.HL.getValue16());
-                alu.BIT8_WZ_(val, 1);
-            }
-                break;
+    // bit 1,e
+    private void opCB_4B() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getE(), 1);
+    }
 
-            // bit 1,a
-            case 0x4F:
-                tStates += 8;
-                alu.BIT8((byte) regs.A.getValue(), 1);
-                break;
+    // bit 1,h
+    private void opCB_4C() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getH(), 1);
+    }
 
-            // bit 2,b
-            case 0x50:
-                tStates += 8;
-                alu.BIT8((byte) regs.B.getValue(), 2);
-                break;
+    // bit 1,l
+    private void opCB_4D() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getL(), 1);
+    }
 
-            // bit 2,c
-            case 0x51:
-                tStates += 8;
-                alu.BIT8((byte) regs.C.getValue(), 2);
-                break;
+    // bit 1,(hl)
+    private void opCB_4E() {
+        tStates += 12;
+        byte val = dataBus.memRead(regs.getHL());
+        alu.BIT8_WZ_(val, 1);
+    }
 
-            // bit 2,d
-            case 0x52:
-                tStates += 8;
-                alu.BIT8((byte) regs.D.getValue(), 2);
-                break;
+    // bit 1,a
+    private void opCB_4F() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getA(), 1);
+    }
 
-            // bit 2,e
-            case 0x53:
-                tStates += 8;
-                alu.BIT8((byte) regs.E.getValue(), 2);
-                break;
+    // bit 2,b
+    private void opCB_50() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getB(), 2);
+    }
 
-            // bit 2,h
-            case 0x54:
-                tStates += 8;
-                alu.BIT8((byte) regs.H.getValue(), 2);
-                break;
+    // bit 2,c
+    private void opCB_51() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getC(), 2);
+    }
 
-            // bit 2,l
-            case 0x55:
-                tStates += 8;
-                alu.BIT8((byte) regs.L.getValue(), 2);
-                break;
+    // bit 2,d
+    private void opCB_52() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getD(), 2);
+    }
 
-            // bit 2,(hl)
-            case 0x56:
-                tStates += 12; {
-                byte val = dataBus.memRead(regs.HL.getValue16());
-                alu.BIT8_WZ_(val, 2);
-            }
-                break;
+    // bit 2,e
+    private void opCB_53() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getE(), 2);
+    }
 
-            // bit 2,a
-            case 0x57:
-                tStates += 8;
-                alu.BIT8((byte) regs.A.getValue(), 2);
-                break;
+    // bit 2,h
+    private void opCB_54() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getH(), 2);
+    }
 
-            // bit 3,b
-            case 0x58:
-                tStates += 8;
-                alu.BIT8((byte) regs.B.getValue(), 3);
-                break;
+    // bit 2,l
+    private void opCB_55() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getL(), 2);
+    }
 
-            // bit 3,c
-            case 0x59:
-                tStates += 8;
-                alu.BIT8((byte) regs.C.getValue(), 3);
-                break;
+    // bit 2,(hl)
+    private void opCB_56() {
+        tStates += 12;
+        byte val = dataBus.memRead(regs.getHL());
+        alu.BIT8_WZ_(val, 2);
+    }
 
-            // bit 3,d
-            case 0x5A:
-                tStates += 8;
-                alu.BIT8((byte) regs.D.getValue(), 3);
-                break;
+    // bit 2,a
+    private void opCB_57() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getA(), 2);
+    }
 
-            // bit 3,e
-            case 0x5B:
-                tStates += 8;
-                alu.BIT8((byte) regs.E.getValue(), 3);
-                break;
+    // bit 3,b
+    private void opCB_58() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getB(), 3);
+    }
 
-            // bit 3,h
-            case 0x5C:
-                tStates += 8;
-                alu.BIT8((byte) regs.H.getValue(), 3);
-                break;
+    // bit 3,c
+    private void opCB_59() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getC(), 3);
+    }
 
-            // bit 3,l
-            case 0x5D:
-                tStates += 8;
-                alu.BIT8((byte) regs.L.getValue(), 3);
-                break;
+    // bit 3,d
+    private void opCB_5A() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getD(), 3);
+    }
 
-            // bit 3,(hl)
-            case 0x5E:
-                tStates += 12; {
-                byte val = dataBus.memRead(regs.HL.getValue16());
-                alu.BIT8_WZ_(val, 3);
-            }
-                break;
+    // bit 3,e
+    private void opCB_5B() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getE(), 3);
+    }
 
-            // bit 3,a
-            case 0x5F:
-                tStates += 8;
-                alu.BIT8((byte) regs.A.getValue(), 3);
-                break;
+    // bit 3,h
+    private void opCB_5C() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getH(), 3);
+    }
 
-            // bit 4,b
-            case 0x60:
-                tStates += 8;
-                alu.BIT8((byte) regs.B.getValue(), 4);
-                break;
+    // bit 3,l
+    private void opCB_5D() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getL(), 3);
+    }
 
-            // bit 4,c
-            case 0x61:
-                tStates += 8;
-                alu.BIT8((byte) regs.C.getValue(), 4);
-                break;
+    // bit 3,(hl)
+    private void opCB_5E() {
+        tStates += 12;
+        byte val = dataBus.memRead(regs.getHL());
+        alu.BIT8_WZ_(val, 3);
+    }
 
-            // bit 4,d
-            case 0x62:
-                tStates += 8;
-                alu.BIT8((byte) regs.D.getValue(), 4);
-                break;
+    // bit 3,a
+    private void opCB_5F() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getA(), 3);
+    }
 
-            // bit 4,e
-            case 0x63:
-                tStates += 8;
-                alu.BIT8((byte) regs.E.getValue(), 4);
-                break;
+    // bit 4,b
+    private void opCB_60() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getB(), 4);
+    }
 
-            // bit 4,h
-            case 0x64:
-                tStates += 8;
-                alu.BIT8((byte) regs.H.getValue(), 4);
-                break;
+    // bit 4,c
+    private void opCB_61() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getC(), 4);
+    }
 
-            // bit 4,l
-            case 0x65:
-                tStates += 8;
-                alu.BIT8((byte) regs.L.getValue(), 4);
-                break;
+    // bit 4,d
+    private void opCB_62() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getD(), 4);
+    }
 
-            // bit 4,(hl)
-            case 0x66:
-                tStates += 12; {
-                byte val = dataBus.memRead(regs.HL.getValue16());
-                alu.BIT8_WZ_(val, 4);
-            }
-                break;
+    // bit 4,e
+    private void opCB_63() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getE(), 4);
+    }
 
-            // bit 4,a
-            case 0x67:
-                tStates += 8;
-                alu.BIT8((byte) regs.A.getValue(), 4);
-                break;
+    // bit 4,h
+    private void opCB_64() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getH(), 4);
+    }
 
-            // bit 5,b
-            case 0x68:
-                tStates += 8;
-                alu.BIT8((byte) regs.B.getValue(), 5);
-                break;
+    // bit 4,l
+    private void opCB_65() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getL(), 4);
+    }
 
-            // bit 5,c
-            case 0x69:
-                tStates += 8;
-                alu.BIT8((byte) regs.C.getValue(), 5);
-                break;
+    // bit 4,(hl)
+    private void opCB_66() {
+        tStates += 12;
+        byte val = dataBus.memRead(regs.getHL());
+        alu.BIT8_WZ_(val, 4);
+    }
 
-            // bit 5,d
-            case 0x6A:
-                tStates += 8;
-                alu.BIT8((byte) regs.D.getValue(), 5);
-                break;
+    // bit 4,a
+    private void opCB_67() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getA(), 4);
+    }
 
-            // bit 5,e
-            case 0x6B:
-                tStates += 8;
-                alu.BIT8((byte) regs.E.getValue(), 5);
-                break;
+    // bit 5,b
+    private void opCB_68() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getB(), 5);
+    }
 
-            // bit 5,h
-            case 0x6C:
-                tStates += 8;
-                alu.BIT8((byte) regs.H.getValue(), 5);
-                break;
+    // bit 5,c
+    private void opCB_69() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getC(), 5);
+    }
 
-            // bit 5,l
-            case 0x6D:
-                tStates += 8;
-                alu.BIT8((byte) regs.L.getValue(), 5);
-                break;
+    // bit 5,d
+    private void opCB_6A() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getD(), 5);
+    }
 
-            // bit 5,(hl)
-            case 0x6E:
-                tStates += 12; {
-                byte val = dataBus.memRead(regs.HL.getValue16());
-                alu.BIT8_WZ_(val, 5);
-            }
-                break;
+    // bit 5,e
+    private void opCB_6B() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getE(), 5);
+    }
 
-            // bit 5,a
-            case 0x6F:
-                tStates += 8;
-                alu.BIT8((byte) regs.A.getValue(), 5);
-                break;
+    // bit 5,h
+    private void opCB_6C() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getH(), 5);
+    }
 
-            // bit 6,b
-            case 0x70:
-                tStates += 8;
-                alu.BIT8((byte) regs.B.getValue(), 6);
-                break;
+    // bit 5,l
+    private void opCB_6D() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getL(), 5);
+    }
 
-            // bit 6,c
-            case 0x71:
-                tStates += 8;
-                alu.BIT8((byte) regs.C.getValue(), 6);
-                break;
+    // bit 5,(hl)
+    private void opCB_6E() {
+        tStates += 12;
+        byte val = dataBus.memRead(regs.getHL());
+        alu.BIT8_WZ_(val, 5);
+    }
 
-            // bit 6,d
-            case 0x72:
-                tStates += 8;
-                alu.BIT8((byte) regs.D.getValue(), 6);
-                break;
+    // bit 5,a
+    private void opCB_6F() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getA(), 5);
+    }
 
-            // bit 6,e
-            case 0x73:
-                tStates += 8;
-                alu.BIT8((byte) regs.E.getValue(), 6);
-                break;
+    // bit 6,b
+    private void opCB_70() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getB(), 6);
+    }
 
-            // bit 6,h
-            case 0x74:
-                tStates += 8;
-                alu.BIT8((byte) regs.H.getValue(), 6);
-                break;
+    // bit 6,c
+    private void opCB_71() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getC(), 6);
+    }
 
-            // bit 6,l
-            case 0x75:
-                tStates += 8;
-                alu.BIT8((byte) regs.L.getValue(), 6);
-                break;
+    // bit 6,d
+    private void opCB_72() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getD(), 6);
+    }
 
-            // bit 6,(hl)
-            case 0x76:
-                tStates += 12; {
-                byte val = dataBus.memRead(regs.HL.getValue16());
-                alu.BIT8_WZ_(val, 6);
-            }
-                break;
+    // bit 6,e
+    private void opCB_73() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getE(), 6);
+    }
 
-            // bit 6,a
-            case 0x77:
-                tStates += 8;
-                alu.BIT8((byte) regs.A.getValue(), 6);
-                break;
+    // bit 6,h
+    private void opCB_74() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getH(), 6);
+    }
 
-            // bit 7,b
-            case 0x78:
-                tStates += 8;
-                alu.BIT8((byte) regs.B.getValue(), 7);
-                break;
+    // bit 6,l
+    private void opCB_75() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getL(), 6);
+    }
 
-            // bit 7,c
-            case 0x79:
-                tStates += 8;
-                alu.BIT8((byte) regs.C.getValue(), 7);
-                break;
+    // bit 6,(hl)
+    private void opCB_76() {
+        tStates += 12;
+        byte val = dataBus.memRead(regs.getHL());
+        alu.BIT8_WZ_(val, 6);
+    }
 
-            // bit 7,d
-            case 0x7A:
-                tStates += 8;
-                alu.BIT8((byte) regs.D.getValue(), 7);
-                break;
+    // bit 6,a
+    private void opCB_77() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getA(), 6);
+    }
 
-            // bit 7,e
-            case 0x7B:
-                tStates += 8;
-                alu.BIT8((byte) regs.E.getValue(), 7);
-                break;
+    // bit 7,b
+    private void opCB_78() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getB(), 7);
+    }
 
-            // bit 7,h
-            case 0x7C:
-                tStates += 8;
-                alu.BIT8((byte) regs.H.getValue(), 7);
-                break;
+    // bit 7,c
+    private void opCB_79() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getC(), 7);
+    }
 
-            // bit 7,l
-            case 0x7D:
-                tStates += 8;
-                alu.BIT8((byte) regs.L.getValue(), 7);
-                break;
+    // bit 7,d
+    private void opCB_7A() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getD(), 7);
+    }
 
-            // bit 7,(hl)
-            case 0x7E:
-                tStates += 12; {
-                byte val = dataBus.memRead(regs.HL.getValue16());
-                alu.BIT8_WZ_(val, 7);
+    // bit 7,e
+    private void opCB_7B() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getE(), 7);
+    }
 
-            }
-                break;
+    // bit 7,h
+    private void opCB_7C() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getH(), 7);
+    }
 
-            // bit 7,a
-            case 0x7F:
-                tStates += 8;
-                alu.BIT8((byte) regs.A.getValue(), 7);
-                break;
+    // bit 7,l
+    private void opCB_7D() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getL(), 7);
+    }
 
-            // res 0,b
-            case 0x80:
-                tStates += 8;
-                regs.B.setValue((byte) (regs.B.getValue() & 0xfe));
-                break;
+    // bit 7,(hl)
+    private void opCB_7E() {
+        tStates += 12;
+        byte val = dataBus.memRead(regs.getHL());
+        alu.BIT8_WZ_(val, 7);
+    }
 
-            // res 0,c
-            case 0x81:
-                tStates += 8;
-                regs.C.setValue((byte) (regs.C.getValue() & 0xfe));
-                break;
+    // bit 7,a
+    private void opCB_7F() {
+        tStates += 8;
+        alu.BIT8((byte) regs.getA(), 7);
+    }
 
-            // res 0,d
-            case 0x82:
-                tStates += 8;
-                regs.D.setValue((byte) (regs.D.getValue() & 0xfe));
-                break;
+    // res 0,b
+    private void opCB_80() {
+        tStates += 8;
+        regs.setB((byte) (regs.getB() & 0xfe));
+    }
 
-            // res 0,e
-            case 0x83:
-                tStates += 8;
-                regs.E.setValue((byte) (regs.E.getValue() & 0xfe));
-                break;
+    // res 0,c
+    private void opCB_81() {
+        tStates += 8;
+        regs.setC((byte) (regs.getC() & 0xfe));
+    }
 
-            // res 0,h
-            case 0x84:
-                tStates += 8;
-                regs.H.setValue((byte) (regs.H.getValue() & 0xfe));
-                break;
+    // res 0,d
+    private void opCB_82() {
+        tStates += 8;
+        regs.setD((byte) (regs.getD() & 0xfe));
+    }
 
-            // res 0,l
-            case 0x85:
-                tStates += 8;
-                regs.L.setValue((byte) (regs.L.getValue() & 0xfe));
-                break;
+    // res 0,e
+    private void opCB_83() {
+        tStates += 8;
+        regs.setE((byte) (regs.getE() & 0xfe));
+    }
 
-            // res 0,(hl)
-            case 0x86:
-                tStates += 15;
-                dataBus.memWrite(regs.HL.getValue16(), (byte) (dataBus.memRead(regs.HL.getValue16()) & 0xFE));
-                break;
+    // res 0,h
+    private void opCB_84() {
+        tStates += 8;
+        regs.setH((byte) (regs.getH() & 0xfe));
+    }
 
-            // res 0,a
-            case 0x87:
-                tStates += 8;
-                regs.A.setValue((byte) (regs.A.getValue() & 0xfe));
-                break;
+    // res 0,l
+    private void opCB_85() {
+        tStates += 8;
+        regs.setL((byte) (regs.getL() & 0xfe));
+    }
 
-            // res 1,b
-            case 0x88:
-                tStates += 8;
-                regs.B.setValue((byte) (regs.B.getValue() & 0xfd));
-                break;
+    // res 0,(hl)
+    private void opCB_86() {
+        tStates += 15;
+        dataBus.memWrite(regs.getHL(), (byte) (dataBus.memRead(regs.getHL()) & 0xFE));
+    }
 
-            // res 1,c
-            case 0x89:
-                tStates += 8;
-                regs.C.setValue((byte) (regs.C.getValue() & 0xfd));
-                break;
+    // res 0,a
+    private void opCB_87() {
+        tStates += 8;
+        regs.setA((byte) (regs.getA() & 0xfe));
+    }
 
-            // res 1,d
-            case 0x8A:
-                tStates += 8;
-                regs.D.setValue((byte) (regs.D.getValue() & 0xfd));
-                break;
+    // res 1,b
+    private void opCB_88() {
+        tStates += 8;
+        regs.setB((byte) (regs.getB() & 0xfd));
+    }
 
-            // res 1,e
-            case 0x8B:
-                tStates += 8;
-                regs.E.setValue((byte) (regs.E.getValue() & 0xfd));
-                break;
+    // res 1,c
+    private void opCB_89() {
+        tStates += 8;
+        regs.setC((byte) (regs.getC() & 0xfd));
+    }
 
-            // res 1,h
-            case 0x8C:
-                tStates += 8;
-                regs.H.setValue((byte) (regs.H.getValue() & 0xfd));
-                break;
+    // res 1,d
+    private void opCB_8A() {
+        tStates += 8;
+        regs.setD((byte) (regs.getD() & 0xfd));
+    }
 
-            // res 1,l
-            case 0x8D:
-                tStates += 8;
-                regs.L.setValue((byte) (regs.L.getValue() & 0xfd));
-                break;
+    // res 1,e
+    private void opCB_8B() {
+        tStates += 8;
+        regs.setE((byte) (regs.getE() & 0xfd));
+    }
 
-            // res 1,(hl)
-            case 0x8E:
-                tStates += 15;
-                dataBus.memWrite(regs.HL.getValue16(), (byte) (dataBus.memRead(regs.HL.getValue16()) & 0xFD));
-                break;
+    // res 1,h
+    private void opCB_8C() {
+        tStates += 8;
+        regs.setH((byte) (regs.getH() & 0xfd));
+    }
 
-            // res 1,a
-            case 0x8F:
-                tStates += 8;
-                regs.A.setValue((byte) (regs.A.getValue() & 0xfd));
-                break;
+    // res 1,l
+    private void opCB_8D() {
+        tStates += 8;
+        regs.setL((byte) (regs.getL() & 0xfd));
+    }
 
-            // res 2,b
-            case 0x90:
-                tStates += 8;
-                regs.B.setValue((byte) (regs.B.getValue() & 0xfb));
-                break;
+    // res 1,(hl)
+    private void opCB_8E() {
+        tStates += 15;
+        dataBus.memWrite(regs.getHL(), (byte) (dataBus.memRead(regs.getHL()) & 0xFD));
+    }
 
-            // res 2,c
-            case 0x91:
-                tStates += 8;
-                regs.C.setValue((byte) (regs.C.getValue() & 0xfb));
-                break;
+    // res 1,a
+    private void opCB_8F() {
+        tStates += 8;
+        regs.setA((byte) (regs.getA() & 0xfd));
+    }
 
-            // res 2,d
-            case 0x92:
-                tStates += 8;
-                regs.D.setValue((byte) (regs.D.getValue() & 0xfb));
-                break;
+    // res 2,b
+    private void opCB_90() {
+        tStates += 8;
+        regs.setB((byte) (regs.getB() & 0xfb));
+    }
 
-            // res 2,e
-            case 0x93:
-                tStates += 8;
-                regs.E.setValue((byte) (regs.E.getValue() & 0xfb));
-                break;
+    // res 2,c
+    private void opCB_91() {
+        tStates += 8;
+        regs.setC((byte) (regs.getC() & 0xfb));
+    }
 
-            // res 2,h
-            case 0x94:
-                tStates += 8;
-                regs.H.setValue((byte) (regs.H.getValue() & 0xfb));
-                break;
+    // res 2,d
+    private void opCB_92() {
+        tStates += 8;
+        regs.setD((byte) (regs.getD() & 0xfb));
+    }
 
-            // res 2,l
-            case 0x95:
-                tStates += 8;
-                regs.L.setValue((byte) (regs.L.getValue() & 0xfb));
-                break;
+    // res 2,e
+    private void opCB_93() {
+        tStates += 8;
+        regs.setE((byte) (regs.getE() & 0xfb));
+    }
 
-            // res 2,(hl)
-            case 0x96:
-                tStates += 15;
-                dataBus.memWrite(regs.HL.getValue16(), (byte) (dataBus.memRead(regs.HL.getValue16()) & 0xFB));
-                break;
+    // res 2,h
+    private void opCB_94() {
+        tStates += 8;
+        regs.setH((byte) (regs.getH() & 0xfb));
+    }
 
-            // res 2,a
-            case 0x97:
-                tStates += 8;
-                regs.A.setValue((byte) (regs.A.getValue() & 0xfb));
-                break;
+    // res 2,l
+    private void opCB_95() {
+        tStates += 8;
+        regs.setL((byte) (regs.getL() & 0xfb));
+    }
 
-            // res 3,b
-            case 0x98:
-                tStates += 8;
-                regs.B.setValue((byte) (regs.B.getValue() & 0xf7));
-                break;
+    // res 2,(hl)
+    private void opCB_96() {
+        tStates += 15;
+        dataBus.memWrite(regs.getHL(), (byte) (dataBus.memRead(regs.getHL()) & 0xFB));
+    }
 
-            // res 3,c
-            case 0x99:
-                tStates += 8;
-                regs.C.setValue((byte) (regs.C.getValue() & 0xf7));
-                break;
+    // res 2,a
+    private void opCB_97() {
+        tStates += 8;
+        regs.setA((byte) (regs.getA() & 0xfb));
+    }
 
-            // res 3,d
-            case 0x9A:
-                tStates += 8;
-                regs.D.setValue((byte) (regs.D.getValue() & 0xf7));
-                break;
+    // res 3,b
+    private void opCB_98() {
+        tStates += 8;
+        regs.setB((byte) (regs.getB() & 0xf7));
+    }
 
-            // res 3,e
-            case 0x9B:
-                tStates += 8;
-                regs.E.setValue((byte) (regs.E.getValue() & 0xf7));
-                break;
+    // res 3,c
+    private void opCB_99() {
+        tStates += 8;
+        regs.setC((byte) (regs.getC() & 0xf7));
+    }
 
-            // res 3,h
-            case 0x9C:
-                tStates += 8;
-                regs.H.setValue((byte) (regs.H.getValue() & 0xf7));
-                break;
+    // res 3,d
+    private void opCB_9A() {
+        tStates += 8;
+        regs.setD((byte) (regs.getD() & 0xf7));
+    }
 
-            // res 3,l
-            case 0x9D:
-                tStates += 8;
-                regs.L.setValue((byte) (regs.L.getValue() & 0xf7));
-                break;
+    // res 3,e
+    private void opCB_9B() {
+        tStates += 8;
+        regs.setE((byte) (regs.getE() & 0xf7));
+    }
 
-            // res 3,(hl)
-            case 0x9E:
-                tStates += 15;
-                dataBus.memWrite(regs.HL.getValue16(), (byte) (dataBus.memRead(regs.HL.getValue16()) & 0xF7));
-                break;
+    // res 3,h
+    private void opCB_9C() {
+        tStates += 8;
+        regs.setH((byte) (regs.getH() & 0xf7));
+    }
 
-            // res 3,a
-            case 0x9F:
-                tStates += 8;
-                regs.A.setValue((byte) (regs.A.getValue() & 0xf7));
-                break;
+    // res 3,l
+    private void opCB_9D() {
+        tStates += 8;
+        regs.setL((byte) (regs.getL() & 0xf7));
+    }
 
-            // res 4,b
-            case 0xA0:
-                tStates += 8;
-                regs.B.setValue((byte) (regs.B.getValue() & 0xef));
-                break;
+    // res 3,(hl)
+    private void opCB_9E() {
+        tStates += 15;
+        dataBus.memWrite(regs.getHL(), (byte) (dataBus.memRead(regs.getHL()) & 0xF7));
+    }
 
-            // res 4,c
-            case 0xA1:
-                tStates += 8;
-                regs.C.setValue((byte) (regs.C.getValue() & 0xef));
-                break;
+    // res 3,a
+    private void opCB_9F() {
+        tStates += 8;
+        regs.setA((byte) (regs.getA() & 0xf7));
+    }
 
-            // res 4,d
-            case 0xA2:
-                tStates += 8;
-                regs.D.setValue((byte) (regs.D.getValue() & 0xef));
-                break;
+    // res 4,b
+    private void opCB_A0() {
+        tStates += 8;
+        regs.setB((byte) (regs.getB() & 0xef));
+    }
 
-            // res 4,e
-            case 0xA3:
-                tStates += 8;
-                regs.E.setValue((byte) (regs.E.getValue() & 0xef));
-                break;
+    // res 4,c
+    private void opCB_A1() {
+        tStates += 8;
+        regs.setC((byte) (regs.getC() & 0xef));
+    }
 
-            // res 4,h
-            case 0xA4:
-                tStates += 8;
-                regs.H.setValue((byte) (regs.H.getValue() & 0xef));
-                break;
+    // res 4,d
+    private void opCB_A2() {
+        tStates += 8;
+        regs.setD((byte) (regs.getD() & 0xef));
+    }
 
-            // res 4,l
-            case 0xA5:
-                tStates += 8;
-                regs.L.setValue((byte) (regs.L.getValue() & 0xef));
-                break;
+    // res 4,e
+    private void opCB_A3() {
+        tStates += 8;
+        regs.setE((byte) (regs.getE() & 0xef));
+    }
 
-            // res 4,(hl)
-            case 0xA6:
-                tStates += 15;
-                dataBus.memWrite(regs.HL.getValue16(), (byte) (dataBus.memRead(regs.HL.getValue16()) & 0xEF));
-                break;
+    // res 4,h
+    private void opCB_A4() {
+        tStates += 8;
+        regs.setH((byte) (regs.getH() & 0xef));
+    }
 
-            // res 4,a
-            case 0xA7:
-                tStates += 8;
-                regs.A.setValue((byte) (regs.A.getValue() & 0xef));
-                break;
+    // res 4,l
+    private void opCB_A5() {
+        tStates += 8;
+        regs.setL((byte) (regs.getL() & 0xef));
+    }
 
-            // res 5,b
-            case 0xA8:
-                tStates += 8;
-                regs.B.setValue((byte) (regs.B.getValue() & 0xdf));
-                break;
+    // res 4,(hl)
+    private void opCB_A6() {
+        tStates += 15;
+        dataBus.memWrite(regs.getHL(), (byte) (dataBus.memRead(regs.getHL()) & 0xEF));
+    }
 
-            // res 5,c
-            case 0xA9:
-                tStates += 8;
-                regs.C.setValue((byte) (regs.C.getValue() & 0xdf));
-                break;
+    // res 4,a
+    private void opCB_A7() {
+        tStates += 8;
+        regs.setA((byte) (regs.getA() & 0xef));
+    }
 
-            // res 5,d
-            case 0xAA:
-                tStates += 8;
-                regs.D.setValue((byte) (regs.D.getValue() & 0xdf));
-                break;
+    // res 5,b
+    private void opCB_A8() {
+        tStates += 8;
+        regs.setB((byte) (regs.getB() & 0xdf));
+    }
 
-            // res 5,e
-            case 0xAB:
-                tStates += 8;
-                regs.E.setValue((byte) (regs.E.getValue() & 0xdf));
-                break;
+    // res 5,c
+    private void opCB_A9() {
+        tStates += 8;
+        regs.setC((byte) (regs.getC() & 0xdf));
+    }
 
-            // res 5,h
-            case 0xAC:
-                tStates += 8;
-                regs.H.setValue((byte) (regs.H.getValue() & 0xdf));
-                break;
+    // res 5,d
+    private void opCB_AA() {
+        tStates += 8;
+        regs.setD((byte) (regs.getD() & 0xdf));
+    }
 
-            // res 5,l
-            case 0xAD:
-                tStates += 8;
-                regs.L.setValue((byte) (regs.L.getValue() & 0xdf));
-                break;
+    // res 5,e
+    private void opCB_AB() {
+        tStates += 8;
+        regs.setE((byte) (regs.getE() & 0xdf));
+    }
 
-            // res 5,(hl)
-            case 0xAE:
-                tStates += 15;
-                dataBus.memWrite(regs.HL.getValue16(), (byte) (dataBus.memRead(regs.HL.getValue16()) & 0xDF));
-                break;
+    // res 5,h
+    private void opCB_AC() {
+        tStates += 8;
+        regs.setH((byte) (regs.getH() & 0xdf));
+    }
 
-            // res 5,a
-            case 0xAF:
-                tStates += 8;
-                regs.A.setValue((byte) (regs.A.getValue() & 0xdf));
-                break;
+    // res 5,l
+    private void opCB_AD() {
+        tStates += 8;
+        regs.setL((byte) (regs.getL() & 0xdf));
+    }
 
-            // res 6,b
-            case 0xB0:
-                tStates += 8;
-                regs.B.setValue((byte) (regs.B.getValue() & 0xbf));
-                break;
+    // res 5,(hl)
+    private void opCB_AE() {
+        tStates += 15;
+        dataBus.memWrite(regs.getHL(), (byte) (dataBus.memRead(regs.getHL()) & 0xDF));
+    }
 
-            // res 6,c
-            case 0xB1:
-                tStates += 8;
-                regs.C.setValue((byte) (regs.C.getValue() & 0xbf));
-                break;
+    // res 5,a
+    private void opCB_AF() {
+        tStates += 8;
+        regs.setA((byte) (regs.getA() & 0xdf));
+    }
 
-            // res 6,d
-            case 0xB2:
-                tStates += 8;
-                regs.D.setValue((byte) (regs.D.getValue() & 0xbf));
-                break;
+    // res 6,b
+    private void opCB_B0() {
+        tStates += 8;
+        regs.setB((byte) (regs.getB() & 0xbf));
+    }
 
-            // res 6,e
-            case 0xB3:
-                tStates += 8;
-                regs.E.setValue((byte) (regs.E.getValue() & 0xbf));
-                break;
+    // res 6,c
+    private void opCB_B1() {
+        tStates += 8;
+        regs.setC((byte) (regs.getC() & 0xbf));
+    }
 
-            // res 6,h
-            case 0xB4:
-                tStates += 8;
-                regs.H.setValue((byte) (regs.H.getValue() & 0xbf));
-                break;
+    // res 6,d
+    private void opCB_B2() {
+        tStates += 8;
+        regs.setD((byte) (regs.getD() & 0xbf));
+    }
 
-            // res 6,l
-            case 0xB5:
-                tStates += 8;
-                regs.L.setValue((byte) (regs.L.getValue() & 0xbf));
-                break;
+    // res 6,e
+    private void opCB_B3() {
+        tStates += 8;
+        regs.setE((byte) (regs.getE() & 0xbf));
+    }
 
-            // res 6,(hl)
-            case 0xB6:
-                tStates += 15;
-                dataBus.memWrite(regs.HL.getValue16(), (byte) (dataBus.memRead(regs.HL.getValue16()) & 0xBF));
-                break;
+    // res 6,h
+    private void opCB_B4() {
+        tStates += 8;
+        regs.setH((byte) (regs.getH() & 0xbf));
+    }
 
-            // res 6,a
-            case 0xB7:
-                tStates += 8;
-                regs.A.setValue((byte) (regs.A.getValue() & 0xbf));
-                break;
+    // res 6,l
+    private void opCB_B5() {
+        tStates += 8;
+        regs.setL((byte) (regs.getL() & 0xbf));
+    }
 
-            // res 7,b
-            case 0xB8:
-                tStates += 8;
-                regs.B.setValue((byte) (regs.B.getValue() & 0x7f));
-                break;
+    // res 6,(hl)
+    private void opCB_B6() {
+        tStates += 15;
+        dataBus.memWrite(regs.getHL(), (byte) (dataBus.memRead(regs.getHL()) & 0xBF));
+    }
 
-            // res 7,c
-            case 0xB9:
-                tStates += 8;
-                regs.C.setValue((byte) (regs.C.getValue() & 0x7f));
-                break;
+    // res 6,a
+    private void opCB_B7() {
+        tStates += 8;
+        regs.setA((byte) (regs.getA() & 0xbf));
+    }
 
-            // res 7,d
-            case 0xBA:
-                tStates += 8;
-                regs.D.setValue((byte) (regs.D.getValue() & 0x7f));
-                break;
+    // res 7,b
+    private void opCB_B8() {
+        tStates += 8;
+        regs.setB((byte) (regs.getB() & 0x7f));
+    }
 
-            // res 7,e
-            case 0xBB:
-                tStates += 8;
-                regs.E.setValue((byte) (regs.E.getValue() & 0x7f));
-                break;
+    // res 7,c
+    private void opCB_B9() {
+        tStates += 8;
+        regs.setC((byte) (regs.getC() & 0x7f));
+    }
 
-            // res 7,h
-            case 0xBC:
-                tStates += 8;
-                regs.H.setValue((byte) (regs.H.getValue() & 0x7f));
-                break;
+    // res 7,d
+    private void opCB_BA() {
+        tStates += 8;
+        regs.setD((byte) (regs.getD() & 0x7f));
+    }
 
-            // res 7,l
-            case 0xBD:
-                tStates += 8;
-                regs.L.setValue((byte) (regs.L.getValue() & 0x7f));
-                break;
+    // res 7,e
+    private void opCB_BB() {
+        tStates += 8;
+        regs.setE((byte) (regs.getE() & 0x7f));
+    }
 
-            // res 7,(hl)
-            case 0xBE:
-                tStates += 15;
-                dataBus.memWrite(regs.HL.getValue16(), (byte) (dataBus.memRead(regs.HL.getValue16()) & 0x7F));
-                break;
+    // res 7,h
+    private void opCB_BC() {
+        tStates += 8;
+        regs.setH((byte) (regs.getH() & 0x7f));
+    }
 
-            // res 7,a
-            case 0xBF:
-                tStates += 8;
-                regs.A.setValue((byte) (regs.A.getValue() & 0x7f));
-                break;
+    // res 7,l
+    private void opCB_BD() {
+        tStates += 8;
+        regs.setL((byte) (regs.getL() & 0x7f));
+    }
 
-            // set 0,b
-            case 0xC0:
-                tStates += 8;
-                regs.B.setValue((byte) (regs.B.getValue() | 0x1));
-                break;
+    // res 7,(hl)
+    private void opCB_BE() {
+        tStates += 15;
+        dataBus.memWrite(regs.getHL(), (byte) (dataBus.memRead(regs.getHL()) & 0x7F));
+    }
 
-            // set 0,c
-            case 0xC1:
-                tStates += 8;
-                regs.C.setValue((byte) (regs.C.getValue() | 0x1));
-                break;
+    // res 7,a
+    private void opCB_BF() {
+        tStates += 8;
+        regs.setA((byte) (regs.getA() & 0x7f));
+    }
 
-            // set 0,d
-            case 0xC2:
-                tStates += 8;
-                regs.D.setValue((byte) (regs.D.getValue() | 0x1));
-                break;
+    // set 0,b
+    private void opCB_C0() {
+        tStates += 8;
+        regs.setB((byte) (regs.getB() | 0x1));
+    }
 
-            // set 0,e
-            case 0xC3:
-                tStates += 8;
-                regs.E.setValue((byte) (regs.E.getValue() | 0x1));
-                break;
+    // set 0,c
+    private void opCB_C1() {
+        tStates += 8;
+        regs.setC((byte) (regs.getC() | 0x1));
+    }
 
-            // set 0,h
-            case 0xC4:
-                tStates += 8;
-                regs.H.setValue((byte) (regs.H.getValue() | 0x1));
-                break;
+    // set 0,d
+    private void opCB_C2() {
+        tStates += 8;
+        regs.setD((byte) (regs.getD() | 0x1));
+    }
 
-            // set 0,l
-            case 0xC5:
-                tStates += 8;
-                regs.L.setValue((byte) (regs.L.getValue() | 0x1));
-                break;
+    // set 0,e
+    private void opCB_C3() {
+        tStates += 8;
+        regs.setE((byte) (regs.getE() | 0x1));
+    }
 
-            // set 0,(hl)
-            case 0xC6:
-                tStates += 15;
-                dataBus.memWrite(regs.HL.getValue16(), (byte) (dataBus.memRead(regs.HL.getValue16()) | 0x01));
-                break;
+    // set 0,h
+    private void opCB_C4() {
+        tStates += 8;
+        regs.setH((byte) (regs.getH() | 0x1));
+    }
 
-            // set 0,a
-            case 0xC7:
-                tStates += 8;
-                regs.A.setValue((byte) (regs.A.getValue() | 0x1));
-                break;
+    // set 0,l
+    private void opCB_C5() {
+        tStates += 8;
+        regs.setL((byte) (regs.getL() | 0x1));
+    }
 
-            // set 1,b
-            case 0xC8:
-                tStates += 8;
-                regs.B.setValue((byte) (regs.B.getValue() | 0x2));
-                break;
+    // set 0,(hl)
+    private void opCB_C6() {
+        tStates += 15;
+        dataBus.memWrite(regs.getHL(), (byte) (dataBus.memRead(regs.getHL()) | 0x01));
+    }
 
-            // set 1,c
-            case 0xC9:
-                tStates += 8;
-                regs.C.setValue((byte) (regs.C.getValue() | 0x2));
-                break;
+    // set 0,a
+    private void opCB_C7() {
+        tStates += 8;
+        regs.setA((byte) (regs.getA() | 0x1));
+    }
 
-            // set 1,d
-            case 0xCA:
-                tStates += 8;
-                regs.D.setValue((byte) (regs.D.getValue() | 0x2));
-                break;
+    // set 1,b
+    private void opCB_C8() {
+        tStates += 8;
+        regs.setB((byte) (regs.getB() | 0x2));
+    }
 
-            // set 1,e
-            case 0xCB:
-                tStates += 8;
-                regs.E.setValue((byte) (regs.E.getValue() | 0x2));
-                break;
+    // set 1,c
+    private void opCB_C9() {
+        tStates += 8;
+        regs.setC((byte) (regs.getC() | 0x2));
+    }
 
-            // set 1,h
-            case 0xCC:
-                tStates += 8;
-                regs.H.setValue((byte) (regs.H.getValue() | 0x2));
-                break;
+    // set 1,d
+    private void opCB_CA() {
+        tStates += 8;
+        regs.setD((byte) (regs.getD() | 0x2));
+    }
 
-            // set 1,l
-            case 0xCD:
-                tStates += 8;
-                regs.L.setValue((byte) (regs.L.getValue() | 0x2));
-                break;
+    // set 1,e
+    private void opCB_CB() {
+        tStates += 8;
+        regs.setE((byte) (regs.getE() | 0x2));
+    }
 
-            // set 1,(hl)
-            case 0xCE:
-                tStates += 15;
-                dataBus.memWrite(regs.HL.getValue16(), (byte) (dataBus.memRead(regs.HL.getValue16()) | 0x02));
-                break;
+    // set 1,h
+    private void opCB_CC() {
+        tStates += 8;
+        regs.setH((byte) (regs.getH() | 0x2));
+    }
 
-            // set 1,a
-            case 0xCF:
-                tStates += 8;
-                regs.A.setValue((byte) (regs.A.getValue() | 0x2));
-                break;
+    // set 1,l
+    private void opCB_CD() {
+        tStates += 8;
+        regs.setL((byte) (regs.getL() | 0x2));
+    }
 
-            // set 2,b
-            case 0xD0:
-                tStates += 8;
-                regs.B.setValue((byte) (regs.B.getValue() | 0x4));
-                break;
+    // set 1,(hl)
+    private void opCB_CE() {
+        tStates += 15;
+        dataBus.memWrite(regs.getHL(), (byte) (dataBus.memRead(regs.getHL()) | 0x02));
+    }
 
-            // set 2,c
-            case 0xD1:
-                tStates += 8;
-                regs.C.setValue((byte) (regs.C.getValue() | 0x4));
-                break;
+    // set 1,a
+    private void opCB_CF() {
+        tStates += 8;
+        regs.setA((byte) (regs.getA() | 0x2));
+    }
 
-            // set 2,d
-            case 0xD2:
-                tStates += 8;
-                regs.D.setValue((byte) (regs.D.getValue() | 0x4));
-                break;
+    // set 2,b
+    private void opCB_D0() {
+        tStates += 8;
+        regs.setB((byte) (regs.getB() | 0x4));
+    }
 
-            // set 2,e
-            case 0xD3:
-                tStates += 8;
-                regs.E.setValue((byte) (regs.E.getValue() | 0x4));
-                break;
+    // set 2,c
+    private void opCB_D1() {
+        tStates += 8;
+        regs.setC((byte) (regs.getC() | 0x4));
+    }
 
-            // set 2,h
-            case 0xD4:
-                tStates += 8;
-                regs.H.setValue((byte) (regs.H.getValue() | 0x4));
-                break;
+    // set 2,d
+    private void opCB_D2() {
+        tStates += 8;
+        regs.setD((byte) (regs.getD() | 0x4));
+    }
 
-            // set 2,l
-            case 0xD5:
-                tStates += 8;
-                regs.L.setValue((byte) (regs.L.getValue() | 0x4));
-                break;
+    // set 2,e
+    private void opCB_D3() {
+        tStates += 8;
+        regs.setE((byte) (regs.getE() | 0x4));
+    }
 
-            // set 2,(hl)
-            case 0xD6:
-                tStates += 15;
-                dataBus.memWrite(regs.HL.getValue16(), (byte) (dataBus.memRead(regs.HL.getValue16()) | 0x04));
-                break;
+    // set 2,h
+    private void opCB_D4() {
+        tStates += 8;
+        regs.setH((byte) (regs.getH() | 0x4));
+    }
 
-            // set 2,a
-            case 0xD7:
-                tStates += 8;
-                regs.A.setValue((byte) (regs.A.getValue() | 0x4));
-                break;
+    // set 2,l
+    private void opCB_D5() {
+        tStates += 8;
+        regs.setL((byte) (regs.getL() | 0x4));
+    }
 
-            // set 3,b
-            case 0xD8:
-                tStates += 8;
-                regs.B.setValue((byte) (regs.B.getValue() | 0x8));
-                break;
+    // set 2,(hl)
+    private void opCB_D6() {
+        tStates += 15;
+        dataBus.memWrite(regs.getHL(), (byte) (dataBus.memRead(regs.getHL()) | 0x04));
+    }
 
-            // set 3,c
-            case 0xD9:
-                tStates += 8;
-                regs.C.setValue((byte) (regs.C.getValue() | 0x8));
-                break;
+    // set 2,a
+    private void opCB_D7() {
+        tStates += 8;
+        regs.setA((byte) (regs.getA() | 0x4));
+    }
 
-            // set 3,d
-            case 0xDA:
-                tStates += 8;
-                regs.D.setValue((byte) (regs.D.getValue() | 0x8));
-                break;
+    // set 3,b
+    private void opCB_D8() {
+        tStates += 8;
+        regs.setB((byte) (regs.getB() | 0x8));
+    }
 
-            // set 3,e
-            case 0xDB:
-                tStates += 8;
-                regs.E.setValue((byte) (regs.E.getValue() | 0x8));
-                break;
+    // set 3,c
+    private void opCB_D9() {
+        tStates += 8;
+        regs.setC((byte) (regs.getC() | 0x8));
+    }
 
-            // set 3,h
-            case 0xDC:
-                tStates += 8;
-                regs.H.setValue((byte) (regs.H.getValue() | 0x8));
-                break;
+    // set 3,d
+    private void opCB_DA() {
+        tStates += 8;
+        regs.setD((byte) (regs.getD() | 0x8));
+    }
 
-            // set 3,l
-            case 0xDD:
-                tStates += 8;
-                regs.L.setValue((byte) (regs.L.getValue() | 0x8));
-                break;
+    // set 3,e
+    private void opCB_DB() {
+        tStates += 8;
+        regs.setE((byte) (regs.getE() | 0x8));
+    }
 
-            // set 3,(hl)
-            case 0xDE:
-                tStates += 15;
-                dataBus.memWrite(regs.HL.getValue16(), (byte) (dataBus.memRead(regs.HL.getValue16()) | 0x08));
-                break;
+    // set 3,h
+    private void opCB_DC() {
+        tStates += 8;
+        regs.setH((byte) (regs.getH() | 0x8));
+    }
 
-            // set 3,a
-            case 0xDF:
-                tStates += 8;
-                regs.A.setValue((byte) (regs.A.getValue() | 0x8));
-                break;
+    // set 3,l
+    private void opCB_DD() {
+        tStates += 8;
+        regs.setL((byte) (regs.getL() | 0x8));
+    }
 
-            // set 4,b
-            case 0xE0:
-                tStates += 8;
-                regs.B.setValue((byte) (regs.B.getValue() | 0x10));
-                break;
+    // set 3,(hl)
+    private void opCB_DE() {
+        tStates += 15;
+        dataBus.memWrite(regs.getHL(), (byte) (dataBus.memRead(regs.getHL()) | 0x08));
+    }
 
-            // set 4,c
-            case 0xE1:
-                tStates += 8;
-                regs.C.setValue((byte) (regs.C.getValue() | 0x10));
-                break;
+    // set 3,a
+    private void opCB_DF() {
+        tStates += 8;
+        regs.setA((byte) (regs.getA() | 0x8));
+    }
 
-            // set 4,d
-            case 0xE2:
-                tStates += 8;
-                regs.D.setValue((byte) (regs.D.getValue() | 0x10));
-                break;
+    // set 4,b
+    private void opCB_E0() {
+        tStates += 8;
+        regs.setB((byte) (regs.getB() | 0x10));
+    }
 
-            // set 4,e
-            case 0xE3:
-                tStates += 8;
-                regs.E.setValue((byte) (regs.E.getValue() | 0x10));
-                break;
+    // set 4,c
+    private void opCB_E1() {
+        tStates += 8;
+        regs.setC((byte) (regs.getC() | 0x10));
+    }
 
-            // set 4,h
-            case 0xE4:
-                tStates += 8;
-                regs.H.setValue((byte) (regs.H.getValue() | 0x10));
-                break;
+    // set 4,d
+    private void opCB_E2() {
+        tStates += 8;
+        regs.setD((byte) (regs.getD() | 0x10));
+    }
 
-            // set 4,l
-            case 0xE5:
-                tStates += 8;
-                regs.L.setValue((byte) (regs.L.getValue() | 0x10));
-                break;
+    // set 4,e
+    private void opCB_E3() {
+        tStates += 8;
+        regs.setE((byte) (regs.getE() | 0x10));
+    }
 
-            // set 4,(hl)
-            case 0xE6:
-                tStates += 15;
-                dataBus.memWrite(regs.HL.getValue16(), (byte) (dataBus.memRead(regs.HL.getValue16()) | 0x10));
-                break;
+    // set 4,h
+    private void opCB_E4() {
+        tStates += 8;
+        regs.setH((byte) (regs.getH() | 0x10));
+    }
 
-            // set 4,a
-            case 0xE7:
-                tStates += 8;
-                regs.A.setValue((byte) (regs.A.getValue() | 0x10));
-                break;
+    // set 4,l
+    private void opCB_E5() {
+        tStates += 8;
+        regs.setL((byte) (regs.getL() | 0x10));
+    }
 
-            // set 5,b
-            case 0xE8:
-                tStates += 8;
-                regs.B.setValue((byte) (regs.B.getValue() | 0x20));
-                break;
+    // set 4,(hl)
+    private void opCB_E6() {
+        tStates += 15;
+        dataBus.memWrite(regs.getHL(), (byte) (dataBus.memRead(regs.getHL()) | 0x10));
+    }
 
-            // set 5,c
-            case 0xE9:
-                tStates += 8;
-                regs.C.setValue((byte) (regs.C.getValue() | 0x20));
-                break;
+    // set 4,a
+    private void opCB_E7() {
+        tStates += 8;
+        regs.setA((byte) (regs.getA() | 0x10));
+    }
 
-            // set 5,d
-            case 0xEA:
-                tStates += 8;
-                regs.D.setValue((byte) (regs.D.getValue() | 0x20));
-                break;
+    // set 5,b
+    private void opCB_E8() {
+        tStates += 8;
+        regs.setB((byte) (regs.getB() | 0x20));
+    }
 
-            // set 5,e
-            case 0xEB:
-                tStates += 8;
-                regs.E.setValue((byte) (regs.E.getValue() | 0x20));
-                break;
+    // set 5,c
+    private void opCB_E9() {
+        tStates += 8;
+        regs.setC((byte) (regs.getC() | 0x20));
+    }
 
-            // set 5,h
-            case 0xEC:
-                tStates += 8;
-                regs.H.setValue((byte) (regs.H.getValue() | 0x20));
-                break;
+    // set 5,d
+    private void opCB_EA() {
+        tStates += 8;
+        regs.setD((byte) (regs.getD() | 0x20));
+    }
 
-            // set 5,l
-            case 0xED:
-                tStates += 8;
-                regs.L.setValue((byte) (regs.L.getValue() | 0x20));
-                break;
+    // set 5,e
+    private void opCB_EB() {
+        tStates += 8;
+        regs.setE((byte) (regs.getE() | 0x20));
+    }
 
-            // set 5,(hl)
-            case 0xEE:
-                tStates += 15;
-                dataBus.memWrite(regs.HL.getValue16(), (byte) (dataBus.memRead(regs.HL.getValue16()) | 0x20));
-                break;
+    // set 5,h
+    private void opCB_EC() {
+        tStates += 8;
+        regs.setH((byte) (regs.getH() | 0x20));
+    }
 
-            // set 5,a
-            case 0xEF:
-                tStates += 8;
-                regs.A.setValue((byte) (regs.A.getValue() | 0x20));
-                break;
+    // set 5,l
+    private void opCB_ED() {
+        tStates += 8;
+        regs.setL((byte) (regs.getL() | 0x20));
+    }
 
-            // set 6,b
-            case 0xF0:
-                tStates += 8;
-                regs.B.setValue((byte) (regs.B.getValue() | 0x40));
-                break;
+    // set 5,(hl)
+    private void opCB_EE() {
+        tStates += 15;
+        dataBus.memWrite(regs.getHL(), (byte) (dataBus.memRead(regs.getHL()) | 0x20));
+    }
 
-            // set 6,c
-            case 0xF1:
-                tStates += 8;
-                regs.C.setValue((byte) (regs.C.getValue() | 0x40));
-                break;
+    // set 5,a
+    private void opCB_EF() {
+        tStates += 8;
+        regs.setA((byte) (regs.getA() | 0x20));
+    }
 
-            // set 6,d
-            case 0xF2:
-                tStates += 8;
-                regs.D.setValue((byte) (regs.D.getValue() | 0x40));
-                break;
+    // set 6,b
+    private void opCB_F0() {
+        tStates += 8;
+        regs.setB((byte) (regs.getB() | 0x40));
+    }
 
-            // set 6,e
-            case 0xF3:
-                tStates += 8;
-                regs.E.setValue((byte) (regs.E.getValue() | 0x40));
-                break;
+    // set 6,c
+    private void opCB_F1() {
+        tStates += 8;
+        regs.setC((byte) (regs.getC() | 0x40));
+    }
 
-            // set 6,h
-            case 0xF4:
-                tStates += 8;
-                regs.H.setValue((byte) (regs.H.getValue() | 0x40));
-                break;
+    // set 6,d
+    private void opCB_F2() {
+        tStates += 8;
+        regs.setD((byte) (regs.getD() | 0x40));
+    }
 
-            // set 6,l
-            case 0xF5:
-                tStates += 8;
-                regs.L.setValue((byte) (regs.L.getValue() | 0x40));
-                break;
+    // set 6,e
+    private void opCB_F3() {
+        tStates += 8;
+        regs.setE((byte) (regs.getE() | 0x40));
+    }
 
-            // set 6,(hl)
-            case 0xF6:
-                tStates += 15;
-                dataBus.memWrite(regs.HL.getValue16(), (byte) (dataBus.memRead(regs.HL.getValue16()) | 0x40));
-                break;
+    // set 6,h
+    private void opCB_F4() {
+        tStates += 8;
+        regs.setH((byte) (regs.getH() | 0x40));
+    }
 
-            // set 6,a
-            case 0xF7:
-                tStates += 8;
-                regs.A.setValue((byte) (regs.A.getValue() | 0x40));
-                break;
+    // set 6,l
+    private void opCB_F5() {
+        tStates += 8;
+        regs.setL((byte) (regs.getL() | 0x40));
+    }
 
-            // set 7,b
-            case 0xF8:
-                tStates += 8;
-                regs.B.setValue((byte) (regs.B.getValue() | 0x80));
-                break;
+    // set 6,(hl)
+    private void opCB_F6() {
+        tStates += 15;
+        dataBus.memWrite(regs.getHL(), (byte) (dataBus.memRead(regs.getHL()) | 0x40));
+    }
 
-            // set 7,c
-            case 0xF9:
-                tStates += 8;
-                regs.C.setValue((byte) (regs.C.getValue() | 0x80));
-                break;
+    // set 6,a
+    private void opCB_F7() {
+        tStates += 8;
+        regs.setA((byte) (regs.getA() | 0x40));
+    }
 
-            // set 7,d
-            case 0xFA:
-                tStates += 8;
-                regs.D.setValue((byte) (regs.D.getValue() | 0x80));
-                break;
+    // set 7,b
+    private void opCB_F8() {
+        tStates += 8;
+        regs.setB((byte) (regs.getB() | 0x80));
+    }
 
-            // set 7,e
-            case 0xFB:
-                tStates += 8;
-                regs.E.setValue((byte) (regs.E.getValue() | 0x80));
-                break;
+    // set 7,c
+    private void opCB_F9() {
+        tStates += 8;
+        regs.setC((byte) (regs.getC() | 0x80));
+    }
 
-            // set 7,h
-            case 0xFC:
-                tStates += 8;
-                regs.H.setValue((byte) (regs.H.getValue() | 0x80));
-                break;
+    // set 7,d
+    private void opCB_FA() {
+        tStates += 8;
+        regs.setD((byte) (regs.getD() | 0x80));
+    }
 
-            // set 7,l
-            case 0xFD:
-                tStates += 8;
-                regs.L.setValue((byte) (regs.L.getValue() | 0x80));
-                break;
+    // set 7,e
+    private void opCB_FB() {
+        tStates += 8;
+        regs.setE((byte) (regs.getE() | 0x80));
+    }
 
-            // set 7,(hl)
-            case 0xFE:
-                tStates += 15;
-                dataBus.memWrite(regs.HL.getValue16(), (byte) (dataBus.memRead(regs.HL.getValue16()) | 0x80));
-                break;
+    // set 7,h
+    private void opCB_FC() {
+        tStates += 8;
+        regs.setH((byte) (regs.getH() | 0x80));
+    }
 
-            // set 7,a
-            case 0xFF:
-                tStates += 8;
-                regs.A.setValue((byte) (regs.A.getValue() | 0x80));
-                break;
+    // set 7,l
+    private void opCB_FD() {
+        tStates += 8;
+        regs.setL((byte) (regs.getL() | 0x80));
+    }
 
-        }
+    // set 7,(hl)
+    private void opCB_FE() {
+        tStates += 15;
+        dataBus.memWrite(regs.getHL(), (byte) (dataBus.memRead(regs.getHL()) | 0x80));
+    }
 
+    // set 7,a
+    private void opCB_FF() {
+        tStates += 8;
+        regs.setA((byte) (regs.getA() | 0x80));
     }
 
     /////////////////////////////////////////////////////////////////////////
@@ -3571,603 +4061,721 @@ public class Z80 {
         // Increment instruction counter register
         REFRESH_CYCLE();
 
-        switch (op & 0xFF) {
+        execOpcodeED(op & 0xFF);
+    }
 
-            // in b,(c)
-            case 0x40:
-                tStates += 12;
-                IN8(regs.B, regs.BC.getValue16());
-                break;
-
-            // out (c),b
-            case 0x41:
-                tStates += 12;
-                dataBus.ioWrite(regs.BC.getValue16(), (byte) regs.B.getValue());
-                regs.setWZ((short) (regs.BC.getValue16() + 1));
-
-                break;
+    // Ejecución de un opcode con prefijo ED
+    void execOpcodeED(int op) {
+        switch (op) {
+            case 0x40: opED_40(); break; // in b,(c)
+            case 0x41: opED_41(); break; // out (c),b
+            case 0x42: opED_42(); break; // sbc hl,bc
+            case 0x43: opED_43(); break; // ld (NN),bc
+            case 0x44:
+            case 0x4c:
+            case 0x54:
+            case 0x5c:
+            case 0x64:
+            case 0x6c:
+            case 0x74:
+            case 0x7c: opED_44(); break; // neg
+            case 0x45: opED_45(); break; // retn
+            case 0x55:
+            case 0x5d:
+            case 0x65:
+            case 0x6d:
+            case 0x75:
+            case 0x7d: opED_55(); break;
+            case 0x46:
+            case 0x4e:
+            case 0x66:
+            case 0x6e: opED_46(); break; // im 0
+            case 0x47: opED_47(); break; // ld i,a
+            case 0x48: opED_48(); break; // in c,(c)
+            case 0x49: opED_49(); break; // out (c),c
+            case 0x4A: opED_4A(); break; // adc hl,bc
+            case 0x4B: opED_4B(); break; // ld bc,(NN)
+            case 0x4D: opED_4D(); break; // reti
+            case 0x4F: opED_4F(); break; // ld r,a
+            case 0x50: opED_50(); break; // in d,(c)
+            case 0x51: opED_51(); break; // out (c),d
+            case 0x52: opED_52(); break; // sbc hl,de
+            case 0x53: opED_53(); break; // ld (NN),de
+            case 0x56:
+            case 0x76: opED_56(); break; // im 1
+            case 0x57: opED_57(); break; // ld a,i
+            case 0x58: opED_58(); break; // in e,(c)
+            case 0x59: opED_59(); break; // out (c),e
+            case 0x5A: opED_5A(); break; // adc hl,de
+            case 0x5B: opED_5B(); break; // ld de,(NN)
+            case 0x5E:
+            case 0x7e: opED_5E(); break; // im 2
+            case 0x5F: opED_5F(); break; // ld a,r
+            case 0x60: opED_60(); break; // in h,(c)
+            case 0x61: opED_61(); break; // out (c),h
+            case 0x62: opED_62(); break; // sbc hl,hl
+            case 0x63: opED_63(); break; // ld (nn),hl
+            case 0x67: opED_67(); break; // rrd
+            case 0x68: opED_68(); break; // in l,(c)
+            case 0x69: opED_69(); break; // out (c),l
+            case 0x6A: opED_6A(); break; // adc hl,hl
+            case 0x6B: opED_6B(); break; // ld hl,(NN)
+            case 0x6F: opED_6F(); break; // rld
+            case 0x70: opED_70(); break; // in f,(c) in (c)
+            case 0x71: opED_71(); break; // out (c),0
+            case 0x72: opED_72(); break; // sbc hl,sp
+            case 0x73: opED_73(); break; // ld (NN),sp
+            case 0x77:
+            case 0x7f: opED_77(); break; // undocumented nop's
+            case 0x78: opED_78(); break; // in a,(c)
+            case 0x79: opED_79(); break; // out (c),a
+            case 0x7A: opED_7A(); break; // adc hl,sp
+            case 0x7B: opED_7B(); break; // ld sp,(NN)
+            case 0xA0: opED_A0(); break; // ldi
+            case 0xA1: opED_A1(); break; // cpi
+            case 0xA2: opED_A2(); break; // ini
+            case 0xA3: opED_A3(); break; // outi
+            case 0xA8: opED_A8(); break; // ldd
+            case 0xA9: opED_A9(); break; // cpd
+            case 0xAA: opED_AA(); break; // ind
+            case 0xAB: opED_AB(); break; // outd
+            case 0xB0: opED_B0(); break; // ldir
+            case 0xB1: opED_B1(); break; // cpir
+            case 0xB2: opED_B2(); break; // inir
+            case 0xB3: opED_B3(); break; // otir
+            case 0xB8: opED_B8(); break; // lddr
+            case 0xB9: opED_B9(); break; // cpdr
+            case 0xBA: opED_BA(); break; // indr
+            case 0xBB: opED_BB(); break; // otdr
+            case 0xFB: opED_FB(); break;
+            case 0xFC: opED_FC(); break;
+            case 0xFD: opED_FD(); break;
 
-            // sbc hl,bc
-            case 0x42:
-                tStates += 15;
-                alu.SBC_R16(regs.BC.getValue16());
+            default:
+                tStates += 8;
                 break;
+        }
+    }
 
-            // ld (NN),bc
-            case 0x43:
-                tStates += 20;
-                write16(read16(regs.getPC()), regs.BC.getValue16());
-                regs.setWZ((short) (read16(regs.getPC()) + 1));
-                regs.setPC((short) (regs.getPC() + 2));
-                break;
+    /////////////////////////////////////////////////////////////////////////
+    // Instrucciones con prefijo ED
 
-            // neg
-            case 0x44:
-            case 0x4c: // undocumented
-            case 0x54: // undocumented
-            case 0x5c: // undocumented
-            case 0x64: // undocumented
-            case 0x6c: // undocumented
-            case 0x74: // undocumented
-            case 0x7c: // undocumented
-                tStates += 8; {
-                byte val = (byte) regs.A.getValue();
-                regs.A.setValue((byte) 0);
-                alu.SUB_R8(val);
-            }
-                break;
+    // in b,(c)
+    private void opED_40() {
+        tStates += 12;
+        regs.setB(IN8(regs.getBC()));
+    }
 
-            // retn
-            case 0x45:
-                tStates += 14;
-                regs.setiff1A(regs.getiff1B());
-                regs.setPC((short) pop16());
-                regs.setWZ(regs.getPC());
-                // z80_retn(); //Esto es un enlace para los dispositivos que hayan lanzado un
-                // NMI, no aplica salvo que 'conectemos' un dispositivo (¿ULA?)
-                break;
+    // out (c),b
+    private void opED_41() {
+        tStates += 12;
+        dataBus.ioWrite(regs.getBC(), (byte) regs.getB());
+        regs.setWZ((short) (regs.getBC() + 1));
+    }
 
-            case 0x55: // undocumented
-            case 0x5d: // undocumented
-            case 0x65: // undocumented
-            case 0x6d: // undocumented
-            case 0x75: // undocumented
-            case 0x7d: // undocumented
-                tStates += 14;
-                regs.setPC((short) pop16());
-                regs.setWZ(regs.getPC());
-                regs.setiff1A(regs.getiff1B());
-                break;
+    // sbc hl,bc
+    private void opED_42() {
+        tStates += 15;
+        alu.SBC_R16(regs.getBC());
+    }
 
-            // im 0
-            case 0x46:
-            case 0x4e: // undocumented
-            case 0x66: // undocumented
-            case 0x6e: // undocumented
-                tStates += 8;
-                regs.setIM((byte) 0);
-                break;
+    // ld (NN),bc
+    private void opED_43() {
+        tStates += 20;
+        regs.setWZ(read16(regs.getPC()));
+        write16(regs.getWZ(), regs.getBC());
+        regs.setWZ((short) (regs.getWZ() + 1));
+        regs.setPC((short) (regs.getPC() + 2));
+    }
 
-            // ld i,a
-            case 0x47:
-                tStates += 9;
-                regs.I.setValue((byte) regs.A.getValue());
-                break;
+    // neg
+    private void opED_44() {
+        tStates += 8;
+        byte val = (byte) regs.getA();
+        regs.setA((byte) 0);
+        alu.SUB_R8(val);
+    }
 
-            // in c,(c)
-            case 0x48:
-                tStates += 12;
-                IN8(regs.C, regs.BC.getValue16());
-                break;
+    // retn
+    private void opED_45() {
+        tStates += 14;
+        regs.setiff1A(regs.getiff1B());
+        regs.setPC((short) pop16());
+        regs.setWZ(regs.getPC());
+        // z80_retn(); //Esto es un enlace para los dispositivos que hayan lanzado un
+        // NMI, no aplica salvo que 'conectemos' un dispositivo (¿ULA?)
+    }
 
-            // out (c),c
-            case 0x49:
-                tStates += 12;
-                dataBus.ioWrite(regs.BC.getValue16(), (byte) regs.C.getValue());
-                regs.setWZ((short) (regs.BC.getValue16() + 1));
+    private void opED_55() {
+        tStates += 14;
+        regs.setPC((short) pop16());
+        regs.setWZ(regs.getPC());
+        regs.setiff1A(regs.getiff1B());
+    }
 
-                break;
+    // im 0
+    private void opED_46() {
+        tStates += 8;
+        regs.setIM((byte) 0);
+    }
 
-            // adc hl,bc
-            case 0x4A:
-                tStates += 15;
-                alu.ADC_R16(regs.BC.getValue16());
-                break;
+    // ld i,a
+    private void opED_47() {
+        tStates += 9;
+        regs.setI((byte) regs.getA());
+    }
 
-            // ld bc,(NN)
-            case 0x4B:
-                tStates += 20;
-                regs.BC.setValue(read16(read16(regs.getPC())));
-                regs.setWZ((short) (read16(regs.getPC()) + 1));
-                regs.setPC((short) (regs.getPC() + 2));
-                break;
+    // in c,(c)
+    private void opED_48() {
+        tStates += 12;
+        regs.setC(IN8(regs.getBC()));
+    }
 
-            // reti
-            case 0x4D:
-                tStates += 14;
-                regs.setPC((short) pop16());
-                regs.setWZ(regs.getPC());
-                break;
+    // out (c),c
+    private void opED_49() {
+        tStates += 12;
+        dataBus.ioWrite(regs.getBC(), (byte) regs.getC());
+        regs.setWZ((short) (regs.getBC() + 1));
+    }
 
-            // ld r,a
-            case 0x4F:
-                tStates += 9;
-                regs.R.setValue((byte) regs.A.getValue());
-                break;
+    // adc hl,bc
+    private void opED_4A() {
+        tStates += 15;
+        alu.ADC_R16(regs.getBC());
+    }
 
-            // in d,(c)
-            case 0x50:
-                tStates += 12;
-                IN8(regs.D, regs.BC.getValue16());
-                break;
+    // ld bc,(NN)
+    private void opED_4B() {
+        tStates += 20;
+        regs.setBC(read16(read16(regs.getPC())));
+        regs.setWZ((short) (read16(regs.getPC()) + 1));
+        regs.setPC((short) (regs.getPC() + 2));
+    }
 
-            // out (c),d
-            case 0x51:
-                tStates += 12;
-                dataBus.ioWrite(regs.BC.getValue16(), (byte) regs.D.getValue());
-                regs.setWZ((short) (regs.BC.getValue16() + 1));
+    // reti
+    private void opED_4D() {
+        tStates += 14;
+        regs.setPC((short) pop16());
+        regs.setWZ(regs.getPC());
+    }
 
-                break;
+    // ld r,a
+    private void opED_4F() {
+        tStates += 9;
+        regs.setR((byte) regs.getA());
+    }
 
-            // sbc hl,de
-            case 0x52:
-                tStates += 15;
-                alu.SBC_R16(regs.DE.getValue16());
-                break;
+    // in d,(c)
+    private void opED_50() {
+        tStates += 12;
+        regs.setD(IN8(regs.getBC()));
+    }
 
-            // ld (NN),de
-            case 0x53:
-                tStates += 20;
-                write16(read16(regs.getPC()), regs.DE.getValue16());
-                regs.setWZ((short) (read16(regs.getPC()) + 1));
-                regs.setPC((short) (regs.getPC() + 2));
-                break;
+    // out (c),d
+    private void opED_51() {
+        tStates += 12;
+        dataBus.ioWrite(regs.getBC(), (byte) regs.getD());
+        regs.setWZ((short) (regs.getBC() + 1));
+    }
 
-            // im 1
-            case 0x56:
-            case 0x76: // undocumented
-                tStates += 8;
-                regs.setIM((byte) 1);
-                break;
+    // sbc hl,de
+    private void opED_52() {
+        tStates += 15;
+        alu.SBC_R16(regs.getDE());
+    }
 
-            // ld a,i
-            case 0x57:
-                tStates += 9;
-                regs.A.setValue((byte) regs.I.getValue());
-                regs.setSF((regs.A.getValue() & 0x80) != 0);
-                regs.setZF(regs.A.getValue() == 0);
-                regs.setHF(false);
-                regs.setNF(false);
-                regs.setPF(regs.getiff1B());
-                regs.setF3((regs.A.getValue() & 0x08) != 0);
-                regs.setF5((regs.A.getValue() & 0x20) != 0);
-                break;
+    // ld (NN),de
+    private void opED_53() {
+        tStates += 20;
+        regs.setWZ(read16(regs.getPC()));
+        write16(regs.getWZ(), regs.getDE());
+        regs.setWZ((short) (regs.getWZ() + 1));
+        regs.setPC((short) (regs.getPC() + 2));
+    }
 
-            // in e,(c)
-            case 0x58:
-                tStates += 12;
-                IN8(regs.E, regs.BC.getValue16());
-                break;
+    // im 1
+    private void opED_56() {
+        tStates += 8;
+        regs.setIM((byte) 1);
+    }
 
-            // out (c),e
-            case 0x59:
-                tStates += 12;
-                dataBus.ioWrite(regs.BC.getValue16(), (byte) regs.E.getValue());
-                regs.setWZ((short) (regs.BC.getValue16() + 1));
+    // ld a,i
+    private void opED_57() {
+        tStates += 9;
+        regs.setA((byte) regs.getI());
+        regs.setSF((regs.getA() & 0x80) != 0);
+        regs.setZF(regs.getA() == 0);
+        regs.setHF(false);
+        regs.setNF(false);
+        regs.setPF(regs.getiff1B());
+        regs.setF3((regs.getA() & 0x08) != 0);
+        regs.setF5((regs.getA() & 0x20) != 0);
+    }
 
-                break;
+    // in e,(c)
+    private void opED_58() {
+        tStates += 12;
+        regs.setE(IN8(regs.getBC()));
+    }
 
-            // adc hl,de
-            case 0x5A:
-                tStates += 15;
-                alu.ADC_R16(regs.DE.getValue16());
-                break;
+    // out (c),e
+    private void opED_59() {
+        tStates += 12;
+        dataBus.ioWrite(regs.getBC(), (byte) regs.getE());
+        regs.setWZ((short) (regs.getBC() + 1));
+    }
 
-            // ld de,(NN)
-            case 0x5B:
-                tStates += 20;
-                regs.DE.setValue(read16(read16(regs.getPC())));
-                regs.setWZ((short) (read16(regs.getPC()) + 1));
-                regs.setPC((short) (regs.getPC() + 2));
-                break;
+    // adc hl,de
+    private void opED_5A() {
+        tStates += 15;
+        alu.ADC_R16(regs.getDE());
+    }
 
-            // im 2
-            case 0x5E:
-            case 0x7e: // undocumented
-                tStates += 8;
-                regs.setIM((byte) 2);
-                break;
+    // ld de,(NN)
+    private void opED_5B() {
+        tStates += 20;
+        regs.setDE(read16(read16(regs.getPC())));
+        regs.setWZ((short) (read16(regs.getPC()) + 1));
+        regs.setPC((short) (regs.getPC() + 2));
+    }
 
-            // ld a,r
-            case 0x5F:
-                tStates += 9;
-                regs.A.setValue((byte) regs.R.getValue());
-                regs.setSF((regs.A.getValue() & 0x80) != 0);
-                regs.setZF(regs.A.getValue() == 0);
-                regs.setHF(false);
-                regs.setNF(false);
-                regs.setPF(regs.getiff1B());
-                // quizas no aplica
-                regs.setF3((regs.A.getValue() & 0x08) != 0);
-                regs.setF5((regs.A.getValue() & 0x20) != 0);
-                break;
+    // im 2
+    private void opED_5E() {
+        tStates += 8;
+        regs.setIM((byte) 2);
+    }
 
-            // in h,(c)
-            case 0x60:
-                tStates += 12;
-                IN8(regs.H, regs.BC.getValue16());
-                break;
+    // ld a,r
+    private void opED_5F() {
+        tStates += 9;
+        regs.setA((byte) regs.getR());
+        regs.setSF((regs.getA() & 0x80) != 0);
+        regs.setZF(regs.getA() == 0);
+        regs.setHF(false);
+        regs.setNF(false);
+        regs.setPF(regs.getiff1B());
+        // quizas no aplica
+        regs.setF3((regs.getA() & 0x08) != 0);
+        regs.setF5((regs.getA() & 0x20) != 0);
+    }
 
-            // out (c),h
-            case 0x61:
-                tStates += 12;
-                dataBus.ioWrite(regs.BC.getValue16(), (byte) regs.H.getValue());
-                regs.setWZ((short) (regs.BC.getValue16() + 1));
+    // in h,(c)
+    private void opED_60() {
+        tStates += 12;
+        regs.setH(IN8(regs.getBC()));
+    }
 
-                break;
+    // out (c),h
+    private void opED_61() {
+        tStates += 12;
+        dataBus.ioWrite(regs.getBC(), (byte) regs.getH());
+        regs.setWZ((short) (regs.getBC() + 1));
+    }
 
-            // sbc hl,hl
-            case 0x62:
-                tStates += 15;
-                alu.SBC_R16(regs.HL.getValue16());
-                break;
+    // sbc hl,hl
+    private void opED_62() {
+        tStates += 15;
+        alu.SBC_R16(regs.getHL());
+    }
 
-            // ld (nn),hl
-            case 0x63:
-                tStates += 20;
-                write16(read16(regs.getPC()), regs.HL.getValue16());
-                regs.setWZ((short) (read16(regs.getPC()) + 1));
-                regs.setPC((short) (regs.getPC() + 2));
-                break;
+    // ld (nn),hl
+    private void opED_63() {
+        tStates += 20;
+        regs.setWZ(read16(regs.getPC()));
+        write16(regs.getWZ(), regs.getHL());
+        regs.setWZ((short) (regs.getWZ() + 1));
+        regs.setPC((short) (regs.getPC() + 2));
+    }
 
-            // rrd
-            case 0x67:
-                tStates += 18; {
-                byte val = dataBus.memRead(regs.HL.getValue16());
-                dataBus.memWrite(regs.HL.getValue16(),
-                        (byte) ((byte) ((val >> 4) & 0x0f) | (byte) ((regs.A.getValue() << 4) & 0xF0)));
-
-                regs.A.setValue((byte) (regs.A.getValue() & 0xF0));
-                regs.A.setValue((byte) (regs.A.getValue() | (val & 0x0F)));
-                regs.setSF((regs.A.getValue() & 0x80) != 0);
-                regs.setZF(regs.A.getValue() == 0);
-                regs.setHF(false);
-                regs.setNF(false);
-                regs.setPF(parityTable[regs.A.getValue() & 0xFF]);
-                regs.setF3((regs.A.getValue() & 0x008) != 0);
-                regs.setF5((regs.A.getValue() & 0x020) != 0);
-                regs.setWZ((short) (regs.HL.getValue16() + 1));
-            }
-                break;
+    // rrd
+    private void opED_67() {
+        tStates += 18;
+        byte val = dataBus.memRead(regs.getHL());
+        dataBus.memWrite(regs.getHL(),
+                (byte) ((byte) ((val >> 4) & 0x0f) | (byte) ((regs.getA() << 4) & 0xF0)));
+
+        regs.setA((byte) (regs.getA() & 0xF0));
+        regs.setA((byte) (regs.getA() | (val & 0x0F)));
+        regs.setSF((regs.getA() & 0x80) != 0);
+        regs.setZF(regs.getA() == 0);
+        regs.setHF(false);
+        regs.setNF(false);
+        regs.setPF(parityTable[regs.getA() & 0xFF]);
+        regs.setF3((regs.getA() & 0x008) != 0);
+        regs.setF5((regs.getA() & 0x020) != 0);
+        regs.setWZ((short) (regs.getHL() + 1));
+    }
 
-            // in l,(c)
-            case 0x68:
-                tStates += 12;
-                IN8(regs.L, regs.BC.getValue16());
-                break;
+    // in l,(c)
+    private void opED_68() {
+        tStates += 12;
+        regs.setL(IN8(regs.getBC()));
+    }
 
-            // out (c),l
-            case 0x69:
-                tStates += 12;
-                dataBus.ioWrite(regs.BC.getValue16(), (byte) regs.L.getValue());
-                regs.setWZ((short) (regs.BC.getValue16() + 1));
+    // out (c),l
+    private void opED_69() {
+        tStates += 12;
+        dataBus.ioWrite(regs.getBC(), (byte) regs.getL());
+        regs.setWZ((short) (regs.getBC() + 1));
+    }
 
-                break;
+    // adc hl,hl
+    private void opED_6A() {
+        tStates += 15;
+        alu.ADC_R16(regs.getHL());
+    }
 
-            // adc hl,hl
-            case 0x6A:
-                tStates += 15;
-                alu.ADC_R16(regs.HL.getValue16());
-                break;
+    // ld hl,(NN)
+    private void opED_6B() {
+        tStates += 20;
+        regs.setHL(read16(read16(regs.getPC())));
+        regs.setWZ((short) (read16(regs.getPC()) + 1));
+        regs.setPC((short) (regs.getPC() + 2));
+    }
 
-            // ld hl,(NN)
-            case 0x6B:
-                tStates += 20;
-                regs.HL.setValue(read16(read16(regs.getPC())));
-                regs.setWZ((short) (read16(regs.getPC()) + 1));
-                regs.setPC((short) (regs.getPC() + 2));
-                break;
+    // rld
+    private void opED_6F() {
+        tStates += 18;
+        byte aux = dataBus.memRead(regs.getHL());
+        dataBus.memWrite(regs.getHL(),
+                (byte) ((byte) ((aux << 4) & 0xF0) | (byte) ((byte) regs.getA() & 0x0F)));
+        regs.setA((byte) (regs.getA() & 0xF0));
+        regs.setA((byte) (regs.getA() | ((aux >> 4) & 0x0f)));
+        regs.setSF((regs.getA() & 0x80) != 0);
+        regs.setZF(regs.getA() == 0);
+        regs.setHF(false);
+        regs.setNF(false);
+        regs.setPF(parityTable[regs.getA() & 0xFF]);
+        regs.setF3((regs.getA() & 0x008) != 0);
+        regs.setF5((regs.getA() & 0x020) != 0);
+        regs.setWZ((short) (regs.getHL() + 1));
+    }
 
-            // rld
-            case 0x6F:
-                tStates += 18; {
-                byte aux = dataBus.memRead(regs.HL.getValue16());
-                dataBus.memWrite(regs.HL.getValue16(),
-                        (byte) ((byte) ((aux << 4) & 0xF0) | (byte) ((byte) regs.A.getValue() & 0x0F)));
-                regs.A.setValue((byte) (regs.A.getValue() & 0xF0));
-                regs.A.setValue((byte) (regs.A.getValue() | ((aux >> 4) & 0x0f)));
-                regs.setSF((regs.A.getValue() & 0x80) != 0);
-                regs.setZF(regs.A.getValue() == 0);
-                regs.setHF(false);
-                regs.setNF(false);
-                regs.setPF(parityTable[regs.A.getValue() & 0xFF]);
-                regs.setF3((regs.A.getValue() & 0x008) != 0);
-                regs.setF5((regs.A.getValue() & 0x020) != 0);
-                regs.setWZ((short) (regs.HL.getValue16() + 1));
-            }
-                break;
+    // in f,(c)
+    // in (c)
+    private void opED_70() {
+        tStates += 12;
+        regs.setWZ((short) (regs.getBC() + 1));
+        byte val = dataBus.ioRead(regs.getBC());
+        regs.setSF((val & 0x80) != 0);
+        regs.setZF(val == 0);
+        regs.setHF(false);
+        regs.setPF(parityTable[val & 0xFF]);
+        regs.setNF(false);
+        regs.setF3((val & 0x08) != 0);
+        regs.setF5((val & 0x20) != 0);
+    }
 
-            // in f,(c)
-            // in (c)
-            case 0x70:
-                tStates += 12; {
-                regs.setWZ((short) (regs.BC.getValue16() + 1));
-                byte val = dataBus.ioRead(regs.BC.getValue16());
-                regs.setSF((val & 0x80) != 0);
-                regs.setZF(val == 0);
-                regs.setHF(false);
-                regs.setPF(parityTable[val & 0xFF]);
-                regs.setNF(false);
-                regs.setF3((val & 0x08) != 0);
-                regs.setF5((val & 0x20) != 0);
-            }
-                break;
+    // out (c),0
+    private void opED_71() {
+        tStates += 12;
+        dataBus.ioWrite(regs.getBC(), (byte) 0);
+        regs.setWZ((short) (regs.getBC() + 1));
+    }
 
-            // out (c),0
-            case 0x71:
-                tStates += 12;
-                dataBus.ioWrite(regs.BC.getValue16(), (byte) 0);
-                regs.setWZ((short) (regs.BC.getValue16() + 1));
-                break;
+    // sbc hl,sp
+    private void opED_72() {
+        tStates += 15;
+        alu.SBC_R16(regs.getSP());
+    }
 
-            // sbc hl,sp
-            case 0x72:
-                tStates += 15;
-                alu.SBC_R16(regs.getSP());
-                break;
+    // ld (NN),sp
+    private void opED_73() {
+        tStates += 20;
+        regs.setWZ(read16(regs.getPC()));
+        write16(regs.getWZ(), regs.getSP());
+        regs.setWZ((short) (regs.getWZ() + 1));
+        regs.setPC((short) (regs.getPC() + 2));
+    }
 
-            // ld (NN),sp
-            case 0x73:
-                tStates += 20;
-                write16(read16(regs.getPC()), regs.getSP());
-                regs.setWZ((short) (read16(regs.getPC()) + 1));
-                regs.setPC((short) (regs.getPC() + 2));
-                break;
+    // undocumented nop's
+    private void opED_77() {
+        tStates += 8;
+    }
 
-            // undocumented nop's
-            case 0x77:
-            case 0x7f:
-                tStates += 8;
-                break;
+    // in a,(c)
+    private void opED_78() {
+        tStates += 12;
+        regs.setA(IN8(regs.getBC()));
+    }
 
-            // in a,(c)
-            case 0x78:
-                tStates += 12;
-                IN8(regs.A, regs.BC.getValue16());
-                break;
+    // out (c),a
+    private void opED_79() {
+        tStates += 12;
+        dataBus.ioWrite(regs.getBC(), (byte) regs.getA());
+        regs.setWZ((short) (regs.getBC() + 1));
+    }
 
-            // out (c),a
-            case 0x79:
-                tStates += 12;
-                dataBus.ioWrite(regs.BC.getValue16(), (byte) regs.A.getValue());
-                regs.setWZ((short) (regs.BC.getValue16() + 1));
-                break;
+    // adc hl,sp
+    private void opED_7A() {
+        tStates += 15;
+        alu.ADC_R16(regs.getSP());
+    }
 
-            // adc hl,sp
-            case 0x7A:
-                tStates += 15;
-                alu.ADC_R16(regs.getSP());
-                break;
+    // ld sp,(NN)
+    private void opED_7B() {
+        tStates += 20;
+        regs.setSP(read16(read16(regs.getPC())));
+        regs.setWZ((short) (read16(regs.getPC()) + 1));
+        regs.setPC((short) (regs.getPC() + 2));
+    }
 
-            // ld sp,(NN)
-            case 0x7B:
-                tStates += 20;
-                regs.setSP(read16(read16(regs.getPC())));
-                regs.setWZ((short) (read16(regs.getPC()) + 1));
-                regs.setPC((short) (regs.getPC() + 2));
-                break;
+    // ldi
+    private void opED_A0() {
+        tStates += 16;
+        LD_BLOCK(true); // increment
+    }
 
-            // ldi
-            case 0xA0:
-                tStates += 16;
-                LD_BLOCK(true); // increment
-                break;
+    // cpi
+    private void opED_A1() {
+        tStates += 16;
+        byte val = dataBus.memRead(regs.getHL());
+        alu.CMP_R8_NOFLAGS((byte) regs.getA(), val);
+        regs.setHL((short) (regs.getHL() + 1));
+        regs.setBC((short) (regs.getBC() - 1));
 
-            // cpi
-            case 0xA1:
-                tStates += 16; {
-                byte val = dataBus.memRead(regs.HL.getValue16());
-                alu.CMP_R8_NOFLAGS((byte) regs.A.getValue(), val);
-                regs.HL.setValue((short) (regs.HL.getValue16() + 1));
-                regs.BC.setValue((short) (regs.BC.getValue16() - 1));
+        regs.setPF(regs.getBC() != 0);
+        byte aux = (byte) (regs.getA() - val - (regs.getHF() ? 1 : 0));
+        regs.setF3((aux & 0x08) != 0);
+        regs.setF5((aux & 0x02) != 0);
+        regs.setWZ((short) (regs.getWZ() + 1));
+    }
 
-                regs.setPF(regs.BC.getValue16() != 0);
-                byte aux = (byte) (regs.A.getValue() - val - (regs.getHF() ? 1 : 0));
-                regs.setF3((aux & 0x08) != 0);
-                regs.setF5((aux & 0x02) != 0);
-                regs.setWZ((short) (regs.getWZ() + 1));
+    // ini
+    private void opED_A2() {
+        tStates += 16;
+        IN_BLOCK(true);
+    }
 
-            }
-                break;
+    // outi
+    private void opED_A3() {
+        tStates += 16;
+        OUT_BLOCK(true);
+    }
 
-            // ini
-            case 0xA2:
-                tStates += 16;
-                IN_BLOCK(true);
-                break;
+    // ldd
+    private void opED_A8() {
+        tStates += 16;
+        LD_BLOCK(false); // decrement
+    }
 
-            // outi
-            case 0xA3:
-                tStates += 16;
-                OUT_BLOCK(true);
-                break;
+    // cpd
+    private void opED_A9() {
+        tStates += 16; {
+        byte val = dataBus.memRead(regs.getHL());
+        alu.CMP_R8_NOFLAGS((byte) regs.getA(), val);
+        regs.setHL((short) (regs.getHL() - 1));
+        regs.setBC((short) (regs.getBC() - 1));
+        regs.setPF(regs.getBC() != 0);
+        byte aux = (byte) (regs.getA() - val - (regs.getHF() ? 1 : 0));
+        regs.setF3((aux & 0x08) != 0);
+        regs.setF5((aux & 0x02) != 0);
+        regs.setWZ((short) (regs.getWZ() - 1));
+        }
+    }
 
-            // ldd
-            case 0xA8:
-                tStates += 16;
-                LD_BLOCK(false); // decrement
-                break;
+    // ind
+    private void opED_AA() {
+        tStates += 16;
+        IN_BLOCK(false);
+    }
 
-            // cpd
-            case 0xA9:
-                tStates += 16; {
-                byte val = dataBus.memRead(regs.HL.getValue16());
-                alu.CMP_R8_NOFLAGS((byte) regs.A.getValue(), val);
-                regs.HL.setValue((short) (regs.HL.getValue16() - 1));
-                regs.BC.setValue((short) (regs.BC.getValue16() - 1));
-                regs.setPF(regs.BC.getValue16() != 0);
-                byte aux = (byte) (regs.A.getValue() - val - (regs.getHF() ? 1 : 0));
-                regs.setF3((aux & 0x08) != 0);
-                regs.setF5((aux & 0x02) != 0);
-                regs.setWZ((short) (regs.getWZ() - 1));
-                }
-                break;
+    // outd
+    private void opED_AB() {
+        tStates += 16;
+        OUT_BLOCK(false);
+    }
 
-            // ind
-            case 0xAA:
-                tStates += 16;
-                IN_BLOCK(false);
-                break;
+    // ldir
+    private void opED_B0() {
+        LD_BLOCK_BULK(true, blockIterations(((regs.getBC() - 1) & 0xFFFF) + 1) - 1);
+        tStates += 16;
+        LD_BLOCK(true); // increment
+        if (regs.getBC() != 0) {
+            tStates += 5;
+            regs.setWZ((short) (regs.getPC() - 1));
+            regs.setPC((short) (regs.getPC() - 2)); // Repeat instruction.
+            regs.setF3((regs.getPC() & 0x0800) != 0);
+            regs.setF5((regs.getPC() & 0x2000) != 0);
+        }
+    }
 
-            // outd
+    // cpir
+    private void opED_B1() {
+        CP_BLOCK_BULK(true, blockIterations(((regs.getBC() - 1) & 0xFFFF) + 1) - 1);
+        tStates += 16;
+        byte val = dataBus.memRead(regs.getHL());
+        alu.CMP_R8_NOFLAGS((byte) regs.getA(), val);
+        regs.setHL((short) (regs.getHL() + 1));
+        regs.setBC((short) (regs.getBC() - 1));
+        regs.setPF(regs.getBC() != 0);
+        // Take the value of register A, subtract the value of the memory address, and
+        // finally subtract the value of HF flag,
+        // which is set or reset by the hypothetical CP (HL). So, n = A - (HL) - HF.
+        byte aux = (byte) (regs.getA() - val - (regs.getHF() ? 1 : 0));
+        regs.setF3((aux & 0x08) != 0);
+        regs.setF5((aux & 0x02) != 0);
+        regs.setWZ((short) (regs.getWZ() + 1));
+        if (regs.getPF() && !regs.getZF()) {
+            tStates += 5;
+            regs.setPC((short) (regs.getPC() - 2)); // repeat instruction.
+            regs.setWZ((short) (regs.getPC() + 1));
+            regs.setF3((regs.getPC() & 0x0800) != 0);
+            regs.setF5((regs.getPC() & 0x2000) != 0);
+        }
+    }
 
-            case 0xAB:
-                tStates += 16;
-                OUT_BLOCK(false);
+    // inir
+    private void opED_B2() {
+        // Las iteraciones admitidas se ejecutan aquí mismo, sin volver a leer ni decodificar la instrucción
+        int iterations = blockIterations(((regs.getB() - 1) & 0xFF) + 1);
+        while (true) {
+            boolean overwrites = overwritesInstruction(regs.getHL() & 0xFFFF, regs.getHL() & 0xFFFF);
+            tStates += 16;
+            IN_BLOCK(true);
+            if (regs.getZF()) {
                 break;
-
-            // ldir
-            case 0xB0:
-                tStates += 16;
-                LD_BLOCK(true); // increment
-                if (regs.BC.getValue16() != 0) {
-                    tStates += 5;
-                    regs.setWZ((short) (regs.getPC() - 1));
-                    regs.setPC((short) (regs.getPC() - 2)); // Repeat instruction.
-                    regs.setF3((regs.getPC() & 0x0800) != 0);
-                    regs.setF5((regs.getPC() & 0x2000) != 0);
-                }
+            }
+            tStates += 5;
+            regs.setPC((short) (regs.getPC() - 2)); // repeat instruction.
+            regs.setWZ((short) (regs.getPC() + 1)); // PC +1 y de acuerdo al emulador de Jsanchezv
+            INxROUTxRFlags_BLOCK();
+            if (--iterations == 0 || irqPending() || overwrites) {
                 break;
+            }
+            // Siguiente iteración: avance de PC y ciclos de refresco de la relectura de ED xx
+            regs.setPC((short) (regs.getPC() + 2));
+            REFRESH_CYCLE();
+            REFRESH_CYCLE();
+        }
+    }
 
-            // cpir
-            case 0xB1:
-                tStates += 16; {
-                byte val = dataBus.memRead(regs.HL.getValue16());
-                alu.CMP_R8_NOFLAGS((byte) regs.A.getValue(), val);
-                regs.HL.setValue((short) (regs.HL.getValue16() + 1));
-                regs.BC.setValue((short) (regs.BC.getValue16() - 1));
-                regs.setPF(regs.BC.getValue16() != 0);
-                // Take the value of register A, subtract the value of the memory address, and
-                // finally subtract the value of HF flag,
-                // which is set or reset by the hypothetical CP (HL). So, n = A - (HL) - HF.
-                byte aux = (byte) (regs.A.getValue() - val - (regs.getHF() ? 1 : 0));
-                regs.setF3((aux & 0x08) != 0);
-                regs.setF5((aux & 0x02) != 0);
-                regs.setWZ((short) (regs.getWZ() + 1));
-                if (regs.getPF() && !regs.getZF()) {
-                    tStates += 5;
-                    regs.setPC((short) (regs.getPC() - 2)); // repeat instruction.
-                    regs.setWZ((short) (regs.getPC() + 1));
-                    regs.setF3((regs.getPC() & 0x0800) != 0);
-                    regs.setF5((regs.getPC() & 0x2000) != 0);
-                }
+    // otir
+    private void opED_B3() {
+        // Las iteraciones admitidas se ejecutan aquí mismo, sin volver a leer ni decodificar la instrucción
+        int iterations = blockIterations(((regs.getB() - 1) & 0xFF) + 1);
+        int mapChanges = dataBus.getMapChanges(); // Un puerto de paginación puede cambiar la instrucción
+        while (true) {
+            tStates += 16;
+            OUT_BLOCK(true);
+            if (regs.getZF()) {
+                break;
             }
+            tStates += 5;
+            regs.setPC((short) (regs.getPC() - 2)); // repeat instruction.
+            INxROUTxRFlags_BLOCK();
+            if (--iterations == 0 || irqPending() || dataBus.getMapChanges() != mapChanges) {
                 break;
+            }
+            // Siguiente iteración: avance de PC y ciclos de refresco de la relectura de ED xx
+            regs.setPC((short) (regs.getPC() + 2));
+            REFRESH_CYCLE();
+            REFRESH_CYCLE();
+        }
+    }
 
-            // inir
-            case 0xB2:
-                tStates += 16;
-                IN_BLOCK(true);
-                if (!regs.getZF()) {
-                    tStates += 5;
-                    regs.setPC((short) (regs.getPC() - 2)); // repeat instruction.
-                    regs.setWZ((short) (regs.getPC() + 1)); // PC +1 y de acuerdo al emulador de Jsanchezv
-                    INxROUTxRFlags_BLOCK();
-                }
-                break;
+    // lddr
+    private void opED_B8() {
+        LD_BLOCK_BULK(false, blockIterations(((regs.getBC() - 1) & 0xFFFF) + 1) - 1);
+        tStates += 16;
+        LD_BLOCK(false); // decrement
+
+        if (regs.getBC() != 0) {
+            tStates += 5;
+            regs.setWZ((short) (regs.getPC() - 1)); // PC +1 por FUSE PC -1
+            regs.setPC((short) (regs.getPC() - 2)); // repeat instruction.
+            regs.setF3((regs.getPC() & 0x0800) != 0);
+            regs.setF5((regs.getPC() & 0x2000) != 0);
+        }
+    }
 
-            // otir
-            case 0xB3:
-                tStates += 16;
-                OUT_BLOCK(true);
-                if (!regs.getZF()) {
-                    tStates += 5;
-                    regs.setPC((short) (regs.getPC() - 2)); // repeat instruction.
-                    INxROUTxRFlags_BLOCK();
-                }
-                break;
+    // cpdr
+    private void opED_B9() {
+        CP_BLOCK_BULK(false, blockIterations(((regs.getBC() - 1) & 0xFFFF) + 1) - 1);
+        tStates += 16;
+        byte val = dataBus.memRead(regs.getHL());
+        regs.setHL((short) (regs.getHL() - 1));
+        alu.CMP_R8_NOFLAGS((byte) regs.getA(), val);
+        regs.setBC((short) (regs.getBC() - 1));
+        regs.setPF(regs.getBC() != 0);
+        byte aux = (byte) (regs.getA() - val - (regs.getHF() ? 1 : 0));
+        regs.setF3((aux & 0x08) != 0);
+        regs.setF5((aux & 0x02) != 0);
+        regs.setWZ((short) (regs.getWZ() - 1));
+        if (regs.getPF() && !regs.getZF()) {
+            tStates += 5;
+            regs.setPC((short) (regs.getPC() - 2)); // repeat instruction.
+            regs.setWZ((short) (regs.getPC() + 1));
+            regs.setF3((regs.getPC() & 0x0800) != 0);
+            regs.setF5((regs.getPC() & 0x2000) != 0);
+        }
+    }
 
-            // lddr
-            case 0xB8:
-                tStates += 16;
-                LD_BLOCK(false); // decrement
-
-                if (regs.BC.getValue16() != 0) {
-                    tStates += 5;
-                    regs.setWZ((short) (regs.getPC() - 1)); // PC +1 por FUSE PC -1
-                    regs.setPC((short) (regs.getPC() - 2)); // repeat instruction.
-                    regs.setF3((regs.getPC() & 0x0800) != 0);
-                    regs.setF5((regs.getPC() & 0x2000) != 0);
-                }
+    // indr
+    private void opED_BA() {
+        // Las iteraciones admitidas se ejecutan aquí mismo, sin volver a leer ni decodificar la instrucción
+        int iterations = blockIterations(((regs.getB() - 1) & 0xFF) + 1);
+        while (true) {
+            boolean overwrites = overwritesInstruction(regs.getHL() & 0xFFFF, regs.getHL() & 0xFFFF);
+            tStates += 16;
+            IN_BLOCK(false);
+            if (regs.getZF()) {
                 break;
-
-            // cpdr
-            case 0xB9:
-                tStates += 16; {
-                byte val = dataBus.memRead(regs.HL.getValue16());
-                regs.HL.setValue((short) (regs.HL.getValue16() - 1));
-                alu.CMP_R8_NOFLAGS((byte) regs.A.getValue(), val);
-                regs.BC.setValue((short) (regs.BC.getValue16() - 1));
-                regs.setPF(regs.BC.getValue16() != 0);
-                byte aux = (byte) (regs.A.getValue() - val - (regs.getHF() ? 1 : 0));
-                regs.setF3((aux & 0x08) != 0);
-                regs.setF5((aux & 0x02) != 0);
-                regs.setWZ((short) (regs.getWZ() - 1));
-                if (regs.getPF() && !regs.getZF()) {
-                    tStates += 5;
-                    regs.setPC((short) (regs.getPC() - 2)); // repeat instruction.
-                    regs.setWZ((short) (regs.getPC() + 1));
-                    regs.setF3((regs.getPC() & 0x0800) != 0);
-                    regs.setF5((regs.getPC() & 0x2000) != 0);
-                }
             }
+            tStates += 5;
+            regs.setPC((short) (regs.getPC() - 2)); // repeat instruction.
+            regs.setWZ((short) (regs.getPC() + 1)); // PC +1 y de acuerdo al emulador de Jsanchezv
+            INxROUTxRFlags_BLOCK();
+            if (--iterations == 0 || irqPending() || overwrites) {
                 break;
+            }
+            // Siguiente iteración: avance de PC y ciclos de refresco de la relectura de ED xx
+            regs.setPC((short) (regs.getPC() + 2));
+            REFRESH_CYCLE();
+            REFRESH_CYCLE();
+        }
+    }
 
-            // indr
-            case 0xBA:
-                tStates += 16;
-                IN_BLOCK(false);
-                if (!regs.getZF()) {
-                    tStates += 5;
-                    regs.setPC((short) (regs.getPC() - 2)); // repeat instruction.
-                    regs.setWZ((short) (regs.getPC() + 1)); // PC +1 y de acuerdo al emulador de Jsanchezv
-                    INxROUTxRFlags_BLOCK();
-                }
-                break;
-
-            // otdr
-            case 0xBB:
-                tStates += 16;
-                OUT_BLOCK(false);
-                if (!regs.getZF()) {
-                    tStates += 5;
-                    regs.setPC((short) (regs.getPC() - 2)); // repeat instruction.
-                    INxROUTxRFlags_BLOCK();
-                }
+    // otdr
+    private void opED_BB() {
+        // Las iteraciones admitidas se ejecutan aquí mismo, sin volver a leer ni decodificar la instrucción
+        int iterations = blockIterations(((regs.getB() - 1) & 0xFF) + 1);
+        int mapChanges = dataBus.getMapChanges();
+        while (true) {
+            tStates += 16;
+            OUT_BLOCK(false);
+            if (regs.getZF()) {
                 break;
-
-            case 0xFB:
-                tStates += 8;
-                break;
-
-            case 0xFC:
-                tStates += 8;
+            }
+            tStates += 5;
+            regs.setPC((short) (regs.getPC() - 2)); // repeat instruction.
+            INxROUTxRFlags_BLOCK();
+            if (--iterations == 0 || irqPending() || dataBus.getMapChanges() != mapChanges) {
                 break;
+            }
+            // Siguiente iteración: avance de PC y ciclos de refresco de la relectura de ED xx
+            regs.setPC((short) (regs.getPC() + 2));
+            REFRESH_CYCLE();
+            REFRESH_CYCLE();
+        }
+    }
 
-            case 0xFD:
-                tStates += 8;
-                break;
+    private void opED_FB() {
+        tStates += 8;
+    }
 
-            default:
-                tStates += 8;
-                break;
-        }
+    private void opED_FC() {
+        tStates += 8;
+    }
+
+    private void opED_FD() {
+        tStates += 8;
     }
 
     /////////////////////////////////////////////////////////////////////////
     // execInstXX():
     // Ejecuta una instrucción con prefijo DD o FD.
-    // Hace uso del registro falso XX (copia de IX o IY según el caso)
+    // Hace uso del registro falso XX, que actúa sobre IX o IY según el selector fijado por el prefijo
     
     void execInstXX() {
 
@@ -4178,667 +4786,736 @@ public class Z80 {
         // Increment instruction counter register
         REFRESH_CYCLE();
 
-        switch (op & 0xFF) {
+        execOpcodeXX(op & 0xFF);
 
-            // add xx,bc
-            case 0x09:
-                tStates += 15;
-                alu.ADD_R16(regs.XX, regs.BC.getValue16());
-                break;
+    }
 
-            // add xx,de
-            case 0x19:
-                tStates += 15;
-                alu.ADD_R16(regs.XX, regs.DE.getValue16());
-                break;
+    // Ejecución de un opcode con prefijo DD/FD sobre el registro índice seleccionado
+    void execOpcodeXX(int op) {
+        switch (op) {
+            case 0x09: opXX_09(); break; // add xx,bc
+            case 0x19: opXX_19(); break; // add xx,de
+            case 0x21: opXX_21(); break; // ld xx,NN
+            case 0x22: opXX_22(); break; // ld (NN),xx
+            case 0x23: opXX_23(); break; // inc xx
+            case 0x24: opXX_24(); break; // inc hx
+            case 0x25: opXX_25(); break; // dec hx
+            case 0x26: opXX_26(); break; // ld hx,N
+            case 0x29: opXX_29(); break; // add xx,xx
+            case 0x2A: opXX_2A(); break; // ld xx,(NN)
+            case 0x2B: opXX_2B(); break; // dec xx
+            case 0x2C: opXX_2C(); break; // inc lx
+            case 0x2D: opXX_2D(); break; // dec lx
+            case 0x2E: opXX_2E(); break; // ld lx,N
+            case 0x34: opXX_34(); break; // inc (xx+d)
+            case 0x35: opXX_35(); break; // dec (xx+d)
+            case 0x36: opXX_36(); break; // ld (xx+d),N
+            case 0x39: opXX_39(); break; // add xx,sp
+            case 0x44: opXX_44(); break; // ld b,hx
+            case 0x45: opXX_45(); break; // ld b,lx
+            case 0x46: opXX_46(); break; // ld b,(xx+d)
+            case 0x4C: opXX_4C(); break; // ld c,hx
+            case 0x4D: opXX_4D(); break; // ld c,lx
+            case 0x4E: opXX_4E(); break; // ld c,(xx+d)
+            case 0x54: opXX_54(); break; // ld d,hx
+            case 0x55: opXX_55(); break; // ld d,lx
+            case 0x56: opXX_56(); break; // ld d,(xx+d)
+            case 0x5C: opXX_5C(); break; // ld e,hx
+            case 0x5D: opXX_5D(); break; // ld e,lx
+            case 0x5E: opXX_5E(); break; // ld e,(xx+d)
+            case 0x60: opXX_60(); break; // ld hx,b
+            case 0x61: opXX_61(); break; // ld hx,c
+            case 0x62: opXX_62(); break; // ld hx,d
+            case 0x63: opXX_63(); break; // ld hx,e
+            case 0x64: opXX_64(); break; // ld hx,hx
+            case 0x65: opXX_65(); break; // ld hx,lx
+            case 0x66: opXX_66(); break; // ld h,(xx+d)
+            case 0x67: opXX_67(); break; // ld hx,a
+            case 0x68: opXX_68(); break; // ld lx,b
+            case 0x69: opXX_69(); break; // ld lx,c
+            case 0x6A: opXX_6A(); break; // ld lx,d
+            case 0x6B: opXX_6B(); break; // ld lx,e
+            case 0x6C: opXX_6C(); break; // ld lx,hx
+            case 0x6D: opXX_6D(); break; // ld lx,lx
+            case 0x6E: opXX_6E(); break; // ld l,(xx+d)
+            case 0x6F: opXX_6F(); break; // ld lx,a
+            case 0x70: opXX_70(); break; // ld (xx+d),b
+            case 0x71: opXX_71(); break; // ld (xx+d),c
+            case 0x72: opXX_72(); break; // ld (xx+d),d
+            case 0x73: opXX_73(); break; // ld (xx+d),e
+            case 0x74: opXX_74(); break; // ld (xx+d),h
+            case 0x75: opXX_75(); break; // ld (xx+d),l
+            case 0x77: opXX_77(); break; // ld (xx+d),a
+            case 0x7C: opXX_7C(); break; // ld a,hx
+            case 0x7D: opXX_7D(); break; // ld a,lx
+            case 0x7E: opXX_7E(); break; // ld a,(xx+d)
+            case 0x84: opXX_84(); break; // add a,hx
+            case 0x85: opXX_85(); break; // add a,lx
+            case 0x86: opXX_86(); break; // add a,(xx+d)
+            case 0x8C: opXX_8C(); break; // adc a,hx
+            case 0x8D: opXX_8D(); break; // adc a,lx
+            case 0x8E: opXX_8E(); break; // adc a,(xx+d)
+            case 0x94: opXX_94(); break; // sub hx
+            case 0x95: opXX_95(); break; // sub lx
+            case 0x96: opXX_96(); break; // sub (xx+d)
+            case 0x9C: opXX_9C(); break; // sbc a,hx
+            case 0x9D: opXX_9D(); break; // sbc a,lx
+            case 0x9E: opXX_9E(); break; // sbc a,(xx+d)
+            case 0xA4: opXX_A4(); break; // and hx
+            case 0xA5: opXX_A5(); break; // and lx
+            case 0xA6: opXX_A6(); break; // and (xx+d)
+            case 0xAC: opXX_AC(); break; // xor hx
+            case 0xAD: opXX_AD(); break; // xor lx
+            case 0xAE: opXX_AE(); break; // xor (xx+d)
+            case 0xB4: opXX_B4(); break; // or hx
+            case 0xB5: opXX_B5(); break; // or lx
+            case 0xB6: opXX_B6(); break; // or (xx+d)
+            case 0xBC: opXX_BC(); break; // cp hx
+            case 0xBD: opXX_BD(); break; // cp lx
+            case 0xBE: opXX_BE(); break; // cp (xx+d)
+            case 0xCB: opXX_CB(); break; // Index register with 0xCB handling
+            case 0xE1: opXX_E1(); break; // pop xx
+            case 0xE3: opXX_E3(); break; // ex (sp),xx
+            case 0xE5: opXX_E5(); break; // push XX
+            case 0xE9: opXX_E9(); break; // jp (xx)
+            case 0xF9: opXX_F9(); break; // ld sp,xx
+            case 0xDD:
+            case 0xFD: opXX_DD(); break;
+            case 0xEB:
+            case 0xED: opXX_EB(); break;
 
-            // ld xx,NN
-            case 0x21:
-                tStates += 14;
-                regs.XX.setValue(read16(regs.getPC()));
-                regs.setPC((short) (regs.getPC() + 2));
-                break;
+            // Unimplemented opcodes do the same as the unprefixed versions.
+            // Roll back PC register and re-evaluate.
+            default:
+                tStates += 4;
+                regs.setPC((short) (regs.getPC() - 1)); // Back to the non-prefixed opcode
+                REFRESH_CYCLE_BACK(); // Back to the same refresh cycle
+        }
+    }
 
-            // ld (NN),xx
-            case 0x22:
-                tStates += 20;
-                write16(read16(regs.getPC()), regs.XX.getValue16());
-                regs.setWZ((short) (read16(regs.getPC()) + 1));
-                regs.setPC((short) (regs.getPC() + 2));
-                break;
+    /////////////////////////////////////////////////////////////////////////
+    // Instrucciones con prefijo DD/FD (registro XX)
 
-            // inc xx
-            case 0x23:
-                tStates += 10;
-                regs.XX.setValue((short) (regs.XX.getValue16() + 1));
-                break;
+    // add xx,bc
+    private void opXX_09() {
+        tStates += 15;
+        regs.setXX(alu.ADD_R16(regs.getXX(), regs.getBC()));
+    }
 
-            // inc hx
-            case 0x24:
-                tStates += 8;
-                alu.INC_R8(regs.HX);
-                break;
+    // add xx,de
+    private void opXX_19() {
+        tStates += 15;
+        regs.setXX(alu.ADD_R16(regs.getXX(), regs.getDE()));
+    }
 
-            // dec hx
-            case 0x25:
-                tStates += 8;
-                alu.DEC_R8(regs.HX);
-                break;
+    // ld xx,NN
+    private void opXX_21() {
+        tStates += 14;
+        regs.setXX(read16(regs.getPC()));
+        regs.setPC((short) (regs.getPC() + 2));
+    }
 
-            // ld hx,N
-            case 0x26:
-                tStates += 11;
-                regs.HX.setValue(dataBus.memRead(regs.getPC()));
-                regs.setPC((short) (regs.getPC() + 1));
-                break;
+    // ld (NN),xx
+    private void opXX_22() {
+        tStates += 20;
+        regs.setWZ(read16(regs.getPC()));
+        write16(regs.getWZ(), regs.getXX());
+        regs.setWZ((short) (regs.getWZ() + 1));
+        regs.setPC((short) (regs.getPC() + 2));
+    }
 
-            // add xx,xx
-            case 0x29:
-                tStates += 15;
-                alu.ADD_R16(regs.XX, regs.XX.getValue16());
-                break;
+    // inc xx
+    private void opXX_23() {
+        tStates += 10;
+        regs.setXX((short) (regs.getXX() + 1));
+    }
 
-            // ld xx,(NN)
-            case 0x2A:
-                tStates += 20;
-                regs.XX.setValue(read16(read16(regs.getPC())));
-                regs.setWZ((short) (read16(regs.getPC()) + 1));
-                regs.setPC((short) (regs.getPC() + 2));
-                break;
+    // inc hx
+    private void opXX_24() {
+        tStates += 8;
+        regs.setHX(alu.INC_R8(regs.getHX()));
+    }
 
-            // dec xx
-            case 0x2B:
-                tStates += 10;
-                regs.XX.setValue((short) (regs.XX.getValue16() - 1));
-                break;
+    // dec hx
+    private void opXX_25() {
+        tStates += 8;
+        regs.setHX(alu.DEC_R8(regs.getHX()));
+    }
 
-            // inc lx
-            case 0x2C:
-                tStates += 8;
-                alu.INC_R8(regs.LX);
-                break;
+    // ld hx,N
+    private void opXX_26() {
+        tStates += 11;
+        regs.setHX(dataBus.memRead(regs.getPC()));
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // dec lx
-            case 0x2D:
-                tStates += 8;
-                alu.DEC_R8(regs.LX);
-                break;
+    // add xx,xx
+    private void opXX_29() {
+        tStates += 15;
+        regs.setXX(alu.ADD_R16(regs.getXX(), regs.getXX()));
+    }
 
-            // ld lx,N
-            case 0x2E:
-                tStates += 11;
-                regs.LX.setValue(dataBus.memRead(regs.getPC()));
-                regs.setPC((short) (regs.getPC() + 1));
-                break;
+    // ld xx,(NN)
+    private void opXX_2A() {
+        tStates += 20;
+        regs.setXX(read16(read16(regs.getPC())));
+        regs.setWZ((short) (read16(regs.getPC()) + 1));
+        regs.setPC((short) (regs.getPC() + 2));
+    }
 
-            // inc (xx+d)
-            case 0x34:
-                tStates += 23; {
-                short addr = (short) (regs.XX.getValue16() + (byte) dataBus.memRead(regs.getPC()));
-                regs.setWZ(addr);
-                Register regval = new Register(dataBus.memRead(addr));
-                alu.INC_R8(regval);
-                dataBus.memWrite(addr, (byte) regval.getValue());
-                regs.setPC((short) (regs.getPC() + 1));
-            }
-                break;
+    // dec xx
+    private void opXX_2B() {
+        tStates += 10;
+        regs.setXX((short) (regs.getXX() - 1));
+    }
 
-            // dec (xx+d)
-            case 0x35:
-                tStates += 23; {
-                short addr = (short) (regs.XX.getValue16() + (byte) dataBus.memRead(regs.getPC()));
-                regs.setWZ(addr);
-                byte val = dataBus.memRead(addr);
-                Register regval = new Register(dataBus.memRead(addr));
-                alu.DEC_R8(regval);
-                dataBus.memWrite(addr, (byte) regval.getValue());
-                regs.setPC((short) (regs.getPC() + 1));
-            }
-                break;
+    // inc lx
+    private void opXX_2C() {
+        tStates += 8;
+        regs.setLX(alu.INC_R8(regs.getLX()));
+    }
 
-            // ld (xx+d),N
-            case 0x36:
-                tStates += 19; {
-                short addr = (short) (regs.XX.getValue16() + (byte) dataBus.memRead(regs.getPC()));
-                regs.setWZ(addr);
-                dataBus.memWrite(addr, dataBus.memRead(regs.getPC() + 1));
+    // dec lx
+    private void opXX_2D() {
+        tStates += 8;
+        regs.setLX(alu.DEC_R8(regs.getLX()));
+    }
 
-                regs.setPC((short) (regs.getPC() + 2));
-            }
-                break;
+    // ld lx,N
+    private void opXX_2E() {
+        tStates += 11;
+        regs.setLX(dataBus.memRead(regs.getPC()));
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // add xx,sp
-            case 0x39:
-                tStates += 15;
-                alu.ADD_R16(regs.XX, regs.getSP());
-                break;
+    // inc (xx+d)
+    private void opXX_34() {
+        tStates += 23;
+        short addr = (short) (regs.getXX() + (byte) dataBus.memRead(regs.getPC()));
+        regs.setWZ(addr);
+        byte regval = alu.INC_R8(dataBus.memRead(addr));
+        dataBus.memWrite(addr, regval);
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // ld b,hx
-            case 0x44:
-                tStates += 8;
-                regs.B.setValue((byte) regs.HX.getValue());
-                break;
+    // dec (xx+d)
+    private void opXX_35() {
+        tStates += 23;
+        short addr = (short) (regs.getXX() + (byte) dataBus.memRead(regs.getPC()));
+        regs.setWZ(addr);
+        byte val = dataBus.memRead(addr);
+        byte regval = alu.DEC_R8(dataBus.memRead(addr));
+        dataBus.memWrite(addr, regval);
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // ld b,lx
-            case 0x45:
-                tStates += 8;
-                regs.B.setValue((byte) regs.LX.getValue());
-                break;
+    // ld (xx+d),N
+    private void opXX_36() {
+        tStates += 19;
+        short addr = (short) (regs.getXX() + (byte) dataBus.memRead(regs.getPC()));
+        regs.setWZ(addr);
+        dataBus.memWrite(addr, dataBus.memRead(regs.getPC() + 1));
 
-            // ld b,(xx+d)
-            case 0x46:
-                tStates += 19; {
-                short addr = (short) (regs.XX.getValue16() + (byte) dataBus.memRead(regs.getPC()));
-                regs.setWZ(addr);
-                regs.B.setValue(dataBus.memRead(addr));
-                regs.setPC((short) (regs.getPC() + 1));
-            }
-                break;
+        regs.setPC((short) (regs.getPC() + 2));
+    }
 
-            // ld c,hx
-            case 0x4C:
-                tStates += 8;
-                regs.C.setValue((byte) regs.HX.getValue());
-                break;
+    // add xx,sp
+    private void opXX_39() {
+        tStates += 15;
+        regs.setXX(alu.ADD_R16(regs.getXX(), regs.getSP()));
+    }
 
-            // ld c,lx
-            case 0x4D:
-                tStates += 8;
-                regs.C.setValue((byte) regs.LX.getValue());
-                break;
+    // ld b,hx
+    private void opXX_44() {
+        tStates += 8;
+        regs.setB((byte) regs.getHX());
+    }
 
-            // ld c,(xx+d)
-            case 0x4E:
-                tStates += 19; {
-                short addr = (short) (regs.XX.getValue16() + (byte) dataBus.memRead(regs.getPC()));
-                regs.setWZ(addr);
-                regs.C.setValue(dataBus.memRead(addr));
-                ;
-                regs.setPC((short) (regs.getPC() + 1));
-            }
-                break;
+    // ld b,lx
+    private void opXX_45() {
+        tStates += 8;
+        regs.setB((byte) regs.getLX());
+    }
 
-            // ld d,hx
-            case 0x54:
-                tStates += 8;
-                regs.D.setValue((byte) regs.HX.getValue());
-                break;
+    // ld b,(xx+d)
+    private void opXX_46() {
+        tStates += 19;
+        short addr = (short) (regs.getXX() + (byte) dataBus.memRead(regs.getPC()));
+        regs.setWZ(addr);
+        regs.setB(dataBus.memRead(addr));
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // ld d,lx
-            case 0x55:
-                tStates += 8;
-                regs.D.setValue((byte) regs.LX.getValue());
-                break;
+    // ld c,hx
+    private void opXX_4C() {
+        tStates += 8;
+        regs.setC((byte) regs.getHX());
+    }
 
-            // ld d,(xx+d)
-            case 0x56:
-                tStates += 19; {
-                short addr = (short) (regs.XX.getValue16() + (byte) dataBus.memRead(regs.getPC()));
-                regs.setWZ(addr);
-                regs.D.setValue(dataBus.memRead(addr));
-                regs.setPC((short) (regs.getPC() + 1));
-            }
-                break;
+    // ld c,lx
+    private void opXX_4D() {
+        tStates += 8;
+        regs.setC((byte) regs.getLX());
+    }
 
-            // ld e,hx
-            case 0x5C:
-                tStates += 8;
-                regs.E.setValue((byte) regs.HX.getValue());
-                break;
+    // ld c,(xx+d)
+    private void opXX_4E() {
+        tStates += 19;
+        short addr = (short) (regs.getXX() + (byte) dataBus.memRead(regs.getPC()));
+        regs.setWZ(addr);
+        regs.setC(dataBus.memRead(addr));
+        ;
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // ld e,lx
-            case 0x5D:
-                tStates += 8;
-                regs.E.setValue((byte) regs.LX.getValue());
-                break;
+    // ld d,hx
+    private void opXX_54() {
+        tStates += 8;
+        regs.setD((byte) regs.getHX());
+    }
 
-            // ld e,(xx+d)
-            case 0x5E:
-                tStates += 19; {
-                short addr = (short) (regs.XX.getValue16() + (byte) dataBus.memRead(regs.getPC()));
-                regs.setWZ(addr);
-                regs.E.setValue(dataBus.memRead(addr));
-                regs.setPC((short) (regs.getPC() + 1));
-            }
-                break;
+    // ld d,lx
+    private void opXX_55() {
+        tStates += 8;
+        regs.setD((byte) regs.getLX());
+    }
 
-            // ld hx,b
-            case 0x60:
-                tStates += 8;
-                regs.HX.setValue((byte) regs.B.getValue());
-                break;
+    // ld d,(xx+d)
+    private void opXX_56() {
+        tStates += 19;
+        short addr = (short) (regs.getXX() + (byte) dataBus.memRead(regs.getPC()));
+        regs.setWZ(addr);
+        regs.setD(dataBus.memRead(addr));
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // ld hx,c
-            case 0x61:
-                tStates += 8;
-                regs.HX.setValue((byte) regs.C.getValue());
-                break;
+    // ld e,hx
+    private void opXX_5C() {
+        tStates += 8;
+        regs.setE((byte) regs.getHX());
+    }
 
-            // ld hx,d
-            case 0x62:
-                tStates += 8;
-                regs.HX.setValue((byte) regs.D.getValue());
-                break;
+    // ld e,lx
+    private void opXX_5D() {
+        tStates += 8;
+        regs.setE((byte) regs.getLX());
+    }
 
-            // ld hx,e
-            case 0x63:
-                tStates += 8;
-                regs.HX.setValue((byte) regs.E.getValue());
-                break;
+    // ld e,(xx+d)
+    private void opXX_5E() {
+        tStates += 19;
+        short addr = (short) (regs.getXX() + (byte) dataBus.memRead(regs.getPC()));
+        regs.setWZ(addr);
+        regs.setE(dataBus.memRead(addr));
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // ld hx,hx
-            case 0x64:
-                tStates += 8;
-                break;
+    // ld hx,b
+    private void opXX_60() {
+        tStates += 8;
+        regs.setHX((byte) regs.getB());
+    }
 
-            // ld hx,lx
-            case 0x65:
-                tStates += 8;
-                regs.HX.setValue((byte) regs.LX.getValue());
-                break;
+    // ld hx,c
+    private void opXX_61() {
+        tStates += 8;
+        regs.setHX((byte) regs.getC());
+    }
 
-            // ld h,(xx+d)
-            case 0x66:
-                tStates += 19; {
-                short addr = (short) (regs.XX.getValue16() + (byte) dataBus.memRead(regs.getPC()));
-                regs.setWZ(addr);
-                regs.H.setValue(dataBus.memRead(addr));
-                regs.setPC((short) (regs.getPC() + 1));
-            }
-                break;
+    // ld hx,d
+    private void opXX_62() {
+        tStates += 8;
+        regs.setHX((byte) regs.getD());
+    }
 
-            // ld hx,a
-            case 0x67:
-                tStates += 8;
-                regs.HX.setValue((byte) regs.A.getValue());
-                break;
+    // ld hx,e
+    private void opXX_63() {
+        tStates += 8;
+        regs.setHX((byte) regs.getE());
+    }
 
-            // ld lx,b
-            case 0x68:
-                tStates += 8;
-                regs.LX.setValue((byte) regs.B.getValue());
-                break;
+    // ld hx,hx
+    private void opXX_64() {
+        tStates += 8;
+    }
 
-            // ld lx,c
-            case 0x69:
-                tStates += 8;
-                regs.LX.setValue((byte) regs.C.getValue());
-                break;
+    // ld hx,lx
+    private void opXX_65() {
+        tStates += 8;
+        regs.setHX((byte) regs.getLX());
+    }
 
-            // ld lx,d
-            case 0x6A:
-                tStates += 8;
-                regs.LX.setValue((byte) regs.D.getValue());
-                break;
+    // ld h,(xx+d)
+    private void opXX_66() {
+        tStates += 19;
+        short addr = (short) (regs.getXX() + (byte) dataBus.memRead(regs.getPC()));
+        regs.setWZ(addr);
+        regs.setH(dataBus.memRead(addr));
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // ld lx,e
-            case 0x6B:
-                tStates += 8;
-                regs.LX.setValue((byte) regs.E.getValue());
-                break;
+    // ld hx,a
+    private void opXX_67() {
+        tStates += 8;
+        regs.setHX((byte) regs.getA());
+    }
 
-            // ld lx,hx
-            case 0x6C:
-                tStates += 8;
-                regs.LX.setValue((byte) regs.HX.getValue());
-                break;
+    // ld lx,b
+    private void opXX_68() {
+        tStates += 8;
+        regs.setLX((byte) regs.getB());
+    }
 
-            // ld lx,lx
-            case 0x6D:
-                tStates += 8;
-                break;
+    // ld lx,c
+    private void opXX_69() {
+        tStates += 8;
+        regs.setLX((byte) regs.getC());
+    }
 
-            // ld l,(xx+d)
-            case 0x6E:
-                tStates += 19; {
-                short addr = (short) (regs.XX.getValue16() + (byte) dataBus.memRead(regs.getPC()));
-                regs.setWZ(addr);
-                regs.L.setValue(dataBus.memRead(addr));
-                regs.setPC((short) (regs.getPC() + 1));
-            }
-                break;
+    // ld lx,d
+    private void opXX_6A() {
+        tStates += 8;
+        regs.setLX((byte) regs.getD());
+    }
 
-            // ld lx,a
-            case 0x6F:
-                tStates += 8;
-                regs.LX.setValue((byte) regs.A.getValue());
-                break;
+    // ld lx,e
+    private void opXX_6B() {
+        tStates += 8;
+        regs.setLX((byte) regs.getE());
+    }
 
-            // ld (xx+d),b
-            case 0x70:
-                tStates += 19; {
-                short addr = (short) (regs.XX.getValue16() + (byte) dataBus.memRead(regs.getPC()));
-                regs.setWZ(addr);
-                dataBus.memWrite(addr, (byte) regs.B.getValue());
-                regs.setPC((short) (regs.getPC() + 1));
-            }
-                break;
+    // ld lx,hx
+    private void opXX_6C() {
+        tStates += 8;
+        regs.setLX((byte) regs.getHX());
+    }
 
-            // ld (xx+d),c
-            case 0x71:
-                tStates += 19; {
-                short addr = (short) (regs.XX.getValue16() + (byte) dataBus.memRead(regs.getPC()));
-                regs.setWZ(addr);
-                dataBus.memWrite(addr, (byte) regs.C.getValue());
-                regs.setPC((short) (regs.getPC() + 1));
-            }
-                break;
+    // ld lx,lx
+    private void opXX_6D() {
+        tStates += 8;
+    }
 
-            // ld (xx+d),d
-            case 0x72:
-                tStates += 19; {
-                short addr = (short) (regs.XX.getValue16() + (byte) dataBus.memRead(regs.getPC()));
-                regs.setWZ(addr);
-                dataBus.memWrite(addr, (byte) regs.D.getValue());
-                regs.setPC((short) (regs.getPC() + 1));
-            }
-                break;
+    // ld l,(xx+d)
+    private void opXX_6E() {
+        tStates += 19;
+        short addr = (short) (regs.getXX() + (byte) dataBus.memRead(regs.getPC()));
+        regs.setWZ(addr);
+        regs.setL(dataBus.memRead(addr));
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // ld (xx+d),e
-            case 0x73:
-                tStates += 19; {
-                short addr = (short) (regs.XX.getValue16() + (byte) dataBus.memRead(regs.getPC()));
-                regs.setWZ(addr);
-                dataBus.memWrite(addr, (byte) regs.E.getValue());
-                regs.setPC((short) (regs.getPC() + 1));
-            }
-                break;
+    // ld lx,a
+    private void opXX_6F() {
+        tStates += 8;
+        regs.setLX((byte) regs.getA());
+    }
 
-            // ld (xx+d),h
-            case 0x74:
-                tStates += 19; {
-                short addr = (short) (regs.XX.getValue16() + (byte) dataBus.memRead(regs.getPC()));
-                regs.setWZ(addr);
-                dataBus.memWrite(addr, (byte) regs.H.getValue());
-                regs.setPC((short) (regs.getPC() + 1));
-            }
-                break;
+    // ld (xx+d),b
+    private void opXX_70() {
+        tStates += 19;
+        short addr = (short) (regs.getXX() + (byte) dataBus.memRead(regs.getPC()));
+        regs.setWZ(addr);
+        dataBus.memWrite(addr, (byte) regs.getB());
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // ld (xx+d),l
-            case 0x75:
-                tStates += 19; {
-                short addr = (short) (regs.XX.getValue16() + (byte) dataBus.memRead(regs.getPC()));
-                regs.setWZ(addr);
-                dataBus.memWrite(addr, (byte) regs.L.getValue());
-                regs.setPC((short) (regs.getPC() + 1));
-            }
-                break;
+    // ld (xx+d),c
+    private void opXX_71() {
+        tStates += 19;
+        short addr = (short) (regs.getXX() + (byte) dataBus.memRead(regs.getPC()));
+        regs.setWZ(addr);
+        dataBus.memWrite(addr, (byte) regs.getC());
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // ld (xx+d),a
-            case 0x77:
-                tStates += 19; {
-                short addr = (short) (regs.XX.getValue16() + (byte) dataBus.memRead(regs.getPC()));
-                regs.setWZ(addr);
-                dataBus.memWrite(addr, (byte) regs.A.getValue());
-                regs.setPC((short) (regs.getPC() + 1));
-            }
-                break;
+    // ld (xx+d),d
+    private void opXX_72() {
+        tStates += 19;
+        short addr = (short) (regs.getXX() + (byte) dataBus.memRead(regs.getPC()));
+        regs.setWZ(addr);
+        dataBus.memWrite(addr, (byte) regs.getD());
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // ld a,hx
-            case 0x7C:
-                tStates += 8;
-                regs.A.setValue((byte) regs.HX.getValue());
-                break;
+    // ld (xx+d),e
+    private void opXX_73() {
+        tStates += 19;
+        short addr = (short) (regs.getXX() + (byte) dataBus.memRead(regs.getPC()));
+        regs.setWZ(addr);
+        dataBus.memWrite(addr, (byte) regs.getE());
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // ld a,lx
-            case 0x7D:
-                tStates += 8;
-                regs.A.setValue((byte) regs.LX.getValue());
-                break;
+    // ld (xx+d),h
+    private void opXX_74() {
+        tStates += 19;
+        short addr = (short) (regs.getXX() + (byte) dataBus.memRead(regs.getPC()));
+        regs.setWZ(addr);
+        dataBus.memWrite(addr, (byte) regs.getH());
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // ld a,(xx+d)
-            case 0x7E:
-                tStates += 19; {
-                short addr = (short) (regs.XX.getValue16() + (byte) dataBus.memRead(regs.getPC()));
-                regs.setWZ(addr);
-                regs.A.setValue(dataBus.memRead(addr));
-                regs.setPC((short) (regs.getPC() + 1));
-            }
-                break;
+    // ld (xx+d),l
+    private void opXX_75() {
+        tStates += 19;
+        short addr = (short) (regs.getXX() + (byte) dataBus.memRead(regs.getPC()));
+        regs.setWZ(addr);
+        dataBus.memWrite(addr, (byte) regs.getL());
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // add a,hx
-            case 0x84:
-                tStates += 8;
-                alu.ADD_R8((byte) regs.HX.getValue());
-                break;
+    // ld (xx+d),a
+    private void opXX_77() {
+        tStates += 19;
+        short addr = (short) (regs.getXX() + (byte) dataBus.memRead(regs.getPC()));
+        regs.setWZ(addr);
+        dataBus.memWrite(addr, (byte) regs.getA());
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // add a,lx
-            case 0x85:
-                tStates += 8;
-                alu.ADD_R8((byte) regs.LX.getValue());
-                break;
+    // ld a,hx
+    private void opXX_7C() {
+        tStates += 8;
+        regs.setA((byte) regs.getHX());
+    }
 
-            // add a,(xx+d)
-            case 0x86:
-                tStates += 19; {
-                short addr = (short) (regs.XX.getValue16() + (byte) dataBus.memRead(regs.getPC()));
-                regs.setWZ(addr);
-                regs.setPC((short) (regs.getPC() + 1));
-                byte val = dataBus.memRead(addr);
-                alu.ADD_R8(val);
-            }
-                break;
+    // ld a,lx
+    private void opXX_7D() {
+        tStates += 8;
+        regs.setA((byte) regs.getLX());
+    }
 
-            // adc a,hx
-            case 0x8C:
-                tStates += 8;
-                alu.ADC_R8((byte) regs.HX.getValue());
-                break;
+    // ld a,(xx+d)
+    private void opXX_7E() {
+        tStates += 19;
+        short addr = (short) (regs.getXX() + (byte) dataBus.memRead(regs.getPC()));
+        regs.setWZ(addr);
+        regs.setA(dataBus.memRead(addr));
+        regs.setPC((short) (regs.getPC() + 1));
+    }
 
-            // adc a,lx
-            case 0x8D:
-                tStates += 8;
-                alu.ADC_R8((byte) regs.LX.getValue());
-                break;
+    // add a,hx
+    private void opXX_84() {
+        tStates += 8;
+        alu.ADD_R8((byte) regs.getHX());
+    }
 
-            // adc a,(xx+d)
-            case 0x8E:
-                tStates += 19; {
-                short addr = (short) (regs.XX.getValue16() + (byte) dataBus.memRead(regs.getPC()));
-                regs.setWZ(addr);
-                regs.setPC((short) (regs.getPC() + 1));
-                byte val = dataBus.memRead(addr);
-                alu.ADC_R8(val);
-            }
-                break;
+    // add a,lx
+    private void opXX_85() {
+        tStates += 8;
+        alu.ADD_R8((byte) regs.getLX());
+    }
 
-            // sub hx
-            case 0x94:
-                tStates += 8;
-                alu.SUB_R8((byte) regs.HX.getValue());
-                break;
+    // add a,(xx+d)
+    private void opXX_86() {
+        tStates += 19;
+        short addr = (short) (regs.getXX() + (byte) dataBus.memRead(regs.getPC()));
+        regs.setWZ(addr);
+        regs.setPC((short) (regs.getPC() + 1));
+        byte val = dataBus.memRead(addr);
+        alu.ADD_R8(val);
+    }
 
-            // sub lx
-            case 0x95:
-                tStates += 8;
-                alu.SUB_R8((byte) regs.LX.getValue());
-                break;
+    // adc a,hx
+    private void opXX_8C() {
+        tStates += 8;
+        alu.ADC_R8((byte) regs.getHX());
+    }
 
-            // sub (xx+d)
-            case 0x96:
-                tStates += 19; {
-                short addr = (short) (regs.XX.getValue16() + (byte) dataBus.memRead(regs.getPC()));
-                regs.setWZ(addr);
-                regs.setPC((short) (regs.getPC() + 1));
-                byte val = dataBus.memRead(addr);
-                alu.SUB_R8(val);
-            }
-                break;
+    // adc a,lx
+    private void opXX_8D() {
+        tStates += 8;
+        alu.ADC_R8((byte) regs.getLX());
+    }
 
-            // sbc a,hx
-            case 0x9C:
-                tStates += 8;
-                alu.SBC_R8((byte) regs.HX.getValue());
-                break;
+    // adc a,(xx+d)
+    private void opXX_8E() {
+        tStates += 19;
+        short addr = (short) (regs.getXX() + (byte) dataBus.memRead(regs.getPC()));
+        regs.setWZ(addr);
+        regs.setPC((short) (regs.getPC() + 1));
+        byte val = dataBus.memRead(addr);
+        alu.ADC_R8(val);
+    }
 
-            // sbc a,lx
-            case 0x9D:
-                tStates += 8;
-                alu.SBC_R8((byte) regs.LX.getValue());
-                break;
+    // sub hx
+    private void opXX_94() {
+        tStates += 8;
+        alu.SUB_R8((byte) regs.getHX());
+    }
 
-            // sbc a,(xx+d)
-            case 0x9E:
-                tStates += 19; {
-                short addr = (short) (regs.XX.getValue16() + (byte) dataBus.memRead(regs.getPC()));
-                regs.setWZ(addr);
-                regs.setPC((short) (regs.getPC() + 1));
-                byte val = dataBus.memRead(addr);
-                alu.SBC_R8((byte) val);
-            }
-                break;
+    // sub lx
+    private void opXX_95() {
+        tStates += 8;
+        alu.SUB_R8((byte) regs.getLX());
+    }
 
-            // and hx
-            case 0xA4:
-                tStates += 8;
-                alu.AND_R8((byte) regs.HX.getValue());
-                break;
+    // sub (xx+d)
+    private void opXX_96() {
+        tStates += 19;
+        short addr = (short) (regs.getXX() + (byte) dataBus.memRead(regs.getPC()));
+        regs.setWZ(addr);
+        regs.setPC((short) (regs.getPC() + 1));
+        byte val = dataBus.memRead(addr);
+        alu.SUB_R8(val);
+    }
 
-            // and lx
-            case 0xA5:
-                tStates += 8;
-                alu.AND_R8((byte) regs.LX.getValue());
-                break;
+    // sbc a,hx
+    private void opXX_9C() {
+        tStates += 8;
+        alu.SBC_R8((byte) regs.getHX());
+    }
 
-            // and (xx+d)
-            case 0xA6:
-                tStates += 19; {
-                short addr = (short) (regs.XX.getValue16() + (byte) dataBus.memRead(regs.getPC()));
-                regs.setWZ(addr);
-                regs.setPC((short) (regs.getPC() + 1));
-                byte val = dataBus.memRead(addr);
-                alu.AND_R8(val);
-            }
-                break;
+    // sbc a,lx
+    private void opXX_9D() {
+        tStates += 8;
+        alu.SBC_R8((byte) regs.getLX());
+    }
 
-            // xor hx
-            case 0xAC:
-                tStates += 8;
-                alu.XOR_R8((byte) regs.HX.getValue());
-                break;
+    // sbc a,(xx+d)
+    private void opXX_9E() {
+        tStates += 19;
+        short addr = (short) (regs.getXX() + (byte) dataBus.memRead(regs.getPC()));
+        regs.setWZ(addr);
+        regs.setPC((short) (regs.getPC() + 1));
+        byte val = dataBus.memRead(addr);
+        alu.SBC_R8((byte) val);
+    }
 
-            // xor lx
-            case 0xAD:
-                tStates += 8;
-                alu.XOR_R8((byte) regs.LX.getValue());
-                break;
+    // and hx
+    private void opXX_A4() {
+        tStates += 8;
+        alu.AND_R8((byte) regs.getHX());
+    }
 
-            // xor (xx+d)
-            case 0xAE:
-                tStates += 19; {
-                short addr = (short) (regs.XX.getValue16() + (byte) dataBus.memRead(regs.getPC()));
-                regs.setWZ(addr);
-                regs.setPC((short) (regs.getPC() + 1));
-                byte val = dataBus.memRead(addr);
-                alu.XOR_R8(val);
-            }
-                break;
+    // and lx
+    private void opXX_A5() {
+        tStates += 8;
+        alu.AND_R8((byte) regs.getLX());
+    }
 
-            // or hx
-            case 0xB4:
-                tStates += 8;
-                alu.OR_R8((byte) regs.HX.getValue());
-                break;
+    // and (xx+d)
+    private void opXX_A6() {
+        tStates += 19;
+        short addr = (short) (regs.getXX() + (byte) dataBus.memRead(regs.getPC()));
+        regs.setWZ(addr);
+        regs.setPC((short) (regs.getPC() + 1));
+        byte val = dataBus.memRead(addr);
+        alu.AND_R8(val);
+    }
 
-            // or lx
-            case 0xB5:
-                tStates += 8;
-                alu.OR_R8((byte) regs.LX.getValue());
-                break;
+    // xor hx
+    private void opXX_AC() {
+        tStates += 8;
+        alu.XOR_R8((byte) regs.getHX());
+    }
 
-            // or (xx+d)
-            case 0xB6:
-                tStates += 19; {
-                short addr = (short) (regs.XX.getValue16() + (byte) dataBus.memRead(regs.getPC()));
-                regs.setWZ(addr);
-                regs.setPC((short) (regs.getPC() + 1));
-                byte val = dataBus.memRead(addr);
-                alu.OR_R8(val);
-            }
-                break;
+    // xor lx
+    private void opXX_AD() {
+        tStates += 8;
+        alu.XOR_R8((byte) regs.getLX());
+    }
 
-            // cp hx
-            case 0xBC:
-                tStates += 8;
-                alu.CMP_R8((byte) regs.HX.getValue());
-                break;
+    // xor (xx+d)
+    private void opXX_AE() {
+        tStates += 19;
+        short addr = (short) (regs.getXX() + (byte) dataBus.memRead(regs.getPC()));
+        regs.setWZ(addr);
+        regs.setPC((short) (regs.getPC() + 1));
+        byte val = dataBus.memRead(addr);
+        alu.XOR_R8(val);
+    }
 
-            // cp lx
-            case 0xBD:
-                tStates += 8;
-                alu.CMP_R8((byte) regs.LX.getValue());
-                break;
+    // or hx
+    private void opXX_B4() {
+        tStates += 8;
+        alu.OR_R8((byte) regs.getHX());
+    }
 
-            // cp (xx+d)
-            case 0xBE:
-                tStates += 19; {
-                short addr = (short) (regs.XX.getValue16() + (byte) dataBus.memRead(regs.getPC()));
-                regs.setWZ(addr);
-                regs.setPC((short) (regs.getPC() + 1));
-                byte val = dataBus.memRead(addr);
-                alu.CMP_R8(val);
-            }
-                break;
+    // or lx
+    private void opXX_B5() {
+        tStates += 8;
+        alu.OR_R8((byte) regs.getLX());
+    }
 
-            // Index register with 0xCB handling
-            case 0xCB:
-                execInstXXCB();
-                break;
+    // or (xx+d)
+    private void opXX_B6() {
+        tStates += 19;
+        short addr = (short) (regs.getXX() + (byte) dataBus.memRead(regs.getPC()));
+        regs.setWZ(addr);
+        regs.setPC((short) (regs.getPC() + 1));
+        byte val = dataBus.memRead(addr);
+        alu.OR_R8(val);
+    }
 
-            // pop xx
-            case 0xE1:
-                tStates += 14;
-                regs.XX.setValue(pop16());
-                break;
+    // cp hx
+    private void opXX_BC() {
+        tStates += 8;
+        alu.CMP_R8((byte) regs.getHX());
+    }
 
-            // ex (sp),xx
-            case 0xE3:
-                tStates += 23; {
-                short val = read16(regs.getSP());
-                write16(regs.getSP(), regs.XX.getValue16());
-                regs.XX.setValue(val);
-                regs.setWZ(val);
-            }
-                break;
+    // cp lx
+    private void opXX_BD() {
+        tStates += 8;
+        alu.CMP_R8((byte) regs.getLX());
+    }
 
-            // push XX
-            case 0xE5:
-                tStates += 15;
-                push16(regs.XX.getValue16());
-                break;
+    // cp (xx+d)
+    private void opXX_BE() {
+        tStates += 19;
+        short addr = (short) (regs.getXX() + (byte) dataBus.memRead(regs.getPC()));
+        regs.setWZ(addr);
+        regs.setPC((short) (regs.getPC() + 1));
+        byte val = dataBus.memRead(addr);
+        alu.CMP_R8(val);
+    }
 
-            // jp (xx)
-            case 0xE9:
-                tStates += 8;
-                regs.setPC(regs.XX.getValue16());
-                break;
+    // Index register with 0xCB handling
+    private void opXX_CB() {
+        execInstXXCB();
+    }
 
-            // ld sp,xx
-            case 0xF9:
-                tStates += 10;
-                regs.setSP(regs.XX.getValue16());
-                break;
+    // pop xx
+    private void opXX_E1() {
+        tStates += 14;
+        regs.setXX(pop16());
+    }
+
+    // ex (sp),xx
+    private void opXX_E3() {
+        tStates += 23;
+        short val = read16(regs.getSP());
+        write16(regs.getSP(), regs.getXX());
+        regs.setXX(val);
+        regs.setWZ(val);
+    }
+
+    // push XX
+    private void opXX_E5() {
+        tStates += 15;
+        push16(regs.getXX());
+    }
 
-            case 0xDD:
-            case 0xFD:
-                tStates += 4;
-                regs.setPC((short) (regs.getPC() - 1)); // Back to the second DD/FD
-                REFRESH_CYCLE_BACK(); // Back to the same refresh cycle
-                break;
+    // jp (xx)
+    private void opXX_E9() {
+        tStates += 8;
+        regs.setPC(regs.getXX());
+    }
 
-            case 0xEB:
-            case 0xED:
-                tStates += 8;
-                break;
+    // ld sp,xx
+    private void opXX_F9() {
+        tStates += 10;
+        regs.setSP(regs.getXX());
+    }
 
-            // Unimplemented opcodes do the same as the unprefixed versions.
-            // Roll back PC register and re-evaluate.
-            default:
-                tStates += 4;
-                regs.setPC((short) (regs.getPC() - 1)); // Back to the non-prefixed opcode
-                REFRESH_CYCLE_BACK(); // Back to the same refresh cycle
-        }
+    private void opXX_DD() {
+        tStates += 4;
+        regs.setPC((short) (regs.getPC() - 1)); // Back to the second DD/FD
+        REFRESH_CYCLE_BACK(); // Back to the same refresh cycle
+    }
 
+    private void opXX_EB() {
+        tStates += 8;
     }
 
     /////////////////////////////////////////////////////////////////////////
@@ -4850,1538 +5527,1729 @@ public class Z80 {
         // Fetch offset
         byte offset = dataBus.memRead(regs.getPC());
         regs.setPC((short) (regs.getPC() + 1));
-        short xxd = (short) (regs.XX.getValue16() + offset);
+        short xxd = (short) (regs.getXX() + offset);
         regs.setWZ(xxd); // En la cpu real todas las operaciones XXCB se hacen a partir de WZ
 
         // Obtener la siguiente instrucción (fetch)
         byte op = dataBus.memRead(regs.getPC() & 0xFFFF);
         regs.setPC((short) (regs.getPC() + 1)); // Incrementar el contador de programa
 
-        switch (op & 0xFF) {
-
-            // rlc (xx+d),b
-            case 0x00:
-                tStates += 23;
-                regs.B.setValue(dataBus.memRead(xxd));
-                alu.RLC8(regs.B);
-                dataBus.memWrite(xxd, (byte) regs.B.getValue());
-                break;
-
-            // rlc (xx+d),c
-            case 0x01:
-                tStates += 23;
-                regs.C.setValue(dataBus.memRead(xxd));
-                alu.RLC8(regs.C);
-                dataBus.memWrite(xxd, (byte) regs.C.getValue());
-                break;
-
-            // rlc (xx+d),d
-            case 0x02:
-                tStates += 23;
-                regs.D.setValue(dataBus.memRead(xxd));
-                alu.RLC8(regs.D);
-                dataBus.memWrite(xxd, (byte) regs.D.getValue());
-                break;
-
-            // rlc (xx+d),e
-            case 0x03:
-                tStates += 23;
-                regs.E.setValue(dataBus.memRead(xxd));
-                alu.RLC8(regs.E);
-                dataBus.memWrite(xxd, (byte) regs.E.getValue());
-                break;
+        execOpcodeXXCB(op & 0xFF, xxd);
 
-            // rlc (xx+d),h
-            case 0x04:
-                tStates += 23;
-                regs.H.setValue(dataBus.memRead(xxd));
-                alu.RLC8(regs.H);
-                dataBus.memWrite(xxd, (byte) regs.H.getValue());
-                break;
+    }
 
-            // rlc (xx+d),l
-            case 0x05:
-                tStates += 23;
-                regs.L.setValue(dataBus.memRead(xxd));
-                alu.RLC8(regs.L);
-                dataBus.memWrite(xxd, (byte) regs.L.getValue());
-                break;
+    // Ejecución de un opcode DDCB/FDCB sobre la dirección (xx+d) ya calculada
+    void execOpcodeXXCB(int op, short xxd) {
+        switch (op) {
+            case 0x00: opXXCB_00(xxd); break; // rlc (xx+d),b
+            case 0x01: opXXCB_01(xxd); break; // rlc (xx+d),c
+            case 0x02: opXXCB_02(xxd); break; // rlc (xx+d),d
+            case 0x03: opXXCB_03(xxd); break; // rlc (xx+d),e
+            case 0x04: opXXCB_04(xxd); break; // rlc (xx+d),h
+            case 0x05: opXXCB_05(xxd); break; // rlc (xx+d),l
+            case 0x06: opXXCB_06(xxd); break; // rlc (xx+d)
+            case 0x07: opXXCB_07(xxd); break; // rlc (xx+d),a
+            case 0x08: opXXCB_08(xxd); break; // rrc (xx+d),b
+            case 0x09: opXXCB_09(xxd); break; // rrc (xx+d),c
+            case 0x0A: opXXCB_0A(xxd); break; // rrc (xx+d),d
+            case 0x0B: opXXCB_0B(xxd); break; // rrc (xx+d),e
+            case 0x0C: opXXCB_0C(xxd); break; // rrc (xx+d),h
+            case 0x0D: opXXCB_0D(xxd); break; // rrc (xx+d),l
+            case 0x0E: opXXCB_0E(xxd); break; // rrc (xx+d)
+            case 0x0F: opXXCB_0F(xxd); break; // rrc a
+            case 0x10: opXXCB_10(xxd); break; // rl (xx+d),b
+            case 0x11: opXXCB_11(xxd); break; // rl (xx+d),c
+            case 0x12: opXXCB_12(xxd); break; // rl (xx+d),d
+            case 0x13: opXXCB_13(xxd); break; // rl (xx+d),e
+            case 0x14: opXXCB_14(xxd); break; // rl (xx+d),h
+            case 0x15: opXXCB_15(xxd); break; // rl (xx+d),l
+            case 0x16: opXXCB_16(xxd); break; // rl (xx+d)
+            case 0x17: opXXCB_17(xxd); break; // rl (xx+d),a
+            case 0x18: opXXCB_18(xxd); break; // rr (xx+d),b
+            case 0x19: opXXCB_19(xxd); break; // rr (xx+d),c
+            case 0x1A: opXXCB_1A(xxd); break; // rr (xx+d),d
+            case 0x1B: opXXCB_1B(xxd); break; // rr (xx+d),e
+            case 0x1C: opXXCB_1C(xxd); break; // rr (xx+d),h
+            case 0x1D: opXXCB_1D(xxd); break; // rr (xx+d),l
+            case 0x1E: opXXCB_1E(xxd); break; // rr (xx+d)
+            case 0x1F: opXXCB_1F(xxd); break; // rr (xx+d),a
+            case 0x20: opXXCB_20(xxd); break; // sla (xx+d),b
+            case 0x21: opXXCB_21(xxd); break; // sla (xx+d),c
+            case 0x22: opXXCB_22(xxd); break; // sla (xx+d),d
+            case 0x23: opXXCB_23(xxd); break; // sla (xx+d),e
+            case 0x24: opXXCB_24(xxd); break; // sla (xx+d),h
+            case 0x25: opXXCB_25(xxd); break; // sla (xx+d),l
+            case 0x26: opXXCB_26(xxd); break; // sla (xx+d)
+            case 0x27: opXXCB_27(xxd); break; // sla (xx+d),a
+            case 0x28: opXXCB_28(xxd); break; // sra (xx+d),b
+            case 0x29: opXXCB_29(xxd); break; // sra (xx+d),c
+            case 0x2A: opXXCB_2A(xxd); break; // sra (xx+d),d
+            case 0x2B: opXXCB_2B(xxd); break; // sra (xx+d),e
+            case 0x2C: opXXCB_2C(xxd); break; // sra (xx+d),h
+            case 0x2D: opXXCB_2D(xxd); break; // sra (xx+d),l
+            case 0x2E: opXXCB_2E(xxd); break; // sra (xx+d)
+            case 0x2F: opXXCB_2F(xxd); break; // sra (xx+d),a
+            case 0x30: opXXCB_30(xxd); break; // sli (xx+d),b
+            case 0x31: opXXCB_31(xxd); break; // sli (xx+d),c
+            case 0x32: opXXCB_32(xxd); break; // sli (xx+d),d
+            case 0x33: opXXCB_33(xxd); break; // sli (xx+d),e
+            case 0x34: opXXCB_34(xxd); break; // sli (xx+d),h
+            case 0x35: opXXCB_35(xxd); break; // sli (xx+d),l
+            case 0x36: opXXCB_36(xxd); break; // sli (xx+d)
+            case 0x37: opXXCB_37(xxd); break; // sli (xx+d),a
+            case 0x38: opXXCB_38(xxd); break; // srl (xx+d),b
+            case 0x39: opXXCB_39(xxd); break; // srl (xx+d),c
+            case 0x3A: opXXCB_3A(xxd); break; // srl (xx+d),d
+            case 0x3B: opXXCB_3B(xxd); break; // srl (xx+d),e
+            case 0x3C: opXXCB_3C(xxd); break; // srl (xx+d),h
+            case 0x3D: opXXCB_3D(xxd); break; // srl (xx+d),l
+            case 0x3E: opXXCB_3E(xxd); break; // srl (xx+d)
+            case 0x3F: opXXCB_3F(xxd); break; // srl (xx+d),a
+            case 0x40:
+            case 0x41:
+            case 0x42:
+            case 0x43:
+            case 0x44:
+            case 0x45:
+            case 0x46:
+            case 0x47: opXXCB_40(xxd); break; // bit 0,(xx+d)
+            case 0x48:
+            case 0x49:
+            case 0x4A:
+            case 0x4B:
+            case 0x4C:
+            case 0x4D:
+            case 0x4E:
+            case 0x4F: opXXCB_48(xxd); break; // bit 1,(xx+d)
+            case 0x50:
+            case 0x51:
+            case 0x52:
+            case 0x53:
+            case 0x54:
+            case 0x55:
+            case 0x56:
+            case 0x57: opXXCB_50(xxd); break; // bit 2,(xx+d)
+            case 0x58:
+            case 0x59:
+            case 0x5A:
+            case 0x5B:
+            case 0x5C:
+            case 0x5D:
+            case 0x5E:
+            case 0x5F: opXXCB_58(xxd); break; // bit 3,(xx+d)
+            case 0x60:
+            case 0x61:
+            case 0x62:
+            case 0x63:
+            case 0x64:
+            case 0x65:
+            case 0x66:
+            case 0x67: opXXCB_60(xxd); break; // bit 4,(xx+d)
+            case 0x68:
+            case 0x69:
+            case 0x6A:
+            case 0x6B:
+            case 0x6C:
+            case 0x6D:
+            case 0x6E:
+            case 0x6F: opXXCB_68(xxd); break; // bit 5,(xx+d)
+            case 0x70:
+            case 0x71:
+            case 0x72:
+            case 0x73:
+            case 0x74:
+            case 0x75:
+            case 0x76:
+            case 0x77: opXXCB_70(xxd); break; // bit 6,(xx+d)
+            case 0x78:
+            case 0x79:
+            case 0x7A:
+            case 0x7B:
+            case 0x7C:
+            case 0x7D:
+            case 0x7E:
+            case 0x7F: opXXCB_78(xxd); break; // bit 7,(xx+d)
+            case 0x80: opXXCB_80(xxd); break; // res 0,(xx+d),b
+            case 0x81: opXXCB_81(xxd); break; // res 0,(xx+d),c
+            case 0x82: opXXCB_82(xxd); break; // res 0,(xx+d),d
+            case 0x83: opXXCB_83(xxd); break; // res 0,(xx+d),e
+            case 0x84: opXXCB_84(xxd); break; // res 0,(xx+d),h
+            case 0x85: opXXCB_85(xxd); break; // res 0,(xx+d),l
+            case 0x86: opXXCB_86(xxd); break; // res 0,(xx+d)
+            case 0x87: opXXCB_87(xxd); break; // res 0,(xx+d),a
+            case 0x88: opXXCB_88(xxd); break; // res 1,(xx+d),b
+            case 0x89: opXXCB_89(xxd); break; // res 1,(xx+d),c
+            case 0x8A: opXXCB_8A(xxd); break; // res 1,(xx+d),d
+            case 0x8B: opXXCB_8B(xxd); break; // res 1,(xx+d),e
+            case 0x8C: opXXCB_8C(xxd); break; // res 1,(xx+d),h
+            case 0x8D: opXXCB_8D(xxd); break; // res 1,(xx+d),l
+            case 0x8E: opXXCB_8E(xxd); break; // res 1,(xx+d)
+            case 0x8F: opXXCB_8F(xxd); break; // res 1,(xx+d),a
+            case 0x90: opXXCB_90(xxd); break; // res 2,(xx+d),b
+            case 0x91: opXXCB_91(xxd); break; // res 2,(xx+d),c
+            case 0x92: opXXCB_92(xxd); break; // res 2,(xx+d),d
+            case 0x93: opXXCB_93(xxd); break; // res 2,(xx+d),e
+            case 0x94: opXXCB_94(xxd); break; // res 2,(xx+d),h
+            case 0x95: opXXCB_95(xxd); break; // res 2,(xx+d),l
+            case 0x96: opXXCB_96(xxd); break; // res 2,(xx+d)
+            case 0x97: opXXCB_97(xxd); break; // res 2,(xx+d),a
+            case 0x98: opXXCB_98(xxd); break; // res 3,(xx+d),b
+            case 0x99: opXXCB_99(xxd); break; // res 3,(xx+d),c
+            case 0x9A: opXXCB_9A(xxd); break; // res 3,(xx+d),d
+            case 0x9B: opXXCB_9B(xxd); break; // res 3,(xx+d),e
+            case 0x9C: opXXCB_9C(xxd); break; // res 3,(xx+d),h
+            case 0x9D: opXXCB_9D(xxd); break; // res 3,(xx+d),l
+            case 0x9E: opXXCB_9E(xxd); break; // res 3,(xx+d)
+            case 0x9F: opXXCB_9F(xxd); break; // res 3,(xx+d),a
+            case 0xA0: opXXCB_A0(xxd); break; // res 4,(xx+d),b
+            case 0xA1: opXXCB_A1(xxd); break; // res 4,(xx+d),c
+            case 0xA2: opXXCB_A2(xxd); break; // res 4,(xx+d),d
+            case 0xA3: opXXCB_A3(xxd); break; // res 4,(xx+d),e
+            case 0xA4: opXXCB_A4(xxd); break; // res 4,(xx+d),h
+            case 0xA5: opXXCB_A5(xxd); break; // res 4,(xx+d),l
+            case 0xA6: opXXCB_A6(xxd); break; // res 4,(xx+d)
+            case 0xA7: opXXCB_A7(xxd); break; // res 4,(xx+d),a
+            case 0xA8: opXXCB_A8(xxd); break; // res 5,(xx+d),b
+            case 0xA9: opXXCB_A9(xxd); break; // res 5,(xx+d),c
+            case 0xAA: opXXCB_AA(xxd); break; // res 5,(xx+d),d
+            case 0xAB: opXXCB_AB(xxd); break; // res 5,(xx+d),e
+            case 0xAC: opXXCB_AC(xxd); break; // res 5,(xx+d),h
+            case 0xAD: opXXCB_AD(xxd); break; // res 5,(xx+d),l
+            case 0xAE: opXXCB_AE(xxd); break; // res 5,(xx+d)
+            case 0xAF: opXXCB_AF(xxd); break; // res 5,(xx+d),a
+            case 0xB0: opXXCB_B0(xxd); break; // res 6,(xx+d),b
+            case 0xB1: opXXCB_B1(xxd); break; // res 6,(xx+d),c
+            case 0xB2: opXXCB_B2(xxd); break; // res 6,(xx+d),d
+            case 0xB3: opXXCB_B3(xxd); break; // res 6,(xx+d),e
+            case 0xB4: opXXCB_B4(xxd); break; // res 6,(xx+d),h
+            case 0xB5: opXXCB_B5(xxd); break; // res 6,(xx+d),l
+            case 0xB6: opXXCB_B6(xxd); break; // res 6,(xx+d)
+            case 0xB7: opXXCB_B7(xxd); break; // res 6,(xx+d),a
+            case 0xB8: opXXCB_B8(xxd); break; // res 7,(xx+d),b
+            case 0xB9: opXXCB_B9(xxd); break; // res 7,(xx+d),c
+            case 0xBA: opXXCB_BA(xxd); break; // res 7,(xx+d),d
+            case 0xBB: opXXCB_BB(xxd); break; // res 7,(xx+d),e
+            case 0xBC: opXXCB_BC(xxd); break; // res 7,(xx+d),h
+            case 0xBD: opXXCB_BD(xxd); break; // res 7,(xx+d),l
+            case 0xBE: opXXCB_BE(xxd); break; // res 7,(xx+d)
+            case 0xBF: opXXCB_BF(xxd); break; // res 7,(xx+d),a
+            case 0xC0: opXXCB_C0(xxd); break; // set 0,(xx+d),b
+            case 0xC1: opXXCB_C1(xxd); break; // set 0,(xx+d),c
+            case 0xC2: opXXCB_C2(xxd); break; // set 0,(xx+d),d
+            case 0xC3: opXXCB_C3(xxd); break; // set 0,(xx+d),e
+            case 0xC4: opXXCB_C4(xxd); break; // set 0,(xx+d),h
+            case 0xC5: opXXCB_C5(xxd); break; // set 0,(xx+d),l
+            case 0xC6: opXXCB_C6(xxd); break; // set 0,(xx+d)
+            case 0xC7: opXXCB_C7(xxd); break; // set 0,(xx+d),a
+            case 0xC8: opXXCB_C8(xxd); break; // set 1,(xx+d),b
+            case 0xC9: opXXCB_C9(xxd); break; // set 1,(xx+d),c
+            case 0xCA: opXXCB_CA(xxd); break; // set 1,(xx+d),d
+            case 0xCB: opXXCB_CB(xxd); break; // set 1,(xx+d),e
+            case 0xCC: opXXCB_CC(xxd); break; // set 1,(xx+d),h
+            case 0xCD: opXXCB_CD(xxd); break; // set 1,(xx+d),l
+            case 0xCE: opXXCB_CE(xxd); break; // set 1,(xx+d)
+            case 0xCF: opXXCB_CF(xxd); break; // set 1,(xx+d),a
+            case 0xD0: opXXCB_D0(xxd); break; // set 2,(xx+d),b
+            case 0xD1: opXXCB_D1(xxd); break; // set 2,(xx+d),c
+            case 0xD2: opXXCB_D2(xxd); break; // set 2,(xx+d),d
+            case 0xD3: opXXCB_D3(xxd); break; // set 2,(xx+d),e
+            case 0xD4: opXXCB_D4(xxd); break; // set 2,(xx+d),h
+            case 0xD5: opXXCB_D5(xxd); break; // set 2,(xx+d),l
+            case 0xD6: opXXCB_D6(xxd); break; // set 2,(xx+d)
+            case 0xD7: opXXCB_D7(xxd); break; // set 2,(xx+d),a
+            case 0xD8: opXXCB_D8(xxd); break; // set 3,(xx+d),b
+            case 0xD9: opXXCB_D9(xxd); break; // set 3,(xx+d),c
+            case 0xDA: opXXCB_DA(xxd); break; // set 3,(xx+d),d
+            case 0xDB: opXXCB_DB(xxd); break; // set 3,(xx+d),e
+            case 0xDC: opXXCB_DC(xxd); break; // set 3,(xx+d),h
+            case 0xDD: opXXCB_DD(xxd); break; // set 3,(xx+d),l
+            case 0xDE: opXXCB_DE(xxd); break; // set 3,(xx+d)
+            case 0xDF: opXXCB_DF(xxd); break; // set 3,(xx+d),a
+            case 0xE0: opXXCB_E0(xxd); break; // set 4,(xx+d),b
+            case 0xE1: opXXCB_E1(xxd); break; // set 4,(xx+d),c
+            case 0xE2: opXXCB_E2(xxd); break; // set 4,(xx+d),d
+            case 0xE3: opXXCB_E3(xxd); break; // set 4,(xx+d),e
+            case 0xE4: opXXCB_E4(xxd); break; // set 4,(xx+d),h
+            case 0xE5: opXXCB_E5(xxd); break; // set 4,(xx+d),l
+            case 0xE6: opXXCB_E6(xxd); break; // set 4,(xx+d)
+            case 0xE7: opXXCB_E7(xxd); break; // set 4,(xx+d),a
+            case 0xE8: opXXCB_E8(xxd); break; // set 5,(xx+d),b
+            case 0xE9: opXXCB_E9(xxd); break; // set 5,(xx+d),c
+            case 0xEA: opXXCB_EA(xxd); break; // set 5,(xx+d),d
+            case 0xEB: opXXCB_EB(xxd); break; // set 5,(xx+d),e
+            case 0xEC: opXXCB_EC(xxd); break; // set 5,(xx+d),h
+            case 0xED: opXXCB_ED(xxd); break; // set 5,(xx+d),l
+            case 0xEE: opXXCB_EE(xxd); break; // set 5,(xx+d)
+            case 0xEF: opXXCB_EF(xxd); break; // set 5,(xx+d),a
+            case 0xF0: opXXCB_F0(xxd); break; // set 6,(xx+d),b
+            case 0xF1: opXXCB_F1(xxd); break; // set 6,(xx+d),c
+            case 0xF2: opXXCB_F2(xxd); break; // set 6,(xx+d),d
+            case 0xF3: opXXCB_F3(xxd); break; // set 6,(xx+d),e
+            case 0xF4: opXXCB_F4(xxd); break; // set 6,(xx+d),h
+            case 0xF5: opXXCB_F5(xxd); break; // set 6,(xx+d),l
+            case 0xF6: opXXCB_F6(xxd); break; // set 6,(xx+d)
+            case 0xF7: opXXCB_F7(xxd); break; // set 6,(xx+d),a
+            case 0xF8: opXXCB_F8(xxd); break; // set 7,(xx+d),b
+            case 0xF9: opXXCB_F9(xxd); break; // set 7,(xx+d),c
+            case 0xFA: opXXCB_FA(xxd); break; // set 7,(xx+d),d
+            case 0xFB: opXXCB_FB(xxd); break; // set 7,(xx+d),e
+            case 0xFC: opXXCB_FC(xxd); break; // set 7,(xx+d),h
+            case 0xFD: opXXCB_FD(xxd); break; // set 7,(xx+d),l
+            case 0xFE: opXXCB_FE(xxd); break; // set 7,(xx+d)
+            case 0xFF: opXXCB_FF(xxd); break; // set 7,(xx+d),a
 
-            // rlc (xx+d)
-            case 0x06:
-                tStates += 23; {
-                Register regval = new Register(dataBus.memRead(xxd));
-                alu.RLC8(regval);
-                dataBus.memWrite(xxd, (byte) regval.getValue());
-            }
-                break;
+        }
+    }
 
-            // rlc (xx+d),a
-            case 0x07:
-                tStates += 23;
-                regs.A.setValue(dataBus.memRead(xxd));
-                alu.RLC8(regs.A);
-                dataBus.memWrite(xxd, (byte) regs.A.getValue());
-                break;
+    /////////////////////////////////////////////////////////////////////////
+    // Instrucciones con prefijo DDCB/FDCB
+
+    // rlc (xx+d),b
+    private void opXXCB_00(short xxd) {
+        tStates += 23;
+        regs.setB(dataBus.memRead(xxd));
+        regs.setB(alu.RLC8(regs.getB()));
+        dataBus.memWrite(xxd, (byte) regs.getB());
+    }
 
-            // rrc (xx+d),b
-            case 0x08:
-                tStates += 23;
-                regs.B.setValue(dataBus.memRead(xxd));
-                alu.RRC8(regs.B);
-                dataBus.memWrite(xxd, (byte) regs.B.getValue());
-                break;
+    // rlc (xx+d),c
+    private void opXXCB_01(short xxd) {
+        tStates += 23;
+        regs.setC(dataBus.memRead(xxd));
+        regs.setC(alu.RLC8(regs.getC()));
+        dataBus.memWrite(xxd, (byte) regs.getC());
+    }
 
-            // rrc (xx+d),c
-            case 0x09:
-                tStates += 23;
-                regs.C.setValue(dataBus.memRead(xxd));
-                alu.RRC8(regs.C);
-                dataBus.memWrite(xxd, (byte) regs.C.getValue());
-                break;
+    // rlc (xx+d),d
+    private void opXXCB_02(short xxd) {
+        tStates += 23;
+        regs.setD(dataBus.memRead(xxd));
+        regs.setD(alu.RLC8(regs.getD()));
+        dataBus.memWrite(xxd, (byte) regs.getD());
+    }
 
-            // rrc (xx+d),d
-            case 0x0A:
-                tStates += 23;
-                regs.D.setValue(dataBus.memRead(xxd));
-                alu.RRC8(regs.D);
-                dataBus.memWrite(xxd, (byte) regs.D.getValue());
-                break;
+    // rlc (xx+d),e
+    private void opXXCB_03(short xxd) {
+        tStates += 23;
+        regs.setE(dataBus.memRead(xxd));
+        regs.setE(alu.RLC8(regs.getE()));
+        dataBus.memWrite(xxd, (byte) regs.getE());
+    }
 
-            // rrc (xx+d),e
-            case 0x0B:
-                tStates += 23;
-                regs.E.setValue(dataBus.memRead(xxd));
-                alu.RRC8(regs.E);
-                dataBus.memWrite(xxd, (byte) regs.E.getValue());
-                break;
+    // rlc (xx+d),h
+    private void opXXCB_04(short xxd) {
+        tStates += 23;
+        regs.setH(dataBus.memRead(xxd));
+        regs.setH(alu.RLC8(regs.getH()));
+        dataBus.memWrite(xxd, (byte) regs.getH());
+    }
 
-            // rrc (xx+d),h
-            case 0x0C:
-                tStates += 23;
-                regs.H.setValue(dataBus.memRead(xxd));
-                alu.RRC8(regs.H);
-                dataBus.memWrite(xxd, (byte) regs.H.getValue());
-                break;
+    // rlc (xx+d),l
+    private void opXXCB_05(short xxd) {
+        tStates += 23;
+        regs.setL(dataBus.memRead(xxd));
+        regs.setL(alu.RLC8(regs.getL()));
+        dataBus.memWrite(xxd, (byte) regs.getL());
+    }
 
-            // rrc (xx+d),l
-            case 0x0D:
-                tStates += 23;
-                regs.L.setValue(dataBus.memRead(xxd));
-                alu.RRC8(regs.L);
-                dataBus.memWrite(xxd, (byte) regs.L.getValue());
-                break;
+    // rlc (xx+d)
+    private void opXXCB_06(short xxd) {
+        tStates += 23;
+        byte regval = alu.RLC8(dataBus.memRead(xxd));
+        dataBus.memWrite(xxd, regval);
+    }
 
-            // rrc (xx+d)
-            case 0x0E:
-                tStates += 23; {
-                Register regval = new Register(dataBus.memRead(xxd));
-                alu.RRC8(regval);
-                dataBus.memWrite(xxd, (byte) regval.getValue());
-            }
-                break;
+    // rlc (xx+d),a
+    private void opXXCB_07(short xxd) {
+        tStates += 23;
+        regs.setA(dataBus.memRead(xxd));
+        regs.setA(alu.RLC8(regs.getA()));
+        dataBus.memWrite(xxd, (byte) regs.getA());
+    }
 
-            // rrc a
-            case 0x0F:
-                tStates += 23;
-                regs.A.setValue(dataBus.memRead(xxd));
-                alu.RRC8(regs.A);
-                dataBus.memWrite(xxd, (byte) regs.A.getValue());
-                break;
+    // rrc (xx+d),b
+    private void opXXCB_08(short xxd) {
+        tStates += 23;
+        regs.setB(dataBus.memRead(xxd));
+        regs.setB(alu.RRC8(regs.getB()));
+        dataBus.memWrite(xxd, (byte) regs.getB());
+    }
 
-            // rl (xx+d),b
-            case 0x10:
-                tStates += 23;
-                regs.B.setValue(dataBus.memRead(xxd));
-                alu.RL8(regs.B);
-                dataBus.memWrite(xxd, (byte) regs.B.getValue());
-                break;
+    // rrc (xx+d),c
+    private void opXXCB_09(short xxd) {
+        tStates += 23;
+        regs.setC(dataBus.memRead(xxd));
+        regs.setC(alu.RRC8(regs.getC()));
+        dataBus.memWrite(xxd, (byte) regs.getC());
+    }
 
-            // rl (xx+d),c
-            case 0x11:
-                tStates += 23;
-                regs.C.setValue(dataBus.memRead(xxd));
-                alu.RL8(regs.C);
-                dataBus.memWrite(xxd, (byte) regs.C.getValue());
-                break;
+    // rrc (xx+d),d
+    private void opXXCB_0A(short xxd) {
+        tStates += 23;
+        regs.setD(dataBus.memRead(xxd));
+        regs.setD(alu.RRC8(regs.getD()));
+        dataBus.memWrite(xxd, (byte) regs.getD());
+    }
 
-            // rl (xx+d),d
-            case 0x12:
-                tStates += 23;
-                regs.D.setValue(dataBus.memRead(xxd));
-                alu.RL8(regs.D);
-                dataBus.memWrite(xxd, (byte) regs.D.getValue());
-                break;
+    // rrc (xx+d),e
+    private void opXXCB_0B(short xxd) {
+        tStates += 23;
+        regs.setE(dataBus.memRead(xxd));
+        regs.setE(alu.RRC8(regs.getE()));
+        dataBus.memWrite(xxd, (byte) regs.getE());
+    }
 
-            // rl (xx+d),e
-            case 0x13:
-                tStates += 23;
-                regs.E.setValue(dataBus.memRead(xxd));
-                alu.RL8(regs.E);
-                dataBus.memWrite(xxd, (byte) regs.E.getValue());
-                break;
+    // rrc (xx+d),h
+    private void opXXCB_0C(short xxd) {
+        tStates += 23;
+        regs.setH(dataBus.memRead(xxd));
+        regs.setH(alu.RRC8(regs.getH()));
+        dataBus.memWrite(xxd, (byte) regs.getH());
+    }
 
-            // rl (xx+d),h
-            case 0x14:
-                tStates += 23;
-                regs.H.setValue(dataBus.memRead(xxd));
-                alu.RL8(regs.H);
-                dataBus.memWrite(xxd, (byte) regs.H.getValue());
-                break;
+    // rrc (xx+d),l
+    private void opXXCB_0D(short xxd) {
+        tStates += 23;
+        regs.setL(dataBus.memRead(xxd));
+        regs.setL(alu.RRC8(regs.getL()));
+        dataBus.memWrite(xxd, (byte) regs.getL());
+    }
 
-            // rl (xx+d),l
-            case 0x15:
-                tStates += 23;
-                regs.L.setValue(dataBus.memRead(xxd));
-                alu.RL8(regs.L);
-                dataBus.memWrite(xxd, (byte) regs.L.getValue());
-                break;
+    // rrc (xx+d)
+    private void opXXCB_0E(short xxd) {
+        tStates += 23;
+        byte regval = alu.RRC8(dataBus.memRead(xxd));
+        dataBus.memWrite(xxd, regval);
+    }
 
-            // rl (xx+d)
-            case 0x16:
-                tStates += 23; {
-                Register regval = new Register(dataBus.memRead(xxd));
-                alu.RL8(regval);
-                dataBus.memWrite(xxd, (byte) regval.getValue());
-            }
-                break;
+    // rrc a
+    private void opXXCB_0F(short xxd) {
+        tStates += 23;
+        regs.setA(dataBus.memRead(xxd));
+        regs.setA(alu.RRC8(regs.getA()));
+        dataBus.memWrite(xxd, (byte) regs.getA());
+    }
 
-            // rl (xx+d),a
-            case 0x17:
-                tStates += 23;
-                regs.A.setValue(dataBus.memRead(xxd));
-                alu.RL8(regs.A);
-                dataBus.memWrite(xxd, (byte) regs.A.getValue());
-                break;
+    // rl (xx+d),b
+    private void opXXCB_10(short xxd) {
+        tStates += 23;
+        regs.setB(dataBus.memRead(xxd));
+        regs.setB(alu.RL8(regs.getB()));
+        dataBus.memWrite(xxd, (byte) regs.getB());
+    }
 
-            // rr (xx+d),b
-            case 0x18:
-                tStates += 23;
-                regs.B.setValue(dataBus.memRead(xxd));
-                alu.RR8(regs.B);
-                dataBus.memWrite(xxd, (byte) regs.B.getValue());
-                break;
+    // rl (xx+d),c
+    private void opXXCB_11(short xxd) {
+        tStates += 23;
+        regs.setC(dataBus.memRead(xxd));
+        regs.setC(alu.RL8(regs.getC()));
+        dataBus.memWrite(xxd, (byte) regs.getC());
+    }
 
-            // rr (xx+d),c
-            case 0x19:
-                tStates += 23;
-                regs.C.setValue(dataBus.memRead(xxd));
-                alu.RR8(regs.C);
-                dataBus.memWrite(xxd, (byte) regs.C.getValue());
-                break;
+    // rl (xx+d),d
+    private void opXXCB_12(short xxd) {
+        tStates += 23;
+        regs.setD(dataBus.memRead(xxd));
+        regs.setD(alu.RL8(regs.getD()));
+        dataBus.memWrite(xxd, (byte) regs.getD());
+    }
 
-            // rr (xx+d),d
-            case 0x1A:
-                tStates += 23;
-                regs.D.setValue(dataBus.memRead(xxd));
-                alu.RR8(regs.D);
-                dataBus.memWrite(xxd, (byte) regs.D.getValue());
-                break;
+    // rl (xx+d),e
+    private void opXXCB_13(short xxd) {
+        tStates += 23;
+        regs.setE(dataBus.memRead(xxd));
+        regs.setE(alu.RL8(regs.getE()));
+        dataBus.memWrite(xxd, (byte) regs.getE());
+    }
 
-            // rr (xx+d),e
-            case 0x1B:
-                tStates += 23;
-                regs.E.setValue(dataBus.memRead(xxd));
-                alu.RR8(regs.E);
-                dataBus.memWrite(xxd, (byte) regs.E.getValue());
-                break;
+    // rl (xx+d),h
+    private void opXXCB_14(short xxd) {
+        tStates += 23;
+        regs.setH(dataBus.memRead(xxd));
+        regs.setH(alu.RL8(regs.getH()));
+        dataBus.memWrite(xxd, (byte) regs.getH());
+    }
 
-            // rr (xx+d),h
-            case 0x1C:
-                tStates += 23;
-                regs.H.setValue(dataBus.memRead(xxd));
-                alu.RR8(regs.H);
-                dataBus.memWrite(xxd, (byte) regs.H.getValue());
-                break;
+    // rl (xx+d),l
+    private void opXXCB_15(short xxd) {
+        tStates += 23;
+        regs.setL(dataBus.memRead(xxd));
+        regs.setL(alu.RL8(regs.getL()));
+        dataBus.memWrite(xxd, (byte) regs.getL());
+    }
 
-            // rr (xx+d),l
-            case 0x1D:
-                tStates += 23;
-                regs.L.setValue(dataBus.memRead(xxd));
-                alu.RR8(regs.L);
-                dataBus.memWrite(xxd, (byte) regs.L.getValue());
-                break;
+    // rl (xx+d)
+    private void opXXCB_16(short xxd) {
+        tStates += 23;
+        byte regval = alu.RL8(dataBus.memRead(xxd));
+        dataBus.memWrite(xxd, regval);
+    }
 
-            // rr (xx+d)
-            case 0x1E:
-                tStates += 23; {
-                Register regval = new Register(dataBus.memRead(xxd));
-                alu.RR8(regval);
-                dataBus.memWrite(xxd, (byte) regval.getValue());
-            }
-                break;
+    // rl (xx+d),a
+    private void opXXCB_17(short xxd) {
+        tStates += 23;
+        regs.setA(dataBus.memRead(xxd));
+        regs.setA(alu.RL8(regs.getA()));
+        dataBus.memWrite(xxd, (byte) regs.getA());
+    }
 
-            // rr (xx+d),a
-            case 0x1F:
-                tStates += 23;
-                regs.A.setValue(dataBus.memRead(xxd));
-                alu.RR8(regs.A);
-                dataBus.memWrite(xxd, (byte) regs.A.getValue());
-                break;
+    // rr (xx+d),b
+    private void opXXCB_18(short xxd) {
+        tStates += 23;
+        regs.setB(dataBus.memRead(xxd));
+        regs.setB(alu.RR8(regs.getB()));
+        dataBus.memWrite(xxd, (byte) regs.getB());
+    }
 
-            // sla (xx+d),b
-            case 0x20:
-                tStates += 23;
-                regs.B.setValue(dataBus.memRead(xxd));
-                alu.SLA8(regs.B);
-                dataBus.memWrite(xxd, (byte) regs.B.getValue());
-                break;
+    // rr (xx+d),c
+    private void opXXCB_19(short xxd) {
+        tStates += 23;
+        regs.setC(dataBus.memRead(xxd));
+        regs.setC(alu.RR8(regs.getC()));
+        dataBus.memWrite(xxd, (byte) regs.getC());
+    }
 
-            // sla (xx+d),c
-            case 0x21:
-                tStates += 23;
-                regs.C.setValue(dataBus.memRead(xxd));
-                alu.SLA8(regs.C);
-                dataBus.memWrite(xxd, (byte) regs.C.getValue());
-                break;
+    // rr (xx+d),d
+    private void opXXCB_1A(short xxd) {
+        tStates += 23;
+        regs.setD(dataBus.memRead(xxd));
+        regs.setD(alu.RR8(regs.getD()));
+        dataBus.memWrite(xxd, (byte) regs.getD());
+    }
 
-            // sla (xx+d),d
-            case 0x22:
-                tStates += 23;
-                regs.D.setValue(dataBus.memRead(xxd));
-                alu.SLA8(regs.D);
-                dataBus.memWrite(xxd, (byte) regs.D.getValue());
-                break;
+    // rr (xx+d),e
+    private void opXXCB_1B(short xxd) {
+        tStates += 23;
+        regs.setE(dataBus.memRead(xxd));
+        regs.setE(alu.RR8(regs.getE()));
+        dataBus.memWrite(xxd, (byte) regs.getE());
+    }
 
-            // sla (xx+d),e
-            case 0x23:
-                tStates += 23;
-                regs.E.setValue(dataBus.memRead(xxd));
-                alu.SLA8(regs.E);
-                dataBus.memWrite(xxd, (byte) regs.E.getValue());
-                break;
+    // rr (xx+d),h
+    private void opXXCB_1C(short xxd) {
+        tStates += 23;
+        regs.setH(dataBus.memRead(xxd));
+        regs.setH(alu.RR8(regs.getH()));
+        dataBus.memWrite(xxd, (byte) regs.getH());
+    }
 
-            // sla (xx+d),h
-            case 0x24:
-                tStates += 23;
-                regs.H.setValue(dataBus.memRead(xxd));
-                alu.SLA8(regs.H);
-                dataBus.memWrite(xxd, (byte) regs.H.getValue());
-                break;
+    // rr (xx+d),l
+    private void opXXCB_1D(short xxd) {
+        tStates += 23;
+        regs.setL(dataBus.memRead(xxd));
+        regs.setL(alu.RR8(regs.getL()));
+        dataBus.memWrite(xxd, (byte) regs.getL());
+    }
 
-            // sla (xx+d),l
-            case 0x25:
-                tStates += 23;
-                regs.L.setValue(dataBus.memRead(xxd));
-                alu.SLA8(regs.L);
-                dataBus.memWrite(xxd, (byte) regs.L.getValue());
-                break;
+    // rr (xx+d)
+    private void opXXCB_1E(short xxd) {
+        tStates += 23;
+        byte regval = alu.RR8(dataBus.memRead(xxd));
+        dataBus.memWrite(xxd, regval);
+    }
 
-            // sla (xx+d)
-            case 0x26:
-                tStates += 23; {
-                Register regval = new Register(dataBus.memRead(xxd));
-                alu.SLA8(regval);
-                dataBus.memWrite(xxd, (byte) regval.getValue());
-            }
-                break;
+    // rr (xx+d),a
+    private void opXXCB_1F(short xxd) {
+        tStates += 23;
+        regs.setA(dataBus.memRead(xxd));
+        regs.setA(alu.RR8(regs.getA()));
+        dataBus.memWrite(xxd, (byte) regs.getA());
+    }
 
-            // sla (xx+d),a
-            case 0x27:
-                tStates += 23;
-                regs.A.setValue(dataBus.memRead(xxd));
-                alu.SLA8(regs.A);
-                dataBus.memWrite(xxd, (byte) regs.A.getValue());
-                break;
+    // sla (xx+d),b
+    private void opXXCB_20(short xxd) {
+        tStates += 23;
+        regs.setB(dataBus.memRead(xxd));
+        regs.setB(alu.SLA8(regs.getB()));
+        dataBus.memWrite(xxd, (byte) regs.getB());
+    }
 
-            // sra (xx+d),b
-            case 0x28:
-                tStates += 23;
-                regs.B.setValue(dataBus.memRead(xxd));
-                alu.SRA8(regs.B);
-                dataBus.memWrite(xxd, (byte) regs.B.getValue());
-                break;
+    // sla (xx+d),c
+    private void opXXCB_21(short xxd) {
+        tStates += 23;
+        regs.setC(dataBus.memRead(xxd));
+        regs.setC(alu.SLA8(regs.getC()));
+        dataBus.memWrite(xxd, (byte) regs.getC());
+    }
 
-            // sra (xx+d),c
-            case 0x29:
-                tStates += 23;
-                regs.C.setValue(dataBus.memRead(xxd));
-                alu.SRA8(regs.C);
-                dataBus.memWrite(xxd, (byte) regs.C.getValue());
-                break;
+    // sla (xx+d),d
+    private void opXXCB_22(short xxd) {
+        tStates += 23;
+        regs.setD(dataBus.memRead(xxd));
+        regs.setD(alu.SLA8(regs.getD()));
+        dataBus.memWrite(xxd, (byte) regs.getD());
+    }
 
-            // sra (xx+d),d
-            case 0x2A:
-                tStates += 23;
-                regs.D.setValue(dataBus.memRead(xxd));
-                alu.SRA8(regs.D);
-                dataBus.memWrite(xxd, (byte) regs.D.getValue());
-                break;
+    // sla (xx+d),e
+    private void opXXCB_23(short xxd) {
+        tStates += 23;
+        regs.setE(dataBus.memRead(xxd));
+        regs.setE(alu.SLA8(regs.getE()));
+        dataBus.memWrite(xxd, (byte) regs.getE());
+    }
 
-            // sra (xx+d),e
-            case 0x2B:
-                tStates += 23;
-                regs.E.setValue(dataBus.memRead(xxd));
-                alu.SRA8(regs.E);
-                dataBus.memWrite(xxd, (byte) regs.E.getValue());
-                break;
+    // sla (xx+d),h
+    private void opXXCB_24(short xxd) {
+        tStates += 23;
+        regs.setH(dataBus.memRead(xxd));
+        regs.setH(alu.SLA8(regs.getH()));
+        dataBus.memWrite(xxd, (byte) regs.getH());
+    }
 
-            // sra (xx+d),h
-            case 0x2C:
-                tStates += 23;
-                regs.H.setValue(dataBus.memRead(xxd));
-                alu.SRA8(regs.H);
-                dataBus.memWrite(xxd, (byte) regs.H.getValue());
-                break;
+    // sla (xx+d),l
+    private void opXXCB_25(short xxd) {
+        tStates += 23;
+        regs.setL(dataBus.memRead(xxd));
+        regs.setL(alu.SLA8(regs.getL()));
+        dataBus.memWrite(xxd, (byte) regs.getL());
+    }
 
-            // sra (xx+d),l
-            case 0x2D:
-                tStates += 23;
-                regs.L.setValue(dataBus.memRead(xxd));
-                alu.SRA8(regs.L);
-                dataBus.memWrite(xxd, (byte) regs.L.getValue());
-                break;
+    // sla (xx+d)
+    private void opXXCB_26(short xxd) {
+        tStates += 23;
+        byte regval = alu.SLA8(dataBus.memRead(xxd));
+        dataBus.memWrite(xxd, regval);
+    }
 
-            // sra (xx+d)
-            case 0x2E:
-                tStates += 23; {
-                Register regval = new Register(dataBus.memRead(xxd));
-                alu.SRA8(regval);
-                dataBus.memWrite(xxd, (byte) regval.getValue());
-            }
-                break;
+    // sla (xx+d),a
+    private void opXXCB_27(short xxd) {
+        tStates += 23;
+        regs.setA(dataBus.memRead(xxd));
+        regs.setA(alu.SLA8(regs.getA()));
+        dataBus.memWrite(xxd, (byte) regs.getA());
+    }
 
-            // sra (xx+d),a
-            case 0x2F:
-                tStates += 23;
-                regs.A.setValue(dataBus.memRead(xxd));
-                alu.SRA8(regs.A);
-                dataBus.memWrite(xxd, (byte) regs.A.getValue());
-                break;
+    // sra (xx+d),b
+    private void opXXCB_28(short xxd) {
+        tStates += 23;
+        regs.setB(dataBus.memRead(xxd));
+        regs.setB(alu.SRA8(regs.getB()));
+        dataBus.memWrite(xxd, (byte) regs.getB());
+    }
 
-            // sli (xx+d),b
-            case 0x30:
-                tStates += 23;
-                regs.B.setValue(dataBus.memRead(xxd));
-                alu.SLI8(regs.B);
-                dataBus.memWrite(xxd, (byte) regs.B.getValue());
-                break;
+    // sra (xx+d),c
+    private void opXXCB_29(short xxd) {
+        tStates += 23;
+        regs.setC(dataBus.memRead(xxd));
+        regs.setC(alu.SRA8(regs.getC()));
+        dataBus.memWrite(xxd, (byte) regs.getC());
+    }
 
-            // sli (xx+d),c
-            case 0x31:
-                tStates += 23;
-                regs.C.setValue(dataBus.memRead(xxd));
-                alu.SLI8(regs.C);
-                dataBus.memWrite(xxd, (byte) regs.C.getValue());
-                break;
+    // sra (xx+d),d
+    private void opXXCB_2A(short xxd) {
+        tStates += 23;
+        regs.setD(dataBus.memRead(xxd));
+        regs.setD(alu.SRA8(regs.getD()));
+        dataBus.memWrite(xxd, (byte) regs.getD());
+    }
 
-            // sli (xx+d),d
-            case 0x32:
-                tStates += 23;
-                regs.D.setValue(dataBus.memRead(xxd));
-                alu.SLI8(regs.D);
-                dataBus.memWrite(xxd, (byte) regs.D.getValue());
-                break;
+    // sra (xx+d),e
+    private void opXXCB_2B(short xxd) {
+        tStates += 23;
+        regs.setE(dataBus.memRead(xxd));
+        regs.setE(alu.SRA8(regs.getE()));
+        dataBus.memWrite(xxd, (byte) regs.getE());
+    }
 
-            // sli (xx+d),e
-            case 0x33:
-                tStates += 23;
-                regs.E.setValue(dataBus.memRead(xxd));
-                alu.SLI8(regs.E);
-                dataBus.memWrite(xxd, (byte) regs.E.getValue());
-                break;
+    // sra (xx+d),h
+    private void opXXCB_2C(short xxd) {
+        tStates += 23;
+        regs.setH(dataBus.memRead(xxd));
+        regs.setH(alu.SRA8(regs.getH()));
+        dataBus.memWrite(xxd, (byte) regs.getH());
+    }
 
-            // sli (xx+d),h
-            case 0x34:
-                tStates += 23;
-                regs.H.setValue(dataBus.memRead(xxd));
-                alu.SLI8(regs.H);
-                dataBus.memWrite(xxd, (byte) regs.H.getValue());
-                break;
+    // sra (xx+d),l
+    private void opXXCB_2D(short xxd) {
+        tStates += 23;
+        regs.setL(dataBus.memRead(xxd));
+        regs.setL(alu.SRA8(regs.getL()));
+        dataBus.memWrite(xxd, (byte) regs.getL());
+    }
 
-            // sli (xx+d),l
-            case 0x35:
-                tStates += 23;
-                regs.L.setValue(dataBus.memRead(xxd));
-                alu.SLI8(regs.L);
-                dataBus.memWrite(xxd, (byte) regs.L.getValue());
-                break;
+    // sra (xx+d)
+    private void opXXCB_2E(short xxd) {
+        tStates += 23;
+        byte regval = alu.SRA8(dataBus.memRead(xxd));
+        dataBus.memWrite(xxd, regval);
+    }
 
-            // sli (xx+d)
-            case 0x36:
-                tStates += 23; {
-                Register regval = new Register(dataBus.memRead(xxd));
-                alu.SLI8(regval);
-                dataBus.memWrite(xxd, (byte) regval.getValue());
-            }
-                break;
+    // sra (xx+d),a
+    private void opXXCB_2F(short xxd) {
+        tStates += 23;
+        regs.setA(dataBus.memRead(xxd));
+        regs.setA(alu.SRA8(regs.getA()));
+        dataBus.memWrite(xxd, (byte) regs.getA());
+    }
 
-            // sli (xx+d),a
-            case 0x37:
-                tStates += 23;
-                regs.A.setValue(dataBus.memRead(xxd));
-                alu.SLI8(regs.A);
-                dataBus.memWrite(xxd, (byte) regs.A.getValue());
-                break;
+    // sli (xx+d),b
+    private void opXXCB_30(short xxd) {
+        tStates += 23;
+        regs.setB(dataBus.memRead(xxd));
+        regs.setB(alu.SLI8(regs.getB()));
+        dataBus.memWrite(xxd, (byte) regs.getB());
+    }
 
-            // srl (xx+d),b
-            case 0x38:
-                tStates += 23;
-                regs.B.setValue(dataBus.memRead(xxd));
-                alu.SRL8(regs.B);
-                dataBus.memWrite(xxd, (byte) regs.B.getValue());
-                break;
+    // sli (xx+d),c
+    private void opXXCB_31(short xxd) {
+        tStates += 23;
+        regs.setC(dataBus.memRead(xxd));
+        regs.setC(alu.SLI8(regs.getC()));
+        dataBus.memWrite(xxd, (byte) regs.getC());
+    }
 
-            // srl (xx+d),c
-            case 0x39:
-                tStates += 23;
-                regs.C.setValue(dataBus.memRead(xxd));
-                alu.SRL8(regs.C);
-                dataBus.memWrite(xxd, (byte) regs.C.getValue());
-                break;
+    // sli (xx+d),d
+    private void opXXCB_32(short xxd) {
+        tStates += 23;
+        regs.setD(dataBus.memRead(xxd));
+        regs.setD(alu.SLI8(regs.getD()));
+        dataBus.memWrite(xxd, (byte) regs.getD());
+    }
 
-            // srl (xx+d),d
-            case 0x3A:
-                tStates += 23;
-                regs.D.setValue(dataBus.memRead(xxd));
-                alu.SRL8(regs.D);
-                dataBus.memWrite(xxd, (byte) regs.D.getValue());
-                break;
+    // sli (xx+d),e
+    private void opXXCB_33(short xxd) {
+        tStates += 23;
+        regs.setE(dataBus.memRead(xxd));
+        regs.setE(alu.SLI8(regs.getE()));
+        dataBus.memWrite(xxd, (byte) regs.getE());
+    }
 
-            // srl (xx+d),e
-            case 0x3B:
-                tStates += 23;
-                regs.E.setValue(dataBus.memRead(xxd));
-                alu.SRL8(regs.E);
-                dataBus.memWrite(xxd, (byte) regs.E.getValue());
-                break;
+    // sli (xx+d),h
+    private void opXXCB_34(short xxd) {
+        tStates += 23;
+        regs.setH(dataBus.memRead(xxd));
+        regs.setH(alu.SLI8(regs.getH()));
+        dataBus.memWrite(xxd, (byte) regs.getH());
+    }
 
-            // srl (xx+d),h
-            case 0x3C:
-                tStates += 23;
-                regs.H.setValue(dataBus.memRead(xxd));
-                alu.SRL8(regs.H);
-                dataBus.memWrite(xxd, (byte) regs.H.getValue());
-                break;
+    // sli (xx+d),l
+    private void opXXCB_35(short xxd) {
+        tStates += 23;
+        regs.setL(dataBus.memRead(xxd));
+        regs.setL(alu.SLI8(regs.getL()));
+        dataBus.memWrite(xxd, (byte) regs.getL());
+    }
 
-            // srl (xx+d),l
-            case 0x3D:
-                tStates += 23;
-                regs.L.setValue(dataBus.memRead(xxd));
-                alu.SRL8(regs.L);
-                dataBus.memWrite(xxd, (byte) regs.L.getValue());
-                break;
+    // sli (xx+d)
+    private void opXXCB_36(short xxd) {
+        tStates += 23;
+        byte regval = alu.SLI8(dataBus.memRead(xxd));
+        dataBus.memWrite(xxd, regval);
+    }
 
-            // srl (xx+d)
-            case 0x3E:
-                tStates += 23; {
-                Register regval = new Register(dataBus.memRead(xxd));
-                alu.SRL8(regval);
-                dataBus.memWrite(xxd, (byte) regval.getValue());
-            }
-                break;
+    // sli (xx+d),a
+    private void opXXCB_37(short xxd) {
+        tStates += 23;
+        regs.setA(dataBus.memRead(xxd));
+        regs.setA(alu.SLI8(regs.getA()));
+        dataBus.memWrite(xxd, (byte) regs.getA());
+    }
 
-            // srl (xx+d),a
-            case 0x3F:
-                tStates += 23;
-                regs.A.setValue(dataBus.memRead(xxd));
-                alu.SRL8(regs.A);
-                dataBus.memWrite(xxd, (byte) regs.A.getValue());
-                break;
+    // srl (xx+d),b
+    private void opXXCB_38(short xxd) {
+        tStates += 23;
+        regs.setB(dataBus.memRead(xxd));
+        regs.setB(alu.SRL8(regs.getB()));
+        dataBus.memWrite(xxd, (byte) regs.getB());
+    }
 
-            // bit 0,(xx+d)
-            case 0x40:
-            case 0x41:
-            case 0x42:
-            case 0x43:
-            case 0x44:
-            case 0x45:
-            case 0x46:
-            case 0x47:
-                tStates += 20;
-                alu.BIT8(dataBus.memRead(xxd), 0);
-                regs.setF5((xxd & 0x2000) != 0);
-                regs.setF3((xxd & 0x0800) != 0);
+    // srl (xx+d),c
+    private void opXXCB_39(short xxd) {
+        tStates += 23;
+        regs.setC(dataBus.memRead(xxd));
+        regs.setC(alu.SRL8(regs.getC()));
+        dataBus.memWrite(xxd, (byte) regs.getC());
+    }
 
-                break;
+    // srl (xx+d),d
+    private void opXXCB_3A(short xxd) {
+        tStates += 23;
+        regs.setD(dataBus.memRead(xxd));
+        regs.setD(alu.SRL8(regs.getD()));
+        dataBus.memWrite(xxd, (byte) regs.getD());
+    }
 
-            // bit 1,(xx+d)
-            case 0x48:
-            case 0x49:
-            case 0x4A:
-            case 0x4B:
-            case 0x4C:
-            case 0x4D:
-            case 0x4E:
-            case 0x4F:
-                tStates += 20;
-                alu.BIT8(dataBus.memRead(xxd), 1);
-                regs.setF5((xxd & 0x2000) != 0);
-                regs.setF3((xxd & 0x0800) != 0);
-                break;
+    // srl (xx+d),e
+    private void opXXCB_3B(short xxd) {
+        tStates += 23;
+        regs.setE(dataBus.memRead(xxd));
+        regs.setE(alu.SRL8(regs.getE()));
+        dataBus.memWrite(xxd, (byte) regs.getE());
+    }
 
-            // bit 2,(xx+d)
-            case 0x50:
-            case 0x51:
-            case 0x52:
-            case 0x53:
-            case 0x54:
-            case 0x55:
-            case 0x56:
-            case 0x57:
-                tStates += 20;
-                alu.BIT8(dataBus.memRead(xxd), 2);
-                regs.setF5((xxd & 0x2000) != 0);
-                regs.setF3((xxd & 0x0800) != 0);
-                break;
+    // srl (xx+d),h
+    private void opXXCB_3C(short xxd) {
+        tStates += 23;
+        regs.setH(dataBus.memRead(xxd));
+        regs.setH(alu.SRL8(regs.getH()));
+        dataBus.memWrite(xxd, (byte) regs.getH());
+    }
 
-            // bit 3,(xx+d)
-            case 0x58:
-            case 0x59:
-            case 0x5A:
-            case 0x5B:
-            case 0x5C:
-            case 0x5D:
-            case 0x5E:
-            case 0x5F:
-                tStates += 20;
-                alu.BIT8(dataBus.memRead(xxd), 3);
-                regs.setF5((xxd & 0x2000) != 0);
-                regs.setF3((xxd & 0x0800) != 0);
-                break;
+    // srl (xx+d),l
+    private void opXXCB_3D(short xxd) {
+        tStates += 23;
+        regs.setL(dataBus.memRead(xxd));
+        regs.setL(alu.SRL8(regs.getL()));
+        dataBus.memWrite(xxd, (byte) regs.getL());
+    }
 
-            // bit 4,(xx+d)
-            case 0x60:
-            case 0x61:
-            case 0x62:
-            case 0x63:
-            case 0x64:
-            case 0x65:
-            case 0x66:
-            case 0x67:
-                tStates += 20;
-                alu.BIT8(dataBus.memRead(xxd), 4);
-                regs.setF5((xxd & 0x2000) != 0);
-                regs.setF3((xxd & 0x0800) != 0);
-                break;
+    // srl (xx+d)
+    private void opXXCB_3E(short xxd) {
+        tStates += 23;
+        byte regval = alu.SRL8(dataBus.memRead(xxd));
+        dataBus.memWrite(xxd, regval);
+    }
 
-            // bit 5,(xx+d)
-            case 0x68:
-            case 0x69:
-            case 0x6A:
-            case 0x6B:
-            case 0x6C:
-            case 0x6D:
-            case 0x6E:
-            case 0x6F:
-                tStates += 20;
-                alu.BIT8(dataBus.memRead(xxd), 5);
-                regs.setF5((xxd & 0x2000) != 0);
-                regs.setF3((xxd & 0x0800) != 0);
-                break;
+    // srl (xx+d),a
+    private void opXXCB_3F(short xxd) {
+        tStates += 23;
+        regs.setA(dataBus.memRead(xxd));
+        regs.setA(alu.SRL8(regs.getA()));
+        dataBus.memWrite(xxd, (byte) regs.getA());
+    }
 
-            // bit 6,(xx+d)
-            case 0x70:
-            case 0x71:
-            case 0x72:
-            case 0x73:
-            case 0x74:
-            case 0x75:
-            case 0x76:
-            case 0x77:
-                tStates += 20;
-                alu.BIT8(dataBus.memRead(xxd), 6);
-                regs.setF5((xxd & 0x2000) != 0);
-                regs.setF3((xxd & 0x0800) != 0);
-                break;
+    // bit 0,(xx+d)
+    private void opXXCB_40(short xxd) {
+        tStates += 20;
+        alu.BIT8(dataBus.memRead(xxd), 0);
+        regs.setF5((xxd & 0x2000) != 0);
+        regs.setF3((xxd & 0x0800) != 0);
+    }
 
-            // bit 7,(xx+d)
-            case 0x78:
-            case 0x79:
-            case 0x7A:
-            case 0x7B:
-            case 0x7C:
-            case 0x7D:
-            case 0x7E:
-            case 0x7F:
-                tStates += 20;
-                alu.BIT8(dataBus.memRead(xxd), 7);
-                regs.setF5((xxd & 0x2000) != 0);
-                regs.setF3((xxd & 0x0800) != 0);
-                break;
+    // bit 1,(xx+d)
+    private void opXXCB_48(short xxd) {
+        tStates += 20;
+        alu.BIT8(dataBus.memRead(xxd), 1);
+        regs.setF5((xxd & 0x2000) != 0);
+        regs.setF3((xxd & 0x0800) != 0);
+    }
 
-            // res 0,(xx+d),b
-            case 0x80:
-                tStates += 23;
-                regs.B.setValue((byte) (dataBus.memRead(xxd) & 0xFE));
-                dataBus.memWrite(xxd, (byte) regs.B.getValue());
-                break;
+    // bit 2,(xx+d)
+    private void opXXCB_50(short xxd) {
+        tStates += 20;
+        alu.BIT8(dataBus.memRead(xxd), 2);
+        regs.setF5((xxd & 0x2000) != 0);
+        regs.setF3((xxd & 0x0800) != 0);
+    }
 
-            // res 0,(xx+d),c
-            case 0x81:
-                tStates += 23;
-                regs.C.setValue((byte) (dataBus.memRead(xxd) & 0xFE));
-                dataBus.memWrite(xxd, (byte) regs.C.getValue());
-                break;
+    // bit 3,(xx+d)
+    private void opXXCB_58(short xxd) {
+        tStates += 20;
+        alu.BIT8(dataBus.memRead(xxd), 3);
+        regs.setF5((xxd & 0x2000) != 0);
+        regs.setF3((xxd & 0x0800) != 0);
+    }
 
-            // res 0,(xx+d),d
-            case 0x82:
-                tStates += 23;
-                regs.D.setValue((byte) (dataBus.memRead(xxd) & 0xFE));
-                dataBus.memWrite(xxd, (byte) regs.D.getValue());
-                break;
+    // bit 4,(xx+d)
+    private void opXXCB_60(short xxd) {
+        tStates += 20;
+        alu.BIT8(dataBus.memRead(xxd), 4);
+        regs.setF5((xxd & 0x2000) != 0);
+        regs.setF3((xxd & 0x0800) != 0);
+    }
 
-            // res 0,(xx+d),e
-            case 0x83:
-                tStates += 23;
-                regs.E.setValue((byte) (dataBus.memRead(xxd) & 0xFE));
-                dataBus.memWrite(xxd, (byte) regs.E.getValue());
-                break;
+    // bit 5,(xx+d)
+    private void opXXCB_68(short xxd) {
+        tStates += 20;
+        alu.BIT8(dataBus.memRead(xxd), 5);
+        regs.setF5((xxd & 0x2000) != 0);
+        regs.setF3((xxd & 0x0800) != 0);
+    }
 
-            // res 0,(xx+d),h
-            case 0x84:
-                tStates += 23;
-                regs.H.setValue((byte) (dataBus.memRead(xxd) & 0xFE));
-                dataBus.memWrite(xxd, (byte) regs.H.getValue());
-                break;
+    // bit 6,(xx+d)
+    private void opXXCB_70(short xxd) {
+        tStates += 20;
+        alu.BIT8(dataBus.memRead(xxd), 6);
+        regs.setF5((xxd & 0x2000) != 0);
+        regs.setF3((xxd & 0x0800) != 0);
+    }
 
-            // res 0,(xx+d),l
-            case 0x85:
-                tStates += 23;
-                regs.L.setValue((byte) (dataBus.memRead(xxd) & 0xFE));
-                dataBus.memWrite(xxd, (byte) regs.L.getValue());
-                break;
+    // bit 7,(xx+d)
+    private void opXXCB_78(short xxd) {
+        tStates += 20;
+        alu.BIT8(dataBus.memRead(xxd), 7);
+        regs.setF5((xxd & 0x2000) != 0);
+        regs.setF3((xxd & 0x0800) != 0);
+    }
 
-            // res 0,(xx+d)
-            case 0x86:
-                tStates += 23;
-                dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) & 0xFE));
-                break;
+    // res 0,(xx+d),b
+    private void opXXCB_80(short xxd) {
+        tStates += 23;
+        regs.setB((byte) (dataBus.memRead(xxd) & 0xFE));
+        dataBus.memWrite(xxd, (byte) regs.getB());
+    }
 
-            // res 0,(xx+d),a
-            case 0x87:
-                tStates += 23;
-                regs.A.setValue((byte) (dataBus.memRead(xxd) & 0xFE));
-                dataBus.memWrite(xxd, (byte) regs.A.getValue());
-                break;
+    // res 0,(xx+d),c
+    private void opXXCB_81(short xxd) {
+        tStates += 23;
+        regs.setC((byte) (dataBus.memRead(xxd) & 0xFE));
+        dataBus.memWrite(xxd, (byte) regs.getC());
+    }
 
-            // res 1,(xx+d),b
-            case 0x88:
-                tStates += 23;
-                regs.B.setValue((byte) (dataBus.memRead(xxd) & 0xFD));
-                dataBus.memWrite(xxd, (byte) regs.B.getValue());
-                break;
+    // res 0,(xx+d),d
+    private void opXXCB_82(short xxd) {
+        tStates += 23;
+        regs.setD((byte) (dataBus.memRead(xxd) & 0xFE));
+        dataBus.memWrite(xxd, (byte) regs.getD());
+    }
 
-            // res 1,(xx+d),c
-            case 0x89:
-                tStates += 23;
-                regs.C.setValue((byte) (dataBus.memRead(xxd) & 0xFD));
-                dataBus.memWrite(xxd, (byte) regs.C.getValue());
-                break;
+    // res 0,(xx+d),e
+    private void opXXCB_83(short xxd) {
+        tStates += 23;
+        regs.setE((byte) (dataBus.memRead(xxd) & 0xFE));
+        dataBus.memWrite(xxd, (byte) regs.getE());
+    }
 
-            // res 1,(xx+d),d
-            case 0x8A:
-                tStates += 23;
-                regs.D.setValue((byte) (dataBus.memRead(xxd) & 0xFD));
-                dataBus.memWrite(xxd, (byte) regs.D.getValue());
-                break;
+    // res 0,(xx+d),h
+    private void opXXCB_84(short xxd) {
+        tStates += 23;
+        regs.setH((byte) (dataBus.memRead(xxd) & 0xFE));
+        dataBus.memWrite(xxd, (byte) regs.getH());
+    }
 
-            // res 1,(xx+d),e
-            case 0x8B:
-                tStates += 23;
-                regs.E.setValue((byte) (dataBus.memRead(xxd) & 0xFD));
-                dataBus.memWrite(xxd, (byte) regs.E.getValue());
-                break;
+    // res 0,(xx+d),l
+    private void opXXCB_85(short xxd) {
+        tStates += 23;
+        regs.setL((byte) (dataBus.memRead(xxd) & 0xFE));
+        dataBus.memWrite(xxd, (byte) regs.getL());
+    }
 
-            // res 1,(xx+d),h
-            case 0x8C:
-                tStates += 23;
-                regs.H.setValue((byte) (dataBus.memRead(xxd) & 0xFD));
-                dataBus.memWrite(xxd, (byte) regs.H.getValue());
-                break;
+    // res 0,(xx+d)
+    private void opXXCB_86(short xxd) {
+        tStates += 23;
+        dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) & 0xFE));
+    }
 
-            // res 1,(xx+d),l
-            case 0x8D:
-                tStates += 23;
-                regs.L.setValue((byte) (dataBus.memRead(xxd) & 0xFD));
-                dataBus.memWrite(xxd, (byte) regs.L.getValue());
-                break;
+    // res 0,(xx+d),a
+    private void opXXCB_87(short xxd) {
+        tStates += 23;
+        regs.setA((byte) (dataBus.memRead(xxd) & 0xFE));
+        dataBus.memWrite(xxd, (byte) regs.getA());
+    }
 
-            // res 1,(xx+d)
-            case 0x8E:
-                tStates += 23;
-                dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) & 0xFD));
-                break;
+    // res 1,(xx+d),b
+    private void opXXCB_88(short xxd) {
+        tStates += 23;
+        regs.setB((byte) (dataBus.memRead(xxd) & 0xFD));
+        dataBus.memWrite(xxd, (byte) regs.getB());
+    }
 
-            // res 1,(xx+d),a
-            case 0x8F:
-                tStates += 23;
-                regs.A.setValue((byte) (dataBus.memRead(xxd) & 0xFD));
-                dataBus.memWrite(xxd, (byte) regs.A.getValue());
-                break;
+    // res 1,(xx+d),c
+    private void opXXCB_89(short xxd) {
+        tStates += 23;
+        regs.setC((byte) (dataBus.memRead(xxd) & 0xFD));
+        dataBus.memWrite(xxd, (byte) regs.getC());
+    }
 
-            // res 2,(xx+d),b
-            case 0x90:
-                tStates += 23;
-                regs.B.setValue((byte) (dataBus.memRead(xxd) & 0xFB));
-                dataBus.memWrite(xxd, (byte) regs.B.getValue());
-                break;
+    // res 1,(xx+d),d
+    private void opXXCB_8A(short xxd) {
+        tStates += 23;
+        regs.setD((byte) (dataBus.memRead(xxd) & 0xFD));
+        dataBus.memWrite(xxd, (byte) regs.getD());
+    }
 
-            // res 2,(xx+d),c
-            case 0x91:
-                tStates += 23;
-                regs.C.setValue((byte) (dataBus.memRead(xxd) & 0xFB));
-                dataBus.memWrite(xxd, (byte) regs.C.getValue());
-                break;
+    // res 1,(xx+d),e
+    private void opXXCB_8B(short xxd) {
+        tStates += 23;
+        regs.setE((byte) (dataBus.memRead(xxd) & 0xFD));
+        dataBus.memWrite(xxd, (byte) regs.getE());
+    }
 
-            // res 2,(xx+d),d
-            case 0x92:
-                tStates += 23;
-                regs.D.setValue((byte) (dataBus.memRead(xxd) & 0xFB));
-                dataBus.memWrite(xxd, (byte) regs.D.getValue());
-                break;
+    // res 1,(xx+d),h
+    private void opXXCB_8C(short xxd) {
+        tStates += 23;
+        regs.setH((byte) (dataBus.memRead(xxd) & 0xFD));
+        dataBus.memWrite(xxd, (byte) regs.getH());
+    }
 
-            // res 2,(xx+d),e
-            case 0x93:
-                tStates += 23;
-                regs.E.setValue((byte) (dataBus.memRead(xxd) & 0xFB));
-                dataBus.memWrite(xxd, (byte) regs.E.getValue());
-                break;
+    // res 1,(xx+d),l
+    private void opXXCB_8D(short xxd) {
+        tStates += 23;
+        regs.setL((byte) (dataBus.memRead(xxd) & 0xFD));
+        dataBus.memWrite(xxd, (byte) regs.getL());
+    }
 
-            // res 2,(xx+d),h
-            case 0x94:
-                tStates += 23;
-                regs.H.setValue((byte) (dataBus.memRead(xxd) & 0xFB));
-                dataBus.memWrite(xxd, (byte) regs.H.getValue());
-                break;
+    // res 1,(xx+d)
+    private void opXXCB_8E(short xxd) {
+        tStates += 23;
+        dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) & 0xFD));
+    }
 
-            // res 2,(xx+d),l
-            case 0x95:
-                tStates += 23;
-                regs.L.setValue((byte) (dataBus.memRead(xxd) & 0xFB));
-                dataBus.memWrite(xxd, (byte) regs.L.getValue());
-                break;
+    // res 1,(xx+d),a
+    private void opXXCB_8F(short xxd) {
+        tStates += 23;
+        regs.setA((byte) (dataBus.memRead(xxd) & 0xFD));
+        dataBus.memWrite(xxd, (byte) regs.getA());
+    }
 
-            // res 2,(xx+d)
-            case 0x96:
-                tStates += 23;
-                dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) & 0xFB));
-                break;
+    // res 2,(xx+d),b
+    private void opXXCB_90(short xxd) {
+        tStates += 23;
+        regs.setB((byte) (dataBus.memRead(xxd) & 0xFB));
+        dataBus.memWrite(xxd, (byte) regs.getB());
+    }
 
-            // res 2,(xx+d),a
-            case 0x97:
-                tStates += 23;
-                regs.A.setValue((byte) (dataBus.memRead(xxd) & 0xFB));
-                dataBus.memWrite(xxd, (byte) regs.A.getValue());
-                break;
+    // res 2,(xx+d),c
+    private void opXXCB_91(short xxd) {
+        tStates += 23;
+        regs.setC((byte) (dataBus.memRead(xxd) & 0xFB));
+        dataBus.memWrite(xxd, (byte) regs.getC());
+    }
 
-            // res 3,(xx+d),b
-            case 0x98:
-                tStates += 23;
-                regs.B.setValue((byte) (dataBus.memRead(xxd) & 0xF7));
-                dataBus.memWrite(xxd, (byte) regs.B.getValue());
-                break;
+    // res 2,(xx+d),d
+    private void opXXCB_92(short xxd) {
+        tStates += 23;
+        regs.setD((byte) (dataBus.memRead(xxd) & 0xFB));
+        dataBus.memWrite(xxd, (byte) regs.getD());
+    }
 
-            // res 3,(xx+d),c
-            case 0x99:
-                tStates += 23;
-                regs.C.setValue((byte) (dataBus.memRead(xxd) & 0xF7));
-                dataBus.memWrite(xxd, (byte) regs.C.getValue());
-                break;
+    // res 2,(xx+d),e
+    private void opXXCB_93(short xxd) {
+        tStates += 23;
+        regs.setE((byte) (dataBus.memRead(xxd) & 0xFB));
+        dataBus.memWrite(xxd, (byte) regs.getE());
+    }
 
-            // res 3,(xx+d),d
-            case 0x9A:
-                tStates += 23;
-                regs.D.setValue((byte) (dataBus.memRead(xxd) & 0xF7));
-                dataBus.memWrite(xxd, (byte) regs.D.getValue());
-                break;
+    // res 2,(xx+d),h
+    private void opXXCB_94(short xxd) {
+        tStates += 23;
+        regs.setH((byte) (dataBus.memRead(xxd) & 0xFB));
+        dataBus.memWrite(xxd, (byte) regs.getH());
+    }
 
-            // res 3,(xx+d),e
-            case 0x9B:
-                tStates += 23;
-                regs.E.setValue((byte) (dataBus.memRead(xxd) & 0xF7));
-                dataBus.memWrite(xxd, (byte) regs.E.getValue());
-                break;
+    // res 2,(xx+d),l
+    private void opXXCB_95(short xxd) {
+        tStates += 23;
+        regs.setL((byte) (dataBus.memRead(xxd) & 0xFB));
+        dataBus.memWrite(xxd, (byte) regs.getL());
+    }
 
-            // res 3,(xx+d),h
-            case 0x9C:
-                tStates += 23;
-                regs.H.setValue((byte) (dataBus.memRead(xxd) & 0xF7));
-                dataBus.memWrite(xxd, (byte) regs.H.getValue());
-                break;
+    // res 2,(xx+d)
+    private void opXXCB_96(short xxd) {
+        tStates += 23;
+        dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) & 0xFB));
+    }
 
-            // res 3,(xx+d),l
-            case 0x9D:
-                tStates += 23;
-                regs.L.setValue((byte) (dataBus.memRead(xxd) & 0xF7));
-                dataBus.memWrite(xxd, (byte) regs.L.getValue());
-                break;
+    // res 2,(xx+d),a
+    private void opXXCB_97(short xxd) {
+        tStates += 23;
+        regs.setA((byte) (dataBus.memRead(xxd) & 0xFB));
+        dataBus.memWrite(xxd, (byte) regs.getA());
+    }
 
-            // res 3,(xx+d)
-            case 0x9E:
-                tStates += 23;
-                dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) & 0xF7));
-                break;
+    // res 3,(xx+d),b
+    private void opXXCB_98(short xxd) {
+        tStates += 23;
+        regs.setB((byte) (dataBus.memRead(xxd) & 0xF7));
+        dataBus.memWrite(xxd, (byte) regs.getB());
+    }
 
-            // res 3,(xx+d),a
-            case 0x9F:
-                tStates += 23;
-                regs.A.setValue((byte) (dataBus.memRead(xxd) & 0xF7));
-                dataBus.memWrite(xxd, (byte) regs.A.getValue());
-                break;
+    // res 3,(xx+d),c
+    private void opXXCB_99(short xxd) {
+        tStates += 23;
+        regs.setC((byte) (dataBus.memRead(xxd) & 0xF7));
+        dataBus.memWrite(xxd, (byte) regs.getC());
+    }
 
-            // res 4,(xx+d),b
-            case 0xA0:
-                tStates += 23;
-                regs.B.setValue((byte) (dataBus.memRead(xxd) & 0xEF));
-                dataBus.memWrite(xxd, (byte) regs.B.getValue());
-                break;
+    // res 3,(xx+d),d
+    private void opXXCB_9A(short xxd) {
+        tStates += 23;
+        regs.setD((byte) (dataBus.memRead(xxd) & 0xF7));
+        dataBus.memWrite(xxd, (byte) regs.getD());
+    }
 
-            // res 4,(xx+d),c
-            case 0xA1:
-                tStates += 23;
-                regs.C.setValue((byte) (dataBus.memRead(xxd) & 0xEF));
-                dataBus.memWrite(xxd, (byte) regs.C.getValue());
-                break;
+    // res 3,(xx+d),e
+    private void opXXCB_9B(short xxd) {
+        tStates += 23;
+        regs.setE((byte) (dataBus.memRead(xxd) & 0xF7));
+        dataBus.memWrite(xxd, (byte) regs.getE());
+    }
 
-            // res 4,(xx+d),d
-            case 0xA2:
-                tStates += 23;
-                regs.D.setValue((byte) (dataBus.memRead(xxd) & 0xEF));
-                dataBus.memWrite(xxd, (byte) regs.D.getValue());
-                break;
+    // res 3,(xx+d),h
+    private void opXXCB_9C(short xxd) {
+        tStates += 23;
+        regs.setH((byte) (dataBus.memRead(xxd) & 0xF7));
+        dataBus.memWrite(xxd, (byte) regs.getH());
+    }
 
-            // res 4,(xx+d),e
-            case 0xA3:
-                tStates += 23;
-                regs.E.setValue((byte) (dataBus.memRead(xxd) & 0xEF));
-                dataBus.memWrite(xxd, (byte) regs.E.getValue());
-                break;
+    // res 3,(xx+d),l
+    private void opXXCB_9D(short xxd) {
+        tStates += 23;
+        regs.setL((byte) (dataBus.memRead(xxd) & 0xF7));
+        dataBus.memWrite(xxd, (byte) regs.getL());
+    }
 
-            // res 4,(xx+d),h
-            case 0xA4:
-                tStates += 23;
-                regs.H.setValue((byte) (dataBus.memRead(xxd) & 0xEF));
-                dataBus.memWrite(xxd, (byte) regs.H.getValue());
-                break;
+    // res 3,(xx+d)
+    private void opXXCB_9E(short xxd) {
+        tStates += 23;
+        dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) & 0xF7));
+    }
 
-            // res 4,(xx+d),l
-            case 0xA5:
-                tStates += 23;
-                regs.L.setValue((byte) (dataBus.memRead(xxd) & 0xEF));
-                dataBus.memWrite(xxd, (byte) regs.L.getValue());
-                break;
+    // res 3,(xx+d),a
+    private void opXXCB_9F(short xxd) {
+        tStates += 23;
+        regs.setA((byte) (dataBus.memRead(xxd) & 0xF7));
+        dataBus.memWrite(xxd, (byte) regs.getA());
+    }
 
-            // res 4,(xx+d)
-            case 0xA6:
-                tStates += 23;
-                dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) & 0xEF));
-                break;
+    // res 4,(xx+d),b
+    private void opXXCB_A0(short xxd) {
+        tStates += 23;
+        regs.setB((byte) (dataBus.memRead(xxd) & 0xEF));
+        dataBus.memWrite(xxd, (byte) regs.getB());
+    }
 
-            // res 4,(xx+d),a
-            case 0xA7:
-                tStates += 23;
-                regs.A.setValue((byte) (dataBus.memRead(xxd) & 0xEF));
-                dataBus.memWrite(xxd, (byte) regs.A.getValue());
-                break;
+    // res 4,(xx+d),c
+    private void opXXCB_A1(short xxd) {
+        tStates += 23;
+        regs.setC((byte) (dataBus.memRead(xxd) & 0xEF));
+        dataBus.memWrite(xxd, (byte) regs.getC());
+    }
 
-            // res 5,(xx+d),b
-            case 0xA8:
-                tStates += 23;
-                regs.B.setValue((byte) (dataBus.memRead(xxd) & 0xDF));
-                dataBus.memWrite(xxd, (byte) regs.B.getValue());
-                break;
+    // res 4,(xx+d),d
+    private void opXXCB_A2(short xxd) {
+        tStates += 23;
+        regs.setD((byte) (dataBus.memRead(xxd) & 0xEF));
+        dataBus.memWrite(xxd, (byte) regs.getD());
+    }
 
-            // res 5,(xx+d),c
-            case 0xA9:
-                tStates += 23;
-                regs.C.setValue((byte) (dataBus.memRead(xxd) & 0xDF));
-                dataBus.memWrite(xxd, (byte) regs.C.getValue());
-                break;
+    // res 4,(xx+d),e
+    private void opXXCB_A3(short xxd) {
+        tStates += 23;
+        regs.setE((byte) (dataBus.memRead(xxd) & 0xEF));
+        dataBus.memWrite(xxd, (byte) regs.getE());
+    }
 
-            // res 5,(xx+d),d
-            case 0xAA:
-                tStates += 23;
-                regs.D.setValue((byte) (dataBus.memRead(xxd) & 0xDF));
-                dataBus.memWrite(xxd, (byte) regs.D.getValue());
-                break;
+    // res 4,(xx+d),h
+    private void opXXCB_A4(short xxd) {
+        tStates += 23;
+        regs.setH((byte) (dataBus.memRead(xxd) & 0xEF));
+        dataBus.memWrite(xxd, (byte) regs.getH());
+    }
 
-            // res 5,(xx+d),e
-            case 0xAB:
-                tStates += 23;
-                regs.E.setValue((byte) (dataBus.memRead(xxd) & 0xDF));
-                dataBus.memWrite(xxd, (byte) regs.E.getValue());
-                break;
+    // res 4,(xx+d),l
+    private void opXXCB_A5(short xxd) {
+        tStates += 23;
+        regs.setL((byte) (dataBus.memRead(xxd) & 0xEF));
+        dataBus.memWrite(xxd, (byte) regs.getL());
+    }
 
-            // res 5,(xx+d),h
-            case 0xAC:
-                tStates += 23;
-                regs.H.setValue((byte) (dataBus.memRead(xxd) & 0xDF));
-                dataBus.memWrite(xxd, (byte) regs.H.getValue());
-                break;
+    // res 4,(xx+d)
+    private void opXXCB_A6(short xxd) {
+        tStates += 23;
+        dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) & 0xEF));
+    }
 
-            // res 5,(xx+d),l
-            case 0xAD:
-                tStates += 23;
-                regs.L.setValue((byte) (dataBus.memRead(xxd) & 0xDF));
-                dataBus.memWrite(xxd, (byte) regs.L.getValue());
-                break;
+    // res 4,(xx+d),a
+    private void opXXCB_A7(short xxd) {
+        tStates += 23;
+        regs.setA((byte) (dataBus.memRead(xxd) & 0xEF));
+        dataBus.memWrite(xxd, (byte) regs.getA());
+    }
 
-            // res 5,(xx+d)
-            case 0xAE:
-                tStates += 23;
-                dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) & 0xDF));
-                break;
+    // res 5,(xx+d),b
+    private void opXXCB_A8(short xxd) {
+        tStates += 23;
+        regs.setB((byte) (dataBus.memRead(xxd) & 0xDF));
+        dataBus.memWrite(xxd, (byte) regs.getB());
+    }
 
-            // res 5,(xx+d),a
-            case 0xAF:
-                tStates += 23;
-                regs.A.setValue((byte) (dataBus.memRead(xxd) & 0xDF));
-                dataBus.memWrite(xxd, (byte) regs.A.getValue());
-                break;
+    // res 5,(xx+d),c
+    private void opXXCB_A9(short xxd) {
+        tStates += 23;
+        regs.setC((byte) (dataBus.memRead(xxd) & 0xDF));
+        dataBus.memWrite(xxd, (byte) regs.getC());
+    }
 
-            // res 6,(xx+d),b
-            case 0xB0:
-                tStates += 23;
-                regs.B.setValue((byte) (dataBus.memRead(xxd) & 0xBF));
-                dataBus.memWrite(xxd, (byte) regs.B.getValue());
-                break;
+    // res 5,(xx+d),d
+    private void opXXCB_AA(short xxd) {
+        tStates += 23;
+        regs.setD((byte) (dataBus.memRead(xxd) & 0xDF));
+        dataBus.memWrite(xxd, (byte) regs.getD());
+    }
 
-            // res 6,(xx+d),c
-            case 0xB1:
-                tStates += 23;
-                regs.C.setValue((byte) (dataBus.memRead(xxd) & 0xBF));
-                dataBus.memWrite(xxd, (byte) regs.C.getValue());
-                break;
+    // res 5,(xx+d),e
+    private void opXXCB_AB(short xxd) {
+        tStates += 23;
+        regs.setE((byte) (dataBus.memRead(xxd) & 0xDF));
+        dataBus.memWrite(xxd, (byte) regs.getE());
+    }
 
-            // res 6,(xx+d),d
-            case 0xB2:
-                tStates += 23;
-                regs.D.setValue((byte) (dataBus.memRead(xxd) & 0xBF));
-                dataBus.memWrite(xxd, (byte) regs.D.getValue());
-                break;
+    // res 5,(xx+d),h
+    private void opXXCB_AC(short xxd) {
+        tStates += 23;
+        regs.setH((byte) (dataBus.memRead(xxd) & 0xDF));
+        dataBus.memWrite(xxd, (byte) regs.getH());
+    }
 
-            // res 6,(xx+d),e
-            case 0xB3:
-                tStates += 23;
-                regs.E.setValue((byte) (dataBus.memRead(xxd) & 0xBF));
-                dataBus.memWrite(xxd, (byte) regs.E.getValue());
-                break;
+    // res 5,(xx+d),l
+    private void opXXCB_AD(short xxd) {
+        tStates += 23;
+        regs.setL((byte) (dataBus.memRead(xxd) & 0xDF));
+        dataBus.memWrite(xxd, (byte) regs.getL());
+    }
 
-            // res 6,(xx+d),h
-            case 0xB4:
-                tStates += 23;
-                regs.H.setValue((byte) (dataBus.memRead(xxd) & 0xBF));
-                dataBus.memWrite(xxd, (byte) regs.H.getValue());
-                break;
+    // res 5,(xx+d)
+    private void opXXCB_AE(short xxd) {
+        tStates += 23;
+        dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) & 0xDF));
+    }
 
-            // res 6,(xx+d),l
-            case 0xB5:
-                tStates += 23;
-                regs.L.setValue((byte) (dataBus.memRead(xxd) & 0xBF));
-                dataBus.memWrite(xxd, (byte) regs.L.getValue());
-                break;
+    // res 5,(xx+d),a
+    private void opXXCB_AF(short xxd) {
+        tStates += 23;
+        regs.setA((byte) (dataBus.memRead(xxd) & 0xDF));
+        dataBus.memWrite(xxd, (byte) regs.getA());
+    }
 
-            // res 6,(xx+d)
-            case 0xB6:
-                tStates += 23;
-                dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) & 0xBF));
-                break;
+    // res 6,(xx+d),b
+    private void opXXCB_B0(short xxd) {
+        tStates += 23;
+        regs.setB((byte) (dataBus.memRead(xxd) & 0xBF));
+        dataBus.memWrite(xxd, (byte) regs.getB());
+    }
 
-            // res 6,(xx+d),a
-            case 0xB7:
-                tStates += 23;
-                regs.A.setValue((byte) (dataBus.memRead(xxd) & 0xBF));
-                dataBus.memWrite(xxd, (byte) regs.A.getValue());
-                break;
+    // res 6,(xx+d),c
+    private void opXXCB_B1(short xxd) {
+        tStates += 23;
+        regs.setC((byte) (dataBus.memRead(xxd) & 0xBF));
+        dataBus.memWrite(xxd, (byte) regs.getC());
+    }
 
-            // res 7,(xx+d),b
-            case 0xB8:
-                tStates += 23;
-                regs.B.setValue((byte) (dataBus.memRead(xxd) & 0x7F));
-                dataBus.memWrite(xxd, (byte) regs.B.getValue());
-                break;
+    // res 6,(xx+d),d
+    private void opXXCB_B2(short xxd) {
+        tStates += 23;
+        regs.setD((byte) (dataBus.memRead(xxd) & 0xBF));
+        dataBus.memWrite(xxd, (byte) regs.getD());
+    }
 
-            // res 7,(xx+d),c
-            case 0xB9:
-                tStates += 23;
-                regs.C.setValue((byte) (dataBus.memRead(xxd) & 0x7F));
-                dataBus.memWrite(xxd, (byte) regs.C.getValue());
-                break;
+    // res 6,(xx+d),e
+    private void opXXCB_B3(short xxd) {
+        tStates += 23;
+        regs.setE((byte) (dataBus.memRead(xxd) & 0xBF));
+        dataBus.memWrite(xxd, (byte) regs.getE());
+    }
 
-            // res 7,(xx+d),d
-            case 0xBA:
-                tStates += 23;
-                regs.D.setValue((byte) (dataBus.memRead(xxd) & 0x7F));
-                dataBus.memWrite(xxd, (byte) regs.D.getValue());
-                break;
+    // res 6,(xx+d),h
+    private void opXXCB_B4(short xxd) {
+        tStates += 23;
+        regs.setH((byte) (dataBus.memRead(xxd) & 0xBF));
+        dataBus.memWrite(xxd, (byte) regs.getH());
+    }
 
-            // res 7,(xx+d),e
-            case 0xBB:
-                tStates += 23;
-                regs.E.setValue((byte) (dataBus.memRead(xxd) & 0x7F));
-                dataBus.memWrite(xxd, (byte) regs.E.getValue());
-                break;
+    // res 6,(xx+d),l
+    private void opXXCB_B5(short xxd) {
+        tStates += 23;
+        regs.setL((byte) (dataBus.memRead(xxd) & 0xBF));
+        dataBus.memWrite(xxd, (byte) regs.getL());
+    }
 
-            // res 7,(xx+d),h
-            case 0xBC:
-                tStates += 23;
-                regs.H.setValue((byte) (dataBus.memRead(xxd) & 0x7F));
-                dataBus.memWrite(xxd, (byte) regs.H.getValue());
-                break;
+    // res 6,(xx+d)
+    private void opXXCB_B6(short xxd) {
+        tStates += 23;
+        dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) & 0xBF));
+    }
 
-            // res 7,(xx+d),l
-            case 0xBD:
-                tStates += 23;
-                regs.L.setValue((byte) (dataBus.memRead(xxd) & 0x7F));
-                dataBus.memWrite(xxd, (byte) regs.L.getValue());
-                break;
+    // res 6,(xx+d),a
+    private void opXXCB_B7(short xxd) {
+        tStates += 23;
+        regs.setA((byte) (dataBus.memRead(xxd) & 0xBF));
+        dataBus.memWrite(xxd, (byte) regs.getA());
+    }
 
-            // res 7,(xx+d)
-            case 0xBE:
-                tStates += 23;
-                dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) & 0x7F));
-                break;
+    // res 7,(xx+d),b
+    private void opXXCB_B8(short xxd) {
+        tStates += 23;
+        regs.setB((byte) (dataBus.memRead(xxd) & 0x7F));
+        dataBus.memWrite(xxd, (byte) regs.getB());
+    }
 
-            // res 7,(xx+d),a
-            case 0xBF:
-                tStates += 23;
-                regs.A.setValue((byte) (dataBus.memRead(xxd) & 0x7F));
-                dataBus.memWrite(xxd, (byte) regs.A.getValue());
-                break;
+    // res 7,(xx+d),c
+    private void opXXCB_B9(short xxd) {
+        tStates += 23;
+        regs.setC((byte) (dataBus.memRead(xxd) & 0x7F));
+        dataBus.memWrite(xxd, (byte) regs.getC());
+    }
 
-            // set 0,(xx+d),b
-            case 0xC0:
-                tStates += 23;
-                regs.B.setValue((byte) (dataBus.memRead(xxd) | 0x01));
-                dataBus.memWrite(xxd, (byte) regs.B.getValue());
-                break;
+    // res 7,(xx+d),d
+    private void opXXCB_BA(short xxd) {
+        tStates += 23;
+        regs.setD((byte) (dataBus.memRead(xxd) & 0x7F));
+        dataBus.memWrite(xxd, (byte) regs.getD());
+    }
 
-            // set 0,(xx+d),c
-            case 0xC1:
-                tStates += 23;
-                regs.C.setValue((byte) (dataBus.memRead(xxd) | 0x01));
-                dataBus.memWrite(xxd, (byte) regs.C.getValue());
-                break;
+    // res 7,(xx+d),e
+    private void opXXCB_BB(short xxd) {
+        tStates += 23;
+        regs.setE((byte) (dataBus.memRead(xxd) & 0x7F));
+        dataBus.memWrite(xxd, (byte) regs.getE());
+    }
 
-            // set 0,(xx+d),d
-            case 0xC2:
-                tStates += 23;
-                regs.D.setValue((byte) (dataBus.memRead(xxd) | 0x01));
-                dataBus.memWrite(xxd, (byte) regs.D.getValue());
-                break;
+    // res 7,(xx+d),h
+    private void opXXCB_BC(short xxd) {
+        tStates += 23;
+        regs.setH((byte) (dataBus.memRead(xxd) & 0x7F));
+        dataBus.memWrite(xxd, (byte) regs.getH());
+    }
 
-            // set 0,(xx+d),e
-            case 0xC3:
-                tStates += 23;
-                regs.E.setValue((byte) (dataBus.memRead(xxd) | 0x01));
-                dataBus.memWrite(xxd, (byte) regs.E.getValue());
-                break;
+    // res 7,(xx+d),l
+    private void opXXCB_BD(short xxd) {
+        tStates += 23;
+        regs.setL((byte) (dataBus.memRead(xxd) & 0x7F));
+        dataBus.memWrite(xxd, (byte) regs.getL());
+    }
 
-            // set 0,(xx+d),h
-            case 0xC4:
-                tStates += 23;
-                regs.H.setValue((byte) (dataBus.memRead(xxd) | 0x01));
-                dataBus.memWrite(xxd, (byte) regs.H.getValue());
-                break;
+    // res 7,(xx+d)
+    private void opXXCB_BE(short xxd) {
+        tStates += 23;
+        dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) & 0x7F));
+    }
 
-            // set 0,(xx+d),l
-            case 0xC5:
-                tStates += 23;
-                regs.L.setValue((byte) (dataBus.memRead(xxd) | 0x01));
-                dataBus.memWrite(xxd, (byte) regs.L.getValue());
-                break;
+    // res 7,(xx+d),a
+    private void opXXCB_BF(short xxd) {
+        tStates += 23;
+        regs.setA((byte) (dataBus.memRead(xxd) & 0x7F));
+        dataBus.memWrite(xxd, (byte) regs.getA());
+    }
 
-            // set 0,(xx+d)
-            case 0xC6:
-                tStates += 23;
-                dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) | 0x01));
-                break;
+    // set 0,(xx+d),b
+    private void opXXCB_C0(short xxd) {
+        tStates += 23;
+        regs.setB((byte) (dataBus.memRead(xxd) | 0x01));
+        dataBus.memWrite(xxd, (byte) regs.getB());
+    }
 
-            // set 0,(xx+d),a
-            case 0xC7:
-                tStates += 23;
-                regs.A.setValue((byte) (dataBus.memRead(xxd) | 0x01));
-                dataBus.memWrite(xxd, (byte) regs.A.getValue());
-                break;
+    // set 0,(xx+d),c
+    private void opXXCB_C1(short xxd) {
+        tStates += 23;
+        regs.setC((byte) (dataBus.memRead(xxd) | 0x01));
+        dataBus.memWrite(xxd, (byte) regs.getC());
+    }
 
-            // set 1,(xx+d),b
-            case 0xC8:
-                tStates += 23;
-                regs.B.setValue((byte) (dataBus.memRead(xxd) | 0x02));
-                dataBus.memWrite(xxd, (byte) regs.B.getValue());
-                break;
+    // set 0,(xx+d),d
+    private void opXXCB_C2(short xxd) {
+        tStates += 23;
+        regs.setD((byte) (dataBus.memRead(xxd) | 0x01));
+        dataBus.memWrite(xxd, (byte) regs.getD());
+    }
 
-            // set 1,(xx+d),c
-            case 0xC9:
-                tStates += 23;
-                regs.C.setValue((byte) (dataBus.memRead(xxd) | 0x02));
-                dataBus.memWrite(xxd, (byte) regs.C.getValue());
-                break;
+    // set 0,(xx+d),e
+    private void opXXCB_C3(short xxd) {
+        tStates += 23;
+        regs.setE((byte) (dataBus.memRead(xxd) | 0x01));
+        dataBus.memWrite(xxd, (byte) regs.getE());
+    }
 
-            // set 1,(xx+d),d
-            case 0xCA:
-                tStates += 23;
-                regs.D.setValue((byte) (dataBus.memRead(xxd) | 0x02));
-                dataBus.memWrite(xxd, (byte) regs.D.getValue());
-                break;
+    // set 0,(xx+d),h
+    private void opXXCB_C4(short xxd) {
+        tStates += 23;
+        regs.setH((byte) (dataBus.memRead(xxd) | 0x01));
+        dataBus.memWrite(xxd, (byte) regs.getH());
+    }
 
-            // set 1,(xx+d),e
-            case 0xCB:
-                tStates += 23;
-                regs.E.setValue((byte) (dataBus.memRead(xxd) | 0x02));
-                dataBus.memWrite(xxd, (byte) regs.E.getValue());
-                break;
+    // set 0,(xx+d),l
+    private void opXXCB_C5(short xxd) {
+        tStates += 23;
+        regs.setL((byte) (dataBus.memRead(xxd) | 0x01));
+        dataBus.memWrite(xxd, (byte) regs.getL());
+    }
 
-            // set 1,(xx+d),h
-            case 0xCC:
-                tStates += 23;
-                regs.H.setValue((byte) (dataBus.memRead(xxd) | 0x02));
-                dataBus.memWrite(xxd, (byte) regs.H.getValue());
-                break;
+    // set 0,(xx+d)
+    private void opXXCB_C6(short xxd) {
+        tStates += 23;
+        dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) | 0x01));
+    }
 
-            // set 1,(xx+d),l
-            case 0xCD:
-                tStates += 23;
-                regs.L.setValue((byte) (dataBus.memRead(xxd) | 0x02));
-                dataBus.memWrite(xxd, (byte) regs.L.getValue());
-                break;
+    // set 0,(xx+d),a
+    private void opXXCB_C7(short xxd) {
+        tStates += 23;
+        regs.setA((byte) (dataBus.memRead(xxd) | 0x01));
+        dataBus.memWrite(xxd, (byte) regs.getA());
+    }
 
-            // set 1,(xx+d)
-            case 0xCE:
-                tStates += 23;
-                dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) | 0x02));
-                break;
+    // set 1,(xx+d),b
+    private void opXXCB_C8(short xxd) {
+        tStates += 23;
+        regs.setB((byte) (dataBus.memRead(xxd) | 0x02));
+        dataBus.memWrite(xxd, (byte) regs.getB());
+    }
 
-            // set 1,(xx+d),a
-            case 0xCF:
-                tStates += 23;
-                regs.A.setValue((byte) (dataBus.memRead(xxd) | 0x02));
-                dataBus.memWrite(xxd, (byte) regs.A.getValue());
-                break;
+    // set 1,(xx+d),c
+    private void opXXCB_C9(short xxd) {
+        tStates += 23;
+        regs.setC((byte) (dataBus.memRead(xxd) | 0x02));
+        dataBus.memWrite(xxd, (byte) regs.getC());
+    }
 
-            // set 2,(xx+d),b
-            case 0xD0:
-                tStates += 23;
-                regs.B.setValue((byte) (dataBus.memRead(xxd) | 0x04));
-                dataBus.memWrite(xxd, (byte) regs.B.getValue());
-                break;
+    // set 1,(xx+d),d
+    private void opXXCB_CA(short xxd) {
+        tStates += 23;
+        regs.setD((byte) (dataBus.memRead(xxd) | 0x02));
+        dataBus.memWrite(xxd, (byte) regs.getD());
+    }
 
-            // set 2,(xx+d),c
-            case 0xD1:
-                tStates += 23;
-                regs.C.setValue((byte) (dataBus.memRead(xxd) | 0x04));
-                dataBus.memWrite(xxd, (byte) regs.C.getValue());
-                break;
+    // set 1,(xx+d),e
+    private void opXXCB_CB(short xxd) {
+        tStates += 23;
+        regs.setE((byte) (dataBus.memRead(xxd) | 0x02));
+        dataBus.memWrite(xxd, (byte) regs.getE());
+    }
 
-            // set 2,(xx+d),d
-            case 0xD2:
-                tStates += 23;
-                regs.D.setValue((byte) (dataBus.memRead(xxd) | 0x04));
-                dataBus.memWrite(xxd, (byte) regs.D.getValue());
-                break;
+    // set 1,(xx+d),h
+    private void opXXCB_CC(short xxd) {
+        tStates += 23;
+        regs.setH((byte) (dataBus.memRead(xxd) | 0x02));
+        dataBus.memWrite(xxd, (byte) regs.getH());
+    }
 
-            // set 2,(xx+d),e
-            case 0xD3:
-                tStates += 23;
-                regs.E.setValue((byte) (dataBus.memRead(xxd) | 0x04));
-                dataBus.memWrite(xxd, (byte) regs.E.getValue());
-                break;
+    // set 1,(xx+d),l
+    private void opXXCB_CD(short xxd) {
+        tStates += 23;
+        regs.setL((byte) (dataBus.memRead(xxd) | 0x02));
+        dataBus.memWrite(xxd, (byte) regs.getL());
+    }
 
-            // set 2,(xx+d),h
-            case 0xD4:
-                tStates += 23;
-                regs.H.setValue((byte) (dataBus.memRead(xxd) | 0x04));
-                dataBus.memWrite(xxd, (byte) regs.H.getValue());
-                break;
+    // set 1,(xx+d)
+    private void opXXCB_CE(short xxd) {
+        tStates += 23;
+        dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) | 0x02));
+    }
 
-            // set 2,(xx+d),l
-            case 0xD5:
-                tStates += 23;
-                regs.L.setValue((byte) (dataBus.memRead(xxd) | 0x04));
-                dataBus.memWrite(xxd, (byte) regs.L.getValue());
-                break;
+    // set 1,(xx+d),a
+    private void opXXCB_CF(short xxd) {
+        tStates += 23;
+        regs.setA((byte) (dataBus.memRead(xxd) | 0x02));
+        dataBus.memWrite(xxd, (byte) regs.getA());
+    }
 
-            // set 2,(xx+d)
-            case 0xD6:
-                tStates += 23;
-                dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) | 0x04));
-                break;
+    // set 2,(xx+d),b
+    private void opXXCB_D0(short xxd) {
+        tStates += 23;
+        regs.setB((byte) (dataBus.memRead(xxd) | 0x04));
+        dataBus.memWrite(xxd, (byte) regs.getB());
+    }
 
-            // set 2,(xx+d),a
-            case 0xD7:
-                tStates += 23;
-                regs.A.setValue((byte) (dataBus.memRead(xxd) | 0x04));
-                dataBus.memWrite(xxd, (byte) regs.A.getValue());
-                break;
+    // set 2,(xx+d),c
+    private void opXXCB_D1(short xxd) {
+        tStates += 23;
+        regs.setC((byte) (dataBus.memRead(xxd) | 0x04));
+        dataBus.memWrite(xxd, (byte) regs.getC());
+    }
 
-            // set 3,(xx+d),b
-            case 0xD8:
-                tStates += 23;
-                regs.B.setValue((byte) (dataBus.memRead(xxd) | 0x08));
-                dataBus.memWrite(xxd, (byte) regs.B.getValue());
-                break;
+    // set 2,(xx+d),d
+    private void opXXCB_D2(short xxd) {
+        tStates += 23;
+        regs.setD((byte) (dataBus.memRead(xxd) | 0x04));
+        dataBus.memWrite(xxd, (byte) regs.getD());
+    }
 
-            // set 3,(xx+d),c
-            case 0xD9:
-                tStates += 23;
-                regs.C.setValue((byte) (dataBus.memRead(xxd) | 0x08));
-                dataBus.memWrite(xxd, (byte) regs.C.getValue());
-                break;
+    // set 2,(xx+d),e
+    private void opXXCB_D3(short xxd) {
+        tStates += 23;
+        regs.setE((byte) (dataBus.memRead(xxd) | 0x04));
+        dataBus.memWrite(xxd, (byte) regs.getE());
+    }
 
-            // set 3,(xx+d),d
-            case 0xDA:
-                tStates += 23;
-                regs.D.setValue((byte) (dataBus.memRead(xxd) | 0x08));
-                dataBus.memWrite(xxd, (byte) regs.D.getValue());
-                break;
+    // set 2,(xx+d),h
+    private void opXXCB_D4(short xxd) {
+        tStates += 23;
+        regs.setH((byte) (dataBus.memRead(xxd) | 0x04));
+        dataBus.memWrite(xxd, (byte) regs.getH());
+    }
 
-            // set 3,(xx+d),e
-            case 0xDB:
-                tStates += 23;
-                regs.E.setValue((byte) (dataBus.memRead(xxd) | 0x08));
-                dataBus.memWrite(xxd, (byte) regs.E.getValue());
-                break;
+    // set 2,(xx+d),l
+    private void opXXCB_D5(short xxd) {
+        tStates += 23;
+        regs.setL((byte) (dataBus.memRead(xxd) | 0x04));
+        dataBus.memWrite(xxd, (byte) regs.getL());
+    }
 
-            // set 3,(xx+d),h
-            case 0xDC:
-                tStates += 23;
-                regs.H.setValue((byte) (dataBus.memRead(xxd) | 0x08));
-                dataBus.memWrite(xxd, (byte) regs.H.getValue());
-                break;
+    // set 2,(xx+d)
+    private void opXXCB_D6(short xxd) {
+        tStates += 23;
+        dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) | 0x04));
+    }
 
-            // set 3,(xx+d),l
-            case 0xDD:
-                tStates += 23;
-                regs.L.setValue((byte) (dataBus.memRead(xxd) | 0x08));
-                dataBus.memWrite(xxd, (byte) regs.L.getValue());
-                break;
+    // set 2,(xx+d),a
+    private void opXXCB_D7(short xxd) {
+        tStates += 23;
+        regs.setA((byte) (dataBus.memRead(xxd) | 0x04));
+        dataBus.memWrite(xxd, (byte) regs.getA());
+    }
 
-            // set 3,(xx+d)
-            case 0xDE:
-                tStates += 23;
-                dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) | 0x08));
-                break;
+    // set 3,(xx+d),b
+    private void opXXCB_D8(short xxd) {
+        tStates += 23;
+        regs.setB((byte) (dataBus.memRead(xxd) | 0x08));
+        dataBus.memWrite(xxd, (byte) regs.getB());
+    }
 
-            // set 3,(xx+d),a
-            case 0xDF:
-                tStates += 23;
-                regs.A.setValue((byte) (dataBus.memRead(xxd) | 0x08));
-                dataBus.memWrite(xxd, (byte) regs.A.getValue());
-                break;
+    // set 3,(xx+d),c
+    private void opXXCB_D9(short xxd) {
+        tStates += 23;
+        regs.setC((byte) (dataBus.memRead(xxd) | 0x08));
+        dataBus.memWrite(xxd, (byte) regs.getC());
+    }
 
-            // set 4,(xx+d),b
-            case 0xE0:
-                tStates += 23;
-                regs.B.setValue((byte) (dataBus.memRead(xxd) | 0x10));
-                dataBus.memWrite(xxd, (byte) regs.B.getValue());
-                break;
+    // set 3,(xx+d),d
+    private void opXXCB_DA(short xxd) {
+        tStates += 23;
+        regs.setD((byte) (dataBus.memRead(xxd) | 0x08));
+        dataBus.memWrite(xxd, (byte) regs.getD());
+    }
 
-            // set 4,(xx+d),c
-            case 0xE1:
-                tStates += 23;
-                regs.C.setValue((byte) (dataBus.memRead(xxd) | 0x10));
-                dataBus.memWrite(xxd, (byte) regs.C.getValue());
-                break;
+    // set 3,(xx+d),e
+    private void opXXCB_DB(short xxd) {
+        tStates += 23;
+        regs.setE((byte) (dataBus.memRead(xxd) | 0x08));
+        dataBus.memWrite(xxd, (byte) regs.getE());
+    }
 
-            // set 4,(xx+d),d
-            case 0xE2:
-                tStates += 23;
-                regs.D.setValue((byte) (dataBus.memRead(xxd) | 0x10));
-                dataBus.memWrite(xxd, (byte) regs.D.getValue());
-                break;
+    // set 3,(xx+d),h
+    private void opXXCB_DC(short xxd) {
+        tStates += 23;
+        regs.setH((byte) (dataBus.memRead(xxd) | 0x08));
+        dataBus.memWrite(xxd, (byte) regs.getH());
+    }
 
-            // set 4,(xx+d),e
-            case 0xE3:
-                tStates += 23;
-                regs.E.setValue((byte) (dataBus.memRead(xxd) | 0x10));
-                dataBus.memWrite(xxd, (byte) regs.E.getValue());
-                break;
+    // set 3,(xx+d),l
+    private void opXXCB_DD(short xxd) {
+        tStates += 23;
+        regs.setL((byte) (dataBus.memRead(xxd) | 0x08));
+        dataBus.memWrite(xxd, (byte) regs.getL());
+    }
 
-            // set 4,(xx+d),h
-            case 0xE4:
-                tStates += 23;
-                regs.H.setValue((byte) (dataBus.memRead(xxd) | 0x10));
-                dataBus.memWrite(xxd, (byte) regs.H.getValue());
-                break;
+    // set 3,(xx+d)
+    private void opXXCB_DE(short xxd) {
+        tStates += 23;
+        dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) | 0x08));
+    }
 
-            // set 4,(xx+d),l
-            case 0xE5:
-                tStates += 23;
-                regs.L.setValue((byte) (dataBus.memRead(xxd) | 0x10));
-                dataBus.memWrite(xxd, (byte) regs.L.getValue());
-                break;
+    // set 3,(xx+d),a
+    private void opXXCB_DF(short xxd) {
+        tStates += 23;
+        regs.setA((byte) (dataBus.memRead(xxd) | 0x08));
+        dataBus.memWrite(xxd, (byte) regs.getA());
+    }
 
-            // set 4,(xx+d)
-            case 0xE6:
-                tStates += 23;
-                dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) | 0x10));
-                break;
+    // set 4,(xx+d),b
+    private void opXXCB_E0(short xxd) {
+        tStates += 23;
+        regs.setB((byte) (dataBus.memRead(xxd) | 0x10));
+        dataBus.memWrite(xxd, (byte) regs.getB());
+    }
 
-            // set 4,(xx+d),a
-            case 0xE7:
-                tStates += 23;
-                regs.A.setValue((byte) (dataBus.memRead(xxd) | 0x10));
-                dataBus.memWrite(xxd, (byte) regs.A.getValue());
-                break;
+    // set 4,(xx+d),c
+    private void opXXCB_E1(short xxd) {
+        tStates += 23;
+        regs.setC((byte) (dataBus.memRead(xxd) | 0x10));
+        dataBus.memWrite(xxd, (byte) regs.getC());
+    }
 
-            // set 5,(xx+d),b
-            case 0xE8:
-                tStates += 23;
-                regs.B.setValue((byte) (dataBus.memRead(xxd) | 0x20));
-                dataBus.memWrite(xxd, (byte) regs.B.getValue());
-                break;
+    // set 4,(xx+d),d
+    private void opXXCB_E2(short xxd) {
+        tStates += 23;
+        regs.setD((byte) (dataBus.memRead(xxd) | 0x10));
+        dataBus.memWrite(xxd, (byte) regs.getD());
+    }
 
-            // set 5,(xx+d),c
-            case 0xE9:
-                tStates += 23;
-                regs.C.setValue((byte) (dataBus.memRead(xxd) | 0x20));
-                dataBus.memWrite(xxd, (byte) regs.C.getValue());
-                break;
+    // set 4,(xx+d),e
+    private void opXXCB_E3(short xxd) {
+        tStates += 23;
+        regs.setE((byte) (dataBus.memRead(xxd) | 0x10));
+        dataBus.memWrite(xxd, (byte) regs.getE());
+    }
 
-            // set 5,(xx+d),d
-            case 0xEA:
-                tStates += 23;
-                regs.D.setValue((byte) (dataBus.memRead(xxd) | 0x20));
-                dataBus.memWrite(xxd, (byte) regs.D.getValue());
-                break;
+    // set 4,(xx+d),h
+    private void opXXCB_E4(short xxd) {
+        tStates += 23;
+        regs.setH((byte) (dataBus.memRead(xxd) | 0x10));
+        dataBus.memWrite(xxd, (byte) regs.getH());
+    }
 
-            // set 5,(xx+d),e
-            case 0xEB:
-                tStates += 23;
-                regs.E.setValue((byte) (dataBus.memRead(xxd) | 0x20));
-                dataBus.memWrite(xxd, (byte) regs.E.getValue());
-                break;
+    // set 4,(xx+d),l
+    private void opXXCB_E5(short xxd) {
+        tStates += 23;
+        regs.setL((byte) (dataBus.memRead(xxd) | 0x10));
+        dataBus.memWrite(xxd, (byte) regs.getL());
+    }
 
-            // set 5,(xx+d),h
-            case 0xEC:
-                tStates += 23;
-                regs.H.setValue((byte) (dataBus.memRead(xxd) | 0x20));
-                dataBus.memWrite(xxd, (byte) regs.H.getValue());
-                break;
+    // set 4,(xx+d)
+    private void opXXCB_E6(short xxd) {
+        tStates += 23;
+        dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) | 0x10));
+    }
+
+    // set 4,(xx+d),a
+    private void opXXCB_E7(short xxd) {
+        tStates += 23;
+        regs.setA((byte) (dataBus.memRead(xxd) | 0x10));
+        dataBus.memWrite(xxd, (byte) regs.getA());
+    }
+
+    // set 5,(xx+d),b
+    private void opXXCB_E8(short xxd) {
+        tStates += 23;
+        regs.setB((byte) (dataBus.memRead(xxd) | 0x20));
+        dataBus.memWrite(xxd, (byte) regs.getB());
+    }
+
+    // set 5,(xx+d),c
+    private void opXXCB_E9(short xxd) {
+        tStates += 23;
+        regs.setC((byte) (dataBus.memRead(xxd) | 0x20));
+        dataBus.memWrite(xxd, (byte) regs.getC());
+    }
+
+    // set 5,(xx+d),d
+    private void opXXCB_EA(short xxd) {
+        tStates += 23;
+        regs.setD((byte) (dataBus.memRead(xxd) | 0x20));
+        dataBus.memWrite(xxd, (byte) regs.getD());
+    }
 
-            // set 5,(xx+d),l
-            case 0xED:
-                tStates += 23;
-                regs.L.setValue((byte) (dataBus.memRead(xxd) | 0x20));
-                dataBus.memWrite(xxd, (byte) regs.L.getValue());
-                break;
+    // set 5,(xx+d),e
+    private void opXXCB_EB(short xxd) {
+        tStates += 23;
+        regs.setE((byte) (dataBus.memRead(xxd) | 0x20));
+        dataBus.memWrite(xxd, (byte) regs.getE());
+    }
 
-            // set 5,(xx+d)
-            case 0xEE:
-                tStates += 23;
-                dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) | 0x20));
-                break;
+    // set 5,(xx+d),h
+    private void opXXCB_EC(short xxd) {
+        tStates += 23;
+        regs.setH((byte) (dataBus.memRead(xxd) | 0x20));
+        dataBus.memWrite(xxd, (byte) regs.getH());
+    }
 
-            // set 5,(xx+d),a
-            case 0xEF:
-                tStates += 23;
-                regs.A.setValue((byte) (dataBus.memRead(xxd) | 0x20));
-                dataBus.memWrite(xxd, (byte) regs.A.getValue());
-                break;
+    // set 5,(xx+d),l
+    private void opXXCB_ED(short xxd) {
+        tStates += 23;
+        regs.setL((byte) (dataBus.memRead(xxd) | 0x20));
+        dataBus.memWrite(xxd, (byte) regs.getL());
+    }
 
-            // set 6,(xx+d),b
-            case 0xF0:
-                tStates += 23;
-                regs.B.setValue((byte) (dataBus.memRead(xxd) | 0x40));
-                dataBus.memWrite(xxd, (byte) regs.B.getValue());
-                break;
+    // set 5,(xx+d)
+    private void opXXCB_EE(short xxd) {
+        tStates += 23;
+        dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) | 0x20));
+    }
 
-            // set 6,(xx+d),c
-            case 0xF1:
-                tStates += 23;
-                regs.C.setValue((byte) (dataBus.memRead(xxd) | 0x40));
-                dataBus.memWrite(xxd, (byte) regs.C.getValue());
-                break;
+    // set 5,(xx+d),a
+    private void opXXCB_EF(short xxd) {
+        tStates += 23;
+        regs.setA((byte) (dataBus.memRead(xxd) | 0x20));
+        dataBus.memWrite(xxd, (byte) regs.getA());
+    }
 
-            // set 6,(xx+d),d
-            case 0xF2:
-                tStates += 23;
-                regs.D.setValue((byte) (dataBus.memRead(xxd) | 0x40));
-                dataBus.memWrite(xxd, (byte) regs.D.getValue());
-                break;
+    // set 6,(xx+d),b
+    private void opXXCB_F0(short xxd) {
+        tStates += 23;
+        regs.setB((byte) (dataBus.memRead(xxd) | 0x40));
+        dataBus.memWrite(xxd, (byte) regs.getB());
+    }
 
-            // set 6,(xx+d),e
-            case 0xF3:
-                tStates += 23;
-                regs.E.setValue((byte) (dataBus.memRead(xxd) | 0x40));
-                dataBus.memWrite(xxd, (byte) regs.E.getValue());
-                break;
+    // set 6,(xx+d),c
+    private void opXXCB_F1(short xxd) {
+        tStates += 23;
+        regs.setC((byte) (dataBus.memRead(xxd) | 0x40));
+        dataBus.memWrite(xxd, (byte) regs.getC());
+    }
 
-            // set 6,(xx+d),h
-            case 0xF4:
-                tStates += 23;
-                regs.H.setValue((byte) (dataBus.memRead(xxd) | 0x40));
-                dataBus.memWrite(xxd, (byte) regs.H.getValue());
-                break;
+    // set 6,(xx+d),d
+    private void opXXCB_F2(short xxd) {
+        tStates += 23;
+        regs.setD((byte) (dataBus.memRead(xxd) | 0x40));
+        dataBus.memWrite(xxd, (byte) regs.getD());
+    }
 
-            // set 6,(xx+d),l
-            case 0xF5:
-                tStates += 23;
-                regs.L.setValue((byte) (dataBus.memRead(xxd) | 0x40));
-                dataBus.memWrite(xxd, (byte) regs.L.getValue());
-                break;
+    // set 6,(xx+d),e
+    private void opXXCB_F3(short xxd) {
+        tStates += 23;
+        regs.setE((byte) (dataBus.memRead(xxd) | 0x40));
+        dataBus.memWrite(xxd, (byte) regs.getE());
+    }
 
-            // set 6,(xx+d)
-            case 0xF6:
-                tStates += 23;
-                dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) | 0x40));
-                break;
+    // set 6,(xx+d),h
+    private void opXXCB_F4(short xxd) {
+        tStates += 23;
+        regs.setH((byte) (dataBus.memRead(xxd) | 0x40));
+        dataBus.memWrite(xxd, (byte) regs.getH());
+    }
 
-            // set 6,(xx+d),a
-            case 0xF7:
-                tStates += 23;
-                regs.A.setValue((byte) (dataBus.memRead(xxd) | 0x40));
-                dataBus.memWrite(xxd, (byte) regs.A.getValue());
-                break;
+    // set 6,(xx+d),l
+    private void opXXCB_F5(short xxd) {
+        tStates += 23;
+        regs.setL((byte) (dataBus.memRead(xxd) | 0x40));
+        dataBus.memWrite(xxd, (byte) regs.getL());
+    }
 
-            // set 7,(xx+d),b
-            case 0xF8:
-                tStates += 23;
-                regs.B.setValue((byte) (dataBus.memRead(xxd) | 0x80));
-                dataBus.memWrite(xxd, (byte) regs.B.getValue());
-                break;
+    // set 6,(xx+d)
+    private void opXXCB_F6(short xxd) {
+        tStates += 23;
+        dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) | 0x40));
+    }
 
-            // set 7,(xx+d),c
-            case 0xF9:
-                tStates += 23;
-                regs.C.setValue((byte) (dataBus.memRead(xxd) | 0x80));
-                dataBus.memWrite(xxd, (byte) regs.C.getValue());
-                break;
+    // set 6,(xx+d),a
+    private void opXXCB_F7(short xxd) {
+        tStates += 23;
+        regs.setA((byte) (dataBus.memRead(xxd) | 0x40));
+        dataBus.memWrite(xxd, (byte) regs.getA());
+    }
 
-            // set 7,(xx+d),d
-            case 0xFA:
-                tStates += 23;
-                regs.D.setValue((byte) (dataBus.memRead(xxd) | 0x80));
-                dataBus.memWrite(xxd, (byte) regs.D.getValue());
-                break;
+    // set 7,(xx+d),b
+    private void opXXCB_F8(short xxd) {
+        tStates += 23;
+        regs.setB((byte) (dataBus.memRead(xxd) | 0x80));
+        dataBus.memWrite(xxd, (byte) regs.getB());
+    }
 
-            // set 7,(xx+d),e
-            case 0xFB:
-                tStates += 23;
-                regs.E.setValue((byte) (dataBus.memRead(xxd) | 0x80));
-                dataBus.memWrite(xxd, (byte) regs.E.getValue());
-                break;
+    // set 7,(xx+d),c
+    private void opXXCB_F9(short xxd) {
+        tStates += 23;
+        regs.setC((byte) (dataBus.memRead(xxd) | 0x80));
+        dataBus.memWrite(xxd, (byte) regs.getC());
+    }
 
-            // set 7,(xx+d),h
-            case 0xFC:
-                tStates += 23;
-                regs.H.setValue((byte) (dataBus.memRead(xxd) | 0x80));
-                dataBus.memWrite(xxd, (byte) regs.H.getValue());
-                break;
+    // set 7,(xx+d),d
+    private void opXXCB_FA(short xxd) {
+        tStates += 23;
+        regs.setD((byte) (dataBus.memRead(xxd) | 0x80));
+        dataBus.memWrite(xxd, (byte) regs.getD());
+    }
 
-            // set 7,(xx+d),l
-            case 0xFD:
-                tStates += 23;
-                regs.L.setValue((byte) (dataBus.memRead(xxd) | 0x80));
-                dataBus.memWrite(xxd, (byte) regs.L.getValue());
-                break;
+    // set 7,(xx+d),e
+    private void opXXCB_FB(short xxd) {
+        tStates += 23;
+        regs.setE((byte) (dataBus.memRead(xxd) | 0x80));
+        dataBus.memWrite(xxd, (byte) regs.getE());
+    }
 
-            // set 7,(xx+d)
-            case 0xFE:
-                tStates += 23;
-                dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) | 0x80));
-                break;
+    // set 7,(xx+d),h
+    private void opXXCB_FC(short xxd) {
+        tStates += 23;
+        regs.setH((byte) (dataBus.memRead(xxd) | 0x80));
+        dataBus.memWrite(xxd, (byte) regs.getH());
+    }
 
-            // set 7,(xx+d),a
-            case 0xFF:
-                tStates += 23;
-                regs.A.setValue((byte) (dataBus.memRead(xxd) | 0x80));
-                dataBus.memWrite(xxd, (byte) regs.A.getValue());
-                break;
+    // set 7,(xx+d),l
+    private void opXXCB_FD(short xxd) {
+        tStates += 23;
+        regs.setL((byte) (dataBus.memRead(xxd) | 0x80));
+        dataBus.memWrite(xxd, (byte) regs.getL());
+    }
 
-        }
+    // set 7,(xx+d)
+    private void opXXCB_FE(short xxd) {
+        tStates += 23;
+        dataBus.memWrite(xxd, (byte) (dataBus.memRead(xxd) | 0x80));
+    }
 
+    // set 7,(xx+d),a
+    private void opXXCB_FF(short xxd) {
+        tStates += 23;
+        regs.setA((byte) (dataBus.memRead(xxd) | 0x80));
+        dataBus.memWrite(xxd, (byte) regs.getA());
     }
 
 
@@ -6395,8 +7263,10 @@ public class Z80 {
     public void INT() {
         if (regs.getiff1A()) {
             // If over a HALT instruction, increment PC
-            if (dataBus.memRead(regs.getPC()) == 0x76)
+            if (regs.isHalted()) {
                 regs.setPC((short) (regs.getPC() + 1));
+                regs.setHalted(false);
+            }
 
             regs.setiff1A(false);
             regs.setiff1B(false);
@@ -6421,7 +7291,7 @@ public class Z80 {
                 case 0x02: // Mode 2: Salta a la dirección contenida en registro I + bus de datos. Asumimos
                            // en el bus de datos FF al no existir hardware externo
                     tStates += 19;
-                    regs.setPC(read16((short) (((byte) regs.I.getValue() << 8) | 0xFF)));
+                    regs.setPC(read16((short) (((byte) regs.getI() << 8) | 0xFF)));
                     regs.setWZ(regs.getPC());
                     regs.setQF(false);
                     break;
@@ -6443,8 +7313,10 @@ public class Z80 {
         regs.setiff1A(false);
 
         // If over a HALT instruction, increment PC
-        if (dataBus.memRead(regs.getPC()) == 0x76)
+        if (regs.isHalted()) {
             regs.setPC((short) (regs.getPC() + 1));
+            regs.setHalted(false);
+        }
 
         push16(regs.getPC());
         regs.setPC((short) 0x0066);
@@ -6454,20 +7326,528 @@ public class Z80 {
     // Reset basado en la definición de reset Z80, ni mas ni menos
     public void RESET()
     {
-        // Inicializar el contador de tStates
-        tStates = 0;
+        // El contador de tStates no se reinicia: es la base de tiempos de toda la máquina
 
         // resets the interrupt enable flip-flop
         regs.setiff1A(false);
         regs.setiff1B(false);
         // clears the Program Counter and registers I and R
         regs.setPC((short) 0);
-        regs.IR.setValue((short) 0);
+        regs.setIR((short) 0);
         // sets the interrupt status to Mode 0
         regs.setIM((byte) 0);
 
+        regs.setHalted(false);
+        eiExecuted = false;
+        nmiPending = false;
+    }
+
+    /////////////////////////////////////////////////////////////////////////
+    // Ejecución por lotes
+    // El bucle de ejecución queda dentro de la CPU: el anfitrión no paga una llamada por
+    // instrucción y las interrupciones se atienden entre instrucciones, como en el chip real.
+    // - INT: línea activa por nivel, se atiende mientras esté activa y iff1A lo permita
+    //   (nunca justo después de un EI)
+    // - NMI: activa por flanco, se atiende una sola vez por petición
+    // - Traps: direcciones en las que el bucle se detiene antes de ejecutar la instrucción.
+    //   La primera instrucción de cada llamada no se comprueba, de forma que basta con volver
+    //   a llamar a run() para continuar desde un trap.
+
+    // - HALT: si ninguna interrupción pendiente puede despertar a la CPU, el tiempo avanza de golpe
+    //   hasta agotar el presupuesto (mismos tStates y R que repitiendo el HALT cada 4 tStates)
+
+    // Ejecuta instrucciones hasta consumir al menos 'tStateBudget' ciclos, o hasta un trap.
+    // Devuelve los tStates consumidos realmente (la última instrucción puede pasarse del presupuesto)
+    public long run(long tStateBudget) {
+        return execLoop(tStateBudget, null);
+    }
+
+    // Ejecuta instrucciones hasta que se cumpla la condición (evaluada tras cada instrucción),
+    // o hasta un HALT o un trap. Devuelve los tStates consumidos
+    public long runUntil(BooleanSupplier condition) {
+        return execLoop(Long.MAX_VALUE, condition);
+    }
+
+    private long execLoop(long tStateBudget, BooleanSupplier condition) {
+        long start = tStates;
+        boolean first = true;
+        stopReason = Constants.RUN_BUDGET;
+        // Las instrucciones de bloque solo se aceleran si no hay condición que evaluar tras cada iteración
+        runLimit = condition != null ? 0 : tStateBudget > Long.MAX_VALUE - start ? Long.MAX_VALUE : start + tStateBudget;
+
+        while (tStates - start < tStateBudget) {
+            // Interrupciones pendientes
+            if (nmiPending) {
+                nmiPending = false;
+                NMI();
+            } else if (intLine && !eiExecuted && regs.getiff1A()) {
+                INT();
+            }
+            eiExecuted = false;
+
+            // Trap en la dirección actual
+            if (traps[regs.getPC() & 0xFFFF] && !first) {
+                stopReason = Constants.RUN_TRAP;
+                break;
+            }
+            first = false;
+
+            if (regs.isHalted()) {
+                execHalt();
+            } else if (blockCache != null && condition == null) {
+                execBlock(start, tStateBudget);
+            } else {
+                execInst();
+            }
+
+            // Un HALT sin interrupción que lo pueda despertar detiene el bucle
+            if (regs.isHalted() && !nmiPending && !(intLine && regs.getiff1A())) {
+                if (tStateBudget != Long.MAX_VALUE) {
+                    fastForwardHalt(tStateBudget - (tStates - start));
+                }
+                stopReason = Constants.RUN_HALT;
+                break;
+            }
+            if (condition != null && condition.getAsBoolean()) {
+                stopReason = Constants.RUN_CONDITION;
+                break;
+            }
+        }
+        runLimit = 0;
+        if (recompiler != null) {
+            recompiler.compilePending(dataBus);
+        }
+        return tStates - start;
+    }
+
+    // Un ciclo de HALT: la CPU detenida no decodifica la memoria bajo el PC, que puede haber
+    // cambiado desde el HALT (paginación o escritura), y todos los motores la tratan igual
+    private void execHalt() {
+        tStates += 4;
+        REFRESH_CYCLE();
+        regs.setQF(false);
+        regs.preserveQF();
+    }
+
+    // Avance en bloque de un HALT: repite el HALT (4 tStates y un ciclo de refresco cada uno)
+    // las veces necesarias para consumir 'remaining' tStates
+    private void fastForwardHalt(long remaining) {
+        if (remaining <= 0) {
+            return;
+        }
+        long n = (remaining + 3) / 4;
+        tStates += 4 * n;
+        regs.setR((byte) ((regs.getR() & 0x80) | ((regs.getR() + (int) (n & 0x7F)) & 0x7F)));
+    }
+
+    // Motivo por el que terminó la última llamada a run/runUntil (Constants.RUN_*)
+    public int getStopReason() {
+        return stopReason;
+    }
+
+    // Indica si la CPU está detenida en un HALT
+    public boolean isHalted() {
+        return regs.isHalted();
+    }
+
+    // Línea INT, activa por nivel: permanece activa hasta que el dispositivo la libere
+    public void setINTLine(boolean active) {
+        intLine = active;
+    }
+
+    public boolean getINTLine() {
+        return intLine;
+    }
+
+    // Petición de NMI, se atiende antes de la siguiente instrucción
+    public void requestNMI() {
+        nmiPending = true;
+    }
+
+    public boolean isNMIPending() {
+        return nmiPending;
+    }
+
+    // La última instrucción ejecutada fue un EI (la INT espera a la siguiente)
+    public boolean isInterruptShadow() {
+        return eiExecuted;
+    }
+
+    // Traps de ejecución
+    public void setTrap(int address, boolean enabled) {
+        traps[address & 0xFFFF] = enabled;
+        if (blockCache != null) {
+            blockCache.flush(); // Los bloques no pueden contener traps salvo en su inicio
+        }
+    }
+
+    public boolean isTrap(int address) {
+        return traps[address & 0xFFFF];
+    }
+
+    public void clearTraps() {
+        Arrays.fill(traps, false);
+        if (blockCache != null) {
+            blockCache.flush();
+        }
+    }
+
+    /////////////////////////////////////////////////////////////////////////
+    // Caché de bloques básicos
+    // Con la caché activa, run() ejecuta bloques predecodificados (Z80BlockCache) en lugar de hacer
+    // el fetch y la decodificación de cada instrucción. Entre dos instrucciones de un bloque se
+    // comprueba lo mismo que en el bucle de ejecución: presupuesto, interrupciones pendientes y
+    // validez del bloque (el código puede haberse sobrescrito). runUntil sigue usando el intérprete.
+    // Desactivada por defecto: el intérprete es la referencia para comparar resultados.
+
+    public void setBlockCache(boolean enabled) {
+        if (enabled == (blockCache != null)) {
+            return;
+        }
+        if (dataBus == null) {
+            throw new IllegalStateException("Block cache requires a data bus");
+        }
+        if (!enabled) {
+            setRecompiler(false);
+            aotCode = null;
+        }
+        blockCache = enabled ? new Z80BlockCache(dataBus, traps) : null;
+        jitContext = enabled ? new Z80JitContext(this) : null;
+        dataBus.setBlockCache(blockCache);
+    }
+
+    public boolean isBlockCache() {
+        return blockCache != null;
+    }
+
+    // Caché en uso (estadísticas), o null si no está activa
+    public Z80BlockCache getBlockCache() {
+        return blockCache;
+    }
+
+    // Recompilador dinámico (activa también la caché de bloques)
+    // Los bloques calientes se traducen a clases JVM (Z80Recompiler) que se ejecutan con los registros
+    // en variables locales. Salen en el mismo límite de instrucción en el que pararía el intérprete
+    // (presupuesto, interrupción pendiente o código sobrescrito), y el intérprete sigue desde ahí.
+    public void setRecompiler(boolean enabled) {
+        if (enabled == (recompiler != null)) {
+            return;
+        }
+        if (enabled) {
+            setBlockCache(true);
+            recompiler = new Z80Recompiler(traps);
+        } else {
+            recompiler = null;
+        }
+    }
+
+    public boolean isRecompiler() {
+        return recompiler != null;
+    }
+
+    // Recompilador en uso (umbral y estadísticas), o null si no está activo
+    public Z80Recompiler getRecompiler() {
+        return recompiler;
+    }
+
+    // Código traducido de antemano para una ROM (activa también la caché de bloques; null lo quita)
+    // Los bloques de la ROM se ejecutan compilados desde la primera vez, sin umbral. El resto del
+    // código, y los bloques de la ROM que no coincidan con la traducción, siguen por la caché.
+    public void setAotCode(Z80AotCode aotCode) {
+        if (aotCode != null) {
+            setBlockCache(true);
+        }
+        this.aotCode = aotCode;
+        if (blockCache != null) {
+            blockCache.setAotCode(aotCode);
+        }
+    }
+
+    // Código anticipado en uso (estadísticas), o null si no hay
+    public Z80AotCode getAotCode() {
+        return aotCode;
+    }
+
+    // Ejecuta el bloque que empieza en el PC actual, o una instrucción si no se puede predecodificar
+    private void execBlock(long start, long tStateBudget) {
+        Z80BlockCache.Block block = blockCache.lookup(regs.getPC() & 0xFFFF);
+        if (block == null) {
+            execInst();
+            return;
+        }
+        int i = 0;
+        if ((block.compiled != null || recompiler != null) && !irqPending()) {
+            if (block.compiled != null) {
+                // El bloque compilado ejecuta al menos la primera instrucción; el intérprete sigue
+                // desde la instrucción en la que haya salido
+                jitContext.enter(regs, dataBus, block, tStates, runLimit);
+                i = block.compiled.exec(jitContext);
+                tStates = jitContext.tStates;
+                if (recompiler != null) {
+                    recompiler.countCompiledExecution();
+                }
+            } else {
+                recompiler.countExecution(block, dataBus);
+            }
+        }
+        for (; i < block.length; i++) {
+            if (i > 0 && (tStates - start >= tStateBudget || irqPending() || !block.valid)) {
+                break;
+            }
+            // Superinstrucción: solo si tras la primera instrucción del par sigue habiendo presupuesto
+            // y no hay interrupción pendiente (la primera instrucción de la llamada puede ejecutarse
+            // con una pendiente, la que sigue a un EI, y la interrupción se atiende tras ella)
+            int fused = block.fused[i];
+            if (fused != 0 && tStates + Z80Fusion.FIRST_TSTATES[block.handler[i]] - start < tStateBudget
+                    && !irqPending()) {
+                i += execFused(fused, block, i) - 1;
+                continue;
+            }
+            // Efectos del fetch ya decodificado: PC tras prefijos y opcode, y ciclos de refresco
+            regs.setPC((short) block.next[i]);
+            regs.setR((byte) ((regs.getR() & 0x80) | ((regs.getR() + block.refresh[i]) & 0x7F)));
+            regs.setQF(false);
+            int op = block.handler[i] & 0xFF;
+            switch (block.handler[i] >> 8) {
+                case Z80BlockCache.GROUP_MAIN:
+                    execOpcode(op);
+                    break;
+                case Z80BlockCache.GROUP_CB:
+                    execOpcodeCB(op);
+                    break;
+                case Z80BlockCache.GROUP_ED:
+                    execOpcodeED(op);
+                    break;
+                case Z80BlockCache.GROUP_DD:
+                    regs.selectIX();
+                    execOpcodeXX(op);
+                    break;
+                case Z80BlockCache.GROUP_FD:
+                    regs.selectIY();
+                    execOpcodeXX(op);
+                    break;
+                default: // DDCB/FDCB
+                    if (block.handler[i] >> 8 == Z80BlockCache.GROUP_DDCB) {
+                        regs.selectIX();
+                    } else {
+                        regs.selectIY();
+                    }
+                    short xxd = (short) (regs.getXX() + block.operand[i]);
+                    regs.setWZ(xxd);
+                    execOpcodeXXCB(op, xxd);
+                    break;
+            }
+            regs.preserveQF();
+        }
+    }
+
+    // Superinstrucciones (Z80Fusion)
+    // Activas, se fusionan en la caché los pares de instrucciones sin prefijo más frecuentes según el
+    // perfil incluido (Z80FusionProfile). Cada familia de pares se ejecuta con un solo manejador.
+    public void setFusion(boolean enabled) {
+        if (enabled) {
+            setBlockCache(true);
+        }
+        if (blockCache != null) {
+            blockCache.setFusion(enabled);
+        }
+    }
+
+    public boolean isFusion() {
+        return blockCache != null && blockCache.isFusion();
+    }
+
+    // Ejecuta las instrucciones i e i+1 del bloque como una superinstrucción de la familia indicada.
+    // Devuelve las instrucciones ejecutadas: 1 si tras el acceso a memoria de la primera hay que salir
+    // del bloque (interrupción pendiente o código sobrescrito), como haría el bucle de bloques
+    private int execFused(int family, Z80BlockCache.Block block, int i) {
+        int op1 = block.handler[i];
+        int op2 = block.handler[i + 1];
+        regs.setPC((short) block.next[i]);
+        regs.setQF(false);
+        switch (family) {
+            case Z80Fusion.BRANCH:
+                // Sin accesos a datos en la primera: tStates de ambas de una vez (más 5 si se toma un jr)
+                tStates += Z80Fusion.FIRST_TSTATES[op1] + (op2 >= 0xC0 ? 10 : 7);
+                fusedAlu8(op1);
+                fusedNext(block, i + 1);
+                fusedJump(op2);
+                break;
+            case Z80Fusion.STEP:
+                tStates += Z80Fusion.FIRST_TSTATES[op1] + Z80Fusion.FIRST_TSTATES[op2];
+                fusedStep(op1);
+                fusedNext(block, i + 1);
+                fusedStep(op2);
+                break;
+            default: // PUSH_PUSH, POP_POP, MEMORY_STEP: la primera accede a memoria
+                tStates += Z80Fusion.FIRST_TSTATES[op1];
+                if (family == Z80Fusion.MEMORY_STEP) {
+                    fusedMemory(op1);
+                } else {
+                    fusedStack(op1);
+                }
+                if (irqPending() || !block.valid) {
+                    regs.setR((byte) ((regs.getR() & 0x80) | ((regs.getR() + 1) & 0x7F)));
+                    regs.preserveQF();
+                    return 1;
+                }
+                fusedNext(block, i + 1);
+                tStates += Z80Fusion.FIRST_TSTATES[op2];
+                if (family == Z80Fusion.MEMORY_STEP) {
+                    fusedStep(op2);
+                } else {
+                    fusedStack(op2);
+                }
+                break;
+        }
+        regs.setR((byte) ((regs.getR() & 0x80) | ((regs.getR() + 2) & 0x7F)));
+        regs.preserveQF();
+        return 2;
+    }
+
+    // Paso a la segunda instrucción de una superinstrucción: flag Q y PC tras su fetch
+    private void fusedNext(Z80BlockCache.Block block, int i) {
+        regs.preserveQF();
+        regs.setQF(false);
+        regs.setPC((short) block.next[i]);
+    }
+
+    // inc r / dec r / cp r / cp N
+    private void fusedAlu8(int op) {
+        if (op == 0xFE) {
+            byte val = dataBus.memRead(regs.getPC() & 0xFFFF);
+            regs.setPC((short) (regs.getPC() + 1));
+            alu.CMP_R8(val);
+        } else if (op >= 0xB8) {
+            alu.CMP_R8(getReg8(op & 0x07));
+        } else if ((op & 0x01) == 0) {
+            setReg8(op >> 3, alu.INC_R8(getReg8(op >> 3)));
+        } else {
+            setReg8(op >> 3, alu.DEC_R8(getReg8(op >> 3)));
+        }
+    }
+
+    // jp cc,NN / jr cc,D (los tStates sin salto los suma execFused)
+    private void fusedJump(int op) {
+        if (op >= 0xC0) {
+            regs.setWZ(read16(regs.getPC()));
+            if (condition((op >> 3) & 0x07)) {
+                regs.setPC(regs.getWZ());
+            } else {
+                regs.setPC((short) (regs.getPC() + 2));
+            }
+        } else {
+            if (condition((op >> 3) & 0x03)) {
+                tStates += 5;
+                regs.setPC((short) (regs.getPC() + (byte) dataBus.memRead(regs.getPC() & 0xFFFF)));
+                regs.setWZ((short) ((regs.getPC() + 1) & 0xFFFF));
+            }
+            regs.setPC((short) (regs.getPC() + 1));
+        }
+    }
+
+    // push rr / pop rr
+    private void fusedStack(int op) {
+        int pair = (op >> 4) & 0x03;
+        if ((op & 0x04) != 0) {
+            push16(pair == 3 ? regs.getAF() : getReg16(pair));
+        } else if (pair == 3) {
+            regs.setAF(pop16());
+        } else {
+            setReg16(pair, pop16());
+        }
+    }
+
+    // ld r,(hl) / ld (hl),r / ld a,(bc) / ld a,(de) / ld (bc),a / ld (de),a
+    private void fusedMemory(int op) {
+        if (op < 0x40) {
+            int address = (op & 0x10) == 0 ? regs.getBC() & 0xFFFF : regs.getDE() & 0xFFFF;
+            if ((op & 0x08) == 0) {
+                dataBus.memWrite(address, regs.getA());
+                regs.setZ((byte) ((address + 1) & 0xFF));
+                regs.setW(regs.getA());
+            } else {
+                regs.setA(dataBus.memRead(address));
+                regs.setWZ((short) (address + 1));
+            }
+        } else if ((op & 0x07) == 0x06) {
+            setReg8(op >> 3, dataBus.memRead(regs.getHL() & 0xFFFF));
+        } else {
+            dataBus.memWrite(regs.getHL() & 0xFFFF, getReg8(op & 0x07));
+        }
+    }
+
+    // inc rr / dec rr / add hl,rr / ex de,hl / inc r / dec r
+    private void fusedStep(int op) {
+        if (op == 0xEB) {
+            short aux = regs.getDE();
+            regs.setDE(regs.getHL());
+            regs.setHL(aux);
+        } else if ((op & 0x0F) == 0x09) {
+            regs.setHL(alu.ADD_R16(regs.getHL(), getReg16(op >> 4)));
+        } else if ((op & 0x07) == 0x03) {
+            setReg16(op >> 4, (short) (getReg16(op >> 4) + ((op & 0x08) == 0 ? 1 : -1)));
+        } else {
+            fusedAlu8(op);
+        }
+    }
+
+    // Condición cc de los saltos: nz, z, nc, c, po, pe, p, m
+    private boolean condition(int cc) {
+        switch (cc) {
+            case 0: return !regs.getZF();
+            case 1: return regs.getZF();
+            case 2: return !regs.getCF();
+            case 3: return regs.getCF();
+            case 4: return !regs.getPF();
+            case 5: return regs.getPF();
+            case 6: return !regs.getSF();
+            default: return regs.getSF();
+        }
+    }
+
+    // Registro de 8 bits por su índice en el opcode: b, c, d, e, h, l, -, a
+    private byte getReg8(int r) {
+        switch (r & 0x07) {
+            case 0: return regs.getB();
+            case 1: return regs.getC();
+            case 2: return regs.getD();
+            case 3: return regs.getE();
+            case 4: return regs.getH();
+            case 5: return regs.getL();
+            default: return regs.getA();
+        }
+    }
+
+    private void setReg8(int r, byte value) {
+        switch (r & 0x07) {
+            case 0: regs.setB(value); break;
+            case 1: regs.setC(value); break;
+            case 2: regs.setD(value); break;
+            case 3: regs.setE(value); break;
+            case 4: regs.setH(value); break;
+            case 5: regs.setL(value); break;
+            default: regs.setA(value); break;
+        }
+    }
 
+    // Par de registros por su índice en el opcode: bc, de, hl, sp
+    private short getReg16(int pair) {
+        switch (pair & 0x03) {
+            case 0: return regs.getBC();
+            case 1: return regs.getDE();
+            case 2: return regs.getHL();
+            default: return regs.getSP();
+        }
+    }
 
+    private void setReg16(int pair, short value) {
+        switch (pair & 0x03) {
+            case 0: regs.setBC(value); break;
+            case 1: regs.setDE(value); break;
+            case 2: regs.setHL(value); break;
+            default: regs.setSP(value); break;
+        }
     }
 
 
@@ -6477,6 +7857,14 @@ public class Z80 {
     //////////////////////////////////////////////////
 
     public void setDataBus(Z80Bus dataBus) {
+        if (blockCache != null) {
+            this.dataBus.setBlockCache(null);
+            boolean fusion = blockCache.isFusion();
+            blockCache = new Z80BlockCache(dataBus, traps);
+            blockCache.setAotCode(aotCode);
+            blockCache.setFusion(fusion);
+            dataBus.setBlockCache(blockCache);
+        }
         this.dataBus = dataBus;
     }
 
@@ -6486,16 +7874,55 @@ public class Z80 {
 
     //////////////////////////////////////////////////
     // Getters y setters tStates
+    // tStates es un reloj de 64 bits que solo avanza: dispositivos, planificador, audio y
+    // trazas deben tomar sus marcas de tiempo de aquí. El setter queda para depuradores y
+    // bancos de pruebas que necesitan fijar un estado inicial.
     //////////////////////////////////////////////////
 
-    public void setTStates(int tStates) {
+    public void setTStates(long tStates) {
         this.tStates = tStates;
+        frameStart = tStates - Math.floorMod(tStates, (long) frameLength);
     }
 
-    public int getTStates() {
+    public long getTStates() {
         return tStates;
     }
 
+    // Avance del reloj para los motores alternativos que ejecutan instrucciones fuera de esta clase
+    void addTStates(int elapsed) {
+        tStates += elapsed;
+    }
+
+    // Vistas relativas al cuadro (p.ej. 69888 tStates por cuadro en el 48K)
+    public void setFrameLength(int frameLength) {
+        this.frameLength = frameLength;
+        setTStates(tStates);
+    }
+
+    public int getFrameLength() {
+        return frameLength;
+    }
+
+    // tStates transcurridos desde el inicio del cuadro actual (0..frameLength-1)
+    public int getFrameTStates() {
+        syncFrame();
+        return (int) (tStates - frameStart);
+    }
+
+    // Número de cuadro actual desde el arranque
+    public long getFrameNumber() {
+        syncFrame();
+        return frameStart / frameLength;
+    }
+
+    // Avanza el inicio de cuadro; normalmente solo hay que saltar un cuadro, sin divisiones
+    private void syncFrame() {
+        long elapsed = tStates - frameStart;
+        if (elapsed >= frameLength) {
+            frameStart += elapsed < 2L * frameLength ? frameLength : elapsed - elapsed % frameLength;
+        }
+    }
+
     //////////////////////////////////////////////////
     // Getters y setters registros para depuración
     //////////////////////////////////////////////////
@@ -6506,6 +7933,51 @@ public class Z80 {
 
     public void setRegisters(Z80Registers regs) {
         this.regs = regs;
+        alu = new Z80ALU(regs); // La ALU opera sobre el banco de registros en uso
+    }
+
+    //////////////////////////////////////////////////
+    // Cambio de motor en caliente (ver Z80Engine)
+    //////////////////////////////////////////////////
+
+    // Los registros se copian en el banco propio: cada motor conserva el suyo. El bus pasa a avisar
+    // de las escrituras a la caché de este motor (o a ninguna), y la caché se vacía porque mientras
+    // ejecutaba otro motor no ha recibido esos avisos
+    public void loadState(Z80Engine source) {
+        if (source == this) {
+            return;
+        }
+        regs.copyFrom(source.getRegisters());
+        frameLength = source.getFrameLength();
+        setTStates(source.getTStates());
+        intLine = source.getINTLine();
+        nmiPending = source.isNMIPending();
+        eiExecuted = source.isInterruptShadow();
+        for (int address = 0; address < traps.length; address++) {
+            traps[address] = source.isTrap(address);
+        }
+        Z80Bus bus = source.getDataBus();
+        if (bus != null) {
+            if (bus != dataBus) {
+                setDataBus(bus);
+            }
+            bus.setBlockCache(blockCache);
+        }
+        if (blockCache != null) {
+            blockCache.flush();
+        }
+    }
+
+    //////////////////////////////////////////////////
+    // Modo de evaluación perezosa de flags
+    //////////////////////////////////////////////////
+
+    public void setLazyFlags(boolean enabled) {
+        regs.setLazyFlags(enabled);
+    }
+
+    public boolean isLazyFlags() {
+        return regs.isLazyFlags();
     }
 
 
@@ -6542,10 +8014,9 @@ public class Z80 {
     ///////////////////////////////////////////////////////////////////
 
     // Operacion in <reg>, (C)
-    private void IN8(Register regval, short port) {
+    private byte IN8(short port) {
         regs.setWZ((short) (port + 1));
         byte val = dataBus.ioRead(port);
-        regval.setValue(val);
         regs.setSF((val & 0x80) != 0);
         regs.setZF(val == 0);
         regs.setHF(false);
@@ -6553,44 +8024,166 @@ public class Z80 {
         regs.setNF(false);
         regs.setF3((port & 0x0800) != 0);
         regs.setF5((port & 0x2000) != 0);
+        return val;
     }
 
     // Operacion LDI/LDIR/LDD/LDDR
     private void LD_BLOCK(boolean increment) {
         // increment == true -> LDI* ; == false -> LDD*
-        byte val = dataBus.memRead(regs.HL.getValue16());
-        dataBus.memWrite(regs.DE.getValue16(), val);
-        regs.BC.setValue((short) (regs.BC.getValue16() - 1));
+        byte val = dataBus.memRead(regs.getHL());
+        dataBus.memWrite(regs.getDE(), val);
+        regs.setBC((short) (regs.getBC() - 1));
         if (increment) {
-            regs.DE.setValue((short) (regs.DE.getValue16() + 1));
-            regs.HL.setValue((short) (regs.HL.getValue16() + 1));
+            regs.setDE((short) (regs.getDE() + 1));
+            regs.setHL((short) (regs.getHL() + 1));
         } else {
-            regs.DE.setValue((short) (regs.DE.getValue16() - 1));
-            regs.HL.setValue((short) (regs.HL.getValue16() - 1));
+            regs.setDE((short) (regs.getDE() - 1));
+            regs.setHL((short) (regs.getHL() - 1));
         }
-        regs.setPF(regs.BC.getValue16() != 0);
+        regs.setPF(regs.getBC() != 0);
         regs.setHF(false);
         regs.setNF(false);
-        byte aux = (byte) (val + regs.A.getValue());
+        byte aux = (byte) (val + regs.getA());
         regs.setF3((aux & 0x08) != 0);
         regs.setF5((aux & 0x02) != 0);
     }
 
+    /////////////////////////////////////////////////////////////////////////
+    // Aceleración de las instrucciones de bloque repetitivas
+    // Dentro de run(), una instrucción repetitiva (LDIR, CPIR, INIR...) ejecuta de una vez todas las
+    // iteraciones que el bucle de ejecución habría hecho seguidas: hasta agotar el presupuesto,
+    // terminar la instrucción o poder atender una interrupción o un trap. Las iteraciones previas a
+    // la última se hacen en bloque y la última por el camino normal, que deja flags, WZ y PC igual que
+    // la ejecución paso a paso. Cada iteración que repite son 21 tStates y dos ciclos de refresco.
+
+    // Número de iteraciones a ejecutar seguidas (al menos 1, la que ya está en curso), sin pasar
+    // de las 'max' que le quedan a la instrucción según su contador (BC o B)
+    private int blockIterations(int max) {
+        long remaining = runLimit - tStates;
+        if (remaining <= 21 || irqPending() || traps[(regs.getPC() - 2) & 0xFFFF]) {
+            return 1;
+        }
+        return (int) Math.min((remaining + 20) / 21, max);
+    }
+
+    // Interrupción que el bucle de ejecución atendería antes de la siguiente instrucción
+    boolean irqPending() {
+        return nmiPending || (intLine && regs.getiff1A());
+    }
+
+    // Indica si escribir en el rango [first, last] pisa los dos bytes de la instrucción de bloque en
+    // curso, en cuyo caso la siguiente iteración podría ser otra instrucción. Además de las
+    // direcciones se comparan los datos y sus índices: un banco mapeado en dos direcciones (por
+    // ejemplo el 5 en 4000h y C000h) cambia la instrucción escribiendo en la otra
+    private boolean overwritesInstruction(int first, int last) {
+        int inst = (regs.getPC() - 2) & 0xFFFF;
+        int next = (inst + 1) & 0xFFFF;
+        if ((inst >= first && inst <= last) || (next >= first && next <= last)) {
+            return true;
+        }
+        byte[] data = dataBus.plainData(first, last, true);
+        return data != null && (writesCode(data, first, last, inst) || writesCode(data, first, last, next));
+    }
+
+    // Indica si las escrituras de [first, last], sobre 'data', llegan al byte que se lee en 'address'
+    private boolean writesCode(byte[] data, int first, int last, int address) {
+        if (dataBus.plainData(address, address, false) != data) {
+            return false;
+        }
+        int index = dataBus.plainIndex(address, false);
+        int firstIndex = dataBus.plainIndex(first, true);
+        return index >= firstIndex && index <= firstIndex + (last - first);
+    }
+
+    // Avance de 'count' iteraciones que repiten: tiempo, refresco y WZ
+    private void blockIterationsDone(int count) {
+        tStates += 21L * count;
+        regs.setR((byte) ((regs.getR() & 0x80) | ((regs.getR() + 2 * count) & 0x7F)));
+        regs.setWZ((short) (regs.getPC() - 1));
+    }
+
+    // LDIR/LDDR: copia en bloque de 'count' iteraciones con System.arraycopy
+    private void LD_BLOCK_BULK(boolean increment, int count) {
+        if (count <= 0) {
+            return;
+        }
+        int hl = regs.getHL() & 0xFFFF;
+        int de = regs.getDE() & 0xFFFF;
+        int src = increment ? hl : hl - count + 1;
+        int dst = increment ? de : de - count + 1;
+        // Memoria plana y contigua: lecturas del origen y escrituras del destino (ver Z80Bus.plainData)
+        byte[] srcData = dataBus.plainData(src, src + count - 1, false);
+        byte[] dstData = dataBus.plainData(dst, dst + count - 1, true);
+        if (srcData == null || dstData == null || overwritesInstruction(dst, dst + count - 1)) {
+            return;
+        }
+        int srcIndex = dataBus.plainIndex(src, false);
+        int dstIndex = dataBus.plainIndex(dst, true);
+        // Con solapamiento en el sentido de la copia el Z80 replica el patrón: hay que copiar byte a byte
+        boolean overlap = srcData == dstData
+                && (increment ? dstIndex > srcIndex && dstIndex < srcIndex + count : dstIndex < srcIndex && dstIndex > srcIndex - count);
+        if (!overlap) {
+            System.arraycopy(srcData, srcIndex, dstData, dstIndex, count);
+        } else if (increment) {
+            for (int i = 0; i < count; i++) {
+                dstData[dstIndex + i] = srcData[srcIndex + i];
+            }
+        } else {
+            for (int i = count - 1; i >= 0; i--) {
+                dstData[dstIndex + i] = srcData[srcIndex + i];
+            }
+        }
+        dataBus.memWritten(dst, dst + count - 1); // Copia fuera de memWrite
+        int delta = increment ? count : -count;
+        regs.setHL((short) (hl + delta));
+        regs.setDE((short) (de + delta));
+        regs.setBC((short) (regs.getBC() - count));
+        blockIterationsDone(count);
+    }
+
+    // CPIR/CPDR: búsqueda en bloque; se detiene antes del byte que coincide con A,
+    // que se trata por el camino normal
+    private void CP_BLOCK_BULK(boolean increment, int count) {
+        if (count <= 0) {
+            return;
+        }
+        int hl = regs.getHL() & 0xFFFF;
+        int first = increment ? hl : hl - count + 1;
+        byte[] data = dataBus.plainData(first, first + count - 1, false);
+        if (data == null) {
+            return;
+        }
+        int index = dataBus.plainIndex(hl, false);
+        int step = increment ? 1 : -1;
+        byte a = regs.getA();
+        int done = 0;
+        while (done < count && data[index] != a) {
+            index += step;
+            done++;
+        }
+        if (done == 0) {
+            return;
+        }
+        regs.setHL((short) (hl + step * done));
+        regs.setBC((short) (regs.getBC() - done));
+        blockIterationsDone(done);
+    }
+
     //Operacion OUTI/OTIR/OUTD/OTDR
     private void OUT_BLOCK(boolean increment) {
         // increment == true -> OUTI/OTIR ; == false -> OUTD/OTDR
-        byte aux = (byte) (regs.B.getValue() - 1);
-        regs.B.setValue(aux);
-        byte data = dataBus.memRead(regs.HL.getValue16());
-        dataBus.ioWrite(regs.BC.getValue16(), data);
+        byte aux = (byte) (regs.getB() - 1);
+        regs.setB(aux);
+        byte data = dataBus.memRead(regs.getHL());
+        dataBus.ioWrite(regs.getBC(), data);
         if (increment) {
-            regs.HL.setValue((short) (regs.HL.getValue16() + 1));
-            regs.setWZ((short) (regs.BC.getValue16() + 1));
+            regs.setHL((short) (regs.getHL() + 1));
+            regs.setWZ((short) (regs.getBC() + 1));
         } else {
-            regs.HL.setValue((short) (regs.HL.getValue16() - 1));
-            regs.setWZ((short) (regs.BC.getValue16() - 1));
+            regs.setHL((short) (regs.getHL() - 1));
+            regs.setWZ((short) (regs.getBC() - 1));
         }
-        int testData = (data & 0xFF) + (regs.L.getValue() & 0xFF);
+        int testData = (data & 0xFF) + (regs.getL() & 0xFF);
         regs.setSF((aux & 0x80) != 0);
         regs.setZF(aux == 0);
         regs.setNF((data & 0x80) != 0);
@@ -6604,20 +8197,20 @@ public class Z80 {
     // Operacion INI/INIR/IND/INDR
     private void IN_BLOCK(boolean increment) {
         // increment == true -> INI* ; == false -> IND*
-        byte data = dataBus.ioRead(regs.BC.getValue16());
-        dataBus.memWrite(regs.HL.getValue16(), data);
-        byte aux = (byte) (regs.B.getValue() - 1);
+        byte data = dataBus.ioRead(regs.getBC());
+        dataBus.memWrite(regs.getHL(), data);
+        byte aux = (byte) (regs.getB() - 1);
         int testData;
         if (increment) {
-            regs.HL.setValue((short) (regs.HL.getValue16() + 1));
-            regs.setWZ((short) (regs.BC.getValue16() + 1));
-            testData = (data & 0xFF) + ((regs.C.getValue() + 1) & 0xFF);
+            regs.setHL((short) (regs.getHL() + 1));
+            regs.setWZ((short) (regs.getBC() + 1));
+            testData = (data & 0xFF) + ((regs.getC() + 1) & 0xFF);
         } else {
-            regs.HL.setValue((short) (regs.HL.getValue16() - 1));
-            regs.setWZ((short) (regs.BC.getValue16() - 1));
-            testData = (data & 0xFF) + ((regs.C.getValue() - 1) & 0xFF);
+            regs.setHL((short) (regs.getHL() - 1));
+            regs.setWZ((short) (regs.getBC() - 1));
+            testData = (data & 0xFF) + ((regs.getC() - 1) & 0xFF);
         }
-        regs.B.setValue(aux);
+        regs.setB(aux);
         regs.setSF((aux & 0x80) != 0);
         regs.setZF(aux == 0);
         regs.setNF((data & 0x80) != 0);
@@ -6633,10 +8226,10 @@ public class Z80 {
         regs.setF3((regs.getPC() & 0x0800) != 0);
         regs.setF5((regs.getPC() & 0x2000) != 0);
         if (regs.getCF()) {
-            regs.setPF(!(regs.getPF() ^ parityTable[(((regs.B.getValue() & 0xff) + (regs.getNF() ? -1 : 1)) & 0x07)]));
-            regs.setHF((regs.B.getValue() & 0x0f) == (regs.getNF() ? 0x00 : 0x0F));
+            regs.setPF(!(regs.getPF() ^ parityTable[(((regs.getB() & 0xff) + (regs.getNF() ? -1 : 1)) & 0x07)]));
+            regs.setHF((regs.getB() & 0x0f) == (regs.getNF() ? 0x00 : 0x0F));
         } else {
-            regs.setPF(!(regs.getPF() ^ parityTable[((regs.B.getValue() & 0xff) & 0x07)]));
+            regs.setPF(!(regs.getPF() ^ parityTable[((regs.getB() & 0xff) & 0x07)]));
             regs.setHF(false);
         }
     }
@@ -6656,14 +8249,14 @@ public class Z80 {
     // Hay un apartado para el registro R
 
     private void REFRESH_CYCLE() {
-        byte val = (byte) ((regs.R.getValue() + 1) & 0x7F);
-        regs.R.setValue((byte) ((regs.R.getValue() & 0x80) | val));
+        byte val = (byte) ((regs.getR() + 1) & 0x7F);
+        regs.setR((byte) ((regs.getR() & 0x80) | val));
     }
 
     // Para el caso de tener que reevaluar un codigo de instrucción en los prefijos
     private void REFRESH_CYCLE_BACK() {
-        byte val = (byte) ((regs.R.getValue() - 1) & 0x7F);
-        regs.R.setValue((byte) ((regs.R.getValue() & 0x80) | val));
+        byte val = (byte) ((regs.getR() - 1) & 0x7F);
+        regs.setR((byte) ((regs.getR() & 0x80) | val));
     }
 
 
@@ -1,223 +1,254 @@
 public class Z80ALU {
 
+    // Tipos de operación para el cálculo de flags
+    // Las operaciones hasta FLAGS_PARTIAL redefinen todos los flags a partir de sus operandos
+    // Las siguientes conservan alguno de los flags anteriores (C en INC/DEC, S/Z/P en ADD de 16 bits)
+    public static final int FLAGS_NONE = 0;
+    public static final int FLAGS_ADD8 = 1;
+    public static final int FLAGS_ADC8 = 2;
+    public static final int FLAGS_SUB8 = 3;
+    public static final int FLAGS_SBC8 = 4;
+    public static final int FLAGS_CP8 = 5;
+    public static final int FLAGS_AND8 = 6;
+    public static final int FLAGS_OR8 = 7; // OR y XOR
+    public static final int FLAGS_SHIFT8 = 8; // Rotaciones y desplazamientos CB
+    public static final int FLAGS_ADC16 = 9;
+    public static final int FLAGS_SBC16 = 10;
+    public static final int FLAGS_PARTIAL = 11;
+    public static final int FLAGS_INC8 = 11;
+    public static final int FLAGS_DEC8 = 12;
+    public static final int FLAGS_ADD16 = 13;
+
     private Z80Registers regs;
-    private boolean[] parityTable;
 
-    public Z80ALU(Z80Registers regs, boolean[] parityTable) {
+    public Z80ALU(Z80Registers regs) {
         this.regs = regs;
-        this.parityTable = parityTable;
     }
 
-    public void INC_R8(Register reg) {
-        byte value = (byte)reg.getValue();
-        byte result = (byte) (value + 1);
-        reg.setValue(result);
-        regs.setZF(result == 0);
-        regs.setSF((result & 0x80) != 0);
-        regs.setHF((value & 0x0F) + 1 > 0x0F);
-		regs.setPF(result == (byte)0x80);
-        regs.setNF(false);
-		regs.setF3((result & 0x008) != 0);
-		regs.setF5((result & 0x020) != 0);
+    /////////////////////////////////////////////////////////////////////////
+    // Cálculo del registro F a partir de la última operación
+    // Se usa tanto en modo inmediato como al materializar los flags en modo perezoso
+    // op1/op2: operandos sin signo; res: resultado sin recortar (incluye acarreos/préstamos)
+    // oldF: valor previo de F, para las operaciones que conservan algún flag
+    // Las operaciones de 8 bits se resuelven con las tablas de Z80FlagTables
+
+    public static int computeFlags(int op, int op1, int op2, int res, int oldF) {
+        switch (op) {
+            case FLAGS_ADD8:
+                return Z80FlagTables.ADD[(op1 << 8) | op2] & 0xFF;
+            case FLAGS_ADC8:
+                return Z80FlagTables.ADC[((res - op1 - op2) << 16) | (op1 << 8) | op2] & 0xFF;
+            case FLAGS_SUB8:
+                return Z80FlagTables.SUB[(op1 << 8) | op2] & 0xFF;
+            case FLAGS_SBC8:
+                return Z80FlagTables.SBC[((op1 - op2 - res) << 16) | (op1 << 8) | op2] & 0xFF;
+            case FLAGS_CP8:
+                return Z80FlagTables.CP[(op1 << 8) | op2] & 0xFF;
+            case FLAGS_AND8:
+                return (Z80FlagTables.SZ53P[res] & 0xFF) | Z80Registers.FLAG_H;
+            case FLAGS_OR8:
+                return Z80FlagTables.SZ53P[res] & 0xFF;
+            case FLAGS_SHIFT8:
+                return (Z80FlagTables.SZ53P[res] & 0xFF) | op1;
+            case FLAGS_INC8:
+                return (oldF & Z80Registers.FLAG_C) | (Z80FlagTables.INC[op1] & 0xFF);
+            case FLAGS_DEC8:
+                return (oldF & Z80Registers.FLAG_C) | (Z80FlagTables.DEC[op1] & 0xFF);
+            default:
+                // Operaciones de 16 bits, sin tabla
+                return computeFlagsDirect(op, op1, op2, res, oldF);
+        }
+    }
+
+    // Cálculo de referencia de los flags, rama a rama
+    // Sirve para construir las tablas y para las operaciones de 16 bits
+
+    public static int computeFlagsDirect(int op, int op1, int op2, int res, int oldF) {
+        switch (op) {
+            case FLAGS_ADD8:
+                return (res & 0xA8) | ((res & 0xFF) == 0 ? Z80Registers.FLAG_Z : 0)
+                        | ((res & 0x0F) < (op1 & 0x0F) ? Z80Registers.FLAG_H : 0)
+                        | ((~(op1 ^ op2) & (op2 ^ res) & 0x80) != 0 ? Z80Registers.FLAG_P : 0)
+                        | ((res >> 8) & Z80Registers.FLAG_C);
+            case FLAGS_ADC8:
+                return (res & 0xA8) | ((res & 0xFF) == 0 ? Z80Registers.FLAG_Z : 0)
+                        | ((op1 ^ op2 ^ res) & Z80Registers.FLAG_H)
+                        | ((~(op1 ^ op2) & (op2 ^ res) & 0x80) != 0 ? Z80Registers.FLAG_P : 0)
+                        | ((res >> 8) & Z80Registers.FLAG_C);
+            case FLAGS_SUB8:
+                return (res & 0xA8) | ((res & 0xFF) == 0 ? Z80Registers.FLAG_Z : 0)
+                        | ((res & 0x0F) > (op1 & 0x0F) ? Z80Registers.FLAG_H : 0)
+                        | (((op1 ^ op2) & (op1 ^ res) & 0x80) != 0 ? Z80Registers.FLAG_P : 0)
+                        | Z80Registers.FLAG_N | ((res >> 8) & Z80Registers.FLAG_C);
+            case FLAGS_SBC8:
+                return (res & 0xA8) | ((res & 0xFF) == 0 ? Z80Registers.FLAG_Z : 0)
+                        | ((op1 ^ op2 ^ res) & Z80Registers.FLAG_H)
+                        | (((op1 ^ op2) & (op1 ^ res) & 0x80) != 0 ? Z80Registers.FLAG_P : 0)
+                        | Z80Registers.FLAG_N | ((res >> 8) & Z80Registers.FLAG_C);
+            case FLAGS_CP8:
+                // F3 y F5 se toman del operando, no del resultado
+                return (res & Z80Registers.FLAG_S) | (op2 & 0x28) | ((res & 0xFF) == 0 ? Z80Registers.FLAG_Z : 0)
+                        | ((res & 0x0F) > (op1 & 0x0F) ? Z80Registers.FLAG_H : 0)
+                        | (((op1 ^ op2) & (op1 ^ res) & 0x80) != 0 ? Z80Registers.FLAG_P : 0)
+                        | Z80Registers.FLAG_N | ((res >> 8) & Z80Registers.FLAG_C);
+            case FLAGS_AND8:
+                return sz53p(res) | Z80Registers.FLAG_H;
+            case FLAGS_OR8:
+                return sz53p(res);
+            case FLAGS_SHIFT8:
+                // op1 contiene el bit que sale por el acarreo
+                return sz53p(res) | op1;
+            case FLAGS_ADC16:
+                return ((res >> 8) & 0xA8) | ((res & 0xFFFF) == 0 ? Z80Registers.FLAG_Z : 0)
+                        | (((res ^ op1 ^ op2) >> 8) & Z80Registers.FLAG_H)
+                        | (((op1 ^ ~op2) & (op1 ^ res) & 0x8000) != 0 ? Z80Registers.FLAG_P : 0)
+                        | (res > 0xFFFF ? Z80Registers.FLAG_C : 0);
+            case FLAGS_SBC16:
+                return ((res >> 8) & 0xA8) | ((res & 0xFFFF) == 0 ? Z80Registers.FLAG_Z : 0)
+                        | (((res ^ op1 ^ op2) >> 8) & Z80Registers.FLAG_H)
+                        | (((op1 ^ op2) & (op1 ^ res) & 0x8000) != 0 ? Z80Registers.FLAG_P : 0)
+                        | Z80Registers.FLAG_N | (res < 0 ? Z80Registers.FLAG_C : 0);
+            case FLAGS_INC8:
+                return (oldF & Z80Registers.FLAG_C) | (res & 0xA8) | (res == 0 ? Z80Registers.FLAG_Z : 0)
+                        | ((op1 & 0x0F) == 0x0F ? Z80Registers.FLAG_H : 0)
+                        | (res == 0x80 ? Z80Registers.FLAG_P : 0);
+            case FLAGS_DEC8:
+                return (oldF & Z80Registers.FLAG_C) | (res & 0xA8) | (res == 0 ? Z80Registers.FLAG_Z : 0)
+                        | ((op1 & 0x0F) == 0 ? Z80Registers.FLAG_H : 0)
+                        | (res == 0x7F ? Z80Registers.FLAG_P : 0) | Z80Registers.FLAG_N;
+            case FLAGS_ADD16:
+                return (oldF & (Z80Registers.FLAG_S | Z80Registers.FLAG_Z | Z80Registers.FLAG_P))
+                        | (((op1 & 0x0FFF) + (op2 & 0x0FFF)) > 0x0FFF ? Z80Registers.FLAG_H : 0)
+                        | (res > 0xFFFF ? Z80Registers.FLAG_C : 0) | ((res >> 8) & 0x28);
+            default:
+                return oldF;
+        }
+    }
+
+    // Flags S, Z, F5, F3 y P de un resultado de 8 bits
+    private static int sz53p(int res) {
+        return (res & 0xA8) | (res == 0 ? Z80Registers.FLAG_Z : 0) | (Z80.parityTable[res] ? Z80Registers.FLAG_P : 0);
     }
 
-    public void DEC_R8(Register reg) {
-        byte value = (byte)reg.getValue();
-        byte result = (byte) (value - 1);
-        reg.setValue(result);
-        regs.setZF(result == 0);
-        regs.setSF((result & 0x80) != 0);
-        regs.setHF((value & 0x0F) < 1);
-		regs.setPF(result == 0x7f);
-        regs.setNF(true);
-		regs.setF3((result & 0x08) != 0);
-		regs.setF5((result & 0x20) != 0);
+    public byte INC_R8(byte value) {
+        int result = (value + 1) & 0xFF;
+        regs.setFlags(FLAGS_INC8, value & 0xFF, 0, result);
+        return (byte) result;
     }
 
-    public void ADD_R16(Register reg1, short reg2value) {
-		regs.setWZ((short) (reg1.getValue16() + 1));
-        int value1 = reg1.getValue16() & 0xFFFF;
+    public byte DEC_R8(byte value) {
+        int result = (value - 1) & 0xFF;
+        regs.setFlags(FLAGS_DEC8, value & 0xFF, 0, result);
+        return (byte) result;
+    }
+
+    public short ADD_R16(short reg1value, short reg2value) {
+		regs.setWZ((short) (reg1value + 1));
+        int value1 = reg1value & 0xFFFF;
         int value2 = reg2value & 0xFFFF;
         int result = value1 + value2;
-        reg1.setValue((short) result);
-        regs.setHF(((value1 & 0x0FFF) + (value2 & 0x0FFF)) > 0x0FFF);
-        regs.setCF(result > 0xFFFF);
-        regs.setNF(false);
-		regs.setF3((result & 0x0800) != 0);
-		regs.setF5((result & 0x2000) != 0);
+        regs.setFlags(FLAGS_ADD16, value1, value2, result);
+		return (short) result;
     }
 
 
 	public void SBC_R16(short v) {
-		regs.setWZ((short)(regs.HL.getValue16() + 1));
-		int aux = (regs.HL.getValue16() - v - (regs.getCF() ? 1 : 0));
-		regs.setSF((aux & 0x8000) != 0);
-		regs.setZF(((aux & 0xFFFF) == 0));
-		regs.setHF(((aux ^ regs.HL.getValue16() ^ v) & 0x1000) != 0);
-		regs.setPF(((regs.HL.getValue16() ^ v) & (regs.HL.getValue16() ^ aux) & 0x8000 ) != 0);
-		regs.setNF(true);
-		regs.setCF((regs.HL.getValue16()& 0xffff) < (v & 0xffff) + (regs.getCF() ? 1 : 0));
-		regs.setF3((aux & 0x0800) != 0);
-		regs.setF5((aux & 0x2000) != 0);
-		regs.HL.setValue((short) aux);
+		int hl = regs.getHL() & 0xFFFF;
+		regs.setWZ((short) (hl + 1));
+		int aux = hl - (v & 0xFFFF) - (regs.getCF() ? 1 : 0);
+		regs.setFlags(FLAGS_SBC16, hl, v & 0xFFFF, aux);
+		regs.setHL((short) aux);
 	}
 
 	public void SUB_R8(byte v) {
-		int aux = (regs.A.getValue() & 0xFF) - (v & 0xFF);
-		regs.setSF((aux & 0x80) != 0);
-		regs.setZF(((aux & 0xFF) == 0));
-		regs.setHF((aux & 0x0f) > (regs.A.getValue() & 0x0f));
-		regs.setPF(((regs.A.getValue() ^ v) & (regs.A.getValue() ^ (byte)aux) & 0x80) !=0);
-		regs.setNF(true);
-		regs.setCF((aux & 0x100) != 0);
-		regs.setF3((aux & 0x008) != 0);
-		regs.setF5((aux & 0x020) != 0);
-		regs.A.setValue((byte) aux);
+		int a = regs.getA() & 0xFF;
+		int aux = a - (v & 0xFF);
+		regs.setFlags(FLAGS_SUB8, a, v & 0xFF, aux);
+		regs.setA((byte) aux);
 	}
-	
+
 	public void ADD_R8(byte v) {
-		int aux = (regs.A.getValue() & 0xFF) + (v & 0xFF);
-		regs.setSF((aux & 0x80) != 0);
-		regs.setZF((aux & 0xFF) == 0);
-		regs.setHF((aux & 0x0f) < (regs.A.getValue() & 0x0f));
-		regs.setPF((~(regs.A.getValue() ^ v) & (v ^ aux) & 0x80 )!= 0);
-		regs.setNF(false);
-		regs.setCF((aux & 0x100) != 0);
-		regs.setF3((aux & 0x008) != 0);
-		regs.setF5((aux & 0x020) != 0);
-		regs.A.setValue((byte) aux);
+		int a = regs.getA() & 0xFF;
+		int aux = a + (v & 0xFF);
+		regs.setFlags(FLAGS_ADD8, a, v & 0xFF, aux);
+		regs.setA((byte) aux);
 	}
 
 	public void ADC_R16(short v) {
-		regs.setWZ((short)(regs.HL.getValue16()+1));
-		int aux = (regs.HL.getValue16() & 0xffff) + (v & 0xffff) + (regs.getCF() ? 1 : 0);
-		regs.setSF((aux & 0x8000) != 0);
-		regs.setZF((aux & 0xffff) == 0);
-		regs.setHF(((aux ^ regs.HL.getValue16() ^ v) & 0x1000) != 0);
-		regs.setPF(((regs.HL.getValue16() ^ ~v) & (regs.HL.getValue16() ^ aux) & 0x8000) != 0);
-		regs.setNF(false);
-		regs.setCF(aux > 0xffff);
-		regs.setF3((aux & 0x0800) != 0);
-		regs.setF5((aux & 0x2000) != 0);
-		regs.HL.setValue((short) aux);
+		int hl = regs.getHL() & 0xFFFF;
+		regs.setWZ((short) (hl + 1));
+		int aux = hl + (v & 0xFFFF) + (regs.getCF() ? 1 : 0);
+		regs.setFlags(FLAGS_ADC16, hl, v & 0xFFFF, aux);
+		regs.setHL((short) aux);
 	}
 
 
 	public void ADC_R8(byte v) {
-		int aux = (regs.A.getValue() & 0xFF) + (v & 0xFF) + (regs.getCF() ? 1 : 0);
-		regs.setSF((aux & 0x80) != 0);
-		regs.setZF((aux & 0xff) == 0);
-		regs.setHF(((regs.A.getValue() ^ v ^ aux) & 0x10) != 0);
-		regs.setPF((~(regs.A.getValue() ^ v) & (v ^ aux) & 0x80 )!= 0);
-		regs.setNF(false);
-		regs.setCF((aux & 0x100) != 0);
-		regs.setF3((aux & 0x008) != 0);
-		regs.setF5((aux & 0x020) != 0);
-		regs.A.setValue((byte) aux);
+		int a = regs.getA() & 0xFF;
+		int aux = a + (v & 0xFF) + (regs.getCF() ? 1 : 0);
+		regs.setFlags(FLAGS_ADC8, a, v & 0xFF, aux);
+		regs.setA((byte) aux);
 	}
 
 
 	public void AND_R8(byte v) {
-		regs.A.setValue((byte) (regs.A.getValue() & v));  
-		regs.setSF((regs.A.getValue() & 0x80) != 0);  
-		regs.setZF(regs.A.getValue() == 0);  
-		regs.setHF(true);  
-		regs.setPF(parityTable[regs.A.getValue() & 0xFF]);  
-		regs.setNF(false);  
-		regs.setCF(false);  
-		regs.setF3((regs.A.getValue() & 0x008) != 0);
-		regs.setF5((regs.A.getValue() & 0x020) != 0);
+		int result = (regs.getA() & v) & 0xFF;
+		regs.setA((byte) result);
+		regs.setFlags(FLAGS_AND8, 0, 0, result);
 	}
-		
-
-	
-	public void BIT8(byte val, int bit) {  
-		byte mask = (byte) (1 << bit);
-		boolean result = (val & mask) == 0;
-		regs.setZF(result);
-		regs.setPF(result);
-		regs.setSF((val & mask & 0x80) != 0);
-		regs.setHF(true);
-		regs.setNF(false);
-		regs.setF5((val & 0x20) != 0);
-		regs.setF3((val & 0x08) != 0);
-		
+
+
+
+	public void BIT8(byte val, int bit) {
+		int mask = 1 << bit;
+		int result = (val & mask) == 0 ? (Z80Registers.FLAG_Z | Z80Registers.FLAG_P) : 0;
+		regs.setF((byte) ((regs.getF() & Z80Registers.FLAG_C) | result | (val & mask & Z80Registers.FLAG_S)
+				| Z80Registers.FLAG_H | (val & 0x28)));
 	}
 
 	public void BIT8_WZ_(byte val, int bit) {
-		byte mask = (byte) (1 << bit);
-		boolean result = (val & mask) == 0;
-		regs.setZF(result);
-		regs.setPF(result);
-		regs.setSF((val & mask & 0x80) != 0);
-		regs.setHF(true);
-		regs.setNF(false);
-		regs.setF5((regs.getWZ() & 0x2000) != 0);
-		regs.setF3((regs.getWZ() & 0x0800) != 0);
-		
+		int mask = 1 << bit;
+		int result = (val & mask) == 0 ? (Z80Registers.FLAG_Z | Z80Registers.FLAG_P) : 0;
+		regs.setF((byte) ((regs.getF() & Z80Registers.FLAG_C) | result | (val & mask & Z80Registers.FLAG_S)
+				| Z80Registers.FLAG_H | (regs.getW() & 0x28)));
 	}
-		
-		
+
+
 	public void CMP_R8(byte v) {
-		int aux = (regs.A.getValue() & 0xFF) - (v & 0xFF);
-		regs.setSF((aux & 0x80) != 0);
-		regs.setCF((aux & 0x100) != 0);
-		regs.setZF((aux & 0xFF) == 0);
-		regs.setHF((aux & 0x0f) > (regs.A.getValue() & 0x0f));
-		regs.setPF(((regs.A.getValue() ^ v) & (regs.A.getValue() ^ (byte)aux) & 0x80) !=0);
-		regs.setNF(true);
-		regs.setF3((v & 0x008) != 0);
-		regs.setF5((v & 0x020) != 0);
+		int a = regs.getA() & 0xFF;
+		int aux = a - (v & 0xFF);
+		regs.setFlags(FLAGS_CP8, a, v & 0xFF, aux);
 	}
-	
+
 
 	public void CMP_R8_NOFLAGS(byte r, byte v) {
 		int aux = (r & 0xFF) - (v & 0xFF);
-		regs.setSF((aux & 0x80) != 0);
-		regs.setZF((aux & 0xFF) == 0);
-		regs.setHF((aux & 0x0f) > (r & 0x0f));
-		regs.setNF(true);
+		int keep = Z80Registers.FLAG_5 | Z80Registers.FLAG_3 | Z80Registers.FLAG_P | Z80Registers.FLAG_C;
+		regs.setF((byte) ((regs.getF() & keep) | (aux & Z80Registers.FLAG_S)
+				| ((aux & 0xFF) == 0 ? Z80Registers.FLAG_Z : 0)
+				| ((aux & 0x0f) > (r & 0x0f) ? Z80Registers.FLAG_H : 0) | Z80Registers.FLAG_N));
 	}
 
 
 	public void OR_R8(byte v) {
-		regs.A.setValue((byte) (regs.A.getValue() | v));
-		regs.setSF((regs.A.getValue() & 0x80) != 0);
-		regs.setZF((regs.A.getValue() == 0));
-		regs.setHF(false);
-		regs.setNF(false);
-		regs.setCF(false);
-		regs.setPF(parityTable[regs.A.getValue() & 0xFF]);
-		regs.setF3((regs.A.getValue() & 0x008) != 0);
-		regs.setF5((regs.A.getValue() & 0x020) != 0);
+		int result = (regs.getA() | v) & 0xFF;
+		regs.setA((byte) result);
+		regs.setFlags(FLAGS_OR8, 0, 0, result);
 	}
 
 
 	public void SBC_R8(byte v) {
-		byte r = (byte)regs.A.getValue();
-		int aux = (r & 0xFF) - (v & 0xFF) - (regs.getCF() ? 1 : 0);
-		regs.setSF((aux & 0x80) != 0);
-		regs.setZF((aux & 0xFF) == 0);
-		regs.setHF(((regs.A.getValue() ^ v ^ aux) & 0x10) != 0);
-		regs.setPF(((regs.A.getValue() ^ v) & (regs.A.getValue() ^ (byte)aux) & 0x80) !=0);
-		regs.setNF(true);
-		regs.setCF((aux & 0x100) != 0);
-		regs.setF3((aux & 0x008) != 0);
-		regs.setF5((aux & 0x020) != 0);
-		regs.A.setValue((byte) aux);
+		int a = regs.getA() & 0xFF;
+		int aux = a - (v & 0xFF) - (regs.getCF() ? 1 : 0);
+		regs.setFlags(FLAGS_SBC8, a, v & 0xFF, aux);
+		regs.setA((byte) aux);
 	}
 
 
 	public void XOR_R8(byte v) {
-		regs.A.setValue( (byte) (regs.A.getValue() ^ v) );
-		regs.setSF((regs.A.getValue() & 0x80) != 0);
-		regs.setZF(regs.A.getValue() == 0);
-		regs.setHF(false);
-		regs.setNF(false);
-		regs.setCF(false);
-		regs.setPF(parityTable[regs.A.getValue() & 0xFF]);
-		regs.setF3((regs.A.getValue() & 0x008) != 0);
-		regs.setF5((regs.A.getValue() & 0x020) != 0);
+		int result = (regs.getA() ^ v) & 0xFF;
+		regs.setA((byte) result);
+		regs.setFlags(FLAGS_OR8, 0, 0, result);
 	}
 
 
@@ -225,126 +256,49 @@ public class Z80ALU {
 // Rotation operations
 
 
-	public void RL8(Register reg) {
-		byte val = (byte)reg.getValue();
-		boolean cf = (val & 0x80) != 0;
-		val = (byte) (val << 1);
-		val |= (regs.getCF() ? 0x01 : 0x00);
-		reg.setValue(val);
-		regs.setSF((val & 0x80) != 0);
-		regs.setZF(val == 0);
-		regs.setHF(false);
-		regs.setNF(false);
-		regs.setPF(parityTable[val & 0xFF]);
-		regs.setCF(cf);
-		regs.setF3((val & 0x008) != 0);
-		regs.setF5((val & 0x020) != 0);
+	// Una sola consulta en Z80FlagTables.ROTATE da el resultado y los flags (el acarreo de salida
+	// queda en el bit C de los flags)
+	public byte RL8(byte val) {
+		return rotate(Z80FlagTables.ROT_RL, regs.getCF() ? 1 : 0, val);
 	}
 
-	public void RLC8(Register reg) {
-		byte val = (byte)reg.getValue();
-		val = (byte) ((val << 1) | ((val & 0x80) != 0 ? 0x01 : 0x00));
-		reg.setValue(val);
-		regs.setSF((val & 0x80) != 0);
-		regs.setZF(val == 0);
-		regs.setHF(false);
-		regs.setNF(false);
-		regs.setPF(parityTable[val & 0xFF]);
-		regs.setCF((val & 0x01) != 0);
-		regs.setF3((val & 0x008) != 0);
-		regs.setF5((val & 0x020) != 0);
+	public byte RLC8(byte val) {
+		return rotate(Z80FlagTables.ROT_RLC, 0, val);
 	}
 
-	public void RR8(Register reg) {
-		byte val = (byte)reg.getValue();
-		boolean cf = (val & 0x01) != 0;
-		val = (byte) ((val >> 1) & 0x7F);
-		val |= (regs.getCF() ? 0x80 : 0x00);
-		reg.setValue(val);
-		regs.setSF((val & 0x80) != 0);
-		regs.setZF(val == 0);
-		regs.setHF(false);
-		regs.setNF(false);
-		regs.setPF(parityTable[val & 0xFF]);
-		regs.setCF(cf);
-		regs.setF3((val & 0x008) != 0);
-		regs.setF5((val & 0x020) != 0);
+	public byte RR8(byte val) {
+		return rotate(Z80FlagTables.ROT_RR, regs.getCF() ? 1 : 0, val);
 	}
 
-	public void RRC8(Register reg) {
-		byte val = (byte)reg.getValue();
-		regs.setCF((val & 0x01) != 0);
-		val = (byte) ((val >> 1) & 0x7F);
-		val |= regs.getCF() ? 0x80 : 0x00;
-		reg.setValue(val);
-		regs.setSF((val & 0x80) != 0);
-		regs.setZF(val == 0);
-		regs.setHF(false);
-		regs.setNF(false);
-		regs.setPF(parityTable[val & 0xFF]);
-		regs.setF3((val & 0x008) != 0);
-		regs.setF5((val & 0x020) != 0);
+	public byte RRC8(byte val) {
+		return rotate(Z80FlagTables.ROT_RRC, 0, val);
 	}
 
 
-	public void SLA8(Register reg) {
-		byte val = (byte)reg.getValue();
-		regs.setCF((val & 0x80) != 0);
-		val = (byte) (val << 1);
-		reg.setValue(val);
-		regs.setSF((val & 0x80) != 0);
-		regs.setZF(val == 0);
-		regs.setHF(false);
-		regs.setNF(false);
-		regs.setPF(parityTable[val & 0xFF]);
-		regs.setF3((val & 0x008) != 0);
-		regs.setF5((val & 0x020) != 0);
+	public byte SLA8(byte val) {
+		return rotate(Z80FlagTables.ROT_SLA, 0, val);
 	}
 
 
-	public void SRA8(Register reg) {
-		byte val = (byte)reg.getValue();
-		regs.setCF((val & 0x01) != 0);
-		val = (byte) ((val & 0x80) | (val >> 1));
-		reg.setValue(val);
-		regs.setSF((val & 0x80) != 0);
-		regs.setZF(val == 0);
-		regs.setHF(false);
-		regs.setNF(false);
-		regs.setPF(parityTable[val & 0xFF]);
-		regs.setF3((val & 0x008) != 0);
-		regs.setF5((val & 0x020) != 0);
+	public byte SRA8(byte val) {
+		return rotate(Z80FlagTables.ROT_SRA, 0, val);
 	}
 
 
-	public void SRL8(Register reg) {
-		byte val = (byte)reg.getValue();
-		regs.setCF((val & 0x01) != 0);
-		val = (byte) ((val >> 1) & 0x7F);
-		reg.setValue(val);
-		regs.setSF((val & 0x80) != 0);
-		regs.setZF(val == 0);
-		regs.setHF(false);
-		regs.setNF(false);
-		regs.setPF(parityTable[val & 0xFF]);
-		regs.setF3((val & 0x008) != 0);
-		regs.setF5((val & 0x020) != 0);
+	public byte SRL8(byte val) {
+		return rotate(Z80FlagTables.ROT_SRL, 0, val);
+	}
+
+	public byte SLI8(byte val) {
+		return rotate(Z80FlagTables.ROT_SLL, 0, val);
 	}
 
-	public void SLI8(Register reg) {
-		byte val = (byte)reg.getValue();
-		regs.setCF((val & 0x80) != 0);
-		val = (byte) ((val << 1) | 0x01);
-		reg.setValue(val);
-		regs.setSF((val & 0x80) != 0);
-		regs.setZF(val == 0);
-		regs.setHF(false);
-		regs.setNF(false);
-		regs.setPF(parityTable[val & 0xFF]);
-		regs.setF3((val & 0x008) != 0);
-		regs.setF5((val & 0x020) != 0);
+	private byte rotate(int rot, int carry, byte val) {
+		int entry = Z80FlagTables.ROTATE[(rot << 9) | (carry << 8) | (val & 0xFF)];
+		regs.setFlags(FLAGS_SHIFT8, (entry >> 8) & Z80Registers.FLAG_C, 0, entry & 0xFF);
+		return (byte) entry;
 	}
 
 
-	
+
 }
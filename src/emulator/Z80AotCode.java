@@ -0,0 +1,119 @@
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+// Código traducido de antemano (AOT) para una imagen de ROM
+// La herramienta Z80RomTranslator recorre el flujo de control de una ROM y genera una subclase con
+// un bloque compilado (clase anidada) por cada bloque básico alcanzable. Con Z80.setAotCode la
+// caché de bloques asocia esos bloques compilados al decodificar, sin umbral de ejecuciones.
+//
+// Cada bloque se describe con su dirección de inicio, su dirección final, su número de
+// instrucciones y el CRC32 de sus bytes. Solo se usa si el bloque decodificado en ejecución es
+// idéntico: mismo tamaño (un trap puede partirlo) y mismos bytes (la página puede tener otra ROM o
+// RAM). Cualquier otra dirección, y los saltos calculados a sitios no previstos, los ejecuta el
+// intérprete o el recompilador dinámico.
+
+public abstract class Z80AotCode {
+
+    private final int[] index = new int[0x10000]; // Entrada de la tabla por dirección de inicio (-1: ninguna)
+    private final int[] end;
+    private final int[] length;
+    private final int[] checksum;
+    private final Z80CompiledBlock[] compiled; // Instancias creadas bajo demanda
+    private final boolean[] missing; // Clases que no se han podido cargar
+
+    // Contadores
+    private long attached;
+    private long rejected;
+
+    // Tabla de bloques: una cadena por bloque con "inicio fin instrucciones crc32" en hexadecimal
+    protected Z80AotCode(String[] blocks) {
+        Arrays.fill(index, -1);
+        end = new int[blocks.length];
+        length = new int[blocks.length];
+        checksum = new int[blocks.length];
+        compiled = new Z80CompiledBlock[blocks.length];
+        missing = new boolean[blocks.length];
+        for (int i = 0; i < blocks.length; i++) {
+            String[] fields = blocks[i].split(" ");
+            index[Integer.parseInt(fields[0], 16)] = i;
+            end[i] = Integer.parseInt(fields[1], 16);
+            length[i] = Integer.parseInt(fields[2], 16);
+            checksum[i] = (int) Long.parseLong(fields[3], 16);
+        }
+    }
+
+    // Nombre de la clase anidada con la traducción del bloque que empieza en 'address'
+    public static String blockClassName(int address) {
+        return String.format("B%04X", address);
+    }
+
+    // CRC32 de los bytes [start, end) del bus
+    public static int checksum(Z80Bus dataBus, int start, int end) {
+        CRC32 crc = new CRC32();
+        for (int address = start; address < end; address++) {
+            crc.update(dataBus.memRead(address));
+        }
+        return (int) crc.getValue();
+    }
+
+    // Bloque compilado para un bloque recién decodificado, o null si no hay o no coincide.
+    // Las traducciones hacen bucles internos sobre su inicio, así que no valen si allí hay un trap
+    Z80CompiledBlock lookup(Z80BlockCache.Block block, Z80Bus dataBus, boolean[] traps) {
+        int i = index[block.start];
+        if (i < 0 || missing[i]) {
+            return null;
+        }
+        if (block.length != length[i] || block.codeEnd[block.length - 1] != end[i] || traps[block.start]
+                || checksum(dataBus, block.start, end[i]) != checksum[i]) {
+            rejected++;
+            return null;
+        }
+        if (compiled[i] == null) {
+            compiled[i] = create(block.start);
+            if (compiled[i] == null) {
+                missing[i] = true;
+                return null;
+            }
+        }
+        attached++;
+        return compiled[i];
+    }
+
+    // Estadísticas
+    public int getBlocks() {
+        return end.length;
+    }
+
+    public long getAttached() {
+        return attached;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void resetStats() {
+        attached = 0;
+        rejected = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AOT code %s: %d blocks, %d attached, %d rejected", getClass().getName(),
+                end.length, attached, rejected);
+    }
+
+    ////////////////////////////////////////////////////////////
+    // Métodos privados
+
+    private Z80CompiledBlock create(int address) {
+        try {
+            Class<?> blockClass = Class.forName(getClass().getName() + "$" + blockClassName(address), true,
+                    getClass().getClassLoader());
+            return (Z80CompiledBlock) blockClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            System.err.println("Z80AotCode: " + e);
+            return null;
+        }
+    }
+}
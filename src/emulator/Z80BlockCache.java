@@ -0,0 +1,384 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Caché de bloques básicos predecodificados
+// Un bloque es una secuencia de instrucciones en línea recta que empieza en un PC dado; solo la
+// última instrucción puede cambiar el flujo (saltos, llamadas, HALT, EI, E/S, instrucciones ED...).
+// Cada instrucción queda reducida a su manejador (grupo de prefijo y opcode), el desplazamiento de
+// las DDCB/FDCB, el PC que deja el fetch y los ciclos M1 que incrementan R. Al ejecutar un bloque no
+// se vuelve a leer ni decodificar ningún byte de prefijo u opcode.
+//
+// Invalidación: el bus avisa de las escrituras en las páginas de 1 KB que contienen código
+// predecodificado, y la caché invalida los bloques que contienen alguno de los bytes escritos.
+// Se vigilan las instrucciones completas, operandos incluidos, porque el recompilador dinámico
+// (Z80Recompiler) traduce los operandos inmediatos como constantes.
+// Solo se predecodifica código en memoria plana (componentes sin lógica propia).
+
+public class Z80BlockCache {
+
+    // Grupos de manejadores (prefijo de la instrucción)
+    static final int GROUP_MAIN = 0;
+    static final int GROUP_CB = 1;
+    static final int GROUP_ED = 2;
+    static final int GROUP_DD = 3;
+    static final int GROUP_FD = 4;
+    static final int GROUP_DDCB = 5;
+    static final int GROUP_FDCB = 6;
+
+    static final int MAX_INSTRUCTIONS = 32; // Instrucciones máximas por bloque
+    private static final int PAGE_SIZE = 1024; // Páginas de código de la caché (fijas, independientes de las del bus)
+
+    // Longitud en bytes de las instrucciones sin prefijo
+    private static final int[] LENGTH_MAIN = new int[256];
+    // Instrucciones sin prefijo que terminan un bloque
+    private static final boolean[] CONTROL_MAIN = new boolean[256];
+    // Longitud en bytes de las instrucciones DD/FD que se ejecutan sobre el registro índice (0: no existe)
+    private static final int[] LENGTH_XX = new int[256];
+
+    static {
+        Arrays.fill(LENGTH_MAIN, 1);
+        for (int op : new int[] { 0x06, 0x0E, 0x16, 0x1E, 0x26, 0x2E, 0x36, 0x3E, 0x10, 0x18, 0x20, 0x28, 0x30,
+                0x38, 0xC6, 0xCE, 0xD6, 0xDE, 0xE6, 0xEE, 0xF6, 0xFE, 0xD3, 0xDB }) {
+            LENGTH_MAIN[op] = 2;
+        }
+        for (int op : new int[] { 0x01, 0x11, 0x21, 0x31, 0x22, 0x2A, 0x32, 0x3A, 0xC2, 0xC3, 0xCA, 0xD2, 0xDA,
+                0xE2, 0xEA, 0xF2, 0xFA, 0xC4, 0xCC, 0xCD, 0xD4, 0xDC, 0xE4, 0xEC, 0xF4, 0xFC }) {
+            LENGTH_MAIN[op] = 3;
+        }
+        // Saltos, llamadas, retornos, RST, HALT, EI (retarda las interrupciones) y E/S (los
+        // dispositivos pueden activar interrupciones)
+        for (int op : new int[] { 0x10, 0x18, 0x20, 0x28, 0x30, 0x38, 0x76, 0xFB, 0xD3, 0xDB, 0xE9 }) {
+            CONTROL_MAIN[op] = true;
+        }
+        for (int op = 0xC0; op <= 0xFF; op++) {
+            int low = op & 0x07;
+            if (low == 0x00 || low == 0x02 || low == 0x04 || low == 0x07) {
+                CONTROL_MAIN[op] = true; // ret cc, jp cc, call cc, rst
+            }
+        }
+        for (int op : new int[] { 0xC3, 0xC9, 0xCD, 0xD9 }) {
+            CONTROL_MAIN[op] = op != 0xD9; // jp, ret, call (exx no)
+        }
+
+        for (int op : new int[] { 0x09, 0x19, 0x23, 0x24, 0x25, 0x29, 0x2B, 0x2C, 0x2D, 0x39, 0x44, 0x45, 0x4C, 0x4D,
+                0x54, 0x55, 0x5C, 0x5D, 0x60, 0x61, 0x62, 0x63, 0x64, 0x65, 0x67, 0x68, 0x69, 0x6A, 0x6B, 0x6C, 0x6D,
+                0x6F, 0x7C, 0x7D, 0x84, 0x85, 0x8C, 0x8D, 0x94, 0x95, 0x9C, 0x9D, 0xA4, 0xA5, 0xAC, 0xAD, 0xB4, 0xB5,
+                0xBC, 0xBD, 0xE1, 0xE3, 0xE5, 0xF9 }) {
+            LENGTH_XX[op] = 2;
+        }
+        for (int op : new int[] { 0x26, 0x2E, 0x34, 0x35, 0x46, 0x4E, 0x56, 0x5E, 0x66, 0x6E, 0x70, 0x71, 0x72, 0x73,
+                0x74, 0x75, 0x77, 0x7E, 0x86, 0x8E, 0x96, 0x9E, 0xA6, 0xAE, 0xB6, 0xBE }) {
+            LENGTH_XX[op] = 3;
+        }
+        for (int op : new int[] { 0x21, 0x22, 0x2A, 0x36 }) {
+            LENGTH_XX[op] = 4;
+        }
+    }
+
+    // Bloque básico predecodificado
+    static final class Block {
+        final int start; // Dirección de la primera instrucción
+        final int length; // Número de instrucciones
+        final int[] handler; // (grupo << 8) | opcode
+        final int[] operand; // Desplazamiento d de las instrucciones DDCB/FDCB
+        final int[] next; // PC tras el fetch de prefijos y opcode
+        final int[] refresh; // Ciclos M1 (incremento de R) de cada instrucción
+        final int[] codeStart; // Bytes de cada instrucción: [codeStart, codeEnd)
+        final int[] codeEnd;
+        final int[] fused; // Familia de superinstrucción que forma con la siguiente (Z80Fusion, 0: ninguna)
+        boolean valid = true;
+        int executions; // Ejecuciones, para detectar los bloques calientes
+        Z80CompiledBlock compiled; // Traducción del recompilador dinámico o anticipada (null si no la hay)
+
+        Block(int start, int length) {
+            this.start = start;
+            this.length = length;
+            handler = new int[length];
+            operand = new int[length];
+            next = new int[length];
+            refresh = new int[length];
+            codeStart = new int[length];
+            codeEnd = new int[length];
+            fused = new int[length];
+        }
+    }
+
+    private final Z80Bus dataBus;
+    private final boolean[] traps; // Direcciones de parada de la CPU: un bloque solo puede empezar en ellas
+    private final Block[] blocks = new Block[0x10000]; // Bloques por dirección de inicio
+    private final List<List<Block>> pageBlocks = new ArrayList<>(); // Bloques con bytes en cada página
+    private final short[] coverage = new short[0x10000]; // Bloques válidos que han decodificado cada byte
+    private Z80AotCode aotCode; // Traducciones anticipadas que se asocian al decodificar (null: ninguna)
+    private boolean fusion; // Marcar superinstrucciones al decodificar
+
+    // Contadores
+    private long hits;
+    private long misses;
+    private long invalidations;
+
+    public Z80BlockCache(Z80Bus dataBus, boolean[] traps) {
+        this.dataBus = dataBus;
+        this.traps = traps;
+        for (int i = 0; i < 0x10000 / PAGE_SIZE; i++) {
+            pageBlocks.add(new ArrayList<Block>());
+        }
+    }
+
+    // Bloque que empieza en 'pc', decodificándolo si no está en la caché.
+    // Devuelve null si en esa dirección no se puede predecodificar (memoria con lógica propia)
+    Block lookup(int pc) {
+        Block block = blocks[pc];
+        if (block != null) {
+            hits++;
+            return block;
+        }
+        misses++;
+        block = decode(pc);
+        if (block != null) {
+            if (aotCode != null) {
+                block.compiled = aotCode.lookup(block, dataBus, traps);
+            }
+            register(block);
+        }
+        return block;
+    }
+
+    // Código traducido de antemano para los bloques que se decodifiquen a partir de ahora
+    void setAotCode(Z80AotCode aotCode) {
+        this.aotCode = aotCode;
+        flush();
+    }
+
+    // Aviso del bus: escritura en una página con código predecodificado
+    void memWritten(int address) {
+        if (coverage[address] == 0) {
+            return;
+        }
+        List<Block> list = pageBlocks.get(address / PAGE_SIZE);
+        for (int i = list.size() - 1; i >= 0; i--) {
+            Block block = list.get(i);
+            if (covers(block, address)) {
+                invalidate(block);
+            }
+        }
+    }
+
+    // Aviso del bus: la página lee ahora otra memoria (cambio de banco). Se descartan todos sus
+    // bloques, también los que solo tienen parte de sus bytes en ella
+    void pageRemapped(int page) {
+        List<Block> list = pageBlocks.get(page);
+        while (!list.isEmpty()) {
+            invalidate(list.get(list.size() - 1));
+        }
+    }
+
+    // Superinstrucciones en los bloques que se decodifiquen a partir de ahora
+    void setFusion(boolean fusion) {
+        if (this.fusion != fusion) {
+            this.fusion = fusion;
+            flush();
+        }
+    }
+
+    boolean isFusion() {
+        return fusion;
+    }
+
+    // Longitud en bytes de una instrucción sin prefijo
+    static int lengthMain(int op) {
+        return LENGTH_MAIN[op];
+    }
+
+    // Indica si una instrucción sin prefijo termina un bloque
+    static boolean isControlMain(int op) {
+        return CONTROL_MAIN[op];
+    }
+
+    // Vacía la caché (cambios en el mapa de memoria o en los traps)
+    public void flush() {
+        for (List<Block> list : pageBlocks) {
+            for (Block block : list) {
+                block.valid = false;
+            }
+            list.clear();
+        }
+        Arrays.fill(blocks, null);
+        Arrays.fill(coverage, (short) 0);
+        for (int page = 0; page < pageBlocks.size(); page++) {
+            dataBus.setCodePage(page, false);
+        }
+    }
+
+    // Estadísticas
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    public void resetStats() {
+        hits = 0;
+        misses = 0;
+        invalidations = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Block cache: %d hits, %d misses, %d invalidations", hits, misses, invalidations);
+    }
+
+    ////////////////////////////////////////////////////////////
+    // Métodos privados
+
+    private Block decode(int pc) {
+        int[] handler = new int[MAX_INSTRUCTIONS];
+        int[] operand = new int[MAX_INSTRUCTIONS];
+        int[] next = new int[MAX_INSTRUCTIONS];
+        int[] refresh = new int[MAX_INSTRUCTIONS];
+        int[] codeEnd = new int[MAX_INSTRUCTIONS];
+        int[] codeStart = new int[MAX_INSTRUCTIONS];
+        int count = 0;
+        int address = pc;
+
+        while (count < MAX_INSTRUCTIONS) {
+            // Un trap solo se comprueba al inicio de un bloque
+            if (count > 0 && traps[address]) {
+                break;
+            }
+            if (address + 4 > 0x10000 || !isPlain(address) || !isPlain(address + 3)) {
+                break; // Fin de memoria o memoria con lógica propia
+            }
+            int op = dataBus.memRead(address) & 0xFF;
+            int group;
+            int code;
+            int fetched; // Bytes de prefijo y opcode consumidos por el fetch
+            int length;
+            boolean control;
+            int d = 0;
+            if (op == 0xCB) {
+                group = GROUP_CB;
+                code = dataBus.memRead(address + 1) & 0xFF;
+                fetched = 2;
+                length = 2;
+                control = false;
+            } else if (op == 0xED) {
+                group = GROUP_ED;
+                code = dataBus.memRead(address + 1) & 0xFF;
+                fetched = 2;
+                length = (code & 0xC7) == 0x43 ? 4 : 2; // ld (NN),rr / ld rr,(NN)
+                control = true; // E/S, RETN/RETI, instrucciones de bloque...
+            } else if (op == 0xDD || op == 0xFD) {
+                code = dataBus.memRead(address + 1) & 0xFF;
+                if (code == 0xCB) {
+                    group = op == 0xDD ? GROUP_DDCB : GROUP_FDCB;
+                    d = dataBus.memRead(address + 2);
+                    code = dataBus.memRead(address + 3) & 0xFF;
+                    fetched = 4;
+                    length = 4;
+                    control = false;
+                } else {
+                    group = op == 0xDD ? GROUP_DD : GROUP_FD;
+                    fetched = 2;
+                    length = LENGTH_XX[code];
+                    // jp (xx) y los prefijos sin instrucción indexada (que retroceden PC) terminan el bloque
+                    control = length == 0 || code == 0xE9;
+                    if (length == 0) {
+                        length = 2;
+                    }
+                }
+            } else {
+                group = GROUP_MAIN;
+                code = op;
+                fetched = 1;
+                length = LENGTH_MAIN[op];
+                control = CONTROL_MAIN[op];
+            }
+
+            handler[count] = (group << 8) | code;
+            operand[count] = d;
+            next[count] = address + fetched;
+            refresh[count] = group == GROUP_MAIN ? 1 : 2;
+            codeStart[count] = address;
+            codeEnd[count] = address + length;
+            count++;
+            address += length;
+            if (control || address > 0xFFFF) {
+                break;
+            }
+        }
+        if (count == 0) {
+            return null;
+        }
+
+        Block block = new Block(pc, count);
+        System.arraycopy(handler, 0, block.handler, 0, count);
+        System.arraycopy(operand, 0, block.operand, 0, count);
+        System.arraycopy(next, 0, block.next, 0, count);
+        System.arraycopy(refresh, 0, block.refresh, 0, count);
+        System.arraycopy(codeStart, 0, block.codeStart, 0, count);
+        System.arraycopy(codeEnd, 0, block.codeEnd, 0, count);
+        // Superinstrucciones: pares sin prefijo consecutivos, sin solaparse
+        for (int i = 0; fusion && i + 1 < count; i++) {
+            if (handler[i] >> 8 == GROUP_MAIN && handler[i + 1] >> 8 == GROUP_MAIN) {
+                block.fused[i] = Z80Fusion.family(handler[i], handler[i + 1]);
+                if (block.fused[i] != 0) {
+                    i++;
+                }
+            }
+        }
+        return block;
+    }
+
+    private boolean isPlain(int address) {
+        return dataBus.isPlainRead(address);
+    }
+
+    private void register(Block block) {
+        blocks[block.start] = block;
+        int lastPage = -1;
+        for (int i = 0; i < block.length; i++) {
+            for (int a = block.codeStart[i]; a < block.codeEnd[i]; a++) {
+                coverage[a]++;
+                int page = a / PAGE_SIZE;
+                if (page != lastPage && !pageBlocks.get(page).contains(block)) {
+                    pageBlocks.get(page).add(block);
+                    dataBus.setCodePage(page, true);
+                }
+                lastPage = page;
+            }
+        }
+    }
+
+    private void invalidate(Block block) {
+        block.valid = false;
+        invalidations++;
+        if (blocks[block.start] == block) {
+            blocks[block.start] = null;
+        }
+        for (int i = 0; i < block.length; i++) {
+            for (int a = block.codeStart[i]; a < block.codeEnd[i]; a++) {
+                coverage[a]--;
+                List<Block> list = pageBlocks.get(a / PAGE_SIZE);
+                if (list.remove(block) && list.isEmpty()) {
+                    dataBus.setCodePage(a / PAGE_SIZE, false);
+                }
+            }
+        }
+    }
+
+    private static boolean covers(Block block, int address) {
+        for (int i = 0; i < block.length; i++) {
+            if (address >= block.codeStart[i] && address < block.codeEnd[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -6,25 +6,100 @@ import java.util.List;
 // Clase Z80Bus que hereda de Z80BusComponent
 // Soporte para todos los dispositivos que se conecten al bus, sean de memoria o de IO
 // En estos momentos se puede calificar como experimental
+//
+// Memoria: el espacio de 64 KB se divide en páginas de tamaño fijo elegido al crear el bus (por
+// defecto 1 KB; de 256 bytes para dispositivos pequeños a 16 KB para máquinas con bancos). Las
+// lecturas y las escrituras tienen mapas independientes: por defecto cada componente atiende sus
+// páginas en los dos sentidos salvo las ROM (Constants.ROM_COMPONENT), cuyas escrituras se ignoran;
+// mapRead/mapWrite cambian el componente de un rango en un sentido (escrituras hacia otro
+// componente, escrituras ignoradas, lecturas sin memoria) y no pueden pasar del final de la memoria
+// del componente. La página se obtiene con un desplazamiento calculado a partir del tamaño
+// configurado.
+//
+// Bancos: mapBank cambia en tiempo constante el componente de un rango en los dos sentidos, sin
+// reconstruir las tablas ni reservar memoria, para los mapeadores que conmutan bancos desde un
+// puerto (Z80MemoryMapper). El último banco de cada página se mantiene al reconstruir.
 class Z80Bus extends Z80BusComponent {
+    public static final int DEFAULT_PAGE_SIZE = 1024;
+    public static final int MIN_PAGE_SIZE = 256;
+    public static final int MAX_PAGE_SIZE = 16384;
+    private static final int CODE_PAGE_SHIFT = 10; // Páginas de 1 KB de la caché de bloques
+
     private List<Z80BusComponentBase> components;
-    private Z80BusComponentBase[] memPagedComponents;
+    private final int pageSize;
+    private final int pageShift;
+    private Z80BusComponentBase[] memPagedComponents; // Componente que atiende las lecturas de cada página
+    private final Z80BusComponentBase[] writeComponents; // Componente que atiende las escrituras (null: se ignoran)
     private Z80BusComponentBase[][] ioPagedComponents; // bus de IO del Z80 (8 bits declarado, 16 bits de
                                                        // direccionamiento no contiguo, soporte para más de un
                                                        // dispositivo por dirección)
+    // Páginas de memoria plana (RAM/ROM sin lógica propia, ver Z80BusComponentBase.getMemData):
+    // datos del componente y desplazamiento que convierte la dirección en índice de esos datos.
+    // Las lecturas y escrituras sobre ellas son un acceso al array, sin llamar al componente; las
+    // páginas con null van por el componente. En las páginas con componente el desplazamiento
+    // también traduce la dirección: el componente recibe dirección + desplazamiento + su inicio
+    private final byte[][] readPages;
+    private final int[] readOffsets;
+    private final byte[][] writePages;
+    private final int[] writeOffsets;
+    // Páginas cuyas escrituras se leen también en otra dirección (los mismos datos mapeados en
+    // otra página para lectura): la caché de bloques tiene que enterarse en esa otra dirección
+    private final boolean[] aliasPages;
+    private final List<Mapping> mappings = new ArrayList<>(); // mapRead/mapWrite, se mantienen al reconstruir
+    private final Z80BusComponentBase[] bankComponents; // mapBank de cada página (null: ninguno)
+    private final int[] bankStarts;
+    private final byte[][] replacedData; // Auxiliar de mapBank (sin reservas al conmutar)
+    private Z80BlockCache blockCache; // Caché de bloques de la CPU (null si no está activa)
+    private int mapChanges; // Cambios en el mapa de memoria (ver getMapChanges)
+    private boolean[] codePages = new boolean[64]; // Páginas de 1 KB con código predecodificado en la caché
+
+    // Asignación explícita de un rango en un sentido
+    private static final class Mapping {
+        final int start;
+        final int size;
+        final Z80BusComponentBase component;
+        final boolean write;
+
+        Mapping(int start, int size, Z80BusComponentBase component, boolean write) {
+            this.start = start;
+            this.size = size;
+            this.component = component;
+            this.write = write;
+        }
+    }
 
     // Constructor para inicializar la lista de componentes
     public Z80Bus() {
+        this(DEFAULT_PAGE_SIZE);
+    }
+
+    // Bus con páginas de memoria de 'pageSize' bytes (potencia de 2 entre 256 y 16 KB)
+    public Z80Bus(int pageSize) {
         // Llamada al padre para fijar el máximo direccionamiento que va a tener el bus
         // (habitualmente 64K)
         // Es una llamada que NO reserva espacios de almacenamiento
         // Pero de momento no lo aplicamos porque creo que no lo necesitamos
         super(Constants.Z80_BUS, 0,0); //El bus siempre se inicializa a 64 kbytes sin reserva de espacio
+        if (Integer.bitCount(pageSize) != 1 || pageSize < MIN_PAGE_SIZE || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("bus page size must be a power of 2 between " + MIN_PAGE_SIZE + " and "
+                    + MAX_PAGE_SIZE + ": " + pageSize);
+        }
+        this.pageSize = pageSize;
+        this.pageShift = Integer.numberOfTrailingZeros(pageSize);
+        int pages = 0x10000 >> pageShift;
         // Lista de todos los componentes
         components = new ArrayList<>();
-        // Páginas de memoria, 64 x 1KB
-        memPagedComponents = new Z80BusComponentBase[64]; // 64 espacios contiguos de 1 KB, sin gestión de _ROMCS
-        Arrays.fill(memPagedComponents, null); // Inicializa todos los elementos a null (equivalente a ZeroMemory)
+        // Páginas de memoria, sin gestión de _ROMCS
+        memPagedComponents = new Z80BusComponentBase[pages];
+        writeComponents = new Z80BusComponentBase[pages];
+        readPages = new byte[pages][];
+        readOffsets = new int[pages];
+        writePages = new byte[pages][];
+        writeOffsets = new int[pages];
+        aliasPages = new boolean[pages];
+        bankComponents = new Z80BusComponentBase[pages];
+        bankStarts = new int[pages];
+        replacedData = new byte[pages * 2][];
         ioPagedComponents = new Z80BusComponentBase[256][]; // 256 espacios contiguos de 256 direcciones, aunque podrían
                                                             // ser 65536, soporte para más de un dispositivo por
                                                             // dirección
@@ -32,6 +107,10 @@ class Z80Bus extends Z80BusComponent {
 
     }
 
+    public int getPageSize() {
+        return pageSize;
+    }
+
     // Método para agregar un nuevo componente al bus
     public int addBusComponent(Z80BusComponentBase newComponent) {
         // Verifica si el componente ya existe en la lista
@@ -45,26 +124,284 @@ class Z80Bus extends Z80BusComponent {
         return Constants.RESULT_OK;
     }
 
+    // Lecturas de [start, start + size) desde 'component' (null: sin memoria, se lee FFh). El
+    // componente ve el rango como si empezara en su dirección de inicio
+    public void mapRead(int start, int size, Z80BusComponentBase component) {
+        map(new Mapping(start, size, component, false));
+    }
+
+    // Escrituras de [start, start + size) hacia 'component' (null: se ignoran, memoria de solo
+    // lectura). El componente ve el rango como si empezara en su dirección de inicio
+    public void mapWrite(int start, int size, Z80BusComponentBase component) {
+        map(new Mapping(start, size, component, true));
+    }
+
+    private void map(Mapping mapping) {
+        checkAligned(mapping.start, mapping.size);
+        checkFits(mapping.start, mapping.size, mapping.component);
+        mappings.add(mapping);
+        mapChanges++;
+        apply(mapping);
+        updateAliases();
+        if (blockCache != null && !mapping.write) {
+            blockCache.flush(); // El código predecodificado del rango ya no es el que se lee
+        }
+    }
+
+    private void checkAligned(int start, int size) {
+        if (((start | size) & (pageSize - 1)) != 0 || start < 0 || size < 0 || start + size > 0x10000) {
+            throw new IllegalArgumentException(String.format("memory range %04Xh+%04Xh is not aligned to the bus page size (%d)",
+                    start, size, pageSize));
+        }
+    }
+
+    // El componente tiene que cubrir todo el rango: se rechaza al mapear y no en mitad de la ejecución
+    private static void checkFits(int start, int size, Z80BusComponentBase component) {
+        if (component != null && size > component.getMemRegionSize()) {
+            throw new IllegalArgumentException(String.format("memory range %04Xh+%04Xh is larger than the component memory (%d bytes)",
+                    start, size, component.getMemRegionSize()));
+        }
+    }
+
+    private void apply(Mapping mapping) {
+        for (int page = mapping.start >> pageShift; page < (mapping.start + mapping.size) >> pageShift; page++) {
+            setPage(page, mapping.component, mapping.start, mapping.write);
+        }
+    }
+
+    // Lecturas y escrituras de [start, start + size) desde el banco 'component' (escrituras ignoradas
+    // si es de solo lectura), que ve el rango como si empezara en su dirección de inicio. Para
+    // conmutar bancos en ejecución: solo toca las páginas del rango y los avisos de alias de los datos
+    // que entran y salen, descarta el código predecodificado del rango y no hace nada si el banco ya
+    // estaba mapeado así
+    public void mapBank(int start, int size, Z80BusComponentBase component) {
+        checkAligned(start, size);
+        checkFits(start, size, component);
+        Z80BusComponentBase writeComponent = component.isReadOnly() ? null : component;
+        int replaced = 0; // Datos distintos que salen de las páginas del rango
+        for (int page = start >> pageShift; page < (start + size) >> pageShift; page++) {
+            bankComponents[page] = component;
+            bankStarts[page] = start;
+            if (memPagedComponents[page] == component && writeComponents[page] == writeComponent
+                    && readOffsets[page] == -start && writeOffsets[page] == -start) {
+                continue;
+            }
+            replaced = addReplaced(replaced, readPages[page]);
+            replaced = addReplaced(replaced, writePages[page]);
+            setPage(page, component, start, false);
+            setPage(page, writeComponent, start, true);
+            mapChanges++;
+            if (blockCache != null) {
+                int lastCode = (((page + 1) << pageShift) - 1) >> CODE_PAGE_SHIFT;
+                for (int code = (page << pageShift) >> CODE_PAGE_SHIFT; code <= lastCode; code++) {
+                    if (codePages[code]) {
+                        blockCache.pageRemapped(code); // El código predecodificado ya no es el que se lee
+                    }
+                }
+            }
+        }
+        if (replaced > 0) {
+            // Solo cambian los alias de los datos que salen del rango y de los que entran
+            for (int i = 0; i < replaced; i++) {
+                updateAliases(replacedData[i]);
+                replacedData[i] = null;
+            }
+            updateAliases(component.getMemData());
+        }
+    }
+
+    private int addReplaced(int replaced, byte[] data) {
+        if (data == null) {
+            return replaced;
+        }
+        for (int i = 0; i < replaced; i++) {
+            if (replacedData[i] == data) {
+                return replaced;
+            }
+        }
+        replacedData[replaced] = data;
+        return replaced + 1;
+    }
+
+    // Asigna la página en un sentido a 'component', que ve 'start' como su dirección de inicio
+    private void setPage(int page, Z80BusComponentBase component, int start, boolean write) {
+        byte[] data = component != null ? component.getMemData() : null;
+        if (write) {
+            writeComponents[page] = component;
+            writePages[page] = data;
+            writeOffsets[page] = -start;
+            aliasPages[page] = false; // Hasta updateAliases
+        } else {
+            memPagedComponents[page] = component;
+            readPages[page] = data;
+            readOffsets[page] = -start;
+        }
+    }
+
+    // Marca las páginas cuyas escrituras van a datos que también se leen en otra dirección
+    private void updateAliases() {
+        Arrays.fill(aliasPages, false);
+        for (int page = 0; page < aliasPages.length; page++) {
+            updateAliases(writePages[page]);
+        }
+    }
+
+    // Marca los alias de las páginas que escriben en 'data': los hay si 'data' se lee con un
+    // desplazamiento distinto del de la escritura (o con varios)
+    private void updateAliases(byte[] data) {
+        if (data == null) {
+            return;
+        }
+        int readers = 0; // Desplazamientos de lectura distintos (0, 1 o más)
+        int offset = 0;
+        for (int page = 0; page < readPages.length; page++) {
+            if (readPages[page] == data && (readers == 0 || readOffsets[page] != offset)) {
+                readers++;
+                offset = readOffsets[page];
+            }
+        }
+        for (int page = 0; page < writePages.length; page++) {
+            if (writePages[page] == data) {
+                aliasPages[page] = readers > 1 || (readers == 1 && writeOffsets[page] != offset);
+            }
+        }
+    }
+
     /////////////// Operaciones de lectura y escritura para este bus
     /// Memoria
     /// // Método para escribir un valor en una dirección específica
     public void memWrite(int address, byte value) {
-        Z80BusComponentBase component = memPagedComponents[(address & 0xFFFF) / 1024];
+        int page = (address & 0xFFFF) >> pageShift;
+        byte[] data = writePages[page];
+        if (data != null) {
+            data[(address & 0xFFFF) + writeOffsets[page]] = value;
+        } else {
+            componentWrite(address, value);
+        }
+        if (codePages[(address & 0xFFFF) >> CODE_PAGE_SHIFT]) {
+            blockCache.memWritten(address & 0xFFFF);
+        }
+        if (aliasPages[page]) {
+            aliasWritten(address & 0xFFFF);
+        }
+    }
+
+    // Escritura en una página con lógica propia (fuera de memWrite para que este sea pequeño y la
+    // CPU lo integre en cada instrucción)
+    private void componentWrite(int address, byte value) {
+        int page = (address & 0xFFFF) >> pageShift;
+        Z80BusComponentBase component = writeComponents[page];
         if (component != null) {
-            component.memWrite(address, value);
+            component.memWrite((address & 0xFFFF) + writeOffsets[page] + component.getMemStartAddress(), value);
+        }
+    }
+
+    // Aviso a la caché de bloques de una escritura que se lee en otras direcciones
+    private void aliasWritten(int address) {
+        if (blockCache == null) {
+            return;
+        }
+        int index = address + writeOffsets[address >> pageShift];
+        byte[] data = writePages[address >> pageShift];
+        for (int page = 0; page < readPages.length; page++) {
+            int alias = index - readOffsets[page];
+            if (readPages[page] == data && alias != address && alias >> pageShift == page
+                    && codePages[alias >> CODE_PAGE_SHIFT]) {
+                blockCache.memWritten(alias);
+            }
         }
     }
 
+    // Aviso de escrituras hechas directamente sobre los datos de un componente (sin memWrite)
+    public void memWritten(int first, int last) {
+        if (blockCache != null) {
+            for (int address = first; address <= last; address++) {
+                if (codePages[(address & 0xFFFF) >> CODE_PAGE_SHIFT]) {
+                    blockCache.memWritten(address & 0xFFFF);
+                }
+                if (aliasPages[(address & 0xFFFF) >> pageShift]) {
+                    aliasWritten(address & 0xFFFF);
+                }
+            }
+        }
+    }
+
+    // Contador de cambios en el mapa de memoria: la CPU lo consulta en las instrucciones de salida
+    // repetitivas, que pueden cambiar el banco del que se leen ellas mismas
+    public int getMapChanges() {
+        return mapChanges;
+    }
+
+    // Caché de bloques a la que se avisa de las escrituras sobre código predecodificado
+    void setBlockCache(Z80BlockCache blockCache) {
+        this.blockCache = blockCache;
+        Arrays.fill(codePages, false);
+    }
+
+    void setCodePage(int page, boolean hasCode) {
+        codePages[page] = hasCode;
+    }
+
     // Método para leer un valor desde una dirección específica
     public byte memRead(int address) {
-        Z80BusComponentBase component = memPagedComponents[(address & 0xFFFF) / 1024];
-        return (component != null) ? component.memRead(address) : (byte) 0xFF;
+        int page = (address & 0xFFFF) >> pageShift;
+        byte[] data = readPages[page];
+        return data != null ? data[(address & 0xFFFF) + readOffsets[page]] : componentRead(address);
     }
 
     // Método para leer un valor desde una dirección específica una operación
     public byte memReadOpCode(int address) {
-        Z80BusComponentBase component = memPagedComponents[(address & 0xFFFF) / 1024];
-        return (component != null) ? component.memRead(address) : (byte) 0xFF;
+        int page = (address & 0xFFFF) >> pageShift;
+        byte[] data = readPages[page];
+        return data != null ? data[(address & 0xFFFF) + readOffsets[page]] : componentRead(address);
+    }
+
+    // Lectura de una página con lógica propia o vacía
+    private byte componentRead(int address) {
+        int page = (address & 0xFFFF) >> pageShift;
+        Z80BusComponentBase component = memPagedComponents[page];
+        return (component != null)
+                ? component.memRead((address & 0xFFFF) + readOffsets[page] + component.getMemStartAddress())
+                : (byte) 0xFF;
+    }
+
+    // Componente que atiende las lecturas de una dirección de memoria (null si no hay ninguno)
+    public Z80BusComponentBase getMemComponent(int address) {
+        return memPagedComponents[(address & 0xFFFF) >> pageShift];
+    }
+
+    // Componente que atiende las escrituras de una dirección de memoria (null si se ignoran)
+    public Z80BusComponentBase getWriteComponent(int address) {
+        return writeComponents[(address & 0xFFFF) >> pageShift];
+    }
+
+    // Indica si las lecturas de la dirección van directamente a memoria plana
+    public boolean isPlainRead(int address) {
+        return readPages[(address & 0xFFFF) >> pageShift] != null;
+    }
+
+    // Datos de memoria plana que atienden las lecturas (o escrituras) de todo el rango [first, last]
+    // de forma contigua, o null. Para operaciones en bloque: el índice de cada dirección en esos
+    // datos es plainIndex(address, write)
+    public byte[] plainData(int first, int last, boolean write) {
+        if (first < 0 || last > 0xFFFF || first > last) {
+            return null; // El rango da la vuelta a la memoria
+        }
+        byte[][] pages = write ? writePages : readPages;
+        int[] offsets = write ? writeOffsets : readOffsets;
+        int firstPage = first >> pageShift;
+        byte[] data = pages[firstPage];
+        for (int page = firstPage + 1; data != null && page <= last >> pageShift; page++) {
+            if (pages[page] != data || offsets[page] != offsets[firstPage]) {
+                return null;
+            }
+        }
+        return data;
+    }
+
+    public int plainIndex(int address, boolean write) {
+        int page = (address & 0xFFFF) >> pageShift;
+        return (address & 0xFFFF) + (write ? writeOffsets[page] : readOffsets[page]);
     }
 
     ////////// IO
@@ -116,6 +453,12 @@ class Z80Bus extends Z80BusComponent {
         for (int i = 0; i < components.size(); i++) {
             if (components.get(i) == component) {
                 components.remove(i);
+                mappings.removeIf(mapping -> mapping.component == component); // Sus mapeos explícitos también
+                for (int page = 0; page < bankComponents.length; page++) {
+                    if (bankComponents[page] == component) {
+                        bankComponents[page] = null;
+                    }
+                }
                 onComponentsUpdated();
                 return Constants.RESULT_OK;
             }
@@ -128,9 +471,16 @@ class Z80Bus extends Z80BusComponent {
     protected void onComponentsUpdated() {
 
         // Construir la tabla de búsqueda rápida para cada componente.
-        // El espacio de direcciones se divide en segmentos de 1 Kilobyte (64 entradas).
+        // El espacio de direcciones se divide en páginas del tamaño del bus.
         Arrays.fill(memPagedComponents, null); // Resetea la tabla de paginación
+        Arrays.fill(writeComponents, null);
+        Arrays.fill(readPages, null);
+        Arrays.fill(writePages, null);
         Arrays.fill(ioPagedComponents, null); // Resetea la tabla de paginación
+        mapChanges++;
+        if (blockCache != null) {
+            blockCache.flush(); // El código predecodificado ya no corresponde al mapa de memoria
+        }
 
         // JAC
         List<Z80BusComponentBase> components = getComponents();
@@ -144,10 +494,12 @@ class Z80Bus extends Z80BusComponent {
                 // - Asignación del dispositivo de memoria al bus de datos
                 if (component.getMemStartAddress() != 0 || component.getMemRegionSize() != 0) {
                     // Nota: no se contempla el mecanismo de _ROMCS
-                    int start = component.getMemStartAddress() / 1024;
-                    int end = start + (component.getMemRegionSize() / 1024);
-                    for (int i = start; i < end; i++) {
-                        memPagedComponents[i] = component;
+                    int start = component.getMemStartAddress() & 0xFFFF;
+                    checkAligned(start, component.getMemRegionSize());
+                    for (int page = start >> pageShift; page < (start + component.getMemRegionSize()) >> pageShift; page++) {
+                        setPage(page, component, start, false);
+                        // Las escrituras en ROM se ignoran
+                        setPage(page, component.isReadOnly() ? null : component, start, true);
                     }
                 }
                 // - Adaptador de IO
@@ -165,6 +517,22 @@ class Z80Bus extends Z80BusComponent {
                 }
             }
         }
+        applyMappings();
+    }
+
+    // Tras los componentes se aplican los mapeos explícitos y después los bancos
+    private void applyMappings() {
+        for (Mapping mapping : mappings) {
+            apply(mapping);
+        }
+        for (int page = 0; page < bankComponents.length; page++) {
+            Z80BusComponentBase component = bankComponents[page];
+            if (component != null) {
+                setPage(page, component, bankStarts[page], false);
+                setPage(page, component.isReadOnly() ? null : component, bankStarts[page], true);
+            }
+        }
+        updateAliases();
     }
 
     private void ioPagedComponentsUpdate(int start, int size, Z80BusComponentBase component) {
@@ -175,7 +543,6 @@ class Z80Bus extends Z80BusComponent {
         Z80BusComponentBase[] arrayComponents;
 
         for (int i = address8Bits; i < endOf8BitsAddresses; i++) {
-            System.out.printf("Z80Bus ioPagedComponentsUpdate address8Bits:%04x i:%04x \n", address8Bits, i);
             // Rellenamos el array de arrays
             // if (pagedComponents[i].length == 0){
             if (ioPagedComponents[i] == null) {
@@ -24,6 +24,19 @@ abstract class Z80BusComponentBase {
 
     public abstract byte memReadOpCode(int address);
 
+    // Acceso directo al almacenamiento de los componentes de memoria sin lógica adicional (RAM/ROM
+    // planas), para operaciones en bloque y para el acceso directo del bus (Z80Bus). Los componentes
+    // con lógica propia devuelven null y solo se accede a ellos con memRead/memWrite
+    public byte[] getMemData() {
+        return null;
+    }
+
+    // Memoria de solo lectura: el bus no le pasa las escrituras (se cargan directamente sobre el
+    // componente con memWrite o sobre getMemData)
+    public boolean isReadOnly() {
+        return false;
+    }
+
     // Operaciones de IO sobre el bus (escritura/lectura)
     public abstract void ioWrite(int address, byte value);
 
@@ -47,6 +60,7 @@ class Z80BusComponent extends Z80BusComponentBase {
     // Y los de io finalmente no se si la necesitan o no, porque se supone que siempre son 'listos'
     private final byte[] memData; // Espacio para datos de memoria
     private final byte[] ioData; // Espacio para datos de entrada/salida
+    private final boolean readOnly; // ROM
 
     // Multiples constructores
 
@@ -56,7 +70,7 @@ class Z80BusComponent extends Z80BusComponentBase {
         int memRegionSize = 0;
         int ioStartAddress = 0;
         int ioRegionSize = 0;
-        if (componentType == Constants.MEM_COMPONENT) {
+        if (componentType == Constants.MEM_COMPONENT || componentType == Constants.ROM_COMPONENT) {
             // Dispositivos de memoria
             memStartAddress = startAddress;
             memRegionSize = regionSize;
@@ -80,6 +94,7 @@ class Z80BusComponent extends Z80BusComponentBase {
         this.ioStartAddress = ioStartAddress;
         this.ioRegionSize = ioRegionSize;
         this.ioRegionMap = new HashMap<Integer, Integer>();
+        this.readOnly = componentType == Constants.ROM_COMPONENT;
         // Reserva de memoria, solo para dispositivos
         if (componentType != Constants.Z80_BUS) {
             this.memData = new byte[memRegionSize];
@@ -101,6 +116,7 @@ class Z80BusComponent extends Z80BusComponentBase {
         this.ioRegionMap = new HashMap<Integer, Integer>();
         this.memData = new byte[memRegionSize];
         this.ioData = new byte[ioRegionSize];
+        this.readOnly = false;
     }
 
     // Para el caso de los dispositivos con la dirección autoincrustada necesitamos
@@ -149,6 +165,15 @@ class Z80BusComponent extends Z80BusComponentBase {
         return memData[(address & 0xFFFF) - (getMemStartAddress() & 0xFFFF)];
     }
 
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    // Solo la clase base es memoria plana; las subclases pueden añadir lógica en memRead/memWrite
+    public byte[] getMemData() {
+        return getClass() == Z80BusComponent.class ? memData : null;
+    }
+
     ////////
     // Implementaciones muy básicas de lectura y escritura de entrada/salida para un componente
 
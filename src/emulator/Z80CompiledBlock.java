@@ -0,0 +1,12 @@
+// Bloque básico traducido a código JVM por el recompilador dinámico (Z80Recompiler)
+// Las clases generadas extienden esta clase. Se cargan con un cargador de clases propio, así que
+// solo pueden usar miembros públicos: Z80JitContext, Z80Registers y esta misma clase.
+
+public abstract class Z80CompiledBlock {
+
+    // Ejecuta el bloque a partir de su primera instrucción, con los registros en variables locales.
+    // Devuelve el índice de la siguiente instrucción del bloque que queda por ejecutar (el número
+    // del bloque si lo ha terminado). Antes de cada instrucción, salvo la primera, sale si se ha
+    // agotado el presupuesto o el contexto pide parar (interrupción pendiente o código sobrescrito).
+    public abstract int exec(Z80JitContext ctx);
+}
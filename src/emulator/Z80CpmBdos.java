@@ -0,0 +1,881 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+// BDOS y BIOS de CP/M 2.2 atendidos en Java mediante traps de ejecución
+// Los programas CP/M llaman al sistema con call 5 (función en C, parámetro en E o DE) y terminan
+// saltando a 0 (arranque en caliente). En lugar de inyectar rutinas Z80 que lleven los caracteres
+// a un dispositivo de E/S, la página cero apunta a un punto de entrada con un trap: el bucle de
+// ejecución de la CPU se detiene allí, service() hace la función y la CPU sigue ejecutando el RET
+// que hay en el punto de entrada. No hay comprobaciones por instrucción; la CPU corre por lotes y
+// solo se detiene en las llamadas al sistema. La tabla de saltos de la BIOS funciona igual: cada
+// entrada es un RET con un trap.
+//
+// Memoria:
+//   0000h JP BIOS_BASE+3    arranque en caliente (trap: service() devuelve false)
+//   0005h JP BDOS_ENTRY     (0006h = cima de la TPA, los programas inicializan SP con ella)
+//   BDOS_ENTRY: RET         (trap: función BDOS)
+//   BIOS_BASE: 17 entradas de 3 bytes, RET (trap: función BIOS)
+//
+// Funciones de consola: 0 (reinicio del sistema), 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11 y 12. La
+// entrada sale de 'input' (fin de datos = ^Z) y la salida va a 'console' sin traducir.
+//
+// Ficheros: las unidades A: a P: son directorios del anfitrión (setDrive). Los nombres CP/M se
+// buscan sin distinguir mayúsculas y los ficheros nuevos se crean en minúsculas. El estado de cada
+// fichero abierto va en el FCB como en CP/M (EX, S2, CR y registro aleatorio R0-R2); aparte se
+// guarda un FileChannel por nombre con un buffer de un extent (128 registros de 128 bytes), de
+// forma que las lecturas y escrituras secuenciales van por registros y el disco por bloques de 16 KB.
+// Sin asignación de bloques: los directorios que devuelve la búsqueda solo llevan nombre, EX y RC.
+
+public class Z80CpmBdos implements Closeable {
+
+    public static final int WARM_BOOT = 0x0000;
+    public static final int BDOS_CALL = 0x0005;
+    public static final int BDOS_ENTRY = 0xFE06; // Como en CP/M 2.2: página del BDOS + 6
+    public static final int BIOS_BASE = 0xFF00;
+    public static final int BIOS_ENTRIES = 17;
+    public static final int DEFAULT_FCB = 0x005C;
+    public static final int DEFAULT_FCB2 = 0x006C;
+    public static final int DEFAULT_DMA = 0x0080;
+    public static final int TPA = 0x0100;
+    public static final int DRIVES = 16;
+
+    private static final int RECORD = 128;
+    private static final int EXTENT_RECORDS = 128;
+    private static final int EOF = 0x1A; // ^Z
+
+    // Posiciones en el FCB
+    private static final int FCB_EX = 12;
+    private static final int FCB_S1 = 13;
+    private static final int FCB_S2 = 14;
+    private static final int FCB_RC = 15;
+    private static final int FCB_CR = 32;
+    private static final int FCB_R0 = 33;
+
+    protected final PrintStream console;
+    private final InputStream input;
+    private final Path[] drives = new Path[DRIVES];
+    private final Map<String, CpmFile> files = new HashMap<>(); // Ficheros abiertos por unidad + nombre
+    private final byte[] record = new byte[RECORD];
+    private int dma = DEFAULT_DMA;
+    private int drive;
+    private int user;
+    private int iobyte;
+    private Iterator<byte[]> search; // Entradas pendientes de la búsqueda (funciones 17/18)
+
+    public Z80CpmBdos(PrintStream console) {
+        this(null, console);
+    }
+
+    // BDOS con entrada de consola ('input' puede ser null: sin entrada)
+    public Z80CpmBdos(InputStream input, PrintStream console) {
+        this.input = input;
+        this.console = console;
+    }
+
+    // Unidad 'drive' (0 = A:) sobre un directorio del anfitrión (null la desconecta)
+    public void setDrive(int drive, Path directory) {
+        drives[drive] = directory;
+    }
+
+    public Path getDrive(int drive) {
+        return drives[drive];
+    }
+
+    // Escribe la página cero, el punto de entrada del BDOS y la BIOS y pone los traps en la CPU
+    public void install(Z80Engine cpu) {
+        Z80Bus dataBus = cpu.getDataBus();
+        writeJump(dataBus, WARM_BOOT, BIOS_BASE + 3);
+        writeJump(dataBus, BDOS_CALL, BDOS_ENTRY);
+        dataBus.memWrite(BDOS_ENTRY, (byte) 0xC9); // RET
+        for (int i = 0; i < BIOS_ENTRIES; i++) {
+            dataBus.memWrite(BIOS_BASE + 3 * i, (byte) 0xC9); // RET
+            cpu.setTrap(BIOS_BASE + 3 * i, true);
+        }
+        dataBus.memWrite(0x0003, (byte) iobyte);
+        dataBus.memWrite(0x0004, (byte) ((user << 4) | drive));
+        cpu.setTrap(WARM_BOOT, true);
+        cpu.setTrap(BDOS_ENTRY, true);
+    }
+
+    private static void writeJump(Z80Bus dataBus, int address, int target) {
+        dataBus.memWrite(address, (byte) 0xC3);
+        dataBus.memWrite(address + 1, (byte) target);
+        dataBus.memWrite(address + 2, (byte) (target >> 8));
+    }
+
+    // Atiende el trap en el que se ha detenido la CPU. Devuelve false si el programa ha terminado
+    // (arranque en caliente, función 0 o BOOT/WBOOT de la BIOS); true para seguir ejecutando
+    public boolean service(Z80Engine cpu) {
+        Z80Registers regs = cpu.getRegisters();
+        int pc = regs.getPC() & 0xFFFF;
+        if (pc == WARM_BOOT) {
+            return false;
+        }
+        if (pc == BDOS_ENTRY) {
+            int function = regs.getC() & 0xFF;
+            if (function == 0) {
+                return false;
+            }
+            setResult(regs, function(cpu, function));
+            return true;
+        }
+        if (pc >= BIOS_BASE && pc < BIOS_BASE + 3 * BIOS_ENTRIES && (pc - BIOS_BASE) % 3 == 0) {
+            return bios(cpu, (pc - BIOS_BASE) / 3);
+        }
+        return true; // Trap de otro usuario de la CPU
+    }
+
+    // Vuelca al disco los ficheros abiertos
+    public void flush() throws IOException {
+        for (CpmFile file : files.values()) {
+            file.flush();
+        }
+    }
+
+    // Vuelca y cierra los ficheros abiertos
+    @Override
+    public void close() throws IOException {
+        IOException error = null;
+        for (CpmFile file : files.values()) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+        files.clear();
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    ////////////////////////////////////////////////////////////
+    // BDOS
+
+    // Función BDOS 'function' con los parámetros en los registros; devuelve el resultado (A = L)
+    protected int function(Z80Engine cpu, int function) {
+        Z80Registers regs = cpu.getRegisters();
+        Z80Bus dataBus = cpu.getDataBus();
+        int e = regs.getE() & 0xFF;
+        int de = regs.getDE() & 0xFFFF;
+        switch (function) {
+            case 1: { // Entrada de consola con eco
+                int c = readConsole();
+                console.print((char) c);
+                return c;
+            }
+            case 2: // Salida de consola
+                console.print((char) e);
+                return 0;
+            case 4: // Perforadora
+            case 5: // Impresora
+                return 0;
+            case 3: // Lectora
+                return EOF;
+            case 6: // E/S directa de consola
+                if (e == 0xFF) {
+                    return consoleStatus() != 0 ? readConsole() : 0;
+                } else if (e == 0xFE) {
+                    return consoleStatus();
+                } else if (e == 0xFD) {
+                    return readConsole();
+                }
+                console.print((char) e);
+                return 0;
+            case 7:
+                return iobyte;
+            case 8:
+                iobyte = e;
+                return 0;
+            case 9: {
+                // Como mucho una vuelta a la memoria si falta el $
+                for (int i = 0; i < 0x10000; i++) {
+                    char c = (char) (dataBus.memRead((de + i) & 0xFFFF) & 0xFF);
+                    if (c == '$') {
+                        break;
+                    }
+                    console.print(c);
+                }
+                return 0;
+            }
+            case 10:
+                readLine(dataBus, de);
+                return 0;
+            case 11:
+                return consoleStatus();
+            case 12: // Versión: CP/M 2.2
+                return 0x0022;
+            case 13: // Reinicio de las unidades
+                dma = DEFAULT_DMA;
+                drive = 0;
+                return 0;
+            case 14:
+                if (e >= DRIVES || drives[e] == null) {
+                    return 0xFF;
+                }
+                drive = e;
+                return 0;
+            case 15:
+                return open(dataBus, de);
+            case 16:
+                return close(dataBus, de);
+            case 17:
+                return searchFirst(dataBus, de);
+            case 18:
+                return searchNext(dataBus);
+            case 19:
+                return delete(dataBus, de);
+            case 20:
+                return readSequential(dataBus, de);
+            case 21:
+                return writeSequential(dataBus, de);
+            case 22:
+                return make(dataBus, de);
+            case 23:
+                return rename(dataBus, de);
+            case 24: { // Unidades conectadas
+                int vector = 0;
+                for (int i = 0; i < DRIVES; i++) {
+                    vector |= drives[i] != null ? 1 << i : 0;
+                }
+                return vector;
+            }
+            case 25:
+                return drive;
+            case 26:
+                dma = de;
+                return 0;
+            case 29: // Unidades de solo lectura: ninguna
+                return 0;
+            case 30: // Atributos: se aceptan sin cambiar nada
+                return find(dataBus, de) != null ? 0 : 0xFF;
+            case 32:
+                if (e == 0xFF) {
+                    return user;
+                }
+                user = e & 0x0F;
+                return 0;
+            case 33:
+                return readRandom(dataBus, de);
+            case 34:
+            case 40:
+                return writeRandom(dataBus, de);
+            case 35:
+                return fileSize(dataBus, de);
+            case 36:
+                setRandomRecord(dataBus, de, sequentialRecord(dataBus, de));
+                return 0;
+            default:
+                return 0;
+        }
+    }
+
+    // El BDOS devuelve los resultados de 8 bits en A y L y los de 16 bits en HL (con B = H)
+    private static void setResult(Z80Registers regs, int value) {
+        regs.setHL((short) value);
+        regs.setA((byte) value);
+        regs.setB((byte) (value >> 8));
+    }
+
+    ////////////////////////////////////////////////////////////
+    // BIOS: BOOT, WBOOT, CONST, CONIN, CONOUT, LIST, PUNCH, READER, HOME, SELDSK, SETTRK, SETSEC,
+    // SETDMA, READ, WRITE, LISTST, SECTRAN. No hay disco de sectores: SELDSK no encuentra unidades
+
+    protected boolean bios(Z80Engine cpu, int entry) {
+        Z80Registers regs = cpu.getRegisters();
+        switch (entry) {
+            case 0:
+            case 1:
+                return false;
+            case 2:
+                regs.setA((byte) consoleStatus());
+                break;
+            case 3:
+                regs.setA((byte) readConsole());
+                break;
+            case 4:
+                console.print((char) (regs.getC() & 0xFF));
+                break;
+            case 7:
+                regs.setA((byte) EOF);
+                break;
+            case 9:
+                regs.setHL((short) 0);
+                break;
+            case 13:
+            case 14:
+                regs.setA((byte) 1);
+                break;
+            case 15:
+                regs.setA((byte) 0xFF);
+                break;
+            case 16:
+                regs.setHL(regs.getBC());
+                break;
+            default:
+                break;
+        }
+        return true;
+    }
+
+    ////////////////////////////////////////////////////////////
+    // Consola
+
+    private int consoleStatus() {
+        try {
+            return input != null && input.available() > 0 ? 0xFF : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    // Carácter de la entrada; fin de línea como CR (el CR de un CR LF del anfitrión se descarta) y
+    // fin de datos como ^Z
+    private int readConsole() {
+        int c;
+        try {
+            do {
+                c = input != null ? input.read() : -1;
+            } while (c == '\r');
+        } catch (IOException e) {
+            c = -1;
+        }
+        return c < 0 ? EOF : c == '\n' ? '\r' : c & 0xFF;
+    }
+
+    // Función 10: línea de la entrada en el buffer DE (tamaño máximo, longitud, caracteres)
+    private void readLine(Z80Bus dataBus, int buffer) {
+        int max = dataBus.memRead(buffer) & 0xFF;
+        int length = 0;
+        while (length < max) {
+            int c = readConsole();
+            if (c == '\r' || (c == EOF && length == 0)) {
+                break;
+            }
+            dataBus.memWrite((buffer + 2 + length++) & 0xFFFF, (byte) c);
+            console.print((char) c);
+        }
+        dataBus.memWrite((buffer + 1) & 0xFFFF, (byte) length);
+        console.print('\r');
+    }
+
+    ////////////////////////////////////////////////////////////
+    // Ficheros
+
+    // Fichero del anfitrión abierto, con un buffer de un extent
+    private static final class CpmFile {
+        private static final int BLOCK = EXTENT_RECORDS * RECORD;
+
+        final Path path;
+        final FileChannel channel;
+        long size;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BLOCK);
+        private long blockStart = -1;
+        private int dirtyEnd; // Bytes del buffer pendientes de escribir (0 = limpio)
+
+        CpmFile(Path path, boolean create) throws IOException {
+            this.path = path;
+            FileChannel opened;
+            if (create) {
+                opened = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE);
+            } else {
+                try {
+                    opened = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                } catch (IOException e) {
+                    opened = FileChannel.open(path, StandardOpenOption.READ); // Fichero de solo lectura
+                }
+            }
+            channel = opened;
+            size = channel.size();
+        }
+
+        long records() {
+            return (size + RECORD - 1) / RECORD;
+        }
+
+        // Carga el bloque que contiene la posición 'position'
+        private void load(long position) throws IOException {
+            long start = position - position % BLOCK;
+            if (start == blockStart) {
+                return;
+            }
+            flush();
+            byte[] data = buffer.array();
+            int length = 0;
+            while (length < BLOCK) {
+                int read = channel.read(ByteBuffer.wrap(data, length, BLOCK - length), start + length);
+                if (read < 0) {
+                    break;
+                }
+                length += read;
+            }
+            Arrays.fill(data, length, BLOCK, (byte) 0);
+            blockStart = start;
+        }
+
+        // Lee el registro 'index'; false si está más allá del final del fichero
+        boolean read(long index, byte[] record) throws IOException {
+            long position = index * RECORD;
+            if (position >= size) {
+                return false;
+            }
+            load(position);
+            int offset = (int) (position - blockStart);
+            int length = (int) Math.min(RECORD, size - position);
+            System.arraycopy(buffer.array(), offset, record, 0, length);
+            Arrays.fill(record, length, RECORD, (byte) EOF); // Último registro incompleto
+            return true;
+        }
+
+        void write(long index, byte[] record) throws IOException {
+            long position = index * RECORD;
+            load(position);
+            int offset = (int) (position - blockStart);
+            System.arraycopy(record, 0, buffer.array(), offset, RECORD);
+            dirtyEnd = Math.max(dirtyEnd, offset + RECORD);
+            size = Math.max(size, position + RECORD);
+        }
+
+        void flush() throws IOException {
+            if (dirtyEnd > 0) {
+                // Se escribe hasta el final del fichero dentro del bloque
+                int length = (int) Math.max(dirtyEnd, Math.min(BLOCK, size - blockStart));
+                ByteBuffer data = ByteBuffer.wrap(buffer.array(), 0, length);
+                long position = blockStart;
+                while (data.hasRemaining()) {
+                    position += channel.write(data, position);
+                }
+                dirtyEnd = 0;
+            }
+        }
+
+        void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    // Unidad del FCB (0 = actual, 1 = A: ...); -1 si no está conectada
+    private int fcbDrive(Z80Bus dataBus, int fcb) {
+        int code = dataBus.memRead(fcb) & 0xFF;
+        int selected = code == 0 || code == '?' ? drive : code - 1;
+        return selected < DRIVES && drives[selected] != null ? selected : -1;
+    }
+
+    // Nombre y tipo del FCB (11 bytes sin atributos), desde 'offset'
+    private static byte[] fcbName(Z80Bus dataBus, int fcb, int offset) {
+        byte[] name = new byte[11];
+        for (int i = 0; i < 11; i++) {
+            name[i] = (byte) Character.toUpperCase((char) (dataBus.memRead((fcb + offset + 1 + i) & 0xFFFF) & 0x7F));
+        }
+        return name;
+    }
+
+    // Nombre CP/M de un fichero del anfitrión (null si no es un nombre 8.3 válido)
+    private static byte[] cpmName(String hostName) {
+        int dot = hostName.lastIndexOf('.');
+        String name = dot < 0 ? hostName : hostName.substring(0, dot);
+        String type = dot < 0 ? "" : hostName.substring(dot + 1);
+        if (name.isEmpty() || name.length() > 8 || type.length() > 3) {
+            return null;
+        }
+        byte[] result = new byte[11];
+        Arrays.fill(result, (byte) ' ');
+        String text = name.toUpperCase() + "        ".substring(name.length()) + type.toUpperCase();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c > 0x7E || c < ' ' || (c == ' ' && i < name.length()) || ".:;,=*?<>[]|".indexOf(c) >= 0) {
+                return null;
+            }
+            result[i] = (byte) c;
+        }
+        return result;
+    }
+
+    // Nombre del anfitrión para un nombre CP/M (en minúsculas)
+    private static String hostName(byte[] name) {
+        String base = new String(name, 0, 8, StandardCharsets.ISO_8859_1).trim();
+        String type = new String(name, 8, 3, StandardCharsets.ISO_8859_1).trim();
+        return (type.isEmpty() ? base : base + "." + type).toLowerCase();
+    }
+
+    private static boolean matches(byte[] pattern, byte[] name) {
+        for (int i = 0; i < 11; i++) {
+            if (pattern[i] != '?' && pattern[i] != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Ficheros de la unidad que encajan con el patrón, en orden alfabético
+    private List<Path> list(int selected, byte[] pattern) {
+        List<Path> result = new ArrayList<>();
+        try (DirectoryStream<Path> directory = Files.newDirectoryStream(drives[selected])) {
+            for (Path path : directory) {
+                byte[] name = cpmName(path.getFileName().toString());
+                if (name != null && matches(pattern, name) && Files.isRegularFile(path)) {
+                    result.add(path);
+                }
+            }
+        } catch (IOException e) {
+            return result;
+        }
+        result.sort(null);
+        return result;
+    }
+
+    // Primer fichero que encaja con el FCB (null si no hay)
+    private Path find(Z80Bus dataBus, int fcb) {
+        int selected = fcbDrive(dataBus, fcb);
+        if (selected < 0) {
+            return null;
+        }
+        List<Path> found = list(selected, fcbName(dataBus, fcb, 0));
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    private static String key(int selected, byte[] name) {
+        return (char) ('A' + selected) + new String(name, StandardCharsets.ISO_8859_1);
+    }
+
+    // Fichero abierto del FCB; si el programa no lo abrió antes se abre ahora (null si no existe)
+    private CpmFile file(Z80Bus dataBus, int fcb) throws IOException {
+        int selected = fcbDrive(dataBus, fcb);
+        if (selected < 0) {
+            return null;
+        }
+        byte[] name = fcbName(dataBus, fcb, 0);
+        String key = key(selected, name);
+        CpmFile file = files.get(key);
+        if (file == null) {
+            List<Path> found = list(selected, name);
+            if (found.isEmpty()) {
+                return null;
+            }
+            file = new CpmFile(found.get(0), false);
+            files.put(key, file);
+        }
+        return file;
+    }
+
+    private void closeFile(String key) throws IOException {
+        CpmFile file = files.remove(key);
+        if (file != null) {
+            file.close();
+        }
+    }
+
+    private void closeFiles(Path path) throws IOException {
+        Iterator<CpmFile> iterator = files.values().iterator();
+        while (iterator.hasNext()) {
+            CpmFile file = iterator.next();
+            if (file.path.equals(path)) {
+                iterator.remove();
+                file.close();
+            }
+        }
+    }
+
+    // Posición secuencial del FCB en registros: (S2 * 32 + EX) * 128 + CR
+    private static long sequentialRecord(Z80Bus dataBus, int fcb) {
+        int extent = (dataBus.memRead(fcb + FCB_S2) & 0x3F) * 32 + (dataBus.memRead(fcb + FCB_EX) & 0x1F);
+        return (long) extent * EXTENT_RECORDS + (dataBus.memRead(fcb + FCB_CR) & 0x7F);
+    }
+
+    // Coloca el FCB en el registro 'index' y actualiza RC con los registros del extent
+    private static void setSequentialRecord(Z80Bus dataBus, int fcb, long index, CpmFile file) {
+        long extent = index / EXTENT_RECORDS;
+        dataBus.memWrite(fcb + FCB_EX, (byte) (extent % 32));
+        dataBus.memWrite(fcb + FCB_S2, (byte) (extent / 32));
+        dataBus.memWrite(fcb + FCB_CR, (byte) (index % EXTENT_RECORDS));
+        long records = Math.max(0, Math.min(EXTENT_RECORDS, file.records() - extent * EXTENT_RECORDS));
+        dataBus.memWrite(fcb + FCB_RC, (byte) records);
+    }
+
+    private static long randomRecord(Z80Bus dataBus, int fcb) {
+        return (dataBus.memRead(fcb + FCB_R0) & 0xFF) | ((dataBus.memRead(fcb + FCB_R0 + 1) & 0xFF) << 8)
+                | ((dataBus.memRead(fcb + FCB_R0 + 2) & 0xFF) << 16);
+    }
+
+    private static void setRandomRecord(Z80Bus dataBus, int fcb, long index) {
+        dataBus.memWrite(fcb + FCB_R0, (byte) index);
+        dataBus.memWrite(fcb + FCB_R0 + 1, (byte) (index >> 8));
+        dataBus.memWrite(fcb + FCB_R0 + 2, (byte) (index >> 16));
+    }
+
+    private static void writeName(Z80Bus dataBus, int address, byte[] name) {
+        for (int i = 0; i < 11; i++) {
+            dataBus.memWrite(address + i, name[i]);
+        }
+    }
+
+    private int open(Z80Bus dataBus, int fcb) {
+        try {
+            int selected = fcbDrive(dataBus, fcb);
+            if (selected < 0) {
+                return 0xFF;
+            }
+            List<Path> found = list(selected, fcbName(dataBus, fcb, 0));
+            if (found.isEmpty()) {
+                return 0xFF;
+            }
+            // Con comodines se abre el primero y el FCB toma su nombre
+            byte[] name = cpmName(found.get(0).getFileName().toString());
+            writeName(dataBus, fcb + 1, name);
+            String key = key(selected, name);
+            closeFile(key);
+            CpmFile file = new CpmFile(found.get(0), false);
+            files.put(key, file);
+            dataBus.memWrite(fcb + FCB_S1, (byte) 0);
+            setSequentialRecord(dataBus, fcb, sequentialRecord(dataBus, fcb), file);
+            return 0;
+        } catch (IOException e) {
+            return 0xFF;
+        }
+    }
+
+    private int close(Z80Bus dataBus, int fcb) {
+        int selected = fcbDrive(dataBus, fcb);
+        if (selected < 0) {
+            return 0xFF;
+        }
+        String key = key(selected, fcbName(dataBus, fcb, 0));
+        try {
+            if (files.containsKey(key)) {
+                closeFile(key);
+                return 0;
+            }
+        } catch (IOException e) {
+            return 0xFF;
+        }
+        return find(dataBus, fcb) != null ? 0 : 0xFF;
+    }
+
+    private int make(Z80Bus dataBus, int fcb) {
+        int selected = fcbDrive(dataBus, fcb);
+        if (selected < 0) {
+            return 0xFF;
+        }
+        byte[] name = fcbName(dataBus, fcb, 0);
+        for (byte c : name) {
+            if (c == '?') {
+                return 0xFF;
+            }
+        }
+        try {
+            Path existing = find(dataBus, fcb);
+            Path path = existing != null ? existing : drives[selected].resolve(hostName(name));
+            closeFiles(path);
+            CpmFile file = new CpmFile(path, true);
+            files.put(key(selected, name), file);
+            dataBus.memWrite(fcb + FCB_S1, (byte) 0);
+            dataBus.memWrite(fcb + FCB_RC, (byte) 0);
+            return 0;
+        } catch (IOException e) {
+            return 0xFF;
+        }
+    }
+
+    private int delete(Z80Bus dataBus, int fcb) {
+        int selected = fcbDrive(dataBus, fcb);
+        if (selected < 0) {
+            return 0xFF;
+        }
+        int result = 0xFF;
+        for (Path path : list(selected, fcbName(dataBus, fcb, 0))) {
+            try {
+                closeFiles(path);
+                Files.delete(path);
+                result = 0;
+            } catch (IOException e) {
+                // Se sigue con el resto
+            }
+        }
+        return result;
+    }
+
+    // El nombre nuevo va en la segunda mitad del FCB (FCB + 16)
+    private int rename(Z80Bus dataBus, int fcb) {
+        int selected = fcbDrive(dataBus, fcb);
+        Path path = find(dataBus, fcb);
+        if (selected < 0 || path == null) {
+            return 0xFF;
+        }
+        byte[] name = fcbName(dataBus, fcb, 16);
+        if (!list(selected, name).isEmpty()) {
+            return 0xFF;
+        }
+        try {
+            closeFiles(path);
+            Files.move(path, drives[selected].resolve(hostName(name)));
+            return 0;
+        } catch (IOException e) {
+            return 0xFF;
+        }
+    }
+
+    private int searchFirst(Z80Bus dataBus, int fcb) {
+        int selected = fcbDrive(dataBus, fcb);
+        if (selected < 0) {
+            search = null;
+            return 0xFF;
+        }
+        byte[] pattern = fcbName(dataBus, fcb, 0);
+        if ((dataBus.memRead(fcb) & 0xFF) == '?') {
+            Arrays.fill(pattern, (byte) '?');
+        }
+        List<byte[]> entries = new ArrayList<>();
+        for (Path path : list(selected, pattern)) {
+            // Una entrada por fichero con el último extent
+            long records;
+            try {
+                records = (Files.size(path) + RECORD - 1) / RECORD;
+            } catch (IOException e) {
+                continue;
+            }
+            long extent = records == 0 ? 0 : (records - 1) / EXTENT_RECORDS;
+            byte[] entry = new byte[32];
+            entry[0] = (byte) user;
+            System.arraycopy(cpmName(path.getFileName().toString()), 0, entry, 1, 11);
+            entry[FCB_EX] = (byte) (extent % 32);
+            entry[FCB_S2] = (byte) (extent / 32);
+            entry[FCB_RC] = (byte) (records - extent * EXTENT_RECORDS);
+            entries.add(entry);
+        }
+        search = entries.iterator();
+        return searchNext(dataBus);
+    }
+
+    // La entrada encontrada se deja en la primera posición del DMA (A = 0) y el resto vacías
+    private int searchNext(Z80Bus dataBus) {
+        if (search == null || !search.hasNext()) {
+            search = null;
+            return 0xFF;
+        }
+        byte[] entry = search.next();
+        for (int i = 0; i < RECORD; i++) {
+            dataBus.memWrite((dma + i) & 0xFFFF, i < 32 ? entry[i] : (byte) 0xE5);
+        }
+        return 0;
+    }
+
+    private int readSequential(Z80Bus dataBus, int fcb) {
+        try {
+            CpmFile file = file(dataBus, fcb);
+            if (file == null) {
+                return 0xFF;
+            }
+            long index = sequentialRecord(dataBus, fcb);
+            if (!file.read(index, record)) {
+                return 1; // Fin del fichero
+            }
+            copyToDma(dataBus);
+            setSequentialRecord(dataBus, fcb, index + 1, file);
+            return 0;
+        } catch (IOException e) {
+            return 1;
+        }
+    }
+
+    private int writeSequential(Z80Bus dataBus, int fcb) {
+        try {
+            CpmFile file = file(dataBus, fcb);
+            if (file == null) {
+                return 0xFF;
+            }
+            long index = sequentialRecord(dataBus, fcb);
+            copyFromDma(dataBus);
+            file.write(index, record);
+            setSequentialRecord(dataBus, fcb, index + 1, file);
+            return 0;
+        } catch (IOException e) {
+            return 2; // Disco lleno
+        }
+    }
+
+    // Los accesos aleatorios dejan el FCB en el registro accedido, como CP/M 2.2
+    private int readRandom(Z80Bus dataBus, int fcb) {
+        long index = randomRecord(dataBus, fcb);
+        if (index > 0xFFFF) {
+            return 6; // Registro fuera de rango
+        }
+        try {
+            CpmFile file = file(dataBus, fcb);
+            if (file == null) {
+                return 0xFF;
+            }
+            setSequentialRecord(dataBus, fcb, index, file);
+            if (!file.read(index, record)) {
+                return 1; // Registro no escrito
+            }
+            copyToDma(dataBus);
+            return 0;
+        } catch (IOException e) {
+            return 1;
+        }
+    }
+
+    private int writeRandom(Z80Bus dataBus, int fcb) {
+        long index = randomRecord(dataBus, fcb);
+        if (index > 0xFFFF) {
+            return 6;
+        }
+        try {
+            CpmFile file = file(dataBus, fcb);
+            if (file == null) {
+                return 0xFF;
+            }
+            copyFromDma(dataBus);
+            file.write(index, record);
+            setSequentialRecord(dataBus, fcb, index, file);
+            return 0;
+        } catch (IOException e) {
+            return 2;
+        }
+    }
+
+    private int fileSize(Z80Bus dataBus, int fcb) {
+        try {
+            CpmFile file = file(dataBus, fcb);
+            if (file == null) {
+                return 0xFF;
+            }
+            setRandomRecord(dataBus, fcb, file.records());
+            return 0;
+        } catch (IOException e) {
+            return 0xFF;
+        }
+    }
+
+    private void copyToDma(Z80Bus dataBus) {
+        for (int i = 0; i < RECORD; i++) {
+            dataBus.memWrite((dma + i) & 0xFFFF, record[i]);
+        }
+    }
+
+    private void copyFromDma(Z80Bus dataBus) {
+        for (int i = 0; i < RECORD; i++) {
+            record[i] = dataBus.memRead((dma + i) & 0xFFFF);
+        }
+    }
+}
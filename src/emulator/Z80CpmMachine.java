@@ -0,0 +1,165 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Máquina CP/M 2.2 sin pantalla para ejecutar programas .COM por lotes
+// Z80 (cualquier motor de Z80Engines) + 64 KB de RAM + BDOS/BIOS por traps (Z80CpmBdos) con las
+// unidades sobre directorios del anfitrión. No hay CCP: load() hace su trabajo (programa en 100h,
+// cola de órdenes en 80h, FCB por defecto en 5Ch y 6Ch, pila con la dirección de vuelta 0) y run()
+// ejecuta por lotes hasta el arranque en caliente.
+//
+// Cada máquina es independiente (sin estado estático), así que se pueden ejecutar muchas en
+// paralelo en la misma JVM, una por hilo. Crear una máquina solo reserva la RAM y la CPU.
+//
+// Velocidad: CLOCK_SPEED_UNLIMITED (por defecto) ejecuta tan rápido como permite el motor;
+// CLOCK_SPEED_NORMAL limita la CPU a CLOCK_HZ esperando entre lotes.
+
+public class Z80CpmMachine implements Closeable {
+
+    public static final long CLOCK_HZ = 4_000_000; // Z80 a 4 MHz
+    private static final long RUN_BUDGET = 1_000_000; // tStates por llamada a Z80Engine.run
+
+    private final Z80Engine cpu;
+    private final Z80CpmBdos bdos;
+    private int clockSpeed = Constants.CLOCK_SPEED_UNLIMITED;
+
+    // Máquina con el motor 'engine' (ver Z80Engines); la consola lee de 'input' (puede ser null) y
+    // escribe en 'console'
+    public Z80CpmMachine(String engine, InputStream input, PrintStream console) {
+        Z80Bus dataBus = new Z80Bus();
+        dataBus.addBusComponent(new Z80BusComponent(Constants.MEM_COMPONENT, 0, 0x10000));
+        cpu = Z80Engines.create(engine, dataBus);
+        bdos = new Z80CpmBdos(input, console);
+    }
+
+    public Z80Engine getCpu() {
+        return cpu;
+    }
+
+    public Z80CpmBdos getBdos() {
+        return bdos;
+    }
+
+    // Unidad 'drive' (0 = A:) sobre un directorio del anfitrión
+    public void setDrive(int drive, Path directory) {
+        bdos.setDrive(drive, directory);
+    }
+
+    public void setClockSpeed(int clockSpeed) {
+        this.clockSpeed = clockSpeed;
+    }
+
+    public int getClockSpeed() {
+        return clockSpeed;
+    }
+
+    // Carga el programa en la TPA y prepara la página cero y los registros como lo haría el CCP
+    // con la orden "programa args..."
+    public void load(Path program, String... args) throws IOException {
+        byte[] code = Files.readAllBytes(program);
+        if (code.length > Z80CpmBdos.BDOS_ENTRY - Z80CpmBdos.TPA - 2) {
+            throw new IOException("program too big for the TPA: " + program);
+        }
+        Z80Bus dataBus = cpu.getDataBus();
+        for (int i = 0; i < code.length; i++) {
+            dataBus.memWrite(Z80CpmBdos.TPA + i, code[i]);
+        }
+        bdos.install(cpu);
+
+        // Cola de órdenes en mayúsculas, como la deja el CCP: longitud, " arg1 arg2...", 0
+        StringBuilder tail = new StringBuilder();
+        for (String arg : args) {
+            tail.append(' ').append(arg.toUpperCase());
+        }
+        if (tail.length() > 126) {
+            throw new IOException("command line too long");
+        }
+        dataBus.memWrite(Z80CpmBdos.DEFAULT_DMA, (byte) tail.length());
+        for (int i = 0; i < tail.length(); i++) {
+            dataBus.memWrite(Z80CpmBdos.DEFAULT_DMA + 1 + i, (byte) tail.charAt(i));
+        }
+        dataBus.memWrite(Z80CpmBdos.DEFAULT_DMA + 1 + tail.length(), (byte) 0);
+        writeFcb(dataBus, Z80CpmBdos.DEFAULT_FCB, args.length > 0 ? args[0] : "", 36);
+        writeFcb(dataBus, Z80CpmBdos.DEFAULT_FCB2, args.length > 1 ? args[1] : "", 16);
+
+        Z80Registers regs = cpu.getRegisters();
+        int sp = Z80CpmBdos.BDOS_ENTRY - 2; // Vuelta al CCP (arranque en caliente) con RET
+        dataBus.memWrite(sp, (byte) 0);
+        dataBus.memWrite(sp + 1, (byte) 0);
+        regs.setSP((short) sp);
+        regs.setPC((short) Z80CpmBdos.TPA);
+        regs.setBC((short) 0); // Usuario y unidad actuales en C
+    }
+
+    // FCB de un argumento como lo analiza el CCP: [d:]nombre[.tipo], * como ? hasta el final
+    private static void writeFcb(Z80Bus dataBus, int fcb, String arg, int size) {
+        for (int i = 0; i < size; i++) {
+            dataBus.memWrite(fcb + i, (byte) (i >= 1 && i <= 11 ? ' ' : 0));
+        }
+        String text = arg.toUpperCase();
+        if (text.length() >= 2 && text.charAt(1) == ':' && text.charAt(0) >= 'A' && text.charAt(0) <= 'P') {
+            dataBus.memWrite(fcb, (byte) (text.charAt(0) - 'A' + 1));
+            text = text.substring(2);
+        }
+        int dot = text.indexOf('.');
+        writeField(dataBus, fcb + 1, dot < 0 ? text : text.substring(0, dot), 8);
+        writeField(dataBus, fcb + 9, dot < 0 ? "" : text.substring(dot + 1), 3);
+    }
+
+    private static void writeField(Z80Bus dataBus, int address, String text, int length) {
+        for (int i = 0; i < length && i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '*') {
+                for (int j = i; j < length; j++) {
+                    dataBus.memWrite(address + j, (byte) '?');
+                }
+                return;
+            }
+            dataBus.memWrite(address + i, (byte) c);
+        }
+    }
+
+    // Ejecuta el programa cargado hasta que termina (arranque en caliente, función 0 del BDOS o un
+    // HALT sin interrupciones que lo despierten). Devuelve los tStates ejecutados
+    public long run() throws IOException {
+        long tStatesStart = cpu.getTStates();
+        long timeStart = System.nanoTime();
+        while (true) {
+            cpu.run(RUN_BUDGET);
+            int stopReason = cpu.getStopReason();
+            if (stopReason == Constants.RUN_TRAP) {
+                if (!bdos.service(cpu)) {
+                    break;
+                }
+            } else if (stopReason == Constants.RUN_HALT) {
+                break;
+            }
+            if (clockSpeed == Constants.CLOCK_SPEED_NORMAL) {
+                pace(cpu.getTStates() - tStatesStart, timeStart);
+            }
+        }
+        bdos.flush();
+        return cpu.getTStates() - tStatesStart;
+    }
+
+    // Espera hasta el instante en el que una CPU real habría ejecutado 'tStates'
+    private static void pace(long tStates, long timeStart) {
+        long ahead = tStates * 1_000_000_000L / CLOCK_HZ - (System.nanoTime() - timeStart);
+        if (ahead > 1_000_000) {
+            try {
+                Thread.sleep(ahead / 1_000_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Cierra los ficheros del anfitrión que haya dejado abiertos el programa
+    @Override
+    public void close() throws IOException {
+        bdos.close();
+    }
+}
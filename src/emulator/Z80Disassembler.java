@@ -0,0 +1,362 @@
+// Desensamblador Z80
+// Decodifica por campos del opcode (x = bits 7-6, y = bits 5-3, z = bits 2-0, p = bits 5-4,
+// q = bit 3), como en "Decoding Z80 opcodes" de Cristian Dinu, en lugar de tablas con las 1792
+// combinaciones. Incluye las instrucciones no documentadas (sll, ixh/ixl, las DDCB/FDCB con copia
+// en registro, in (c), out (c),0). Los prefijos DD/FD delante de una instrucción que no usa hl se
+// muestran solos, como NOP* de un byte, igual que los ejecuta la CPU.
+//
+// Formato: mnemónicos en mayúsculas, números en hexadecimal con sufijo h.
+
+public final class Z80Disassembler {
+
+    private static final String[] R = { "B", "C", "D", "E", "H", "L", "(HL)", "A" };
+    private static final String[] RP = { "BC", "DE", "HL", "SP" };
+    private static final String[] RP2 = { "BC", "DE", "HL", "AF" };
+    private static final String[] CC = { "NZ", "Z", "NC", "C", "PO", "PE", "P", "M" };
+    private static final String[] ALU = { "ADD A,", "ADC A,", "SUB ", "SBC A,", "AND ", "XOR ", "OR ", "CP " };
+    private static final String[] ROT = { "RLC", "RRC", "RL", "RR", "SLA", "SRA", "SLL", "SRL" };
+    private static final String[] IM = { "0", "0", "1", "2", "0", "0", "1", "2" };
+    private static final String[] ACC = { "RLCA", "RRCA", "RLA", "RRA", "DAA", "CPL", "SCF", "CCF" };
+    private static final String[][] BLOCK = {
+            { "LDI", "CPI", "INI", "OUTI" },
+            { "LDD", "CPD", "IND", "OUTD" },
+            { "LDIR", "CPIR", "INIR", "OTIR" },
+            { "LDDR", "CPDR", "INDR", "OTDR" } };
+
+    private Z80Disassembler() {
+    }
+
+    // Texto de la instrucción en 'address'
+    public static String instruction(Z80Bus dataBus, int address) {
+        return new Decoder(dataBus, address).decode();
+    }
+
+    // Bytes que ocupa la instrucción en 'address'
+    public static int length(Z80Bus dataBus, int address) {
+        Decoder decoder = new Decoder(dataBus, address);
+        decoder.decode();
+        return decoder.length;
+    }
+
+    // Línea de listado: dirección, bytes y texto de la instrucción
+    public static String line(Z80Bus dataBus, int address) {
+        Decoder decoder = new Decoder(dataBus, address);
+        String text = decoder.decode();
+        StringBuilder bytes = new StringBuilder();
+        for (int i = 0; i < decoder.length; i++) {
+            bytes.append(String.format("%02X ", dataBus.memRead((address + i) & 0xFFFF) & 0xFF));
+        }
+        return String.format("%04X  %-12s %s", address & 0xFFFF, bytes, text);
+    }
+
+    ////////////////////////////////////////////////////////////
+    // Decodificación de una instrucción
+
+    private static final class Decoder {
+        private final Z80Bus dataBus;
+        private final int address;
+        private int length;
+        private String index; // "IX" o "IY" con prefijo DD/FD, null sin prefijo
+
+        Decoder(Z80Bus dataBus, int address) {
+            this.dataBus = dataBus;
+            this.address = address & 0xFFFF;
+        }
+
+        String decode() {
+            int op = next();
+            switch (op) {
+                case 0xCB:
+                    return decodeCB(next());
+                case 0xED:
+                    return decodeED(next());
+                case 0xDD:
+                case 0xFD:
+                    return decodeIndexed(op == 0xDD ? "IX" : "IY");
+                default:
+                    return decodeMain(op);
+            }
+        }
+
+        private String decodeIndexed(String register) {
+            int op = peek();
+            if (op == 0xCB) {
+                index = register;
+                next();
+                String target = indexed((byte) next()); // En DDCB/FDCB el desplazamiento va antes del opcode
+                op = next();
+                int y = (op >> 3) & 0x07;
+                int z = op & 0x07;
+                String text;
+                switch (op >> 6) {
+                    case 0:
+                        text = ROT[y] + " " + target;
+                        break;
+                    case 1:
+                        return "BIT " + y + "," + target;
+                    case 2:
+                        text = "RES " + y + "," + target;
+                        break;
+                    default:
+                        text = "SET " + y + "," + target;
+                }
+                return z == 6 ? text : text + "," + R[z];
+            }
+            if (!usesHL(op)) {
+                return "NOP*"; // El prefijo se ejecuta solo y la instrucción siguiente sin él
+            }
+            index = register;
+            next();
+            return decodeMain(op);
+        }
+
+        private String decodeMain(int op) {
+            int x = op >> 6;
+            int y = (op >> 3) & 0x07;
+            int z = op & 0x07;
+            int p = y >> 1;
+            int q = y & 1;
+            if (x == 1) {
+                if (op == 0x76) {
+                    return "HALT";
+                }
+                // Con (xx+d) el otro operando es el h o l real
+                if (z == 6 || y == 6) {
+                    String memory = r(6);
+                    return "LD " + (y == 6 ? memory : R[y]) + "," + (z == 6 ? memory : R[z]);
+                }
+                return "LD " + r(y) + "," + r(z);
+            }
+            if (x == 2) {
+                return ALU[y] + r(z);
+            }
+            if (x == 0) {
+                switch (z) {
+                    case 0:
+                        switch (y) {
+                            case 0:
+                                return "NOP";
+                            case 1:
+                                return "EX AF,AF'";
+                            case 2:
+                                return "DJNZ " + relative();
+                            case 3:
+                                return "JR " + relative();
+                            default:
+                                return "JR " + CC[y - 4] + "," + relative();
+                        }
+                    case 1:
+                        return q == 0 ? "LD " + rp(p) + "," + word() : "ADD " + rp(2) + "," + rp(p);
+                    case 2:
+                        switch (y) {
+                            case 0:
+                                return "LD (BC),A";
+                            case 1:
+                                return "LD A,(BC)";
+                            case 2:
+                                return "LD (DE),A";
+                            case 3:
+                                return "LD A,(DE)";
+                            case 4:
+                                return "LD (" + word() + ")," + rp(2);
+                            case 5:
+                                return "LD " + rp(2) + ",(" + word() + ")";
+                            case 6:
+                                return "LD (" + word() + "),A";
+                            default:
+                                return "LD A,(" + word() + ")";
+                        }
+                    case 3:
+                        return (q == 0 ? "INC " : "DEC ") + rp(p);
+                    case 4:
+                        return "INC " + r(y);
+                    case 5:
+                        return "DEC " + r(y);
+                    case 6: {
+                        String target = r(y); // (xx+d) va antes que el dato inmediato
+                        return "LD " + target + "," + byteValue();
+                    }
+                    default:
+                        return ACC[y];
+                }
+            }
+            switch (z) {
+                case 0:
+                    return "RET " + CC[y];
+                case 1:
+                    if (q == 0) {
+                        return "POP " + (p == 2 ? rp(2) : RP2[p]);
+                    }
+                    switch (p) {
+                        case 0:
+                            return "RET";
+                        case 1:
+                            return "EXX";
+                        case 2:
+                            return "JP (" + rp(2) + ")";
+                        default:
+                            return "LD SP," + rp(2);
+                    }
+                case 2:
+                    return "JP " + CC[y] + "," + word();
+                case 3:
+                    switch (y) {
+                        case 0:
+                            return "JP " + word();
+                        case 2:
+                            return "OUT (" + byteValue() + "),A";
+                        case 3:
+                            return "IN A,(" + byteValue() + ")";
+                        case 4:
+                            return "EX (SP)," + rp(2);
+                        case 5:
+                            return "EX DE,HL";
+                        case 6:
+                            return "DI";
+                        default:
+                            return "EI";
+                    }
+                case 4:
+                    return "CALL " + CC[y] + "," + word();
+                case 5:
+                    return q == 0 ? "PUSH " + (p == 2 ? rp(2) : RP2[p]) : "CALL " + word();
+                case 6:
+                    return ALU[y] + byteValue();
+                default:
+                    return "RST " + String.format("%02Xh", y * 8);
+            }
+        }
+
+        private String decodeCB(int op) {
+            int y = (op >> 3) & 0x07;
+            int z = op & 0x07;
+            switch (op >> 6) {
+                case 0:
+                    return ROT[y] + " " + R[z];
+                case 1:
+                    return "BIT " + y + "," + R[z];
+                case 2:
+                    return "RES " + y + "," + R[z];
+                default:
+                    return "SET " + y + "," + R[z];
+            }
+        }
+
+        private String decodeED(int op) {
+            int x = op >> 6;
+            int y = (op >> 3) & 0x07;
+            int z = op & 0x07;
+            int p = y >> 1;
+            int q = y & 1;
+            if (x == 2 && z <= 3 && y >= 4) {
+                return BLOCK[y - 4][z];
+            }
+            if (x != 1) {
+                return "NOP*";
+            }
+            switch (z) {
+                case 0:
+                    return y == 6 ? "IN (C)" : "IN " + R[y] + ",(C)";
+                case 1:
+                    return y == 6 ? "OUT (C),0" : "OUT (C)," + R[y];
+                case 2:
+                    return (q == 0 ? "SBC HL," : "ADC HL,") + RP[p];
+                case 3:
+                    return q == 0 ? "LD (" + word() + ")," + RP[p] : "LD " + RP[p] + ",(" + word() + ")";
+                case 4:
+                    return "NEG";
+                case 5:
+                    return y == 1 ? "RETI" : "RETN";
+                case 6:
+                    return "IM " + IM[y];
+                default:
+                    switch (y) {
+                        case 0:
+                            return "LD I,A";
+                        case 1:
+                            return "LD R,A";
+                        case 2:
+                            return "LD A,I";
+                        case 3:
+                            return "LD A,R";
+                        case 4:
+                            return "RRD";
+                        case 5:
+                            return "RLD";
+                        default:
+                            return "NOP*";
+                    }
+            }
+        }
+
+        // Instrucciones sin prefijo en las que DD/FD cambia algún operando
+        private boolean usesHL(int op) {
+            int x = op >> 6;
+            int y = (op >> 3) & 0x07;
+            int z = op & 0x07;
+            if (op == 0xEB || op == 0xD9 || op == 0x76) {
+                return false; // ex de,hl, exx y halt no se ven afectados
+            }
+            if (x == 1) {
+                return y == 4 || y == 5 || y == 6 || z == 4 || z == 5 || z == 6;
+            }
+            if (x == 2) {
+                return z == 4 || z == 5 || z == 6;
+            }
+            if (x == 0) {
+                return op == 0x21 || op == 0x22 || op == 0x2A || op == 0x23 || op == 0x2B || (z == 1 && y % 2 == 1)
+                        || ((z == 4 || z == 5 || z == 6) && (y == 4 || y == 5 || y == 6));
+            }
+            return op == 0xE1 || op == 0xE3 || op == 0xE5 || op == 0xE9 || op == 0xF9;
+        }
+
+        // Registro de 8 bits con el prefijo aplicado
+        private String r(int r) {
+            if (index == null) {
+                return R[r];
+            }
+            switch (r) {
+                case 4:
+                    return index + "H";
+                case 5:
+                    return index + "L";
+                case 6:
+                    return indexed((byte) next());
+                default:
+                    return R[r];
+            }
+        }
+
+        private String rp(int p) {
+            return p == 2 && index != null ? index : RP[p];
+        }
+
+        private String indexed(int d) {
+            return "(" + index + (d < 0 ? "-" : "+") + String.format("%02Xh", Math.abs(d)) + ")";
+        }
+
+        private String relative() {
+            int d = (byte) next();
+            return String.format("%04Xh", (address + length + d) & 0xFFFF);
+        }
+
+        private String byteValue() {
+            return String.format("%02Xh", next());
+        }
+
+        private String word() {
+            int low = next();
+            return String.format("%04Xh", (next() << 8) | low);
+        }
+
+        private int peek() {
+            return dataBus.memRead((address + length) & 0xFFFF) & 0xFF;
+        }
+
+        private int next() {
+            int value = peek();
+            length++;
+            return value;
+        }
+    }
+}
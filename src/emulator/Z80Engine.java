@@ -0,0 +1,79 @@
+import java.util.function.BooleanSupplier;
+
+// Interfaz común de los motores de CPU Z80
+// Las máquinas y los lanzadores trabajan con esta interfaz y no con una implementación concreta,
+// de forma que se puede cambiar de motor (intérprete de referencia, caché de bloques,
+// recompilador, micro-operaciones, motores instrumentados...) sin tocar su código. Z80 es la
+// implementación de referencia; Z80Engines crea los motores por nombre.
+//
+// Todos los motores comparten el mismo contrato de ejecución por lotes (ver Z80.run): las
+// interrupciones se atienden entre instrucciones, los traps detienen el bucle antes de ejecutar la
+// instrucción y el reloj de tStates es monotónico. Para cambiar de motor en caliente se crea el
+// nuevo y se le pasa el estado del anterior con loadState; desde ese momento el anterior no debe
+// seguir ejecutando hasta que recupere el estado con otro loadState.
+
+public interface Z80Engine {
+
+    // Ejecución
+    void execInst();
+
+    long run(long tStateBudget);
+
+    long runUntil(BooleanSupplier condition);
+
+    int getStopReason();
+
+    boolean isHalted();
+
+    void RESET();
+
+    // Interrupciones
+    void setINTLine(boolean active);
+
+    boolean getINTLine();
+
+    void requestNMI();
+
+    boolean isNMIPending();
+
+    // La última instrucción fue un EI: la INT no se atiende hasta después de la siguiente
+    boolean isInterruptShadow();
+
+    // Traps de ejecución
+    void setTrap(int address, boolean enabled);
+
+    boolean isTrap(int address);
+
+    void clearTraps();
+
+    // Registros
+    Z80Registers getRegisters();
+
+    void setRegisters(Z80Registers regs);
+
+    void setLazyFlags(boolean enabled);
+
+    boolean isLazyFlags();
+
+    // Bus de datos
+    void setDataBus(Z80Bus dataBus);
+
+    Z80Bus getDataBus();
+
+    // Reloj
+    long getTStates();
+
+    void setTStates(long tStates);
+
+    void setFrameLength(int frameLength);
+
+    int getFrameLength();
+
+    int getFrameTStates();
+
+    long getFrameNumber();
+
+    // Copia el estado de ejecución de otro motor: registros, reloj, línea INT, NMI pendiente, EI
+    // reciente, traps y bus de datos. El motor queda listo para seguir donde paró 'source'
+    void loadState(Z80Engine source);
+}
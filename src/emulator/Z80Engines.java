@@ -0,0 +1,107 @@
+import java.util.Arrays;
+import java.util.List;
+
+// Creación de motores de CPU por nombre
+// Las máquinas eligen el motor por configuración: un nombre explícito o la propiedad del sistema
+// z80.engine (por ejemplo java -Dz80.engine=recompiler ...). Sin configurar se usa el intérprete
+// de referencia.
+//
+// Motores:
+// - interpreter: intérprete de referencia (Z80)
+// - blockcache: Z80 con la caché de bloques predecodificados
+// - fusion: caché de bloques con superinstrucciones
+// - recompiler: caché de bloques con el recompilador dinámico (necesita un JDK; en un JRE se crea
+//   fusion en su lugar, avisando por la salida de error)
+// - microops: intérprete de micro-operaciones (Z80MicroOpEngine)
+
+public final class Z80Engines {
+
+    public static final String PROPERTY = "z80.engine";
+    public static final String INTERPRETER = "interpreter";
+    public static final String BLOCK_CACHE = "blockcache";
+    public static final String FUSION = "fusion";
+    public static final String RECOMPILER = "recompiler";
+    public static final String MICRO_OPS = "microops";
+
+    private static final List<String> NAMES = Arrays.asList(INTERPRETER, BLOCK_CACHE, FUSION, RECOMPILER, MICRO_OPS);
+    private static boolean recompilerWarned;
+
+    private Z80Engines() {
+    }
+
+    // Nombres de los motores disponibles
+    public static List<String> names() {
+        return NAMES;
+    }
+
+    // Motor configurado en la propiedad z80.engine, conectado al bus
+    public static Z80Engine create(Z80Bus dataBus) {
+        return create(System.getProperty(PROPERTY, INTERPRETER), dataBus);
+    }
+
+    // Motor 'name' conectado al bus, con los registros en su estado de reset
+    public static Z80Engine create(String name, Z80Bus dataBus) {
+        Z80 cpu;
+        switch (name) {
+            case INTERPRETER:
+            case BLOCK_CACHE:
+            case FUSION:
+            case RECOMPILER:
+                cpu = new Z80();
+                break;
+            case MICRO_OPS:
+                cpu = new Z80MicroOpEngine();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown Z80 engine '" + name + "', expected one of " + NAMES);
+        }
+        cpu.setDataBus(dataBus);
+        switch (name) {
+            case BLOCK_CACHE:
+                cpu.setBlockCache(true);
+                break;
+            case FUSION:
+                cpu.setFusion(true);
+                break;
+            case RECOMPILER:
+                if (Z80Recompiler.isAvailable()) {
+                    cpu.setRecompiler(true);
+                } else {
+                    warnNoRecompiler();
+                    cpu.setFusion(true);
+                }
+                break;
+            default:
+                break;
+        }
+        return cpu;
+    }
+
+    // Aviso, una sola vez, de que el recompilador no está disponible
+    private static synchronized void warnNoRecompiler() {
+        if (!recompilerWarned) {
+            recompilerWarned = true;
+            System.err.println("warning: the recompiler engine needs a JDK (no system Java compiler), using " + FUSION);
+        }
+    }
+
+    // Cambio de motor en caliente: crea el motor 'name' sobre el mismo bus y le pasa el estado de
+    // 'current', que no debe volver a ejecutar salvo que recupere el estado con loadState
+    public static Z80Engine switchEngine(Z80Engine current, String name) {
+        Z80Engine next = create(name, current.getDataBus());
+        next.loadState(current);
+        return next;
+    }
+
+    // Nombre del motor de una CPU creada con create (o "custom" para otras implementaciones)
+    public static String nameOf(Z80Engine engine) {
+        if (engine instanceof Z80MicroOpEngine) {
+            return MICRO_OPS;
+        }
+        if (engine.getClass() != Z80.class) {
+            return "custom";
+        }
+        Z80 cpu = (Z80) engine;
+        return cpu.isRecompiler() ? RECOMPILER : cpu.isFusion() ? FUSION : cpu.isBlockCache() ? BLOCK_CACHE : INTERPRETER;
+    }
+}
@@ -0,0 +1,92 @@
+// Tablas precalculadas de flags para las operaciones de 8 bits de la ALU
+// Se construyen una sola vez al cargar la clase, a partir de las fórmulas de referencia
+// de Z80ALU.computeFlagsDirect, y se comparten entre todas las instancias de CPU.
+// Cada operación de 8 bits queda reducida a una consulta en tabla.
+//
+// Índices:
+// - SZ53P, INC, DEC: resultado (0..255)
+// - ADD, SUB, CP: (a << 8) | v
+// - ADC, SBC: (acarreo << 16) | (a << 8) | v
+// - ROTATE: (ROT_* << 9) | (acarreo << 8) | v, con el resultado y los flags juntos: (F << 8) | resultado
+
+public class Z80FlagTables {
+
+    // Flags S, Z, F5, F3 y P de un resultado de 8 bits (operaciones lógicas, rotaciones, IN...)
+    static final byte[] SZ53P = new byte[0x100];
+    // Flags de INC/DEC (sin el acarreo, que se conserva)
+    static final byte[] INC = new byte[0x100];
+    static final byte[] DEC = new byte[0x100];
+    // Flags de las operaciones aritméticas de 8 bits
+    static final byte[] ADD = new byte[0x10000];
+    static final byte[] ADC = new byte[0x20000];
+    static final byte[] SUB = new byte[0x10000];
+    static final byte[] SBC = new byte[0x20000];
+    static final byte[] CP = new byte[0x10000];
+    // Rotaciones y desplazamientos CB, en el orden de su codificación (bits 3-5 del opcode)
+    static final int ROT_RLC = 0;
+    static final int ROT_RRC = 1;
+    static final int ROT_RL = 2;
+    static final int ROT_RR = 3;
+    static final int ROT_SLA = 4;
+    static final int ROT_SRA = 5;
+    static final int ROT_SLL = 6;
+    static final int ROT_SRL = 7;
+    static final short[] ROTATE = new short[8 << 9];
+
+    static {
+        for (int r = 0; r < 0x100; r++) {
+            SZ53P[r] = (byte) Z80ALU.computeFlagsDirect(Z80ALU.FLAGS_OR8, 0, 0, r, 0);
+            // El valor de entrada es el operando; el resultado se deduce de él
+            INC[r] = (byte) Z80ALU.computeFlagsDirect(Z80ALU.FLAGS_INC8, r, 0, (r + 1) & 0xFF, 0);
+            DEC[r] = (byte) Z80ALU.computeFlagsDirect(Z80ALU.FLAGS_DEC8, r, 0, (r - 1) & 0xFF, 0);
+        }
+        for (int a = 0; a < 0x100; a++) {
+            for (int v = 0; v < 0x100; v++) {
+                int i = (a << 8) | v;
+                ADD[i] = (byte) Z80ALU.computeFlagsDirect(Z80ALU.FLAGS_ADD8, a, v, a + v, 0);
+                SUB[i] = (byte) Z80ALU.computeFlagsDirect(Z80ALU.FLAGS_SUB8, a, v, a - v, 0);
+                CP[i] = (byte) Z80ALU.computeFlagsDirect(Z80ALU.FLAGS_CP8, a, v, a - v, 0);
+                for (int c = 0; c < 2; c++) {
+                    ADC[(c << 16) | i] = (byte) Z80ALU.computeFlagsDirect(Z80ALU.FLAGS_ADC8, a, v, a + v + c, 0);
+                    SBC[(c << 16) | i] = (byte) Z80ALU.computeFlagsDirect(Z80ALU.FLAGS_SBC8, a, v, a - v - c, 0);
+                }
+            }
+        }
+        for (int rot = ROT_RLC; rot <= ROT_SRL; rot++) {
+            for (int c = 0; c < 2; c++) {
+                for (int v = 0; v < 0x100; v++) {
+                    int res = rotate(rot, c, v);
+                    int carry = (rot & 1) == 0 ? v >> 7 : v & 0x01; // Izquierda: bit 7; derecha: bit 0
+                    int f = Z80ALU.computeFlagsDirect(Z80ALU.FLAGS_SHIFT8, carry, 0, res, 0);
+                    ROTATE[(rot << 9) | (c << 8) | v] = (short) ((f << 8) | res);
+                }
+            }
+        }
+    }
+
+    // Resultado de referencia de una rotación o desplazamiento con el acarreo de entrada 'c'
+    private static int rotate(int rot, int c, int v) {
+        switch (rot) {
+            case ROT_RLC:
+                return ((v << 1) | (v >> 7)) & 0xFF;
+            case ROT_RRC:
+                return (v >> 1) | ((v & 0x01) << 7);
+            case ROT_RL:
+                return ((v << 1) | c) & 0xFF;
+            case ROT_RR:
+                return (v >> 1) | (c << 7);
+            case ROT_SLA:
+                return (v << 1) & 0xFF;
+            case ROT_SRA:
+                return (v & 0x80) | (v >> 1);
+            case ROT_SLL:
+                return ((v << 1) | 0x01) & 0xFF;
+            default:
+                return v >> 1;
+        }
+    }
+
+    // Clase de utilidad, sin instancias
+    private Z80FlagTables() {
+    }
+}
@@ -0,0 +1,118 @@
+// Superinstrucciones: pares de instrucciones sin prefijo que la caché de bloques ejecuta juntos
+// Cada familia agrupa pares con la misma forma (contador y salto, dos push, acceso a memoria y
+// avance del puntero...) y tiene un único manejador en Z80.execFused. Solo se fusionan los pares
+// del perfil de frecuencias (Z80FusionProfile, generado por Z80FusionProfiler) que encajan en una
+// familia.
+//
+// Un par solo se fusiona si la primera instrucción cabe en el presupuesto y no hay una interrupción
+// pendiente (tras un EI la primera instrucción se ejecuta con ella pendiente y el intérprete la
+// atiende antes de la segunda), así que se sale en el mismo límite de instrucción que el intérprete.
+// Las familias que acceden a memoria en la primera instrucción comprueban entre ambas si hay una
+// interrupción pendiente o se ha sobrescrito el bloque.
+
+final class Z80Fusion {
+
+    // Familias (0: sin fusión)
+    static final int BRANCH = 1; // inc/dec r, cp r, cp N + jp cc,NN / jr cc,D
+    static final int PUSH_PUSH = 2; // push rr + push rr
+    static final int POP_POP = 3; // pop rr + pop rr
+    static final int MEMORY_STEP = 4; // ld r,(hl) / ld (hl),r / ld a,(rr) / ld (rr),a + inc/dec rr
+    static final int STEP = 5; // inc/dec rr, add hl,rr, ex de,hl + inc/dec rr, inc/dec r, add hl,rr, ex de,hl
+
+    // tStates de la primera instrucción de cada par fusionable
+    static final int[] FIRST_TSTATES = new int[256];
+
+    private static final byte[] FAMILY = new byte[0x10000]; // Familia por par (op1 << 8) | op2
+
+    static {
+        for (int i = 0; i < Z80FusionProfile.PAIRS.length; i += 2) {
+            int pair = Z80FusionProfile.PAIRS[i];
+            FAMILY[pair] = (byte) familyOf(pair >> 8, pair & 0xFF);
+        }
+        for (int op = 0; op < 256; op++) {
+            if (isIncDec8(op) || (op >= 0xB8 && op <= 0xBF && op != 0xBE) || isEx(op)) {
+                FIRST_TSTATES[op] = 4;
+            } else if (op == 0xFE || isMemory(op)) {
+                FIRST_TSTATES[op] = 7;
+            } else if (isIncDec16(op)) {
+                FIRST_TSTATES[op] = 6;
+            } else if (isPop(op)) {
+                FIRST_TSTATES[op] = 10;
+            } else if (isPush(op) || isAdd16(op)) {
+                FIRST_TSTATES[op] = 11;
+            }
+        }
+    }
+
+    private Z80Fusion() {
+    }
+
+    // Familia de superinstrucción del par, o 0 si no se fusiona
+    static int family(int op1, int op2) {
+        return FAMILY[(op1 << 8) | op2];
+    }
+
+    ////////////////////////////////////////////////////////////
+    // Métodos privados
+
+    private static int familyOf(int op1, int op2) {
+        if ((isIncDec8(op1) || (op1 >= 0xB8 && op1 <= 0xBF && op1 != 0xBE) || op1 == 0xFE) && isJump(op2)) {
+            return BRANCH;
+        }
+        if (isPush(op1) && isPush(op2)) {
+            return PUSH_PUSH;
+        }
+        if (isPop(op1) && isPop(op2)) {
+            return POP_POP;
+        }
+        if (isMemory(op1) && isIncDec16(op2)) {
+            return MEMORY_STEP;
+        }
+        if ((isIncDec16(op1) || isAdd16(op1) || isEx(op1))
+                && (isIncDec16(op2) || isIncDec8(op2) || isAdd16(op2) || isEx(op2))) {
+            return STEP;
+        }
+        return 0;
+    }
+
+    // inc r / dec r (sin (hl))
+    private static boolean isIncDec8(int op) {
+        return op < 0x40 && (op & 0x06) == 0x04 && (op & 0x38) != 0x30;
+    }
+
+    // inc rr / dec rr
+    private static boolean isIncDec16(int op) {
+        return op < 0x40 && (op & 0x07) == 0x03;
+    }
+
+    // add hl,rr
+    private static boolean isAdd16(int op) {
+        return op < 0x40 && (op & 0x0F) == 0x09;
+    }
+
+    // ex de,hl
+    private static boolean isEx(int op) {
+        return op == 0xEB;
+    }
+
+    // jp cc,NN / jr cc,D
+    private static boolean isJump(int op) {
+        return (op >= 0xC0 && (op & 0x07) == 0x02) || op == 0x20 || op == 0x28 || op == 0x30 || op == 0x38;
+    }
+
+    private static boolean isPush(int op) {
+        return op >= 0xC0 && (op & 0x0F) == 0x05;
+    }
+
+    private static boolean isPop(int op) {
+        return op >= 0xC0 && (op & 0x0F) == 0x01;
+    }
+
+    // ld r,(hl) / ld (hl),r / ld a,(bc) / ld a,(de) / ld (bc),a / ld (de),a
+    private static boolean isMemory(int op) {
+        if (op == 0x02 || op == 0x12 || op == 0x0A || op == 0x1A) {
+            return true;
+        }
+        return op >= 0x40 && op < 0x80 && op != 0x76 && ((op & 0x07) == 0x06 || (op & 0x38) == 0x30);
+    }
+}
@@ -0,0 +1,61 @@
+// Perfil de frecuencias de pares de instrucciones sin prefijo (superinstrucciones)
+// Generado por Z80FusionProfiler: no editar. Cargas de trabajo: zexdoc
+// 61835010 instrucciones perfiladas
+
+final class Z80FusionProfile {
+
+    // Pares (op1 << 8) | op2, de más a menos frecuente, y tanto por mil de las instrucciones
+    static final int[] PAIRS = {
+            0x05C2, 34,
+            0x0F4F, 24,
+            0x0FF5, 24,
+            0x3EDC, 24,
+            0x4FF1, 24,
+            0xA90F, 24,
+            0xF105, 24,
+            0xF53E, 24,
+            0xFEC2, 21,
+            0x217E, 21,
+            0xC5E5, 20,
+            0xE1C1, 20,
+            0x0777, 20,
+            0x2A46, 20,
+            0x4621, 20,
+            0x4F07, 20,
+            0x77FE, 20,
+            0x78A1, 20,
+            0x7E4F, 20,
+            0xA1E1, 20,
+            0xC1C8, 20,
+            0xE52A, 20,
+            0x0DC2, 16,
+            0x1323, 16,
+            0x1AA8, 16,
+            0x230D, 16,
+            0x4677, 16,
+            0x7713, 16,
+            0xA846, 16,
+            0x1119, 14,
+            0xFECA, 10,
+            0x7EFE, 10,
+            0x197E, 10,
+            0xC5D5, 10,
+            0xD5E5, 10,
+            0xE1D1, 9,
+            0x2305, 5,
+            0xC1C9, 5,
+            0x1213, 5,
+            0x13C1, 5,
+            0x4E11, 5,
+            0x7912, 5,
+            0xD179, 5,
+            0xE54E, 5,
+            0xD1C1, 4,
+            0xF5C5, 4,
+            0xC1F1, 4,
+            0x19EB, 4,
+    };
+
+    private Z80FusionProfile() {
+    }
+}
@@ -0,0 +1,58 @@
+// Contexto de ejecución de los bloques compilados por el recompilador dinámico
+// Es la única puerta de los bloques generados hacia la CPU: registros, reloj, presupuesto y
+// accesos a memoria. Los accesos comprueban si hay que salir del bloque en el siguiente límite
+// de instrucción: interrupción pendiente o escritura sobre el propio bloque.
+
+public final class Z80JitContext {
+
+    // Tablas de flags compartidas con el intérprete
+    public static final byte[] SZ53P = Z80FlagTables.SZ53P;
+    public static final byte[] INC = Z80FlagTables.INC;
+    public static final byte[] DEC = Z80FlagTables.DEC;
+    public static final byte[] ADD = Z80FlagTables.ADD;
+    public static final byte[] ADC = Z80FlagTables.ADC;
+    public static final byte[] SUB = Z80FlagTables.SUB;
+    public static final byte[] SBC = Z80FlagTables.SBC;
+    public static final byte[] CP = Z80FlagTables.CP;
+    public static final short[] ROTATE = Z80FlagTables.ROTATE;
+
+    public Z80Registers regs;
+    public long tStates; // Reloj de la CPU, lo actualiza el bloque al salir
+    public long limit; // tStates a partir de los que el bloque debe salir
+    public boolean stop; // Salir en el siguiente límite de instrucción
+
+    private final Z80 cpu;
+    private Z80Bus dataBus;
+    private Z80BlockCache.Block block; // Bloque en ejecución
+
+    Z80JitContext(Z80 cpu) {
+        this.cpu = cpu;
+    }
+
+    // Preparación antes de ejecutar un bloque
+    void enter(Z80Registers regs, Z80Bus dataBus, Z80BlockCache.Block block, long tStates, long limit) {
+        this.regs = regs;
+        this.dataBus = dataBus;
+        this.block = block;
+        this.tStates = tStates;
+        this.limit = limit;
+        stop = false;
+    }
+
+    // Lectura de memoria (dirección de 16 bits ya recortada)
+    public int read(int address) {
+        int value = dataBus.memRead(address) & 0xFF;
+        if (cpu.irqPending()) {
+            stop = true;
+        }
+        return value;
+    }
+
+    // Escritura de memoria (dirección de 16 bits ya recortada)
+    public void write(int address, int value) {
+        dataBus.memWrite(address, (byte) value);
+        if (!block.valid || cpu.irqPending()) {
+            stop = true;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+import java.util.HashMap;
+
+// Mapeador de memoria por bancos de 16 KB de los modelos de 128K (128K/+2, +2A/+3 y Pentagon)
+// Tiene su reserva de bancos de RAM y de ROM, creada una sola vez, y atiende los puertos de
+// paginación: una escritura en 7FFDh (y en 1FFDh en el +3) cambia el banco de C000h y la ROM de
+// 0000h sustituyendo las entradas de las páginas del bus (Z80Bus.mapBank), en tiempo constante, sin
+// reconstruir las tablas del bus ni reservar memoria, y descartando solo el código predecodificado
+// de las páginas que cambian.
+//
+// Uso: el bus debería tener páginas de 16 KB (new Z80Bus(Z80Bus.MAX_PAGE_SIZE)), aunque vale
+// cualquier tamaño. El mapeador se añade al bus como componente de IO y se encarga de toda la
+// memoria; las ROM se cargan con loadRom.
+//
+// 7FFDh: bits 0-2 banco de RAM en C000h, bit 3 pantalla (banco 5 o 7), bit 4 ROM, bit 5 bloqueo
+// de la paginación hasta reset(). Pentagon 512: bits 6-7 amplían el banco de C000h hasta 32.
+// 1FFDh (+3): bit 0 modo especial (todo RAM, configuraciones de SPECIAL_BANKS según los bits
+// 1-2), bit 2 bit alto de la ROM. Decodificación parcial como en las máquinas reales.
+class Z80MemoryMapper extends Z80BusComponent {
+    public static final int MODEL_128K = 0; // 128K y +2
+    public static final int MODEL_PLUS3 = 1; // +2A y +3
+    public static final int MODEL_PENTAGON_128 = 2;
+    public static final int MODEL_PENTAGON_512 = 3;
+    public static final int BANK_SIZE = 0x4000;
+
+    // Bancos de RAM de 0000h, 4000h, 8000h y C000h en el modo especial del +3
+    private static final int[][] SPECIAL_BANKS = { { 0, 1, 2, 3 }, { 4, 5, 6, 7 }, { 4, 5, 6, 3 }, { 4, 7, 6, 3 } };
+
+    private final Z80Bus dataBus;
+    private final int model;
+    private final Z80BusComponent[] ram;
+    private final Z80BusComponent[] rom;
+    private int port7FFD;
+    private int port1FFD;
+    private boolean locked;
+
+    public Z80MemoryMapper(Z80Bus dataBus, int model) {
+        super(0, 0, -1, 0); // Sin memoria propia; los puertos van por mapa de regiones
+        if (model < MODEL_128K || model > MODEL_PENTAGON_512) {
+            throw new IllegalArgumentException("unknown memory model: " + model);
+        }
+        this.dataBus = dataBus;
+        this.model = model;
+        ram = new Z80BusComponent[model == MODEL_PENTAGON_512 ? 32 : 8];
+        rom = new Z80BusComponent[model == MODEL_PLUS3 ? 4 : 2];
+        for (int i = 0; i < ram.length; i++) {
+            ram[i] = new Z80BusComponent(Constants.MEM_COMPONENT, 0, BANK_SIZE);
+        }
+        for (int i = 0; i < rom.length; i++) {
+            rom[i] = new Z80BusComponent(Constants.ROM_COMPONENT, 0, BANK_SIZE);
+        }
+        // Todas las direcciones con A1 = 0 (el resto de líneas se comprueba en ioWrite)
+        HashMap<Integer, Integer> regionMap = new HashMap<>();
+        for (int port = 0; port < 0x100; port += 4) {
+            regionMap.put(port, 2);
+        }
+        setIORegionMap(regionMap);
+        reset();
+    }
+
+    // Estado de arranque: ROM 0, banco 0 en C000h y paginación desbloqueada
+    public void reset() {
+        port7FFD = 0;
+        port1FFD = 0;
+        locked = false;
+        page();
+    }
+
+    public int getModel() {
+        return model;
+    }
+
+    // Banco de RAM 'bank' (sus datos en getMemData)
+    public Z80BusComponent getRam(int bank) {
+        return ram[bank];
+    }
+
+    public int getRamBanks() {
+        return ram.length;
+    }
+
+    public Z80BusComponent getRom(int bank) {
+        return rom[bank];
+    }
+
+    public int getRomBanks() {
+        return rom.length;
+    }
+
+    // Copia una imagen de ROM de hasta 16 KB en el banco de ROM 'bank'
+    public void loadRom(int bank, byte[] image) {
+        if (image.length > BANK_SIZE) {
+            throw new IllegalArgumentException("ROM image bigger than a bank: " + image.length);
+        }
+        System.arraycopy(image, 0, rom[bank].getMemData(), 0, image.length);
+        dataBus.memWritten(0, BANK_SIZE - 1); // Las ROM solo se mapean en 0000h: código predecodificado
+    }
+
+    // Banco de RAM con la pantalla que muestra la ULA
+    public int getScreenBank() {
+        return (port7FFD & 0x08) != 0 ? 7 : 5;
+    }
+
+    public int getPort7FFD() {
+        return port7FFD;
+    }
+
+    public int getPort1FFD() {
+        return port1FFD;
+    }
+
+    public boolean isLocked() {
+        return locked;
+    }
+
+    @Override
+    public void ioWrite(int address, byte value) {
+        if (locked) {
+            return;
+        }
+        if (model == MODEL_PLUS3) {
+            if ((address & 0xC002) == 0x4000) {
+                port7FFD = value & 0xFF;
+            } else if ((address & 0xF002) == 0x1000) {
+                port1FFD = value & 0xFF;
+            } else {
+                return;
+            }
+        } else if ((address & 0x8002) == 0) {
+            port7FFD = value & 0xFF;
+        } else {
+            return;
+        }
+        locked = (port7FFD & 0x20) != 0;
+        page();
+    }
+
+    @Override
+    public byte ioRead(int address) {
+        return (byte) 0xFF; // Solo escritura (el bus combina las lecturas con AND)
+    }
+
+    // Mapea los cuatro huecos de 16 KB según los puertos; los que no cambian no cuestan nada
+    private void page() {
+        if (model == MODEL_PLUS3 && (port1FFD & 0x01) != 0) {
+            int[] banks = SPECIAL_BANKS[(port1FFD >> 1) & 0x03];
+            for (int slot = 0; slot < 4; slot++) {
+                dataBus.mapBank(slot * BANK_SIZE, BANK_SIZE, ram[banks[slot]]);
+            }
+            return;
+        }
+        int romBank = (port7FFD >> 4) & 0x01;
+        if (model == MODEL_PLUS3) {
+            romBank |= (port1FFD >> 1) & 0x02;
+        }
+        int ramBank = port7FFD & 0x07;
+        if (model == MODEL_PENTAGON_512) {
+            ramBank |= (port7FFD & 0xC0) >> 3;
+        }
+        dataBus.mapBank(0x0000, BANK_SIZE, rom[romBank]);
+        dataBus.mapBank(0x4000, BANK_SIZE, ram[5]);
+        dataBus.mapBank(0x8000, BANK_SIZE, ram[2]);
+        dataBus.mapBank(0xC000, BANK_SIZE, ram[ramBank]);
+    }
+}
@@ -0,0 +1,813 @@
+// Motor de CPU alternativo: intérprete de micro-operaciones (código enhebrado)
+// Cada instrucción se descompone al cargar la clase en un programa de micro-operaciones (lectura
+// de operandos, acceso a memoria, operación de la ALU, ticks de reloj) guardado en un int[]. Para
+// ejecutar una instrucción se hace el fetch y la decodificación de prefijos y se recorre su
+// programa con un único bucle de despacho. El juego de micro-operaciones es pequeño, así que el
+// bucle cabe entero en un método que HotSpot compila e inlinea (ver Z80.execOpcode).
+//
+// Formato de una micro-operación: código en los bits 0-7, primer argumento en los bits 8-15 y
+// segundo argumento en los bits 16-23. Todos los programas empiezan con un TICK con los tStates
+// fijos de la instrucción.
+//
+// Las instrucciones poco frecuentes o con efectos especiales (DAA, rotaciones del acumulador,
+// SCF/CCF, HALT, EI/DI, E/S, instrucciones de bloque, la mayoría de las ED y los prefijos DD/FD
+// redundantes) no se descomponen: su programa es una única micro-operación LEGACY que llama al
+// manejador del intérprete de referencia. Así el estado observable (flags, WZ, R, Q, tStates) es
+// idéntico al de Z80 por construcción en esas instrucciones.
+//
+// Es un motor intercambiable con Z80 (Z80Engine): se elige al construir la CPU, con
+// new Z80MicroOpEngine() o con el nombre "microops" de Z80Engines. La caché de bloques y lo que depende de ella
+// (recompilador, código AOT, superinstrucciones) ejecutan los manejadores de referencia, así que
+// no se pueden activar con este motor.
+
+public class Z80MicroOpEngine extends Z80 {
+
+    // Micro-operaciones
+    private static final int TICK = 0; // tStates += a
+    private static final int IMM8 = 1; // v = (PC++)
+    private static final int IMM16 = 2; // v = ea = (PC), PC += 2
+    private static final int ADDR16 = 3; // ea = rr[a]
+    private static final int DISP = 4; // ea = WZ = XX + (PC++)
+    private static final int READ = 5; // v = (ea)
+    private static final int WRITE = 6; // (ea) = v
+    private static final int READ16 = 7; // v = (ea) de 16 bits
+    private static final int WRITE16 = 8; // (ea) = rr[a] de 16 bits
+    private static final int GET = 9; // v = r[a]
+    private static final int PUT = 10; // r[a] = v
+    private static final int PUT16 = 11; // rr[a] = v
+    private static final int MOVE = 12; // r[a] = r[b]
+    private static final int MOVE16 = 13; // rr[a] = rr[b]
+    private static final int ALU = 14; // A = A <op a> v (add, adc, sub, sbc, and, xor, or, cp)
+    private static final int INC8 = 15; // v = v + 1 con flags
+    private static final int DEC8 = 16; // v = v - 1 con flags
+    private static final int ROT = 17; // v = <rotación a> v (rlc, rrc, rl, rr, sla, sra, sli, srl)
+    private static final int BIT = 18; // bit a,v
+    private static final int BIT_MEM = 19; // bit a,(hl): flags 3 y 5 desde WZ
+    private static final int BIT_IDX = 20; // bit a,(xx+d): flags 3 y 5 desde la dirección
+    private static final int RES = 21; // v = v & ~(1 << a)
+    private static final int SET = 22; // v = v | (1 << a)
+    private static final int INC16 = 23; // rr[a]++
+    private static final int DEC16 = 24; // rr[a]--
+    private static final int ADD16 = 25; // rr[a] = rr[a] + rr[b] con flags
+    private static final int ADC16 = 26; // adc hl,rr[a]
+    private static final int SBC16 = 27; // sbc hl,rr[a]
+    private static final int WZ_NEXT = 28; // WZ = ea + 1
+    private static final int WZ_ACC = 29; // WZ = A:(ea + 1) (ld (rr),a y ld (NN),a)
+    private static final int PUSH = 30; // push rr[a]
+    private static final int POP = 31; // rr[a] = pop
+    private static final int EX_SP = 32; // ex (sp),rr[a]
+    private static final int EX_DE_HL = 33; // ex de,hl
+    private static final int JP = 34; // jp cc[a],v
+    private static final int JP_REG = 35; // PC = rr[a]
+    private static final int JR = 36; // jr cc[a],(PC), b tStates más si salta
+    private static final int DJNZ = 37; // djnz (PC), b tStates más si salta
+    private static final int CALL = 38; // call cc[a],v, b tStates más si llama
+    private static final int RET = 39; // ret cc[a], b tStates más si retorna
+    private static final int RST = 40; // rst a
+    private static final int LEGACY = 41; // Manejador de referencia del grupo a para el opcode b
+
+    // Registros de 8 bits (codificación del Z80 y registro índice seleccionado)
+    private static final int B = 0, C = 1, D = 2, E = 3, H = 4, L = 5, A = 7, HX = 8, LX = 9;
+    // Registros de 16 bits
+    private static final int BC = 0, DE = 1, HL = 2, SP = 3, AF = 4, XX = 5;
+    // Condiciones (codificación del Z80: nz, z, nc, c, po, pe, p, m) y salto incondicional
+    private static final int ALWAYS = 8;
+
+    // Grupos de instrucciones para LEGACY
+    private static final int MAIN = 0, GROUP_CB = 1, GROUP_ED = 2, GROUP_XX = 3;
+
+    // Programas por opcode de cada grupo
+    private static final int[][] mainPrograms = new int[256][];
+    private static final int[][] cbPrograms = new int[256][];
+    private static final int[][] edPrograms = new int[256][];
+    private static final int[][] xxPrograms = new int[256][];
+    private static final int[][] xxcbPrograms = new int[256][];
+
+    static {
+        for (int op = 0; op < 256; op++) {
+            mainPrograms[op] = lowerMain(op);
+            cbPrograms[op] = lowerCB(op);
+            edPrograms[op] = lowerED(op);
+            xxPrograms[op] = lowerXX(op);
+            xxcbPrograms[op] = lowerXXCB(op);
+        }
+    }
+
+    private Z80Registers regs;
+    private Z80ALU alu;
+    private Z80Bus dataBus;
+
+    public Z80MicroOpEngine() {
+        super();
+        setRegisters(getRegisters());
+    }
+
+    // Ejecución de una instrucción: fetch, prefijos y programa de micro-operaciones
+    @Override
+    public void execInst() {
+        int op = fetchOpcode();
+        regs.setQF(false);
+        switch (op) {
+            case 0xCB:
+                exec(cbPrograms[fetchOpcode()]);
+                break;
+            case 0xED:
+                exec(edPrograms[fetchOpcode()]);
+                break;
+            case 0xDD:
+            case 0xFD:
+                if (op == 0xDD) {
+                    regs.selectIX();
+                } else {
+                    regs.selectIY();
+                }
+                op = fetchOpcode();
+                if (op == 0xCB) {
+                    // DDCB/FDCB: desplazamiento y opcode se leen como datos, sin ciclo de refresco
+                    int pc = regs.getPC() & 0xFFFF;
+                    int address = (regs.getXX() + dataBus.memRead(pc)) & 0xFFFF;
+                    regs.setWZ((short) address);
+                    op = dataBus.memRead((pc + 1) & 0xFFFF) & 0xFF;
+                    regs.setPC((short) (pc + 2));
+                    exec(xxcbPrograms[op], address);
+                } else {
+                    exec(xxPrograms[op]);
+                }
+                break;
+            default:
+                exec(mainPrograms[op]);
+        }
+        regs.preserveQF();
+    }
+
+    // Opcodes de cada grupo que se ejecutan con micro-operaciones (sin LEGACY)
+    public static String coverage() {
+        return String.format("micro-op coverage: main %d, CB %d, ED %d, DD/FD %d, DDCB/FDCB %d of 256",
+                lowered(mainPrograms), lowered(cbPrograms), lowered(edPrograms), lowered(xxPrograms),
+                lowered(xxcbPrograms));
+    }
+
+    @Override
+    public void setRegisters(Z80Registers regs) {
+        super.setRegisters(regs);
+        this.regs = regs;
+        alu = new Z80ALU(regs);
+    }
+
+    @Override
+    public void setDataBus(Z80Bus dataBus) {
+        super.setDataBus(dataBus);
+        this.dataBus = dataBus;
+    }
+
+    // La caché de bloques ejecuta los manejadores de Z80, no los programas de este motor
+    @Override
+    public void setBlockCache(boolean enabled) {
+        if (enabled) {
+            throw new UnsupportedOperationException("Micro-op engine has no block cache");
+        }
+        super.setBlockCache(false);
+    }
+
+    ////////////////////////////////////////////////////////////
+    // Bucle de despacho
+
+    private void exec(int[] program) {
+        exec(program, 0);
+    }
+
+    // 'ea' es la dirección efectiva inicial (la de (xx+d) en DDCB/FDCB)
+    private void exec(int[] program, int ea) {
+        Z80Registers regs = this.regs;
+        Z80Bus dataBus = this.dataBus;
+        int t = program[0] >> 8; // Los programas empiezan siempre con un TICK: se suma sin despacharlo
+        int v = 0;
+        for (int i = 1; i < program.length; i++) {
+            int uop = program[i];
+            int a = (uop >> 8) & 0xFF;
+            switch (uop & 0xFF) {
+                case TICK:
+                    t += a;
+                    break;
+                case IMM8: {
+                    int pc = regs.getPC() & 0xFFFF;
+                    v = dataBus.memRead(pc);
+                    regs.setPC((short) (pc + 1));
+                    break;
+                }
+                case IMM16: {
+                    int pc = regs.getPC() & 0xFFFF;
+                    v = ea = (dataBus.memRead(pc) & 0xFF) | ((dataBus.memRead((pc + 1) & 0xFFFF) & 0xFF) << 8);
+                    regs.setPC((short) (pc + 2));
+                    break;
+                }
+                case ADDR16:
+                    ea = get16(a) & 0xFFFF;
+                    break;
+                case DISP: {
+                    int pc = regs.getPC() & 0xFFFF;
+                    ea = (regs.getXX() + dataBus.memRead(pc)) & 0xFFFF;
+                    regs.setPC((short) (pc + 1));
+                    regs.setWZ((short) ea);
+                    break;
+                }
+                case READ:
+                    v = dataBus.memRead(ea);
+                    break;
+                case WRITE:
+                    dataBus.memWrite(ea, (byte) v);
+                    break;
+                case READ16:
+                    v = (dataBus.memRead(ea) & 0xFF) | (dataBus.memRead((ea + 1) & 0xFFFF) << 8);
+                    break;
+                case WRITE16: {
+                    int value = get16(a);
+                    dataBus.memWrite(ea, (byte) value);
+                    dataBus.memWrite((ea + 1) & 0xFFFF, (byte) (value >> 8));
+                    break;
+                }
+                case GET:
+                    v = get8(a);
+                    break;
+                case PUT:
+                    set8(a, (byte) v);
+                    break;
+                case PUT16:
+                    set16(a, (short) v);
+                    break;
+                case MOVE:
+                    set8(a, get8(uop >>> 16));
+                    break;
+                case MOVE16:
+                    set16(a, get16(uop >>> 16));
+                    break;
+                case ALU:
+                    alu8(a, (byte) v);
+                    break;
+                case INC8:
+                    v = alu.INC_R8((byte) v);
+                    break;
+                case DEC8:
+                    v = alu.DEC_R8((byte) v);
+                    break;
+                case ROT:
+                    v = rotate(a, (byte) v);
+                    break;
+                case BIT:
+                    alu.BIT8((byte) v, a);
+                    break;
+                case BIT_MEM:
+                    alu.BIT8_WZ_((byte) v, a);
+                    break;
+                case BIT_IDX:
+                    alu.BIT8((byte) v, a);
+                    regs.setF5((ea & 0x2000) != 0);
+                    regs.setF3((ea & 0x0800) != 0);
+                    break;
+                case RES:
+                    v &= ~(1 << a);
+                    break;
+                case SET:
+                    v |= 1 << a;
+                    break;
+                case INC16:
+                    set16(a, (short) (get16(a) + 1));
+                    break;
+                case DEC16:
+                    set16(a, (short) (get16(a) - 1));
+                    break;
+                case ADD16:
+                    set16(a, alu.ADD_R16(get16(a), get16(uop >>> 16)));
+                    break;
+                case ADC16:
+                    alu.ADC_R16(get16(a));
+                    break;
+                case SBC16:
+                    alu.SBC_R16(get16(a));
+                    break;
+                case WZ_NEXT:
+                    regs.setWZ((short) (ea + 1));
+                    break;
+                case WZ_ACC:
+                    regs.setWZ((short) ((regs.getA() << 8) | ((ea + 1) & 0xFF)));
+                    break;
+                case PUSH:
+                    push(get16(a));
+                    break;
+                case POP:
+                    set16(a, pop());
+                    break;
+                case EX_SP: {
+                    int sp = regs.getSP() & 0xFFFF;
+                    short value = (short) ((dataBus.memRead(sp) & 0xFF) | (dataBus.memRead((sp + 1) & 0xFFFF) << 8));
+                    int old = get16(a);
+                    dataBus.memWrite(sp, (byte) old);
+                    dataBus.memWrite((sp + 1) & 0xFFFF, (byte) (old >> 8));
+                    set16(a, value);
+                    regs.setWZ(value);
+                    break;
+                }
+                case EX_DE_HL: {
+                    short de = regs.getDE();
+                    regs.setDE(regs.getHL());
+                    regs.setHL(de);
+                    break;
+                }
+                case JP:
+                    regs.setWZ((short) v);
+                    if (condition(a)) {
+                        regs.setPC((short) v);
+                    }
+                    break;
+                case JP_REG:
+                    regs.setPC(get16(a));
+                    break;
+                case JR: {
+                    int pc = regs.getPC() & 0xFFFF;
+                    if (condition(a)) {
+                        t += uop >>> 16;
+                        regs.setPC((short) (pc + 1 + dataBus.memRead(pc)));
+                        regs.setWZ(regs.getPC());
+                    } else {
+                        regs.setPC((short) (pc + 1));
+                    }
+                    break;
+                }
+                case DJNZ: {
+                    int pc = regs.getPC() & 0xFFFF;
+                    regs.setB((byte) (regs.getB() - 1));
+                    if (regs.getB() != 0) {
+                        t += uop >>> 16;
+                        regs.setPC((short) (pc + 1 + dataBus.memRead(pc)));
+                        regs.setWZ(regs.getPC());
+                    } else {
+                        regs.setPC((short) (pc + 1));
+                    }
+                    break;
+                }
+                case CALL:
+                    regs.setWZ((short) v);
+                    if (condition(a)) {
+                        t += uop >>> 16;
+                        push(regs.getPC());
+                        regs.setPC((short) v);
+                    }
+                    break;
+                case RET:
+                    if (condition(a)) {
+                        t += uop >>> 16;
+                        regs.setPC(pop());
+                        regs.setWZ(regs.getPC());
+                    }
+                    break;
+                case RST:
+                    push(regs.getPC());
+                    regs.setPC((short) a);
+                    regs.setWZ((short) a);
+                    break;
+                case LEGACY:
+                    legacy(a, uop >>> 16);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown micro-op " + (uop & 0xFF));
+            }
+        }
+        addTStates(t);
+    }
+
+    ////////////////////////////////////////////////////////////
+    // Métodos privados
+
+    // Lectura de un opcode con su ciclo de refresco
+    private int fetchOpcode() {
+        int pc = regs.getPC() & 0xFFFF;
+        int op = dataBus.memReadOpCode(pc) & 0xFF;
+        regs.setPC((short) (pc + 1));
+        regs.setR((byte) ((regs.getR() & 0x80) | ((regs.getR() + 1) & 0x7F)));
+        return op;
+    }
+
+    private void legacy(int group, int op) {
+        switch (group) {
+            case MAIN:
+                execOpcode(op);
+                break;
+            case GROUP_CB:
+                execOpcodeCB(op);
+                break;
+            case GROUP_ED:
+                execOpcodeED(op);
+                break;
+            default:
+                execOpcodeXX(op);
+        }
+    }
+
+    private byte get8(int r) {
+        switch (r) {
+            case B: return regs.getB();
+            case C: return regs.getC();
+            case D: return regs.getD();
+            case E: return regs.getE();
+            case H: return regs.getH();
+            case L: return regs.getL();
+            case A: return regs.getA();
+            case HX: return regs.getHX();
+            default: return regs.getLX();
+        }
+    }
+
+    private void set8(int r, byte value) {
+        switch (r) {
+            case B: regs.setB(value); break;
+            case C: regs.setC(value); break;
+            case D: regs.setD(value); break;
+            case E: regs.setE(value); break;
+            case H: regs.setH(value); break;
+            case L: regs.setL(value); break;
+            case A: regs.setA(value); break;
+            case HX: regs.setHX(value); break;
+            default: regs.setLX(value);
+        }
+    }
+
+    private short get16(int rr) {
+        switch (rr) {
+            case BC: return regs.getBC();
+            case DE: return regs.getDE();
+            case HL: return regs.getHL();
+            case SP: return regs.getSP();
+            case AF: return regs.getAF();
+            default: return regs.getXX();
+        }
+    }
+
+    private void set16(int rr, short value) {
+        switch (rr) {
+            case BC: regs.setBC(value); break;
+            case DE: regs.setDE(value); break;
+            case HL: regs.setHL(value); break;
+            case SP: regs.setSP(value); break;
+            case AF: regs.setAF(value); break;
+            default: regs.setXX(value);
+        }
+    }
+
+    private void alu8(int operation, byte value) {
+        switch (operation) {
+            case 0: alu.ADD_R8(value); break;
+            case 1: alu.ADC_R8(value); break;
+            case 2: alu.SUB_R8(value); break;
+            case 3: alu.SBC_R8(value); break;
+            case 4: alu.AND_R8(value); break;
+            case 5: alu.XOR_R8(value); break;
+            case 6: alu.OR_R8(value); break;
+            default: alu.CMP_R8(value);
+        }
+    }
+
+    private byte rotate(int operation, byte value) {
+        switch (operation) {
+            case 0: return alu.RLC8(value);
+            case 1: return alu.RRC8(value);
+            case 2: return alu.RL8(value);
+            case 3: return alu.RR8(value);
+            case 4: return alu.SLA8(value);
+            case 5: return alu.SRA8(value);
+            case 6: return alu.SLI8(value);
+            default: return alu.SRL8(value);
+        }
+    }
+
+    private boolean condition(int cc) {
+        switch (cc) {
+            case 0: return !regs.getZF();
+            case 1: return regs.getZF();
+            case 2: return !regs.getCF();
+            case 3: return regs.getCF();
+            case 4: return !regs.getPF();
+            case 5: return regs.getPF();
+            case 6: return !regs.getSF();
+            case 7: return regs.getSF();
+            default: return true;
+        }
+    }
+
+    private void push(short value) {
+        int sp = (regs.getSP() - 2) & 0xFFFF;
+        regs.setSP((short) sp);
+        dataBus.memWrite(sp, (byte) value);
+        dataBus.memWrite((sp + 1) & 0xFFFF, (byte) (value >> 8));
+    }
+
+    private short pop() {
+        int sp = regs.getSP() & 0xFFFF;
+        short value = (short) ((dataBus.memRead(sp) & 0xFF) | (dataBus.memRead((sp + 1) & 0xFFFF) << 8));
+        regs.setSP((short) (sp + 2));
+        return value;
+    }
+
+    ////////////////////////////////////////////////////////////
+    // Descomposición de las instrucciones en micro-operaciones
+
+    private static int uop(int code) {
+        return code;
+    }
+
+    private static int uop(int code, int a) {
+        return code | (a << 8);
+    }
+
+    private static int uop(int code, int a, int b) {
+        return code | (a << 8) | (b << 16);
+    }
+
+    private static int[] program(int... uops) {
+        return uops;
+    }
+
+    private static int[] legacyProgram(int group, int op) {
+        return program(uop(TICK, 0), uop(LEGACY, group, op)); // El manejador suma sus propios tStates
+    }
+
+    // Registro de 16 bits de los campos 'rr' (bc, de, hl, sp) y 'qq' de push/pop (bc, de, hl, af)
+    private static int pair(int op, boolean stack) {
+        int p = (op >> 4) & 0x03;
+        return stack && p == 3 ? AF : p;
+    }
+
+    private static int[] lowerMain(int op) {
+        int x = op >> 6;
+        int y = (op >> 3) & 0x07;
+        int z = op & 0x07;
+        if (x == 1) {
+            if (op == 0x76) {
+                return legacyProgram(MAIN, op); // halt
+            }
+            if (z == 6) {
+                return program(uop(TICK, 7), uop(ADDR16, HL), uop(READ), uop(PUT, y)); // ld r,(hl)
+            }
+            if (y == 6) {
+                return program(uop(TICK, 7), uop(ADDR16, HL), uop(GET, z), uop(WRITE)); // ld (hl),r
+            }
+            return y == z ? program(uop(TICK, 4)) : program(uop(TICK, 4), uop(MOVE, y, z)); // ld r,r'
+        }
+        if (x == 2) {
+            if (z == 6) {
+                return program(uop(TICK, 7), uop(ADDR16, HL), uop(READ), uop(ALU, y)); // alu (hl)
+            }
+            return program(uop(TICK, 4), uop(GET, z), uop(ALU, y)); // alu r
+        }
+        if (x == 0) {
+            switch (z) {
+                case 0:
+                    if (op == 0x00) {
+                        return program(uop(TICK, 4)); // nop
+                    }
+                    if (op == 0x10) {
+                        return program(uop(TICK, 8), uop(DJNZ, 0, 5)); // djnz D
+                    }
+                    if (op == 0x18) {
+                        return program(uop(TICK, 12), uop(JR, ALWAYS, 0)); // jr D
+                    }
+                    if (op >= 0x20) {
+                        return program(uop(TICK, 7), uop(JR, y - 4, 5)); // jr cc,D
+                    }
+                    break; // ex af,af'
+                case 1:
+                    if ((op & 0x08) == 0) {
+                        return program(uop(TICK, 10), uop(IMM16), uop(PUT16, pair(op, false))); // ld rr,NN
+                    }
+                    return program(uop(TICK, 11), uop(ADD16, HL, pair(op, false))); // add hl,rr
+                case 2:
+                    switch (op) {
+                        case 0x02:
+                        case 0x12:
+                            return program(uop(TICK, 7), uop(ADDR16, pair(op, false)), uop(GET, A), uop(WRITE),
+                                    uop(WZ_ACC)); // ld (rr),a
+                        case 0x0A:
+                        case 0x1A:
+                            return program(uop(TICK, 7), uop(ADDR16, pair(op, false)), uop(READ), uop(PUT, A),
+                                    uop(WZ_NEXT)); // ld a,(rr)
+                        case 0x22:
+                            return program(uop(TICK, 16), uop(IMM16), uop(WRITE16, HL), uop(WZ_NEXT)); // ld (NN),hl
+                        case 0x2A:
+                            return program(uop(TICK, 16), uop(IMM16), uop(READ16), uop(PUT16, HL),
+                                    uop(WZ_NEXT)); // ld hl,(NN)
+                        case 0x32:
+                            return program(uop(TICK, 13), uop(IMM16), uop(GET, A), uop(WRITE), uop(WZ_ACC)); // ld (NN),a
+                        default:
+                            return program(uop(TICK, 13), uop(IMM16), uop(READ), uop(PUT, A), uop(WZ_NEXT)); // ld a,(NN)
+                    }
+                case 3:
+                    return program(uop(TICK, 6), uop((op & 0x08) == 0 ? INC16 : DEC16, pair(op, false))); // inc/dec rr
+                case 4:
+                case 5: {
+                    int step = z == 4 ? INC8 : DEC8;
+                    if (y == 6) {
+                        return program(uop(TICK, 11), uop(ADDR16, HL), uop(READ), uop(step), uop(WRITE)); // inc/dec (hl)
+                    }
+                    return program(uop(TICK, 4), uop(GET, y), uop(step), uop(PUT, y)); // inc/dec r
+                }
+                case 6:
+                    if (y == 6) {
+                        return program(uop(TICK, 10), uop(ADDR16, HL), uop(IMM8), uop(WRITE)); // ld (hl),N
+                    }
+                    return program(uop(TICK, 7), uop(IMM8), uop(PUT, y)); // ld r,N
+                default:
+                    break; // rlca, rrca, rla, rra, daa, cpl, scf, ccf
+            }
+            return legacyProgram(MAIN, op);
+        }
+        switch (z) {
+            case 0:
+                return program(uop(TICK, 5), uop(RET, y, 6)); // ret cc
+            case 1:
+                switch (op) {
+                    case 0xC9:
+                        return program(uop(TICK, 10), uop(RET, ALWAYS, 0)); // ret
+                    case 0xD9:
+                        break; // exx
+                    case 0xE9:
+                        return program(uop(TICK, 4), uop(JP_REG, HL)); // jp (hl)
+                    case 0xF9:
+                        return program(uop(TICK, 6), uop(MOVE16, SP, HL)); // ld sp,hl
+                    default:
+                        return program(uop(TICK, 10), uop(POP, pair(op, true))); // pop qq
+                }
+                break;
+            case 2:
+                return program(uop(TICK, 10), uop(IMM16), uop(JP, y)); // jp cc,NN
+            case 3:
+                switch (op) {
+                    case 0xC3:
+                        return program(uop(TICK, 10), uop(IMM16), uop(JP, ALWAYS)); // jp NN
+                    case 0xE3:
+                        return program(uop(TICK, 19), uop(EX_SP, HL)); // ex (sp),hl
+                    case 0xEB:
+                        return program(uop(TICK, 4), uop(EX_DE_HL)); // ex de,hl
+                    default:
+                        break; // prefijo CB, out (N),a, in a,(N), di, ei
+                }
+                break;
+            case 4:
+                return program(uop(TICK, 10), uop(IMM16), uop(CALL, y, 7)); // call cc,NN
+            case 5:
+                if (op == 0xCD) {
+                    return program(uop(TICK, 10), uop(IMM16), uop(CALL, ALWAYS, 7)); // call NN
+                }
+                if ((op & 0x08) == 0) {
+                    return program(uop(TICK, 11), uop(PUSH, pair(op, true))); // push qq
+                }
+                break; // prefijos DD, ED, FD
+            case 6:
+                return program(uop(TICK, 7), uop(IMM8), uop(ALU, y)); // alu N
+            default:
+                return program(uop(TICK, 11), uop(RST, op & 0x38)); // rst p
+        }
+        return legacyProgram(MAIN, op);
+    }
+
+    private static int[] lowerCB(int op) {
+        int x = op >> 6;
+        int y = (op >> 3) & 0x07;
+        int z = op & 0x07;
+        if (x == 1) {
+            if (z == 6) {
+                return program(uop(TICK, 12), uop(ADDR16, HL), uop(READ), uop(BIT_MEM, y)); // bit b,(hl)
+            }
+            return program(uop(TICK, 8), uop(GET, z), uop(BIT, y)); // bit b,r
+        }
+        int operation = x == 0 ? uop(ROT, y) : uop(x == 2 ? RES : SET, y);
+        if (z == 6) {
+            return program(uop(TICK, 15), uop(ADDR16, HL), uop(READ), operation, uop(WRITE)); // (hl)
+        }
+        return program(uop(TICK, 8), uop(GET, z), operation, uop(PUT, z));
+    }
+
+    private static int[] lowerED(int op) {
+        if (op < 0x40 || op >= 0x80) {
+            return legacyProgram(GROUP_ED, op);
+        }
+        int rr = pair(op, false);
+        switch (op & 0x0F) {
+            case 0x02:
+                return program(uop(TICK, 15), uop(SBC16, rr)); // sbc hl,rr
+            case 0x0A:
+                return program(uop(TICK, 15), uop(ADC16, rr)); // adc hl,rr
+            case 0x03:
+                return program(uop(TICK, 20), uop(IMM16), uop(WRITE16, rr), uop(WZ_NEXT)); // ld (NN),rr
+            case 0x0B:
+                return program(uop(TICK, 20), uop(IMM16), uop(READ16), uop(PUT16, rr), uop(WZ_NEXT)); // ld rr,(NN)
+            default:
+                return legacyProgram(GROUP_ED, op);
+        }
+    }
+
+    // Con prefijo DD/FD: h y l pasan a ser la mitad alta y baja del registro índice, salvo en las
+    // instrucciones con (xx+d), que usan h y l reales
+    private static int[] lowerXX(int op) {
+        int x = op >> 6;
+        int y = (op >> 3) & 0x07;
+        int z = op & 0x07;
+        if (x == 1 && op != 0x76) {
+            if (z == 6) {
+                return program(uop(TICK, 19), uop(DISP), uop(READ), uop(PUT, y)); // ld r,(xx+d)
+            }
+            if (y == 6) {
+                return program(uop(TICK, 19), uop(DISP), uop(GET, z), uop(WRITE)); // ld (xx+d),r
+            }
+            if (y == 4 || y == 5 || z == 4 || z == 5) {
+                int dst = index8(y);
+                int src = index8(z);
+                return dst == src ? program(uop(TICK, 8)) : program(uop(TICK, 8), uop(MOVE, dst, src));
+            }
+            return legacyProgram(GROUP_XX, op); // Sin registro índice: como la instrucción sin prefijo
+        }
+        if (x == 2) {
+            if (z == 6) {
+                return program(uop(TICK, 19), uop(DISP), uop(READ), uop(ALU, y)); // alu (xx+d)
+            }
+            if (z == 4 || z == 5) {
+                return program(uop(TICK, 8), uop(GET, index8(z)), uop(ALU, y)); // alu hx/lx
+            }
+            return legacyProgram(GROUP_XX, op);
+        }
+        switch (op) {
+            case 0x09:
+            case 0x19:
+            case 0x39:
+                return program(uop(TICK, 15), uop(ADD16, XX, pair(op, false))); // add xx,rr
+            case 0x29:
+                return program(uop(TICK, 15), uop(ADD16, XX, XX)); // add xx,xx
+            case 0x21:
+                return program(uop(TICK, 14), uop(IMM16), uop(PUT16, XX)); // ld xx,NN
+            case 0x22:
+                return program(uop(TICK, 20), uop(IMM16), uop(WRITE16, XX), uop(WZ_NEXT)); // ld (NN),xx
+            case 0x2A:
+                return program(uop(TICK, 20), uop(IMM16), uop(READ16), uop(PUT16, XX), uop(WZ_NEXT)); // ld xx,(NN)
+            case 0x23:
+                return program(uop(TICK, 10), uop(INC16, XX)); // inc xx
+            case 0x2B:
+                return program(uop(TICK, 10), uop(DEC16, XX)); // dec xx
+            case 0x24:
+            case 0x2C:
+                return program(uop(TICK, 8), uop(GET, index8(y)), uop(INC8), uop(PUT, index8(y))); // inc hx/lx
+            case 0x25:
+            case 0x2D:
+                return program(uop(TICK, 8), uop(GET, index8(y)), uop(DEC8), uop(PUT, index8(y))); // dec hx/lx
+            case 0x26:
+            case 0x2E:
+                return program(uop(TICK, 11), uop(IMM8), uop(PUT, index8(y))); // ld hx/lx,N
+            case 0x34:
+                return program(uop(TICK, 23), uop(DISP), uop(READ), uop(INC8), uop(WRITE)); // inc (xx+d)
+            case 0x35:
+                return program(uop(TICK, 23), uop(DISP), uop(READ), uop(DEC8), uop(WRITE)); // dec (xx+d)
+            case 0x36:
+                return program(uop(TICK, 19), uop(DISP), uop(IMM8), uop(WRITE)); // ld (xx+d),N
+            case 0xE1:
+                return program(uop(TICK, 14), uop(POP, XX)); // pop xx
+            case 0xE3:
+                return program(uop(TICK, 23), uop(EX_SP, XX)); // ex (sp),xx
+            case 0xE5:
+                return program(uop(TICK, 15), uop(PUSH, XX)); // push xx
+            case 0xE9:
+                return program(uop(TICK, 8), uop(JP_REG, XX)); // jp (xx)
+            case 0xF9:
+                return program(uop(TICK, 10), uop(MOVE16, SP, XX)); // ld sp,xx
+            default:
+                return legacyProgram(GROUP_XX, op); // Prefijos encadenados y opcodes sin registro índice
+        }
+    }
+
+    // DDCB/FDCB: la dirección (xx+d) y WZ ya están calculados. Las rotaciones, res y set copian
+    // además el resultado en el registro r (salvo r = 6)
+    private static int[] lowerXXCB(int op) {
+        int x = op >> 6;
+        int y = (op >> 3) & 0x07;
+        int z = op & 0x07;
+        if (x == 1) {
+            return program(uop(TICK, 20), uop(READ), uop(BIT_IDX, y)); // bit b,(xx+d)
+        }
+        int operation = x == 0 ? uop(ROT, y) : uop(x == 2 ? RES : SET, y);
+        if (z == 6) {
+            return program(uop(TICK, 23), uop(READ), operation, uop(WRITE));
+        }
+        return program(uop(TICK, 23), uop(READ), operation, uop(PUT, z), uop(WRITE));
+    }
+
+    // h y l como mitades del registro índice
+    private static int index8(int r) {
+        return r == H ? HX : r == L ? LX : r;
+    }
+
+    private static int lowered(int[][] programs) {
+        int count = 0;
+        for (int[] program : programs) {
+            if (program.length < 2 || (program[1] & 0xFF) != LEGACY) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,289 @@
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+// Recompilador dinámico: traduce a clases JVM los bloques básicos más ejecutados
+// Trabaja sobre la caché de bloques: cada bloque cuenta sus ejecuciones y, al llegar al umbral,
+// queda pendiente de compilar. Los pendientes se compilan por lotes al terminar cada run(): el
+// traductor (Z80Translator) genera código fuente Java, el compilador del JDK (javax.tools) lo
+// compila en memoria y un cargador de clases propio lo define. HotSpot se encarga del resto.
+// Sin dependencias externas, pero necesita un JDK (en un JRE no hay compilador del sistema y
+// Z80Engines crea el motor fusion en su lugar; ver isAvailable).
+//
+// Las traducciones se guardan por contenido (dirección y bytes del bloque), así que el código que
+// se invalida y vuelve a aparecer igual (recargas, rutinas copiadas a RAM) no se recompila. Se
+// guardan como mucho MAX_TRANSLATIONS, descartando la usada hace más tiempo: el código
+// automodificado o los cambios de banco generan contenidos nuevos sin fin, y cada traducción
+// retiene su clase generada (los bloques que ya la usan la conservan hasta invalidarse).
+
+public class Z80Recompiler {
+
+    private static final int DEFAULT_THRESHOLD = 1000; // Ejecuciones para considerar caliente un bloque
+    private static final int MAX_TRANSLATIONS = 4096; // Traducciones guardadas por contenido
+
+    private final JavaCompiler compiler;
+    private final StandardJavaFileManager standardFileManager;
+    private final boolean[] traps; // Traps de la CPU: no se hacen bucles internos sobre un trap
+    private int threshold = DEFAULT_THRESHOLD;
+    private final List<Z80BlockCache.Block> pending = new ArrayList<>();
+    // Traducciones por contenido, en orden de uso (null: no traducible)
+    private final Map<String, Z80CompiledBlock> translations = new LinkedHashMap<String, Z80CompiledBlock>(16, 0.75f,
+            true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Z80CompiledBlock> eldest) {
+            if (size() > MAX_TRANSLATIONS) {
+                evictedTranslations++;
+                return true;
+            }
+            return false;
+        }
+    };
+    private int classCount;
+
+    // Contadores
+    private long compiledBlocks;
+    private long reusedBlocks;
+    private long untranslatableBlocks;
+    private long evictedTranslations;
+    private long batches;
+    private long compileNanos;
+    private long executions;
+
+    Z80Recompiler(boolean[] traps) {
+        compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("Dynamic recompiler requires a JDK (no system Java compiler)");
+        }
+        standardFileManager = compiler.getStandardFileManager(null, null, null);
+        this.traps = traps;
+    }
+
+    // Indica si hay compilador del sistema (JDK); sin él no se puede crear el recompilador
+    public static boolean isAvailable() {
+        return ToolProvider.getSystemJavaCompiler() != null;
+    }
+
+    // Umbral de ejecuciones a partir del que se compila un bloque
+    public void setThreshold(int threshold) {
+        this.threshold = Math.max(1, threshold);
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    // Ejecución interpretada de un bloque sin traducción: lo deja pendiente al llegar al umbral
+    void countExecution(Z80BlockCache.Block block, Z80Bus dataBus) {
+        if (++block.executions != threshold) {
+            return;
+        }
+        String key = key(block, dataBus);
+        if (translations.containsKey(key)) {
+            block.compiled = translations.get(key); // get la marca como usada
+            if (block.compiled != null) {
+                reusedBlocks++;
+            }
+        } else {
+            pending.add(block);
+        }
+    }
+
+    // Ejecución de un bloque compilado
+    void countCompiledExecution() {
+        executions++;
+    }
+
+    // Compila en un solo lote los bloques pendientes que siguen siendo válidos
+    void compilePending(Z80Bus dataBus) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        long startTime = System.nanoTime();
+        Map<String, List<Z80BlockCache.Block>> byKey = new HashMap<>();
+        Map<String, String> classNames = new HashMap<>();
+        List<JavaFileObject> sources = new ArrayList<>();
+        for (Z80BlockCache.Block block : pending) {
+            if (!block.valid) {
+                continue;
+            }
+            String key = key(block, dataBus);
+            if (translations.containsKey(key)) {
+                block.compiled = translations.get(key);
+                continue;
+            }
+            if (byKey.containsKey(key)) {
+                byKey.get(key).add(block);
+                continue;
+            }
+            String className = "Z80Jit" + classCount++;
+            String source = Z80Translator.translate(className, block, dataBus, !traps[block.start]);
+            if (source == null) {
+                translations.put(key, null);
+                untranslatableBlocks++;
+                continue;
+            }
+            byKey.put(key, new ArrayList<>(Arrays.asList(block)));
+            classNames.put(key, className);
+            sources.add(new Source(className, source));
+        }
+        pending.clear();
+        if (!sources.isEmpty()) {
+            MemoryFileManager fileManager = new MemoryFileManager(standardFileManager);
+            DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+            List<String> options = Arrays.asList("-classpath", System.getProperty("java.class.path"), "-g:none",
+                    "-nowarn", "-proc:none");
+            boolean ok = compiler.getTask(null, fileManager, diagnostics, options, null, sources).call();
+            if (!ok) {
+                for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                    System.err.println("Z80Recompiler: " + diagnostic);
+                }
+            }
+            ClassLoader loader = new BatchClassLoader(Z80Recompiler.class.getClassLoader(), fileManager.classes);
+            for (Map.Entry<String, String> entry : classNames.entrySet()) {
+                Z80CompiledBlock compiled = ok ? load(loader, entry.getValue()) : null;
+                translations.put(entry.getKey(), compiled);
+                for (Z80BlockCache.Block block : byKey.get(entry.getKey())) {
+                    block.compiled = compiled;
+                }
+                if (compiled != null) {
+                    compiledBlocks++;
+                } else {
+                    untranslatableBlocks++;
+                }
+            }
+            batches++;
+        }
+        compileNanos += System.nanoTime() - startTime;
+    }
+
+    // Estadísticas
+    public long getCompiledBlocks() {
+        return compiledBlocks;
+    }
+
+    public long getCompiledExecutions() {
+        return executions;
+    }
+
+    public void resetStats() {
+        compiledBlocks = 0;
+        reusedBlocks = 0;
+        untranslatableBlocks = 0;
+        evictedTranslations = 0;
+        batches = 0;
+        compileNanos = 0;
+        executions = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "Recompiler: %d blocks compiled in %d batches (%.1f s), %d reused, %d untranslatable, %d evicted, %d compiled executions",
+                compiledBlocks, batches, compileNanos / 1e9, reusedBlocks, untranslatableBlocks, evictedTranslations,
+                executions);
+    }
+
+    ////////////////////////////////////////////////////////////
+    // Métodos privados
+
+    // Clave de contenido: dirección, bytes del bloque y si puede hacer bucles internos
+    private String key(Z80BlockCache.Block block, Z80Bus dataBus) {
+        StringBuilder key = new StringBuilder();
+        key.append(Integer.toHexString(block.start)).append(traps[block.start] ? 'T' : ':');
+        for (int address = block.start; address < block.codeEnd[block.length - 1]; address++) {
+            key.append((char) (dataBus.memRead(address) & 0xFF));
+        }
+        return key.toString();
+    }
+
+    private static Z80CompiledBlock load(ClassLoader loader, String className) {
+        try {
+            return (Z80CompiledBlock) loader.loadClass(className).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            System.err.println("Z80Recompiler: " + e);
+            return null;
+        }
+    }
+
+    // Código fuente en memoria
+    private static final class Source extends SimpleJavaFileObject {
+        private final String code;
+
+        Source(String className, String code) {
+            super(URI.create("string:///" + className + Kind.SOURCE.extension), Kind.SOURCE);
+            this.code = code;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+    }
+
+    // Clase compilada en memoria
+    private static final class ClassOutput extends SimpleJavaFileObject {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        ClassOutput(String className) {
+            super(URI.create("mem:///" + className + Kind.CLASS.extension), Kind.CLASS);
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return bytes;
+        }
+    }
+
+    // Gestor de ficheros que deja las clases generadas en memoria
+    private static final class MemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+        private final Map<String, ClassOutput> classes = new HashMap<>();
+
+        MemoryFileManager(StandardJavaFileManager fileManager) {
+            super(fileManager);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+                FileObject sibling) {
+            ClassOutput output = new ClassOutput(className);
+            classes.put(className, output);
+            return output;
+        }
+    }
+
+    // Cargador de las clases de un lote
+    private static final class BatchClassLoader extends ClassLoader {
+        private final Map<String, ClassOutput> classes;
+
+        BatchClassLoader(ClassLoader parent, Map<String, ClassOutput> classes) {
+            super(parent);
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            ClassOutput output = classes.get(name);
+            if (output == null) {
+                throw new ClassNotFoundException(name);
+            }
+            byte[] bytes = output.bytes.toByteArray();
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
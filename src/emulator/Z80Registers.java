@@ -1,60 +1,62 @@
 public class Z80Registers {
 
-    // Registros de 8 bits encapsulados en objetos Register
-    // Excepto el par AF, el resto se pueden manejar como 8 o 16 bits
-    public Register A = new Register((byte) 0);
-    private byte F = 0; // Registro F, gestionado a través de los flags, por eso es privado
-
-    public Register B = new Register((byte) 0);
-    public Register C = new Register((byte) 0);
-    public Register D = new Register((byte) 0);
-    public Register E = new Register((byte) 0);
-    public Register H = new Register((byte) 0);
-    public Register L = new Register((byte) 0);
-
-    // Pares de registros de 16 bits (encapsulamos el uso de los registros de 8
-    // bits)
-    public Register BC = new Register(this.B, this.C); // BC combina B y C
-    public Register DE = new Register(this.D, this.E); // DE combina D y E
-    public Register HL = new Register(this.H, this.L); // HL combina H y L
-
-    // Alternate registers -> son puros de 16 bits porque no se opera con ellos
-    public Register altAF = new Register((short) 0);
-    public Register altBC = new Register((short) 0);
-    public Register altDE = new Register((short) 0);
-    public Register altHL = new Register((short) 0);
+    // Banco de registros del Z80 almacenado en campos int primitivos
+    // Los registros de 8 bits guardan siempre un valor 0..255 y los pares de 16 bits
+    // se componen al vuelo a partir de sus mitades, sin objetos intermedios.
+    // Los accesores mantienen los tipos byte/short de la API original para que las
+    // operaciones aritméticas del núcleo conserven exactamente la misma semántica.
+    private int A;
+    private int F; // Registro F, los flags son bits de este registro
+
+    private int B;
+    private int C;
+    private int D;
+    private int E;
+    private int H;
+    private int L;
+
+    // Alternate registers -> se guardan como pares de 16 bits porque no se opera con ellos
+    private int altAF;
+    private int altBC;
+    private int altDE;
+    private int altHL;
 
     // Punteros de programa y stack (16 bits)
     private short SP; // Stack Pointer de 16 bits
     private short PC; // PC de 16 bits
 
     // Otros registros especiales
-    public Register IX = new Register((short) 0); // Index Register IX
-    public Register IY = new Register((short) 0); // Index Register IY
-    // Interrupt Page Address Register
-    public Register I = new Register((byte) 0);
-    public Register R = new Register((byte) 0); // Este registro se debe de poder manejar de forma individual
-    public Register IR = new Register(this.I, this.R); // Interrupt Page Address Register (16 bits)
-
-    // Registro ficticio para la ejecución de instrucciones de los registros IX, IY
-    // Tiene que permitir manejar ambos bytes del registro, hay que crearlo como un
-    // par de registros de 8 bits
-    public Register HX = new Register((byte) 0); // MSB
-    public Register LX = new Register((byte) 0); // LSB
-    public Register XX = new Register(this.HX, this.LX); // // Aux Register for IX, IY instructions, joins HX & LX
+    private int IX; // Index Register IX
+    private int IY; // Index Register IY
+    private int I; // Interrupt Page Address Register
+    private int R; // Este registro se debe de poder manejar de forma individual
+
+    // Selector del registro índice sobre el que actúan las instrucciones DD/FD (registro ficticio XX)
+    // false -> IX, true -> IY. Las instrucciones trabajan directamente sobre IX o IY, sin copias
+    private boolean indexIY;
 
     // Registro de 16 bits interno tambien denominado MEMPTR
     private short WZ; // Almacenamiento temporal en operaciones
 
-    // Flags
-    private boolean SF; // Sign Flag
-    private boolean ZF; // Zero Flag
-    private boolean F5; // Bit 5 de flags
-    private boolean HF; // Half-carry Flag
-    private boolean F3; // Bit 3 de flags
-    private boolean PF; // Parity/Overflow Flag
-    private boolean NF; // Add/Subtract Flag
-    private boolean CF; // Carry Flag
+    // Máscaras de los flags dentro del registro F
+    public static final int FLAG_S = 0x80; // Sign Flag
+    public static final int FLAG_Z = 0x40; // Zero Flag
+    public static final int FLAG_5 = 0x20; // Bit 5 de flags
+    public static final int FLAG_H = 0x10; // Half-carry Flag
+    public static final int FLAG_3 = 0x08; // Bit 3 de flags
+    public static final int FLAG_P = 0x04; // Parity/Overflow Flag
+    public static final int FLAG_N = 0x02; // Add/Subtract Flag
+    public static final int FLAG_C = 0x01; // Carry Flag
+
+    // Evaluación perezosa de flags
+    // En modo perezoso la ALU solo anota la última operación (tipo, operandos y resultado)
+    // y el registro F se calcula cuando alguien lo lee (saltos condicionales, PUSH AF,
+    // EX AF,AF', depurador...). Mientras lazyOp != FLAGS_NONE el valor de F está obsoleto.
+    private boolean lazyFlags = false;
+    private int lazyOp = Z80ALU.FLAGS_NONE;
+    private int lazyOp1;
+    private int lazyOp2;
+    private int lazyRes;
 
     // Flag Q, utilizado para 'ciertas gestiones', y su asociado lastQF
     private boolean QF = false;
@@ -67,124 +69,138 @@ public class Z80Registers {
     // Interrupt mode
     private byte IM;
 
+    // Estado HALT: la CPU repite el HALT (NOPs internos) hasta la siguiente interrupción
+    private boolean halted;
+
     // Métodos de acceso directo para AF
     public short getAF() {
-        return (short) ((((byte) A.getValue()) << 8) | (F & 0xFF));
+        return (short) ((A << 8) | flags());
     }
 
     public void setAF(short value) {
-        A.setValue((byte) ((value >> 8) & 0xFF));
-        F = (byte) (value & 0xFF);
-        updateFlagsFromF();
-    }
-
-    // Gestión de los flags como bits en el registro F
-    private void updateFlagsFromF() {
-        // Actualiza los flags individuales a partir de los bits de F
-        SF = (F & 0x80) != 0;
-        ZF = (F & 0x40) != 0;
-        F5 = (F & 0x20) != 0;
-        HF = (F & 0x10) != 0;
-        F3 = (F & 0x08) != 0;
-        PF = (F & 0x04) != 0;
-        NF = (F & 0x02) != 0;
-        CF = (F & 0x01) != 0;
-    }
-
-    private void updateFfromFlags() {
-        // Actualiza el valor de F a partir de los flags individuales
-        F = 0;
-        if (SF)
-            F |= 0x80;
-        if (ZF)
-            F |= 0x40;
-        if (F5)
-            F |= 0x20;
-        if (HF)
-            F |= 0x10;
-        if (F3)
-            F |= 0x08;
-        if (PF)
-            F |= 0x04;
-        if (NF)
-            F |= 0x02;
-        if (CF)
-            F |= 0x01;
-        // Cualquier cambio en un flag activa QF
+        A = (value >> 8) & 0xFF;
+        F = value & 0xFF;
+        lazyOp = Z80ALU.FLAGS_NONE;
+    }
+
+    // Acceso al registro F completo
+    public byte getF() {
+        return (byte) flags();
+    }
+
+    public void setF(byte value) {
+        F = value & 0xFF;
+        lazyOp = Z80ALU.FLAGS_NONE;
+        QF = true;
+    }
+
+    // Actualización de los flags tras una operación de la ALU
+    // En modo inmediato se calcula F; en modo perezoso solo se anota la operación.
+    // Las operaciones que conservan flags previos necesitan F al día antes de anotarse.
+    public void setFlags(int op, int op1, int op2, int res) {
+        if (lazyFlags) {
+            if (op >= Z80ALU.FLAGS_PARTIAL && lazyOp != Z80ALU.FLAGS_NONE) {
+                F = Z80ALU.computeFlags(lazyOp, lazyOp1, lazyOp2, lazyRes, F);
+            }
+            lazyOp = op;
+            lazyOp1 = op1;
+            lazyOp2 = op2;
+            lazyRes = res;
+        } else {
+            F = Z80ALU.computeFlags(op, op1, op2, res, F);
+        }
+        QF = true;
+    }
+
+    // Valor actual de F, materializando la operación pendiente si la hay
+    private int flags() {
+        if (lazyOp != Z80ALU.FLAGS_NONE) {
+            F = Z80ALU.computeFlags(lazyOp, lazyOp1, lazyOp2, lazyRes, F);
+            lazyOp = Z80ALU.FLAGS_NONE;
+        }
+        return F;
+    }
+
+    // Activación del modo de evaluación perezosa de flags
+    public boolean isLazyFlags() {
+        return lazyFlags;
+    }
+
+    public void setLazyFlags(boolean enabled) {
+        flags();
+        lazyFlags = enabled;
+    }
+
+    // Modificación de un flag individual, cualquier cambio en un flag activa QF
+    private void setFlag(int mask, boolean value) {
+        int f = flags();
+        F = value ? (f | mask) : (f & ~mask);
         QF = true;
     }
 
     // Métodos para trabajar con flags individuales (getters y setters)
     public boolean getSF() {
-        return SF;
+        return (flags() & FLAG_S) != 0;
     }
 
     public void setSF(boolean sf) {
-        this.SF = sf;
-        updateFfromFlags();
+        setFlag(FLAG_S, sf);
     }
 
     public boolean getZF() {
-        return ZF;
+        return (flags() & FLAG_Z) != 0;
     }
 
     public void setZF(boolean zf) {
-        this.ZF = zf;
-        updateFfromFlags();
+        setFlag(FLAG_Z, zf);
     }
 
     public boolean getF5() {
-        return F5;
+        return (flags() & FLAG_5) != 0;
     }
 
     public void setF5(boolean f5) {
-        this.F5 = f5;
-        updateFfromFlags();
+        setFlag(FLAG_5, f5);
     }
 
     public boolean getHF() {
-        return HF;
+        return (flags() & FLAG_H) != 0;
     }
 
     public void setHF(boolean hf) {
-        this.HF = hf;
-        updateFfromFlags();
+        setFlag(FLAG_H, hf);
     }
 
     public boolean getF3() {
-        return F3;
+        return (flags() & FLAG_3) != 0;
     }
 
     public void setF3(boolean f3) {
-        this.F3 = f3;
-        updateFfromFlags();
+        setFlag(FLAG_3, f3);
     }
 
     public boolean getPF() {
-        return PF;
+        return (flags() & FLAG_P) != 0;
     }
 
     public void setPF(boolean pf) {
-        this.PF = pf;
-        updateFfromFlags();
+        setFlag(FLAG_P, pf);
     }
 
     public boolean getNF() {
-        return NF;
+        return (flags() & FLAG_N) != 0;
     }
 
     public void setNF(boolean nf) {
-        this.NF = nf;
-        updateFfromFlags();
+        setFlag(FLAG_N, nf);
     }
 
     public boolean getCF() {
-        return CF;
+        return (flags() & FLAG_C) != 0;
     }
 
     public void setCF(boolean cf) {
-        this.CF = cf;
-        updateFfromFlags();
+        setFlag(FLAG_C, cf);
     }
 
     // Acceso al pseudo flag Q
@@ -230,6 +246,226 @@ public class Z80Registers {
         this.IM = mode;
     }
 
+    // Acceso al estado HALT
+    public boolean isHalted() {
+        return halted;
+    }
+
+    public void setHalted(boolean halted) {
+        this.halted = halted;
+    }
+
+    // Acceso a los registros de 8 bits
+    public byte getA() {
+        return (byte) A;
+    }
+
+    public void setA(byte value) {
+        A = value & 0xFF;
+    }
+
+    public byte getB() {
+        return (byte) B;
+    }
+
+    public void setB(byte value) {
+        B = value & 0xFF;
+    }
+
+    public byte getC() {
+        return (byte) C;
+    }
+
+    public void setC(byte value) {
+        C = value & 0xFF;
+    }
+
+    public byte getD() {
+        return (byte) D;
+    }
+
+    public void setD(byte value) {
+        D = value & 0xFF;
+    }
+
+    public byte getE() {
+        return (byte) E;
+    }
+
+    public void setE(byte value) {
+        E = value & 0xFF;
+    }
+
+    public byte getH() {
+        return (byte) H;
+    }
+
+    public void setH(byte value) {
+        H = value & 0xFF;
+    }
+
+    public byte getL() {
+        return (byte) L;
+    }
+
+    public void setL(byte value) {
+        L = value & 0xFF;
+    }
+
+    // Acceso a los pares de 16 bits, compuestos a partir de sus mitades
+    public short getBC() {
+        return (short) ((B << 8) | C);
+    }
+
+    public void setBC(short value) {
+        B = (value >> 8) & 0xFF;
+        C = value & 0xFF;
+    }
+
+    public short getDE() {
+        return (short) ((D << 8) | E);
+    }
+
+    public void setDE(short value) {
+        D = (value >> 8) & 0xFF;
+        E = value & 0xFF;
+    }
+
+    public short getHL() {
+        return (short) ((H << 8) | L);
+    }
+
+    public void setHL(short value) {
+        H = (value >> 8) & 0xFF;
+        L = value & 0xFF;
+    }
+
+    // Acceso a los registros alternativos
+    public short getAltAF() {
+        return (short) altAF;
+    }
+
+    public void setAltAF(short value) {
+        altAF = value & 0xFFFF;
+    }
+
+    public short getAltBC() {
+        return (short) altBC;
+    }
+
+    public void setAltBC(short value) {
+        altBC = value & 0xFFFF;
+    }
+
+    public short getAltDE() {
+        return (short) altDE;
+    }
+
+    public void setAltDE(short value) {
+        altDE = value & 0xFFFF;
+    }
+
+    public short getAltHL() {
+        return (short) altHL;
+    }
+
+    public void setAltHL(short value) {
+        altHL = value & 0xFFFF;
+    }
+
+    // Acceso a los registros índice
+    public short getIX() {
+        return (short) IX;
+    }
+
+    public void setIX(short value) {
+        IX = value & 0xFFFF;
+    }
+
+    public short getIY() {
+        return (short) IY;
+    }
+
+    public void setIY(short value) {
+        IY = value & 0xFFFF;
+    }
+
+    // Selección del registro índice para los prefijos DD (IX) y FD (IY)
+    public void selectIX() {
+        indexIY = false;
+    }
+
+    public void selectIY() {
+        indexIY = true;
+    }
+
+    public boolean isIYSelected() {
+        return indexIY;
+    }
+
+    // Acceso al registro ficticio XX (IX o IY según el selector) y a sus mitades
+    public short getXX() {
+        return (short) (indexIY ? IY : IX);
+    }
+
+    public void setXX(short value) {
+        if (indexIY) {
+            IY = value & 0xFFFF;
+        } else {
+            IX = value & 0xFFFF;
+        }
+    }
+
+    public byte getHX() {
+        return (byte) ((indexIY ? IY : IX) >> 8);
+    }
+
+    public void setHX(byte value) {
+        if (indexIY) {
+            IY = (IY & 0x00FF) | ((value & 0xFF) << 8);
+        } else {
+            IX = (IX & 0x00FF) | ((value & 0xFF) << 8);
+        }
+    }
+
+    public byte getLX() {
+        return (byte) (indexIY ? IY : IX);
+    }
+
+    public void setLX(byte value) {
+        if (indexIY) {
+            IY = (IY & 0xFF00) | (value & 0xFF);
+        } else {
+            IX = (IX & 0xFF00) | (value & 0xFF);
+        }
+    }
+
+    // Acceso a los registros I y R, y al par IR
+    public byte getI() {
+        return (byte) I;
+    }
+
+    public void setI(byte value) {
+        I = value & 0xFF;
+    }
+
+    public byte getR() {
+        return (byte) R;
+    }
+
+    public void setR(byte value) {
+        R = value & 0xFF;
+    }
+
+    public short getIR() {
+        return (short) ((I << 8) | R);
+    }
+
+    public void setIR(short value) {
+        I = (value >> 8) & 0xFF;
+        R = value & 0xFF;
+    }
+
     // Acceso a PC y SP
     public short getPC() {
         return PC;
@@ -274,43 +510,77 @@ public class Z80Registers {
         WZ = (short) ((value & 0xff) | (WZ & 0xff00));
     }
 
+    // Vista de depuración de un registro con la antigua API de objetos Register
+    // No se usa en el núcleo, solo para herramientas externas (depurador, trazas)
+    public Register getRegisterView(int id) {
+        return new Register(this, id);
+    }
+
+    // Copia el estado completo de otro banco de registros, incluidos los flags pendientes del modo
+    // perezoso, el selector de registro índice, Q, los flip-flops de interrupción y el HALT.
+    // Sirve para pasar la ejecución de un motor de CPU a otro (ver Z80Engine.loadState)
+    public void copyFrom(Z80Registers other) {
+        A = other.A;
+        F = other.F;
+        B = other.B;
+        C = other.C;
+        D = other.D;
+        E = other.E;
+        H = other.H;
+        L = other.L;
+        altAF = other.altAF;
+        altBC = other.altBC;
+        altDE = other.altDE;
+        altHL = other.altHL;
+        SP = other.SP;
+        PC = other.PC;
+        IX = other.IX;
+        IY = other.IY;
+        I = other.I;
+        R = other.R;
+        indexIY = other.indexIY;
+        WZ = other.WZ;
+        lazyFlags = other.lazyFlags;
+        lazyOp = other.lazyOp;
+        lazyOp1 = other.lazyOp1;
+        lazyOp2 = other.lazyOp2;
+        lazyRes = other.lazyRes;
+        QF = other.QF;
+        lastQF = other.lastQF;
+        iff1A = other.iff1A;
+        iff1B = other.iff1B;
+        IM = other.IM;
+        halted = other.halted;
+    }
+
     // El reset hay que repasarlo con la nueva estructura
     public void reset() {
         // Registros de 8 bits
-        A.setValue((byte) 0xFF);
-        F = (byte) 0xFF;
-        B.setValue((byte) 0);
-        C.setValue((byte) 0);
-        D.setValue((byte) 0);
-        E.setValue((byte) 0);
-        H.setValue((byte) 0);
-        L.setValue((byte) 0);
+        A = 0xFF;
+        B = 0;
+        C = 0;
+        D = 0;
+        E = 0;
+        H = 0;
+        L = 0;
 
         // Registros alternativos
-        altAF.setValue((short) 0);
-        altBC.setValue((short) 0);
-        altDE.setValue((short) 0);
-        altHL.setValue((short) 0);
+        altAF = 0;
+        altBC = 0;
+        altDE = 0;
+        altHL = 0;
 
         // Registros de 16 bits
         PC = 0;
         SP = (short) 0xFFFF;
-        IX.setValue((short) 0);
-        IY.setValue((short) 0);
-        IR.setValue((short) 0);
-
-        // Registro AF (F es manejado por flags)
-
-        // Resetear los flags a true (es su valor en el reset
-        SF = true;
-        ZF = true;
-        HF = true;
-        PF = true;
-        NF = true;
-        CF = true;
+        IX = 0;
+        IY = 0;
+        I = 0;
+        R = 0;
 
-        // Actualizar el registro F para reflejar los flags reseteados
-        updateFfromFlags();
+        // Resetear los flags a true (es su valor en el reset), salvo F5 y F3
+        F = FLAG_S | FLAG_Z | FLAG_H | FLAG_P | FLAG_N | FLAG_C;
+        lazyOp = Z80ALU.FLAGS_NONE;
 
         // Resetear flip flop interrupciones
         iff1A = false;
@@ -318,6 +588,7 @@ public class Z80Registers {
 
         // Resetear interrupt mode
         IM = 0;
+        halted = false;
 
         // Registro WZ
         WZ = 0;
@@ -0,0 +1,664 @@
+// Traductor de bloques básicos a código fuente Java para el recompilador dinámico
+// Genera una subclase de Z80CompiledBlock por bloque. Los registros viven en variables locales
+// durante todo el bloque; se cargan a la entrada y se guardan a la salida solo los modificados.
+// Los operandos inmediatos se traducen como constantes (la caché invalida el bloque si se
+// sobrescriben). Cada instrucción reproduce al intérprete: tStates, flags (F3/F5 y Q incluidos),
+// WZ, R y orden de los accesos a memoria.
+//
+// Se traducen las instrucciones sin prefijo y las CB, salvo HALT, EI, DD, ED, FD y las de E/S.
+// La traducción se detiene en la primera instrucción no soportada y el resto del bloque lo ejecuta
+// el intérprete. Si el bloque termina en un salto a su propio inicio, el bucle se ejecuta dentro
+// del código generado.
+
+class Z80Translator {
+
+    // Variables locales de los registros de 8 bits, por índice de operando (6 es (hl))
+    private static final String[] R8 = { "b", "c", "d", "e", "h", "l", null, "a" };
+    // Condiciones de salto por índice cc: nz, z, nc, c, po, pe, p, m
+    private static final String[] CONDITION = { "(f & 0x40) == 0", "(f & 0x40) != 0", "(f & 0x01) == 0",
+            "(f & 0x01) != 0", "(f & 0x04) == 0", "(f & 0x04) != 0", "(f & 0x80) == 0", "(f & 0x80) != 0" };
+    // Registros en variables locales y sus setters
+    private static final String[] LOCALS = { "a", "f", "b", "c", "d", "e", "h", "l", "sp", "wz" };
+    private static final String[] LOAD = { "r.getA() & 0xFF", "r.getF() & 0xFF", "r.getB() & 0xFF",
+            "r.getC() & 0xFF", "r.getD() & 0xFF", "r.getE() & 0xFF", "r.getH() & 0xFF", "r.getL() & 0xFF",
+            "r.getSP() & 0xFFFF", "r.getWZ() & 0xFFFF" };
+    private static final String[] STORE = { "r.setA((byte) a);", "r.setF((byte) f);", "r.setB((byte) b);",
+            "r.setC((byte) c);", "r.setD((byte) d);", "r.setE((byte) e);", "r.setH((byte) h);",
+            "r.setL((byte) l);", "r.setSP((short) sp);", "r.setWZ((short) wz);" };
+
+    private static final String HL = "((h << 8) | l)";
+
+    private final Z80Bus dataBus;
+    private final StringBuilder code = new StringBuilder();
+    private final boolean[] modified = new boolean[LOCALS.length];
+
+    // Instrucción en curso
+    private boolean flags; // Modifica los flags (pseudo flag Q)
+    private boolean control; // Asigna pc en todos sus caminos (salto, llamada, retorno)
+    private boolean loops; // Salto incondicional al inicio del bloque: no sigue hacia la salida común
+
+    // Bloque en curso
+    private int start;
+    private int length;
+    private int totalRefresh;
+    private boolean loop;
+
+    private Z80Translator(Z80Bus dataBus) {
+        this.dataBus = dataBus;
+    }
+
+    // Código fuente de la clase 'className' para el bloque, o null si su primera instrucción no se
+    // puede traducir. 'loop' permite ejecutar dentro del bloque los saltos a su inicio (no hay trap allí)
+    static String translate(String className, Z80BlockCache.Block block, Z80Bus dataBus, boolean loop) {
+        return new Z80Translator(dataBus).generate(className, block, loop, false);
+    }
+
+    // Igual, pero como clase anidada estática (traducción anticipada de ROMs, Z80AotCode)
+    static String translateNested(String className, Z80BlockCache.Block block, Z80Bus dataBus) {
+        return new Z80Translator(dataBus).generate(className, block, true, true);
+    }
+
+    private String generate(String className, Z80BlockCache.Block block, boolean loop, boolean nested) {
+        this.start = block.start;
+        this.length = block.length;
+        this.loop = loop;
+        for (int i = 0; i < block.length; i++) {
+            totalRefresh += block.refresh[i];
+        }
+
+        int refresh = 0;
+        boolean lastFlags = false;
+        int count = 0;
+        for (int i = 0; i < block.length; i++) {
+            int address = block.codeStart[i];
+            int[] bytes = new int[block.codeEnd[i] - address];
+            StringBuilder dump = new StringBuilder();
+            for (int k = 0; k < bytes.length; k++) {
+                bytes[k] = dataBus.memRead(address + k) & 0xFF;
+                dump.append(String.format(" %02X", bytes[k]));
+            }
+            int mark = code.length();
+            boolean[] saved = modified.clone();
+            if (i > 0) {
+                code.append("            if (t >= limit || ctx.stop) { rr += ").append(refresh).append("; q = ")
+                        .append(lastFlags).append("; pc = ").append(hex(address)).append("; n = ").append(i)
+                        .append("; break body; }\n");
+            }
+            code.append("            // ").append(String.format("%04X:", address)).append(dump).append('\n');
+            flags = false;
+            control = false;
+            loops = false;
+            String prevFlags = i == 0 ? "lastQ" : String.valueOf(lastFlags);
+            if (!emit(bytes, address, block.codeEnd[i], prevFlags)) {
+                code.setLength(mark);
+                System.arraycopy(saved, 0, modified, 0, modified.length);
+                break;
+            }
+            refresh += block.refresh[i];
+            lastFlags = flags;
+            count++;
+            if (control) {
+                break; // Siempre es la última instrucción del bloque
+            }
+        }
+        if (count == 0) {
+            return null;
+        }
+        // Salida común tras la última instrucción traducida (un bucle incondicional sale desde su salto)
+        if (control && !loops) {
+            code.append("            rr += ").append(refresh).append("; q = ").append(lastFlags).append("; n = ")
+                    .append(count).append("; break body;\n");
+        } else if (!control) {
+            int next = count < block.length ? block.codeStart[count] : block.codeEnd[count - 1] & 0xFFFF;
+            code.append("            rr += ").append(refresh).append("; q = ").append(lastFlags).append("; pc = ")
+                    .append(hex(next)).append("; n = ").append(count).append("; break body;\n");
+        }
+
+        StringBuilder src = new StringBuilder();
+        src.append(nested ? "static final class " : "public final class ").append(className).append(" extends Z80CompiledBlock {\n");
+        for (String table : new String[] { "SZ53P", "INC", "DEC", "ADD", "ADC", "SUB", "SBC", "CP" }) {
+            src.append("    private static final byte[] ").append(table).append(" = Z80JitContext.").append(table)
+                    .append(";\n");
+        }
+        src.append("    private static final short[] ROTATE = Z80JitContext.ROTATE;\n");
+        src.append("\n    public int exec(Z80JitContext ctx) {\n");
+        src.append("        final Z80Registers r = ctx.regs;\n");
+        for (int k = 0; k < LOCALS.length; k++) {
+            src.append("        int ").append(LOCALS[k]).append(" = ").append(LOAD[k]).append(";\n");
+        }
+        src.append("        long t = ctx.tStates;\n");
+        src.append("        final long limit = ctx.limit;\n");
+        src.append("        boolean lastQ = r.getLastQF();\n");
+        src.append("        int rr = 0;\n");
+        src.append("        int pc;\n");
+        src.append("        int n;\n");
+        src.append("        boolean q;\n");
+        src.append("        body: while (true) {\n");
+        src.append(code);
+        src.append("        }\n");
+        for (int k = 0; k < LOCALS.length; k++) {
+            if (modified[k]) {
+                src.append("        ").append(STORE[k]).append('\n');
+            }
+        }
+        src.append("        r.setR((byte) ((r.getR() & 0x80) | ((r.getR() + rr) & 0x7F)));\n");
+        src.append("        r.setQF(q);\n");
+        src.append("        r.preserveQF();\n");
+        src.append("        r.setPC((short) pc);\n");
+        src.append("        ctx.tStates = t;\n");
+        src.append("        return n;\n");
+        src.append("    }\n");
+        src.append("}\n");
+        return src.toString();
+    }
+
+    ////////////////////////////////////////////////////////////
+    // Traducción de instrucciones
+
+    // Añade el código de la instrucción; devuelve false si no está soportada
+    private boolean emit(int[] bytes, int address, int next, String prevFlags) {
+        int op = bytes[0];
+        int n = bytes.length > 1 ? bytes[1] : 0;
+        int nn = bytes.length > 2 ? bytes[1] | (bytes[2] << 8) : 0;
+        next &= 0xFFFF;
+
+        if (op >= 0x40 && op < 0x80) {
+            // ld r,r' / ld r,(hl) / ld (hl),r
+            String dst = R8[(op >> 3) & 7];
+            String src = R8[op & 7];
+            if (dst == null && src == null) {
+                return false; // halt
+            }
+            if (dst == null) {
+                line("t += 7;");
+                line("ctx.write(" + HL + ", " + src + ");");
+            } else if (src == null) {
+                line("t += 7;");
+                line(dst + " = ctx.read(" + HL + ");");
+                set(dst);
+            } else {
+                line("t += 4;");
+                if (!dst.equals(src)) {
+                    line(dst + " = " + src + ";");
+                    set(dst);
+                }
+            }
+            return true;
+        }
+        if (op >= 0x80 && op < 0xC0) {
+            String src = R8[op & 7];
+            if (src == null) {
+                line("t += 7;");
+                alu((op >> 3) & 7, "ctx.read(" + HL + ")");
+            } else {
+                line("t += 4;");
+                alu((op >> 3) & 7, src);
+            }
+            return true;
+        }
+
+        switch (op) {
+            case 0x00: // nop
+                line("t += 4;");
+                return true;
+            case 0x01: case 0x11: case 0x21: case 0x31: // ld rr,NN
+                line("t += 10;");
+                setPair((op >> 4) & 3, hex(nn));
+                return true;
+            case 0x02: case 0x12: // ld (bc),a / ld (de),a
+                line("t += 7;");
+                line("ctx.write(" + pair((op >> 4) & 3) + ", a);");
+                line("wz = (a << 8) | ((" + (op == 0x02 ? "c" : "e") + " + 1) & 0xFF);");
+                set("wz");
+                return true;
+            case 0x03: case 0x13: case 0x23: case 0x33: // inc rr
+                line("t += 6;");
+                setPair((op >> 4) & 3, "(" + pair((op >> 4) & 3) + " + 1) & 0xFFFF");
+                return true;
+            case 0x0B: case 0x1B: case 0x2B: case 0x3B: // dec rr
+                line("t += 6;");
+                setPair((op >> 4) & 3, "(" + pair((op >> 4) & 3) + " - 1) & 0xFFFF");
+                return true;
+            case 0x04: case 0x0C: case 0x14: case 0x1C: case 0x24: case 0x2C: case 0x34: case 0x3C: // inc r
+            case 0x05: case 0x0D: case 0x15: case 0x1D: case 0x25: case 0x2D: case 0x35: case 0x3D: { // dec r
+                String reg = R8[(op >> 3) & 7];
+                boolean inc = (op & 1) == 0;
+                String table = inc ? "INC" : "DEC";
+                String result = inc ? " + 1) & 0xFF" : " - 1) & 0xFF";
+                flags = true;
+                set("f");
+                if (reg == null) {
+                    line("t += 11;");
+                    line("{ int v = ctx.read(" + HL + "); f = (f & 0x01) | (" + table + "[v] & 0xFF); ctx.write(" + HL
+                            + ", (v" + result + "); }");
+                } else {
+                    line("t += 4;");
+                    line("f = (f & 0x01) | (" + table + "[" + reg + "] & 0xFF);");
+                    line(reg + " = (" + reg + result + ";");
+                    set(reg);
+                }
+                return true;
+            }
+            case 0x06: case 0x0E: case 0x16: case 0x1E: case 0x26: case 0x2E: case 0x3E: // ld r,N
+                line("t += 7;");
+                line(R8[(op >> 3) & 7] + " = " + hex(n) + ";");
+                set(R8[(op >> 3) & 7]);
+                return true;
+            case 0x36: // ld (hl),N
+                line("t += 10;");
+                line("ctx.write(" + HL + ", " + hex(n) + ");");
+                return true;
+            case 0x07: // rlca
+                line("t += 4;");
+                line("{ int v = ((a << 1) | (a >> 7)) & 0xFF; f = (f & 0xC4) | (v & 0x28) | (a >> 7); a = v; }");
+                set("a", "f");
+                flags = true;
+                return true;
+            case 0x0F: // rrca
+                line("t += 4;");
+                line("{ int cy = a & 0x01; a = (a >> 1) | (cy << 7); f = (f & 0xC4) | (a & 0x28) | cy; }");
+                set("a", "f");
+                flags = true;
+                return true;
+            case 0x17: // rla
+                line("t += 4;");
+                line("{ int v = ((a << 1) | (f & 0x01)) & 0xFF; f = (f & 0xC4) | (v & 0x28) | (a >> 7); a = v; }");
+                set("a", "f");
+                flags = true;
+                return true;
+            case 0x1F: // rra
+                line("t += 4;");
+                line("{ int v = (a >> 1) | ((f & 0x01) << 7); f = (f & 0xC4) | (v & 0x28) | (a & 0x01); a = v; }");
+                set("a", "f");
+                flags = true;
+                return true;
+            case 0x08: // ex af,af'
+                line("t += 4;");
+                line("{ int v = r.getAltAF() & 0xFFFF; r.setAltAF((short) ((a << 8) | f)); a = v >> 8; f = v & 0xFF; }");
+                set("a", "f");
+                return true;
+            case 0x09: case 0x19: case 0x29: case 0x39: // add hl,rr
+                line("t += 11;");
+                line("{ int hl = " + HL + "; int v = " + pair((op >> 4) & 3) + "; int res = hl + v; wz = (hl + 1) & 0xFFFF;");
+                line("  f = (f & 0xC4) | (((hl & 0x0FFF) + (v & 0x0FFF)) > 0x0FFF ? 0x10 : 0) | (res > 0xFFFF ? 0x01 : 0) | ((res >> 8) & 0x28);");
+                line("  h = (res >> 8) & 0xFF; l = res & 0xFF; }");
+                set("f", "h", "l", "wz");
+                flags = true;
+                return true;
+            case 0x0A: case 0x1A: // ld a,(bc) / ld a,(de)
+                line("t += 7;");
+                line("a = ctx.read(" + pair((op >> 4) & 3) + ");");
+                line("wz = (" + pair((op >> 4) & 3) + " + 1) & 0xFFFF;");
+                set("a", "wz");
+                return true;
+            case 0x22: // ld (NN),hl
+                line("t += 16;");
+                line("ctx.write(" + hex(nn) + ", l);");
+                line("ctx.write(" + hex((nn + 1) & 0xFFFF) + ", h);");
+                line("wz = " + hex((nn + 1) & 0xFFFF) + ";");
+                set("wz");
+                return true;
+            case 0x2A: // ld hl,(NN)
+                line("t += 16;");
+                line("l = ctx.read(" + hex(nn) + ");");
+                line("h = ctx.read(" + hex((nn + 1) & 0xFFFF) + ");");
+                line("wz = " + hex((nn + 1) & 0xFFFF) + ";");
+                set("h", "l", "wz");
+                return true;
+            case 0x32: // ld (NN),a
+                line("t += 13;");
+                line("ctx.write(" + hex(nn) + ", a);");
+                line("wz = (a << 8) | " + hex((nn + 1) & 0xFF) + ";");
+                set("wz");
+                return true;
+            case 0x3A: // ld a,(NN)
+                line("t += 13;");
+                line("a = ctx.read(" + hex(nn) + ");");
+                line("wz = " + hex((nn + 1) & 0xFFFF) + ";");
+                set("a", "wz");
+                return true;
+            case 0x27: // daa
+                line("t += 4;");
+                line("{ int add = 0; int cy = f & 0x01;");
+                line("  if ((f & 0x10) != 0 || (a & 0x0F) > 9) add = 6;");
+                line("  if (cy != 0 || a > 0x99) add |= 0x60;");
+                line("  if (a > 0x99) cy = 1;");
+                line("  if ((f & 0x02) != 0) { f = SUB[(a << 8) | add] & 0xFF; a = (a - add) & 0xFF; }");
+                line("  else { f = ADD[(a << 8) | add] & 0xFF; a = (a + add) & 0xFF; }");
+                line("  f = (f & ~0x2D) | cy | (SZ53P[a] & 0x04) | (a & 0x28); }");
+                set("a", "f");
+                flags = true;
+                return true;
+            case 0x2F: // cpl
+                line("t += 4;");
+                line("a ^= 0xFF;");
+                line("f = (f & 0xC5) | 0x12 | (a & 0x28);");
+                set("a", "f");
+                flags = true;
+                return true;
+            case 0x37: // scf
+                line("t += 4;");
+                line("f = (f & 0xC4) | 0x01 | (" + prevFlags + " ? (a & 0x28) : ((a | f) & 0x28));");
+                set("f");
+                flags = true;
+                return true;
+            case 0x3F: // ccf
+                line("t += 4;");
+                line("f = (f & 0xC4) | ((f & 0x01) << 4) | ((f & 0x01) ^ 0x01) | (" + prevFlags
+                        + " ? (a & 0x28) : ((a | f) & 0x28));");
+                set("f");
+                flags = true;
+                return true;
+            case 0x10: { // djnz
+                int target = (next + (byte) n) & 0xFFFF;
+                line("t += 8;");
+                line("b = (b - 1) & 0xFF;");
+                set("b");
+                line("if (b != 0) {");
+                line("    t += 5;");
+                jump(target, "    ");
+                line("} else {");
+                line("    pc = " + hex(next) + ";");
+                line("}");
+                control = true;
+                return true;
+            }
+            case 0x18: { // jr
+                int target = (next + (byte) n) & 0xFFFF;
+                line("t += 12;");
+                jump(target, "");
+                control = true;
+                return true;
+            }
+            case 0x20: case 0x28: case 0x30: case 0x38: { // jr cc
+                int target = (next + (byte) n) & 0xFFFF;
+                line("t += 7;");
+                line("if (" + CONDITION[(op >> 3) & 3] + ") {");
+                line("    t += 5;");
+                jump(target, "    ");
+                line("} else {");
+                line("    pc = " + hex(next) + ";");
+                line("}");
+                control = true;
+                return true;
+            }
+            case 0xC3: // jp NN
+                line("t += 10;");
+                jump(nn, "");
+                control = true;
+                return true;
+            case 0xC2: case 0xCA: case 0xD2: case 0xDA: case 0xE2: case 0xEA: case 0xF2: case 0xFA: // jp cc,NN
+                line("t += 10;");
+                line("wz = " + hex(nn) + ";");
+                set("wz");
+                line("if (" + CONDITION[(op >> 3) & 7] + ") {");
+                jump(nn, "    ");
+                line("} else {");
+                line("    pc = " + hex(next) + ";");
+                line("}");
+                control = true;
+                return true;
+            case 0xCD: // call NN
+                line("t += 17;");
+                line("wz = " + hex(nn) + ";");
+                push(hex(next));
+                line("pc = " + hex(nn) + ";");
+                set("wz", "sp");
+                control = true;
+                return true;
+            case 0xC4: case 0xCC: case 0xD4: case 0xDC: case 0xE4: case 0xEC: case 0xF4: case 0xFC: // call cc,NN
+                line("wz = " + hex(nn) + ";");
+                set("wz", "sp");
+                line("if (" + CONDITION[(op >> 3) & 7] + ") {");
+                line("    t += 17;");
+                push(hex(next));
+                line("    pc = " + hex(nn) + ";");
+                line("} else {");
+                line("    t += 10;");
+                line("    pc = " + hex(next) + ";");
+                line("}");
+                control = true;
+                return true;
+            case 0xC9: // ret
+                line("t += 10;");
+                pop("pc");
+                line("wz = pc;");
+                set("wz", "sp");
+                control = true;
+                return true;
+            case 0xC0: case 0xC8: case 0xD0: case 0xD8: case 0xE0: case 0xE8: case 0xF0: case 0xF8: // ret cc
+                line("t += 5;");
+                set("wz", "sp");
+                line("if (" + CONDITION[(op >> 3) & 7] + ") {");
+                line("    t += 6;");
+                pop("pc");
+                line("    wz = pc;");
+                line("} else {");
+                line("    pc = " + hex(next) + ";");
+                line("}");
+                control = true;
+                return true;
+            case 0xC7: case 0xCF: case 0xD7: case 0xDF: case 0xE7: case 0xEF: case 0xF7: case 0xFF: // rst
+                line("t += 11;");
+                push(hex(next));
+                line("pc = " + hex(op & 0x38) + ";");
+                line("wz = " + hex(op & 0x38) + ";");
+                set("wz", "sp");
+                control = true;
+                return true;
+            case 0xE9: // jp (hl)
+                line("t += 4;");
+                line("pc = " + HL + ";");
+                control = true;
+                return true;
+            case 0xC1: case 0xD1: case 0xE1: case 0xF1: { // pop rr
+                line("t += 10;");
+                line("{ int v;");
+                pop("v");
+                int index = (op >> 4) & 3;
+                if (index == 3) {
+                    line("  a = v >> 8; f = v & 0xFF; }");
+                    set("a", "f");
+                } else {
+                    line("  " + R8[index * 2] + " = v >> 8; " + R8[index * 2 + 1] + " = v & 0xFF; }");
+                    set(R8[index * 2], R8[index * 2 + 1]);
+                }
+                set("sp");
+                return true;
+            }
+            case 0xC5: case 0xD5: case 0xE5: case 0xF5: { // push rr
+                int index = (op >> 4) & 3;
+                line("t += 11;");
+                push(index == 3 ? "((a << 8) | f)" : pair(index));
+                set("sp");
+                return true;
+            }
+            case 0xC6: case 0xCE: case 0xD6: case 0xDE: case 0xE6: case 0xEE: case 0xF6: case 0xFE: // alu N
+                line("t += 7;");
+                alu((op >> 3) & 7, hex(n));
+                return true;
+            case 0xD9: // exx
+                line("t += 4;");
+                line("{ int v = r.getAltBC() & 0xFFFF; r.setAltBC((short) ((b << 8) | c)); b = v >> 8; c = v & 0xFF;");
+                line("  v = r.getAltDE() & 0xFFFF; r.setAltDE((short) ((d << 8) | e)); d = v >> 8; e = v & 0xFF;");
+                line("  v = r.getAltHL() & 0xFFFF; r.setAltHL((short) " + HL + "); h = v >> 8; l = v & 0xFF; }");
+                set("b", "c", "d", "e", "h", "l");
+                return true;
+            case 0xE3: // ex (sp),hl
+                line("t += 19;");
+                line("{ int v = ctx.read(sp); v |= ctx.read((sp + 1) & 0xFFFF) << 8;");
+                line("  ctx.write(sp, l); ctx.write((sp + 1) & 0xFFFF, h);");
+                line("  h = v >> 8; l = v & 0xFF; wz = v; }");
+                set("h", "l", "wz");
+                return true;
+            case 0xEB: // ex de,hl
+                line("t += 4;");
+                line("{ int v = d; d = h; h = v; v = e; e = l; l = v; }");
+                set("d", "e", "h", "l");
+                return true;
+            case 0xF3: // di
+                line("t += 4;");
+                line("r.setiff1A(false);");
+                line("r.setiff1B(false);");
+                return true;
+            case 0xF9: // ld sp,hl
+                line("t += 6;");
+                line("sp = " + HL + ";");
+                set("sp");
+                return true;
+            case 0xCB:
+                return emitCB(n);
+            default:
+                // halt, ei, out (N),a, in a,(N) y prefijos DD/ED/FD: los ejecuta el intérprete
+                return false;
+        }
+    }
+
+    // Instrucciones con prefijo CB
+    private boolean emitCB(int op) {
+        String reg = R8[op & 7];
+        String value = reg != null ? reg : "v";
+        int bit = (op >> 3) & 7;
+        if (op < 0x40) {
+            // Rotaciones y desplazamientos: resultado y flags de Z80FlagTables.ROTATE (bits 3-5 = ROT_*)
+            String index = hex(bit << 9) + ((bit == Z80FlagTables.ROT_RL || bit == Z80FlagTables.ROT_RR)
+                    ? " | ((f & 0x01) << 8)" : "") + " | v";
+            if (reg == null) {
+                line("t += 15;");
+                line("{ int v = ctx.read(" + HL + "); int e = ROTATE[" + index + "]; f = (e >> 8) & 0xFF; ctx.write("
+                        + HL + ", e & 0xFF); }");
+            } else {
+                line("t += 8;");
+                line("{ int v = " + reg + "; int e = ROTATE[" + index + "]; f = (e >> 8) & 0xFF; " + reg
+                        + " = e & 0xFF; }");
+                set(reg);
+            }
+            set("f");
+            flags = true;
+            return true;
+        }
+        int mask = 1 << bit;
+        if (op < 0x80) {
+            // bit n: F3/F5 del operando, o de W en bit n,(hl)
+            String undocumented = reg != null ? "(v & 0x28)" : "((wz >> 8) & 0x28)";
+            line(reg != null ? "t += 8;" : "t += 12;");
+            line("{ int v = " + (reg != null ? reg : "ctx.read(" + HL + ")") + "; f = (f & 0x01) | ((v & " + hex(mask)
+                    + ") == 0 ? 0x44 : 0) | (v & " + hex(mask & 0x80) + ") | 0x10 | " + undocumented + "; }");
+            set("f");
+            flags = true;
+            return true;
+        }
+        // res n / set n
+        String operation = op < 0xC0 ? " & " + hex(~mask & 0xFF) : " | " + hex(mask);
+        if (reg == null) {
+            line("t += 15;");
+            line("ctx.write(" + HL + ", ctx.read(" + HL + ")" + operation + ");");
+        } else {
+            line("t += 8;");
+            line(value + " = " + value + operation + ";");
+            set(reg);
+        }
+        return true;
+    }
+
+    // Operación de la ALU de 8 bits sobre A: add, adc, sub, sbc, and, xor, or, cp
+    private void alu(int operation, String operand) {
+        switch (operation) {
+            case 0:
+                line("{ int v = " + operand + "; f = ADD[(a << 8) | v] & 0xFF; a = (a + v) & 0xFF; }");
+                break;
+            case 1:
+                line("{ int v = " + operand + "; int cy = f & 0x01; f = ADC[(cy << 16) | (a << 8) | v] & 0xFF; a = (a + v + cy) & 0xFF; }");
+                break;
+            case 2:
+                line("{ int v = " + operand + "; f = SUB[(a << 8) | v] & 0xFF; a = (a - v) & 0xFF; }");
+                break;
+            case 3:
+                line("{ int v = " + operand + "; int cy = f & 0x01; f = SBC[(cy << 16) | (a << 8) | v] & 0xFF; a = (a - v - cy) & 0xFF; }");
+                break;
+            case 4:
+                line("a &= " + operand + "; f = (SZ53P[a] & 0xFF) | 0x10;");
+                break;
+            case 5:
+                line("a ^= " + operand + "; f = SZ53P[a] & 0xFF;");
+                break;
+            case 6:
+                line("a |= " + operand + "; f = SZ53P[a] & 0xFF;");
+                break;
+            default:
+                line("f = CP[(a << 8) | " + operand + "] & 0xFF;");
+                break;
+        }
+        if (operation != 7) {
+            set("a");
+        }
+        set("f");
+        flags = true;
+    }
+
+    // Salto a una dirección fija (asigna wz y pc). Si es el inicio del bloque y se permite el bucle,
+    // continúa dentro del código generado mientras no haya que salir
+    private void jump(int target, String indent) {
+        line(indent + "wz = " + hex(target) + ";");
+        set("wz");
+        if (loop && target == start) {
+            line(indent + "rr += " + totalRefresh + "; lastQ = false;");
+            line(indent + "if (t >= limit || ctx.stop) { q = false; pc = " + hex(target) + "; n = " + length
+                    + "; break body; }");
+            line(indent + "continue body;");
+            loops = indent.isEmpty();
+        } else {
+            line(indent + "pc = " + hex(target) + ";");
+        }
+    }
+
+    // Push de 16 bits como push16: byte bajo en SP y alto en SP+1
+    private void push(String value) {
+        line("{ int pv = " + value + "; sp = (sp - 2) & 0xFFFF; ctx.write(sp, pv & 0xFF); ctx.write((sp + 1) & 0xFFFF, pv >> 8); }");
+    }
+
+    // Pop de 16 bits sobre la variable 'target'
+    private void pop(String target) {
+        line(target + " = ctx.read(sp); " + target + " |= ctx.read((sp + 1) & 0xFFFF) << 8; sp = (sp + 2) & 0xFFFF;");
+    }
+
+    // Pares de registros por índice: bc, de, hl, sp
+    private static String pair(int index) {
+        switch (index) {
+            case 0: return "((b << 8) | c)";
+            case 1: return "((d << 8) | e)";
+            case 2: return HL;
+            default: return "sp";
+        }
+    }
+
+    private void setPair(int index, String value) {
+        if (index == 3) {
+            line("sp = " + value + ";");
+            set("sp");
+        } else {
+            String high = R8[index * 2];
+            String low = R8[index * 2 + 1];
+            line("{ int v = " + value + "; " + high + " = v >> 8; " + low + " = v & 0xFF; }");
+            set(high, low);
+        }
+    }
+
+    private void set(String... names) {
+        for (String name : names) {
+            for (int k = 0; k < LOCALS.length; k++) {
+                if (LOCALS[k].equals(name)) {
+                    modified[k] = true;
+                }
+            }
+        }
+    }
+
+    private void line(String text) {
+        code.append("            ").append(text).append('\n');
+    }
+
+    private static String hex(int value) {
+        return String.format("0x%04X", value);
+    }
+}